@@ -0,0 +1,24 @@
+-- iCalフィードの年別アーカイブ区間（ical_feed_archive_segments）
+--   フィードを「直近の期間は毎回描画、それより前は年ごとに一度だけ描画して保存した区間を流す」
+--   ローリング方式（app.ical.history-mode=rolling）で使う。全期間方式（既定）では使わない。
+--
+--   1行 = (選手, フィード種別, 年) の VEVENT 列（折り返し済みの iCalendar テキスト）。
+--   feed_key は所属団体カレンダーが 'org-<団体ID>'、ゲスト参加カレンダーが 'guest'。
+--   作成後は書き換えない。過去年の参加・練習日・会場・団体名・所属が変わった場合は
+--   IcalFeedVersionService が該当選手の行を削除し、次の描画で作り直す。
+--   登録は描画の起点にした players.ical_feed_version がまだ最新の場合だけ行う
+--   （描画中の変更で削除された区間を、変更前の内容で作り直さないため）。
+--
+-- 本番 Render PostgreSQL への適用必須（entity 変更と同一 PR・CLAUDE.md 最重要ルール）。
+CREATE TABLE IF NOT EXISTS ical_feed_archive_segments (
+    id BIGSERIAL PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    feed_key VARCHAR(32) NOT NULL,
+    segment_year INTEGER NOT NULL,
+    content TEXT NOT NULL,
+    event_count INTEGER NOT NULL,
+    created_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_ical_feed_archive_segments_key UNIQUE (player_id, feed_key, segment_year)
+);
+
+-- 一意制約の先頭列 player_id が選手単位の削除にもそのまま使われるため、別索引は張らない。
@@ -0,0 +1,62 @@
+-- 通知送信キュー（トランザクショナル・アウトボックス）
+--   LINE / Web Push の送信を業務トランザクション内で1行として登録し、送信ワーカー
+--   （NotificationOutboxDispatcher）が非同期に取り出して送る。LINE API や Push エンドポイントが
+--   遅くても Webhook 処理や5分間隔のスケジューラを塞がないようにするため。
+--
+--   status は line_message_log の送信権予約と同じ語彙を使う。
+--     RESERVED: 送信待ち（取り出し中を含む）
+--     SUCCESS : 送信成功
+--     FAILED  : リトライ上限到達・宛先チャネル消失などで確定失敗
+--
+--   next_attempt_at は「次に取り出してよい時刻」。取り出し時にリース期限（2分後）まで進めるため、
+--   ワーカーが途中で落ちた行は期限後に別のワーカーが拾い直す。失敗時は指数バックオフで進める。
+--
+--   send_right_reserved = TRUE の行は、登録前に tryAcquireSendRight で line_message_log に
+--   RESERVED 行を確保済み。送信結果の確定時にその予約行を SUCCESS / FAILED に更新する。
+--
+--   payload は LINE ならメッセージ配列、Web Push なら {title, body, url} の JSON。
+--   チャネルアクセストークンは保存せず、送信時に line_channels から引き直す。
+--
+--   channel = 'LINE_GROUP' は LINE グループ宛の全体配信（札分けのフォールバック push）。
+--   宛先プレイヤーを持たない（player_id は NULL）。line_user_id に LINE グループID を入れ、
+--   送信結果は line_message_log ではなく line_broadcast_send の (broadcast_group_id, session_id) に確定させる。
+--
+--   retry_key は LINE の X-Line-Retry-Key。登録時に採番し、すべての試行で同じ値を送る
+--   （受理済みの送信を再送すると LINE は 409 を返し、送信ワーカーはそれを送信成功として確定する）。
+--   複数行を1回の Push / Multicast にまとめて送る場合は、送信前に先頭行の retry_key を全行へ書き込む。
+--   同じ retry_key を持つ行は以後も必ず同じ組み合わせ（同じ本文）で送るため、取り出し時にまとめて取り出す。
+--
+-- 本番 Render PostgreSQL への適用必須（entity 変更と同一 PR・CLAUDE.md 最重要ルール）。
+CREATE TABLE IF NOT EXISTS notification_outbox (
+    id BIGSERIAL PRIMARY KEY,
+    channel VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    player_id BIGINT,
+    line_channel_id BIGINT,
+    line_user_id VARCHAR(100),
+    notification_type VARCHAR(50) NOT NULL,
+    payload TEXT NOT NULL,
+    log_text TEXT,
+    dedupe_key VARCHAR(100),
+    retry_key VARCHAR(36),
+    broadcast_group_id BIGINT,
+    session_id BIGINT,
+    send_right_reserved BOOLEAN NOT NULL DEFAULT FALSE,
+    attempt_count INTEGER NOT NULL DEFAULT 0,
+    next_attempt_at TIMESTAMP NOT NULL,
+    last_error TEXT,
+    created_at TIMESTAMP NOT NULL,
+    completed_at TIMESTAMP,
+    CONSTRAINT notification_outbox_channel_check CHECK (channel IN ('LINE', 'LINE_GROUP', 'WEB_PUSH')),
+    CONSTRAINT notification_outbox_status_check CHECK (status IN ('RESERVED', 'SUCCESS', 'FAILED'))
+);
+
+-- 送信待ちの取り出し用（status = 'RESERVED' AND next_attempt_at <= now）
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_due ON notification_outbox (status, next_attempt_at);
+
+-- 完了済み行の定期削除用
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_completed ON notification_outbox (completed_at);
+
+-- 同じ retry_key の送信待ち行をまとめて取り出す用
+CREATE INDEX IF NOT EXISTS idx_notification_outbox_retry_key ON notification_outbox (retry_key)
+    WHERE status = 'RESERVED';
@@ -0,0 +1,32 @@
+-- 選手別の対戦成績集計表（player_match_stats）
+--   級別統計（MatchService#getPlayerStatisticsByRank）が選手の全試合を読み込み、
+--   試合ごとに対戦相手を引いて集計していたのを、月単位の集計行の読み出しに置き換える。
+--
+--   1行 = (選手, 対戦月, 対戦相手の対戦時の級, 対戦相手の性別, 対戦相手の利き手, 指導試合か) ごとの
+--   試合数・勝数・敗数。引き分け（winner_id = 0）は試合数のみに数える。
+--   未登録の対戦相手（player2_id = 0）との試合は統計の対象外のため行を作らない。
+--
+--   match_month は対戦月の1日。級・性別・利き手が未設定の場合は NULL ではなく空文字を入れる
+--   （一意制約と ON CONFLICT で NULL 同士が別物として扱われないようにするため）。
+--
+--   試合の登録・更新・削除時に PlayerMatchStatsService が同じトランザクション内で増減する。
+--   既存データはアプリ起動時に表が空なら全件から構築し、以後も毎日AM4:45に作り直す。
+--
+-- 本番 Render PostgreSQL への適用必須（entity 変更と同一 PR・CLAUDE.md 最重要ルール）。
+CREATE TABLE IF NOT EXISTS player_match_stats (
+    id BIGSERIAL PRIMARY KEY,
+    player_id BIGINT NOT NULL,
+    match_month DATE NOT NULL,
+    opponent_kyu_rank VARCHAR(10) NOT NULL DEFAULT '',
+    opponent_gender VARCHAR(10) NOT NULL DEFAULT '',
+    opponent_dominant_hand VARCHAR(10) NOT NULL DEFAULT '',
+    is_lesson BOOLEAN NOT NULL DEFAULT FALSE,
+    match_count INTEGER NOT NULL DEFAULT 0,
+    win_count INTEGER NOT NULL DEFAULT 0,
+    loss_count INTEGER NOT NULL DEFAULT 0,
+    updated_at TIMESTAMP NOT NULL,
+    CONSTRAINT uq_player_match_stats_key UNIQUE
+        (player_id, match_month, opponent_kyu_rank, opponent_gender, opponent_dominant_hand, is_lesson)
+);
+
+-- 一意制約の先頭列 (player_id, match_month) がそのまま「選手×期間」の読み出しに使われるため、別索引は張らない。
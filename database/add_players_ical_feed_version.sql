@@ -0,0 +1,13 @@
+-- iCalフィードの版番号（players.ical_feed_version / ical_feed_updated_at）
+--   購読クライアント（Google / Apple カレンダー）のポーリングに ETag / Last-Modified で 304 を返し、
+--   変化の無いフィードは描画せずに済ませるための列。
+--
+--   フィードの内容（参加・練習日・会場・会場スケジュール・団体名・所属・カレンダー表示名）が変わると
+--   IcalFeedVersionService がコミット後に該当選手の ical_feed_version を +1 し、
+--   ical_feed_updated_at に更新時刻を入れる。既存行は 0 / 適用時刻から始める。
+--
+-- 本番 Render PostgreSQL への適用必須（entity 変更と同一 PR・CLAUDE.md 最重要ルール）。
+ALTER TABLE players ADD COLUMN IF NOT EXISTS ical_feed_version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE players ADD COLUMN IF NOT EXISTS ical_feed_updated_at TIMESTAMP;
+
+UPDATE players SET ical_feed_updated_at = NOW() WHERE ical_feed_updated_at IS NULL;
@@ -541,6 +541,8 @@ export default function LotteryManagement() {
                 <span>{notifyResult.inAppCount}件</span>
                 <span>LINE送信成功:</span>
                 <span>{notifyResult.lineSent}名</span>
+                <span>LINE送信受付（送信待ち）:</span>
+                <span>{notifyResult.lineQueued ?? 0}名</span>
                 <span>LINE送信失敗:</span>
                 <span>{notifyResult.lineFailed}名</span>
                 <span>LINEスキップ:</span>
@@ -13,7 +13,7 @@ export default function MatchCommentThread({ matchId, menteeId }) {
   const [editContent, setEditContent] = useState('');
   const [error, setError] = useState(null);
   const [notifying, setNotifying] = useState(false);
-  const [notifySuccess, setNotifySuccess] = useState(false);
+  const [notifySuccess, setNotifySuccess] = useState(null);
   const messagesContainerRef = useRef(null);
   const textareaRef = useRef(null);
   const navTimerRef = useRef(null);
@@ -103,10 +103,11 @@ export default function MatchCommentThread({ matchId, menteeId }) {
       setError(null);
       const res = await matchCommentsAPI.sendNotification(matchId, menteeId);
       const result = res.data?.result;
-      if (result === 'SUCCESS') {
-        setNotifySuccess(true);
+      if (result === 'SUCCESS' || result === 'QUEUED') {
+        // QUEUED は送信キューに登録済み（実際の送信はサーバーが後で行う）
+        setNotifySuccess(result === 'SUCCESS' ? 'LINE通知を送信しました' : 'LINE通知の送信を受け付けました');
         await fetchComments();
-        setTimeout(() => setNotifySuccess(false), 3000);
+        setTimeout(() => setNotifySuccess(null), 3000);
       } else if (result === 'SKIPPED') {
         setError('LINE通知を送信できませんでした（LINE未連携・通知設定OFF・月間上限超過の可能性があります）');
       } else {
@@ -259,7 +260,7 @@ export default function MatchCommentThread({ matchId, menteeId }) {
         </div>
       )}
       {notifySuccess && (
-        <div className="text-sm text-green-600 text-right px-3 pt-1">LINE通知を送信しました</div>
+        <div className="text-sm text-green-600 text-right px-3 pt-1">{notifySuccess}</div>
       )}
 
       {/* 投稿フォーム */}
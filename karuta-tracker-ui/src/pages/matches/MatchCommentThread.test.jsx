@@ -130,6 +130,22 @@ describe('MatchCommentThread LINE通知', () => {
     expect(matchCommentsAPI.sendNotification).toHaveBeenCalledWith(1, 1);
   });
 
+  it('QUEUED時に受付メッセージが表示される', async () => {
+    const user = userEvent.setup();
+    matchCommentsAPI.sendNotification.mockResolvedValue({ data: { result: 'QUEUED' } });
+    renderWithComments();
+
+    await vi.waitFor(() => {
+      expect(screen.getByText('LINE通知を送信（2件）')).toBeInTheDocument();
+    });
+
+    await user.click(screen.getByText('LINE通知を送信（2件）'));
+
+    await vi.waitFor(() => {
+      expect(screen.getByText('LINE通知の送信を受け付けました')).toBeInTheDocument();
+    });
+  });
+
   it('SKIPPED時にエラーメッセージが表示される', async () => {
     const user = userEvent.setup();
     matchCommentsAPI.sendNotification.mockResolvedValue({ data: { result: 'SKIPPED' } });
@@ -0,0 +1,85 @@
+package com.karuta.matchtracker.service;
+
+import org.jsoup.Jsoup;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 伝助ページのパース比較（DOM 全体を構築 vs ストリーミングで1行ずつ処理）。
+ *
+ * <p>合成ページは3択ページのヘッダー + 「メンバー列 × 日程行」の出欠表。メンバー列が数百ある
+ * 大規模ページでの1回あたりの割り当て量を比べるため、GC プロファイラ付きで実行し
+ * {@code gc.alloc.rate.norm}（B/op）を見る。
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=DensukeParserBenchmark -Pjmh.profilers=gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class DensukeParserBenchmark {
+
+    public enum ParserMode { DOM, STREAMING }
+
+    @Param({"50", "300"})
+    int members;
+
+    @Param({"60"})
+    int rows;
+
+    @Param({"DOM", "STREAMING"})
+    ParserMode mode;
+
+    private String html;
+    private DensukeScraper scraper;
+
+    @Setup
+    public void setUp() {
+        StringBuilder sb = new StringBuilder("<html><body><table class=\"listtbl\"><tr><td>&nbsp;</td>")
+                .append("<td>○</td><td>△</td><td>×</td>");
+        for (int m = 0; m < members; m++) {
+            sb.append("<td nowrap><a href=\"javascript:memberdata(").append(1000 + m)
+                    .append(");\" title=\"4/1 12:00\">メンバー").append(m).append("</a></td>");
+        }
+        sb.append("</tr>");
+        for (int r = 0; r < rows; r++) {
+            int day = r / 3 + 1;
+            String label = r % 3 == 0
+                    ? "4/" + day + "(土)すずらん 1試合目 17:20~"
+                    : (r % 3 + 1) + "試合目";
+            sb.append("<tr><td nowrap>").append(label).append("</td><td></td><td></td><td></td>");
+            for (int m = 0; m < members; m++) {
+                String cell = switch ((m + r) % 4) {
+                    case 0 -> "<div class=\"col3\">○</div>";
+                    case 1 -> "<div class=\"col2\">△</div>";
+                    case 2 -> "<div class=\"col1\">×</div>";
+                    default -> "<div class=\"col0\">-</div>";
+                };
+                sb.append("<td><div align=\"center\">").append(cell).append("</div></td>");
+            }
+            sb.append("</tr>");
+        }
+        html = sb.append("</table></body></html>").toString();
+        scraper = new DensukeScraper();
+    }
+
+    @Benchmark
+    public DensukeScraper.DensukeData parse() throws IOException {
+        if (mode == ParserMode.STREAMING) {
+            try (StreamParser streamer = new StreamParser(Parser.htmlParser()).parse(html, "")) {
+                return scraper.parseStreaming(streamer, 2026);
+            }
+        }
+        return scraper.parse(Jsoup.parse(html), 2026);
+    }
+}
@@ -0,0 +1,101 @@
+package com.karuta.matchtracker.service;
+
+import biweekly.Biweekly;
+import biweekly.ICalVersion;
+import biweekly.ICalendar;
+import biweekly.component.VEvent;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * iCal フィードの書き出し比較（Biweekly でカレンダー全体を組み立てて文字列化 vs IcsStreamWriter で1件ずつ流す）。
+ *
+ * <p>イベント数が数千件ある長い履歴の選手を想定。ストリーミング側は出力先を捨てる
+ * {@link OutputStream#nullOutputStream()} に書くため、1回あたりの割り当て量がそのまま
+ * 描画中に抱える量の目安になる。GC プロファイラ付きで実行し {@code gc.alloc.rate.norm}（B/op）を見る。
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=IcalFeedBenchmark -Pjmh.profilers=gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class IcalFeedBenchmark {
+
+    public enum WriterMode { BIWEEKLY, STREAMING }
+
+    @Param({"500", "5000"})
+    int events;
+
+    @Param({"BIWEEKLY", "STREAMING"})
+    WriterMode mode;
+
+    private List<IcsStreamWriter.Event> source;
+
+    @Setup
+    public void setUp() {
+        source = new ArrayList<>(events);
+        LocalDate first = LocalDate.of(2010, 1, 1);
+        for (int i = 0; i < events; i++) {
+            LocalDate date = first.plusDays(i);
+            source.add(new IcsStreamWriter.Event(
+                    "session-" + i + "-player-1@match-tracker",
+                    "テスト団体＠テスト会場" + (i % 7),
+                    "テスト会場" + (i % 7),
+                    "試合数: 1〜" + (i % 5 + 1) + "試合",
+                    date,
+                    date.atTime(13, 0),
+                    date.atTime(17, 20)));
+        }
+    }
+
+    @Benchmark
+    public Object write() throws IOException {
+        if (mode == WriterMode.STREAMING) {
+            IcsStreamWriter writer = new IcsStreamWriter(OutputStream.nullOutputStream(), Instant.now());
+            writer.beginCalendar("-//bench//iCal Feed//JP", "テスト団体");
+            for (IcsStreamWriter.Event event : source) {
+                writer.writeEvent(event);
+            }
+            writer.endCalendar();
+            writer.flush();
+            return writer.eventCount();
+        }
+        ICalendar ical = new ICalendar();
+        ical.setProductId("-//bench//iCal Feed//JP");
+        ical.addExperimentalProperty("X-WR-CALNAME", "テスト団体");
+        for (IcsStreamWriter.Event e : source) {
+            VEvent event = new VEvent();
+            event.setUid(e.uid());
+            event.setSummary(e.summary());
+            event.setLocation(e.location());
+            event.setDescription(e.description());
+            event.setDateStart(toDate(e.start()), true);
+            event.setDateEnd(toDate(e.end()), true);
+            ical.addEvent(event);
+        }
+        return Biweekly.write(ical).version(ICalVersion.V2_0)
+                .tz(TimeZone.getTimeZone(JstDateTimeUtil.JST), true).go();
+    }
+
+    private static Date toDate(LocalDateTime dateTime) {
+        return Date.from(dateTime.atZone(JstDateTimeUtil.JST).toInstant());
+    }
+}
@@ -0,0 +1,184 @@
+package com.karuta.matchtracker.service;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 応募超過の試合1つ分の抽選（{@code LotteryService#selectFromPool} と同じ「プールが空になるまで引く」ループ）の比較。
+ * 当選日を epoch day の昇順配列で持つ {@link LotteryFairShareTracker} と、
+ * 以前の「当選日リストを毎回線形走査する」実装（{@link ListScanTracker}）を並べる。
+ *
+ * <p>過去30日ぶんの当選履歴（1人あたり {@code pastWins} 件）を積んだトラッカーを1回ごとに作り直し、
+ * 1引きごとに全候補の todayTaken を見て最小の候補から {@code pickWeighted} で1人選ぶ。
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=LotteryFairShareBenchmark -Pjmh.profilers=gc</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class LotteryFairShareBenchmark {
+
+    public enum TrackerImpl { LIST_SCAN, INDEXED }
+
+    private static final LocalDate SESSION_DATE = LocalDate.of(2026, 7, 31);
+
+    @Param({"40", "150"})
+    int applicants;
+
+    @Param({"20"})
+    int pastWins;
+
+    @Param({"LIST_SCAN", "INDEXED"})
+    TrackerImpl impl;
+
+    private long[][] history;
+    private List<Long> pool;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(42L);
+        history = new long[applicants][pastWins];
+        pool = new ArrayList<>(applicants);
+        for (int i = 0; i < applicants; i++) {
+            pool.add((long) i + 1);
+            for (int w = 0; w < pastWins; w++) {
+                history[i][w] = SESSION_DATE.minusDays(1 + rng.nextInt(40)).toEpochDay();
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Long> drawMatch() {
+        Random rng = new Random(7L);
+        if (impl == TrackerImpl.INDEXED) {
+            LotteryFairShareTracker tracker = new LotteryFairShareTracker();
+            seed(tracker::recordWin);
+            return drawAll(tracker::todayTaken, (ids, p) -> tracker.pickWeighted(ids, SESSION_DATE, p, rng),
+                    tracker::recordWin);
+        }
+        ListScanTracker tracker = new ListScanTracker();
+        seed(tracker::recordWin);
+        return drawAll(tracker::todayTaken, (ids, p) -> tracker.pickWeighted(ids, SESSION_DATE, p, rng),
+                tracker::recordWin);
+    }
+
+    private void seed(Recorder recorder) {
+        for (int i = 0; i < applicants; i++) {
+            for (long day : history[i]) {
+                recorder.recordWin(pool.get(i), LocalDate.ofEpochDay(day));
+            }
+        }
+    }
+
+    /** 同日に2試合目を引く状況にするため、当選者には当日の当選を積む（todayTaken の絞り込みが効く） */
+    private List<Long> drawAll(Counter todayTaken, Picker picker, Recorder recorder) {
+        List<Long> working = new ArrayList<>(pool);
+        List<Long> order = new ArrayList<>(working.size());
+        int seats = working.size() / 2;
+        while (!working.isEmpty()) {
+            int minToday = Integer.MAX_VALUE;
+            int[] today = new int[working.size()];
+            for (int i = 0; i < today.length; i++) {
+                today[i] = todayTaken.count(working.get(i), SESSION_DATE);
+                minToday = Math.min(minToday, today[i]);
+            }
+            List<Long> candidates = new ArrayList<>();
+            for (int i = 0; i < today.length; i++) {
+                if (today[i] == minToday) {
+                    candidates.add(working.get(i));
+                }
+            }
+            Long chosen = candidates.size() == 1 ? candidates.get(0) : picker.pick(candidates, 30);
+            working.remove(chosen);
+            if (order.size() < seats) {
+                recorder.recordWin(chosen, SESSION_DATE);
+            }
+            order.add(chosen);
+        }
+        return order;
+    }
+
+    @FunctionalInterface
+    private interface Recorder {
+        void recordWin(Long playerId, LocalDate date);
+    }
+
+    @FunctionalInterface
+    private interface Counter {
+        int count(Long playerId, LocalDate date);
+    }
+
+    @FunctionalInterface
+    private interface Picker {
+        Long pick(List<Long> candidateIds, int capPercentile);
+    }
+
+    /** 比較用: 以前の実装（選手ごとの当選日リストを毎回線形走査する） */
+    static final class ListScanTracker {
+
+        private final Map<Long, List<LocalDate>> winDates = new HashMap<>();
+
+        void recordWin(Long playerId, LocalDate sessionDate) {
+            winDates.computeIfAbsent(playerId, k -> new ArrayList<>()).add(sessionDate);
+        }
+
+        int todayTaken(Long playerId, LocalDate sessionDate) {
+            int count = 0;
+            for (LocalDate d : winDates.getOrDefault(playerId, List.of())) {
+                if (d.isEqual(sessionDate)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        int recentTaken(Long playerId, LocalDate sessionDate) {
+            LocalDate from = sessionDate.minusDays(LotteryFairShareTracker.RECENT_WINDOW_DAYS);
+            int count = 0;
+            for (LocalDate d : winDates.getOrDefault(playerId, List.of())) {
+                if (!d.isBefore(from) && d.isBefore(sessionDate)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        Long pickWeighted(List<Long> candidatePlayerIds, LocalDate sessionDate, int capPercentile, Random rng) {
+            int n = candidatePlayerIds.size();
+            int[] recent = new int[n];
+            for (int i = 0; i < n; i++) {
+                recent[i] = recentTaken(candidatePlayerIds.get(i), sessionDate);
+            }
+            int cap = LotteryFairShareTracker.computeCap(recent, capPercentile);
+            double[] weights = new double[n];
+            double total = 0.0;
+            for (int i = 0; i < n; i++) {
+                weights[i] = LotteryFairShareTracker.weightOf(recent[i], cap);
+                total += weights[i];
+            }
+            double r = rng.nextDouble() * total;
+            double acc = 0.0;
+            for (int i = 0; i < n; i++) {
+                acc += weights[i];
+                if (r < acc) {
+                    return candidatePlayerIds.get(i);
+                }
+            }
+            return candidatePlayerIds.get(n - 1);
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 1か月分の抽選結果の書き込み比較（1行ずつの UPDATE を JDBC バッチで送る従来経路 vs
+ * {@link LotteryResultWriter} の {@code UPDATE ... FROM (VALUES ...)}）。
+ *
+ * <p>往復回数とロック保持時間を見るため、実際の PostgreSQL に接続して測る（接続先は
+ * アプリと同じ {@code DB_URL} / {@code DB_USERNAME} / {@code DB_PASSWORD}）。
+ * 参加者テーブルと同じ列を持つ一時テーブルに「練習日 × 試合 × 応募者」を投入し、
+ * 毎回 WON / WAITLISTED を振り直して1トランザクションで書き込む。
+ * 従来経路は Hibernate の {@code jdbc.batch_size=50} に合わせて 50 行ごとに executeBatch する
+ * （Hibernate は全列を UPDATE するため、実際の従来経路はこれより重い）。
+ *
+ * <pre>DB_URL=jdbc:postgresql://localhost:5432/karuta_tracker ./gradlew jmh -Pjmh.includes=LotteryResultWriteBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class LotteryResultWriteBenchmark {
+
+    public enum WriteMode { ROW_BATCH, BULK }
+
+    /** Hibernate の spring.jpa.properties.hibernate.jdbc.batch_size と同じ */
+    private static final int HIBERNATE_BATCH_SIZE = 50;
+
+    @Param({"20"})
+    int sessions;
+
+    @Param({"3"})
+    int matchesPerSession;
+
+    @Param({"40", "120"})
+    int applicantsPerMatch;
+
+    @Param({"ROW_BATCH", "BULK"})
+    WriteMode mode;
+
+    private Connection connection;
+    private List<Long> participantIds;
+    private List<LotteryResultWriter.Assignment> assignments;
+    private final Random rng = new Random(42L);
+
+    @Setup(Level.Trial)
+    public void setUp() throws SQLException {
+        connection = DriverManager.getConnection(
+                env("DB_URL", "jdbc:postgresql://localhost:5432/karuta_tracker"),
+                env("DB_USERNAME", "karuta"),
+                env("DB_PASSWORD", "karuta123"));
+        try (Statement st = connection.createStatement()) {
+            // 本番テーブルを触らないよう、同じ列を持つ一時テーブルに差し替える（search_path 上で優先される）
+            st.execute("CREATE TEMP TABLE practice_participants ("
+                    + "id BIGSERIAL PRIMARY KEY, session_id BIGINT NOT NULL, player_id BIGINT NOT NULL, "
+                    + "match_number INTEGER, status VARCHAR(20) NOT NULL, waitlist_number INTEGER, "
+                    + "lottery_id BIGINT, dirty BOOLEAN NOT NULL, updated_at TIMESTAMP NOT NULL)");
+            st.execute("INSERT INTO practice_participants "
+                    + "(session_id, player_id, match_number, status, dirty, updated_at) "
+                    + "SELECT s, (s * 1000 + a) % 300, m, 'PENDING', FALSE, now() "
+                    + "FROM generate_series(1, " + sessions + ") s, "
+                    + "generate_series(1, " + matchesPerSession + ") m, "
+                    + "generate_series(1, " + applicantsPerMatch + ") a");
+            st.execute("ANALYZE practice_participants");
+        }
+        participantIds = new ArrayList<>();
+        try (Statement st = connection.createStatement();
+             var rs = st.executeQuery("SELECT id FROM practice_participants ORDER BY id")) {
+            while (rs.next()) {
+                participantIds.add(rs.getLong(1));
+            }
+        }
+        connection.setAutoCommit(false);
+    }
+
+    /** 毎回ランダムに当落を振り直す（抽選処理そのものは測らない） */
+    @Setup(Level.Invocation)
+    public void drawLottery() {
+        assignments = new ArrayList<>(participantIds.size());
+        int capacity = applicantsPerMatch * 2 / 3;
+        long lotteryId = rng.nextInt(1_000_000);
+        for (int i = 0; i < participantIds.size(); i++) {
+            int rank = i % applicantsPerMatch;
+            boolean won = rank < capacity;
+            assignments.add(new LotteryResultWriter.Assignment(participantIds.get(i), null, null,
+                    won ? ParticipantStatus.WON : ParticipantStatus.WAITLISTED,
+                    won ? null : rank - capacity + 1, lotteryId));
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        connection.close();
+    }
+
+    @Benchmark
+    public int write() throws SQLException {
+        int updated = mode == WriteMode.BULK ? writeBulk() : writeRowBatch();
+        connection.commit();
+        return updated;
+    }
+
+    private int writeBulk() throws SQLException {
+        LocalDateTime now = LocalDateTime.now();
+        int updated = 0;
+        for (int from = 0; from < assignments.size(); from += LotteryResultWriter.ROWS_PER_STATEMENT) {
+            List<LotteryResultWriter.Assignment> chunk = assignments.subList(from,
+                    Math.min(from + LotteryResultWriter.ROWS_PER_STATEMENT, assignments.size()));
+            try (PreparedStatement ps = connection.prepareStatement(LotteryResultWriter.updateSql(chunk.size()))) {
+                Object[] args = LotteryResultWriter.updateArgs(chunk, now);
+                for (int i = 0; i < args.length; i++) {
+                    ps.setObject(i + 1, args[i]);
+                }
+                updated += ps.executeUpdate();
+            }
+        }
+        return updated;
+    }
+
+    private int writeRowBatch() throws SQLException {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = 0;
+        try (PreparedStatement ps = connection.prepareStatement(
+                "UPDATE practice_participants SET status = ?, waitlist_number = ?, lottery_id = ?, "
+                        + "dirty = TRUE, updated_at = ? WHERE id = ?")) {
+            int pending = 0;
+            for (LotteryResultWriter.Assignment a : assignments) {
+                ps.setString(1, a.status().name());
+                ps.setObject(2, a.waitlistNumber(), Types.INTEGER);
+                ps.setLong(3, a.lotteryId());
+                ps.setTimestamp(4, now);
+                ps.setLong(5, a.participantId());
+                ps.addBatch();
+                if (++pending == HIBERNATE_BATCH_SIZE) {
+                    updated += sum(ps.executeBatch());
+                    pending = 0;
+                }
+            }
+            if (pending > 0) {
+                updated += sum(ps.executeBatch());
+            }
+        }
+        return updated;
+    }
+
+    private static int sum(int[] counts) {
+        int total = 0;
+        for (int c : counts) {
+            total += c;
+        }
+        return total;
+    }
+
+    private static String env(String name, String defaultValue) {
+        String value = System.getenv(name);
+        return value != null && !value.isBlank() ? value : defaultValue;
+    }
+}
@@ -0,0 +1,224 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import org.slf4j.LoggerFactory;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.IntStream;
+
+/**
+ * 抽選の公平性シミュレーション（DB・Spring 非依存）。
+ *
+ * <p>合成した母集団（N人・Mセッション・1セッションK試合・応募超過率）に対し、本番と同じ
+ * {@link LotteryService#processMatch} と {@link LotteryFairShareTracker} で月の抽選をシード数だけ回し、
+ * キャップのパーセンタイル（{@code lottery_weight_cap_percentile}）ごとに公平性と処理時間を出す。
+ * <ul>
+ *   <li>当選率の分散・ジニ係数: 選手ごとの「当選数 / 応募数」のばらつき（小さいほど公平）</li>
+ *   <li>最大連続落選: 選手ごとに応募順で数えた連続落選の最長（1回の実行での最大。平均と最悪）</li>
+ *   <li>処理時間: 1回（1か月分）の抽選にかかった時間と、全体のスループット</li>
+ * </ul>
+ * 母集団（誰がどの試合に応募するか）は {@code --population-seed} だけで決まり、抽選シードは 0..seeds-1。
+ * 各実行は独立なので fork-join プールで並列に回しても結果は同じになる。
+ *
+ * <pre>./gradlew lotterySimulation -Psim.args="--players=120 --sessions=12 --ratio=1.5 --seeds=2000 --caps=0,30,50,100"</pre>
+ */
+public final class LotterySimulation {
+
+    private static final LocalDate FIRST_SESSION = LocalDate.of(2026, 1, 5);
+    private static final Set<Long> NO_PRIORITY = Set.of();
+
+    private final int players;
+    private final int sessions;
+    private final int matchesPerSession;
+    private final int capacity;
+    // [セッション][試合] -> 応募した選手番号（昇順）
+    private final int[][][] applications;
+
+    record RunResult(double winRateVariance, double gini, int maxConsecutiveLosses, long nanos) {
+    }
+
+    LotterySimulation(int players, int sessions, int matchesPerSession, double oversubscription, long populationSeed) {
+        this.players = players;
+        this.sessions = sessions;
+        this.matchesPerSession = matchesPerSession;
+        Random rng = new Random(populationSeed);
+        // 選手ごとの応募しやすさ（毎回来る人〜たまに来る人）
+        double[] propensity = new double[players];
+        double expected = 0.0;
+        for (int i = 0; i < players; i++) {
+            propensity[i] = 0.2 + 0.8 * rng.nextDouble();
+            expected += propensity[i];
+        }
+        this.capacity = Math.max(1, (int) Math.round(expected / oversubscription));
+        this.applications = new int[sessions][matchesPerSession][];
+        for (int s = 0; s < sessions; s++) {
+            for (int m = 0; m < matchesPerSession; m++) {
+                int[] applied = new int[players];
+                int n = 0;
+                for (int i = 0; i < players; i++) {
+                    if (rng.nextDouble() < propensity[i]) {
+                        applied[n++] = i;
+                    }
+                }
+                applications[s][m] = Arrays.copyOf(applied, n);
+            }
+        }
+    }
+
+    /** 1か月分を1つのシードで抽選する（本番の順次実行と同じく、全セッションで1つの Random を共有） */
+    RunResult run(long seed, int capPercentile) {
+        long start = System.nanoTime();
+        LotteryFairShareTracker tracker = new LotteryFairShareTracker();
+        Random random = new Random(seed);
+        int[] applied = new int[players];
+        int[] won = new int[players];
+        int[] streak = new int[players];
+        int maxStreak = 0;
+        long participantId = 1;
+        for (int s = 0; s < sessions; s++) {
+            PracticeSession session = PracticeSession.builder()
+                    .id((long) s + 1)
+                    .organizationId(1L)
+                    .sessionDate(FIRST_SESSION.plusDays(3L * s + s / 2))
+                    .capacity(capacity)
+                    .build();
+            for (int m = 0; m < matchesPerSession; m++) {
+                List<PracticeParticipant> applicants = new ArrayList<>(applications[s][m].length);
+                for (int player : applications[s][m]) {
+                    applicants.add(PracticeParticipant.builder()
+                            .id(participantId++)
+                            .sessionId(session.getId())
+                            .playerId((long) player)
+                            .matchNumber(m + 1)
+                            .status(ParticipantStatus.PENDING)
+                            .build());
+                }
+                LotteryService.processMatch(session, m + 1, applicants, null, tracker, capPercentile,
+                        NO_PRIORITY, SeatOccupancyService.SessionSeats.EMPTY, results -> { }, random);
+                for (PracticeParticipant p : applicants) {
+                    int player = p.getPlayerId().intValue();
+                    applied[player]++;
+                    if (p.getStatus() == ParticipantStatus.WON) {
+                        won[player]++;
+                        streak[player] = 0;
+                    } else {
+                        maxStreak = Math.max(maxStreak, ++streak[player]);
+                    }
+                }
+            }
+        }
+        long nanos = System.nanoTime() - start;
+
+        double[] rates = new double[players];
+        int n = 0;
+        for (int i = 0; i < players; i++) {
+            if (applied[i] > 0) {
+                rates[n++] = (double) won[i] / applied[i];
+            }
+        }
+        rates = Arrays.copyOf(rates, n);
+        return new RunResult(variance(rates), gini(rates), maxStreak, nanos);
+    }
+
+    static double variance(double[] values) {
+        if (values.length == 0) {
+            return 0.0;
+        }
+        double mean = Arrays.stream(values).average().orElse(0.0);
+        double sum = 0.0;
+        for (double v : values) {
+            sum += (v - mean) * (v - mean);
+        }
+        return sum / values.length;
+    }
+
+    /** ジニ係数（0 = 全員同じ当選率）。値は非負前提 */
+    static double gini(double[] values) {
+        int n = values.length;
+        if (n == 0) {
+            return 0.0;
+        }
+        double[] sorted = values.clone();
+        Arrays.sort(sorted);
+        double total = 0.0;
+        double weighted = 0.0;
+        for (int i = 0; i < n; i++) {
+            total += sorted[i];
+            weighted += (i + 1) * sorted[i];
+        }
+        if (total == 0.0) {
+            return 0.0;
+        }
+        return 2.0 * weighted / (n * total) - (n + 1.0) / n;
+    }
+
+    public static void main(String[] args) {
+        Map<String, String> options = parse(args);
+        int players = Integer.parseInt(options.getOrDefault("players", "120"));
+        int sessions = Integer.parseInt(options.getOrDefault("sessions", "12"));
+        int matches = Integer.parseInt(options.getOrDefault("matches", "3"));
+        double ratio = Double.parseDouble(options.getOrDefault("ratio", "1.5"));
+        int seeds = Integer.parseInt(options.getOrDefault("seeds", "1000"));
+        long populationSeed = Long.parseLong(options.getOrDefault("population-seed", "1"));
+        int parallelism = Integer.parseInt(options.getOrDefault("parallelism",
+                String.valueOf(Runtime.getRuntime().availableProcessors())));
+        int[] caps = Arrays.stream(options.getOrDefault("caps", "0,30,50,100").split(","))
+                .mapToInt(c -> Integer.parseInt(c.trim())).toArray();
+
+        // processMatch は試合ごとに INFO を出す。数千回分の出力で計測が歪まないよう抑える
+        if (LoggerFactory.getLogger(LotteryService.class) instanceof ch.qos.logback.classic.Logger logger) {
+            logger.setLevel(ch.qos.logback.classic.Level.WARN);
+        }
+
+        LotterySimulation simulation = new LotterySimulation(players, sessions, matches, ratio, populationSeed);
+        System.out.printf("players=%d sessions=%d matches=%d capacity=%d ratio=%.2f seeds=%d population-seed=%d parallelism=%d%n",
+                players, sessions, matches, simulation.capacity, ratio, seeds, populationSeed, parallelism);
+        System.out.printf("%5s %12s %8s %14s %14s %10s %10s%n",
+                "cap", "var(rate)", "gini", "maxLoss(avg)", "maxLoss(worst)", "ms/run", "runs/s");
+
+        ForkJoinPool pool = new ForkJoinPool(parallelism);
+        try {
+            for (int cap : caps) {
+                long wallStart = System.nanoTime();
+                List<RunResult> results = pool.submit(() -> IntStream.range(0, seeds).parallel()
+                        .mapToObj(seed -> simulation.run(seed, cap))
+                        .toList()).join();
+                long wallNanos = System.nanoTime() - wallStart;
+
+                double variance = results.stream().mapToDouble(RunResult::winRateVariance).average().orElse(0);
+                double gini = results.stream().mapToDouble(RunResult::gini).average().orElse(0);
+                double lossAvg = results.stream().mapToInt(RunResult::maxConsecutiveLosses).average().orElse(0);
+                int lossWorst = results.stream().mapToInt(RunResult::maxConsecutiveLosses).max().orElse(0);
+                double msPerRun = results.stream().mapToLong(RunResult::nanos).average().orElse(0) / 1e6;
+                double runsPerSecond = seeds / (wallNanos / 1e9);
+                System.out.printf("%5d %12.6f %8.4f %14.2f %14d %10.3f %10.1f%n",
+                        cap, variance, gini, lossAvg, lossWorst, msPerRun, runsPerSecond);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /** {@code --name=value} 形式の引数 */
+    private static Map<String, String> parse(String[] args) {
+        Map<String, String> options = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--") || !arg.contains("=")) {
+                throw new IllegalArgumentException("Expected --name=value but got: " + arg);
+            }
+            int eq = arg.indexOf('=');
+            options.put(arg.substring(2, eq), arg.substring(eq + 1));
+        }
+        return options;
+    }
+}
@@ -0,0 +1,69 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.AutoMatchingRequest;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 自動組み合わせエンジンの比較（貪欲法 vs 最大重みマッチング）。
+ *
+ * <p>スコア分布は本番の {@code calculatePairScore} に合わせ、未対戦(0) / 30日以内の対戦
+ * {@code -(100 / daysAgo)} / 前回練習日ペナルティ(-1000) / 同日既出（組めない）を混在させる。
+ * 行列の構築コストも含めて測るため、各呼び出しでスコア関数から行列を作り直す。
+ *
+ * <pre>./gradlew jmh -Pjmh.includes=PairingEngineBenchmark</pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PairingEngineBenchmark {
+
+    @Param({"20", "60", "200"})
+    int players;
+
+    @Param({"GREEDY", "OPTIMAL"})
+    AutoMatchingRequest.Engine engine;
+
+    private double[][] scores;
+    private PairingEngine pairingEngine;
+
+    @Setup
+    public void setUp() {
+        Random rng = new Random(42L);
+        scores = new double[players][players];
+        for (int i = 0; i < players; i++) {
+            for (int j = i + 1; j < players; j++) {
+                int kind = rng.nextInt(20);
+                double s;
+                if (kind == 0) {
+                    s = PairScoreMatrix.FORBIDDEN;
+                } else if (kind == 1) {
+                    s = -1000.0 - 100.0 / (1 + rng.nextInt(30));
+                } else if (kind < 8) {
+                    s = -(100.0 / (1 + rng.nextInt(30)));
+                } else {
+                    s = 0.0;
+                }
+                scores[i][j] = s;
+                scores[j][i] = s;
+            }
+        }
+        pairingEngine = PairingEngine.of(engine);
+    }
+
+    @Benchmark
+    public List<int[]> pair() {
+        PairScoreMatrix matrix = PairScoreMatrix.build(players, (i, j) -> scores[i][j]);
+        return pairingEngine.pair(matrix);
+    }
+}
@@ -37,6 +37,18 @@ public class VenueReservationProxyConfig {
     /** 会場サイトへのリクエストタイムアウト (秒) */
     private int requestTimeoutSeconds = 30;
 
+    /** 会場ごとの会場サイトへの同時接続数の上限 */
+    private int maxConnections = 32;
+
+    /** 会場ごと・接続先 (scheme + host + port) ごとの同時接続数の上限 */
+    private int maxConnectionsPerRoute = 16;
+
+    /** この秒数使われていない会場サイトへの接続を閉じる */
+    private int idleConnectionSeconds = 30;
+
+    /** HTML を DOM を組まずに1回の前方走査で書き換えるか (false なら従来の DOM 版) */
+    private boolean streamingRewrite = false;
+
     /** 会場別設定 (キー: kaderu / higashi) */
     private Map<String, VenueProperties> venues = new HashMap<>();
 
@@ -8,7 +8,7 @@ import com.karuta.matchtracker.entity.ParticipantStatus;
 import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.service.NotificationService;
 import com.karuta.matchtracker.service.OrganizationService;
-import com.karuta.matchtracker.service.PracticeParticipantService;
+import com.karuta.matchtracker.service.ParticipationRateAggregator;
 import com.karuta.matchtracker.service.PracticeSessionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -32,7 +32,7 @@ import java.util.List;
 public class HomeController {
 
     private final PracticeSessionService practiceSessionService;
-    private final PracticeParticipantService practiceParticipantService;
+    private final ParticipationRateAggregator participationRateAggregator;
     private final NotificationService notificationService;
     private final PracticeParticipantRepository participantRepository;
     private final OrganizationService organizationService;
@@ -44,14 +44,14 @@ public class HomeController {
         // 次の参加予定練習（なければnull）
         NextParticipationDto nextPractice = practiceSessionService.findNextParticipation(playerId);
 
-        // 参加率（団体別）— 月間データを1回だけロードして全グループを導出（グループ数に依存しないクエリ数）
+        // 参加率（団体別）— 団体×月の集計（GROUP BY 射影・短時間キャッシュ）から top3 と自分の参加率を引く
         LocalDate now = JstDateTimeUtil.today();
         int year = now.getYear();
         int month = now.getMonthValue();
 
         List<OrganizationDto> playerOrgs = organizationService.getPlayerOrganizations(playerId);
         List<ParticipationGroupDto> participationGroups =
-                practiceParticipantService.getParticipationGroups(playerId, year, month, playerOrgs);
+                participationRateAggregator.getParticipationGroups(playerId, year, month, playerOrgs);
 
         // 未読通知数
         long unreadCount = notificationService.getUnreadCount(playerId);
@@ -2,14 +2,18 @@ package com.karuta.matchtracker.controller;
 
 import com.karuta.matchtracker.exception.ResourceNotFoundException;
 import com.karuta.matchtracker.service.IcalCalendarFeedService;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.http.MediaType;
-import org.springframework.http.ResponseEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+
+import java.io.IOException;
 
 /**
  * iCalフィード公開エンドポイント
@@ -18,6 +22,10 @@ import org.springframework.web.bind.annotation.RestController;
  * 推測困難な ical_feed_token がアクセス制御の役割を果たす。
  *
  * パスが /ical/... のため WebConfig のインターセプター対象 (/api/**) からは外れる。
+ *
+ * 購読クライアントは1日に何度もポーリングするため、版番号から ETag / Last-Modified を返し、
+ * 変化が無ければフィードを描画せず 304 を返す。
+ * フィード本体はレスポンスの出力ストリームへ直接書く（長い履歴でも全体をメモリに載せない）。
  */
 @RestController
 @RequestMapping("/ical/calendar")
@@ -28,28 +36,49 @@ public class IcalCalendarFeedController {
     private final IcalCalendarFeedService icalCalendarFeedService;
 
     @GetMapping(value = "/{token}/org/{orgId}.ics", produces = "text/calendar;charset=UTF-8")
-    public ResponseEntity<String> getOrgFeed(@PathVariable String token, @PathVariable Long orgId) {
+    public void getOrgFeed(@PathVariable String token, @PathVariable Long orgId,
+                           WebRequest request, HttpServletResponse response) throws IOException {
         try {
-            String ics = icalCalendarFeedService.generateIcsForOrgFeed(token, orgId);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"))
-                    .body(ics);
+            IcalCalendarFeedService.FeedStamp stamp = icalCalendarFeedService.resolveFeedStamp(token);
+            if (request.checkNotModified(stamp.etag(), stamp.lastModifiedMillis())) {
+                return;
+            }
+            prepareOk(stamp, response);
+            icalCalendarFeedService.writeOrgFeed(stamp, orgId, response.getOutputStream());
         } catch (ResourceNotFoundException ex) {
             log.debug("iCal org feed not found for token/orgId");
-            return ResponseEntity.notFound().build();
+            notFound(response);
         }
     }
 
     @GetMapping(value = "/{token}/guest.ics", produces = "text/calendar;charset=UTF-8")
-    public ResponseEntity<String> getGuestFeed(@PathVariable String token) {
+    public void getGuestFeed(@PathVariable String token, WebRequest request,
+                             HttpServletResponse response) throws IOException {
         try {
-            String ics = icalCalendarFeedService.generateIcsForGuestFeed(token);
-            return ResponseEntity.ok()
-                    .contentType(MediaType.parseMediaType("text/calendar;charset=UTF-8"))
-                    .body(ics);
+            IcalCalendarFeedService.FeedStamp stamp = icalCalendarFeedService.resolveFeedStamp(token);
+            if (request.checkNotModified(stamp.etag(), stamp.lastModifiedMillis())) {
+                return;
+            }
+            prepareOk(stamp, response);
+            icalCalendarFeedService.writeGuestFeed(stamp, response.getOutputStream());
         } catch (ResourceNotFoundException ex) {
             log.debug("iCal guest feed token not found");
-            return ResponseEntity.notFound().build();
+            notFound(response);
         }
     }
+
+    private void prepareOk(IcalCalendarFeedService.FeedStamp stamp, HttpServletResponse response) {
+        response.setStatus(HttpStatus.OK.value());
+        response.setContentType("text/calendar;charset=UTF-8");
+        response.setHeader(HttpHeaders.ETAG, stamp.etag());
+        if (stamp.lastModifiedMillis() >= 0) {
+            response.setDateHeader(HttpHeaders.LAST_MODIFIED, stamp.lastModifiedMillis());
+        }
+    }
+
+    /** 所属チェックは書き出し前に行われるため、ヘッダだけ差し替えて 404 にできる */
+    private void notFound(HttpServletResponse response) {
+        response.reset();
+        response.setStatus(HttpStatus.NOT_FOUND.value());
+    }
 }
@@ -763,6 +763,7 @@ public class LotteryController {
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("inAppCount", inAppCount);
         result.put("lineSent", lineResult.getSentPlayerCount());
+        result.put("lineQueued", lineResult.getQueuedPlayerCount());
         result.put("lineFailed", lineResult.getFailedPlayerCount());
         result.put("lineSkipped", lineResult.getSkippedPlayerCount());
         return ResponseEntity.ok(result);
@@ -809,6 +810,7 @@ public class LotteryController {
         Map<String, Object> result = new LinkedHashMap<>();
         result.put("inAppCount", inAppCount);
         result.put("lineSent", lineResult.getSentPlayerCount());
+        result.put("lineQueued", lineResult.getQueuedPlayerCount());
         result.put("lineFailed", lineResult.getFailedPlayerCount());
         result.put("lineSkipped", lineResult.getSkippedPlayerCount());
         return ResponseEntity.ok(result);
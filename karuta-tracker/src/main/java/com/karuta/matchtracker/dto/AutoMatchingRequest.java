@@ -29,6 +29,24 @@ public class AutoMatchingRequest {
      */
     private List<LockedPairInput> lockedPairs;
 
+    /**
+     * 組み合わせアルゴリズム（後方互換・nullable）。{@code null} は {@link Engine#OPTIMAL}。
+     */
+    private Engine engine;
+
+    /**
+     * 自動組み合わせのアルゴリズム選択。
+     *
+     * <ul>
+     *   <li>{@code OPTIMAL}: 組めるペア数を最大化したうえでスコア合計を最大化する（最大重みマッチング）。</li>
+     *   <li>{@code GREEDY}: 従来の貪欲法（最高スコアの1組を順に確定していく）。</li>
+     * </ul>
+     */
+    public enum Engine {
+        OPTIMAL,
+        GREEDY
+    }
+
     /**
      * 再シャッフル時に保持する組（手動ロック）を表すクライアント入力。
      * 未保存の組も含まれ得るため DB 行の有無に依存しない（選手IDのペアで指定する）。
@@ -10,7 +10,10 @@ import lombok.*;
 @AllArgsConstructor
 @Builder
 public class LineSendResultResponse {
+    /** LINE API への送信まで完了した人数 */
     private int sentPlayerCount;
+    /** 送信キューに登録した人数（送信は送信ワーカーが後で行う） */
+    private int queuedPlayerCount;
     private int failedPlayerCount;
     private int skippedPlayerCount;
 }
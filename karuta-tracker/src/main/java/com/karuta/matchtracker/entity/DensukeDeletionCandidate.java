@@ -12,6 +12,7 @@ import java.time.LocalDateTime;
  * 承認されるまでは何もデータを変更しない（欠番方式・totalMatches は変更しない）。
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "densuke_deletion_candidates", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"densuke_url_id", "session_date", "match_number"})
 })
@@ -0,0 +1,36 @@
+package com.karuta.matchtracker.entity;
+
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+/**
+ * 派生データ（iCal フィードの版番号・参加率の集計・カレンダーの月間サマリー）に関わるエンティティの登録・更新・削除を
+ * {@link EntityChangedEvent} として発行する JPA エンティティリスナー。
+ *
+ * <p>Hibernate は Spring Boot が設定する {@code SpringBeanContainer} 経由でリスナーを生成するため、
+ * 発行先はコンストラクタで受け取る。通知先は {@code @EventListener} で必要なエンティティだけ拾う。
+ * イベントは同期で、変更を flush したスレッド（トランザクション）の中で届く。
+ * JPQL / ネイティブの一括更新はエンティティを経由しないため通知されない。その経路の呼び出し元は
+ * 通知先へ直接知らせること。
+ */
+public class EntityChangeListener {
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public EntityChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onChange(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, false));
+    }
+
+    @PostRemove
+    void onRemove(Object entity) {
+        eventPublisher.publishEvent(new EntityChangedEvent(entity, true));
+    }
+}
@@ -0,0 +1,10 @@
+package com.karuta.matchtracker.entity;
+
+/**
+ * エンティティの登録・更新・削除の通知（{@link EntityChangeListener} が発行する）。
+ *
+ * @param entity  変更後（削除なら削除時点）のエンティティ
+ * @param removed 削除なら true
+ */
+public record EntityChangedEvent(Object entity, boolean removed) {
+}
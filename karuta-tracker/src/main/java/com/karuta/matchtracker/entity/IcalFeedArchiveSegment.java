@@ -0,0 +1,54 @@
+package com.karuta.matchtracker.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import java.time.LocalDateTime;
+
+/**
+ * iCalフィードの年別アーカイブ区間エンティティ
+ *
+ * (選手, フィード種別, 年) ごとに、その年の VEVENT 列を折り返し済みの iCalendar テキストで持つ。
+ * ローリング方式のフィードで、直近の期間より前の年はこの区間をそのまま流す。
+ * 作成後は書き換えず、元データが変わった場合は {@code IcalFeedVersionService} が行ごと削除する。
+ */
+@Entity
+@Table(name = "ical_feed_archive_segments",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uq_ical_feed_archive_segments_key",
+            columnNames = {"player_id", "feed_key", "segment_year"})
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class IcalFeedArchiveSegment {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    /**
+     * フィード種別（所属団体カレンダーは 'org-<団体ID>'、ゲスト参加カレンダーは 'guest'）
+     */
+    @Column(name = "feed_key", nullable = false, length = 32)
+    private String feedKey;
+
+    @Column(name = "segment_year", nullable = false)
+    private Integer segmentYear;
+
+    /**
+     * その年の VEVENT 列（折り返し・CRLF 済み）
+     */
+    @Column(name = "content", nullable = false, columnDefinition = "TEXT")
+    private String content;
+
+    @Column(name = "event_count", nullable = false)
+    private Integer eventCount;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
@@ -0,0 +1,136 @@
+package com.karuta.matchtracker.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import java.time.LocalDateTime;
+
+/**
+ * 通知送信キュー（トランザクショナル・アウトボックス）エンティティ
+ *
+ * LINE（個人宛・グループ宛）/ Web Push の送信要求を業務トランザクション内で1行として登録し、
+ * {@code NotificationOutboxDispatcher} が非同期に取り出して送信する。
+ * ステータスは送信ログ（line_message_log）の送信権予約と同じ RESERVED / SUCCESS / FAILED を使う。
+ */
+@Entity
+@Table(name = "notification_outbox", indexes = {
+    @Index(name = "idx_notification_outbox_due", columnList = "status, next_attempt_at"),
+    @Index(name = "idx_notification_outbox_completed", columnList = "completed_at")
+})
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NotificationOutbox {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    /** 送信経路 */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "channel", nullable = false, length = 20)
+    private OutboxChannel channel;
+
+    /** ステータス */
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private OutboxStatus status;
+
+    /** 宛先プレイヤーID（LINE グループ宛は null） */
+    @Column(name = "player_id")
+    private Long playerId;
+
+    /** LINEチャネルID（LINE のみ。トークンは送信時に引き直す） */
+    @Column(name = "line_channel_id")
+    private Long lineChannelId;
+
+    /** 宛先の LINE ユーザーID（LINE グループ宛は LINE グループID） */
+    @Column(name = "line_user_id", length = 100)
+    private String lineUserId;
+
+    /** 全体配信の配信グループID（LINE グループ宛のみ。line_broadcast_send の確定に使う） */
+    @Column(name = "broadcast_group_id")
+    private Long broadcastGroupId;
+
+    /** 全体配信の対象セッションID（LINE グループ宛のみ） */
+    @Column(name = "session_id")
+    private Long sessionId;
+
+    /** 通知種別（LINE・LINE グループ宛は LineNotificationType、Web Push は NotificationType の名前） */
+    @Column(name = "notification_type", nullable = false, length = 50)
+    private String notificationType;
+
+    /** 送信内容（LINE はメッセージ配列、Web Push は title/body/url の JSON） */
+    @Column(name = "payload", nullable = false, columnDefinition = "TEXT")
+    private String payload;
+
+    /** 送信ログに記録する本文 */
+    @Column(name = "log_text", columnDefinition = "TEXT")
+    private String logText;
+
+    /** 重複排除キー（送信ログの dedupe_key と同じ値） */
+    @Column(name = "dedupe_key", length = 100)
+    private String dedupeKey;
+
+    /**
+     * LINE の X-Line-Retry-Key（LINE・LINE グループ宛）。登録時に採番し、再送でも同じ値を送るため
+     * タイムアウト後に LINE 側で受理済みだった送信は 409 で弾かれ、二重に届かない。
+     * 複数行を1リクエストにまとめて送った行は同じ値を持ち、以後も必ず同じ組み合わせで送る。
+     */
+    @Column(name = "retry_key", length = 36)
+    private String retryKey;
+
+    /** 登録前に tryAcquireSendRight で送信権（RESERVED ログ）を確保済みか */
+    @Column(name = "send_right_reserved", nullable = false)
+    @Builder.Default
+    private Boolean sendRightReserved = false;
+
+    /** 取り出し回数 */
+    @Column(name = "attempt_count", nullable = false)
+    @Builder.Default
+    private Integer attemptCount = 0;
+
+    /** 次に取り出してよい日時（取り出し中はリース期限を兼ねる） */
+    @Column(name = "next_attempt_at", nullable = false)
+    private LocalDateTime nextAttemptAt;
+
+    /** 直近の失敗内容 */
+    @Column(name = "last_error", columnDefinition = "TEXT")
+    private String lastError;
+
+    /** 登録日時 */
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    /** 完了日時（SUCCESS / FAILED 確定時） */
+    @Column(name = "completed_at")
+    private LocalDateTime completedAt;
+
+    @PrePersist
+    protected void onCreate() {
+        LocalDateTime now = JstDateTimeUtil.now();
+        if (createdAt == null) {
+            createdAt = now;
+        }
+        if (nextAttemptAt == null) {
+            nextAttemptAt = now;
+        }
+    }
+
+    public enum OutboxChannel {
+        LINE,
+        /** LINE グループへの全体配信（札分けのフォールバック push）。結果は line_broadcast_send に確定させる */
+        LINE_GROUP,
+        WEB_PUSH
+    }
+
+    public enum OutboxStatus {
+        /** 送信待ち（取り出し中を含む） */
+        RESERVED,
+        SUCCESS,
+        /** リトライ上限到達・宛先消失などで確定失敗 */
+        FAILED
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
  * 団体エンティティ
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "organizations")
 @Getter
 @Setter
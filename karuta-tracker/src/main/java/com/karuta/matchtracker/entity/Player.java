@@ -137,6 +137,21 @@ public class Player {
     @Column(name = "ical_feed_token", nullable = false, unique = true, length = 64)
     private String icalFeedToken;
 
+    /**
+     * iCalフィードの版番号
+     * フィードの内容が変わるたびに IcalFeedVersionService が一括 UPDATE で +1 する（ETag に使う）。
+     * エンティティ保存で巻き戻さないよう、JPA からは読み取り専用
+     */
+    @Column(name = "ical_feed_version", nullable = false, insertable = false, updatable = false,
+            columnDefinition = "BIGINT NOT NULL DEFAULT 0")
+    private Long icalFeedVersion;
+
+    /**
+     * iCalフィードの内容が最後に変わった日時（Last-Modified に使う）。JPA からは読み取り専用
+     */
+    @Column(name = "ical_feed_updated_at", insertable = false, updatable = false)
+    private LocalDateTime icalFeedUpdatedAt;
+
     private static final SecureRandom ICAL_FEED_TOKEN_RANDOM = new SecureRandom();
     private static final HexFormat ICAL_FEED_TOKEN_HEX = HexFormat.of();
 
@@ -0,0 +1,82 @@
+package com.karuta.matchtracker.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 選手別の対戦成績集計エンティティ
+ *
+ * (選手, 対戦月, 対戦相手の対戦時の級・性別・利き手, 指導試合か) ごとの試合数・勝数・敗数。
+ * 級別統計はこの行を期間で読み出して合算する。試合の登録・更新・削除に合わせて
+ * {@code PlayerMatchStatsService} が増減し、定期的に全件から作り直す。
+ * 級・性別・利き手が未設定の場合は空文字（一意制約で NULL が別物扱いされないため）。
+ */
+@Entity
+@Table(name = "player_match_stats",
+    uniqueConstraints = {
+        @UniqueConstraint(name = "uq_player_match_stats_key",
+            columnNames = {"player_id", "match_month", "opponent_kyu_rank", "opponent_gender",
+                "opponent_dominant_hand", "is_lesson"})
+    })
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class PlayerMatchStat {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "player_id", nullable = false)
+    private Long playerId;
+
+    /**
+     * 対戦月（月の1日）
+     */
+    @Column(name = "match_month", nullable = false)
+    private LocalDate matchMonth;
+
+    /**
+     * 対戦相手の対戦時の級位（Player.KyuRank の名前。未設定は空文字）
+     */
+    @Column(name = "opponent_kyu_rank", nullable = false, length = 10)
+    private String opponentKyuRank;
+
+    /**
+     * 対戦相手の性別（Player.Gender の名前。未設定は空文字）
+     */
+    @Column(name = "opponent_gender", nullable = false, length = 10)
+    private String opponentGender;
+
+    /**
+     * 対戦相手の利き手（Player.DominantHand の名前。未設定は空文字）
+     */
+    @Column(name = "opponent_dominant_hand", nullable = false, length = 10)
+    private String opponentDominantHand;
+
+    @Column(name = "is_lesson", nullable = false)
+    private Boolean isLesson;
+
+    @Column(name = "match_count", nullable = false)
+    private Integer matchCount;
+
+    @Column(name = "win_count", nullable = false)
+    private Integer winCount;
+
+    @Column(name = "loss_count", nullable = false)
+    private Integer lossCount;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onSave() {
+        updatedAt = JstDateTimeUtil.now();
+    }
+}
@@ -9,6 +9,7 @@ import java.time.LocalDateTime;
  * ユーザーと団体の紐づけエンティティ
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "player_organizations", uniqueConstraints = {
     @UniqueConstraint(columnNames = {"player_id", "organization_id"})
 })
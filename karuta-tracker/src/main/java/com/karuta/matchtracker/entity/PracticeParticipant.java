@@ -12,6 +12,7 @@ import java.time.LocalDate;
  * どの練習日にどの選手が参加したかを記録します。
  */
 @Entity
+@EntityListeners({PracticeParticipantChangeListener.class, EntityChangeListener.class})
 @Table(name = "practice_participants",
     indexes = {
         @Index(name = "idx_participant_session", columnList = "session_id"),
@@ -130,6 +131,15 @@ public class PracticeParticipant {
     @Column(name = "updated_at", nullable = false)
     private LocalDateTime updatedAt;
 
+    /**
+     * 読み込み時（または直近のフラッシュ時）の枠。永続化しない。
+     * {@link PracticeParticipantChangeListener} が変更前後の差分を出すのに使う。
+     */
+    @Transient
+    @Getter(AccessLevel.PACKAGE)
+    @Setter(AccessLevel.PACKAGE)
+    private PracticeParticipantChangeListener.Seat syncedSeat;
+
     /**
      * エンティティ保存前の処理
      */
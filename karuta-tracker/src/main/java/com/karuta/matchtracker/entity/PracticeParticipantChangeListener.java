@@ -0,0 +1,74 @@
+package com.karuta.matchtracker.entity;
+
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.ApplicationEventPublisher;
+
+import java.util.Objects;
+
+/**
+ * 練習参加者の登録・試合番号/ステータス変更・削除を、枠ごとの人数の差分（{@link SeatDelta}）として発行する
+ * JPA エンティティリスナー。
+ *
+ * <p>変更前の枠は読み込み時・フラッシュ時にエンティティへ覚えさせ（{@link PracticeParticipant#getSyncedSeat}）、
+ * 更新時はそれとの差分（旧枠 -1・新枠 +1）を出す。変更前が分からない更新は {@link SeatUnknown} で知らせる。
+ * 生成・イベントの届き方は {@link EntityChangeListener} と同じ。
+ */
+public class PracticeParticipantChangeListener {
+
+    /** 参加者が数えられる枠（セッション × 試合番号 × ステータス） */
+    public record Seat(Long sessionId, Integer matchNumber, ParticipantStatus status) {
+
+        static Seat of(PracticeParticipant participant) {
+            return new Seat(participant.getSessionId(), participant.getMatchNumber(), participant.getStatus());
+        }
+    }
+
+    /** 枠の人数が {@code delta} 人変わった */
+    public record SeatDelta(Seat seat, int delta) {
+    }
+
+    /** 変更前の枠が分からない変更があった（そのセッションを読み直させる） */
+    public record SeatUnknown(Long sessionId) {
+    }
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    public PracticeParticipantChangeListener(ApplicationEventPublisher eventPublisher) {
+        this.eventPublisher = eventPublisher;
+    }
+
+    @PostLoad
+    void onLoad(PracticeParticipant participant) {
+        participant.setSyncedSeat(Seat.of(participant));
+    }
+
+    @PostPersist
+    void onPersist(PracticeParticipant participant) {
+        Seat seat = Seat.of(participant);
+        eventPublisher.publishEvent(new SeatDelta(seat, 1));
+        participant.setSyncedSeat(seat);
+    }
+
+    @PostUpdate
+    void onUpdate(PracticeParticipant participant) {
+        Seat before = participant.getSyncedSeat();
+        Seat after = Seat.of(participant);
+        if (before == null) {
+            eventPublisher.publishEvent(new SeatUnknown(after.sessionId()));
+        } else if (!before.equals(after)) {
+            eventPublisher.publishEvent(new SeatDelta(before, -1));
+            eventPublisher.publishEvent(new SeatDelta(after, 1));
+        }
+        participant.setSyncedSeat(after);
+    }
+
+    @PostRemove
+    void onRemove(PracticeParticipant participant) {
+        Seat seat = Objects.requireNonNullElseGet(participant.getSyncedSeat(), () -> Seat.of(participant));
+        eventPublisher.publishEvent(new SeatDelta(seat, -1));
+        participant.setSyncedSeat(null);
+    }
+}
@@ -13,6 +13,7 @@ import java.time.LocalTime;
  * 練習日とその日の予定試合数を管理します。
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "practice_sessions", indexes = {
     @Index(name = "idx_session_date", columnList = "session_date")
 }, uniqueConstraints = {
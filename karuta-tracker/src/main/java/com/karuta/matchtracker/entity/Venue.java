@@ -14,6 +14,7 @@ import java.time.LocalDateTime;
  * 練習会場エンティティ
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "venues")
 @Getter
 @Setter
@@ -13,6 +13,7 @@ import java.time.LocalTime;
  * 会場の試合時間割エンティティ
  */
 @Entity
+@EntityListeners(EntityChangeListener.class)
 @Table(name = "venue_match_schedules", uniqueConstraints = {
     @UniqueConstraint(name = "uk_venue_match", columnNames = {"venue_id", "match_number"})
 })
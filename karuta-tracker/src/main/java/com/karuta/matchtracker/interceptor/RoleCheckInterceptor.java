@@ -1,11 +1,11 @@
 package com.karuta.matchtracker.interceptor;
 
 import com.karuta.matchtracker.annotation.RequireRole;
-import com.karuta.matchtracker.entity.Player;
 import com.karuta.matchtracker.entity.Player.Role;
 import com.karuta.matchtracker.exception.ForbiddenException;
 import com.karuta.matchtracker.exception.UnauthorizedException;
 import com.karuta.matchtracker.service.AuthTokenService;
+import com.karuta.matchtracker.service.AuthTokenService.AuthenticatedPlayer;
 import com.karuta.matchtracker.util.BearerTokenExtractor;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
@@ -88,7 +88,7 @@ public class RoleCheckInterceptor implements HandlerInterceptor {
 
         // ---- 認証: トークンだけを根拠に本人を解決する ----
         String rawToken = BearerTokenExtractor.extract(request);
-        Player player = authTokenService.verify(rawToken)
+        AuthenticatedPlayer player = authTokenService.authenticate(rawToken)
                 .orElseThrow(() -> {
                     log.warn("Unauthenticated request to endpoint: {} {}",
                             request.getMethod(), request.getRequestURI());
@@ -96,25 +96,25 @@ public class RoleCheckInterceptor implements HandlerInterceptor {
                 });
 
         // ---- リクエスト属性の契約（供給元がトークンになっただけ） ----
-        request.setAttribute("currentUserId", player.getId());
-        request.setAttribute("currentUserRole", player.getRole().name());
-        if (player.getRole() == Role.ADMIN) {
-            request.setAttribute("adminOrganizationId", player.getAdminOrganizationId());
+        request.setAttribute("currentUserId", player.id());
+        request.setAttribute("currentUserRole", player.role().name());
+        if (player.role() == Role.ADMIN) {
+            request.setAttribute("adminOrganizationId", player.adminOrganizationId());
         }
 
         // ---- 認可: @RequireRole があればロールを検査する ----
         RequireRole requireRole = handlerMethod.getMethodAnnotation(RequireRole.class);
         if (requireRole != null) {
             Role[] requiredRoles = requireRole.value();
-            if (!Arrays.asList(requiredRoles).contains(player.getRole())) {
+            if (!Arrays.asList(requiredRoles).contains(player.role())) {
                 log.warn("Player {} with role '{}' attempted to access endpoint requiring one of: {} (URI: {})",
-                        player.getId(), player.getRole(), Arrays.toString(requiredRoles), request.getRequestURI());
+                        player.id(), player.role(), Arrays.toString(requiredRoles), request.getRequestURI());
                 throw new ForbiddenException("この操作を実行する権限がありません");
             }
         }
 
         log.debug("Player {} with role '{}' granted access to endpoint: {}",
-                player.getId(), player.getRole(), request.getRequestURI());
+                player.id(), player.role(), request.getRequestURI());
         return true;
     }
 
@@ -0,0 +1,116 @@
+package com.karuta.matchtracker.repository;
+
+import com.karuta.matchtracker.entity.IcalFeedArchiveSegment;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Optional;
+
+/**
+ * iCalフィードの年別アーカイブ区間リポジトリ
+ *
+ * <p>区間は作成後に書き換えない。並行した描画が同じ区間を作っても先勝ちにするため、
+ * 登録は {@code INSERT ... ON CONFLICT DO NOTHING} で行う。削除は元データの変更範囲ごとの
+ * ネイティブ DELETE（{@code IcalFeedVersionService} がコミット後に、版番号を進める UPDATE と同じ
+ * トランザクションで呼ぶ）。
+ */
+@Repository
+public interface IcalFeedArchiveSegmentRepository extends JpaRepository<IcalFeedArchiveSegment, Long> {
+
+    Optional<IcalFeedArchiveSegment> findByPlayerIdAndFeedKeyAndSegmentYear(Long playerId, String feedKey,
+                                                                           Integer segmentYear);
+
+    /**
+     * 選手の版番号が feedVersion のままなら区間を登録する（既にあれば何もしない）
+     *
+     * <p>選手の行を {@code FOR SHARE} で読むため、版番号を進めるトランザクションが未コミットなら
+     * その完了を待ってから版番号を比べ直す。版番号を進めた側の区間削除より後に古い区間が残ることはない。
+     *
+     * @return 登録した行数（0=既存、または版番号が進んでいる）
+     */
+    @Modifying
+    @Query(value = """
+        INSERT INTO ical_feed_archive_segments (player_id, feed_key, segment_year, content, event_count, created_at)
+        SELECT p.id, :feedKey, :segmentYear, :content, :eventCount, :now
+        FROM players p WHERE p.id = :playerId AND p.ical_feed_version = :feedVersion
+        FOR SHARE
+        ON CONFLICT (player_id, feed_key, segment_year) DO NOTHING
+        """, nativeQuery = true)
+    int insertIfCurrent(@Param("playerId") Long playerId,
+                        @Param("feedVersion") long feedVersion,
+                        @Param("feedKey") String feedKey,
+                        @Param("segmentYear") int segmentYear,
+                        @Param("content") String content,
+                        @Param("eventCount") int eventCount,
+                        @Param("now") LocalDateTime now);
+
+    /**
+     * 指定選手の全区間を削除する（所属・表示名の変更など、全年のイベント文面に関わる変更）
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ical_feed_archive_segments WHERE player_id IN (:playerIds)", nativeQuery = true)
+    int deleteByPlayerIds(@Param("playerIds") Collection<Long> playerIds);
+
+    /**
+     * 指定選手の、指定年の区間を削除する（削除された練習日。削除時点の日付から年を控えて渡す）
+     */
+    @Modifying
+    @Query(value = "DELETE FROM ical_feed_archive_segments WHERE player_id IN (:playerIds) AND segment_year = :segmentYear",
+            nativeQuery = true)
+    int deleteByPlayerIdsAndSegmentYear(@Param("playerIds") Collection<Long> playerIds,
+                                        @Param("segmentYear") int segmentYear);
+
+    /**
+     * 指定選手の、指定練習日の年の区間を削除する（参加レコードの変更。練習日がコミット後も残っている場合）
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM ical_feed_archive_segments
+        WHERE player_id IN (:playerIds)
+        AND segment_year IN (SELECT CAST(EXTRACT(YEAR FROM s.session_date) AS INTEGER)
+                             FROM practice_sessions s WHERE s.id IN (:sessionIds))
+        """, nativeQuery = true)
+    int deleteByPlayerIdsAndSessionYears(@Param("playerIds") Collection<Long> playerIds,
+                                         @Param("sessionIds") Collection<Long> sessionIds);
+
+    /**
+     * 指定練習日の参加者の、その練習日の年の区間を削除する（練習日の変更。削除された練習日は対象外）
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM ical_feed_archive_segments a
+        USING practice_participants pp, practice_sessions s
+        WHERE s.id IN (:sessionIds) AND pp.session_id = s.id
+        AND a.player_id = pp.player_id
+        AND a.segment_year = CAST(EXTRACT(YEAR FROM s.session_date) AS INTEGER)
+        """, nativeQuery = true)
+    int deleteBySessionIds(@Param("sessionIds") Collection<Long> sessionIds);
+
+    /**
+     * 指定会場の練習日に参加レコードを持つ選手の全区間を削除する（会場名・会場スケジュールの変更）
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM ical_feed_archive_segments
+        WHERE player_id IN (SELECT pp.player_id FROM practice_participants pp
+                            JOIN practice_sessions s ON s.id = pp.session_id WHERE s.venue_id IN (:venueIds))
+        """, nativeQuery = true)
+    int deleteByVenueIds(@Param("venueIds") Collection<Long> venueIds);
+
+    /**
+     * 指定団体の所属選手と、その団体の練習日に参加レコードを持つ選手の全区間を削除する（団体名の変更）
+     */
+    @Modifying
+    @Query(value = """
+        DELETE FROM ical_feed_archive_segments
+        WHERE player_id IN (SELECT po.player_id FROM player_organizations po WHERE po.organization_id IN (:organizationIds))
+        OR player_id IN (SELECT pp.player_id FROM practice_participants pp
+                         JOIN practice_sessions s ON s.id = pp.session_id WHERE s.organization_id IN (:organizationIds))
+        """, nativeQuery = true)
+    int deleteByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds);
+}
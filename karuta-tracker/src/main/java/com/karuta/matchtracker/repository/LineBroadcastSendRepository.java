@@ -10,6 +10,7 @@ import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 /**
  * 全体LINE配信ログ兼 dedupe リポジトリ。
@@ -96,6 +97,10 @@ public interface LineBroadcastSendRepository extends JpaRepository<LineBroadcast
     boolean existsByBroadcastGroupIdAndSessionIdAndStatusAndSentAtGreaterThanEqual(
             Long broadcastGroupId, Long sessionId, BroadcastStatus status, LocalDateTime since);
 
+    /** (グループ, セッション, bot) の直近の配信ログ（送信キューからの結果確定時に想定受信数を引き直す） */
+    Optional<LineBroadcastSend> findFirstByBroadcastGroupIdAndSessionIdAndLineChannelIdOrderByIdDesc(
+            Long broadcastGroupId, Long sessionId, Long lineChannelId);
+
     /** 配信ログ（新しい順・管理画面用） */
     List<LineBroadcastSend> findTop100ByBroadcastGroupIdOrderBySentAtDesc(Long broadcastGroupId);
 }
@@ -9,6 +9,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -26,6 +27,13 @@ public interface LineChannelAssignmentRepository extends JpaRepository<LineChann
     @Query("SELECT a FROM LineChannelAssignment a WHERE a.lineChannelId = :channelId AND a.status IN ('PENDING', 'LINKED') ORDER BY a.id DESC LIMIT 1")
     Optional<LineChannelAssignment> findActiveByChannelId(@Param("channelId") Long channelId);
 
+    /** 複数プレイヤーの指定用途・ステータスの割り当てを一括取得（同一プレイヤーの重複は新しい順に並ぶ） */
+    @Query("SELECT a FROM LineChannelAssignment a WHERE a.playerId IN :playerIds AND a.channelType = :channelType AND a.status IN :statuses ORDER BY a.id DESC")
+    List<LineChannelAssignment> findByPlayerIdInAndChannelTypeAndStatusIn(
+        @Param("playerIds") Collection<Long> playerIds,
+        @Param("channelType") ChannelType channelType,
+        @Param("statuses") List<AssignmentStatus> statuses);
+
     /** LINKED状態の割り当てをプレイヤーIDで取得（重複時は最新を返す） */
     @Query("SELECT a FROM LineChannelAssignment a WHERE a.playerId = :playerId AND a.status = :status ORDER BY a.id DESC LIMIT 1")
     Optional<LineChannelAssignment> findByPlayerIdAndStatus(@Param("playerId") Long playerId, @Param("status") AssignmentStatus status);
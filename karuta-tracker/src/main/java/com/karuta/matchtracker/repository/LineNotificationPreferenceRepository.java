@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -18,6 +19,9 @@ public interface LineNotificationPreferenceRepository extends JpaRepository<Line
     /** プレイヤーの通知設定を全団体分取得 */
     List<LineNotificationPreference> findByPlayerId(Long playerId);
 
+    /** 複数プレイヤーの通知設定を一括取得 */
+    List<LineNotificationPreference> findByPlayerIdIn(Collection<Long> playerIds);
+
     /** プレイヤーの団体別通知設定を取得 */
     Optional<LineNotificationPreference> findByPlayerIdAndOrganizationId(Long playerId, Long organizationId);
 
@@ -33,6 +33,12 @@ public interface MatchPairingRepository extends JpaRepository<MatchPairing, Long
      */
     boolean existsBySessionDateAndMatchNumber(LocalDate sessionDate, Integer matchNumber);
 
+    /**
+     * 全組み合わせの [sessionDate, player1Id, player2Id] を取得（ペア履歴索引の構築用）
+     */
+    @Query("SELECT mp.sessionDate, mp.player1Id, mp.player2Id FROM MatchPairing mp")
+    List<Object[]> findAllPairingHistory();
+
     /**
      * 指定選手リストの過去の組み合わせ履歴を取得（対戦履歴表示用）
      * @param participantIds 選手IDリスト
@@ -195,6 +195,12 @@ public interface MatchRepository extends JpaRepository<Match, Long> {
                                                     @Param("matchDate") LocalDate matchDate,
                                                     @Param("matchNumber") Integer matchNumber);
 
+    /**
+     * 登録済み選手同士の全試合の [matchDate, player1Id, player2Id] を取得（ペア履歴索引の構築用）
+     */
+    @Query("SELECT m.matchDate, m.player1Id, m.player2Id FROM Match m WHERE m.player2Id <> 0")
+    List<Object[]> findAllMatchHistory();
+
     /**
      * 過去の対戦履歴を取得（自動マッチング用）
      *
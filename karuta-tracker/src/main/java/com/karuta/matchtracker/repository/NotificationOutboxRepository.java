@@ -0,0 +1,64 @@
+package com.karuta.matchtracker.repository;
+
+import com.karuta.matchtracker.entity.NotificationOutbox;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxChannel;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxStatus;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * 通知送信キューリポジトリ
+ */
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    /**
+     * 取り出し期限が来た送信待ち行を行ロック付きで取得する。
+     * 他インスタンス・他ワーカーがロック中の行は SKIP LOCKED で飛ばすため、同じ行を二重に取り出さない。
+     * 呼び出し側のトランザクション内で next_attempt_at をリース期限へ進めてからコミットすること。
+     */
+    @Query(value = """
+        SELECT * FROM notification_outbox
+        WHERE status = 'RESERVED'
+        AND next_attempt_at <= :now
+        ORDER BY next_attempt_at, id
+        LIMIT :limit
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<NotificationOutbox> lockDue(@Param("now") LocalDateTime now, @Param("limit") int limit);
+
+    /**
+     * 指定した retry_key を持つ送信待ち行のうち、ids 以外を行ロック付きで取得する。
+     * 同じ retry_key の行は1リクエストで送るため、{@link #lockDue} で一部だけ取り出した組の残りを
+     * 取り出し期限に関わらず同じバッチへ加えるのに使う。
+     */
+    @Query(value = """
+        SELECT * FROM notification_outbox
+        WHERE status = 'RESERVED'
+        AND retry_key IN (:retryKeys)
+        AND id NOT IN (:ids)
+        ORDER BY id
+        FOR UPDATE SKIP LOCKED
+        """, nativeQuery = true)
+    List<NotificationOutbox> lockSiblings(@Param("retryKeys") Collection<String> retryKeys,
+                                          @Param("ids") Collection<Long> ids);
+
+    /** 経路・ステータス別の件数（キュー滞留数メトリクス用） */
+    long countByChannelAndStatus(OutboxChannel channel, OutboxStatus status);
+
+    /** 完了済み（SUCCESS / FAILED）の古い行を削除する */
+    @Modifying
+    @Query("""
+        DELETE FROM NotificationOutbox o
+        WHERE o.status <> 'RESERVED'
+        AND o.completedAt < :cutoff
+        """)
+    int deleteCompletedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
@@ -0,0 +1,93 @@
+package com.karuta.matchtracker.repository;
+
+import com.karuta.matchtracker.entity.PlayerMatchStat;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 選手別の対戦成績集計リポジトリ
+ *
+ * <p>増減は {@code INSERT ... ON CONFLICT DO UPDATE} / {@code UPDATE} の1文で行い、同じ集計行への
+ * 並行した試合登録でも加算を取りこぼさない。呼び出し元（試合の登録・更新・削除）の永続化コンテキストを
+ * 壊さないよう、{@code clearAutomatically} は付けない。
+ */
+@Repository
+public interface PlayerMatchStatRepository extends JpaRepository<PlayerMatchStat, Long> {
+
+    /**
+     * 集計行に1試合分を加算する（行が無ければ作る）。
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        INSERT INTO player_match_stats (player_id, match_month, opponent_kyu_rank, opponent_gender,
+            opponent_dominant_hand, is_lesson, match_count, win_count, loss_count, updated_at)
+        VALUES (:playerId, :matchMonth, :kyuRank, :gender, :dominantHand, :isLesson, 1, :wins, :losses, :now)
+        ON CONFLICT (player_id, match_month, opponent_kyu_rank, opponent_gender, opponent_dominant_hand, is_lesson)
+        DO UPDATE SET match_count = player_match_stats.match_count + 1,
+            win_count = player_match_stats.win_count + EXCLUDED.win_count,
+            loss_count = player_match_stats.loss_count + EXCLUDED.loss_count,
+            updated_at = EXCLUDED.updated_at
+        """, nativeQuery = true)
+    int increment(@Param("playerId") Long playerId,
+                  @Param("matchMonth") LocalDate matchMonth,
+                  @Param("kyuRank") String kyuRank,
+                  @Param("gender") String gender,
+                  @Param("dominantHand") String dominantHand,
+                  @Param("isLesson") boolean isLesson,
+                  @Param("wins") int wins,
+                  @Param("losses") int losses,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * 集計行から1試合分を減算する。再構築との競合などで既に 0 の行は負にしない。
+     *
+     * @return 更新された行数（0=該当行なし）
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = """
+        UPDATE player_match_stats
+        SET match_count = GREATEST(0, match_count - 1),
+            win_count = GREATEST(0, win_count - :wins),
+            loss_count = GREATEST(0, loss_count - :losses),
+            updated_at = :now
+        WHERE player_id = :playerId
+        AND match_month = :matchMonth
+        AND opponent_kyu_rank = :kyuRank
+        AND opponent_gender = :gender
+        AND opponent_dominant_hand = :dominantHand
+        AND is_lesson = :isLesson
+        """, nativeQuery = true)
+    int decrement(@Param("playerId") Long playerId,
+                  @Param("matchMonth") LocalDate matchMonth,
+                  @Param("kyuRank") String kyuRank,
+                  @Param("gender") String gender,
+                  @Param("dominantHand") String dominantHand,
+                  @Param("isLesson") boolean isLesson,
+                  @Param("wins") int wins,
+                  @Param("losses") int losses,
+                  @Param("now") LocalDateTime now);
+
+    /**
+     * 選手の期間内の集計行を取得
+     *
+     * @param fromMonth 開始月（月の1日）
+     * @param toMonth   終了月（月の1日）
+     */
+    @Query("SELECT s FROM PlayerMatchStat s WHERE s.playerId = :playerId "
+            + "AND s.matchMonth BETWEEN :fromMonth AND :toMonth AND s.matchCount > 0")
+    List<PlayerMatchStat> findByPlayerIdAndMonthRange(@Param("playerId") Long playerId,
+                                                      @Param("fromMonth") LocalDate fromMonth,
+                                                      @Param("toMonth") LocalDate toMonth);
+
+    /** 選手の集計行をすべて削除する（選手単位の作り直し用） */
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM PlayerMatchStat s WHERE s.playerId = :playerId")
+    int deleteByPlayerId(@Param("playerId") Long playerId);
+}
@@ -4,10 +4,13 @@ import com.karuta.matchtracker.entity.Player;
 import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -122,4 +125,46 @@ public interface PlayerRepository extends JpaRepository<Player, Long> {
      */
     @Query("SELECT p FROM Player p WHERE p.icalFeedToken = :token AND p.deletedAt IS NULL")
     Optional<Player> findByIcalFeedTokenAndActive(@Param("token") String token);
+
+    /**
+     * 指定選手の iCal フィード版番号を進める
+     */
+    @Modifying
+    @Query(value = "UPDATE players SET ical_feed_version = ical_feed_version + 1, ical_feed_updated_at = :now "
+            + "WHERE id IN (:playerIds)", nativeQuery = true)
+    int bumpIcalFeedVersionByPlayerIds(@Param("playerIds") Collection<Long> playerIds,
+                                       @Param("now") LocalDateTime now);
+
+    /**
+     * 指定練習日に参加レコードを持つ選手の iCal フィード版番号を進める
+     */
+    @Modifying
+    @Query(value = "UPDATE players SET ical_feed_version = ical_feed_version + 1, ical_feed_updated_at = :now "
+            + "WHERE id IN (SELECT pp.player_id FROM practice_participants pp WHERE pp.session_id IN (:sessionIds))",
+            nativeQuery = true)
+    int bumpIcalFeedVersionBySessionIds(@Param("sessionIds") Collection<Long> sessionIds,
+                                        @Param("now") LocalDateTime now);
+
+    /**
+     * 指定会場の練習日に参加レコードを持つ選手の iCal フィード版番号を進める
+     */
+    @Modifying
+    @Query(value = "UPDATE players SET ical_feed_version = ical_feed_version + 1, ical_feed_updated_at = :now "
+            + "WHERE id IN (SELECT pp.player_id FROM practice_participants pp "
+            + "JOIN practice_sessions s ON s.id = pp.session_id WHERE s.venue_id IN (:venueIds))",
+            nativeQuery = true)
+    int bumpIcalFeedVersionByVenueIds(@Param("venueIds") Collection<Long> venueIds,
+                                      @Param("now") LocalDateTime now);
+
+    /**
+     * 指定団体の所属選手と、その団体の練習日に参加レコードを持つ選手の iCal フィード版番号を進める
+     */
+    @Modifying
+    @Query(value = "UPDATE players SET ical_feed_version = ical_feed_version + 1, ical_feed_updated_at = :now "
+            + "WHERE id IN (SELECT po.player_id FROM player_organizations po WHERE po.organization_id IN (:organizationIds)) "
+            + "OR id IN (SELECT pp.player_id FROM practice_participants pp "
+            + "JOIN practice_sessions s ON s.id = pp.session_id WHERE s.organization_id IN (:organizationIds))",
+            nativeQuery = true)
+    int bumpIcalFeedVersionByOrganizationIds(@Param("organizationIds") Collection<Long> organizationIds,
+                                             @Param("now") LocalDateTime now);
 }
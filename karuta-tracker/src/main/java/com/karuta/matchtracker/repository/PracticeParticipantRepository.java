@@ -2,6 +2,7 @@ package com.karuta.matchtracker.repository;
 
 import com.karuta.matchtracker.entity.ParticipantStatus;
 import com.karuta.matchtracker.entity.PracticeParticipant;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -184,13 +185,38 @@ public interface PracticeParticipantRepository extends JpaRepository<PracticePar
                                                          @Param("fromDate") LocalDate fromDate);
 
     /**
-     * 特定の選手が参加登録している全期間のセッションを、日付昇順で取得
+     * iCalフィード用: 選手の参加レコードを (練習日, セッションID, 参加者ID) 順に1ページ分取得する。
+     * 前ページ最終行の (練習日, セッションID, 参加者ID) より後ろから読むキーセットページング。
+     * 同じセッションの行は連続して返る。
+     *
+     * @param from 期間の開始日（含む）
+     * @param to   期間の終了日（含まない）
+     * @return [参加者ID(Long), セッションID(Long), 練習日(LocalDate), 試合番号(Integer, 抜け番は null)] の配列
      */
-    @Query("SELECT pp FROM PracticeParticipant pp " +
+    @Query("SELECT pp.id, pp.sessionId, ps.sessionDate, pp.matchNumber FROM PracticeParticipant pp " +
            "JOIN PracticeSession ps ON pp.sessionId = ps.id " +
-           "WHERE pp.playerId = :playerId " +
-           "ORDER BY ps.sessionDate ASC, pp.matchNumber ASC")
-    List<PracticeParticipant> findAllParticipationsByPlayer(@Param("playerId") Long playerId);
+           "WHERE pp.playerId = :playerId AND pp.status IN :statuses " +
+           "AND ps.sessionDate >= :from AND ps.sessionDate < :to " +
+           "AND (ps.sessionDate > :afterDate OR (ps.sessionDate = :afterDate AND " +
+           "(pp.sessionId > :afterSessionId OR (pp.sessionId = :afterSessionId AND pp.id > :afterId)))) " +
+           "ORDER BY ps.sessionDate ASC, pp.sessionId ASC, pp.id ASC")
+    List<Object[]> findIcalParticipationPage(@Param("playerId") Long playerId,
+                                             @Param("statuses") Collection<ParticipantStatus> statuses,
+                                             @Param("from") LocalDate from,
+                                             @Param("to") LocalDate to,
+                                             @Param("afterDate") LocalDate afterDate,
+                                             @Param("afterSessionId") Long afterSessionId,
+                                             @Param("afterId") Long afterId,
+                                             Pageable pageable);
+
+    /**
+     * iCalフィード用: 選手の参加レコードのうち最も古い練習日（無ければ null）
+     */
+    @Query("SELECT MIN(ps.sessionDate) FROM PracticeParticipant pp " +
+           "JOIN PracticeSession ps ON pp.sessionId = ps.id " +
+           "WHERE pp.playerId = :playerId AND pp.status IN :statuses")
+    LocalDate findEarliestIcalSessionDate(@Param("playerId") Long playerId,
+                                          @Param("statuses") Collection<ParticipantStatus> statuses);
 
     // ============================================================
     // 抽選システム用クエリ
@@ -226,6 +252,28 @@ public interface PracticeParticipantRepository extends JpaRepository<PracticePar
     long countBySessionIdAndMatchNumberAndStatus(
             Long sessionId, Integer matchNumber, ParticipantStatus status);
 
+    /**
+     * 複数セッションの (セッションID, 試合番号, ステータス) ごとの参加者数を1クエリで取得（試合別の枠取得状況用）。
+     * 試合番号が null（抜け番）の行は含めない。
+     *
+     * @return [sessionId(Long), matchNumber(Integer), status(ParticipantStatus), count(Long)] のリスト
+     */
+    @Query("SELECT p.sessionId, p.matchNumber, p.status, COUNT(p) FROM PracticeParticipant p " +
+           "WHERE p.sessionId IN :sessionIds AND p.matchNumber IS NOT NULL " +
+           "GROUP BY p.sessionId, p.matchNumber, p.status")
+    List<Object[]> countSeatsBySessionIds(@Param("sessionIds") Collection<Long> sessionIds);
+
+    /**
+     * 複数セッションの (セッションID, 選手ID) ごとの有効参加（WON / PENDING、status が null の legacy 行を含む）の行数を
+     * 1クエリで取得（ホーム画面の参加率集計用）。抜け番（試合番号 null）の行も数える。
+     *
+     * @return [sessionId(Long), playerId(Long), count(Long)] のリスト
+     */
+    @Query("SELECT p.sessionId, p.playerId, COUNT(p) FROM PracticeParticipant p " +
+           "WHERE p.sessionId IN :sessionIds AND (p.status IS NULL OR p.status IN ('WON', 'PENDING')) " +
+           "GROUP BY p.sessionId, p.playerId")
+    List<Object[]> countActiveBySessionIdsAndPlayer(@Param("sessionIds") Collection<Long> sessionIds);
+
     /**
      * 特定セッション・試合のキャンセル待ちで最も若い番号の参加者を取得
      */
@@ -267,6 +315,12 @@ public interface PracticeParticipantRepository extends JpaRepository<PracticePar
     @Query("SELECT p FROM PracticeParticipant p WHERE p.status = 'OFFERED' AND p.offerDeadline < :now")
     List<PracticeParticipant> findExpiredOffers(@Param("now") LocalDateTime now);
 
+    /**
+     * 応答期限付きのOFFERED状態の参加者を取得（オファー期限タイマーの読み込み用）
+     */
+    @Query("SELECT p FROM PracticeParticipant p WHERE p.status = 'OFFERED' AND p.offerDeadline IS NOT NULL")
+    List<PracticeParticipant> findOffersWithDeadline();
+
     /**
      * 応答期限が間近（now〜deadline間）のOFFERED状態の参加者を取得
      */
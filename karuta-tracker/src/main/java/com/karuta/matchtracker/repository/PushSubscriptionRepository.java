@@ -4,6 +4,7 @@ import com.karuta.matchtracker.entity.PushSubscription;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 /**
@@ -17,6 +18,11 @@ public interface PushSubscriptionRepository extends JpaRepository<PushSubscripti
      */
     List<PushSubscription> findByPlayerId(Long playerId);
 
+    /**
+     * 複数プレイヤーの全サブスクリプションをまとめて取得（バッチ送信用）
+     */
+    List<PushSubscription> findByPlayerIdIn(Collection<Long> playerIds);
+
     /**
      * 指定エンドポイントのサブスクリプションが存在するか確認
      */
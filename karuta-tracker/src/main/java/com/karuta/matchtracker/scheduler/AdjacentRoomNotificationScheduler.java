@@ -8,11 +8,11 @@ import com.karuta.matchtracker.entity.ParticipantStatus;
 import com.karuta.matchtracker.entity.Player;
 import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.repository.AdjacentRoomNotificationRepository;
-import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.PlayerRepository;
 import com.karuta.matchtracker.service.AdjacentRoomService;
 import com.karuta.matchtracker.service.NotificationService;
+import com.karuta.matchtracker.service.SeatOccupancyService;
 import com.karuta.matchtracker.util.JstDateTimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +27,7 @@ import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 隣室空き通知スケジューラー
@@ -42,12 +43,12 @@ import java.util.List;
 public class AdjacentRoomNotificationScheduler {
 
     private final PracticeSessionRepository practiceSessionRepository;
-    private final PracticeParticipantRepository practiceParticipantRepository;
     private final AdjacentRoomNotificationRepository adjacentRoomNotificationRepository;
     private final AdjacentRoomService adjacentRoomService;
     private final NotificationService notificationService;
     private final PlayerRepository playerRepository;
     private final TransactionTemplate transactionTemplate;
+    private final SeatOccupancyService seatOccupancyService;
 
     private static final int THRESHOLD = 4;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M/d");
@@ -72,10 +73,16 @@ public class AdjacentRoomNotificationScheduler {
 
         log.info("Adjacent room check started for {} target session(s)", targetSessions.size());
 
+        // 参加者数は対象セッション分をトランザクション外でまとめて引く（セッション×試合ごとの COUNT を避ける）
+        Map<Long, SeatOccupancyService.SessionSeats> seatsBySession = seatOccupancyService.snapshot(
+                targetSessions.stream().map(PracticeSession::getId).toList());
+
         int notifiedCount = 0;
         for (PracticeSession session : targetSessions) {
+            SeatOccupancyService.SessionSeats seats = seatsBySession.getOrDefault(
+                    session.getId(), SeatOccupancyService.SessionSeats.EMPTY);
             try {
-                Integer result = transactionTemplate.execute(status -> processSession(session, status));
+                Integer result = transactionTemplate.execute(status -> processSession(session, seats, status));
                 notifiedCount += (result != null ? result : 0);
             } catch (Exception e) {
                 log.error("Failed to process adjacent room check for session {}: {}",
@@ -86,7 +93,8 @@ public class AdjacentRoomNotificationScheduler {
         log.info("Adjacent room check completed: {} notification(s) sent", notifiedCount);
     }
 
-    private int processSession(PracticeSession session, TransactionStatus txStatus) {
+    private int processSession(PracticeSession session, SeatOccupancyService.SessionSeats seats,
+                               TransactionStatus txStatus) {
         Integer capacity = session.getCapacity();
         if (capacity == null || capacity <= 0) return 0;
 
@@ -96,12 +104,9 @@ public class AdjacentRoomNotificationScheduler {
         int maxParticipants = 0;
         int closestMatchNumber = 1;
         for (int matchNumber = 1; matchNumber <= totalMatches; matchNumber++) {
-            long activeCount = practiceParticipantRepository
-                    .countBySessionIdAndMatchNumberAndStatus(session.getId(), matchNumber, ParticipantStatus.WON)
-                    + practiceParticipantRepository
-                    .countBySessionIdAndMatchNumberAndStatus(session.getId(), matchNumber, ParticipantStatus.PENDING);
+            int activeCount = seats.count(matchNumber, ParticipantStatus.WON, ParticipantStatus.PENDING);
             if (activeCount > maxParticipants) {
-                maxParticipants = (int) activeCount;
+                maxParticipants = activeCount;
                 closestMatchNumber = matchNumber;
             }
         }
@@ -0,0 +1,51 @@
+package com.karuta.matchtracker.scheduler;
+
+import com.karuta.matchtracker.service.NotificationOutboxDispatcher;
+import com.karuta.matchtracker.service.NotificationOutboxService;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 通知送信キューのスケジューラ
+ *
+ * 1秒ごとに送信ワーカーを起こし（送信自体はワーカーの仮想スレッドで行い、スケジューラスレッドは塞がない）、
+ * 30秒ごとに滞留数メトリクスを更新し、毎日AM4:45に14日より前の完了済み行を削除する。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class NotificationOutboxScheduler {
+
+    private static final int RETENTION_DAYS = 14;
+
+    private final NotificationOutboxDispatcher notificationOutboxDispatcher;
+    private final NotificationOutboxService notificationOutboxService;
+
+    @Scheduled(fixedDelay = 1000, initialDelay = 15000)
+    public void poll() {
+        notificationOutboxDispatcher.trigger();
+    }
+
+    @Scheduled(fixedDelay = 30000, initialDelay = 30000)
+    public void refreshDepth() {
+        try {
+            notificationOutboxService.refreshDepth();
+        } catch (Exception e) {
+            log.warn("Failed to refresh notification outbox depth: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(cron = "0 45 4 * * *", zone = "Asia/Tokyo") // 毎日AM4:45
+    public void purge() {
+        try {
+            int deleted = notificationOutboxService.purgeCompletedBefore(
+                    JstDateTimeUtil.now().minusDays(RETENTION_DAYS));
+            log.info("Purged {} completed notification outbox rows", deleted);
+        } catch (Exception e) {
+            log.error("Failed to purge notification outbox: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -10,10 +10,14 @@ import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.service.LineNotificationService;
 import com.karuta.matchtracker.service.NotificationService;
+import com.karuta.matchtracker.service.OfferDeadlineTimer;
 import com.karuta.matchtracker.service.WaitlistPromotionService;
 import com.karuta.matchtracker.util.JstDateTimeUtil;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 
@@ -22,13 +26,19 @@ import java.util.ArrayList;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 
 /**
  * 繰り上げオファー期限切れチェックスケジューラ
  *
- * 5分ごとに実行し、応答期限が切れたOFFERED状態のレコードを
- * 自動的にDECLINEDに変更し、次のキャンセル待ちに通知する。
+ * 応答期限が切れたOFFERED状態のレコードを自動的にDECLINEDに変更し、次のキャンセル待ちに通知する。
+ * 期限間近（{@link OfferDeadlineTimer#WARNING_LEAD} 以内）のオファーには警告通知を送る。
+ *
+ * 通常は {@link OfferDeadlineTimer} が期限・警告時刻の直後に {@link #checkExpiredOffers} を呼ぶ
+ * （起動時に OFFERED の期限を読み込み、以降はオファー発行時に登録される）。
+ * 定期スイープ（既定15分ごと）は、他インスタンスで発行されたオファーの期限をタイマーに取り込み、
+ * タイマーの取りこぼしを拾う安全網として残す。
  */
 @Slf4j
 @Component
@@ -41,14 +51,44 @@ public class OfferExpiryScheduler {
     private final LineNotificationService lineNotificationService;
     private final NotificationService notificationService;
     private final NotificationRepository notificationRepository;
+    private final OfferDeadlineTimer offerDeadlineTimer;
+
+    // タイマーのスレッドと定期スイープが同時に同じオファーを処理しないよう直列化する
+    private final Object checkLock = new Object();
+
+    @PostConstruct
+    void registerTimerHandler() {
+        offerDeadlineTimer.onDue(this::checkExpiredOffers);
+    }
 
-    private static final int EXPIRING_WARNING_HOURS = 3;
+    /** 起動時に OFFERED の応答期限をタイマーへ読み込む */
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadOfferDeadlines() {
+        List<PracticeParticipant> offered = practiceParticipantRepository.findOffersWithDeadline();
+        for (PracticeParticipant participant : offered) {
+            offerDeadlineTimer.schedule(participant.getId(), participant.getOfferDeadline());
+        }
+        log.debug("Loaded {} offer deadlines into the timer", offered.size());
+    }
+
+    /** 安全網の定期スイープ。他インスタンスのオファーの期限も取り込む */
+    @Scheduled(fixedDelayString = "${app.offer-expiry.sweep-interval-minutes:15}",
+            initialDelay = 1, timeUnit = TimeUnit.MINUTES)
+    public void sweep() {
+        checkExpiredOffers();
+        loadOfferDeadlines();
+    }
 
-    @Scheduled(fixedDelay = 300000, initialDelay = 60000) // 5分ごと、起動1分後に初回実行
     public void checkExpiredOffers() {
+        synchronized (checkLock) {
+            checkExpiredOffersLocked();
+        }
+    }
+
+    private void checkExpiredOffersLocked() {
         LocalDateTime now = JstDateTimeUtil.now();
 
-        // 1. 期限間近のオファーに警告通知を送信（期限3時間以内）
+        // 1. 期限間近のオファーに警告通知を送信（期限 WARNING_LEAD 以内）
         warnExpiringOffers(now);
 
         // 2. 期限切れのオファーを処理
@@ -152,7 +192,7 @@ public class OfferExpiryScheduler {
      * 応答期限が間近のOFFEREDに警告通知を送信する
      */
     private void warnExpiringOffers(LocalDateTime now) {
-        LocalDateTime warningThreshold = now.plusHours(EXPIRING_WARNING_HOURS);
+        LocalDateTime warningThreshold = now.plus(OfferDeadlineTimer.WARNING_LEAD);
         List<PracticeParticipant> expiring = practiceParticipantRepository
                 .findExpiringOffers(now, warningThreshold);
 
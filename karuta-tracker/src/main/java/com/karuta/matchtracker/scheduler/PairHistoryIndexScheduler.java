@@ -0,0 +1,43 @@
+package com.karuta.matchtracker.scheduler;
+
+import com.karuta.matchtracker.service.PairHistoryIndexService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * ペア対戦履歴索引の構築スケジューラ
+ *
+ * 起動完了後に非同期で初回構築し（完了までは DB フォールバック）、
+ * 毎日AM4:30に全件から作り直して差分反映の取りこぼしを正す。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PairHistoryIndexScheduler {
+
+    private final PairHistoryIndexService pairHistoryIndexService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void buildOnStartup() {
+        rebuild("startup");
+    }
+
+    @Scheduled(cron = "0 30 4 * * *", zone = "Asia/Tokyo") // 毎日AM4:30
+    public void reconcile() {
+        rebuild("daily");
+    }
+
+    private void rebuild(String trigger) {
+        try {
+            pairHistoryIndexService.rebuild();
+        } catch (Exception e) {
+            log.error("Failed to rebuild pair history index ({}): {}", trigger, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.karuta.matchtracker.scheduler;
+
+import com.karuta.matchtracker.service.PlayerMatchStatsService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 選手別対戦集計（player_match_stats）の構築スケジューラ
+ *
+ * 起動完了後に非同期で、集計表が空なら全試合から構築する（完了までは級別統計が試合を直接数える）。
+ * 毎日AM4:45に全件から作り直して差分反映の取りこぼしを正す。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class PlayerMatchStatsScheduler {
+
+    private final PlayerMatchStatsService playerMatchStatsService;
+
+    @Async
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillOnStartup() {
+        try {
+            playerMatchStatsService.backfillIfEmpty();
+        } catch (Exception e) {
+            log.error("Failed to backfill player match stats: {}", e.getMessage(), e);
+        }
+    }
+
+    @Scheduled(cron = "0 45 4 * * *", zone = "Asia/Tokyo") // 毎日AM4:45
+    public void reconcile() {
+        try {
+            playerMatchStatsService.rebuildAll();
+        } catch (Exception e) {
+            log.error("Failed to rebuild player match stats (daily): {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.karuta.matchtracker.scheduler;
+
+import com.karuta.matchtracker.service.SeatOccupancyService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * 試合別枠取得状況の定期照合スケジューラ
+ *
+ * 10分ごとにメモリ上のカウンタを DB と突き合わせ、差分の取りこぼし（通知漏れの一括更新や直接の DB 操作）を正す。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class SeatOccupancyScheduler {
+
+    private final SeatOccupancyService seatOccupancyService;
+
+    @Scheduled(cron = "0 */10 * * * *", zone = "Asia/Tokyo") // 10分ごと
+    public void reconcile() {
+        try {
+            seatOccupancyService.reconcile();
+        } catch (Exception e) {
+            log.error("Failed to reconcile seat occupancy: {}", e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.karuta.matchtracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.karuta.matchtracker.entity.Player.Role;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 認証トークンの検証結果キャッシュ（トークンハッシュ → 選手ID・ロール・管理団体・期限・失効状態）
+ *
+ * <p>全 API リクエストが {@link AuthTokenService#authenticate} を通るため、トークンと選手の
+ * DB 参照 2 回をここで省く。失効・ロール変更・管理団体変更・論理削除の際は呼び出し元が
+ * {@link #invalidateToken} / {@link #invalidatePlayer} で破棄する。
+ *
+ * <p>破棄はその場で行い、トランザクション中ならコミット後にもう一度行う。破棄のたびに世代番号を進め、
+ * 読み込み側は DB を読む前の世代を {@link #generation()} で控えて {@link #put} に渡す。読んでいる間に
+ * 世代が進んでいたら（＝コミット前の行を読んだかもしれない）結果をキャッシュに残さない。
+ * 世代の確認と破棄の間の競合は、書き込み後にもう一度世代を確かめて外すことで防ぐ
+ * （破棄側は世代を進めてから消すため、どちらかの確認で必ず外れる）。
+ * それでも取りこぼした場合に備えて {@link #TTL} で必ず読み直す。
+ */
+@Component
+public class AuthTokenCache {
+
+    /** 変更の通知を取りこぼした場合でも、この時間が経てば DB の状態に戻る */
+    static final Duration TTL = Duration.ofSeconds(60);
+
+    static final long MAX_ENTRIES = 10_000;
+
+    /**
+     * キャッシュする検証結果
+     *
+     * @param revoked トークンが失効済み、または持ち主の選手が論理削除済み
+     */
+    record Entry(Long playerId, Role role, Long adminOrganizationId, LocalDateTime expiresAt, boolean revoked) {
+
+        boolean isValidAt(LocalDateTime now) {
+            return !revoked && expiresAt.isAfter(now);
+        }
+    }
+
+    private final Cache<String, Entry> cache = Caffeine.newBuilder()
+            .maximumSize(MAX_ENTRIES)
+            .expireAfterWrite(TTL)
+            .recordStats()
+            .build();
+    // 破棄のたびに進める。破棄はロール変更・失効時だけで稀なため、全選手で1つを共有する
+    private final AtomicLong generation = new AtomicLong();
+
+    public AuthTokenCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth_tokens");
+        Gauge.builder("auth_token_cache.hit_ratio", cache, c -> c.stats().hitRate())
+                .description("認証トークンキャッシュのヒット率（起動以降の累計）")
+                .register(meterRegistry);
+    }
+
+    Entry get(String tokenHash) {
+        return cache.getIfPresent(tokenHash);
+    }
+
+    /** DB を読む前に控える世代番号 */
+    long generation() {
+        return generation.get();
+    }
+
+    /**
+     * 検証結果を保持する。{@code readGeneration} を控えた後に破棄があれば保持しない。
+     *
+     * @param readGeneration DB を読む前に {@link #generation()} で控えた値
+     */
+    void put(String tokenHash, Entry entry, long readGeneration) {
+        if (generation.get() != readGeneration) {
+            return;
+        }
+        cache.put(tokenHash, entry);
+        if (generation.get() != readGeneration) {
+            // 書き込みと並行して破棄が走った。破棄が先に消し終えていても残らないよう自分で外す
+            cache.asMap().remove(tokenHash, entry);
+        }
+    }
+
+    /** 指定トークンのキャッシュを破棄する */
+    public void invalidateToken(String tokenHash) {
+        evictToken(tokenHash);
+        afterCommit(() -> evictToken(tokenHash));
+    }
+
+    private void evictToken(String tokenHash) {
+        generation.incrementAndGet();
+        cache.invalidate(tokenHash);
+    }
+
+    /** 指定選手のトークンのキャッシュをすべて破棄する（失効・ロール変更・管理団体変更・論理削除） */
+    public void invalidatePlayer(Long playerId) {
+        if (playerId == null) {
+            return;
+        }
+        evictPlayer(playerId);
+        afterCommit(() -> evictPlayer(playerId));
+    }
+
+    private void evictPlayer(Long playerId) {
+        generation.incrementAndGet();
+        cache.asMap().values().removeIf(entry -> playerId.equals(entry.playerId()));
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                action.run();
+            }
+        });
+    }
+}
@@ -44,6 +44,12 @@ public class AuthTokenService {
 
     private final AuthTokenRepository authTokenRepository;
     private final PlayerRepository playerRepository;
+    private final AuthTokenCache authTokenCache;
+
+    /**
+     * 認証済みの主体（リクエスト属性の組み立てとロール判定に必要な分だけ）
+     */
+    public record AuthenticatedPlayer(Long id, Player.Role role, Long adminOrganizationId) {}
 
     /**
      * 指定選手に新しいトークンを発行する
@@ -70,24 +76,59 @@ public class AuthTokenService {
     }
 
     /**
-     * 生トークンを検証し、対応する選手を解決する
+     * 生トークンを検証し、認証済みの主体を返す（API リクエストごとの認証用）
      *
-     * 有効と判定する条件: トークンが存在し、失効しておらず、期限内であり、
-     * かつ持ち主の選手が論理削除されていないこと。
+     * <p>有効と判定する条件: トークンが存在し、失効しておらず、期限内であり、
+     * かつ持ち主の選手が論理削除されていないこと。結果は {@link AuthTokenCache} に保持し、
+     * キャッシュにあれば DB を参照しない。存在しないトークンはキャッシュしない。
      *
      * @param rawToken 生トークン
-     * @return 有効なら選手。無効なら empty
+     * @return 有効なら主体。無効なら empty
      */
-    @Transactional(readOnly = true)
-    public Optional<Player> verify(String rawToken) {
+    public Optional<AuthenticatedPlayer> authenticate(String rawToken) {
         if (rawToken == null || rawToken.isBlank()) {
             return Optional.empty();
         }
 
-        return authTokenRepository.findByTokenHash(hash(rawToken))
-                .filter(token -> token.isValidAt(JstDateTimeUtil.now()))
-                .flatMap(token -> playerRepository.findById(token.getPlayerId()))
-                .filter(player -> !player.isDeleted());
+        String tokenHash = hash(rawToken);
+        AuthTokenCache.Entry entry = authTokenCache.get(tokenHash);
+        if (entry == null) {
+            // 読んでいる間に失効・ロール変更がコミットされたら、読んだ結果はキャッシュに残さない
+            long readGeneration = authTokenCache.generation();
+            Optional<AuthToken> token = authTokenRepository.findByTokenHash(tokenHash);
+            if (token.isEmpty()) {
+                return Optional.empty();
+            }
+            entry = toCacheEntry(token.get());
+            authTokenCache.put(tokenHash, entry, readGeneration);
+        }
+
+        if (!entry.isValidAt(JstDateTimeUtil.now())) {
+            return Optional.empty();
+        }
+        return Optional.of(new AuthenticatedPlayer(entry.playerId(), entry.role(), entry.adminOrganizationId()));
+    }
+
+    private AuthTokenCache.Entry toCacheEntry(AuthToken token) {
+        // 失効・期限切れのトークンは選手を引かずに無効として覚える
+        Optional<Player> player = token.isValidAt(JstDateTimeUtil.now())
+                ? playerRepository.findById(token.getPlayerId())
+                : Optional.empty();
+        if (player.isEmpty() || player.get().isDeleted()) {
+            return new AuthTokenCache.Entry(token.getPlayerId(), null, null, token.getExpiresAt(), true);
+        }
+        return new AuthTokenCache.Entry(token.getPlayerId(), player.get().getRole(),
+                player.get().getAdminOrganizationId(), token.getExpiresAt(), false);
+    }
+
+    /**
+     * 指定選手の認証キャッシュを破棄する。ロール・管理団体の変更時に呼ぶ
+     * （失効・論理削除は {@link #revokeAllForPlayer} が破棄する）
+     *
+     * @param playerId 対象の選手ID
+     */
+    public void invalidateCachedPlayer(Long playerId) {
+        authTokenCache.invalidatePlayer(playerId);
     }
 
     /**
@@ -101,7 +142,9 @@ public class AuthTokenService {
             return;
         }
 
-        authTokenRepository.findByTokenHash(hash(rawToken)).ifPresent(token -> {
+        String tokenHash = hash(rawToken);
+        authTokenCache.invalidateToken(tokenHash);
+        authTokenRepository.findByTokenHash(tokenHash).ifPresent(token -> {
             if (token.getRevokedAt() == null) {
                 token.setRevokedAt(JstDateTimeUtil.now());
                 authTokenRepository.save(token);
@@ -122,6 +165,7 @@ public class AuthTokenService {
         if (playerId == null) {
             return 0;
         }
+        authTokenCache.invalidatePlayer(playerId);
         int revoked = authTokenRepository.revokeAllByPlayerId(playerId, JstDateTimeUtil.now());
         if (revoked > 0) {
             log.info("Revoked {} auth token(s) for player id: {}", revoked, playerId);
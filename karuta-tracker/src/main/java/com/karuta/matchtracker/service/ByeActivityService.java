@@ -30,6 +30,8 @@ public class ByeActivityService {
     private final PlayerRepository playerRepository;
     private final PracticeParticipantRepository practiceParticipantRepository;
     private final PracticeSessionRepository practiceSessionRepository;
+    private final IcalFeedVersionService icalFeedVersionService;
+    private final ParticipationRateAggregator participationRateAggregator;
 
     @Transactional(readOnly = true)
     public List<ByeActivityDto> getByDate(LocalDate date) {
@@ -269,6 +271,8 @@ public class ByeActivityService {
 
             if (allAbsent && existing.isPresent()) {
                 practiceParticipantRepository.deleteByeParticipant(sessionId, playerId);
+                icalFeedVersionService.markPlayerChanged(playerId);
+                participationRateAggregator.markSessionsChanged(List.of(sessionId));
                 log.info("PracticeParticipant削除（全ABSENT）: session={}, player={}", sessionId, playerId);
             } else if (!allAbsent && existing.isEmpty()) {
                 PracticeParticipant restored = PracticeParticipant.builder()
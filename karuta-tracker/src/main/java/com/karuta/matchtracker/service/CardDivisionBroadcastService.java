@@ -6,7 +6,9 @@ import com.karuta.matchtracker.entity.LineChannel;
 import com.karuta.matchtracker.entity.LineChannel.ChannelStatus;
 import com.karuta.matchtracker.entity.LineChatReservation;
 import com.karuta.matchtracker.entity.LineChatReservation.ReservationStatus;
+import com.karuta.matchtracker.entity.LineMessageLog.LineNotificationType;
 import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.repository.LineBroadcastGroupRepository;
 import com.karuta.matchtracker.repository.LineChannelRepository;
 import com.karuta.matchtracker.repository.LineChatReservationRepository;
 import lombok.RequiredArgsConstructor;
@@ -43,7 +45,9 @@ public class CardDivisionBroadcastService {
     private final LineMessagingService lineMessagingService;
     private final LineBroadcastSendService lineBroadcastSendService;
     private final LineChatReservationRepository lineChatReservationRepository;
+    private final LineBroadcastGroupRepository lineBroadcastGroupRepository;
     private final LineNotificationService lineNotificationService;
+    private final NotificationOutboxService notificationOutboxService;
 
     /** LINE無料枠（1チャネル/月） */
     static final int MONTHLY_QUOTA = 200;
@@ -141,25 +145,49 @@ public class CardDivisionBroadcastService {
             return;
         }
 
-        // 送信（AC-1: 個人通知と同一テキスト。1体のみ・AC-5）
+        // 送信（AC-1: 個人通知と同一テキスト。1体のみ・AC-5）。LINE API は送信キューのワーカーが呼び、
+        // 結果は completeBroadcast で確定させる（RESERVED のまま残れば releaseStale が回収する）
         String text = cardDivisionTextService.buildTextForSession(session);
-        boolean ok = lineMessagingService.sendPushMessage(
-                bot.getChannelAccessToken(), bot.getLineGroupId(), text);
-
-        if (ok) {
-            lineBroadcastSendService.markSucceeded(groupId, sessionId);
-            // 消費即時反映（AC-5）: 毎時同期が後で実測へ補正
-            lineBroadcastSendService.incrementChannelMonthlyCount(bot.getId(), expected);
-            log.info("Card division broadcast sent: group={}, session={}, bot={}, recipients={}",
-                    groupId, sessionId, bot.getId(), expected);
-            // フォールバックpush発動をアラート（AC-10）。チャット予約が未成立のため push で配信した事実を管理者へ通知。
-            lineNotificationService.sendChatReserveAlert(group.getOrganizationId(),
-                    "[チャット予約] 予約が未成立のためフォールバックの全体pushで配信しました（session=" + sessionId + "）");
-        } else {
-            lineBroadcastSendService.markFailed(groupId, sessionId, "LINE API送信失敗");
+        try {
+            notificationOutboxService.enqueueLineGroup(bot.getId(), bot.getLineGroupId(), groupId, sessionId,
+                    LineNotificationType.CARD_DIVISION_REMINDER,
+                    List.of(LineMessagingService.textMessage(text)), text);
+        } catch (Exception e) {
+            lineBroadcastSendService.markFailed(groupId, sessionId, "送信キュー登録失敗: " + e.getMessage());
+            log.warn("Card division broadcast enqueue failed: group={}, session={}, bot={}: {}",
+                    groupId, sessionId, bot.getId(), e.getMessage());
+            return;
+        }
+        log.info("Card division broadcast queued: group={}, session={}, bot={}, recipients={}",
+                groupId, sessionId, bot.getId(), expected);
+    }
+
+    /**
+     * 送信キューに登録した全体配信の結果を確定する（{@link NotificationOutboxDispatcher} から呼ばれる）。
+     * 成功なら RESERVED を SUCCESS にし、送信権確保時の想定受信数を bot の当月消費へ加算してフォールバック発動を
+     * アラートする。リトライ上限に達した失敗は FAILED にして次回ポーリングでの再送を可能にする。
+     */
+    public void completeBroadcast(Long groupId, Long sessionId, Long channelId, boolean delivered, String error) {
+        if (!delivered) {
+            lineBroadcastSendService.markFailed(groupId, sessionId, error);
             log.warn("Card division broadcast send failed: group={}, session={}, bot={}",
-                    groupId, sessionId, bot.getId());
+                    groupId, sessionId, channelId);
+            return;
+        }
+
+        int expected = lineBroadcastSendService.recipientCountOf(groupId, sessionId, channelId);
+        if (lineBroadcastSendService.markSucceeded(groupId, sessionId) == 0) {
+            log.warn("Card division broadcast delivered after its reservation was released: group={}, session={}",
+                    groupId, sessionId);
         }
+        // 消費即時反映（AC-5）: 毎時同期が後で実測へ補正
+        lineBroadcastSendService.incrementChannelMonthlyCount(channelId, expected);
+        log.info("Card division broadcast sent: group={}, session={}, bot={}, recipients={}",
+                groupId, sessionId, channelId, expected);
+        // フォールバックpush発動をアラート（AC-10）。チャット予約が未成立のため push で配信した事実を管理者へ通知。
+        lineBroadcastGroupRepository.findById(groupId).ifPresent(group ->
+                lineNotificationService.sendChatReserveAlert(group.getOrganizationId(),
+                        "[チャット予約] 予約が未成立のためフォールバックの全体pushで配信しました（session=" + sessionId + "）"));
     }
 
     /** フォールバックpushの発火判定結果。 */
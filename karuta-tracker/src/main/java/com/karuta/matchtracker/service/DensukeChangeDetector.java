@@ -0,0 +1,157 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 5分間隔の伝助同期で「前回取り込んだ時から変わった行」を判定する変更検知。
+ *
+ * <p>伝助URLごとに、前回取り込み時点のページ指紋（メンバー列の並び）と行指紋（日付×試合番号ごとの
+ * ○/△/× と会場・ラベル、その日の取り込みフェーズ）を保持する。フェーズを行指紋に含めるのは、
+ * 伝助側が変わらなくても締切・抽選確定でフェーズが切り替わった行は処理し直す必要があるため。
+ *
+ * <ul>
+ *   <li>前回スナップショットなし・メンバー列の変化・{@link #FULL_RESYNC_INTERVAL} 経過 → 全行を取り込む</li>
+ *   <li>それ以外 → 指紋が変わった行・新しく現れた行だけを取り込む（行の消滅は削除検知のために「ページ変化あり」扱い）</li>
+ *   <li>何も変わっていなければ取り込み自体をスキップする</li>
+ * </ul>
+ *
+ * <p>スナップショットはメモリ上のみ。再起動直後は全行取り込みになる。アプリ側の選手登録など
+ * 伝助に現れない変化は、定期的な全行取り込みで取りこぼしを解消する。
+ */
+@Component
+public class DensukeChangeDetector {
+
+    /** 変化が無くても全行を取り込み直す間隔 */
+    static final Duration FULL_RESYNC_INTERVAL = Duration.ofMinutes(30);
+
+    private final Map<Long, Snapshot> snapshots = new ConcurrentHashMap<>();
+
+    /** 前回取り込み時点の指紋 */
+    record Snapshot(long headerFingerprint, Map<String, Long> rowFingerprints, LocalDateTime fullSyncAt) {}
+
+    /**
+     * 前回スナップショットとの差分。取り込み成功後に {@link #commit} で次回の比較基準にする。
+     */
+    public static final class ChangeSet {
+        private final Long densukeUrlId;
+        private final Snapshot next;
+        private final boolean full;
+        private final Set<String> changedKeys;
+        private final boolean rowsRemoved;
+
+        private ChangeSet(Long densukeUrlId, Snapshot next, boolean full, Set<String> changedKeys, boolean rowsRemoved) {
+            this.densukeUrlId = densukeUrlId;
+            this.next = next;
+            this.full = full;
+            this.changedKeys = changedKeys;
+            this.rowsRemoved = rowsRemoved;
+        }
+
+        /** 前回から何も変わっていない（取り込み不要） */
+        public boolean isUnchanged() {
+            return !full && changedKeys.isEmpty() && !rowsRemoved;
+        }
+
+        /** 全行取り込みか */
+        public boolean isFull() {
+            return full;
+        }
+
+        /** この行を取り込む必要があるか */
+        public boolean includes(DensukeScraper.ScheduleEntry entry) {
+            return full || changedKeys.contains(rowKey(entry));
+        }
+
+        public int changedRowCount() {
+            return changedKeys.size();
+        }
+    }
+
+    /**
+     * 今回のスクレイピング結果を前回スナップショットと比較する。
+     *
+     * @param densukeUrlId 伝助URLのID
+     * @param scraped      今回のスクレイピング結果
+     * @param targetMonth  取り込み対象月（対象月外の行は比較しない）
+     * @param phaseByDate  対象月の各日付の取り込みフェーズ
+     */
+    public ChangeSet detect(Long densukeUrlId, DensukeScraper.DensukeData scraped, LocalDate targetMonth,
+                            Map<LocalDate, String> phaseByDate) {
+        LocalDateTime now = JstDateTimeUtil.now();
+        long header = fingerprint(String.join("\u0000", scraped.getMemberNames()));
+
+        Map<String, StringBuilder> canonical = new LinkedHashMap<>();
+        for (DensukeScraper.ScheduleEntry entry : scraped.getEntries()) {
+            if (!isInMonth(entry.getDate(), targetMonth)) {
+                continue;
+            }
+            canonical.computeIfAbsent(rowKey(entry), k -> new StringBuilder())
+                    .append(canonicalRow(entry, phaseByDate.get(entry.getDate())))
+                    .append('\u0001');
+        }
+        Map<String, Long> rows = new HashMap<>();
+        canonical.forEach((key, text) -> rows.put(key, fingerprint(text.toString())));
+
+        Snapshot previous = snapshots.get(densukeUrlId);
+        boolean full = previous == null
+                || previous.headerFingerprint() != header
+                || Duration.between(previous.fullSyncAt(), now).compareTo(FULL_RESYNC_INTERVAL) >= 0;
+        if (full) {
+            return new ChangeSet(densukeUrlId, new Snapshot(header, rows, now), true, rows.keySet(), false);
+        }
+
+        Set<String> changed = new HashSet<>();
+        rows.forEach((key, fp) -> {
+            if (!fp.equals(previous.rowFingerprints().get(key))) {
+                changed.add(key);
+            }
+        });
+        boolean removed = !rows.keySet().containsAll(previous.rowFingerprints().keySet());
+        return new ChangeSet(densukeUrlId, new Snapshot(header, rows, previous.fullSyncAt()), false, changed, removed);
+    }
+
+    /** 取り込みが成功した差分を次回の比較基準として保存する */
+    public void commit(ChangeSet changes) {
+        snapshots.put(changes.densukeUrlId, changes.next);
+    }
+
+    static String rowKey(DensukeScraper.ScheduleEntry entry) {
+        return entry.getDate() + "#" + entry.getMatchNumber();
+    }
+
+    private static String canonicalRow(DensukeScraper.ScheduleEntry entry, String phase) {
+        return String.join("\u0002",
+                String.valueOf(phase),
+                String.valueOf(entry.getVenueName()),
+                String.valueOf(entry.getRawLabel()),
+                String.join("\u0000", entry.getParticipants()),
+                String.join("\u0000", entry.getMaybeParticipants()),
+                String.join("\u0000", entry.getDeclinedParticipants()));
+    }
+
+    private static boolean isInMonth(LocalDate date, LocalDate targetMonth) {
+        return targetMonth == null
+                || (date.getYear() == targetMonth.getYear() && date.getMonthValue() == targetMonth.getMonthValue());
+    }
+
+    /** SHA-256 の先頭64bit */
+    private static long fingerprint(String text) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(text.getBytes(StandardCharsets.UTF_8));
+            return ByteBuffer.wrap(digest, 0, Long.BYTES).getLong();
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+}
@@ -1,6 +1,7 @@
 package com.karuta.matchtracker.service;
 
 import com.karuta.matchtracker.entity.DensukeDeletionCandidate;
+import com.karuta.matchtracker.entity.PracticeParticipant;
 import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.exception.ResourceNotFoundException;
 import com.karuta.matchtracker.repository.DensukeDeletionCandidateRepository;
@@ -30,6 +31,9 @@ public class DensukeDeletionCandidateService {
     private final DensukeDeletionCandidateRepository densukeDeletionCandidateRepository;
     private final PracticeSessionRepository practiceSessionRepository;
     private final PracticeParticipantRepository practiceParticipantRepository;
+    private final SeatOccupancyService seatOccupancyService;
+    private final IcalFeedVersionService icalFeedVersionService;
+    private final ParticipationRateAggregator participationRateAggregator;
 
     public List<DensukeDeletionCandidate> listPending(Long organizationId) {
         return densukeDeletionCandidateRepository.findByOrganizationIdAndStatusOrderByDetectedAtDesc(
@@ -59,7 +63,14 @@ public class DensukeDeletionCandidateService {
                 .findBySessionDateAndOrganizationId(candidate.getSessionDate(), candidate.getOrganizationId())
                 .orElse(null);
         if (session != null) {
+            // 一括 DELETE はエンティティリスナーを通らないため、削除前の参加者を iCal フィードの版番号へ知らせる
+            icalFeedVersionService.markPlayersChanged(practiceParticipantRepository
+                    .findBySessionIdAndMatchNumber(session.getId(), candidate.getMatchNumber()).stream()
+                    .map(PracticeParticipant::getPlayerId)
+                    .toList());
             practiceParticipantRepository.deleteBySessionIdAndMatchNumber(session.getId(), candidate.getMatchNumber());
+            seatOccupancyService.markChanged(session.getId());
+            participationRateAggregator.markSessionsChanged(List.of(session.getId()));
             log.info("Approved densuke deletion candidate id={}: removed participants for session={} match={}",
                     candidateId, session.getId(), candidate.getMatchNumber());
         } else {
@@ -14,6 +14,8 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import com.karuta.matchtracker.util.JstDateTimeUtil;
 
@@ -21,8 +23,10 @@ import java.io.IOException;
 import java.time.Duration;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -47,6 +51,8 @@ public class DensukeImportService {
     private final OrganizationService organizationService;
     private final DensukeDeletionDetectionService densukeDeletionDetectionService;
     private final PasswordPolicy passwordPolicy;
+    private final DensukeChangeDetector densukeChangeDetector;
+    private final SeatOccupancyService seatOccupancyService;
 
     /**
      * 伝助から自動登録した選手の初期パスワード。
@@ -66,6 +72,8 @@ public class DensukeImportService {
         // A-4: 正規化後に同名となる複数選手（名寄せ衝突）。当該名は取り込みスキップし別枠で通知する。
         private List<String> nameCollisions = new ArrayList<>();
         private List<String> details = new ArrayList<>();
+        // 変更検知で前回取り込みから変化なしと判定され、取り込みをスキップした
+        private boolean unchanged;
     }
 
     public static final Long SYSTEM_USER_ID = 0L;
@@ -83,6 +91,71 @@ public class DensukeImportService {
         int year = targetDate != null ? targetDate.getYear() : JstDateTimeUtil.today().getYear();
 
         DensukeScraper.DensukeData scraped = densukeScraper.scrape(url, year);
+        return importScraped(scraped, targetDate, createdBy, organizationId, entry -> true);
+    }
+
+    /**
+     * 定期同期用の差分取り込み。
+     *
+     * <p>{@link DensukeChangeDetector} で前回取り込み時との差分を取り、変化がなければ取り込み自体を
+     * スキップする（選手・会場の全件ロードや行ごとの参加者照会を行わない）。変化があれば、
+     * 変わった行だけを {@link #importFromDensuke} と同じ処理で取り込む。
+     * 比較基準はトランザクションのコミット後に更新するため、ロールバック時は次回も同じ差分を取り込み直す。
+     */
+    @Transactional
+    public ImportResult importChangesFromDensuke(DensukeUrl densukeUrl, LocalDate targetDate, Long createdBy) throws IOException {
+        Long organizationId = densukeUrl.getOrganizationId();
+        DensukeScraper.DensukeData scraped = densukeScraper.scrape(densukeUrl.getUrl(), targetDate.getYear());
+
+        DensukeChangeDetector.ChangeSet changes = densukeChangeDetector.detect(
+                densukeUrl.getId(), scraped, targetDate, resolvePhaseByDate(scraped, targetDate, organizationId));
+        if (changes.isUnchanged()) {
+            ImportResult result = new ImportResult();
+            result.setTotalEntries(scraped.getEntries().size());
+            result.setUnchanged(true);
+            return result;
+        }
+
+        ImportResult result = importScraped(scraped, targetDate, createdBy, organizationId, changes::includes);
+        if (!changes.isFull()) {
+            log.info("Densuke import (orgId={}, {}): {} changed rows imported",
+                    organizationId, targetDate, changes.changedRowCount());
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    densukeChangeDetector.commit(changes);
+                }
+            });
+        } else {
+            densukeChangeDetector.commit(changes);
+        }
+        return result;
+    }
+
+    /**
+     * 対象月の各日付の取り込みフェーズ（変更検知の行指紋に含める）
+     */
+    private Map<LocalDate, String> resolvePhaseByDate(DensukeScraper.DensukeData scraped, LocalDate targetDate,
+                                                     Long organizationId) {
+        DeadlineType deadlineType = lotteryDeadlineHelper.getDeadlineType(organizationId);
+        Map<YearMonth, ImportPhase> monthlyPhases = new HashMap<>();
+        Map<LocalDate, String> phaseByDate = new HashMap<>();
+        for (DensukeScraper.ScheduleEntry entry : scraped.getEntries()) {
+            LocalDate date = entry.getDate();
+            if (date.getYear() != targetDate.getYear() || date.getMonthValue() != targetDate.getMonthValue()
+                    || phaseByDate.containsKey(date)) {
+                continue;
+            }
+            phaseByDate.put(date, determinePhase(deadlineType, date, organizationId, monthlyPhases).name());
+        }
+        return phaseByDate;
+    }
+
+    private ImportResult importScraped(DensukeScraper.DensukeData scraped, LocalDate targetDate, Long createdBy,
+                                       Long organizationId,
+                                       Predicate<DensukeScraper.ScheduleEntry> entryFilter) {
         LocalDateTime detectedAt = JstDateTimeUtil.now();
         Map<String, LocalDateTime> memberLastChangeTimes = scraped.getMemberLastChangeTimes();
 
@@ -123,6 +196,7 @@ public class DensukeImportService {
                 .collect(Collectors.toMap(Venue::getName, v -> v, (a, b) -> a));
 
         DeadlineType deadlineType = lotteryDeadlineHelper.getDeadlineType(organizationId);
+        Map<YearMonth, ImportPhase> monthlyPhases = new HashMap<>();
 
         ImportResult result = new ImportResult();
         result.setTotalEntries(scraped.getEntries().size());
@@ -147,15 +221,16 @@ public class DensukeImportService {
                          && entry.getDate().getMonthValue() == targetDate.getMonthValue())) {
                 continue;
             }
+            if (!entryFilter.test(entry)) {
+                continue;
+            }
 
             // --- セッション作成/取得（既存ロジック維持） ---
             PracticeSession session = findOrCreateSession(entry, organizationId, createdBy,
                     maxMatchByDate, venueByDate, venueNameMap, unmatchedVenueSet, result);
 
             // --- フェーズ判定 ---
-            int entryYear = entry.getDate().getYear();
-            int entryMonth = entry.getDate().getMonthValue();
-            ImportPhase phase = determinePhase(deadlineType, entryYear, entryMonth, entry.getDate(), organizationId);
+            ImportPhase phase = determinePhase(deadlineType, entry.getDate(), organizationId, monthlyPhases);
 
             // --- フェーズ別処理 ---
             switch (phase) {
@@ -218,15 +293,19 @@ public class DensukeImportService {
      *   - 抽選実行済み・未確定 → LOCKED（admin の確認待ち窓。インポート停止）
      *   - それ以外 → Phase1
      *   締切日時はフェーズ判定に使わない（締切なしモードでも同じ分岐になる）。
+     *   年月だけで決まるため、1回の取り込みの中では monthlyPhases に覚えて年月ごとに1回だけ照会する。
      */
-    private ImportPhase determinePhase(DeadlineType deadlineType, int year, int month,
-                                       LocalDate sessionDate, Long organizationId) {
+    private ImportPhase determinePhase(DeadlineType deadlineType, LocalDate sessionDate, Long organizationId,
+                                       Map<YearMonth, ImportPhase> monthlyPhases) {
         if (deadlineType == DeadlineType.SAME_DAY) {
             return lotteryDeadlineHelper.isBeforeSameDayDeadline(sessionDate)
                     ? ImportPhase.PHASE1 : ImportPhase.PHASE3;
         }
+        return monthlyPhases.computeIfAbsent(YearMonth.from(sessionDate),
+                month -> determineMonthlyPhase(month.getYear(), month.getMonthValue(), organizationId));
+    }
 
-        // MONTHLY
+    private ImportPhase determineMonthlyPhase(int year, int month, Long organizationId) {
         if (lotteryService.isLotteryConfirmed(year, month, organizationId)) {
             return ImportPhase.PHASE3;
         }
@@ -463,12 +542,10 @@ public class DensukeImportService {
                     // 伝助の○を毎回△へ強制上書きし続ける問題（#1008）を防ぐ。
                     // isFreeRegistrationOpen はこの分岐では対象者自身が WAITLISTED のため常に false になり
                     // 昇格が無効化されるので、同等の判定をここで組む。
-                    long wonCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                            session.getId(), matchNumber, ParticipantStatus.WON);
-                    long offeredCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                            session.getId(), matchNumber, ParticipantStatus.OFFERED);
+                    int filled = seatOccupancyService.current(session.getId())
+                            .count(matchNumber, ParticipantStatus.WON, ParticipantStatus.OFFERED);
                     Integer capacity = session.getCapacity();
-                    long vacancy = capacity != null ? capacity - (wonCount + offeredCount) : 0;
+                    long vacancy = capacity != null ? capacity - filled : 0;
                     boolean hasVacancy = capacity != null && vacancy > 0;
                     Integer myWaitlistNumber = existing.getWaitlistNumber();
                     boolean withinQueuePosition = hasVacancy && myWaitlistNumber != null
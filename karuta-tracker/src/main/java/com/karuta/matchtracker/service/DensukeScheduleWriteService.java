@@ -11,7 +11,6 @@ import com.karuta.matchtracker.repository.DensukeUrlRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.VenueMatchScheduleRepository;
 import com.karuta.matchtracker.repository.VenueRepository;
-import com.karuta.matchtracker.util.JstDateTimeUtil;
 import lombok.extern.slf4j.Slf4j;
 import org.jsoup.Connection;
 import org.jsoup.Jsoup;
@@ -43,8 +42,8 @@ import java.util.stream.Collectors;
  * <ul>
  *   <li>{@link PracticeSessionService#createSession} の {@code afterCommit} フックから
  *       {@link #pushNewSchedulesToDensukeAsync} で fire-and-forget</li>
- *   <li>{@link DensukeSyncService#syncAll} の 5 分スケジューラから
- *       {@link #pushAllForCurrentAndNextMonth} でフォロー同期（即時 push 失敗の自動回復）</li>
+ *   <li>{@link DensukeSyncService#syncAll} の 5 分スケジューラから団体ごとに
+ *       {@link #pushSilently} でフォロー同期（即時 push 失敗の自動回復）</li>
  * </ul>
  *
  * <p>失敗通知:
@@ -65,8 +64,8 @@ import java.util.stream.Collectors;
  * 律速される。
  * <ul>
  *   <li>同一 (year, month, organizationId) の並行 push は待たされる（意図通り）</li>
- *   <li>{@link #pushAllForCurrentAndNextMonth} は各 URL を順次処理（並列なし）するため、
- *       スケジューラから DB コネクションプールを大量消費する経路は無い</li>
+ *   <li>スケジューラ経路は団体単位で並列だが、同時処理数は {@code app.densuke.sync.max-concurrent-orgs}
+ *       で抑えているため、DB コネクションプールを大量消費する経路は無い</li>
  *   <li>{@code @Async} エントリポイントは Spring の TaskExecutor の上限に律速される</li>
  * </ul>
  * 将来パフォーマンスが課題化した場合は、DB 行ロックではなく advisory lock や
@@ -146,30 +145,6 @@ public class DensukeScheduleWriteService {
         pushNewSchedulesInternal(year, month, organizationId, true);
     }
 
-    /**
-     * 5 分スケジューラから呼ばれるフォロー同期。
-     * 当月・翌月の全 {@code densuke_urls} に対して差分 push を順次実行する。
-     * 失敗は WARN ログのみで管理者通知は発火しない（フラッディング防止）。
-     */
-    public void pushAllForCurrentAndNextMonth() {
-        LocalDate today = JstDateTimeUtil.today();
-        pushAllForMonth(today.getYear(), today.getMonthValue());
-        LocalDate next = today.plusMonths(1);
-        pushAllForMonth(next.getYear(), next.getMonthValue());
-    }
-
-    private void pushAllForMonth(int year, int month) {
-        List<DensukeUrl> urls = densukeUrlRepository.findByYearAndMonth(year, month);
-        for (DensukeUrl url : urls) {
-            try {
-                self.pushSilently(year, month, url.getOrganizationId());
-            } catch (Exception e) {
-                log.warn("Schedule push (scheduler) failed for {}/{} (orgId={}): {}",
-                        year, month, url.getOrganizationId(), e.getMessage());
-            }
-        }
-    }
-
     /**
      * スケジューラ経路用の通知抑制版。public は AOP プロキシ経由（{@code self.}）で呼ぶため必須。
      */
@@ -2,10 +2,13 @@ package com.karuta.matchtracker.service;
 
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.jsoup.Connection;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.Document;
 import org.jsoup.nodes.Element;
+import org.jsoup.parser.StreamParser;
 import org.jsoup.select.Elements;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.io.IOException;
@@ -59,18 +62,54 @@ public class DensukeScraper {
     // 会場名パターン: 日付の後、試合番号or時間の前の文字列 例: "4/1(水)すずらん 1試合目 17:20~"
     private static final Pattern VENUE_PATTERN = Pattern.compile("\\([^)]+\\)(.+?)[\\s\u3000]+\\d+試合目");
 
+    /** 伝助の出欠表（ヘッダー行 + 日程行）を指すセレクタ */
+    private static final String LISTTBL_ROWS = "table.listtbl tr";
+
+    /**
+     * true ならストリーミングパーサで出欠表を1行ずつ読み、処理済みの行を DOM から外して
+     * ページ全体の DOM を保持しない（メンバー列が数百あるページでのヒープの跳ねを抑える）。
+     */
+    @Value("${app.densuke.streaming-parser:false}")
+    private boolean streamingParser;
+
     /**
      * 伝助URLからデータをスクレイピング
      */
     public DensukeData scrape(String url, int year) throws IOException {
         log.info("Scraping densuke URL: {}", url);
 
-        Document doc = Jsoup.connect(url)
+        Connection connection = Jsoup.connect(url)
                 .userAgent("Mozilla/5.0")
-                .timeout(10000)
-                .get();
+                .timeout(10000);
+
+        if (streamingParser) {
+            try (StreamParser streamer = connection.execute().streamParser()) {
+                return parseStreaming(streamer, year);
+            }
+        }
+        return parse(connection.get(), year);
+    }
 
-        return parse(doc, year);
+    /**
+     * 伝助のリスト画面を、書き込み処理が使う部分（出欠表のヘッダー行・hidden input 等）だけ残して読み込む。
+     * ストリーミングモードでは日程行（2行目以降）をパース中に DOM から外す。無効時は通常の {@link Connection.Response#parse()}。
+     */
+    public Document parseListPage(Connection.Response response) throws IOException {
+        if (!streamingParser) {
+            return response.parse();
+        }
+        try (StreamParser streamer = response.streamParser()) {
+            boolean headerSeen = false;
+            Element row;
+            while ((row = streamer.selectNext(LISTTBL_ROWS)) != null) {
+                // フォーム部品（hidden input の id 等）を含む行は書き込み処理が読むので残す
+                if (headerSeen && row.selectFirst("input") == null) {
+                    row.remove();
+                }
+                headerSeen = true;
+            }
+            return streamer.complete();
+        }
     }
 
     /**
@@ -87,9 +126,66 @@ public class DensukeScraper {
             throw new IOException("テーブルにデータがありません");
         }
 
-        // 1行目: ヘッダー行。先頭の凡例列数はページ設定 (○/△/× の3択 or ○/× の2択) で変わるため、
-        // 「memberdata アンカーを持つ最初のセル」を動的に検出してメンバー列の開始位置を求める。
-        Element headerRow = rows.get(0);
+        // 1行目: ヘッダー行
+        RowCursor cursor = new RowCursor();
+        DensukeData data = parseHeader(rows.get(0), cursor, year);
+
+        // 2行目以降: 日程データ
+        for (int rowIdx = 1; rowIdx < rows.size(); rowIdx++) {
+            ScheduleEntry entry = parseRow(rows.get(rowIdx), data.getMemberNames(), cursor, year);
+            if (entry != null) {
+                data.getEntries().add(entry);
+            }
+        }
+
+        log.info("Scraped {} schedule entries from densuke", data.getEntries().size());
+        return data;
+    }
+
+    /**
+     * ストリーミングパーサから伝助データをパースする。結果は {@link #parse(Document, int)} と同じ。
+     *
+     * <p>出欠表の行は閉じタグまで読まれた時点で1行ずつ受け取り、{@link DensukeData} へ写したら DOM から外す。
+     * そのため同時に保持する DOM は「処理中の1行 + 出欠表より前の要素」程度に収まる。
+     * 出欠表の行が入れ子のテーブルを含まない前提（伝助のページ構造）で、行の順序は文書順と一致する。
+     */
+    DensukeData parseStreaming(StreamParser streamer, int year) throws IOException {
+        Element headerRow = streamer.selectNext(LISTTBL_ROWS);
+        if (headerRow == null) {
+            // 最後まで読んだ時点で出欠表の行がない: テーブル自体の有無でエラーを分ける
+            throw new IOException(streamer.document().selectFirst("table.listtbl") == null
+                    ? "伝助のテーブルが見つかりません" : "テーブルにデータがありません");
+        }
+        RowCursor cursor = new RowCursor();
+        DensukeData data = parseHeader(headerRow, cursor, year);
+        headerRow.remove();
+
+        Element row;
+        while ((row = streamer.selectNext(LISTTBL_ROWS)) != null) {
+            ScheduleEntry entry = parseRow(row, data.getMemberNames(), cursor, year);
+            if (entry != null) {
+                data.getEntries().add(entry);
+            }
+            row.remove();
+        }
+
+        log.info("Scraped {} schedule entries from densuke (streaming)", data.getEntries().size());
+        return data;
+    }
+
+    /** 日程行を順に読む間に持ち回る、直前の日付行の日付・会場と、メンバー列の開始位置 */
+    private static final class RowCursor {
+        private int memberStartIdx;
+        private LocalDate currentDate;
+        private String currentVenue;
+    }
+
+    /**
+     * ヘッダー行からメンバー名と最終変更時刻を読み取り、エントリが空の {@link DensukeData} を返す。
+     * 先頭の凡例列数はページ設定 (○/△/× の3択 or ○/× の2択) で変わるため、
+     * 「memberdata アンカーを持つ最初のセル」を動的に検出してメンバー列の開始位置を求める。
+     */
+    private DensukeData parseHeader(Element headerRow, RowCursor cursor, int year) throws IOException {
         Elements headerCells = headerRow.select("td");
         int memberStartIdx = findMemberStartIndex(headerCells);
         if (memberStartIdx < 0) {
@@ -114,81 +210,81 @@ public class DensukeScraper {
         log.info("Found {} members in densuke (memberStartIdx={}, withTitleTime={})",
                 memberNames.size(), memberStartIdx, memberLastChangeTimes.size());
 
-        // 2行目以降: 日程データ
+        // メンバー列の開始位置は日程行でも同じ
+        cursor.memberStartIdx = memberStartIdx;
+
         DensukeData data = new DensukeData();
         data.setMemberNames(memberNames);
         data.setMemberLastChangeTimes(memberLastChangeTimes);
-        LocalDate currentDate = null;
-        String currentVenue = null;
+        return data;
+    }
 
-        for (int rowIdx = 1; rowIdx < rows.size(); rowIdx++) {
-            Element row = rows.get(rowIdx);
-            Elements cells = row.select("td");
-            if (cells.isEmpty()) continue;
-
-            String label = cells.get(0).text().trim();
-            if (label.isEmpty()) continue;
-
-            // 日付を抽出
-            Matcher dateMatcher = DATE_PATTERN.matcher(label);
-            if (dateMatcher.find()) {
-                int month = Integer.parseInt(dateMatcher.group(1));
-                int day = Integer.parseInt(dateMatcher.group(2));
-                currentDate = LocalDate.of(year, month, day);
-
-                // 会場名を抽出（日付行のみに含まれる）
-                Matcher venueMatcher = VENUE_PATTERN.matcher(label);
-                if (venueMatcher.find()) {
-                    currentVenue = venueMatcher.group(1).trim();
-                }
+    /**
+     * 日程行1行を {@link ScheduleEntry} に変換する。ラベルが空の行・最初の日付行より前の行は null。
+     */
+    private ScheduleEntry parseRow(Element row, List<String> memberNames, RowCursor cursor, int year) {
+        Elements cells = row.select("td");
+        if (cells.isEmpty()) return null;
+
+        String label = cells.get(0).text().trim();
+        if (label.isEmpty()) return null;
+
+        // 日付を抽出
+        Matcher dateMatcher = DATE_PATTERN.matcher(label);
+        if (dateMatcher.find()) {
+            int month = Integer.parseInt(dateMatcher.group(1));
+            int day = Integer.parseInt(dateMatcher.group(2));
+            cursor.currentDate = LocalDate.of(year, month, day);
+
+            // 会場名を抽出（日付行のみに含まれる）
+            Matcher venueMatcher = VENUE_PATTERN.matcher(label);
+            if (venueMatcher.find()) {
+                cursor.currentVenue = venueMatcher.group(1).trim();
             }
+        }
 
-            if (currentDate == null) continue;
+        if (cursor.currentDate == null) return null;
 
-            // 試合番号を抽出
-            Matcher matchMatcher = MATCH_PATTERN.matcher(label);
-            int matchNumber = 1;
-            if (matchMatcher.find()) {
-                matchNumber = Integer.parseInt(matchMatcher.group(1));
-            }
+        // 試合番号を抽出
+        Matcher matchMatcher = MATCH_PATTERN.matcher(label);
+        int matchNumber = 1;
+        if (matchMatcher.find()) {
+            matchNumber = Integer.parseInt(matchMatcher.group(1));
+        }
 
-            // memberStartIdx 以降が各参加者の出欠データ
-            ScheduleEntry entry = new ScheduleEntry();
-            entry.setDate(currentDate);
-            entry.setMatchNumber(matchNumber);
-            entry.setVenueName(currentVenue);
-            entry.setRawLabel(label);
-
-            for (int colIdx = memberStartIdx; colIdx < cells.size(); colIdx++) {
-                int memberIdx = colIdx - memberStartIdx;
-                if (memberIdx >= memberNames.size()) break;
-
-                Element cell = cells.get(colIdx);
-                Element div = cell.selectFirst("div[class^=col]");
-                if (div == null) continue;
-
-                String className = div.className();
-                String cellText = div.text().trim();
-                if ("col3".equals(className)) {
-                    // ○ = 参加
-                    entry.getParticipants().add(memberNames.get(memberIdx));
-                } else if ("col2".equals(className) && "△".equals(cellText)) {
-                    // △ = 未定
-                    entry.getMaybeParticipants().add(memberNames.get(memberIdx));
-                } else if ("×".equals(cellText) || "✕".equals(cellText) || "✗".equals(cellText)) {
-                    // × = 明示的な不参加（凡例の列位置がページ設定で変わるため記号テキストで判定）
-                    entry.getDeclinedParticipants().add(memberNames.get(memberIdx));
-                }
+        // memberStartIdx 以降が各参加者の出欠データ
+        ScheduleEntry entry = new ScheduleEntry();
+        entry.setDate(cursor.currentDate);
+        entry.setMatchNumber(matchNumber);
+        entry.setVenueName(cursor.currentVenue);
+        entry.setRawLabel(label);
+
+        for (int colIdx = cursor.memberStartIdx; colIdx < cells.size(); colIdx++) {
+            int memberIdx = colIdx - cursor.memberStartIdx;
+            if (memberIdx >= memberNames.size()) break;
+
+            Element cell = cells.get(colIdx);
+            Element div = cell.selectFirst("div[class^=col]");
+            if (div == null) continue;
+
+            String className = div.className();
+            String cellText = div.text().trim();
+            if ("col3".equals(className)) {
+                // ○ = 参加
+                entry.getParticipants().add(memberNames.get(memberIdx));
+            } else if ("col2".equals(className) && "△".equals(cellText)) {
+                // △ = 未定
+                entry.getMaybeParticipants().add(memberNames.get(memberIdx));
+            } else if ("×".equals(cellText) || "✕".equals(cellText) || "✗".equals(cellText)) {
+                // × = 明示的な不参加（凡例の列位置がページ設定で変わるため記号テキストで判定）
+                entry.getDeclinedParticipants().add(memberNames.get(memberIdx));
             }
-
-            data.getEntries().add(entry);
-            log.debug("Parsed: {} match{} - {} participants, {} maybe, {} declined",
-                    currentDate, matchNumber, entry.getParticipants().size(),
-                    entry.getMaybeParticipants().size(), entry.getDeclinedParticipants().size());
         }
 
-        log.info("Scraped {} schedule entries from densuke", data.getEntries().size());
-        return data;
+        log.debug("Parsed: {} match{} - {} participants, {} maybe, {} declined",
+                cursor.currentDate, matchNumber, entry.getParticipants().size(),
+                entry.getMaybeParticipants().size(), entry.getDeclinedParticipants().size());
+        return entry;
     }
 
     /**
@@ -3,15 +3,28 @@ package com.karuta.matchtracker.service;
 import com.karuta.matchtracker.entity.DensukeUrl;
 import com.karuta.matchtracker.repository.DensukeUrlRepository;
 import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 
 
 import java.io.IOException;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @Slf4j
@@ -22,6 +35,18 @@ public class DensukeSyncService {
     private final DensukeImportService densukeImportService;
     private final DensukeUrlRepository densukeUrlRepository;
     private final DensukeScheduleWriteService densukeScheduleWriteService;
+    private final MeterRegistry meterRegistry;
+
+    /** 5分間隔の同期で同時に処理する団体数の上限 */
+    @Value("${app.densuke.sync.max-concurrent-orgs:3}")
+    private int maxConcurrentOrgs;
+
+    /** 1サイクルの上限時間（秒）。5分間隔の次サイクルに食い込まないよう、超えたら未着手の団体を次サイクルに回す */
+    @Value("${app.densuke.sync.max-cycle-seconds:240}")
+    private long maxCycleSeconds;
+
+    /** 前回サイクルで上限時間により後回しにした団体 */
+    private final Set<Long> deferredOrgIds = ConcurrentHashMap.newKeySet();
 
     /**
      * 特定団体の伝助同期（書き込み + 読み取り）
@@ -37,7 +62,7 @@ public class DensukeSyncService {
                         "Densuke URL not found for " + year + "/" + month + " (orgId=" + organizationId + ")"));
 
         // ② アプリ→伝助 スケジュール push（手動同期経路でも syncAll() と同じ順序に揃える）
-        //    失敗は WARN ログのみ。手動同期画面のメイン操作は writeToDensuke / import なので
+        //    失敗は WARN ログのみ。手動同期画面のメイン操作は writeToDensukeForOrganization / import なので
         //    スケジュール push の失敗で全体を中断しない。即時 push の失敗通知は afterCommit
         //    フック側で既に発火しているため、ここではスケジューラ経路と同じく抑制する。
         try {
@@ -58,69 +83,162 @@ public class DensukeSyncService {
     /**
      * 全団体の伝助同期（当月 + 翌月）
      *
-     * <p>順序が重要:
+     * <p>団体ごとの順序が重要:
      * <ol>
      *   <li>アプリ→伝助 スケジュール push（フォロー同期。即時 push 失敗時の自動回復）</li>
      *   <li>アプリ→伝助 参加者 dirty 書き込み（スケジュールが揃った状態で書く）</li>
-     *   <li>伝助→アプリ 取り込み（伝助の最新状態を取り込む）</li>
+     *   <li>伝助→アプリ 取り込み（伝助の最新状態のうち、前回取り込みから変化した行だけを取り込む）</li>
      * </ol>
+     *
+     * <p>団体同士は独立しているため仮想スレッドで並列に処理し、同時に処理する団体数は
+     * {@code app.densuke.sync.max-concurrent-orgs} で抑える（伝助への HTTP と DB コネクションの同時使用数の上限）。
+     * 1団体の中は上の順序で直列に実行する。サイクル開始から {@code app.densuke.sync.max-cycle-seconds}
+     * を過ぎたら未着手の団体は次サイクルに回し、次サイクルではそれらを先に処理する。
      */
     public void syncAll() {
-        // ① アプリ→伝助 スケジュール push（即時 push 失敗の自動回復用フォロー同期）
-        //    失敗は WARN ログのみで管理者通知は発火しない（DensukeScheduleWriteService 側で抑制済み、フラッディング防止）
-        try {
-            densukeScheduleWriteService.pushAllForCurrentAndNextMonth();
-        } catch (Exception e) {
-            log.warn("Densuke schedule push (scheduler) failed: {}", e.getMessage());
+        LocalDate now = JstDateTimeUtil.today();
+        Map<Long, List<DensukeUrl>> urlsByOrg = new LinkedHashMap<>();
+        for (LocalDate month : List.of(now, now.plusMonths(1))) {
+            for (DensukeUrl url : densukeUrlRepository.findByYearAndMonth(month.getYear(), month.getMonthValue())) {
+                urlsByOrg.computeIfAbsent(url.getOrganizationId(), k -> new ArrayList<>()).add(url);
+            }
         }
 
-        // ② アプリ→伝助: dirty=true の参加者を書き込む（全団体分を1回で処理）
-        try {
-            densukeWriteService.writeToDensuke();
-        } catch (Exception e) {
-            log.warn("Densuke write failed: {}", e.getMessage());
+        // 前回サイクルで後回しにした団体を先頭に並べる（安定ソートなので他は元の順序のまま）
+        List<Long> orgIds = new ArrayList<>(urlsByOrg.keySet());
+        orgIds.sort(Comparator.comparing(orgId -> !deferredOrgIds.contains(orgId)));
+        deferredOrgIds.clear();
+
+        long cycleStart = System.nanoTime();
+        long deadline = cycleStart + TimeUnit.SECONDS.toNanos(maxCycleSeconds);
+        Semaphore slots = new Semaphore(Math.max(1, maxConcurrentOrgs));
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < orgIds.size(); i++) {
+                Long orgId = orgIds.get(i);
+                try {
+                    slots.acquire();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    deferRemaining(orgIds.subList(i, orgIds.size()));
+                    break;
+                }
+                if (System.nanoTime() - deadline >= 0) {
+                    slots.release();
+                    deferRemaining(orgIds.subList(i, orgIds.size()));
+                    break;
+                }
+                List<DensukeUrl> orgUrls = urlsByOrg.get(orgId);
+                executor.submit(() -> {
+                    try {
+                        syncOrganization(orgId, orgUrls);
+                    } finally {
+                        slots.release();
+                    }
+                });
+            }
         }
 
-        LocalDate now = JstDateTimeUtil.today();
-
-        // ③ 伝助→アプリ: 当月・翌月の全団体のURLを読み取り
-        syncForMonth(now.getYear(), now.getMonthValue());
-        LocalDate nextMonth = now.plusMonths(1);
-        syncForMonth(nextMonth.getYear(), nextMonth.getMonthValue());
+        Timer.builder("densuke_sync.cycle.duration")
+                .description("5分間隔の伝助同期1サイクルの所要時間")
+                .register(meterRegistry)
+                .record(System.nanoTime() - cycleStart, TimeUnit.NANOSECONDS);
     }
 
-    private void syncForMonth(int year, int month) {
-        List<DensukeUrl> densukeUrls = densukeUrlRepository.findByYearAndMonth(year, month);
-        for (DensukeUrl densukeUrl : densukeUrls) {
-            Long orgId = densukeUrl.getOrganizationId();
+    /**
+     * 1団体分の同期（当月・翌月）。スケジュール push → 参加者書き込み → 取り込みを直列に行う。
+     * 各段の失敗はログのみで後続の段は続ける（従来の全団体一括処理と同じ扱い）。
+     */
+    private void syncOrganization(Long orgId, List<DensukeUrl> urls) {
+        long start = System.nanoTime();
+        boolean failed = false;
 
+        // ① アプリ→伝助 スケジュール push（即時 push 失敗の自動回復用フォロー同期）
+        //    失敗は WARN ログのみで管理者通知は発火しない（DensukeScheduleWriteService 側で抑制済み、フラッディング防止）
+        for (DensukeUrl url : urls) {
             try {
-                LocalDate targetMonth = LocalDate.of(year, month, 1);
-                var result = densukeImportService.importFromDensuke(
-                        densukeUrl.getUrl(), targetMonth,
-                        DensukeImportService.SYSTEM_USER_ID, orgId);
-                if (result.getRegisteredCount() > 0 || result.getCreatedSessionCount() > 0
-                        || result.getRemovedCount() > 0) {
-                    log.info("Sync {}/{} (orgId={}): {} sessions created, {} registered, {} removed",
-                            year, month, orgId,
-                            result.getCreatedSessionCount(), result.getRegisteredCount(),
-                            result.getRemovedCount());
-                }
+                densukeScheduleWriteService.pushSilently(url.getYear(), url.getMonth(), orgId);
             } catch (Exception e) {
-                log.error("Sync failed for {}/{} (orgId={})", year, month, orgId, e);
+                failed = true;
+                log.warn("Densuke schedule push (scheduler) failed for {}/{} (orgId={}): {}",
+                        url.getYear(), url.getMonth(), orgId, e.getMessage());
             }
         }
+
+        // ② アプリ→伝助: dirty=true の参加者を書き込む
+        for (DensukeUrl url : urls) {
+            try {
+                densukeWriteService.writeToDensukeForOrganization(url);
+            } catch (Exception e) {
+                failed = true;
+                log.warn("Densuke write failed for {}/{} (orgId={}): {}",
+                        url.getYear(), url.getMonth(), orgId, e.getMessage());
+            }
+        }
+
+        // ③ 伝助→アプリ: 前回取り込みから変化した行だけを取り込む（変化なしならDBに触れずスキップ）
+        for (DensukeUrl url : urls) {
+            if (!importChanges(url)) {
+                failed = true;
+            }
+        }
+
+        Timer.builder("densuke_sync.org.duration")
+                .description("伝助同期の団体ごとの所要時間（push + 書き込み + 取り込み）")
+                .tag("organizationId", String.valueOf(orgId))
+                .tag("result", failed ? "failed" : "success")
+                .register(meterRegistry)
+                .record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+    }
+
+    private boolean importChanges(DensukeUrl densukeUrl) {
+        int year = densukeUrl.getYear();
+        int month = densukeUrl.getMonth();
+        Long orgId = densukeUrl.getOrganizationId();
+        try {
+            LocalDate targetMonth = LocalDate.of(year, month, 1);
+            var result = densukeImportService.importChangesFromDensuke(
+                    densukeUrl, targetMonth, DensukeImportService.SYSTEM_USER_ID);
+            if (result.isUnchanged()) {
+                log.debug("Sync {}/{} (orgId={}): unchanged, import skipped", year, month, orgId);
+                return true;
+            }
+            if (result.getRegisteredCount() > 0 || result.getCreatedSessionCount() > 0
+                    || result.getRemovedCount() > 0) {
+                log.info("Sync {}/{} (orgId={}): {} sessions created, {} registered, {} removed",
+                        year, month, orgId,
+                        result.getCreatedSessionCount(), result.getRegisteredCount(),
+                        result.getRemovedCount());
+            }
+            return true;
+        } catch (Exception e) {
+            log.error("Sync failed for {}/{} (orgId={})", year, month, orgId, e);
+            return false;
+        }
+    }
+
+    /** サイクルの上限時間に達したため、未着手の団体を次サイクルへ回す */
+    private void deferRemaining(List<Long> remainingOrgIds) {
+        deferredOrgIds.addAll(remainingOrgIds);
+        meterRegistry.counter("densuke_sync.deferred_orgs").increment(remainingOrgIds.size());
+        log.warn("Densuke sync cycle exceeded {}s, deferring {} organizations to the next cycle: {}",
+                maxCycleSeconds, remainingOrgIds.size(), remainingOrgIds);
     }
 
     /**
-     * 非同期で伝助への書き込みのみ実行
+     * 非同期で伝助への書き込みのみ実行（当月・翌月の全団体。1団体の失敗は他団体を止めない）
      */
     @Async
     public void triggerWriteAsync() {
-        try {
-            densukeWriteService.writeToDensuke();
-        } catch (Exception e) {
-            log.warn("Async Densuke write failed: {}", e.getMessage());
+        LocalDate now = JstDateTimeUtil.today();
+        for (LocalDate month : List.of(now, now.plusMonths(1))) {
+            for (DensukeUrl url : densukeUrlRepository.findByYearAndMonth(month.getYear(), month.getMonthValue())) {
+                try {
+                    densukeWriteService.writeToDensukeForOrganization(url);
+                } catch (Exception e) {
+                    log.warn("Async Densuke write failed for {}/{} (orgId={}): {}",
+                            url.getYear(), url.getMonth(), url.getOrganizationId(), e.getMessage());
+                }
+            }
         }
     }
 }
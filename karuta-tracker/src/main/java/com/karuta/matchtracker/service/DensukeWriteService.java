@@ -72,20 +72,6 @@ public class DensukeWriteService {
                 .build();
     }
 
-    /**
-     * dirty=true の参加者を伝助に書き込む（スケジューラーから呼ばれる）
-     */
-    @Transactional
-    public void writeToDensuke() {
-        // 当月・翌月の全団体の DensukeUrl を取得
-        LocalDate now = JstDateTimeUtil.today();
-        List<DensukeUrl> urls = new ArrayList<>();
-        urls.addAll(densukeUrlRepository.findByYearAndMonth(now.getYear(), now.getMonthValue()));
-        LocalDate next = now.plusMonths(1);
-        urls.addAll(densukeUrlRepository.findByYearAndMonth(next.getYear(), next.getMonthValue()));
-        writeToDensukeInternal(urls);
-    }
-
     /**
      * 指定団体・指定年月のdirty参加者のみを伝助へ書き込む（手動同期用）。
      */
@@ -232,7 +218,7 @@ public class DensukeWriteService {
                         .timeout(10000)
                         .execute();
                 cookies = listResponse.cookies();
-                Document listDoc = listResponse.parse();
+                Document listDoc = densukeScraper.parseListPage(listResponse);
                 pageId = extractPageId(listDoc);
                 Set<String> nameCollisions = new LinkedHashSet<>();
                 memberNameToMi = extractAllMemberMappings(listDoc, nameCollisions);
@@ -378,7 +364,7 @@ public class DensukeWriteService {
                 Connection.Response listResponse = Jsoup.connect(base + "list?cd=" + cd)
                         .userAgent("Mozilla/5.0").timeout(10000).execute();
                 cookies = listResponse.cookies();
-                Document listDoc = listResponse.parse();
+                Document listDoc = densukeScraper.parseListPage(listResponse);
                 pageId = extractPageId(listDoc);
                 Set<String> nameCollisions = new LinkedHashSet<>();
                 memberNameToMi = extractAllMemberMappings(listDoc, nameCollisions);
@@ -643,7 +629,7 @@ public class DensukeWriteService {
                     .userAgent("Mozilla/5.0")
                     .timeout(10000)
                     .execute();
-            Document listDoc = listResponse.parse();
+            Document listDoc = densukeScraper.parseListPage(listResponse);
             Map<String, String> memberMap = extractAllMemberMappings(listDoc);
             String mi = memberMap.get(memberName);
             if (mi != null) {
@@ -0,0 +1,55 @@
+package com.karuta.matchtracker.service;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 従来の貪欲法による組み合わせ（{@code GREEDY}）。
+ *
+ * <p>未ペアの全順序対 (i, j) を走査して最高スコアの1組を選ぶ操作を、組めなくなるまで繰り返す。
+ * 同点は走査順（＝シャッフル済みの参加者順）で先に見つかった組を採る。選択結果は行列化前の
+ * 実装と同一で、1ラウンド O(n²)・全体 O(n³) だが文字列キー生成や履歴走査は伴わない。
+ *
+ * @see com.karuta.matchtracker.dto.AutoMatchingRequest.Engine
+ */
+final class GreedyPairingEngine implements PairingEngine {
+
+    static final GreedyPairingEngine INSTANCE = new GreedyPairingEngine();
+
+    private GreedyPairingEngine() {
+    }
+
+    @Override
+    public List<int[]> pair(PairScoreMatrix matrix) {
+        int n = matrix.size();
+        boolean[] paired = new boolean[n];
+        int pairedCount = 0;
+        List<int[]> result = new ArrayList<>();
+
+        while (pairedCount + 1 < n) {
+            int best1 = -1;
+            int best2 = -1;
+            double bestScore = Double.NEGATIVE_INFINITY;
+            for (int i = 0; i < n; i++) {
+                if (paired[i]) continue;
+                for (int j = 0; j < n; j++) {
+                    if (paired[j] || i == j || !matrix.isAllowed(i, j)) continue;
+                    double score = matrix.score(i, j);
+                    if (score > bestScore) {
+                        bestScore = score;
+                        best1 = i;
+                        best2 = j;
+                    }
+                }
+            }
+            if (best1 < 0) {
+                break;
+            }
+            result.add(new int[]{best1, best2});
+            paired[best1] = true;
+            paired[best2] = true;
+            pairedCount += 2;
+        }
+        return result;
+    }
+}
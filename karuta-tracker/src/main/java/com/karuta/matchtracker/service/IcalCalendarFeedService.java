@@ -1,20 +1,13 @@
 package com.karuta.matchtracker.service;
 
-import biweekly.Biweekly;
-import biweekly.ICalVersion;
-import biweekly.ICalendar;
-import biweekly.component.VEvent;
-import biweekly.property.DateEnd;
-import biweekly.property.DateStart;
-import biweekly.util.DateTimeComponents;
-import biweekly.util.ICalDate;
 import com.karuta.matchtracker.dto.FeedInfoDto;
 import com.karuta.matchtracker.dto.GuestFeedDto;
 import com.karuta.matchtracker.dto.OrganizationFeedDto;
+import com.karuta.matchtracker.entity.IcalFeedArchiveSegment;
 import com.karuta.matchtracker.entity.Organization;
+import com.karuta.matchtracker.entity.ParticipantStatus;
 import com.karuta.matchtracker.entity.Player;
 import com.karuta.matchtracker.entity.PlayerOrganization;
-import com.karuta.matchtracker.entity.PracticeParticipant;
 import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.entity.Venue;
 import com.karuta.matchtracker.entity.VenueMatchSchedule;
@@ -30,17 +23,27 @@ import com.karuta.matchtracker.util.JstDateTimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.ByteArrayOutputStream;
+import java.io.FilterOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.security.SecureRandom;
+import java.time.Instant;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.Comparator;
-import java.util.Date;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.HexFormat;
@@ -48,15 +51,32 @@ import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
-import java.util.TimeZone;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 /**
  * iCalカレンダーフィード生成サービス
  *
- * プレイヤーごとに発行された固定トークンを用いて、未来の参加練習を
+ * プレイヤーごとに発行された固定トークンを用いて、参加練習を
  * 所属団体カレンダー・ゲスト参加カレンダーに分割した iCalendar (RFC 5545)
  * 形式のテキストとして出力する。
+ *
+ * 購読クライアントのポーリングは {@link #resolveFeedStamp}（トークンでの1回の索引引き）で
+ * 版番号を取り、変化が無ければ描画せずに 304 で返す（IcalCalendarFeedController）。
+ *
+ * 参加履歴は (練習日, 練習ID, 参加ID) のキーセットで {@link #PAGE_SIZE} 件ずつ読み、
+ * VEVENT を {@link IcsStreamWriter} で出力先へ直接書く。履歴の長い選手でもカレンダー全体を
+ * メモリに組み立てない。描画したフィードは {@link IcalFeedCache#MAX_ENTRY_BYTES} 以下なら
+ * (選手, フィード種別, 版番号) をキーにキャッシュする。
+ *
+ * 履歴の範囲は {@code app.ical.history-mode} で切り替える。
+ * <ul>
+ *   <li>{@code full}（既定）: 全期間を毎回描画する</li>
+ *   <li>{@code rolling}: 直近 {@code app.ical.live-window-years} 年分だけを描画し、それより前の年は
+ *       年ごとに1度だけ描画した VEVENT 列（{@code ical_feed_archive_segments}）をそのまま書く。
+ *       区間は過去の年の参加・練習日・会場・団体・所属が変わったときに IcalFeedVersionService が削除する</li>
+ * </ul>
  */
 @Slf4j
 @Service
@@ -68,7 +88,19 @@ public class IcalCalendarFeedService {
     private static final int TOKEN_BYTE_LENGTH = 24;
     private static final String PRODUCT_ID = "-//karuta-match-tracker//iCal Feed//JP";
     private static final String GUEST_CALENDAR_NAME = "ゲスト参加";
-    private static final TimeZone JST_TIMEZONE = TimeZone.getTimeZone(JstDateTimeUtil.JST);
+    private static final String GUEST_FEED_KEY = "guest";
+
+    /** 参加履歴を1回に読む件数 */
+    static final int PAGE_SIZE = 500;
+
+    // 全期間モードの範囲（練習日の下限・上限の番兵）
+    private static final LocalDate HISTORY_START = LocalDate.of(1900, 1, 1);
+    private static final LocalDate HISTORY_END = LocalDate.of(9999, 1, 1);
+
+    // CANCELLED 等の非アクティブステータスはフィードに出さない
+    private static final List<ParticipantStatus> ACTIVE_STATUSES = Arrays.stream(ParticipantStatus.values())
+            .filter(ParticipantStatus::isActive)
+            .toList();
 
     private final PlayerRepository playerRepository;
     private final PlayerOrganizationRepository playerOrganizationRepository;
@@ -77,10 +109,20 @@ public class IcalCalendarFeedService {
     private final PracticeSessionRepository practiceSessionRepository;
     private final VenueRepository venueRepository;
     private final VenueMatchScheduleRepository venueMatchScheduleRepository;
+    private final IcalFeedCache icalFeedCache;
+    private final IcalFeedArchiveService icalFeedArchiveService;
 
     @Value("${app.base-url:http://localhost:8080}")
     private String appBaseUrl;
 
+    /** full: 全期間を描画 / rolling: 直近の年だけ描画し、それより前は年別アーカイブ区間を使う */
+    @Value("${app.ical.history-mode:full}")
+    private String historyMode;
+
+    /** rolling モードで毎回描画する年数（今年を含む） */
+    @Value("${app.ical.live-window-years:2}")
+    private int liveWindowYears;
+
     /**
      * 所属団体カレンダーの iCal フィードを生成する。
      *
@@ -93,8 +135,102 @@ public class IcalCalendarFeedService {
     @Transactional(readOnly = true)
     public String generateIcsForOrgFeed(String token, Long orgId) {
         Player player = loadPlayerByToken(token);
-        Long playerId = player.getId();
+        return renderToString(player.getId(), feedVersion(player), orgFeedSpec(player.getId(), orgId));
+    }
 
+    /**
+     * ゲスト参加カレンダーの iCal フィードを生成する。
+     *
+     * @param token プレイヤーのフィードトークン
+     * @return iCalendar 形式のテキスト
+     * @throws ResourceNotFoundException トークンに対応するプレイヤーが存在しない場合
+     */
+    @Transactional(readOnly = true)
+    public String generateIcsForGuestFeed(String token) {
+        Player player = loadPlayerByToken(token);
+        return renderToString(player.getId(), feedVersion(player), guestFeedSpec(player.getId()));
+    }
+
+    /**
+     * トークンに対応するプレイヤーのフィード版番号を取得する（条件付き GET の判定用）。
+     * トークンでの索引引き1回のみで、フィードは描画しない。
+     *
+     * @param token プレイヤーのフィードトークン
+     * @return 版番号と最終更新日時
+     * @throws ResourceNotFoundException トークンに対応するプレイヤーが存在しない場合
+     */
+    @Transactional(readOnly = true)
+    public FeedStamp resolveFeedStamp(String token) {
+        Player player = loadPlayerByToken(token);
+        return new FeedStamp(player.getId(), feedVersion(player), player.getIcalFeedUpdatedAt());
+    }
+
+    /**
+     * 所属団体カレンダーの iCal フィードを出力先へ書く。同じ版番号で描画済みならキャッシュから書く。
+     * 所属チェックは書き始める前に行うため、例外時には出力先に何も書かれていない。
+     *
+     * @param stamp {@link #resolveFeedStamp} の結果
+     * @param orgId 所属団体ID
+     * @param out   出力先（UTF-8 のバイト列を書く。close はしない）
+     * @throws ResourceNotFoundException プレイヤーが orgId に所属していない場合
+     */
+    @Transactional(readOnly = true)
+    public void writeOrgFeed(FeedStamp stamp, Long orgId, OutputStream out) throws IOException {
+        writeCached(stamp, orgFeedKey(orgId), () -> orgFeedSpec(stamp.playerId(), orgId), out);
+    }
+
+    /**
+     * ゲスト参加カレンダーの iCal フィードを出力先へ書く。同じ版番号で描画済みならキャッシュから書く。
+     *
+     * @param stamp {@link #resolveFeedStamp} の結果
+     * @param out   出力先（UTF-8 のバイト列を書く。close はしない）
+     */
+    @Transactional(readOnly = true)
+    public void writeGuestFeed(FeedStamp stamp, OutputStream out) throws IOException {
+        writeCached(stamp, GUEST_FEED_KEY, () -> guestFeedSpec(stamp.playerId()), out);
+    }
+
+    /**
+     * フィードの版番号。内容が変わるたびに IcalFeedVersionService が進める。
+     *
+     * @param playerId    プレイヤーID
+     * @param version     版番号
+     * @param updatedAt   内容が最後に変わった日時（JST、未記録なら null）
+     */
+    public record FeedStamp(Long playerId, long version, LocalDateTime updatedAt) {
+
+        /** ETag ヘッダ値（引用符付き） */
+        public String etag() {
+            return "\"v" + version + "\"";
+        }
+
+        /** Last-Modified のエポックミリ秒。未記録なら -1（ヘッダを付けない） */
+        public long lastModifiedMillis() {
+            return updatedAt != null ? updatedAt.atZone(JstDateTimeUtil.JST).toInstant().toEpochMilli() : -1;
+        }
+    }
+
+    /**
+     * 1本のフィードの描画条件
+     *
+     * @param feedKey              キャッシュ・アーカイブ区間のキー（"org-{団体ID}" / "guest"）
+     * @param calendarName         X-WR-CALNAME
+     * @param sessionFilter        フィードに載せる練習日の条件
+     * @param presetOrganizations  取得済みの団体
+     * @param displayNameByOrgId   団体ごとのカレンダー表示名
+     */
+    private record FeedSpec(String feedKey,
+                            String calendarName,
+                            Predicate<PracticeSession> sessionFilter,
+                            Map<Long, Organization> presetOrganizations,
+                            Map<Long, String> displayNameByOrgId) {
+    }
+
+    private static String orgFeedKey(Long orgId) {
+        return "org-" + orgId;
+    }
+
+    private FeedSpec orgFeedSpec(Long playerId, Long orgId) {
         if (!playerOrganizationRepository.existsByPlayerIdAndOrganizationId(playerId, orgId)) {
             throw new ResourceNotFoundException(
                     String.format("PlayerOrganization not found with playerId: %d, organizationId: %d",
@@ -109,41 +245,21 @@ public class IcalCalendarFeedService {
                         PlayerOrganization::getCalendarDisplayName,
                         (a, b) -> a));
 
-        String calendarName = resolveOrgCalendarName(orgId, organization, displayNameByOrgId);
-
-        List<PracticeParticipant> participations = loadActiveParticipations(playerId).stream()
-                .collect(Collectors.toList());
-
-        return buildIcsForParticipations(
-                playerId,
-                participations,
-                calendarName,
+        return new FeedSpec(
+                orgFeedKey(orgId),
+                resolveOrgCalendarName(orgId, organization, displayNameByOrgId),
                 session -> Objects.equals(session.getOrganizationId(), orgId),
                 organization != null ? Map.of(orgId, organization) : Collections.emptyMap(),
                 displayNameByOrgId);
     }
 
-    /**
-     * ゲスト参加カレンダーの iCal フィードを生成する。
-     *
-     * @param token プレイヤーのフィードトークン
-     * @return iCalendar 形式のテキスト
-     * @throws ResourceNotFoundException トークンに対応するプレイヤーが存在しない場合
-     */
-    @Transactional(readOnly = true)
-    public String generateIcsForGuestFeed(String token) {
-        Player player = loadPlayerByToken(token);
-        Long playerId = player.getId();
-
+    private FeedSpec guestFeedSpec(Long playerId) {
         Set<Long> memberOrgIds = playerOrganizationRepository.findByPlayerId(playerId).stream()
                 .map(PlayerOrganization::getOrganizationId)
                 .collect(Collectors.toSet());
 
-        List<PracticeParticipant> participations = loadActiveParticipations(playerId);
-
-        return buildIcsForParticipations(
-                playerId,
-                participations,
+        return new FeedSpec(
+                GUEST_FEED_KEY,
                 GUEST_CALENDAR_NAME,
                 session -> session.getOrganizationId() != null
                         && !memberOrgIds.contains(session.getOrganizationId()),
@@ -228,6 +344,7 @@ public class IcalCalendarFeedService {
         return buildFeedInfo(player);
     }
 
+
     // ============================================================
     // 内部ヘルパー
     // ============================================================
@@ -237,111 +354,251 @@ public class IcalCalendarFeedService {
                 .orElseThrow(() -> new ResourceNotFoundException("Player", "icalFeedToken", token));
     }
 
-    private List<PracticeParticipant> loadActiveParticipations(Long playerId) {
-        // 全期間（過去・未来とも）を返す。カレンダーアプリで過去を見返す体験を維持するため。
-        // CANCELLED 等の非アクティブステータスは除外する。
-        return practiceParticipantRepository.findAllParticipationsByPlayer(playerId).stream()
-                .filter(p -> p.getStatus() != null && p.getStatus().isActive())
-                .collect(Collectors.toList());
+    private static long feedVersion(Player player) {
+        return player.getIcalFeedVersion() != null ? player.getIcalFeedVersion() : 0L;
     }
 
-    private String buildIcsForParticipations(Long playerId,
-                                             List<PracticeParticipant> activeParticipations,
-                                             String calendarName,
-                                             java.util.function.Predicate<PracticeSession> sessionFilter,
-                                             Map<Long, Organization> presetOrganizationMap,
-                                             Map<Long, String> displayNameByOrgId) {
-        ICalendar ical = buildBaseCalendar(calendarName);
+    private String renderToString(Long playerId, long feedVersion, FeedSpec spec) {
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream();
+        try {
+            render(playerId, feedVersion, spec, buffer);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return buffer.toString(StandardCharsets.UTF_8);
+    }
 
-        if (activeParticipations.isEmpty()) {
-            return Biweekly.write(ical).version(ICalVersion.V2_0).tz(JST_TIMEZONE, true).go();
+    private void writeCached(FeedStamp stamp, String feedKey, Supplier<FeedSpec> specLoader,
+                             OutputStream out) throws IOException {
+        byte[] cached = icalFeedCache.getIfPresent(stamp.playerId(), feedKey, stamp.version());
+        if (cached != null) {
+            out.write(cached);
+            return;
+        }
+        FeedSpec spec = specLoader.get();
+        CappedCopyOutputStream copying = new CappedCopyOutputStream(out, IcalFeedCache.MAX_ENTRY_BYTES);
+        render(stamp.playerId(), stamp.version(), spec, copying);
+        byte[] rendered = copying.copied();
+        if (rendered != null) {
+            icalFeedCache.put(stamp.playerId(), feedKey, stamp.version(), rendered);
         }
+    }
 
-        List<Long> participatingSessionIds = activeParticipations.stream()
-                .map(PracticeParticipant::getSessionId)
-                .distinct()
-                .collect(Collectors.toList());
+    /**
+     * @param feedVersion 描画の起点にした版番号。アーカイブ区間はこの版番号のまま登録できた場合だけ残す
+     */
+    private void render(Long playerId, long feedVersion, FeedSpec spec, OutputStream out) throws IOException {
+        Instant renderedAt = Instant.now();
+        IcsStreamWriter writer = new IcsStreamWriter(out, renderedAt);
+        writer.beginCalendar(PRODUCT_ID, spec.calendarName());
+
+        LocalDate liveFrom = HISTORY_START;
+        if (isRollingMode()) {
+            int firstLiveYear = JstDateTimeUtil.today().getYear() - Math.max(1, liveWindowYears) + 1;
+            liveFrom = LocalDate.of(firstLiveYear, 1, 1);
+            writeArchivedYears(playerId, feedVersion, spec, firstLiveYear, renderedAt, writer);
+        }
+        writeEvents(playerId, spec, liveFrom, HISTORY_END, writer);
 
-        Map<Long, PracticeSession> sessionMap = practiceSessionRepository
-                .findAllById(participatingSessionIds).stream()
-                .collect(Collectors.toMap(PracticeSession::getId, s -> s));
+        writer.endCalendar();
+        writer.flush();
+    }
 
-        List<Long> filteredSessionIds = participatingSessionIds.stream()
-                .filter(sid -> {
-                    PracticeSession s = sessionMap.get(sid);
-                    return s != null && sessionFilter.test(s);
-                })
-                .collect(Collectors.toList());
+    private boolean isRollingMode() {
+        return "rolling".equalsIgnoreCase(historyMode);
+    }
 
-        if (filteredSessionIds.isEmpty()) {
-            return Biweekly.write(ical).version(ICalVersion.V2_0).tz(JST_TIMEZONE, true).go();
+    /**
+     * firstLiveYear より前の年を年別アーカイブ区間から書く。区間の無い年はその年だけ描画して登録する。
+     * 描画済みの区間の DTSTAMP は描画時のまま（内容が変わらない限り作り直さない）。
+     * 描画中に版番号が進んだ場合は区間を登録しない（{@link IcalFeedArchiveService#store}）。
+     */
+    private void writeArchivedYears(Long playerId, long feedVersion, FeedSpec spec, int firstLiveYear,
+                                    Instant renderedAt, IcsStreamWriter writer) throws IOException {
+        LocalDate earliest = practiceParticipantRepository.findEarliestIcalSessionDate(playerId, ACTIVE_STATUSES);
+        if (earliest == null) {
+            return;
+        }
+        for (int year = earliest.getYear(); year < firstLiveYear; year++) {
+            String content = icalFeedArchiveService.find(playerId, spec.feedKey(), year)
+                    .map(IcalFeedArchiveSegment::getContent)
+                    .orElse(null);
+            if (content == null) {
+                StringWriter segment = new StringWriter();
+                IcsStreamWriter segmentWriter = new IcsStreamWriter(segment, renderedAt);
+                writeEvents(playerId, spec, LocalDate.of(year, 1, 1), LocalDate.of(year + 1, 1, 1), segmentWriter);
+                content = segment.toString();
+                icalFeedArchiveService.store(playerId, feedVersion, spec.feedKey(), year, content,
+                        segmentWriter.eventCount());
+            }
+            writer.writeRaw(content);
         }
+    }
 
-        Set<Long> venueIds = filteredSessionIds.stream()
-                .map(sessionMap::get)
-                .map(PracticeSession::getVenueId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Map<Long, Venue> venueMap = venueRepository.findAllById(venueIds).stream()
-                .collect(Collectors.toMap(Venue::getId, v -> v));
-
-        Map<Long, Map<Integer, VenueMatchSchedule>> scheduleMap = new HashMap<>();
-        if (!venueIds.isEmpty()) {
-            List<VenueMatchSchedule> schedules =
-                    venueMatchScheduleRepository.findByVenueIdIn(new ArrayList<>(venueIds));
-            for (VenueMatchSchedule s : schedules) {
-                scheduleMap
-                        .computeIfAbsent(s.getVenueId(), k -> new HashMap<>())
-                        .put(s.getMatchNumber(), s);
+    /**
+     * [from, to) の練習日の参加を練習日順にページングで読み、練習日ごとに1件の VEVENT を書く。
+     * 同じ練習日の参加（試合ごとの行）がページをまたいでも1件にまとめる。
+     */
+    private void writeEvents(Long playerId, FeedSpec spec, LocalDate from, LocalDate to,
+                             IcsStreamWriter writer) throws IOException {
+        ReferenceData refs = new ReferenceData(spec);
+        SessionGroup group = null;
+
+        LocalDate afterDate = from.minusDays(1);
+        Long afterSessionId = 0L;
+        Long afterId = 0L;
+        while (true) {
+            List<Object[]> rows = practiceParticipantRepository.findIcalParticipationPage(
+                    playerId, ACTIVE_STATUSES, from, to, afterDate, afterSessionId, afterId,
+                    PageRequest.of(0, PAGE_SIZE));
+            if (rows.isEmpty()) {
+                break;
+            }
+
+            Map<Long, PracticeSession> sessions = loadFilteredSessions(rows, spec, refs);
+            for (Object[] row : rows) {
+                Long sessionId = (Long) row[1];
+                if (group == null || !group.sessionId.equals(sessionId)) {
+                    writeGroup(playerId, group, refs, spec, writer);
+                    group = new SessionGroup(sessionId, sessions.get(sessionId));
+                }
+                group.add((Integer) row[3]);
+            }
+
+            Object[] last = rows.get(rows.size() - 1);
+            afterDate = (LocalDate) last[2];
+            afterSessionId = (Long) last[1];
+            afterId = (Long) last[0];
+            if (rows.size() < PAGE_SIZE) {
+                break;
             }
         }
+        writeGroup(playerId, group, refs, spec, writer);
+    }
 
-        Set<Long> organizationIds = filteredSessionIds.stream()
-                .map(sessionMap::get)
-                .map(PracticeSession::getOrganizationId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
-        Map<Long, Organization> organizationMap = new HashMap<>(presetOrganizationMap);
-        Set<Long> missingOrgIds = new HashSet<>(organizationIds);
-        missingOrgIds.removeAll(organizationMap.keySet());
-        if (!missingOrgIds.isEmpty()) {
-            organizationRepository.findAllById(missingOrgIds).forEach(o -> organizationMap.put(o.getId(), o));
+    /** ページ内の練習日のうちフィード対象のものを返し、その会場・スケジュール・団体を refs に読み足す */
+    private Map<Long, PracticeSession> loadFilteredSessions(List<Object[]> rows, FeedSpec spec, ReferenceData refs) {
+        List<Long> sessionIds = rows.stream()
+                .map(row -> (Long) row[1])
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, PracticeSession> filtered = practiceSessionRepository.findAllById(sessionIds).stream()
+                .filter(spec.sessionFilter())
+                .collect(Collectors.toMap(PracticeSession::getId, s -> s));
+        if (!filtered.isEmpty()) {
+            refs.load(filtered.values());
         }
+        return filtered;
+    }
+
+    private void writeGroup(Long playerId, SessionGroup group, ReferenceData refs, FeedSpec spec,
+                            IcsStreamWriter writer) throws IOException {
+        if (group == null || group.session == null) {
+            return;
+        }
+        writer.writeEvent(buildEvent(playerId, group.session, refs.venues, refs.schedules,
+                group.matchNumbers, group.allHaveMatchNumber, refs.organizations, spec.displayNameByOrgId()));
+    }
 
-        Map<Long, List<Integer>> sessionMatchNumbers = new HashMap<>();
-        Set<Long> sessionsWithNullMatchNumber = new HashSet<>();
-        for (PracticeParticipant p : activeParticipations) {
-            if (!filteredSessionIds.contains(p.getSessionId())) continue;
-            if (p.getMatchNumber() == null) {
-                sessionsWithNullMatchNumber.add(p.getSessionId());
+    /** 1練習日分の参加行（試合番号） */
+    private static final class SessionGroup {
+        private final Long sessionId;
+        // フィード対象外・削除済みの練習日なら null（イベントを書かない）
+        private final PracticeSession session;
+        private final List<Integer> matchNumbers = new ArrayList<>();
+        private boolean allHaveMatchNumber = true;
+
+        private SessionGroup(Long sessionId, PracticeSession session) {
+            this.sessionId = sessionId;
+            this.session = session;
+        }
+
+        private void add(Integer matchNumber) {
+            if (matchNumber == null) {
+                allHaveMatchNumber = false;
             } else {
-                sessionMatchNumbers
-                        .computeIfAbsent(p.getSessionId(), k -> new ArrayList<>())
-                        .add(p.getMatchNumber());
+                matchNumbers.add(matchNumber);
             }
         }
+    }
 
-        for (Long sessionId : filteredSessionIds) {
-            PracticeSession session = sessionMap.get(sessionId);
-            if (session == null) continue;
+    /** 描画中に読んだ会場・会場スケジュール・団体（ページをまたいで使い回し、未取得の分だけ読み足す） */
+    private final class ReferenceData {
+        private final Map<Long, Venue> venues = new HashMap<>();
+        private final Set<Long> loadedVenueIds = new HashSet<>();
+        private final Map<Long, Map<Integer, VenueMatchSchedule>> schedules = new HashMap<>();
+        private final Map<Long, Organization> organizations;
 
-            boolean allHaveMatchNumber = !sessionsWithNullMatchNumber.contains(sessionId);
-            VEvent event = buildEvent(playerId, session, venueMap, scheduleMap,
-                    sessionMatchNumbers.get(sessionId), allHaveMatchNumber,
-                    organizationMap, displayNameByOrgId);
-            ical.addEvent(event);
+        private ReferenceData(FeedSpec spec) {
+            this.organizations = new HashMap<>(spec.presetOrganizations());
         }
 
-        return Biweekly.write(ical).version(ICalVersion.V2_0).tz(JST_TIMEZONE, true).go();
+        private void load(Collection<PracticeSession> sessions) {
+            Set<Long> missingVenueIds = sessions.stream()
+                    .map(PracticeSession::getVenueId)
+                    .filter(Objects::nonNull)
+                    .filter(id -> !loadedVenueIds.contains(id))
+                    .collect(Collectors.toSet());
+            venueRepository.findAllById(missingVenueIds).forEach(v -> venues.put(v.getId(), v));
+            if (!missingVenueIds.isEmpty()) {
+                loadedVenueIds.addAll(missingVenueIds);
+                for (VenueMatchSchedule s : venueMatchScheduleRepository.findByVenueIdIn(new ArrayList<>(missingVenueIds))) {
+                    schedules
+                            .computeIfAbsent(s.getVenueId(), k -> new HashMap<>())
+                            .put(s.getMatchNumber(), s);
+                }
+            }
+
+            Set<Long> missingOrgIds = sessions.stream()
+                    .map(PracticeSession::getOrganizationId)
+                    .filter(Objects::nonNull)
+                    .filter(id -> !organizations.containsKey(id))
+                    .collect(Collectors.toSet());
+            if (!missingOrgIds.isEmpty()) {
+                organizationRepository.findAllById(missingOrgIds).forEach(o -> organizations.put(o.getId(), o));
+            }
+        }
     }
 
-    private ICalendar buildBaseCalendar(String calendarName) {
-        ICalendar ical = new ICalendar();
-        ical.setProductId(PRODUCT_ID);
-        if (calendarName != null && !calendarName.isBlank()) {
-            ical.addExperimentalProperty("X-WR-CALNAME", calendarName);
+    /**
+     * 出力先へ書きつつ、上限までのコピーを残す。上限を超えたらコピーを捨てる（キャッシュしない）
+     */
+    private static final class CappedCopyOutputStream extends FilterOutputStream {
+        private final int limit;
+        private ByteArrayOutputStream copy = new ByteArrayOutputStream();
+
+        private CappedCopyOutputStream(OutputStream out, int limit) {
+            super(out);
+            this.limit = limit;
+        }
+
+        @Override
+        public void write(int b) throws IOException {
+            out.write(b);
+            keep(new byte[]{(byte) b}, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) throws IOException {
+            out.write(b, off, len);
+            keep(b, off, len);
+        }
+
+        private void keep(byte[] b, int off, int len) {
+            if (copy == null) {
+                return;
+            }
+            if (copy.size() + len > limit) {
+                copy = null;
+            } else {
+                copy.write(b, off, len);
+            }
+        }
+
+        /** 上限内に収まったときの全出力（超えたら null） */
+        private byte[] copied() {
+            return copy != null ? copy.toByteArray() : null;
         }
-        return ical;
     }
 
     private FeedInfoDto buildFeedInfo(Player player) {
@@ -396,22 +653,18 @@ public class IcalCalendarFeedService {
         return TOKEN_HEX.formatHex(bytes);
     }
 
-    private VEvent buildEvent(Long playerId,
-                              PracticeSession session,
-                              Map<Long, Venue> venueMap,
-                              Map<Long, Map<Integer, VenueMatchSchedule>> scheduleMap,
-                              List<Integer> matchNumbers,
-                              boolean allHaveMatchNumber,
-                              Map<Long, Organization> organizationMap,
-                              Map<Long, String> displayNameByOrgId) {
-        VEvent event = new VEvent();
-
-        event.setUid("session-" + session.getId() + "-player-" + playerId + "@match-tracker");
+    private IcsStreamWriter.Event buildEvent(Long playerId,
+                                             PracticeSession session,
+                                             Map<Long, Venue> venueMap,
+                                             Map<Long, Map<Integer, VenueMatchSchedule>> scheduleMap,
+                                             List<Integer> matchNumbers,
+                                             boolean allHaveMatchNumber,
+                                             Map<Long, Organization> organizationMap,
+                                             Map<Long, String> displayNameByOrgId) {
+        String uid = "session-" + session.getId() + "-player-" + playerId + "@match-tracker";
 
         String displayName = resolveDisplayName(session, organizationMap, displayNameByOrgId);
         String venueName = resolveVenueName(session, venueMap);
-        event.setSummary(displayName + "＠" + venueName);
-        event.setLocation(venueName);
 
         Integer minMatch = null;
         Integer maxMatch = null;
@@ -420,11 +673,11 @@ public class IcalCalendarFeedService {
             maxMatch = Collections.max(matchNumbers);
         }
 
+        String description = null;
         if (minMatch != null && maxMatch != null) {
-            String desc = (minMatch.equals(maxMatch))
+            description = (minMatch.equals(maxMatch))
                     ? "試合数: " + minMatch + "試合"
                     : "試合数: " + minMatch + "〜" + maxMatch + "試合";
-            event.setDescription(desc);
         }
 
         LocalTime startTime = null;
@@ -459,29 +712,14 @@ public class IcalCalendarFeedService {
         }
 
         LocalDate date = session.getSessionDate();
-        if (startTime != null) {
-            LocalDateTime startLdt = LocalDateTime.of(date, startTime);
-            LocalTime resolvedEnd = endTime != null ? endTime : startTime.plusHours(4);
-            LocalDateTime endLdt = LocalDateTime.of(date, resolvedEnd);
-
-            Date startDate = Date.from(startLdt.atZone(JstDateTimeUtil.JST).toInstant());
-            Date endDateTime = Date.from(endLdt.atZone(JstDateTimeUtil.JST).toInstant());
-            event.setDateStart(startDate, true);
-            event.setDateEnd(endDateTime, true);
-        } else {
-            // 全日イベント (VALUE=DATE)。
-            // setDateStart(Date, false) は JVM デフォルトTZ で日付を解釈するため、Render などの UTC 環境では
-            // 前日として出力されてしまう。biweekly の DateTimeComponents で日付成分を直接保持し、TZ非依存にする。
-            LocalDate nextDay = date.plusDays(1);
-            DateTimeComponents startComp = new DateTimeComponents(
-                    date.getYear(), date.getMonthValue(), date.getDayOfMonth());
-            DateTimeComponents endComp = new DateTimeComponents(
-                    nextDay.getYear(), nextDay.getMonthValue(), nextDay.getDayOfMonth());
-            event.setDateStart(new DateStart(new ICalDate(startComp, false)));
-            event.setDateEnd(new DateEnd(new ICalDate(endComp, false)));
+        if (startTime == null) {
+            // 全日イベント (VALUE=DATE)。日付成分だけを書くため JVM のデフォルトTZに依存しない
+            return new IcsStreamWriter.Event(uid, displayName + "＠" + venueName, venueName, description,
+                    date, null, null);
         }
-
-        return event;
+        LocalTime resolvedEnd = endTime != null ? endTime : startTime.plusHours(4);
+        return new IcsStreamWriter.Event(uid, displayName + "＠" + venueName, venueName, description,
+                date, LocalDateTime.of(date, startTime), LocalDateTime.of(date, resolvedEnd));
     }
 
     private String resolveOrgCalendarName(Long orgId,
@@ -0,0 +1,53 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.IcalFeedArchiveSegment;
+import com.karuta.matchtracker.repository.IcalFeedArchiveSegmentRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.Optional;
+
+/**
+ * iCalフィードの年別アーカイブ区間の読み書き
+ *
+ * フィードの描画は読み取り専用トランザクションで行うため、区間の登録は別トランザクション
+ * （REQUIRES_NEW）でコミットする。並行した描画が同じ区間を作った場合は先勝ち。
+ *
+ * 描画が過去の年を読んでから登録するまでの間に元データが変わると、IcalFeedVersionService の
+ * 区間削除が登録より先に走り、古い内容の区間が残ってしまう。これを防ぐため、登録は描画の起点にした
+ * 版番号（{@code players.ical_feed_version}）がまだ最新の場合だけ行う。
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class IcalFeedArchiveService {
+
+    private final IcalFeedArchiveSegmentRepository icalFeedArchiveSegmentRepository;
+
+    public Optional<IcalFeedArchiveSegment> find(Long playerId, String feedKey, int year) {
+        return icalFeedArchiveSegmentRepository.findByPlayerIdAndFeedKeyAndSegmentYear(playerId, feedKey, year);
+    }
+
+    /**
+     * 区間を登録する。既にある場合と、版番号が feedVersion から進んでいる場合は何もしない。
+     *
+     * @param feedVersion 描画の起点にした版番号
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void store(Long playerId, long feedVersion, String feedKey, int year, String content, int eventCount) {
+        int inserted = icalFeedArchiveSegmentRepository.insertIfCurrent(
+                playerId, feedVersion, feedKey, year, content, eventCount, JstDateTimeUtil.now());
+        if (inserted > 0) {
+            log.debug("Stored iCal archive segment: player={}, version={}, feed={}, year={}, events={}",
+                    playerId, feedVersion, feedKey, year, eventCount);
+        } else {
+            log.debug("Skipped iCal archive segment: player={}, version={}, feed={}, year={}",
+                    playerId, feedVersion, feedKey, year);
+        }
+    }
+}
@@ -0,0 +1,55 @@
+package com.karuta.matchtracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 描画済み iCal フィード（ICS のバイト列）のプロセス内キャッシュ。
+ *
+ * <p>キーは (選手ID, フィード種別, 版番号)。フィードの内容が変わると版番号
+ * （{@code players.ical_feed_version}）が進むため、古い版のエントリは参照されなくなり、
+ * 容量上限（バイト数）と未参照期限で自然に追い出される。明示的な無効化は持たない。
+ * 1件が {@link #MAX_ENTRY_BYTES} を超える長い履歴のフィードは載せず、毎回ストリーミングで描画する。
+ */
+@Component
+public class IcalFeedCache {
+
+    /** キャッシュ全体のバイト数上限 */
+    static final long MAX_WEIGHT_BYTES = 32L * 1024 * 1024;
+
+    /** 1件あたりの上限。これを超えるフィードはキャッシュしない */
+    static final int MAX_ENTRY_BYTES = 512 * 1024;
+
+    /** 参照の無いエントリを捨てるまでの期間（購読クライアントのポーリング間隔より十分長く） */
+    static final Duration IDLE_TTL = Duration.ofHours(12);
+
+    record Key(Long playerId, String feed, long version) {
+    }
+
+    private final Cache<Key, byte[]> cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_BYTES)
+            .weigher((Key key, byte[] ics) -> ics.length)
+            .expireAfterAccess(IDLE_TTL)
+            .recordStats()
+            .build();
+
+    public IcalFeedCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "ical_feeds");
+    }
+
+    /** 描画済みのフィードを返す（無ければ null） */
+    byte[] getIfPresent(Long playerId, String feed, long version) {
+        return cache.getIfPresent(new Key(playerId, feed, version));
+    }
+
+    void put(Long playerId, String feed, long version, byte[] ics) {
+        if (ics.length <= MAX_ENTRY_BYTES) {
+            cache.put(new Key(playerId, feed, version), ics);
+        }
+    }
+}
@@ -0,0 +1,241 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.EntityChangedEvent;
+import com.karuta.matchtracker.entity.Organization;
+import com.karuta.matchtracker.entity.PlayerOrganization;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.entity.Venue;
+import com.karuta.matchtracker.entity.VenueMatchSchedule;
+import com.karuta.matchtracker.repository.IcalFeedArchiveSegmentRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 選手ごとの iCal フィード版番号（{@code players.ical_feed_version}）を進めるサービス。
+ *
+ * <p>フィードの内容に関わるエンティティの変更は {@link EntityChangedEvent} で届き、
+ * トランザクション単位で「変わった選手・練習日・会場・団体」を集めておき、コミット後に
+ * 別トランザクション（REQUIRES_NEW）で該当選手の版番号を一括 UPDATE で +1 する。
+ * コミット後に進めるため、購読クライアントが新しい版番号を見たときには必ず変更後のデータが読める。
+ * ロールバックされたトランザクションの変更は版番号を進めない。
+ *
+ * <p>同じトランザクションで、変更に関わる年別アーカイブ区間（{@code ical_feed_archive_segments}）も削除する。
+ * 参加レコード・練習日の変更はその練習日の年の区間だけ、所属・表示名・会場・団体名の変更は
+ * 全年のイベント文面に関わるため該当選手の全区間を削除する。
+ * 削除された練習日はコミット後に DB から年も参加者も辿れないため、削除時点の日付の年を控えておき、
+ * 同じトランザクションで削除された参加レコードの選手のその年の区間を削除する。
+ *
+ * <p>JPQL / ネイティブの一括更新を使う呼び出し元は自分で {@link #markPlayersChanged} を呼ぶ。
+ * 練習日単位の変更は UPDATE 時点の参加者に対して進めるため、参加レコードを一括削除する経路は
+ * 削除前の参加者を選手IDで渡すこと。
+ */
+@Service
+@Slf4j
+public class IcalFeedVersionService {
+
+    private static final Object TX_PENDING_KEY = new Object();
+
+    private final PlayerRepository playerRepository;
+    private final IcalFeedArchiveSegmentRepository icalFeedArchiveSegmentRepository;
+    private final TransactionTemplate requiresNew;
+
+    public IcalFeedVersionService(PlayerRepository playerRepository,
+                                  IcalFeedArchiveSegmentRepository icalFeedArchiveSegmentRepository,
+                                  PlatformTransactionManager transactionManager) {
+        this.playerRepository = playerRepository;
+        this.icalFeedArchiveSegmentRepository = icalFeedArchiveSegmentRepository;
+        this.requiresNew = new TransactionTemplate(transactionManager);
+        this.requiresNew.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /** 選手の参加が変わったことを知らせる（一括更新・一括削除の呼び出し元向け） */
+    public void markPlayersChanged(Collection<Long> playerIds) {
+        Pending pending = pending();
+        playerIds.stream().filter(id -> id != null).forEach(pending.playerIds::add);
+        flushIfNoTransaction(pending);
+    }
+
+    /** 1選手のフィード内容が変わったことを知らせる */
+    public void markPlayerChanged(Long playerId) {
+        markPlayersChanged(playerId == null ? Set.of() : Set.of(playerId));
+    }
+
+    /** 選手の所属団体が変わったことを知らせる（全年のアーカイブ区間も作り直させる） */
+    public void markMembershipChanged(Long playerId) {
+        Pending pending = pending();
+        add(pending.memberPlayerIds, playerId);
+        flushIfNoTransaction(pending);
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangedEvent event) {
+        if (event.removed()) {
+            onEntityRemoved(event.entity());
+        } else {
+            onEntityChanged(event.entity());
+        }
+    }
+
+    void onEntityChanged(Object entity) {
+        Pending pending = pending();
+        switch (entity) {
+            case PracticeParticipant p -> {
+                add(pending.playerIds, p.getPlayerId());
+                add(pending.participantSessionIds, p.getSessionId());
+            }
+            case PlayerOrganization po -> add(pending.memberPlayerIds, po.getPlayerId());
+            case PracticeSession s -> add(pending.sessionIds, s.getId());
+            case Venue v -> add(pending.venueIds, v.getId());
+            case VenueMatchSchedule vs -> add(pending.venueIds, vs.getVenueId());
+            case Organization o -> add(pending.organizationIds, o.getId());
+            default -> {
+                return;
+            }
+        }
+        flushIfNoTransaction(pending);
+    }
+
+    /** 削除後は DB から辿れないため、削除された練習日の年をここで控える */
+    void onEntityRemoved(Object entity) {
+        if (entity instanceof PracticeSession s && s.getId() != null && s.getSessionDate() != null) {
+            Pending pending = pending();
+            pending.removedSessionYears.put(s.getId(), s.getSessionDate().getYear());
+            flushIfNoTransaction(pending);
+            return;
+        }
+        onEntityChanged(entity);
+    }
+
+    private static void add(Set<Long> ids, Long id) {
+        if (id != null) {
+            ids.add(id);
+        }
+    }
+
+    /**
+     * 現在のトランザクションに紐づく未反映の変更を返す。初回はコミット後の反映を登録する。
+     * トランザクション外なら呼び出しごとの使い捨てを返す（{@link #flushIfNoTransaction} で即時反映）。
+     */
+    private Pending pending() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return new Pending(false);
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(TX_PENDING_KEY);
+        if (pending == null) {
+            Pending created = new Pending(true);
+            pending = created;
+            TransactionSynchronizationManager.bindResource(TX_PENDING_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(created);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_PENDING_KEY);
+                }
+            });
+        }
+        return pending;
+    }
+
+    private void flushIfNoTransaction(Pending pending) {
+        if (!pending.transactionBound) {
+            bump(pending);
+        }
+    }
+
+    private void bump(Pending pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            requiresNew.executeWithoutResult(status -> {
+                LocalDateTime now = JstDateTimeUtil.now();
+                int updated = 0;
+                Set<Long> playerIds = new HashSet<>(pending.playerIds);
+                playerIds.addAll(pending.memberPlayerIds);
+                if (!playerIds.isEmpty()) {
+                    updated += playerRepository.bumpIcalFeedVersionByPlayerIds(playerIds, now);
+                }
+                if (!pending.memberPlayerIds.isEmpty()) {
+                    icalFeedArchiveSegmentRepository.deleteByPlayerIds(pending.memberPlayerIds);
+                }
+                Set<Long> participantSessionIds = new HashSet<>(pending.participantSessionIds);
+                participantSessionIds.removeAll(pending.removedSessionYears.keySet());
+                if (!pending.playerIds.isEmpty() && !participantSessionIds.isEmpty()) {
+                    icalFeedArchiveSegmentRepository.deleteByPlayerIdsAndSessionYears(
+                            pending.playerIds, participantSessionIds);
+                }
+                if (!pending.playerIds.isEmpty()) {
+                    // 削除された練習日: 参加レコードの削除で控えた選手の、控えた年の区間
+                    for (Integer year : new HashSet<>(pending.removedSessionYears.values())) {
+                        icalFeedArchiveSegmentRepository.deleteByPlayerIdsAndSegmentYear(pending.playerIds, year);
+                    }
+                }
+                Set<Long> sessionIds = new HashSet<>(pending.sessionIds);
+                sessionIds.removeAll(pending.removedSessionYears.keySet());
+                if (!sessionIds.isEmpty()) {
+                    updated += playerRepository.bumpIcalFeedVersionBySessionIds(sessionIds, now);
+                    icalFeedArchiveSegmentRepository.deleteBySessionIds(sessionIds);
+                }
+                if (!pending.venueIds.isEmpty()) {
+                    updated += playerRepository.bumpIcalFeedVersionByVenueIds(pending.venueIds, now);
+                    icalFeedArchiveSegmentRepository.deleteByVenueIds(pending.venueIds);
+                }
+                if (!pending.organizationIds.isEmpty()) {
+                    updated += playerRepository.bumpIcalFeedVersionByOrganizationIds(pending.organizationIds, now);
+                    icalFeedArchiveSegmentRepository.deleteByOrganizationIds(pending.organizationIds);
+                }
+                log.debug("Bumped iCal feed version: {} rows (players={}, sessions={}, venues={}, organizations={})",
+                        updated, pending.playerIds.size(), pending.sessionIds.size(),
+                        pending.venueIds.size(), pending.organizationIds.size());
+            });
+        } catch (Exception e) {
+            // 本体の変更はコミット済み。版番号が進まないと購読側に 304 を返し続けるためエラーで残す
+            log.error("Failed to bump iCal feed version (players={}, sessions={}, venues={}, organizations={}): {}",
+                    pending.playerIds, pending.sessionIds, pending.venueIds, pending.organizationIds,
+                    e.getMessage(), e);
+        }
+    }
+
+    private static final class Pending {
+        private final boolean transactionBound;
+        private final Set<Long> playerIds = new HashSet<>();
+        // 参加レコードの変更元の練習日（アーカイブ区間をその年だけ削除するため）
+        private final Set<Long> participantSessionIds = new HashSet<>();
+        // 削除された練習日 → 削除時点の日付の年（コミット後は DB から辿れない）
+        private final Map<Long, Integer> removedSessionYears = new HashMap<>();
+        // 所属・表示名が変わった選手（全年のアーカイブ区間を削除する）
+        private final Set<Long> memberPlayerIds = new HashSet<>();
+        private final Set<Long> sessionIds = new HashSet<>();
+        private final Set<Long> venueIds = new HashSet<>();
+        private final Set<Long> organizationIds = new HashSet<>();
+
+        private Pending(boolean transactionBound) {
+            this.transactionBound = transactionBound;
+        }
+
+        private boolean isEmpty() {
+            return playerIds.isEmpty() && memberPlayerIds.isEmpty() && sessionIds.isEmpty() && venueIds.isEmpty()
+                    && organizationIds.isEmpty() && removedSessionYears.isEmpty();
+        }
+    }
+}
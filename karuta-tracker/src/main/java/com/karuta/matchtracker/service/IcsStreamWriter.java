@@ -0,0 +1,159 @@
+package com.karuta.matchtracker.service;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * iCalendar (RFC 5545) を1イベントずつ書き出すライター。
+ *
+ * <p>カレンダー全体をメモリ上に組み立てず、VEVENT を受け取った順に出力先へ流す。
+ * 行は 75 オクテットで折り返し（マルチバイト文字の途中では切らない）、TEXT 値はエスケープする。
+ * 日時は Asia/Tokyo のローカル時刻（TZID 付き）で出し、時刻の無い練習は VALUE=DATE の終日イベントにする。
+ */
+final class IcsStreamWriter {
+
+    static final String TZID = "Asia/Tokyo";
+
+    private static final int MAX_LINE_OCTETS = 75;
+    private static final String CRLF = "\r\n";
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter LOCAL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+    private static final DateTimeFormatter UTC_DATE_TIME =
+            DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss'Z'").withZone(ZoneOffset.UTC);
+
+    /**
+     * 1件分のイベント。{@code start} が null なら {@code date} の終日イベント
+     */
+    record Event(String uid, String summary, String location, String description,
+                 LocalDate date, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private final Writer out;
+    private final String dtstamp;
+    private int eventCount;
+
+    /** 出力先のバイト列へ UTF-8 で書く（バッファ付き。最後に {@link #flush()} すること） */
+    IcsStreamWriter(OutputStream out, Instant dtstamp) {
+        this(new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8)), dtstamp);
+    }
+
+    IcsStreamWriter(Writer out, Instant dtstamp) {
+        this.out = out;
+        this.dtstamp = UTC_DATE_TIME.format(dtstamp);
+    }
+
+    /** VCALENDAR の開始とヘッダー（カレンダー名・Asia/Tokyo の VTIMEZONE）を書く */
+    void beginCalendar(String productId, String calendarName) throws IOException {
+        line("BEGIN:VCALENDAR");
+        line("VERSION:2.0");
+        line("PRODID:" + productId);
+        if (calendarName != null && !calendarName.isBlank()) {
+            line("X-WR-CALNAME:" + escape(calendarName));
+        }
+        line("BEGIN:VTIMEZONE");
+        line("TZID:" + TZID);
+        line("BEGIN:STANDARD");
+        line("DTSTART:19700101T000000");
+        line("TZOFFSETFROM:+0900");
+        line("TZOFFSETTO:+0900");
+        line("TZNAME:JST");
+        line("END:STANDARD");
+        line("END:VTIMEZONE");
+    }
+
+    void writeEvent(Event event) throws IOException {
+        line("BEGIN:VEVENT");
+        line("UID:" + event.uid());
+        line("DTSTAMP:" + dtstamp);
+        line("SUMMARY:" + escape(event.summary()));
+        if (event.location() != null) {
+            line("LOCATION:" + escape(event.location()));
+        }
+        if (event.description() != null) {
+            line("DESCRIPTION:" + escape(event.description()));
+        }
+        if (event.start() != null) {
+            line("DTSTART;TZID=" + TZID + ":" + LOCAL_DATE_TIME.format(event.start()));
+            line("DTEND;TZID=" + TZID + ":" + LOCAL_DATE_TIME.format(event.end()));
+        } else {
+            line("DTSTART;VALUE=DATE:" + DATE.format(event.date()));
+            line("DTEND;VALUE=DATE:" + DATE.format(event.date().plusDays(1)));
+        }
+        line("END:VEVENT");
+        eventCount++;
+    }
+
+    /** 書き出し済みの VEVENT 列（アーカイブ区間など）をそのまま書く */
+    void writeRaw(String folded) throws IOException {
+        out.write(folded);
+    }
+
+    void endCalendar() throws IOException {
+        line("END:VCALENDAR");
+    }
+
+    void flush() throws IOException {
+        out.flush();
+    }
+
+    int eventCount() {
+        return eventCount;
+    }
+
+    /** 1行を 75 オクテットごとに折り返して書く（継続行は先頭の空白1つを含めて 75 オクテット） */
+    private void line(String content) throws IOException {
+        int octets = 0;
+        int i = 0;
+        while (i < content.length()) {
+            int cp = content.codePointAt(i);
+            int width = utf8Length(cp);
+            if (octets + width > MAX_LINE_OCTETS) {
+                out.write(CRLF);
+                out.write(' ');
+                octets = 1;
+            }
+            out.write(content, i, Character.charCount(cp));
+            octets += width;
+            i += Character.charCount(cp);
+        }
+        out.write(CRLF);
+    }
+
+    private static int utf8Length(int codePoint) {
+        if (codePoint < 0x80) {
+            return 1;
+        }
+        if (codePoint < 0x800) {
+            return 2;
+        }
+        return codePoint < 0x10000 ? 3 : 4;
+    }
+
+    /** TEXT 値のエスケープ（RFC 5545 3.3.11） */
+    static String escape(String value) {
+        StringBuilder sb = new StringBuilder(value.length());
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '\\' -> sb.append("\\\\");
+                case ';' -> sb.append("\\;");
+                case ',' -> sb.append("\\,");
+                case '\n' -> sb.append("\\n");
+                case '\r' -> {
+                    // CRLF は \n 1つにまとめる
+                }
+                default -> sb.append(c);
+            }
+        }
+        return sb.toString();
+    }
+}
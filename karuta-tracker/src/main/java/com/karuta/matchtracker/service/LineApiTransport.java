@@ -0,0 +1,342 @@
+package com.karuta.matchtracker.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * LINE Messaging API への HTTP 送信部（{@link LineMessagingService} の全 API 呼び出しが通る）。
+ *
+ * <p>HTTP/2 対応の {@link HttpClient} を1つ共有し、接続を API 間で使い回す。接続タイムアウトは
+ * {@link #CONNECT_TIMEOUT} で共通、応答までのタイムアウトは API ごとに {@link Api} で決める。
+ * 応答しない LINE API がスケジューラのスレッドを止め続けることはない。
+ *
+ * <p>チャネルアクセストークンごとにサーキットブレーカーを持つ。5xx・通信エラー・429 が
+ * {@link #FAILURE_THRESHOLD} 回続いたら {@link #OPEN_DURATION} の間そのチャネルへの送信を止め
+ * （{@link CircuitOpenException}）、その後の1件を試しに通して成否で戻すか止め続けるかを決める。
+ * 429 の {@code Retry-After} はそのチャネルの全送信で守る。
+ *
+ * <p>再送は最大 {@link #MAX_ATTEMPTS} 回。429 はどの API でも再送し、5xx・通信エラーは重複しても
+ * 害の無い API（参照・設定系、{@code X-Line-Retry-Key} を付ける Push / Multicast）だけ再送する。
+ * Retry-Key は呼び出し側が渡せば（送信キューの行に保存した値など）それを使い、渡さなければ呼び出しごとに採番する。
+ * 同じ Retry-Key の送信が受理済みだった場合の 409 は送信成功として返す。
+ * 再送の量はチャネルごとの予算（通常送信の {@link #RETRY_BUDGET_RATIO} 倍）で抑え、障害時に
+ * 再送で負荷を増やさない。待ちが {@link #MAX_RETRY_WAIT} を超える再送はせず、その場で失敗を返す。
+ *
+ * <p>API ごとの所要時間を {@code line.api.requests}（api, outcome タグ、ヒストグラム付き）に記録する。
+ * 2xx 以外は例外で返すため、呼び出し側は従来どおり例外を捕まえて失敗として扱う。
+ */
+@Slf4j
+@Component
+public class LineApiTransport {
+
+    /** LINE API の種類。タグ名・HTTP メソッド・応答タイムアウト・5xx 時の再送可否 */
+    public enum Api {
+        PUSH("push", HttpMethod.POST, Duration.ofSeconds(10), RetryMode.RETRY_KEY),
+        MULTICAST("multicast", HttpMethod.POST, Duration.ofSeconds(10), RetryMode.RETRY_KEY),
+        // reply トークンは1回限りのため、429 以外では再送しない
+        REPLY("reply", HttpMethod.POST, Duration.ofSeconds(5), RetryMode.RATE_LIMIT_ONLY),
+        RICH_MENU_CREATE("rich_menu_create", HttpMethod.POST, Duration.ofSeconds(10), RetryMode.RATE_LIMIT_ONLY),
+        RICH_MENU_IMAGE("rich_menu_image", HttpMethod.POST, Duration.ofSeconds(30), RetryMode.RATE_LIMIT_ONLY),
+        RICH_MENU_DEFAULT("rich_menu_default", HttpMethod.POST, Duration.ofSeconds(10), RetryMode.IDEMPOTENT),
+        WEBHOOK_ENDPOINT("webhook_endpoint", HttpMethod.PUT, Duration.ofSeconds(10), RetryMode.IDEMPOTENT),
+        QUOTA("quota", HttpMethod.GET, Duration.ofSeconds(5), RetryMode.IDEMPOTENT),
+        GROUP_MEMBER_COUNT("group_member_count", HttpMethod.GET, Duration.ofSeconds(5), RetryMode.IDEMPOTENT);
+
+        final String tag;
+        final HttpMethod method;
+        final Duration timeout;
+        final RetryMode retryMode;
+
+        Api(String tag, HttpMethod method, Duration timeout, RetryMode retryMode) {
+            this.tag = tag;
+            this.method = method;
+            this.timeout = timeout;
+            this.retryMode = retryMode;
+        }
+    }
+
+    enum RetryMode {
+        /** 何度送っても結果が同じ */
+        IDEMPOTENT,
+        /** X-Line-Retry-Key を付け、LINE 側で重複を弾かせる */
+        RETRY_KEY,
+        /** 受理されていないことが分かる 429 だけ再送する */
+        RATE_LIMIT_ONLY
+    }
+
+    /** チャネルのサーキットが開いていて送信しなかった */
+    public static class CircuitOpenException extends RestClientException {
+        CircuitOpenException(Api api) {
+            super("LINE API " + api.tag + " is temporarily disabled for this channel");
+        }
+    }
+
+    /** 再送の待ちを差し替えるためのフック（テスト用） */
+    interface Sleeper {
+        void sleep(Duration duration) throws InterruptedException;
+    }
+
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(3);
+    static final int MAX_ATTEMPTS = 3;
+    static final Duration BASE_BACKOFF = Duration.ofMillis(200);
+    /** Retry-After が無い 429 の待ち */
+    static final Duration DEFAULT_RATE_LIMIT_WAIT = Duration.ofSeconds(1);
+    static final Duration MAX_RETRY_WAIT = Duration.ofSeconds(5);
+    static final int FAILURE_THRESHOLD = 5;
+    static final Duration OPEN_DURATION = Duration.ofSeconds(30);
+    static final double RETRY_BUDGET_RATIO = 0.2;
+    static final double RETRY_BUDGET_MAX = 10;
+
+    static final String RETRY_KEY_HEADER = "X-Line-Retry-Key";
+
+    private final HttpClient httpClient;
+    private final Map<Api, RestTemplate> restTemplates = new EnumMap<>(Api.class);
+    // channelAccessToken -> ブレーカーと再送予算。チャネル数（数十）しか増えない
+    private final Map<String, ChannelState> channels = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    LongSupplier nanoClock = System::nanoTime;
+    Sleeper sleeper = Thread::sleep;
+
+    public LineApiTransport(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(CONNECT_TIMEOUT)
+                .build();
+        for (Api api : Api.values()) {
+            JdkClientHttpRequestFactory factory = new JdkClientHttpRequestFactory(httpClient);
+            factory.setReadTimeout(api.timeout);
+            restTemplates.put(api, new RestTemplate(factory));
+        }
+    }
+
+    RestTemplate restTemplate(Api api) {
+        return restTemplates.get(api);
+    }
+
+    @PreDestroy
+    void close() {
+        httpClient.close();
+    }
+
+    /**
+     * LINE API を呼ぶ。Bearer 認証ヘッダはここで付ける。
+     *
+     * @return 2xx の応答
+     * @throws RestClientException 2xx 以外・通信エラー・サーキットが開いている場合
+     */
+    public ResponseEntity<String> exchange(Api api, String url, String channelAccessToken, HttpEntity<?> request) {
+        return exchange(api, url, channelAccessToken, request, null);
+    }
+
+    /**
+     * LINE API を呼ぶ（X-Line-Retry-Key を指定する版）。
+     *
+     * @param retryKey Push / Multicast に付ける X-Line-Retry-Key（UUID）。null なら採番する。
+     *                 以前の呼び出しと同じ値を渡せば、その送信が受理済みのとき 409 を成功として返す
+     */
+    public ResponseEntity<String> exchange(Api api, String url, String channelAccessToken, HttpEntity<?> request,
+                                           String retryKey) {
+        ChannelState channel = channels.computeIfAbsent(channelAccessToken, t -> new ChannelState());
+        if (!channel.tryAcquire(nanoClock.getAsLong())) {
+            meterRegistry.counter("line.api.short_circuited", "api", api.tag).increment();
+            throw new CircuitOpenException(api);
+        }
+        channel.depositRetryBudget();
+        HttpEntity<?> entity = authorized(api, channelAccessToken, request, retryKey);
+
+        for (int attempt = 1; ; attempt++) {
+            long start = nanoClock.getAsLong();
+            RestClientException failure;
+            Duration wait;
+            try {
+                ResponseEntity<String> response = restTemplates.get(api).exchange(url, api.method, entity, String.class);
+                record(api, "success", start);
+                channel.onSuccess();
+                return response;
+            } catch (HttpStatusCodeException e) {
+                if (e.getStatusCode().value() == HttpStatus.CONFLICT.value() && (attempt > 1 || retryKey != null)
+                        && api.retryMode == RetryMode.RETRY_KEY) {
+                    // 同じ Retry-Key の前回の送信（この呼び出し内の再送前、または呼び出し側の前回の試行）が受理済みだった
+                    record(api, "success", start);
+                    channel.onSuccess();
+                    return ResponseEntity.ok().headers(e.getResponseHeaders()).build();
+                }
+                if (e.getStatusCode().value() == HttpStatus.TOO_MANY_REQUESTS.value()) {
+                    record(api, "rate_limited", start);
+                    wait = retryAfter(e.getResponseHeaders());
+                    channel.onRateLimited(nanoClock.getAsLong(), wait);
+                } else if (e.getStatusCode().is5xxServerError()) {
+                    record(api, "server_error", start);
+                    channel.onFailure(nanoClock.getAsLong());
+                    wait = api.retryMode == RetryMode.RATE_LIMIT_ONLY ? null : backoff(attempt);
+                } else {
+                    // 4xx は LINE 側は正常。ブレーカーは閉じ、再送もしない
+                    record(api, "client_error", start);
+                    channel.onSuccess();
+                    throw e;
+                }
+                failure = e;
+            } catch (ResourceAccessException e) {
+                record(api, "io_error", start);
+                channel.onFailure(nanoClock.getAsLong());
+                wait = api.retryMode == RetryMode.RATE_LIMIT_ONLY ? null : backoff(attempt);
+                failure = e;
+            } catch (RuntimeException e) {
+                // 分類できない失敗（未知のステータス・応答の変換失敗など）。再送はしないが失敗として数え、
+                // 試し送信中ならブレーカーを開き直す（数えないと試し送信中のまま止まり続ける）
+                record(api, "error", start);
+                channel.onFailure(nanoClock.getAsLong());
+                throw e;
+            }
+
+            if (wait == null || attempt >= MAX_ATTEMPTS || wait.compareTo(MAX_RETRY_WAIT) > 0 || !channel.tryRetry()) {
+                throw failure;
+            }
+            meterRegistry.counter("line.api.retries", "api", api.tag).increment();
+            log.warn("LINE API {} failed (attempt {}), retrying in {} ms: {}",
+                    api.tag, attempt, wait.toMillis(), failure.getMessage());
+            try {
+                sleeper.sleep(wait);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw failure;
+            }
+        }
+    }
+
+    private static HttpEntity<?> authorized(Api api, String channelAccessToken, HttpEntity<?> request,
+                                            String retryKey) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(request.getHeaders());
+        headers.setBearerAuth(channelAccessToken);
+        if (api.retryMode == RetryMode.RETRY_KEY) {
+            headers.set(RETRY_KEY_HEADER, retryKey != null ? retryKey : UUID.randomUUID().toString());
+        }
+        return new HttpEntity<>(request.getBody(), headers);
+    }
+
+    private void record(Api api, String outcome, long startNanos) {
+        Timer.builder("line.api.requests")
+                .description("LINE API 1回の呼び出しの所要時間")
+                .tag("api", api.tag)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(nanoClock.getAsLong() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Duration backoff(int attempt) {
+        long base = BASE_BACKOFF.toMillis() << (attempt - 1);
+        return Duration.ofMillis(base + ThreadLocalRandom.current().nextLong(base / 2 + 1));
+    }
+
+    /** Retry-After（秒数または HTTP 日付）を読む。無い・読めない場合は既定の待ち */
+    static Duration retryAfter(HttpHeaders headers) {
+        String value = headers != null ? headers.getFirst(HttpHeaders.RETRY_AFTER) : null;
+        if (value == null || value.isBlank()) {
+            return DEFAULT_RATE_LIMIT_WAIT;
+        }
+        try {
+            return Duration.ofSeconds(Math.max(0L, Long.parseLong(value.trim())));
+        } catch (NumberFormatException ignored) {
+            // HTTP 日付形式
+        }
+        try {
+            Duration until = Duration.between(ZonedDateTime.now(),
+                    ZonedDateTime.parse(value.trim(), DateTimeFormatter.RFC_1123_DATE_TIME));
+            return until.isNegative() ? Duration.ZERO : until;
+        } catch (DateTimeParseException e) {
+            return DEFAULT_RATE_LIMIT_WAIT;
+        }
+    }
+
+    /** チャネル1つ分のサーキットブレーカーと再送予算 */
+    static final class ChannelState {
+
+        private int consecutiveFailures;
+        private boolean open;
+        private long openUntil;
+        private boolean probing;
+        private double retryBudget = RETRY_BUDGET_MAX;
+
+        /** 送信してよいか。開いている期間が過ぎていたら1件だけ試しに通す */
+        synchronized boolean tryAcquire(long now) {
+            if (!open) {
+                return true;
+            }
+            if (now - openUntil < 0 || probing) {
+                return false;
+            }
+            probing = true;
+            return true;
+        }
+
+        synchronized void depositRetryBudget() {
+            retryBudget = Math.min(RETRY_BUDGET_MAX, retryBudget + RETRY_BUDGET_RATIO);
+        }
+
+        /** 再送してよいか。失敗続きでブレーカーが開いた後と、予算切れの間は再送しない */
+        synchronized boolean tryRetry() {
+            if (consecutiveFailures >= FAILURE_THRESHOLD || retryBudget < 1) {
+                return false;
+            }
+            retryBudget -= 1;
+            return true;
+        }
+
+        synchronized void onSuccess() {
+            consecutiveFailures = 0;
+            open = false;
+            probing = false;
+        }
+
+        synchronized void onFailure(long now) {
+            consecutiveFailures = probing ? FAILURE_THRESHOLD : consecutiveFailures + 1;
+            if (consecutiveFailures >= FAILURE_THRESHOLD) {
+                openFor(now, OPEN_DURATION);
+            }
+        }
+
+        /** 429: Retry-After の間は他の送信も止める */
+        synchronized void onRateLimited(long now, Duration retryAfter) {
+            onFailure(now);
+            openFor(now, retryAfter);
+        }
+
+        private void openFor(long now, Duration duration) {
+            long until = now + duration.toNanos();
+            if (!open || until - openUntil > 0) {
+                openUntil = until;
+            }
+            open = true;
+            probing = false;
+        }
+    }
+}
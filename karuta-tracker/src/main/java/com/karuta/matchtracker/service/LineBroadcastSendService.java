@@ -57,6 +57,15 @@ public class LineBroadcastSendService {
         return repository.releaseStaleBroadcastReservations(cutoff);
     }
 
+    /** 送信権確保時に記録した想定受信数を返す（記録が無ければ 0）。 */
+    @Transactional(readOnly = true)
+    public int recipientCountOf(Long groupId, Long sessionId, Long channelId) {
+        return repository.findFirstByBroadcastGroupIdAndSessionIdAndLineChannelIdOrderByIdDesc(
+                        groupId, sessionId, channelId)
+                .map(LineBroadcastSend::getRecipientCount)
+                .orElse(0);
+    }
+
     /** 送信成功した bot の当月消費を想定受信数分だけ即時加算する（AC-5）。 */
     @Transactional(propagation = Propagation.REQUIRES_NEW)
     public void incrementChannelMonthlyCount(Long channelId, int delta) {
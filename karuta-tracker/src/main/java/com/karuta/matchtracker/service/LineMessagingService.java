@@ -2,51 +2,83 @@ package com.karuta.matchtracker.service;
 
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karuta.matchtracker.service.LineApiTransport.Api;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.client.HttpStatusCodeException;
 
 import javax.crypto.Mac;
 import javax.crypto.spec.SecretKeySpec;
 import java.nio.charset.StandardCharsets;
-import java.time.Duration;
 import java.util.Base64;
+import java.util.List;
 import java.util.Map;
 
 /**
  * LINE Messaging APIとの低レベル通信サービス
+ *
+ * <p>HTTP 送信はすべて {@link LineApiTransport} を通す（接続の共有・タイムアウト・チャネル単位の
+ * サーキットブレーカーと再送）。送信失敗は従来どおりログに残して false / null / -1 で返す。
+ * 送信キューから使う Retry-Key 付きの Push / Multicast は、後で送り直す価値があるかを
+ * {@link SendResult} で返す。
  */
 @Service
 @Slf4j
 public class LineMessagingService {
 
     private static final String PUSH_API_URL = "https://api.line.me/v2/bot/message/push";
+    private static final String MULTICAST_API_URL = "https://api.line.me/v2/bot/message/multicast";
     private static final String REPLY_API_URL = "https://api.line.me/v2/bot/message/reply";
     private static final String RICH_MENU_API_URL = "https://api.line.me/v2/bot/richmenu";
     private static final String RICH_MENU_IMAGE_API_URL = "https://api-data.line.me/v2/bot/richmenu";
     private static final String RICH_MENU_DEFAULT_API_URL = "https://api.line.me/v2/bot/user/all/richmenu";
     private static final String QUOTA_CONSUMPTION_API_URL = "https://api.line.me/v2/bot/message/quota/consumption";
     private static final String GROUP_MEMBER_COUNT_API_URL = "https://api.line.me/v2/bot/group/%s/members/count";
-    private static final Duration SYNC_TIMEOUT = Duration.ofSeconds(5);
-    private final RestTemplate restTemplate = new RestTemplate();
-    private final RestTemplate syncRestTemplate;
+    private final LineApiTransport transport;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    public LineMessagingService(RestTemplateBuilder restTemplateBuilder) {
-        this.syncRestTemplate = restTemplateBuilder
-                .connectTimeout(SYNC_TIMEOUT)
-                .readTimeout(SYNC_TIMEOUT)
-                .build();
+    public LineMessagingService(LineApiTransport transport) {
+        this.transport = transport;
+    }
+
+    /** Push / Multicast の送信結果 */
+    public enum SendResult {
+        SUCCESS,
+        /** 5xx・429・通信エラー・サーキット遮断など。時間を置けば通る見込みがある */
+        RETRYABLE_FAILURE,
+        /** 429 以外の 4xx（宛先のブロック・不正なメッセージ・無効なトークンなど）。送り直しても同じ結果になる */
+        PERMANENT_FAILURE;
+
+        public boolean isSuccess() {
+            return this == SUCCESS;
+        }
+    }
+
+    /** 1リクエストに詰められるメッセージ数の上限（Push / Multicast 共通） */
+    public static final int MAX_MESSAGES_PER_REQUEST = 5;
+    /** Multicast API 1リクエストあたりの宛先数上限 */
+    public static final int MAX_MULTICAST_RECIPIENTS = 500;
+
+    /**
+     * テキストメッセージオブジェクトを生成する
+     */
+    public static Map<String, Object> textMessage(String messageText) {
+        return Map.of("type", "text", "text", messageText);
+    }
+
+    /**
+     * Flex Messageオブジェクトを生成する
+     */
+    public static Map<String, Object> flexMessage(String altText, Map<String, Object> contents) {
+        return Map.of("type", "flex", "altText", altText, "contents", contents);
     }
 
     /**
      * Push APIでテキストメッセージを送信する
      */
     public boolean sendPushMessage(String channelAccessToken, String lineUserId, String messageText) {
-        Object[] messages = new Object[]{ Map.of("type", "text", "text", messageText) };
-        return sendPushMessages(channelAccessToken, lineUserId, messages);
+        return sendPushMessages(channelAccessToken, lineUserId, List.of(textMessage(messageText)));
     }
 
     /**
@@ -54,42 +86,82 @@ public class LineMessagingService {
      */
     public boolean sendPushFlexMessage(String channelAccessToken, String lineUserId,
                                         String altText, Map<String, Object> contents) {
-        Object[] messages = new Object[]{
-            Map.of("type", "flex", "altText", altText, "contents", contents)
-        };
-        return sendPushMessages(channelAccessToken, lineUserId, messages);
+        return sendPushMessages(channelAccessToken, lineUserId, List.of(flexMessage(altText, contents)));
+    }
+
+    /**
+     * Push APIで最大5件のメッセージを1リクエストで送信する
+     */
+    public boolean sendPushMessages(String channelAccessToken, String lineUserId, List<Map<String, Object>> messages) {
+        return sendPushMessages(channelAccessToken, lineUserId, messages, null).isSuccess();
     }
 
     /**
-     * Push APIでメッセージ配列を送信する（共通処理）
+     * Push APIで最大5件のメッセージを1リクエストで送信する（X-Line-Retry-Key を指定する版。null なら採番する）
      */
-    private boolean sendPushMessages(String channelAccessToken, String lineUserId, Object[] messages) {
+    public SendResult sendPushMessages(String channelAccessToken, String lineUserId, List<Map<String, Object>> messages,
+                                    String retryKey) {
+        Map<String, Object> body = Map.of(
+            "to", lineUserId,
+            "messages", messages
+        );
+        return postMessages(Api.PUSH, PUSH_API_URL, channelAccessToken, body, "userId " + lineUserId, retryKey);
+    }
+
+    /**
+     * Multicast APIで同一チャネルの複数ユーザーに同じメッセージ（最大5件）を1リクエストで送信する
+     */
+    public boolean sendMulticastMessages(String channelAccessToken, List<String> lineUserIds,
+                                          List<Map<String, Object>> messages) {
+        return sendMulticastMessages(channelAccessToken, lineUserIds, messages, null).isSuccess();
+    }
+
+    /**
+     * Multicast APIで送信する（X-Line-Retry-Key を指定する版。null なら採番する）
+     */
+    public SendResult sendMulticastMessages(String channelAccessToken, List<String> lineUserIds,
+                                          List<Map<String, Object>> messages, String retryKey) {
+        Map<String, Object> body = Map.of(
+            "to", lineUserIds,
+            "messages", messages
+        );
+        return postMessages(Api.MULTICAST, MULTICAST_API_URL, channelAccessToken, body, lineUserIds.size() + " users",
+            retryKey);
+    }
+
+    /**
+     * Push / Multicast の共通送信処理
+     */
+    private SendResult postMessages(Api api, String url, String channelAccessToken, Map<String, Object> body,
+                                    String target, String retryKey) {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(channelAccessToken);
-
-            Map<String, Object> body = Map.of(
-                "to", lineUserId,
-                "messages", messages
-            );
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(PUSH_API_URL, HttpMethod.POST, request, String.class);
+            ResponseEntity<String> response = transport.exchange(api, url, channelAccessToken, request, retryKey);
 
             if (response.getStatusCode().is2xxSuccessful()) {
-                log.debug("LINE Push message sent to userId: {}", lineUserId);
-                return true;
+                log.debug("LINE message sent to {}", target);
+                return SendResult.SUCCESS;
             } else {
-                log.warn("LINE Push API returned status {}: {}", response.getStatusCode(), response.getBody());
-                return false;
+                log.warn("LINE API {} returned status {}: {}", url, response.getStatusCode(), response.getBody());
+                return SendResult.RETRYABLE_FAILURE;
             }
+        } catch (HttpStatusCodeException e) {
+            log.error("Failed to send LINE message to {}: {}", target, e.getMessage());
+            return isPermanent(e.getStatusCode()) ? SendResult.PERMANENT_FAILURE : SendResult.RETRYABLE_FAILURE;
         } catch (Exception e) {
-            log.error("Failed to send LINE Push message to userId {}: {}", lineUserId, e.getMessage());
-            return false;
+            log.error("Failed to send LINE message to {}: {}", target, e.getMessage());
+            return SendResult.RETRYABLE_FAILURE;
         }
     }
 
+    /** 429 以外の 4xx は送り直しても通らない（409 は同じ Retry-Key の受理済みとして送信側で成功になる） */
+    private static boolean isPermanent(HttpStatusCode status) {
+        return status.is4xxClientError() && status.value() != HttpStatus.TOO_MANY_REQUESTS.value();
+    }
+
     /**
      * Reply APIでメッセージを返信する
      */
@@ -97,7 +169,6 @@ public class LineMessagingService {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(channelAccessToken);
 
             Map<String, Object> body = Map.of(
                 "replyToken", replyToken,
@@ -107,7 +178,7 @@ public class LineMessagingService {
             );
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            restTemplate.exchange(REPLY_API_URL, HttpMethod.POST, request, String.class);
+            transport.exchange(Api.REPLY, REPLY_API_URL, channelAccessToken, request);
             log.debug("LINE Reply message sent with replyToken: {}...", replyToken.substring(0, Math.min(10, replyToken.length())));
         } catch (Exception e) {
             log.error("Failed to send LINE Reply message: {}", e.getMessage());
@@ -122,7 +193,6 @@ public class LineMessagingService {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(channelAccessToken);
 
             Map<String, Object> body = Map.of(
                 "replyToken", replyToken,
@@ -132,7 +202,7 @@ public class LineMessagingService {
             );
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
-            restTemplate.exchange(REPLY_API_URL, HttpMethod.POST, request, String.class);
+            transport.exchange(Api.REPLY, REPLY_API_URL, channelAccessToken, request);
             log.debug("LINE Reply Flex message sent with replyToken: {}...", replyToken.substring(0, Math.min(10, replyToken.length())));
         } catch (Exception e) {
             log.error("Failed to send LINE Reply Flex message: {}", e.getMessage());
@@ -150,11 +220,10 @@ public class LineMessagingService {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(channelAccessToken);
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(richMenuJson, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                RICH_MENU_API_URL, HttpMethod.POST, request, String.class);
+            ResponseEntity<String> response = transport.exchange(
+                Api.RICH_MENU_CREATE, RICH_MENU_API_URL, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 JsonNode node = objectMapper.readTree(response.getBody());
@@ -180,12 +249,11 @@ public class LineMessagingService {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.valueOf(contentType));
-            headers.setBearerAuth(channelAccessToken);
 
             HttpEntity<byte[]> request = new HttpEntity<>(imageData, headers);
             String url = RICH_MENU_IMAGE_API_URL + "/" + richMenuId + "/content";
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, request, String.class);
+            ResponseEntity<String> response = transport.exchange(
+                Api.RICH_MENU_IMAGE, url, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Rich menu image uploaded for richMenuId: {}", richMenuId);
@@ -206,13 +274,10 @@ public class LineMessagingService {
      */
     public boolean setDefaultRichMenu(String channelAccessToken, String richMenuId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(channelAccessToken);
-
-            HttpEntity<Void> request = new HttpEntity<>(headers);
+            HttpEntity<Void> request = new HttpEntity<>(new HttpHeaders());
             String url = RICH_MENU_DEFAULT_API_URL + "/" + richMenuId;
-            ResponseEntity<String> response = restTemplate.exchange(
-                url, HttpMethod.POST, request, String.class);
+            ResponseEntity<String> response = transport.exchange(
+                Api.RICH_MENU_DEFAULT, url, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Default rich menu set: {}", richMenuId);
@@ -237,12 +302,11 @@ public class LineMessagingService {
         try {
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(channelAccessToken);
 
             Map<String, String> body = Map.of("endpoint", webhookUrl);
             HttpEntity<Map<String, String>> request = new HttpEntity<>(body, headers);
-            ResponseEntity<String> response = restTemplate.exchange(
-                WEBHOOK_ENDPOINT_API_URL, HttpMethod.PUT, request, String.class);
+            ResponseEntity<String> response = transport.exchange(
+                Api.WEBHOOK_ENDPOINT, WEBHOOK_ENDPOINT_API_URL, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful()) {
                 log.info("Webhook URL updated successfully: {}", webhookUrl);
@@ -265,12 +329,9 @@ public class LineMessagingService {
      */
     public int getMonthlyMessageConsumption(String channelAccessToken) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(channelAccessToken);
-
-            HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<String> response = syncRestTemplate.exchange(
-                QUOTA_CONSUMPTION_API_URL, HttpMethod.GET, request, String.class);
+            HttpEntity<Void> request = new HttpEntity<>(new HttpHeaders());
+            ResponseEntity<String> response = transport.exchange(
+                Api.QUOTA, QUOTA_CONSUMPTION_API_URL, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 JsonNode node = objectMapper.readTree(response.getBody());
@@ -293,13 +354,10 @@ public class LineMessagingService {
      */
     public int getGroupMemberCount(String channelAccessToken, String groupId) {
         try {
-            HttpHeaders headers = new HttpHeaders();
-            headers.setBearerAuth(channelAccessToken);
-
-            HttpEntity<Void> request = new HttpEntity<>(headers);
+            HttpEntity<Void> request = new HttpEntity<>(new HttpHeaders());
             String url = String.format(GROUP_MEMBER_COUNT_API_URL, groupId);
-            ResponseEntity<String> response = syncRestTemplate.exchange(
-                url, HttpMethod.GET, request, String.class);
+            ResponseEntity<String> response = transport.exchange(
+                Api.GROUP_MEMBER_COUNT, url, channelAccessToken, request);
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 JsonNode node = objectMapper.readTree(response.getBody());
@@ -43,6 +43,7 @@ public class LineNotificationService {
     private final LotteryQueryService lotteryQueryService;
     private final VenueRepository venueRepository;
     private final MentorRelationshipRepository mentorRelationshipRepository;
+    private final NotificationOutboxService notificationOutboxService;
 
     public LineNotificationService(
             LineChannelRepository lineChannelRepository,
@@ -56,7 +57,8 @@ public class LineNotificationService {
             PlayerRepository playerRepository,
             LotteryQueryService lotteryQueryService,
             VenueRepository venueRepository,
-            MentorRelationshipRepository mentorRelationshipRepository) {
+            MentorRelationshipRepository mentorRelationshipRepository,
+            NotificationOutboxService notificationOutboxService) {
         this.lineChannelRepository = lineChannelRepository;
         this.lineChannelAssignmentRepository = lineChannelAssignmentRepository;
         this.lineNotificationPreferenceRepository = lineNotificationPreferenceRepository;
@@ -69,11 +71,11 @@ public class LineNotificationService {
         this.lotteryQueryService = lotteryQueryService;
         this.venueRepository = venueRepository;
         this.mentorRelationshipRepository = mentorRelationshipRepository;
+        this.notificationOutboxService = notificationOutboxService;
     }
 
     private static final int MONTHLY_MESSAGE_LIMIT = 200;
     private static final int RESERVED_TIMEOUT_MINUTES = 10;
-    private static final int MARK_SUCCEEDED_MAX_RETRIES = 2;
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M月d日");
 
     /**
@@ -84,34 +86,6 @@ public class LineNotificationService {
     @Value("${app.frontend-url:http://localhost:5173}")
     private String appFrontendUrl;
 
-    /**
-     * 送信成功後のステータス更新をリトライ付きで実行する。
-     * markReservationSucceeded が一時的なDB障害で失敗した場合、RESERVED が残留し
-     * releaseStaleReservations により FAILED に変更されると重複送信の原因になるため、
-     * リトライで成功率を高める。
-     */
-    private void markSucceededWithRetry(Long playerId, LineMessageLog.LineNotificationType type,
-                                        String dedupeKey) {
-        Exception lastException = null;
-        for (int attempt = 0; attempt <= MARK_SUCCEEDED_MAX_RETRIES; attempt++) {
-            try {
-                int updated = lineMessageLogService.markReservationSucceeded(playerId, type, dedupeKey);
-                if (updated == 0) {
-                    log.warn("markReservationSucceeded updated 0 rows: player={}, dedupeKey={}", playerId, dedupeKey);
-                }
-                return;
-            } catch (Exception e) {
-                lastException = e;
-                if (attempt < MARK_SUCCEEDED_MAX_RETRIES) {
-                    log.warn("markReservationSucceeded リトライ {}/{}: player={}, dedupeKey={}, error={}",
-                            attempt + 1, MARK_SUCCEEDED_MAX_RETRIES, playerId, dedupeKey, e.getMessage());
-                }
-            }
-        }
-        log.error("送信成功後のステータス更新が全リトライで失敗しました（重複送信防止のためFAILEDには変更しません）: player={}, dedupeKey={}, error={}",
-                playerId, dedupeKey, lastException != null ? lastException.getMessage() : "unknown");
-    }
-
     /**
      * セッションのラベルを生成する（例: "4月5日（中央公民館）"）
      * 会場が未設定の場合は日付のみ返す。
@@ -429,48 +403,32 @@ public class LineNotificationService {
      * - 一部落選: イントロテキスト + セッション別Flex + クロージングテキスト
      * - 全落選: イントロテキスト + セッション別Flexのみ
      *
+     * 1人分のメッセージは1回のPushにまとめて送る（{@link #deliverBulk}）。
+     *
      * @param organizationId 団体IDを指定すると該当団体のセッションのみ対象とする。null時は全団体対象
      */
     @Transactional
     public LineSendResultResponse sendLotteryResults(int year, int month, Long organizationId) {
-        int sentPlayers = 0, failedPlayers = 0, skippedPlayers = 0;
+        int sentPlayers = 0, queuedPlayers = 0, failedPlayers = 0, skippedPlayers = 0;
 
         // 団体IDが指定されている場合は、該当団体のセッションに紐づく参加者のみを対象とする
         Map<Long, PracticeSession> sessionCache = new HashMap<>();
-        List<PracticeParticipant> participants;
-        if (organizationId != null) {
-            List<PracticeSession> orgSessions = practiceSessionRepository
-                .findByYearAndMonthAndOrganizationId(year, month, organizationId);
-            for (PracticeSession s : orgSessions) sessionCache.put(s.getId(), s);
-            List<Long> sessionIds = orgSessions.stream()
-                .map(PracticeSession::getId).collect(Collectors.toList());
-            participants = sessionIds.isEmpty()
-                ? List.of()
-                : practiceParticipantRepository.findBySessionIdIn(sessionIds);
-        } else {
-            participants = practiceParticipantRepository
-                .findBySessionDateYearAndMonth(year, month);
-            for (PracticeParticipant p : participants) {
-                sessionCache.computeIfAbsent(p.getSessionId(),
-                    id -> practiceSessionRepository.findById(id).orElse(null));
-            }
-        }
+        List<PracticeParticipant> participants = loadLotteryParticipants(year, month, organizationId, sessionCache);
 
         // WON/WAITLISTED のみ対象、プレイヤーごとにグルーピング
         Map<Long, List<PracticeParticipant>> byPlayer = participants.stream()
             .filter(p -> p.getStatus() == ParticipantStatus.WON || p.getStatus() == ParticipantStatus.WAITLISTED)
             .collect(Collectors.groupingBy(PracticeParticipant::getPlayerId));
 
+        Map<Long, Set<Long>> orgsByPlayer = loadOrganizationIdsByPlayer(byPlayer.keySet());
+        Map<Long, String> sessionLabels = new HashMap<>();
+        Map<Long, List<OutboundMessage>> plans = new LinkedHashMap<>();
+
         for (Map.Entry<Long, List<PracticeParticipant>> entry : byPlayer.entrySet()) {
             Long playerId = entry.getKey();
 
             // プレイヤーがセッションの団体に登録しているか確認（団体フィルタ）
-            Long sessionOrgId = entry.getValue().stream()
-                    .map(p -> sessionCache.get(p.getSessionId()))
-                    .filter(java.util.Objects::nonNull)
-                    .map(PracticeSession::getOrganizationId)
-                    .findFirst().orElse(null);
-            if (sessionOrgId != null && !playerOrganizationRepository.existsByPlayerIdAndOrganizationId(playerId, sessionOrgId)) {
+            if (!belongsToSessionOrganization(entry.getValue(), sessionCache, orgsByPlayer.get(playerId))) {
                 skippedPlayers++;
                 continue;
             }
@@ -482,64 +440,41 @@ public class LineNotificationService {
             boolean hasWon = playerParticipants.stream()
                 .anyMatch(p -> p.getStatus() == ParticipantStatus.WON);
 
-            // プレイヤー単位の送信結果を追跡（1通でも成功すればSUCCESS）
-            boolean anySuccess = false;
-            boolean anyFailed = false;
-
+            List<OutboundMessage> messages = new ArrayList<>();
             if (waitlisted.isEmpty() && hasWon) {
                 // 全当選: テキスト1通
-                SendResult r = sendToPlayer(playerId, LineNotificationType.LOTTERY_RESULT,
-                    "申し込んだ練習はすべて当選しました");
-                if (r == SendResult.SUCCESS) anySuccess = true;
-                else if (r == SendResult.FAILED) anyFailed = true;
+                messages.add(OutboundMessage.text("申し込んだ練習はすべて当選しました"));
             } else if (!waitlisted.isEmpty()) {
-                // イントロメッセージ
-                SendResult r1 = sendToPlayer(playerId, LineNotificationType.LOTTERY_RESULT,
-                    "落選した試合があります...");
-                if (r1 == SendResult.SUCCESS) anySuccess = true;
-                else if (r1 == SendResult.FAILED) anyFailed = true;
-
-                // セッション別Flex Message
-                Map<Long, List<PracticeParticipant>> waitlistedBySession = waitlisted.stream()
-                    .collect(Collectors.groupingBy(PracticeParticipant::getSessionId));
-
-                for (Map.Entry<Long, List<PracticeParticipant>> sessionEntry : waitlistedBySession.entrySet()) {
-                    PracticeSession session = sessionCache.get(sessionEntry.getKey());
-                    if (session == null) continue;
-
-                    String sessionLabel2 = getSessionLabel(session);
-                    Map<String, Object> flex = buildLotteryWaitlistedFlex(
-                        sessionLabel2, sessionEntry.getValue(), sessionEntry.getKey(), playerId);
-                    String altText = sessionLabel2 + "の練習: キャンセル待ち";
-
-                    SendResult r2 = sendFlexToPlayer(playerId, LineNotificationType.LOTTERY_RESULT, altText, flex);
-                    if (r2 == SendResult.SUCCESS) anySuccess = true;
-                    else if (r2 == SendResult.FAILED) anyFailed = true;
-                }
+                // イントロメッセージ + セッション別Flex Message
+                messages.add(OutboundMessage.text("落選した試合があります..."));
+                addLotteryWaitlistedFlexes(messages, waitlisted, sessionCache, sessionLabels, playerId);
 
                 // 当選分がある場合のみクロージング
                 if (hasWon) {
-                    SendResult r3 = sendToPlayer(playerId, LineNotificationType.LOTTERY_RESULT,
-                        "これ以外の参加登録はすべて通っています");
-                    if (r3 == SendResult.SUCCESS) anySuccess = true;
-                    else if (r3 == SendResult.FAILED) anyFailed = true;
+                    messages.add(OutboundMessage.text("これ以外の参加登録はすべて通っています"));
                 }
             }
 
-            // プレイヤー単位でカウント（1通でも成功→sent、全失敗→failed、全スキップ→skipped）
-            if (anySuccess) {
-                sentPlayers++;
-            } else if (anyFailed) {
-                failedPlayers++;
-            } else {
+            if (messages.isEmpty()) {
                 skippedPlayers++;
+            } else {
+                plans.put(playerId, messages);
             }
         }
 
-        log.info("Lottery result LINE notifications: sentPlayers={}, failedPlayers={}, skippedPlayers={}",
-            sentPlayers, failedPlayers, skippedPlayers);
+        // プレイヤー単位でカウント（1通でも成功→sent、キュー登録→queued、全失敗→failed、全スキップ→skipped）
+        for (SendResult r : deliverBulk(LineNotificationType.LOTTERY_RESULT, plans).values()) {
+            if (r == SendResult.SUCCESS) sentPlayers++;
+            else if (r == SendResult.QUEUED) queuedPlayers++;
+            else if (r == SendResult.FAILED) failedPlayers++;
+            else skippedPlayers++;
+        }
+
+        log.info("Lottery result LINE notifications: sentPlayers={}, queuedPlayers={}, failedPlayers={}, skippedPlayers={}",
+            sentPlayers, queuedPlayers, failedPlayers, skippedPlayers);
         return LineSendResultResponse.builder()
-            .sentPlayerCount(sentPlayers).failedPlayerCount(failedPlayers).skippedPlayerCount(skippedPlayers).build();
+            .sentPlayerCount(sentPlayers).queuedPlayerCount(queuedPlayers)
+            .failedPlayerCount(failedPlayers).skippedPlayerCount(skippedPlayers).build();
     }
 
     /**
@@ -549,85 +484,120 @@ public class LineNotificationService {
      */
     @Transactional
     public LineSendResultResponse sendLotteryResultsWaitlistedOnly(int year, int month, Long organizationId) {
-        int sentPlayers = 0, failedPlayers = 0, skippedPlayers = 0;
+        int sentPlayers = 0, queuedPlayers = 0, failedPlayers = 0, skippedPlayers = 0;
 
         // 団体IDが指定されている場合は、該当団体のセッションに紐づく参加者のみを対象とする
         Map<Long, PracticeSession> sessionCache = new HashMap<>();
-        List<PracticeParticipant> participants;
-        if (organizationId != null) {
-            List<PracticeSession> orgSessions = practiceSessionRepository
-                .findByYearAndMonthAndOrganizationId(year, month, organizationId);
-            for (PracticeSession s : orgSessions) sessionCache.put(s.getId(), s);
-            List<Long> sessionIds = orgSessions.stream()
-                .map(PracticeSession::getId).collect(Collectors.toList());
-            participants = sessionIds.isEmpty()
-                ? List.of()
-                : practiceParticipantRepository.findBySessionIdIn(sessionIds);
-        } else {
-            participants = practiceParticipantRepository
-                .findBySessionDateYearAndMonth(year, month);
-            for (PracticeParticipant p : participants) {
-                sessionCache.computeIfAbsent(p.getSessionId(),
-                    id -> practiceSessionRepository.findById(id).orElse(null));
-            }
-        }
+        List<PracticeParticipant> participants = loadLotteryParticipants(year, month, organizationId, sessionCache);
 
         // WAITLISTED のみ対象、プレイヤーごとにグルーピング
         Map<Long, List<PracticeParticipant>> byPlayer = participants.stream()
             .filter(p -> p.getStatus() == ParticipantStatus.WAITLISTED)
             .collect(Collectors.groupingBy(PracticeParticipant::getPlayerId));
 
+        Map<Long, Set<Long>> orgsByPlayer = loadOrganizationIdsByPlayer(byPlayer.keySet());
+        Map<Long, String> sessionLabels = new HashMap<>();
+        Map<Long, List<OutboundMessage>> plans = new LinkedHashMap<>();
+
         for (Map.Entry<Long, List<PracticeParticipant>> entry : byPlayer.entrySet()) {
             Long playerId = entry.getKey();
 
             // 団体フィルタ
-            Long sessionOrgId = entry.getValue().stream()
-                    .map(p -> sessionCache.get(p.getSessionId()))
-                    .filter(java.util.Objects::nonNull)
-                    .map(PracticeSession::getOrganizationId)
-                    .findFirst().orElse(null);
-            if (sessionOrgId != null && !playerOrganizationRepository.existsByPlayerIdAndOrganizationId(playerId, sessionOrgId)) {
+            if (!belongsToSessionOrganization(entry.getValue(), sessionCache, orgsByPlayer.get(playerId))) {
                 skippedPlayers++;
                 continue;
             }
 
-            List<PracticeParticipant> waitlisted = entry.getValue();
-            boolean anySuccess = false;
-            boolean anyFailed = false;
+            // イントロメッセージ + セッション別Flex Message
+            List<OutboundMessage> messages = new ArrayList<>();
+            messages.add(OutboundMessage.text("落選した試合があります..."));
+            addLotteryWaitlistedFlexes(messages, entry.getValue(), sessionCache, sessionLabels, playerId);
+            plans.put(playerId, messages);
+        }
 
-            // イントロメッセージ
-            SendResult r1 = sendToPlayer(playerId, LineNotificationType.LOTTERY_RESULT,
-                "落選した試合があります...");
-            if (r1 == SendResult.SUCCESS) anySuccess = true;
-            else if (r1 == SendResult.FAILED) anyFailed = true;
+        for (SendResult r : deliverBulk(LineNotificationType.LOTTERY_RESULT, plans).values()) {
+            if (r == SendResult.SUCCESS) sentPlayers++;
+            else if (r == SendResult.QUEUED) queuedPlayers++;
+            else if (r == SendResult.FAILED) failedPlayers++;
+            else skippedPlayers++;
+        }
 
-            // セッション別Flex Message
-            Map<Long, List<PracticeParticipant>> waitlistedBySession = waitlisted.stream()
-                .collect(Collectors.groupingBy(PracticeParticipant::getSessionId));
+        log.info("Waitlisted-only LINE notifications: sentPlayers={}, queuedPlayers={}, failedPlayers={}, skippedPlayers={}",
+            sentPlayers, queuedPlayers, failedPlayers, skippedPlayers);
+        return LineSendResultResponse.builder()
+            .sentPlayerCount(sentPlayers).queuedPlayerCount(queuedPlayers)
+            .failedPlayerCount(failedPlayers).skippedPlayerCount(skippedPlayers).build();
+    }
 
-            for (Map.Entry<Long, List<PracticeParticipant>> sessionEntry : waitlistedBySession.entrySet()) {
-                PracticeSession session = sessionCache.get(sessionEntry.getKey());
-                if (session == null) continue;
+    /**
+     * 抽選結果送信の対象参加者を取得し、セッションを sessionCache に詰める。
+     */
+    private List<PracticeParticipant> loadLotteryParticipants(int year, int month, Long organizationId,
+                                                              Map<Long, PracticeSession> sessionCache) {
+        if (organizationId != null) {
+            List<PracticeSession> orgSessions = practiceSessionRepository
+                .findByYearAndMonthAndOrganizationId(year, month, organizationId);
+            for (PracticeSession s : orgSessions) sessionCache.put(s.getId(), s);
+            List<Long> sessionIds = orgSessions.stream()
+                .map(PracticeSession::getId).collect(Collectors.toList());
+            return sessionIds.isEmpty()
+                ? List.of()
+                : practiceParticipantRepository.findBySessionIdIn(sessionIds);
+        }
+        List<PracticeParticipant> participants = practiceParticipantRepository
+            .findBySessionDateYearAndMonth(year, month);
+        for (PracticeParticipant p : participants) {
+            sessionCache.computeIfAbsent(p.getSessionId(),
+                id -> practiceSessionRepository.findById(id).orElse(null));
+        }
+        return participants;
+    }
 
-                String sessionLabel2 = getSessionLabel(session);
-                Map<String, Object> flex = buildLotteryWaitlistedFlex(
-                    sessionLabel2, sessionEntry.getValue(), sessionEntry.getKey(), playerId);
-                String altText = sessionLabel2 + "の練習: キャンセル待ち";
+    /**
+     * 対象プレイヤー全員の所属団体IDを一括取得する。
+     */
+    private Map<Long, Set<Long>> loadOrganizationIdsByPlayer(Collection<Long> playerIds) {
+        if (playerIds.isEmpty()) {
+            return Map.of();
+        }
+        return playerOrganizationRepository.findByPlayerIdIn(new ArrayList<>(playerIds)).stream()
+            .collect(Collectors.groupingBy(PlayerOrganization::getPlayerId,
+                Collectors.mapping(PlayerOrganization::getOrganizationId, Collectors.toSet())));
+    }
 
-                SendResult r2 = sendFlexToPlayer(playerId, LineNotificationType.LOTTERY_RESULT, altText, flex);
-                if (r2 == SendResult.SUCCESS) anySuccess = true;
-                else if (r2 == SendResult.FAILED) anyFailed = true;
-            }
+    /**
+     * プレイヤーが参加セッションの団体に所属しているか（セッション団体が不明なら対象とする）
+     */
+    private boolean belongsToSessionOrganization(List<PracticeParticipant> playerParticipants,
+                                                 Map<Long, PracticeSession> sessionCache,
+                                                 Set<Long> playerOrganizationIds) {
+        Long sessionOrgId = playerParticipants.stream()
+                .map(p -> sessionCache.get(p.getSessionId()))
+                .filter(java.util.Objects::nonNull)
+                .map(PracticeSession::getOrganizationId)
+                .findFirst().orElse(null);
+        return sessionOrgId == null
+                || (playerOrganizationIds != null && playerOrganizationIds.contains(sessionOrgId));
+    }
 
-            if (anySuccess) sentPlayers++;
-            else if (anyFailed) failedPlayers++;
-            else skippedPlayers++;
-        }
+    /**
+     * キャンセル待ちの練習をセッション別Flex Messageとして追加する
+     */
+    private void addLotteryWaitlistedFlexes(List<OutboundMessage> messages, List<PracticeParticipant> waitlisted,
+                                            Map<Long, PracticeSession> sessionCache,
+                                            Map<Long, String> sessionLabels, Long playerId) {
+        Map<Long, List<PracticeParticipant>> waitlistedBySession = waitlisted.stream()
+            .collect(Collectors.groupingBy(PracticeParticipant::getSessionId));
 
-        log.info("Waitlisted-only LINE notifications: sentPlayers={}, failedPlayers={}, skippedPlayers={}",
-            sentPlayers, failedPlayers, skippedPlayers);
-        return LineSendResultResponse.builder()
-            .sentPlayerCount(sentPlayers).failedPlayerCount(failedPlayers).skippedPlayerCount(skippedPlayers).build();
+        for (Map.Entry<Long, List<PracticeParticipant>> sessionEntry : waitlistedBySession.entrySet()) {
+            PracticeSession session = sessionCache.get(sessionEntry.getKey());
+            if (session == null) continue;
+
+            String sessionLabel = sessionLabels.computeIfAbsent(session.getId(), id -> getSessionLabel(session));
+            Map<String, Object> flex = buildLotteryWaitlistedFlex(
+                sessionLabel, sessionEntry.getValue(), sessionEntry.getKey(), playerId);
+            messages.add(OutboundMessage.flex(sessionLabel + "の練習: キャンセル待ち", flex));
+        }
     }
 
     /**
@@ -999,7 +969,7 @@ public class LineNotificationService {
      */
     @Transactional
     public LineSendResultResponse sendMatchPairings(Long sessionId) {
-        int sent = 0, failed = 0, skipped = 0;
+        int sent = 0, queued = 0, failed = 0, skipped = 0;
 
         PracticeSession session = practiceSessionRepository.findById(sessionId).orElse(null);
         if (session == null) {
@@ -1021,15 +991,16 @@ public class LineNotificationService {
             SendResult result = sendToPlayer(playerId, LineNotificationType.MATCH_PAIRING, message);
             switch (result) {
                 case SUCCESS -> sent++;
+                case QUEUED -> queued++;
                 case FAILED -> failed++;
                 case SKIPPED -> skipped++;
             }
         }
 
-        log.info("Match pairing LINE notifications for session {}: sent={}, failed={}, skipped={}",
-            sessionId, sent, failed, skipped);
+        log.info("Match pairing LINE notifications for session {}: sent={}, queued={}, failed={}, skipped={}",
+            sessionId, sent, queued, failed, skipped);
         return LineSendResultResponse.builder()
-            .sentPlayerCount(sent).failedPlayerCount(failed).skippedPlayerCount(skipped).build();
+            .sentPlayerCount(sent).queuedPlayerCount(queued).failedPlayerCount(failed).skippedPlayerCount(skipped).build();
     }
 
     /**
@@ -1122,25 +1093,133 @@ public class LineNotificationService {
         return new ResolvedChannel(assignment, channel);
     }
 
+    // ========================================================================
+    // 一括配信
+    // ========================================================================
+
     /**
-     * 送信成功/失敗の後処理（カウント更新・ログ記録）を実行し、SendResultを返す。
+     * 一括配信の1メッセージ（送信ペイロードとログ記録用テキスト）
      */
-    private SendResult handleSendResult(boolean success, LineChannel channel, Long playerId,
-                                         LineNotificationType notificationType, String messageForLog) {
-        return handleSendResult(success, channel, playerId, notificationType, messageForLog, null);
+    private record OutboundMessage(Map<String, Object> payload, String logText) {
+        static OutboundMessage text(String message) {
+            return new OutboundMessage(LineMessagingService.textMessage(message), message);
+        }
+
+        static OutboundMessage flex(String altText, Map<String, Object> contents) {
+            return new OutboundMessage(LineMessagingService.flexMessage(altText, contents), altText);
+        }
     }
 
-    private SendResult handleSendResult(boolean success, LineChannel channel, Long playerId,
-                                         LineNotificationType notificationType, String messageForLog,
-                                         String dedupeKey) {
-        if (success) {
-            logMessage(channel.getId(), playerId, notificationType, messageForLog, MessageStatus.SUCCESS, null, dedupeKey);
-            return SendResult.SUCCESS;
-        } else {
-            logMessage(channel.getId(), playerId, notificationType, messageForLog,
-                MessageStatus.FAILED, "LINE API送信失敗", dedupeKey);
-            return SendResult.FAILED;
+    /**
+     * 同じ内容の送信をまとめるキー。チャンク位置も含めるため、1人の同一内容のチャンクが
+     * 同じ Multicast の組に入ることはない（組は1人1行）。
+     */
+    private record DeliveryKey(Long channelId, int chunkIndex, List<Map<String, Object>> payloads) {}
+
+    /** 1プレイヤー分の1リクエスト（最大5メッセージ） */
+    private record PlannedChunk(Long playerId, String lineUserId, List<OutboundMessage> messages) {}
+
+    /**
+     * 複数プレイヤーへのメッセージを一括で送信キューに登録する。
+     *
+     * <ol>
+     *   <li>割り当て・通知設定・チャネルを対象者分まとめて取得する（1人ずつの問い合わせをしない）</li>
+     *   <li>送信可否は {@link #resolveChannel} と同じ基準で判定し、SKIPPED ログも従来どおり1メッセージ1行で残す</li>
+     *   <li>1人分のメッセージは5件ずつ1行（1リクエスト）に詰め、同一チャネル・同一内容の行には同じ retry_key を
+     *       付けて登録する。送信ワーカーは組を1回の Multicast で送る</li>
+     * </ol>
+     *
+     * 送信と結果ログの記録は {@link NotificationOutboxDispatcher} が行う。
+     * 管理者向け（ADMIN_）通知は通知設定の判定が異なるため対象外。
+     *
+     * @param plans プレイヤーID → 送信するメッセージ（順序どおりに届く）
+     * @return プレイヤーID → 結果（送信キューに登録できれば QUEUED）
+     */
+    private Map<Long, SendResult> deliverBulk(LineNotificationType notificationType,
+                                              Map<Long, List<OutboundMessage>> plans) {
+        Map<Long, SendResult> results = new LinkedHashMap<>();
+        if (plans.isEmpty()) {
+            return results;
+        }
+        if (notificationType.name().startsWith("ADMIN_")) {
+            throw new IllegalArgumentException("管理者向け通知は一括配信の対象外です: " + notificationType);
+        }
+
+        Map<Long, LineChannelAssignment> assignments = new HashMap<>();
+        for (LineChannelAssignment a : lineChannelAssignmentRepository.findByPlayerIdInAndChannelTypeAndStatusIn(
+                plans.keySet(), notificationType.getRequiredChannelType(), List.of(AssignmentStatus.LINKED))) {
+            assignments.putIfAbsent(a.getPlayerId(), a);  // 新しい順に並んでいるので先頭が最新
+        }
+        Map<Long, List<LineNotificationPreference>> prefsByPlayer = assignments.isEmpty()
+            ? Map.of()
+            : lineNotificationPreferenceRepository.findByPlayerIdIn(assignments.keySet()).stream()
+                .collect(Collectors.groupingBy(LineNotificationPreference::getPlayerId));
+        Map<Long, LineChannel> channels = lineChannelRepository.findAllById(
+                assignments.values().stream().map(LineChannelAssignment::getLineChannelId).collect(Collectors.toSet()))
+            .stream().collect(Collectors.toMap(LineChannel::getId, c -> c));
+
+        Map<DeliveryKey, List<PlannedChunk>> grouped = new LinkedHashMap<>();
+        for (Map.Entry<Long, List<OutboundMessage>> plan : plans.entrySet()) {
+            Long playerId = plan.getKey();
+            List<OutboundMessage> messages = plan.getValue();
+
+            LineChannelAssignment assignment = assignments.get(playerId);
+            if (assignment == null) {
+                results.put(playerId, SendResult.SKIPPED);
+                continue;
+            }
+            if (!isNotificationEnabled(prefsByPlayer.getOrDefault(playerId, List.of()), notificationType)) {
+                for (OutboundMessage m : messages) {
+                    logMessage(assignment.getLineChannelId(), playerId, notificationType, m.logText(),
+                        MessageStatus.SKIPPED, "通知設定がOFF");
+                }
+                results.put(playerId, SendResult.SKIPPED);
+                continue;
+            }
+            LineChannel channel = channels.get(assignment.getLineChannelId());
+            if (channel == null || channel.getStatus() != LineChannel.ChannelStatus.LINKED) {
+                results.put(playerId, SendResult.SKIPPED);
+                continue;
+            }
+            if (channel.getMonthlyMessageCount() >= MONTHLY_MESSAGE_LIMIT) {
+                for (OutboundMessage m : messages) {
+                    logMessage(channel.getId(), playerId, notificationType, m.logText(),
+                        MessageStatus.SKIPPED, "月間送信上限超過");
+                }
+                results.put(playerId, SendResult.SKIPPED);
+                continue;
+            }
+
+            for (int from = 0, index = 0; from < messages.size();
+                    from += LineMessagingService.MAX_MESSAGES_PER_REQUEST, index++) {
+                List<OutboundMessage> part = messages.subList(from,
+                    Math.min(messages.size(), from + LineMessagingService.MAX_MESSAGES_PER_REQUEST));
+                DeliveryKey key = new DeliveryKey(channel.getId(), index,
+                    part.stream().map(OutboundMessage::payload).toList());
+                grouped.computeIfAbsent(key, k -> new ArrayList<>())
+                    .add(new PlannedChunk(playerId, assignment.getLineUserId(), part));
+            }
+            results.put(playerId, SendResult.QUEUED);
+        }
+
+        int requests = 0;
+        for (Map.Entry<DeliveryKey, List<PlannedChunk>> group : grouped.entrySet()) {
+            List<PlannedChunk> recipients = group.getValue();
+            for (int from = 0; from < recipients.size(); from += LineMessagingService.MAX_MULTICAST_RECIPIENTS) {
+                String retryKey = UUID.randomUUID().toString();
+                for (PlannedChunk chunk : recipients.subList(from,
+                        Math.min(recipients.size(), from + LineMessagingService.MAX_MULTICAST_RECIPIENTS))) {
+                    notificationOutboxService.enqueueLine(group.getKey().channelId(), chunk.lineUserId(),
+                        chunk.playerId(), notificationType, group.getKey().payloads(),
+                        chunk.messages().stream().map(OutboundMessage::logText).collect(Collectors.joining("\n")),
+                        null, false, retryKey);
+                }
+                requests++;
+            }
         }
+
+        log.info("LINE bulk delivery queued ({}): players={}, requests={}", notificationType, plans.size(), requests);
+        return results;
     }
 
     /**
@@ -1640,24 +1719,14 @@ public class LineNotificationService {
                 continue;
             }
 
-            // 送信権を確保できた場合のみ実際に送信
-            boolean sent = false;
+            // 送信権を確保できた場合のみ送信キューへ登録（予約ログの確定は送信ワーカーが行う）
             try {
-                boolean success = lineMessagingService.sendPushFlexMessage(
-                        resolved.channel().getChannelAccessToken(), resolved.assignment().getLineUserId(), altText, flex);
-                if (success) {
-                    sent = true;
-                    sentCount++;
-                } else {
-                    int updated = lineMessageLogService.markReservationFailed(
-                            playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey, "LINE API送信失敗");
-                    if (updated == 0) {
-                        log.warn("markReservationFailed updated 0 rows: player={}, dedupeKey={}", playerId, dedupeKey);
-                    }
-                    failedCount++;
-                }
+                notificationOutboxService.enqueueLine(resolved.channel().getId(), resolved.assignment().getLineUserId(),
+                        playerId, LineNotificationType.SAME_DAY_VACANCY,
+                        List.of(LineMessagingService.flexMessage(altText, flex)), altText, dedupeKey, true);
+                sentCount++;
             } catch (Exception e) {
-                log.error("Failed to send vacancy notification to player {}: {}", playerId, e.getMessage());
+                log.error("Failed to enqueue vacancy notification for player {}: {}", playerId, e.getMessage());
                 int updated = lineMessageLogService.markReservationFailed(
                         playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey, e.getMessage());
                 if (updated == 0) {
@@ -1665,16 +1734,9 @@ public class LineNotificationService {
                 }
                 failedCount++;
             }
-
-            // 送信成功後のステータス更新（リトライ付き）
-            // 送信済みなのにFAILEDに変更すると重複送信の原因になるため、
-            // markReservationSucceededが例外を投げてもmarkReservationFailedは呼ばない
-            if (sent) {
-                markSucceededWithRetry(playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey);
-            }
         }
 
-        log.info("Sent vacancy notification for session {} match {} ({} vacancies): sent={}, alreadyNotified={}, failed={}, channelSkipped={}",
+        log.info("Queued vacancy notification for session {} match {} ({} vacancies): queued={}, alreadyNotified={}, failed={}, channelSkipped={}",
                 session.getId(), matchNumber, vacancies, sentCount, alreadyNotifiedCount, failedCount, channelSkippedCount);
     }
 
@@ -1813,24 +1875,14 @@ public class LineNotificationService {
             Map<String, Object> flex = buildConsolidatedSameDayVacancyFlex(
                     sessionLabel, playerVacancies, session.getId(), true);
 
-            // 送信権を確保できた場合のみ実際に送信
-            boolean sent = false;
+            // 送信権を確保できた場合のみ送信キューへ登録（予約ログの確定は送信ワーカーが行う）
             try {
-                boolean success = lineMessagingService.sendPushFlexMessage(
-                        resolved.channel().getChannelAccessToken(), resolved.assignment().getLineUserId(), altText, flex);
-                if (success) {
-                    sent = true;
-                    sentCount++;
-                } else {
-                    int updated = lineMessageLogService.markReservationFailed(
-                            playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey, "LINE API送信失敗");
-                    if (updated == 0) {
-                        log.warn("markReservationFailed updated 0 rows: player={}, dedupeKey={}", playerId, dedupeKey);
-                    }
-                    failedCount++;
-                }
+                notificationOutboxService.enqueueLine(resolved.channel().getId(), resolved.assignment().getLineUserId(),
+                        playerId, LineNotificationType.SAME_DAY_VACANCY,
+                        List.of(LineMessagingService.flexMessage(altText, flex)), altText, dedupeKey, true);
+                sentCount++;
             } catch (Exception e) {
-                log.error("Failed to send consolidated vacancy notification to player {}: {}", playerId, e.getMessage());
+                log.error("Failed to enqueue consolidated vacancy notification for player {}: {}", playerId, e.getMessage());
                 int updated = lineMessageLogService.markReservationFailed(
                         playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey, e.getMessage());
                 if (updated == 0) {
@@ -1838,16 +1890,9 @@ public class LineNotificationService {
                 }
                 failedCount++;
             }
-
-            // 送信成功後のステータス更新（リトライ付き）
-            // 送信済みなのにFAILEDに変更すると重複送信の原因になるため、
-            // markReservationSucceededが例外を投げてもmarkReservationFailedは呼ばない
-            if (sent) {
-                markSucceededWithRetry(playerId, LineNotificationType.SAME_DAY_VACANCY, dedupeKey);
-            }
         }
 
-        log.info("Sent consolidated vacancy notification for session {} ({} matches): sent={}, alreadyNotified={}, failed={}, channelSkipped={}",
+        log.info("Queued consolidated vacancy notification for session {} ({} matches): queued={}, alreadyNotified={}, failed={}, channelSkipped={}",
                 session.getId(), vacanciesByMatch.size(), sentCount, alreadyNotifiedCount, failedCount, channelSkippedCount);
     }
 
@@ -2340,6 +2385,10 @@ public class LineNotificationService {
 
     /**
      * プレイヤーにFlex Messageを送信する
+     *
+     * 送信可否チェックを通過したメッセージは送信キュー（{@link NotificationOutboxService}）に登録し、
+     * 実際の送信と送信ログの記録は {@link NotificationOutboxDispatcher} が非同期に行う。
+     * そのため送信可否チェックを通過した場合の戻り値は SUCCESS ではなく QUEUED（未送信）になる。
      */
     public SendResult sendFlexToPlayer(Long playerId, LineNotificationType notificationType,
                                         String altText, Map<String, Object> flexContents) {
@@ -2354,14 +2403,14 @@ public class LineNotificationService {
             return SendResult.SKIPPED;
         }
 
-        boolean success = lineMessagingService.sendPushFlexMessage(
-            resolved.channel().getChannelAccessToken(), resolved.assignment().getLineUserId(), altText, flexContents);
-
-        return handleSendResult(success, resolved.channel(), playerId, notificationType, altText, dedupeKey);
+        notificationOutboxService.enqueueLine(resolved.channel().getId(), resolved.assignment().getLineUserId(),
+            playerId, notificationType, List.of(LineMessagingService.flexMessage(altText, flexContents)),
+            altText, dedupeKey, false);
+        return SendResult.QUEUED;
     }
 
     /**
-     * プレイヤーにLINE通知を送信する
+     * プレイヤーにLINE通知を送信する（送信キュー経由。戻り値の意味は {@link #sendFlexToPlayer} と同じ）
      */
     public SendResult sendToPlayer(Long playerId, LineNotificationType notificationType, String message) {
         ResolvedChannel resolved = resolveChannel(playerId, notificationType, message);
@@ -2369,10 +2418,9 @@ public class LineNotificationService {
             return SendResult.SKIPPED;
         }
 
-        boolean success = lineMessagingService.sendPushMessage(
-            resolved.channel().getChannelAccessToken(), resolved.assignment().getLineUserId(), message);
-
-        return handleSendResult(success, resolved.channel(), playerId, notificationType, message);
+        notificationOutboxService.enqueueLine(resolved.channel().getId(), resolved.assignment().getLineUserId(),
+            playerId, notificationType, List.of(LineMessagingService.textMessage(message)), message, null, false);
+        return SendResult.QUEUED;
     }
 
     private boolean isNotificationEnabled(Long playerId, LineNotificationType type) {
@@ -2384,7 +2432,10 @@ public class LineNotificationService {
                 .orElse(true); // レコードなし＝デフォルトON
         }
 
-        List<LineNotificationPreference> prefs = lineNotificationPreferenceRepository.findByPlayerId(playerId);
+        return isNotificationEnabled(lineNotificationPreferenceRepository.findByPlayerId(playerId), type);
+    }
+
+    private boolean isNotificationEnabled(List<LineNotificationPreference> prefs, LineNotificationType type) {
         if (prefs.isEmpty()) return true; // デフォルト全ON
 
         // いずれかの団体で該当種別がONならtrue
@@ -2513,23 +2564,14 @@ public class LineNotificationService {
                 continue;
             }
 
-            boolean sentOne = false;
+            // 送信キューへ登録（予約ログの確定は送信ワーカーが行う）
             try {
-                boolean success = lineMessagingService.sendPushMessage(
-                        resolved.channel().getChannelAccessToken(), resolved.assignment().getLineUserId(), text);
-                if (success) {
-                    sentOne = true;
-                    sent++;
-                } else {
-                    int updated = lineMessageLogService.markReservationFailed(
-                            playerId, LineNotificationType.CARD_DIVISION_REMINDER, dedupeKey, "LINE API送信失敗");
-                    if (updated == 0) {
-                        log.warn("markReservationFailed updated 0 rows: player={}, dedupeKey={}", playerId, dedupeKey);
-                    }
-                    failed++;
-                }
+                notificationOutboxService.enqueueLine(resolved.channel().getId(), resolved.assignment().getLineUserId(),
+                        playerId, LineNotificationType.CARD_DIVISION_REMINDER,
+                        List.of(LineMessagingService.textMessage(text)), text, dedupeKey, true);
+                sent++;
             } catch (Exception e) {
-                log.error("Failed to send card division reminder to player {}: {}", playerId, e.getMessage());
+                log.error("Failed to enqueue card division reminder for player {}: {}", playerId, e.getMessage());
                 int updated = lineMessageLogService.markReservationFailed(
                         playerId, LineNotificationType.CARD_DIVISION_REMINDER, dedupeKey, e.getMessage());
                 if (updated == 0) {
@@ -2537,15 +2579,9 @@ public class LineNotificationService {
                 }
                 failed++;
             }
-
-            // 送信成功後のステータス更新（リトライ付き）。送信済みなのに FAILED にすると重複送信の原因になるため
-            // markReservationSucceeded が例外を投げても markReservationFailed は呼ばない
-            if (sentOne) {
-                markSucceededWithRetry(playerId, LineNotificationType.CARD_DIVISION_REMINDER, dedupeKey);
-            }
         }
 
-        log.info("CARD_DIVISION_REMINDER session {} (org {}): sent={}, alreadyNotified={}, failed={}, channelSkipped={}",
+        log.info("CARD_DIVISION_REMINDER session {} (org {}): queued={}, alreadyNotified={}, failed={}, channelSkipped={}",
                 sessionId, organizationId, sent, alreadyNotified, failed, channelSkipped);
     }
 
@@ -2905,7 +2941,7 @@ public class LineNotificationService {
                     .filter(p -> p.getRole() == Player.Role.PLAYER)
                     .toList();
 
-            int sent = 0;
+            int queued = 0;
             int failed = 0;
             int skipped = 0;
             for (Player player : targetPlayers) {
@@ -2918,8 +2954,8 @@ public class LineNotificationService {
                 }
                 try {
                     SendResult result = sendToPlayer(player.getId(), LineNotificationType.DENSUKE_PAGE_CREATED, message);
-                    if (result == SendResult.SUCCESS) {
-                        sent++;
+                    if (result.isAccepted()) {
+                        queued++;
                     } else if (result == SendResult.FAILED) {
                         failed++;
                     }
@@ -2929,8 +2965,8 @@ public class LineNotificationService {
                 }
             }
 
-            log.info("DENSUKE_PAGE_CREATED: organizationId={}, targetCount={}, sent={}, failed={}, skipped={}",
-                    organizationId, targetPlayers.size(), sent, failed, skipped);
+            log.info("DENSUKE_PAGE_CREATED: organizationId={}, targetCount={}, queued={}, failed={}, skipped={}",
+                    organizationId, targetPlayers.size(), queued, failed, skipped);
         } catch (Exception e) {
             // @Async のスレッドで失敗しても呼び出し元には伝播しないため、ここで必ずログに落とす
             log.warn("Async DENSUKE_PAGE_CREATED dispatch failed: org={}, err={}",
@@ -2997,14 +3033,14 @@ public class LineNotificationService {
         String message = String.format("%sさんが%sの試合（%s）に動画を登録しました\n%s",
                 registrantName, dateStr, matchCard, link);
 
-        int sent = 0;
+        int queued = 0;
         int failed = 0;
         int skipped = 0;
         for (Long recipientId : recipientIds) {
             try {
                 SendResult result = sendToPlayer(recipientId, LineNotificationType.MATCH_VIDEO_REGISTERED, message);
-                if (result == SendResult.SUCCESS) {
-                    sent++;
+                if (result.isAccepted()) {
+                    queued++;
                 } else if (result == SendResult.FAILED) {
                     failed++;
                 } else {
@@ -3016,8 +3052,8 @@ public class LineNotificationService {
             }
         }
 
-        log.info("MATCH_VIDEO_REGISTERED: matchDate={}, matchNumber={}, registrantId={}, targetCount={}, sent={}, failed={}, skipped={}",
-                matchDate, matchNumber, registrantId, recipientIds.size(), sent, failed, skipped);
+        log.info("MATCH_VIDEO_REGISTERED: matchDate={}, matchNumber={}, registrantId={}, targetCount={}, queued={}, failed={}, skipped={}",
+                matchDate, matchNumber, registrantId, recipientIds.size(), queued, failed, skipped);
     }
 
     /** app.frontend-url の末尾スラッシュを除去して返す（リンク連結時の二重スラッシュ防止）。 */
@@ -3067,14 +3103,14 @@ public class LineNotificationService {
 
             String message = "[伝助スケジュール同期エラー]\n" + errorMessage;
 
-            int sent = 0;
+            int queued = 0;
             int failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_DENSUKE_PUSH_FAILED, message);
-                    if (result == SendResult.SUCCESS) {
-                        sent++;
+                    if (result.isAccepted()) {
+                        queued++;
                     } else if (result == SendResult.FAILED) {
                         failed++;
                     }
@@ -3085,8 +3121,8 @@ public class LineNotificationService {
                 }
             }
 
-            log.info("ADMIN_DENSUKE_PUSH_FAILED: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_DENSUKE_PUSH_FAILED: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             // @Async のスレッドで失敗しても呼び出し元には伝播しないため、ここで必ずログに落とす
             log.warn("Async ADMIN_DENSUKE_PUSH_FAILED dispatch failed: org={}, err={}",
@@ -3129,12 +3165,12 @@ public class LineNotificationService {
                             + "伝助の実際の状態を手動で確認してください。\n";
             String message = "[抽選確定：伝助差分の警告]\n" + body + String.join("\n", diffs);
 
-            int sent = 0, failed = 0;
+            int queued = 0, failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_DENSUKE_CONFIRM_DIFF, message);
-                    if (result == SendResult.SUCCESS) sent++;
+                    if (result.isAccepted()) queued++;
                     else if (result == SendResult.FAILED) failed++;
                 } catch (Exception e) {
                     log.warn("Failed to send ADMIN_DENSUKE_CONFIRM_DIFF to admin {}: {}",
@@ -3142,8 +3178,8 @@ public class LineNotificationService {
                     failed++;
                 }
             }
-            log.info("ADMIN_DENSUKE_CONFIRM_DIFF: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_DENSUKE_CONFIRM_DIFF: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             log.warn("Async ADMIN_DENSUKE_CONFIRM_DIFF dispatch failed: org={}, err={}",
                     organizationId, e.getMessage(), e);
@@ -3182,12 +3218,12 @@ public class LineNotificationService {
                     + String.join("\n", collisionDetails)
                     + "\n重複選手を統合してください（伝助管理ページ）。";
 
-            int sent = 0, failed = 0;
+            int queued = 0, failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_DENSUKE_NAME_COLLISION, message);
-                    if (result == SendResult.SUCCESS) sent++;
+                    if (result.isAccepted()) queued++;
                     else if (result == SendResult.FAILED) failed++;
                 } catch (Exception e) {
                     log.warn("Failed to send ADMIN_DENSUKE_NAME_COLLISION to admin {}: {}",
@@ -3195,8 +3231,8 @@ public class LineNotificationService {
                     failed++;
                 }
             }
-            log.info("ADMIN_DENSUKE_NAME_COLLISION: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_DENSUKE_NAME_COLLISION: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             log.warn("Async ADMIN_DENSUKE_NAME_COLLISION dispatch failed: org={}, err={}",
                     organizationId, e.getMessage(), e);
@@ -3235,12 +3271,12 @@ public class LineNotificationService {
                     + "伝助側の行削除・並べ替え・HTML変更の可能性があります。内容をご確認ください。\n"
                     + String.join("\n", issues);
 
-            int sent = 0, failed = 0;
+            int queued = 0, failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_DENSUKE_ROWID_ISSUE, message);
-                    if (result == SendResult.SUCCESS) sent++;
+                    if (result.isAccepted()) queued++;
                     else if (result == SendResult.FAILED) failed++;
                 } catch (Exception e) {
                     log.warn("Failed to send ADMIN_DENSUKE_ROWID_ISSUE to admin {}: {}",
@@ -3248,8 +3284,8 @@ public class LineNotificationService {
                     failed++;
                 }
             }
-            log.info("ADMIN_DENSUKE_ROWID_ISSUE: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_DENSUKE_ROWID_ISSUE: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             log.warn("Async ADMIN_DENSUKE_ROWID_ISSUE dispatch failed: org={}, err={}",
                     organizationId, e.getMessage(), e);
@@ -3289,12 +3325,12 @@ public class LineNotificationService {
                     + "\n\n伝助管理ページで内容を確認し、問題なければ削除を承認してください"
                     + "（承認するまでアプリ側のデータは変更されません）。";
 
-            int sent = 0, failed = 0;
+            int queued = 0, failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_DENSUKE_DELETE_DETECTED, message);
-                    if (result == SendResult.SUCCESS) sent++;
+                    if (result.isAccepted()) queued++;
                     else if (result == SendResult.FAILED) failed++;
                 } catch (Exception e) {
                     log.warn("Failed to send ADMIN_DENSUKE_DELETE_DETECTED to admin {}: {}",
@@ -3302,8 +3338,8 @@ public class LineNotificationService {
                     failed++;
                 }
             }
-            log.info("ADMIN_DENSUKE_DELETE_DETECTED: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_DENSUKE_DELETE_DETECTED: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             log.warn("Async ADMIN_DENSUKE_DELETE_DETECTED dispatch failed: org={}, err={}",
                     organizationId, e.getMessage(), e);
@@ -3340,12 +3376,12 @@ public class LineNotificationService {
                 return;
             }
 
-            int sent = 0, failed = 0;
+            int queued = 0, failed = 0;
             for (Player admin : targetAdmins) {
                 try {
                     SendResult result = sendToPlayer(admin.getId(),
                             LineNotificationType.ADMIN_CHAT_RESERVE_ALERT, message);
-                    if (result == SendResult.SUCCESS) sent++;
+                    if (result.isAccepted()) queued++;
                     else if (result == SendResult.FAILED) failed++;
                 } catch (Exception e) {
                     log.warn("Failed to send ADMIN_CHAT_RESERVE_ALERT to admin {}: {}",
@@ -3353,8 +3389,8 @@ public class LineNotificationService {
                     failed++;
                 }
             }
-            log.info("ADMIN_CHAT_RESERVE_ALERT: organizationId={}, adminCount={}, sent={}, failed={}",
-                    organizationId, targetAdmins.size(), sent, failed);
+            log.info("ADMIN_CHAT_RESERVE_ALERT: organizationId={}, adminCount={}, queued={}, failed={}",
+                    organizationId, targetAdmins.size(), queued, failed);
         } catch (Exception e) {
             log.warn("Async ADMIN_CHAT_RESERVE_ALERT dispatch failed: org={}, err={}",
                     organizationId, e.getMessage(), e);
@@ -3488,12 +3524,14 @@ public class LineNotificationService {
             if (relationships.isEmpty()) return SendResult.SKIPPED;
 
             boolean anySuccess = false;
+            boolean anyQueued = false;
             boolean anyFailed = false;
             boolean anySkipped = false;
             for (MentorRelationship rel : relationships) {
                 SendResult r = sendFlexToPlayer(rel.getMentorId(), LineNotificationType.MENTOR_COMMENT, altText, flex);
-                if (r == SendResult.SUCCESS) {
+                if (r.isAccepted()) {
                     anySuccess = true;
+                    anyQueued |= r == SendResult.QUEUED;
                 } else if (r == SendResult.FAILED) {
                     anyFailed = true;
                     log.warn("メンターコメント通知 部分失敗: mentorId={}", rel.getMentorId());
@@ -3504,11 +3542,11 @@ public class LineNotificationService {
 
             // FAILED優先: 1件でも失敗があれば FAILED（再送可能にするため lineNotified=true にしない）
             // SUCCESS+SKIPPED混在もSKIPPED扱い（スキップ受信者への再送を可能にする）
-            // 全員成功のときのみ SUCCESS
+            // 全員成功のときのみ SUCCESS（1人でもキュー登録止まりなら QUEUED）
             if (anyFailed) return SendResult.FAILED;
             if (!anySuccess) return SendResult.SKIPPED;
             if (anySkipped) return SendResult.SKIPPED;
-            return SendResult.SUCCESS;
+            return anyQueued ? SendResult.QUEUED : SendResult.SUCCESS;
         } else {
             // メンターがコメント → メンティーに通知
             return sendFlexToPlayer(menteeId, LineNotificationType.MENTOR_COMMENT, altText, flex);
@@ -3607,12 +3645,14 @@ public class LineNotificationService {
         if (relationships.isEmpty()) return SendResult.SKIPPED;
 
         boolean anySuccess = false;
+        boolean anyQueued = false;
         boolean anyFailed = false;
         boolean anySkipped = false;
         for (MentorRelationship rel : relationships) {
             SendResult r = sendFlexToPlayer(rel.getMentorId(), LineNotificationType.MENTEE_MEMO_UPDATE, altText, flex);
-            if (r == SendResult.SUCCESS) {
+            if (r.isAccepted()) {
                 anySuccess = true;
+                anyQueued |= r == SendResult.QUEUED;
             } else if (r == SendResult.FAILED) {
                 anyFailed = true;
                 log.warn("メモ更新通知 部分失敗: mentorId={}", rel.getMentorId());
@@ -3624,7 +3664,7 @@ public class LineNotificationService {
         if (anyFailed) return SendResult.FAILED;
         if (!anySuccess) return SendResult.SKIPPED;
         if (anySkipped) return SendResult.SKIPPED;
-        return SendResult.SUCCESS;
+        return anyQueued ? SendResult.QUEUED : SendResult.SUCCESS;
     }
 
     private Map<String, Object> buildMemoUpdateFlex(String menteeName, Match match,
@@ -3669,7 +3709,20 @@ public class LineNotificationService {
         );
     }
 
+    /**
+     * 送信要求の結果
+     */
     public enum SendResult {
-        SUCCESS, FAILED, SKIPPED
+        /** LINE API への送信まで完了した */
+        SUCCESS,
+        /** 送信キューに登録した（送信はまだ。結果は {@link NotificationOutboxDispatcher} が送信ログに残す） */
+        QUEUED,
+        FAILED,
+        SKIPPED;
+
+        /** 送信済み、または送信キューへの登録済みか（再送・再登録が不要か） */
+        public boolean isAccepted() {
+            return this == SUCCESS || this == QUEUED;
+        }
     }
 }
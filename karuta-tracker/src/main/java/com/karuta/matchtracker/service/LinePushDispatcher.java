@@ -0,0 +1,121 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.service.LineMessagingService.SendResult;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+/**
+ * LINE一括配信の送信実行部。
+ *
+ * <p>送信ジョブ（チャネル × 宛先 × 最大5メッセージ）を仮想スレッドで並列に送る。
+ * 同時に飛ばす HTTP リクエスト数は {@link #MAX_IN_FLIGHT} で上限を設け、同一チャネルのジョブは
+ * 1本の仮想スレッドで順番に、{@link #MIN_INTERVAL_PER_CHANNEL} 以上の間隔を空けて送る（チャネル単位のレート制限）。
+ *
+ * <p>宛先が1人なら Push API、複数なら Multicast API を使う。ログ記録・重複排除は呼び出し側の責務で、
+ * ここでは各ジョブの結果（成功・再送可能な失敗・再送不可の失敗）だけを返す。
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class LinePushDispatcher {
+
+    static final int MAX_IN_FLIGHT = 8;
+    static final Duration MIN_INTERVAL_PER_CHANNEL = Duration.ofMillis(50);
+
+    private final LineMessagingService lineMessagingService;
+
+    /**
+     * 送信ジョブ
+     *
+     * @param channelId          チャネルID（レート制限のキー）
+     * @param channelAccessToken チャネルアクセストークン
+     * @param lineUserIds        宛先（1〜500件）
+     * @param messages           メッセージ（1〜5件）
+     * @param retryKey           X-Line-Retry-Key（再送で同じ値を送る場合。null なら送信ごとに採番）
+     */
+    public record PushJob(Long channelId, String channelAccessToken, List<String> lineUserIds,
+                          List<Map<String, Object>> messages, String retryKey) {
+
+        public PushJob(Long channelId, String channelAccessToken, List<String> lineUserIds,
+                       List<Map<String, Object>> messages) {
+            this(channelId, channelAccessToken, lineUserIds, messages, null);
+        }
+    }
+
+    /**
+     * ジョブをすべて送信し、入力と同じ順序で結果を返す。全ジョブの完了まで待つ。
+     */
+    public List<SendResult> dispatch(List<PushJob> jobs) {
+        SendResult[] results = new SendResult[jobs.size()];
+        Map<Long, List<Integer>> byChannel = new LinkedHashMap<>();
+        for (int i = 0; i < jobs.size(); i++) {
+            byChannel.computeIfAbsent(jobs.get(i).channelId(), k -> new ArrayList<>()).add(i);
+        }
+
+        Semaphore inFlight = new Semaphore(MAX_IN_FLIGHT);
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (List<Integer> indexes : byChannel.values()) {
+                executor.submit(() -> {
+                    long lastSentAt = 0L;
+                    for (int index : indexes) {
+                        lastSentAt = paceChannel(lastSentAt);
+                        results[index] = send(jobs.get(index), inFlight);
+                    }
+                });
+            }
+        }
+
+        List<SendResult> list = new ArrayList<>(results.length);
+        for (SendResult r : results) {
+            list.add(r != null ? r : SendResult.RETRYABLE_FAILURE);
+        }
+        return list;
+    }
+
+    private SendResult send(PushJob job, Semaphore inFlight) {
+        try {
+            inFlight.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return SendResult.RETRYABLE_FAILURE;
+        }
+        try {
+            if (job.lineUserIds().size() == 1) {
+                return lineMessagingService.sendPushMessages(
+                        job.channelAccessToken(), job.lineUserIds().get(0), job.messages(), job.retryKey());
+            }
+            return lineMessagingService.sendMulticastMessages(
+                    job.channelAccessToken(), job.lineUserIds(), job.messages(), job.retryKey());
+        } catch (RuntimeException e) {
+            log.error("LINE bulk push failed for channel {}: {}", job.channelId(), e.getMessage());
+            return SendResult.RETRYABLE_FAILURE;
+        } finally {
+            inFlight.release();
+        }
+    }
+
+    /** 同一チャネルの直前の送信から最小間隔が空くまで待ち、今回の送信時刻を返す */
+    private static long paceChannel(long lastSentAt) {
+        if (lastSentAt > 0) {
+            long waitMillis = lastSentAt + MIN_INTERVAL_PER_CHANNEL.toMillis() - System.currentTimeMillis();
+            if (waitMillis > 0) {
+                try {
+                    Thread.sleep(waitMillis);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+        return System.currentTimeMillis();
+    }
+}
@@ -1,7 +1,6 @@
 package com.karuta.matchtracker.service;
 
 import java.time.LocalDate;
-import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
@@ -19,6 +18,11 @@ import java.util.Random;
  * </ul>
  * ルール2（直近30日の重み付き抽選）の候補選択（{@link #pickWeighted}）もここで行う。
  *
+ * <p>当選日は選手ごとに epoch day の昇順 int 配列で持ち、どちらのカウンタも二分探索2回
+ * （O(log 当選数)）で求める。抽選は1回ごとに全候補の todayTaken を引くため、線形走査だと
+ * 応募超過の試合1つで O(応募者数² × 当選数) になる。{@link #pickWeighted} の作業配列も
+ * インスタンスで使い回す（トラッカーは1回の抽選実行・1スレッドで使い捨てる前提）。
+ *
  * <p><b>決定性:</b> {@link #pickWeighted} は候補が ID 昇順で渡される前提で、実行全体で共有する
  * 単一の {@link Random} を用いた累積和走査で1人を選ぶ。同一シードなら同一選択となり、
  * プレビューと確定の当落一致（AC-R3）を担保する。
@@ -28,44 +32,37 @@ public class LotteryFairShareTracker {
     /** recentTaken の窓幅（日） */
     static final int RECENT_WINDOW_DAYS = 30;
 
-    // playerId -> 当選日リスト（多重集合。同日複数WONは複数要素）
-    private final Map<Long, List<LocalDate>> winDates = new HashMap<>();
+    // playerId -> 当選日（epoch day 昇順。同日複数WONは複数要素）
+    private final Map<Long, WinDays> winDays = new HashMap<>();
+
+    // pickWeighted の作業配列（候補数に合わせて伸ばす）
+    private int[] recentBuf = new int[16];
+    private int[] sortBuf = new int[16];
 
     /** 1件の当選を記録する（sessionDate を1件追加する） */
     public void recordWin(Long playerId, LocalDate sessionDate) {
-        winDates.computeIfAbsent(playerId, k -> new ArrayList<>()).add(sessionDate);
+        winDays.computeIfAbsent(playerId, k -> new WinDays()).add((int) sessionDate.toEpochDay());
     }
 
     /** そのセッション日に取れた試合数（{@code == sessionDate} の件数） */
     public int todayTaken(Long playerId, LocalDate sessionDate) {
-        List<LocalDate> dates = winDates.get(playerId);
-        if (dates == null) {
+        WinDays days = winDays.get(playerId);
+        if (days == null) {
             return 0;
         }
-        int count = 0;
-        for (LocalDate d : dates) {
-            if (d.isEqual(sessionDate)) {
-                count++;
-            }
-        }
-        return count;
+        int day = (int) sessionDate.toEpochDay();
+        return days.countBefore(day + 1) - days.countBefore(day);
     }
 
     /** 窓 {@code [sessionDate-30, sessionDate)} 内の当選件数（当日は含めない） */
     public int recentTaken(Long playerId, LocalDate sessionDate) {
-        List<LocalDate> dates = winDates.get(playerId);
-        if (dates == null) {
+        WinDays days = winDays.get(playerId);
+        if (days == null) {
             return 0;
         }
-        LocalDate from = sessionDate.minusDays(RECENT_WINDOW_DAYS);
-        int count = 0;
-        for (LocalDate d : dates) {
-            // from <= d < sessionDate
-            if (!d.isBefore(from) && d.isBefore(sessionDate)) {
-                count++;
-            }
-        }
-        return count;
+        int day = (int) sessionDate.toEpochDay();
+        // from <= d < sessionDate
+        return days.countBefore(day) - days.countBefore(day - RECENT_WINDOW_DAYS);
     }
 
     /**
@@ -85,23 +82,28 @@ public class LotteryFairShareTracker {
     public Long pickWeighted(List<Long> candidatePlayerIds, LocalDate sessionDate,
                              int capPercentile, Random rng) {
         int n = candidatePlayerIds.size();
-        int[] recent = new int[n];
+        if (recentBuf.length < n) {
+            recentBuf = new int[Math.max(n, recentBuf.length * 2)];
+            sortBuf = new int[recentBuf.length];
+        }
+        int[] recent = recentBuf;
         for (int i = 0; i < n; i++) {
             recent[i] = recentTaken(candidatePlayerIds.get(i), sessionDate);
         }
-        int cap = computeCap(recent, capPercentile);
+        System.arraycopy(recent, 0, sortBuf, 0, n);
+        Arrays.sort(sortBuf, 0, n);
+        int cap = capOfSorted(sortBuf, n, capPercentile);
 
-        double[] weights = new double[n];
+        // 重みは weightOf で都度求める（同じ入力から同じ double になるため、配列に持つ場合と同じ累積和）
         double total = 0.0;
         for (int i = 0; i < n; i++) {
-            weights[i] = weightOf(recent[i], cap);
-            total += weights[i];
+            total += weightOf(recent[i], cap);
         }
 
         double r = rng.nextDouble() * total;
         double acc = 0.0;
         for (int i = 0; i < n; i++) {
-            acc += weights[i];
+            acc += weightOf(recent[i], cap);
             if (r < acc) {
                 return candidatePlayerIds.get(i);
             }
@@ -133,9 +135,13 @@ public class LotteryFairShareTracker {
      * @param capPercentile p（0〜100。範囲外は 0〜100 にクランプ）
      */
     static int computeCap(int[] recentTakens, int capPercentile) {
-        int n = recentTakens.length;
         int[] sorted = recentTakens.clone();
         Arrays.sort(sorted); // 昇順
+        return capOfSorted(sorted, sorted.length, capPercentile);
+    }
+
+    /** 昇順ソート済みの先頭 {@code n} 件に対する {@link #computeCap} */
+    private static int capOfSorted(int[] sorted, int n, int capPercentile) {
         int p = Math.max(0, Math.min(100, capPercentile));
         int idx = (int) Math.ceil((p / 100.0) * n) - 1;
         idx = Math.max(0, Math.min(n - 1, idx));
@@ -145,4 +151,37 @@ public class LotteryFairShareTracker {
         }
         return cap;
     }
+
+    /** 1選手の当選日（epoch day）の昇順多重集合 */
+    private static final class WinDays {
+
+        private int[] days = new int[8];
+        private int size;
+
+        /** 挿入位置を二分探索して追加する。抽選はセッション日順に進むため通常は末尾への追記 */
+        void add(int day) {
+            int pos = countBefore(day + 1);
+            if (size == days.length) {
+                days = Arrays.copyOf(days, size * 2);
+            }
+            System.arraycopy(days, pos, days, pos + 1, size - pos);
+            days[pos] = day;
+            size++;
+        }
+
+        /** {@code day} より前の当選件数（lower bound） */
+        int countBefore(int day) {
+            int lo = 0;
+            int hi = size;
+            while (lo < hi) {
+                int mid = (lo + hi) >>> 1;
+                if (days[mid] < day) {
+                    lo = mid + 1;
+                } else {
+                    hi = mid;
+                }
+            }
+            return lo;
+        }
+    }
 }
@@ -0,0 +1,135 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import jakarta.persistence.EntityManager;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * 抽選結果（WON / WAITLISTED・キャンセル待ち番号・抽選ID）の一括書き込み。
+ *
+ * <p>抽選中は {@link Batch} に結果を溜め、参加者エンティティは溜めた時点で永続化コンテキストから外す
+ * （後続セッションの参加者取得での auto-flush や、コミット時のダーティチェックで1行ずつ UPDATE されないように）。
+ * 全セッションの抽選が終わったら {@link Batch#apply()} で
+ * {@code UPDATE ... FROM (VALUES ...)} を {@link #ROWS_PER_STATEMENT} 行ずつ発行する。
+ * JdbcTemplate は JPA と同じトランザクション・コネクションで実行される。
+ *
+ * <p>エンティティを経由しないため、参加者の変更通知（{@code PracticeParticipantChangeListener} /
+ * {@code EntityChangeListener}）は飛ばない。書き込み後に枠取得状況と iCal フィード版番号へ直接知らせる。
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class LotteryResultWriter {
+
+    /** 1文あたりの行数（1行4パラメータ。PostgreSQL のバインド上限 65535 に十分収まる） */
+    static final int ROWS_PER_STATEMENT = 1000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManager entityManager;
+    private final SeatOccupancyService seatOccupancyService;
+    private final IcalFeedVersionService icalFeedVersionService;
+
+    /** 1参加者分の抽選結果 */
+    record Assignment(Long participantId, Long sessionId, Long playerId,
+                      ParticipantStatus status, Integer waitlistNumber, Long lotteryId) {
+
+        static Assignment of(PracticeParticipant p) {
+            return new Assignment(p.getId(), p.getSessionId(), p.getPlayerId(),
+                    p.getStatus(), p.getWaitlistNumber(), p.getLotteryId());
+        }
+    }
+
+    /** 1回の抽選実行分の結果を溜める。トランザクション内で使い捨てる */
+    public Batch newBatch() {
+        return new Batch();
+    }
+
+    public final class Batch implements Consumer<List<PracticeParticipant>> {
+
+        private final List<Assignment> assignments = new ArrayList<>();
+
+        private Batch() {
+        }
+
+        /** 試合1つ分の抽選結果を溜め、エンティティを永続化コンテキストから外す */
+        @Override
+        public void accept(List<PracticeParticipant> results) {
+            for (PracticeParticipant p : results) {
+                assignments.add(Assignment.of(p));
+                entityManager.detach(p);
+            }
+        }
+
+        /** 溜めた結果を書き込む。戻り値は更新行数 */
+        public int apply() {
+            return write(assignments);
+        }
+
+        int size() {
+            return assignments.size();
+        }
+    }
+
+    int write(List<Assignment> assignments) {
+        if (assignments.isEmpty()) {
+            return 0;
+        }
+        LocalDateTime now = JstDateTimeUtil.now();
+        int updated = 0;
+        for (int from = 0; from < assignments.size(); from += ROWS_PER_STATEMENT) {
+            List<Assignment> chunk = assignments.subList(from, Math.min(from + ROWS_PER_STATEMENT, assignments.size()));
+            updated += jdbcTemplate.update(updateSql(chunk.size()), updateArgs(chunk, now));
+        }
+        if (updated != assignments.size()) {
+            // 抽選中に参加レコードが削除された場合のみ。残りの行は書き込み済み
+            log.warn("Lottery bulk write updated {} of {} participants", updated, assignments.size());
+        }
+
+        Set<Long> sessionIds = new HashSet<>();
+        Set<Long> playerIds = new HashSet<>();
+        for (Assignment a : assignments) {
+            sessionIds.add(a.sessionId());
+            playerIds.add(a.playerId());
+        }
+        seatOccupancyService.markChanged(sessionIds);
+        icalFeedVersionService.markPlayersChanged(playerIds);
+        log.debug("Lottery bulk write: {} participants in {} sessions", updated, sessionIds.size());
+        return updated;
+    }
+
+    static String updateSql(int rows) {
+        String row = "(CAST(? AS BIGINT), CAST(? AS VARCHAR), CAST(? AS INTEGER), CAST(? AS BIGINT))";
+        return "UPDATE practice_participants AS pp "
+                + "SET status = v.status, waitlist_number = v.waitlist_number, lottery_id = v.lottery_id, "
+                + "dirty = TRUE, updated_at = ? "
+                + "FROM (VALUES " + String.join(", ", Collections.nCopies(rows, row)) + ") "
+                + "AS v(id, status, waitlist_number, lottery_id) "
+                + "WHERE pp.id = v.id";
+    }
+
+    static Object[] updateArgs(List<Assignment> chunk, LocalDateTime now) {
+        Object[] args = new Object[1 + chunk.size() * 4];
+        args[0] = now;
+        int i = 1;
+        for (Assignment a : chunk) {
+            args[i++] = a.participantId();
+            args[i++] = a.status().name();
+            args[i++] = a.waitlistNumber();
+            args[i++] = a.lotteryId();
+        }
+        return args;
+    }
+}
@@ -28,6 +28,7 @@ import com.karuta.matchtracker.repository.VenueRepository;
 import com.karuta.matchtracker.util.JstDateTimeUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionTemplate;
@@ -35,6 +36,11 @@ import org.springframework.transaction.support.TransactionTemplate;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 /**
@@ -51,6 +57,16 @@ import java.util.stream.Collectors;
  *    c. 落選者は同じ選抜手続きの続行で引かれた順にキャンセル待ち番号を付与
  *       （バケット順=管理者優先プール→その他プール）
  * 当選確定のたびに tracker に recordWin して以降の試合・セッションに反映する。
+ *
+ * 月単位の抽選（{@link #executeLottery}）の結果は、{@code app.lottery.bulk-write=true} なら
+ * 全セッション分をメモリ上で確定してから {@link LotteryResultWriter} で一括 UPDATE する。
+ * false なら従来どおり試合ごとに saveAll し、コミット時に1行ずつ更新される。
+ *
+ * {@code app.lottery.parallel-organizations=true} なら、団体ごとに (シード, 団体ID) から導いた
+ * 別々の {@link Random} で抽選し、複数団体の一括実行（organizationId=null）は団体ごとに別スレッドで回す
+ * （{@link #runSessions}）。団体の抽選は互いに独立（トラッカーも団体別）なので、月の抽選時間は
+ * 全団体の合計ではなく最大の団体で決まる。団体単独で実行しても全団体一括で実行しても同じシードなら
+ * 同じ結果になる。false なら従来どおり全セッションを1つの Random で日付順に処理する。
  */
 @Service
 @RequiredArgsConstructor
@@ -72,6 +88,19 @@ public class LotteryService {
     private final LotteryQueryService lotteryQueryService;
     private final PlayerOrganizationRepository playerOrganizationRepository;
     private final TransactionTemplate transactionTemplate;
+    private final SeatOccupancyService seatOccupancyService;
+    private final LotteryResultWriter lotteryResultWriter;
+
+    /** true: 月単位の抽選結果を最後にまとめて一括 UPDATE する / false: 試合ごとに saveAll */
+    @Value("${app.lottery.bulk-write:false}")
+    private boolean bulkWrite;
+
+    /** true: 団体ごとのシードで抽選し、複数団体は並列に処理する / false: 全団体で1つの Random を共有 */
+    @Value("${app.lottery.parallel-organizations:false}")
+    private boolean parallelOrganizations;
+
+    // プレビュー用（結果を保存しない）
+    private static final Consumer<List<PracticeParticipant>> DISCARD_RESULTS = results -> { };
 
     // details JSON 用の内部レコード
     record LotteryDetails(List<SessionDetail> sessions) {}
@@ -81,6 +110,17 @@ public class LotteryService {
     record ErrorDetail(String error) {}
     record MessageDetail(String message) {}
 
+    /**
+     * 1セッション分の抽選入力（DB から読むもの）。団体別の並列実行では、ワーカーが DB に触れないよう
+     * 呼び出しスレッド（トランザクション内）で全セッション分を先に揃える。
+     */
+    private record SessionInput(PracticeSession session, int capPercentile,
+                                Map<Integer, List<PracticeParticipant>> byMatch,
+                                SeatOccupancyService.SessionSeats occupancy) {}
+
+    /** 1団体分の抽選結果。{@code results} は試合ごとの結果（resultSink に渡す単位）を処理順に持つ */
+    private record OrganizationOutcome(List<SessionDetail> details, List<List<PracticeParticipant>> results) {}
+
     /**
      * 指定年月の全セッションに対して抽選を実行する
      *
@@ -130,14 +170,15 @@ public class LotteryService {
             // 公平抽選トラッカーを対象セッション群のベースライン（直近30日の既存WON）から団体別に構築
             // （organizationId=null の全団体一括実行でも recentTaken が団体を越えないようにする）
             Map<Long, LotteryFairShareTracker> trackers = buildTrackersByOrg(sessions);
-            List<SessionDetail> sessionDetails = new ArrayList<>();
-            Random random = new Random(seed);
             Set<Long> adminPrioritySet = priorityPlayerIds != null ? new HashSet<>(priorityPlayerIds) : Set.of();
-
-            for (PracticeSession session : sessions) {
-                LotteryFairShareTracker tracker = trackers.get(session.getOrganizationId());
-                SessionDetail sessionDetail = processSession(session, tracker, execution.getId(), adminPrioritySet, true, random);
-                sessionDetails.add(sessionDetail);
+            LotteryResultWriter.Batch batch = bulkWrite ? lotteryResultWriter.newBatch() : null;
+            Consumer<List<PracticeParticipant>> resultSink =
+                    batch != null ? batch : practiceParticipantRepository::saveAll;
+
+            List<SessionDetail> sessionDetails = runSessions(
+                    sessions, trackers, execution.getId(), adminPrioritySet, resultSink, seed);
+            if (batch != null) {
+                batch.apply();
             }
 
             execution.setDetails(toJson(new LotteryDetails(sessionDetails)));
@@ -297,21 +338,106 @@ public class LotteryService {
     }
 
     /**
-     * 1セッション（1日）の全試合を処理する。試合番号昇順で各試合を2ルール方式で選抜する。
-     * 当選確定は tracker に反映され、以降の試合（todayTaken）・後続セッション（recentTaken）に効く。
+     * 日付昇順のセッション群を抽選し、セッション順の明細を返す。各試合の結果は {@code resultSink} に渡す。
+     *
+     * <p>{@code parallelOrganizations=false} なら全セッションを1つの {@code Random(seed)} で順に処理する。
+     * true なら団体ごとに {@link #organizationSeed} の Random を使い、全セッションの入力を先に読んでから
+     * 団体ごとに仮想スレッドで抽選する。ワーカーは DB・永続化コンテキストに触れず、参加者エンティティの
+     * ステータス更新と団体別トラッカーへの記録だけを行う。結果の保存は全団体の終了後に呼び出しスレッドで行う。
      */
-    private SessionDetail processSession(PracticeSession session, LotteryFairShareTracker tracker,
-                                         Long lotteryId, Set<Long> adminPriorityPlayers,
-                                         boolean saveResults, Random random) {
+    private List<SessionDetail> runSessions(List<PracticeSession> sessions,
+                                            Map<Long, LotteryFairShareTracker> trackers,
+                                            Long lotteryId, Set<Long> adminPriorityPlayers,
+                                            Consumer<List<PracticeParticipant>> resultSink, long seed) {
+        if (!parallelOrganizations) {
+            Random random = new Random(seed);
+            List<SessionDetail> details = new ArrayList<>();
+            for (PracticeSession session : sessions) {
+                LotteryFairShareTracker tracker = trackers.get(session.getOrganizationId());
+                details.add(processSession(loadSessionInput(session), tracker, lotteryId,
+                        adminPriorityPlayers, resultSink, random));
+            }
+            return details;
+        }
+
+        Map<Long, List<SessionInput>> inputsByOrg = new LinkedHashMap<>();
+        for (PracticeSession session : sessions) {
+            inputsByOrg.computeIfAbsent(session.getOrganizationId(), k -> new ArrayList<>())
+                    .add(loadSessionInput(session));
+        }
+
+        Map<Long, OrganizationOutcome> outcomes = new HashMap<>();
+        if (inputsByOrg.size() == 1) {
+            Map.Entry<Long, List<SessionInput>> only = inputsByOrg.entrySet().iterator().next();
+            outcomes.put(only.getKey(), processOrganization(only.getKey(), only.getValue(),
+                    trackers.get(only.getKey()), lotteryId, adminPriorityPlayers, seed));
+        } else {
+            Map<Long, Future<OrganizationOutcome>> futures = new LinkedHashMap<>();
+            try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+                inputsByOrg.forEach((orgId, inputs) -> futures.put(orgId, executor.submit(() ->
+                        processOrganization(orgId, inputs, trackers.get(orgId), lotteryId, adminPriorityPlayers, seed))));
+            }
+            for (Map.Entry<Long, Future<OrganizationOutcome>> entry : futures.entrySet()) {
+                try {
+                    outcomes.put(entry.getKey(), entry.getValue().get());
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IllegalStateException("Lottery interrupted", e);
+                } catch (ExecutionException e) {
+                    if (e.getCause() instanceof RuntimeException re) {
+                        throw re;
+                    }
+                    throw new IllegalStateException("Lottery failed for organization " + entry.getKey(), e.getCause());
+                }
+            }
+        }
+
+        Map<Long, SessionDetail> detailsBySession = new HashMap<>();
+        for (OrganizationOutcome outcome : outcomes.values()) {
+            outcome.results().forEach(resultSink);
+            outcome.details().forEach(d -> detailsBySession.put(d.sessionId(), d));
+        }
+        return sessions.stream().map(session -> detailsBySession.get(session.getId())).collect(Collectors.toList());
+    }
+
+    /** 1団体分のセッション（日付昇順）を団体別シードで抽選する。DB には触れない */
+    private OrganizationOutcome processOrganization(Long organizationId, List<SessionInput> inputs,
+                                                    LotteryFairShareTracker tracker, Long lotteryId,
+                                                    Set<Long> adminPriorityPlayers, long seed) {
+        Random random = new Random(organizationSeed(seed, organizationId));
+        List<List<PracticeParticipant>> results = new ArrayList<>();
+        List<SessionDetail> details = new ArrayList<>(inputs.size());
+        for (SessionInput input : inputs) {
+            details.add(processSession(input, tracker, lotteryId, adminPriorityPlayers, results::add, random));
+        }
+        return new OrganizationOutcome(details, results);
+    }
+
+    /**
+     * 実行シードと団体IDから、その団体の抽選に使うシードを導く（SplitMix64 の混合関数）。
+     * 団体の処理順やスレッドの割り当てに依らず、同じ (シード, 団体) なら同じ値になる。
+     */
+    static long organizationSeed(long seed, long organizationId) {
+        long z = seed + organizationId * 0x9E3779B97F4A7C15L;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    /**
+     * 1セッション分の抽選入力を読む（定員の会場フォールバック・団体別のパーセンタイル設定・
+     * PENDING 参加者・抽選前の枠取得状況）。
+     *
+     * <p>枠取得状況は試合ごとの WON/OFFERED 数だけを使う。同じセッションの他の試合の抽選結果は
+     * 当該試合の件数を変えないため、セッションの処理前に1回読めば試合ごとに読むのと同じになる。
+     */
+    private SessionInput loadSessionInput(PracticeSession session) {
         // セッションに定員が未設定の場合、会場の定員にフォールバック
         if (session.getCapacity() == null && session.getVenueId() != null) {
             venueRepository.findById(session.getVenueId())
                     .ifPresent(venue -> session.setCapacity(venue.getCapacity()));
         }
 
-        log.debug("Processing session: {} (date: {}, capacity: {})",
-                session.getId(), session.getSessionDate(), session.getCapacity());
-
         // パーセンタイル設定は団体別に読む（プレビュー時と確定時で同一団体の同一値が読まれる）
         int capPercentile = systemSettingService.getLotteryWeightCapPercentile(session.getOrganizationId());
 
@@ -319,9 +445,8 @@ public class LotteryService {
         List<PracticeParticipant> allParticipants = practiceParticipantRepository
                 .findBySessionIdAndStatus(session.getId(), ParticipantStatus.PENDING);
         allParticipants.sort(Comparator.comparingLong(PracticeParticipant::getId));
-
         if (allParticipants.isEmpty()) {
-            return new SessionDetail(session.getId(), session.getSessionDate(), List.of());
+            return new SessionInput(session, capPercentile, Map.of(), SeatOccupancyService.SessionSeats.EMPTY);
         }
 
         // 試合番号でグループ化し、番号昇順で処理
@@ -330,10 +455,29 @@ public class LotteryService {
                 .collect(Collectors.groupingBy(PracticeParticipant::getMatchNumber,
                         TreeMap::new, Collectors.toList()));
 
+        SeatOccupancyService.SessionSeats occupancy = session.getCapacity() != null
+                ? seatOccupancyService.current(session.getId())
+                : SeatOccupancyService.SessionSeats.EMPTY;
+        return new SessionInput(session, capPercentile, byMatch, occupancy);
+    }
+
+    /**
+     * 1セッション（1日）の全試合を処理する。試合番号昇順で各試合を2ルール方式で選抜する。
+     * 当選確定は tracker に反映され、以降の試合（todayTaken）・後続セッション（recentTaken）に効く。
+     * 各試合の結果（ステータス更新済みの参加者）は {@code resultSink} に渡す。
+     */
+    private SessionDetail processSession(SessionInput input, LotteryFairShareTracker tracker,
+                                         Long lotteryId, Set<Long> adminPriorityPlayers,
+                                         Consumer<List<PracticeParticipant>> resultSink, Random random) {
+        PracticeSession session = input.session();
+        log.debug("Processing session: {} (date: {}, capacity: {})",
+                session.getId(), session.getSessionDate(), session.getCapacity());
+
         List<MatchDetail> matchDetails = new ArrayList<>();
-        for (Map.Entry<Integer, List<PracticeParticipant>> entry : byMatch.entrySet()) {
+        for (Map.Entry<Integer, List<PracticeParticipant>> entry : input.byMatch().entrySet()) {
             MatchDetail detail = processMatch(session, entry.getKey(), entry.getValue(),
-                    lotteryId, tracker, capPercentile, adminPriorityPlayers, saveResults, random);
+                    lotteryId, tracker, input.capPercentile(), adminPriorityPlayers,
+                    input.occupancy(), resultSink, random);
             matchDetails.add(detail);
         }
 
@@ -350,6 +494,7 @@ public class LotteryService {
      * （バケット順=管理者優先プール→その他プール）。当選確定は {@code tracker} に反映する。
      *
      * <p>package-private にすることでユニットテストから直接呼び出し可能にしている。
+     * {@code saveResults} が true なら結果を saveAll する。
      */
     MatchDetail processMatch(PracticeSession session, int matchNumber,
                                 List<PracticeParticipant> applicants,
@@ -358,6 +503,25 @@ public class LotteryService {
                                 int capPercentile,
                                 Set<Long> adminPriorityPlayers,
                                 boolean saveResults, Random random) {
+        Consumer<List<PracticeParticipant>> resultSink =
+                saveResults ? practiceParticipantRepository::saveAll : DISCARD_RESULTS;
+        return processMatch(session, matchNumber, applicants, lotteryId, tracker, capPercentile,
+                adminPriorityPlayers, seatOccupancyService.current(session.getId()), resultSink, random);
+    }
+
+    /**
+     * {@link #processMatch(PracticeSession, int, List, Long, LotteryFairShareTracker, int, Set, boolean, Random)}
+     * の本体。抽選前の枠取得状況（{@code occupancy}）を受け取り、結果は {@code resultSink} に渡す。
+     * DB・Spring Bean に依存しないため、抽選シミュレーション（{@code LotterySimulation}）からも直接呼ぶ。
+     */
+    static MatchDetail processMatch(PracticeSession session, int matchNumber,
+                                    List<PracticeParticipant> applicants,
+                                    Long lotteryId,
+                                    LotteryFairShareTracker tracker,
+                                    int capPercentile,
+                                    Set<Long> adminPriorityPlayers,
+                                    SeatOccupancyService.SessionSeats occupancy,
+                                    Consumer<List<PracticeParticipant>> resultSink, Random random) {
 
         LocalDate sessionDate = session.getSessionDate();
         Integer capacity = session.getCapacity();
@@ -368,12 +532,8 @@ public class LotteryService {
         // 存在しても、合計当選が定員を超えないようにする。差し引き後の残枠で選抜を実施。
         // （再抽選経路も本差し引きに一本化。繰り上がり承諾者=WON が残枠から控除される）
         if (capacity != null) {
-            long alreadyFilled =
-                    practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                            session.getId(), matchNumber, ParticipantStatus.WON)
-                    + practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                            session.getId(), matchNumber, ParticipantStatus.OFFERED);
-            capacity = (int) Math.max(0, capacity - alreadyFilled);
+            int alreadyFilled = occupancy.count(matchNumber, ParticipantStatus.WON, ParticipantStatus.OFFERED);
+            capacity = Math.max(0, capacity - alreadyFilled);
         }
 
         // 定員未設定 or 定員以下 → 全員当選
@@ -384,9 +544,7 @@ public class LotteryService {
                 p.setLotteryId(lotteryId);
                 tracker.recordWin(p.getPlayerId(), sessionDate);
             }
-            if (saveResults) {
-                practiceParticipantRepository.saveAll(applicants);
-            }
+            resultSink.accept(applicants);
 
             log.debug("Match {}: all {} applicants win (capacity: {})",
                     matchNumber, totalApplicants, capacity);
@@ -438,12 +596,10 @@ public class LotteryService {
             p.setLotteryId(lotteryId);
         }
 
-        if (saveResults) {
-            List<PracticeParticipant> all = new ArrayList<>(winners.size() + orderedLosers.size());
-            all.addAll(winners);
-            all.addAll(orderedLosers);
-            practiceParticipantRepository.saveAll(all);
-        }
+        List<PracticeParticipant> all = new ArrayList<>(winners.size() + orderedLosers.size());
+        all.addAll(winners);
+        all.addAll(orderedLosers);
+        resultSink.accept(all);
 
         log.info("Match {}: {} winners, {} waitlisted (from {} applicants, capacity {})",
                 matchNumber, winners.size(), orderedLosers.size(), totalApplicants, capacity);
@@ -456,10 +612,10 @@ public class LotteryService {
      * 先頭 {@code seats} 人を当選（tracker に recordWin）、それ以降に引かれた者を落選として、
      * 引かれた順に {@code losersOut} へ積む（=キャンセル待ち順）。tracker への当選記録は当選者のみ。
      */
-    private void selectFromPool(List<PracticeParticipant> pool, int seats, LocalDate sessionDate,
-                                int capPercentile, LotteryFairShareTracker tracker, Random random,
-                                List<PracticeParticipant> winnersOut,
-                                List<PracticeParticipant> losersOut) {
+    private static void selectFromPool(List<PracticeParticipant> pool, int seats, LocalDate sessionDate,
+                                       int capPercentile, LotteryFairShareTracker tracker, Random random,
+                                       List<PracticeParticipant> winnersOut,
+                                       List<PracticeParticipant> losersOut) {
         List<PracticeParticipant> working = new ArrayList<>(pool); // ID 昇順を維持
         int drawn = 0;
         while (!working.isEmpty()) {
@@ -479,17 +635,19 @@ public class LotteryService {
      * ルール1で todayTaken 最小の候補に絞り、ルール2で1人選ぶ（候補1人なら確定、複数なら重み付き抽選）。
      * {@code pool} は ID 昇順前提。
      */
-    private PracticeParticipant drawOne(List<PracticeParticipant> pool, LocalDate sessionDate,
-                                        int capPercentile, LotteryFairShareTracker tracker,
-                                        Random random) {
+    private static PracticeParticipant drawOne(List<PracticeParticipant> pool, LocalDate sessionDate,
+                                               int capPercentile, LotteryFairShareTracker tracker,
+                                               Random random) {
+        int[] today = new int[pool.size()];
         int minToday = Integer.MAX_VALUE;
-        for (PracticeParticipant p : pool) {
-            minToday = Math.min(minToday, tracker.todayTaken(p.getPlayerId(), sessionDate));
+        for (int i = 0; i < today.length; i++) {
+            today[i] = tracker.todayTaken(pool.get(i).getPlayerId(), sessionDate);
+            minToday = Math.min(minToday, today[i]);
         }
         List<PracticeParticipant> candidates = new ArrayList<>();
-        for (PracticeParticipant p : pool) {
-            if (tracker.todayTaken(p.getPlayerId(), sessionDate) == minToday) {
-                candidates.add(p);
+        for (int i = 0; i < today.length; i++) {
+            if (today[i] == minToday) {
+                candidates.add(pool.get(i));
             }
         }
         if (candidates.size() == 1) {
@@ -526,23 +684,28 @@ public class LotteryService {
      * (participant id) 集合を昇順に並べて SHA-256 でハッシュ化する。プレビュー時と確定時で
      * 同一なら「プレビューで見た母集団と確定時の母集団が一致」とみなせる。
      * 5分同期での新規○取り込み・キャンセル等で母集団が変わるとシグネチャが変化する。
+     *
+     * <p>団体別シード（{@code app.lottery.parallel-organizations=true}）では抽選と同じく団体ごとに区切って
+     * 並べ、区切り方もハッシュに含める。プレビューと確定の間に実行モードが切り替わった場合も不一致になり、
+     * 別の乱数列で確定されることはない。
      */
     @Transactional(readOnly = true)
     public String computePopulationSignature(int year, int month, Long organizationId) {
         List<PracticeSession> sessions = (organizationId != null)
                 ? practiceSessionRepository.findByYearAndMonthAndOrganizationId(year, month, organizationId)
                 : practiceSessionRepository.findByYearAndMonth(year, month);
-        List<Long> sessionIds = sessions.stream().map(PracticeSession::getId).sorted().collect(Collectors.toList());
 
-        List<Long> pendingIds = new ArrayList<>();
-        for (Long sid : sessionIds) {
-            practiceParticipantRepository.findBySessionIdAndStatus(sid, ParticipantStatus.PENDING)
-                    .forEach(p -> pendingIds.add(p.getId()));
+        String raw;
+        if (!parallelOrganizations) {
+            raw = populationPart(sessions);
+        } else {
+            Map<Long, List<PracticeSession>> sessionsByOrg = sessions.stream()
+                    .collect(Collectors.groupingBy(PracticeSession::getOrganizationId, TreeMap::new, Collectors.toList()));
+            StringBuilder sb = new StringBuilder("mode=per-org");
+            sessionsByOrg.forEach((orgId, orgSessions) ->
+                    sb.append("|o=").append(orgId).append(':').append(populationPart(orgSessions)));
+            raw = sb.toString();
         }
-        pendingIds.sort(Comparator.naturalOrder());
-
-        String raw = "s=" + sessionIds.stream().map(String::valueOf).collect(Collectors.joining(","))
-                + "|p=" + pendingIds.stream().map(String::valueOf).collect(Collectors.joining(","));
         try {
             java.security.MessageDigest md = java.security.MessageDigest.getInstance("SHA-256");
             byte[] hash = md.digest(raw.getBytes(java.nio.charset.StandardCharsets.UTF_8));
@@ -555,6 +718,21 @@ public class LotteryService {
         }
     }
 
+    /** セッションID・PENDING 参加者IDをそれぞれ昇順に並べた {@code s=...|p=...} */
+    private String populationPart(List<PracticeSession> sessions) {
+        List<Long> sessionIds = sessions.stream().map(PracticeSession::getId).sorted().collect(Collectors.toList());
+
+        List<Long> pendingIds = new ArrayList<>();
+        for (Long sid : sessionIds) {
+            practiceParticipantRepository.findBySessionIdAndStatus(sid, ParticipantStatus.PENDING)
+                    .forEach(p -> pendingIds.add(p.getId()));
+        }
+        pendingIds.sort(Comparator.naturalOrder());
+
+        return "s=" + sessionIds.stream().map(String::valueOf).collect(Collectors.joining(","))
+                + "|p=" + pendingIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+    }
+
     @Transactional(readOnly = true)
     public LotteryPreviewResult previewLottery(int year, int month, Long organizationId, List<Long> priorityPlayerIds) {
         long seed = new Random().nextLong();
@@ -581,8 +759,8 @@ public class LotteryService {
         // 公平抽選トラッカーを団体別に構築（確定経路と同一手順・同一分割で AC-R3 を担保）
         Map<Long, LotteryFairShareTracker> trackers = buildTrackersByOrg(sessions);
         // セッションごとに処理された参加者を保持（DTO組み立て用）
+        // （同じ永続化コンテキストなので、抽選で読み直す参加者は同一インスタンス＝ここで保持したものが更新される）
         Map<Long, List<PracticeParticipant>> participantsBySession = new LinkedHashMap<>();
-        Random random = new Random(seed);
         Set<Long> adminPrioritySet = priorityPlayerIds != null ? new HashSet<>(priorityPlayerIds) : Set.of();
 
         for (PracticeSession session : sessions) {
@@ -590,15 +768,12 @@ public class LotteryService {
             List<PracticeParticipant> participants = practiceParticipantRepository
                     .findBySessionIdAndStatus(session.getId(), ParticipantStatus.PENDING);
             participants.sort(Comparator.comparingLong(PracticeParticipant::getId));
-
-            // 抽選アルゴリズムを実行（DB保存なし）
-            LotteryFairShareTracker tracker = trackers.get(session.getOrganizationId());
-            processSession(session, tracker, null, adminPrioritySet, false, random);
-
-            // 処理後の参加者（ステータスがインメモリで更新済み）を保持
             participantsBySession.put(session.getId(), participants);
         }
 
+        // 抽選アルゴリズムを実行（DB保存なし）。確定経路と同じ runSessions でシードの使い方を揃える
+        runSessions(sessions, trackers, null, adminPrioritySet, DISCARD_RESULTS, seed);
+
         // インメモリの参加者データからLotteryResultDtoを組み立て
         List<LotteryResultDto> results = new ArrayList<>();
         for (PracticeSession session : sessions) {
@@ -1164,11 +1339,9 @@ public class LotteryService {
         if (capacity == null) {
             return;
         }
-        long won = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                request.getSessionId(), request.getMatchNumber(), ParticipantStatus.WON);
-        long offered = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                request.getSessionId(), request.getMatchNumber(), ParticipantStatus.OFFERED);
-        if (won + offered >= capacity) {
+        int filled = seatOccupancyService.current(request.getSessionId())
+                .count(request.getMatchNumber(), ParticipantStatus.WON, ParticipantStatus.OFFERED);
+        if (filled >= capacity) {
             throw new IllegalArgumentException(
                     "定員に空きがないため繰り上げできません（定員拡張が必要です）");
         }
@@ -124,8 +124,8 @@ public class MatchCommentService {
         LineNotificationService.SendResult result = lineNotificationService
                 .sendMentorCommentFlexNotification(currentUserId, menteeId, match, unnotified, isMenteeAuthor);
 
-        // SUCCESSの場合のみ通知済みフラグを更新
-        if (result == LineNotificationService.SendResult.SUCCESS) {
+        // 送信済み・送信キュー登録済み（SUCCESS / QUEUED）の場合のみ通知済みフラグを更新
+        if (result.isAccepted()) {
             for (MatchComment comment : unnotified) {
                 comment.setLineNotified(true);
             }
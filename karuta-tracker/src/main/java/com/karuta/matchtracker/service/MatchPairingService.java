@@ -58,6 +58,8 @@ public class MatchPairingService {
     private final PracticeParticipantRepository practiceParticipantRepository;
     private final PracticeSessionRepository practiceSessionRepository;
     private final LotteryDeadlineHelper lotteryDeadlineHelper;
+    private final PairHistoryIndexService pairHistoryIndexService;
+    private final PlayerMatchStatsService playerMatchStatsService;
 
     /**
      * 指定日の対戦組み合わせを取得
@@ -203,6 +205,7 @@ public class MatchPairingService {
                 .build();
 
         MatchPairing saved = matchPairingRepository.save(pairing);
+        pairHistoryIndexService.recordPairing(saved.getSessionDate(), saved.getPlayer1Id(), saved.getPlayer2Id());
         return convertToDto(saved);
     }
 
@@ -265,6 +268,7 @@ public class MatchPairingService {
                 .filter(p -> !protectedPairKeys.contains(getPairKey(p.getPlayer1Id(), p.getPlayer2Id())))
                 .collect(Collectors.toList());
         matchPairingRepository.deleteAll(toDelete);
+        toDelete.forEach(p -> pairHistoryIndexService.removePairing(p.getSessionDate(), p.getPlayer1Id(), p.getPlayer2Id()));
 
         // ゾンビ（同一セッションに両選手が揃わない）既存ペアリングも掃除する。
         // 組織スコープの参加者フィルタにより existingPairings から漏れたペアは従来の削除対象にならず、
@@ -301,6 +305,7 @@ public class MatchPairingService {
                 .collect(Collectors.toList());
 
         List<MatchPairing> saved = matchPairingRepository.saveAll(pairings);
+        pairings.forEach(p -> pairHistoryIndexService.recordPairing(sessionDate, p.getPlayer1Id(), p.getPlayer2Id()));
         // 保護対象（結果入力済み）ペアリングも結果に含める
         saved.addAll(protectedPairings);
 
@@ -418,6 +423,8 @@ public class MatchPairingService {
         deleteMatchForPairing(pairing.getSessionDate(), pairing.getMatchNumber(), oldPlayer1Id, oldPlayer2Id);
 
         MatchPairing saved = matchPairingRepository.save(pairing);
+        pairHistoryIndexService.removePairing(pairing.getSessionDate(), oldPlayer1Id, oldPlayer2Id);
+        pairHistoryIndexService.recordPairing(pairing.getSessionDate(), pairing.getPlayer1Id(), pairing.getPlayer2Id());
         return convertToDto(saved);
     }
 
@@ -431,6 +438,8 @@ public class MatchPairingService {
                     || (match.getPlayer1Id().equals(player2Id) && match.getPlayer2Id().equals(player1Id));
             if (matchesPair) {
                 matchRepository.delete(match);
+                pairHistoryIndexService.removeMatch(match.getMatchDate(), match.getPlayer1Id(), match.getPlayer2Id());
+                playerMatchStatsService.removeMatch(PlayerMatchStatsService.MatchFacts.of(match));
             }
         }
     }
@@ -440,6 +449,8 @@ public class MatchPairingService {
      */
     @Transactional
     public void delete(Long id) {
+        matchPairingRepository.findById(id).ifPresent(p ->
+                pairHistoryIndexService.removePairing(p.getSessionDate(), p.getPlayer1Id(), p.getPlayer2Id()));
         matchPairingRepository.deleteById(id);
     }
 
@@ -462,6 +473,7 @@ public class MatchPairingService {
                 .collect(Collectors.toList());
 
         matchPairingRepository.deleteAll(toDelete);
+        toDelete.forEach(p -> pairHistoryIndexService.removePairing(p.getSessionDate(), p.getPlayer1Id(), p.getPlayer2Id()));
 
         // 結果なしのゾンビ（同一セッションに両選手が揃わない）ペアも削除する。これにより、フロントの
         // 「既存の組み合わせを削除」(deleteByDateAndMatchNumber) でこれらのペアも消せるようになる（Issue #900）。
@@ -530,6 +542,7 @@ public class MatchPairingService {
             log.info("ゾンビ組み合わせ(同一セッションに両者が揃わない)を削除: date={}, matchNumber={}, organizationId={}, 件数={}",
                     sessionDate, matchNumber, organizationId, orphans.size());
             matchPairingRepository.deleteAll(orphans);
+            orphans.forEach(p -> pairHistoryIndexService.removePairing(p.getSessionDate(), p.getPlayer1Id(), p.getPlayer2Id()));
         }
     }
 
@@ -609,6 +622,9 @@ public class MatchPairingService {
         // 試合結果とペアリングを削除
         matchRepository.delete(targetMatch);
         matchPairingRepository.delete(pairing);
+        pairHistoryIndexService.removeMatch(targetMatch.getMatchDate(), targetMatch.getPlayer1Id(), targetMatch.getPlayer2Id());
+        playerMatchStatsService.removeMatch(PlayerMatchStatsService.MatchFacts.of(targetMatch));
+        pairHistoryIndexService.removePairing(pairing.getSessionDate(), pairing.getPlayer1Id(), pairing.getPlayer2Id());
 
         return result;
     }
@@ -740,8 +756,8 @@ public class MatchPairingService {
         List<Long> playerIds = List.of(player1Id, player2Id);
         LocalDate startDate = sessionDate.minusDays(MATCH_HISTORY_DAYS);
 
-        // 過去の組み合わせ履歴
-        Map<String, List<LocalDate>> historyMap = getPairingHistory(playerIds, startDate, sessionDate);
+        // 過去の組み合わせ履歴（Matchテーブルの対戦履歴も和集合で含む）
+        Map<String, List<LocalDate>> historyMap = loadPairHistory(playerIds, startDate, sessionDate, true);
 
         // 同日の他試合（自分以外の試合番号）の組み合わせも含める
         if (matchNumber != null) {
@@ -758,17 +774,6 @@ public class MatchPairingService {
             }
         }
 
-        // Matchテーブルからの対戦履歴もマージ
-        Map<String, List<LocalDate>> gameHistoryMap = getMatchHistory(playerIds, startDate, sessionDate);
-        for (Map.Entry<String, List<LocalDate>> entry : gameHistoryMap.entrySet()) {
-            historyMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
-            for (LocalDate date : entry.getValue()) {
-                if (!historyMap.get(entry.getKey()).contains(date)) {
-                    historyMap.get(entry.getKey()).add(date);
-                }
-            }
-        }
-
         return getRecentMatchesForPair(player1Id, player2Id, historyMap, sessionDate);
     }
 
@@ -923,20 +928,9 @@ public class MatchPairingService {
                     .build();
         }
 
-        // 過去30日の組み合わせ履歴を取得（MatchPairingテーブルから）
+        // 過去30日の組み合わせ履歴を取得（MatchPairingテーブル＋Matchテーブルの和集合）
         LocalDate startDate = sessionDate.minusDays(MATCH_HISTORY_DAYS);
-        Map<String, List<LocalDate>> matchHistoryMap = getPairingHistory(availableParticipantIds, startDate, sessionDate);
-
-        // Matchテーブルからの対戦履歴もマージ
-        Map<String, List<LocalDate>> gameHistoryMap = getMatchHistory(availableParticipantIds, startDate, sessionDate);
-        for (Map.Entry<String, List<LocalDate>> entry : gameHistoryMap.entrySet()) {
-            matchHistoryMap.computeIfAbsent(entry.getKey(), k -> new ArrayList<>());
-            for (LocalDate date : entry.getValue()) {
-                if (!matchHistoryMap.get(entry.getKey()).contains(date)) {
-                    matchHistoryMap.get(entry.getKey()).add(date);
-                }
-            }
-        }
+        Map<String, List<LocalDate>> matchHistoryMap = loadPairHistory(availableParticipantIds, startDate, sessionDate, true);
 
         // 表示用履歴マップ: スコア計算用のmatchHistoryMapに同日他試合のペアを加えたもの。
         // スコア計算（calculatePairScore）には matchHistoryMap を使い、同日ペアを混入させない。
@@ -979,57 +973,42 @@ public class MatchPairingService {
                         .orElse(null);
         Set<String> previousPracticePairKeys = findPreviousPracticePairKeys(sessionDate, effectiveOrganizationId);
 
-        // スコアを計算して最適なペアリングを生成
+        // スコアを計算して最適なペアリングを生成。
+        // 全ペアのスコアをシャッフル済みの参加者順で1回だけ行列化し、以降のペア選択は行列だけを読む。
         List<AutoMatchingResult.PairingSuggestion> pairings = new ArrayList<>();
         Set<Long> paired = new HashSet<>();
         List<Long> shuffled = new ArrayList<>(availableParticipantIds);
         Collections.shuffle(shuffled);
 
-        while (paired.size() + 1 < shuffled.size()) {
-            Long bestPlayer1 = null;
-            Long bestPlayer2 = null;
-            double bestScore = Double.NEGATIVE_INFINITY;
-
-            for (Long p1 : shuffled) {
-                if (paired.contains(p1)) continue;
-
-                for (Long p2 : shuffled) {
-                    if (paired.contains(p2) || p1.equals(p2)) continue;
-
-                    String pairKey = getPairKey(p1, p2);
-                    if (todayMatches.contains(pairKey)) continue;
-
-                    double score = calculatePairScore(p1, p2, matchHistoryMap, sessionDate, previousPracticePairKeys);
-
-                    if (score > bestScore) {
-                        bestScore = score;
-                        bestPlayer1 = p1;
-                        bestPlayer2 = p2;
-                    }
-                }
-            }
-
-            if (bestPlayer1 != null && bestPlayer2 != null) {
-                Player player1 = playerMap.get(bestPlayer1);
-                Player player2 = playerMap.get(bestPlayer2);
-
-                List<AutoMatchingResult.MatchHistory> recentMatches =
-                    getRecentMatchesForPair(bestPlayer1, bestPlayer2, displayHistoryMap, sessionDate);
-
-                pairings.add(AutoMatchingResult.PairingSuggestion.builder()
-                        .player1Id(bestPlayer1)
-                        .player1Name(player1.getName())
-                        .player2Id(bestPlayer2)
-                        .player2Name(player2.getName())
-                        .score(bestScore)
-                        .recentMatches(recentMatches)
-                        .build());
-
-                paired.add(bestPlayer1);
-                paired.add(bestPlayer2);
-            } else {
-                break;
+        PairScoreMatrix scoreMatrix = PairScoreMatrix.build(shuffled.size(), (i, j) -> {
+            Long p1 = shuffled.get(i);
+            Long p2 = shuffled.get(j);
+            if (todayMatches.contains(getPairKey(p1, p2))) {
+                return PairScoreMatrix.FORBIDDEN;
             }
+            return calculatePairScore(p1, p2, matchHistoryMap, sessionDate, previousPracticePairKeys);
+        });
+
+        for (int[] pair : PairingEngine.of(request.getEngine()).pair(scoreMatrix)) {
+            Long bestPlayer1 = shuffled.get(pair[0]);
+            Long bestPlayer2 = shuffled.get(pair[1]);
+            Player player1 = playerMap.get(bestPlayer1);
+            Player player2 = playerMap.get(bestPlayer2);
+
+            List<AutoMatchingResult.MatchHistory> recentMatches =
+                getRecentMatchesForPair(bestPlayer1, bestPlayer2, displayHistoryMap, sessionDate);
+
+            pairings.add(AutoMatchingResult.PairingSuggestion.builder()
+                    .player1Id(bestPlayer1)
+                    .player1Name(player1.getName())
+                    .player2Id(bestPlayer2)
+                    .player2Name(player2.getName())
+                    .score(scoreMatrix.score(pair[0], pair[1]))
+                    .recentMatches(recentMatches)
+                    .build());
+
+            paired.add(bestPlayer1);
+            paired.add(bestPlayer2);
         }
 
         // 待機者リスト
@@ -1173,6 +1152,42 @@ public class MatchPairingService {
         return activeParticipantIds;
     }
 
+    /**
+     * 選手同士の {@code [startDate, endDate)} の対戦履歴を pairKey → 日付リストで返す。
+     *
+     * <p>ペア履歴索引（{@link PairHistoryIndexService}）が構築済みなら索引から組み立て、DB は往復しない。
+     * 未構築（起動直後）の場合のみ従来どおり DB から取得する。いずれも日付の重複は含まない。
+     *
+     * @param includeMatches true なら試合結果（matches）の履歴も和集合で含める
+     */
+    private Map<String, List<LocalDate>> loadPairHistory(List<Long> playerIds, LocalDate startDate,
+                                                         LocalDate endDate, boolean includeMatches) {
+        if (pairHistoryIndexService.tryUse()) {
+            Map<String, List<LocalDate>> historyMap = new HashMap<>();
+            for (int i = 0; i < playerIds.size(); i++) {
+                for (int j = i + 1; j < playerIds.size(); j++) {
+                    List<LocalDate> days = pairHistoryIndexService.findDays(
+                            playerIds.get(i), playerIds.get(j), startDate, endDate, includeMatches);
+                    if (!days.isEmpty()) {
+                        historyMap.put(getPairKey(playerIds.get(i), playerIds.get(j)), new ArrayList<>(days));
+                    }
+                }
+            }
+            return historyMap;
+        }
+
+        Map<String, Set<LocalDate>> merged = new HashMap<>();
+        getPairingHistory(playerIds, startDate, endDate).forEach((pairKey, dates) ->
+                merged.computeIfAbsent(pairKey, k -> new LinkedHashSet<>()).addAll(dates));
+        if (includeMatches) {
+            getMatchHistory(playerIds, startDate, endDate).forEach((pairKey, dates) ->
+                    merged.computeIfAbsent(pairKey, k -> new LinkedHashSet<>()).addAll(dates));
+        }
+        Map<String, List<LocalDate>> historyMap = new HashMap<>();
+        merged.forEach((pairKey, dates) -> historyMap.put(pairKey, new ArrayList<>(dates)));
+        return historyMap;
+    }
+
     private Map<String, List<LocalDate>> getMatchHistory(List<Long> participantIds,
                                                           LocalDate startDate, LocalDate endDate) {
         // クエリで過去30日の対戦履歴を取得
@@ -1393,7 +1408,7 @@ public class MatchPairingService {
 
         // 過去30日の組み合わせ履歴をMatchPairingテーブルから取得（当日より前の日付）
         LocalDate startDate = sessionDate.minusDays(MATCH_HISTORY_DAYS);
-        Map<String, List<LocalDate>> pairingHistoryMap = getPairingHistory(playerIds, startDate, sessionDate);
+        Map<String, List<LocalDate>> pairingHistoryMap = loadPairHistory(playerIds, startDate, sessionDate, false);
 
         // 同日の他試合（自分以外の試合番号）の組み合わせ履歴も取得
         if (currentMatchNumber != null) {
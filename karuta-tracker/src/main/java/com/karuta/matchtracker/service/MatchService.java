@@ -63,6 +63,8 @@ public class MatchService {
     private final LineNotificationService lineNotificationService;
     private final OrganizationService organizationService;
     private final PracticeParticipantService practiceParticipantService;
+    private final PairHistoryIndexService pairHistoryIndexService;
+    private final PlayerMatchStatsService playerMatchStatsService;
 
     /**
      * IDで試合結果を取得
@@ -161,12 +163,13 @@ public class MatchService {
         validatePlayerExists(playerId);
         List<Match> matches = matchRepository.findByPlayerId(playerId);
         List<MatchDto> enrichedMatches = enrichMatchesWithPlayerPerspective(matches, playerId);
+        Map<Long, Player> opponents = loadOpponents(matches, playerId);
 
         // フィルタリング処理
         List<MatchDto> filteredResult = enrichedMatches.stream()
                 .filter(match -> {
                     // 対戦相手の情報を取得してフィルタリング
-                    Player opponent = getOpponentPlayer(match, playerId);
+                    Player opponent = getOpponentPlayer(match, playerId, opponents);
                     if (opponent == null) {
                         // 対戦相手が未登録の場合はフィルタ対象外
                         return false;
@@ -208,10 +211,26 @@ public class MatchService {
         return enrichDtosWithPersonalNotes(filteredResult, currentPlayerId, playerId);
     }
 
+    /**
+     * 試合群の対戦相手（登録済み選手）をまとめて取得する（N+1回避）
+     */
+    private Map<Long, Player> loadOpponents(List<Match> matches, Long viewingPlayerId) {
+        List<Long> opponentIds = matches.stream()
+                .map(m -> viewingPlayerId.equals(m.getPlayer1Id()) ? m.getPlayer2Id() : m.getPlayer1Id())
+                .filter(id -> id != null && id != 0L)
+                .distinct()
+                .collect(Collectors.toList());
+        if (opponentIds.isEmpty()) {
+            return Map.of();
+        }
+        return playerRepository.findAllById(opponentIds).stream()
+                .collect(Collectors.toMap(Player::getId, p -> p, (a, b) -> a));
+    }
+
     /**
      * 試合から対戦相手のPlayerエンティティを取得
      */
-    private Player getOpponentPlayer(MatchDto match, Long viewingPlayerId) {
+    private Player getOpponentPlayer(MatchDto match, Long viewingPlayerId, Map<Long, Player> opponents) {
         Long opponentId = null;
 
         if (match.getPlayer1Id() != null && match.getPlayer1Id().equals(viewingPlayerId)) {
@@ -225,7 +244,7 @@ public class MatchService {
             return null;
         }
 
-        return playerRepository.findById(opponentId).orElse(null);
+        return opponents.get(opponentId);
     }
 
     /**
@@ -286,99 +305,7 @@ public class MatchService {
                 playerId, gender, dominantHand, startDate, endDate);
 
         validatePlayerExists(playerId);
-
-        // 全試合を取得（性別・利き手でフィルタ済み）
-        List<Match> allMatches = matchRepository.findByPlayerId(playerId);
-        List<MatchDto> enrichedMatches = enrichMatchesWithPlayerPerspective(allMatches, playerId);
-
-        // 性別・利き手・期間でフィルタ
-        List<MatchDto> filteredMatches = enrichedMatches.stream()
-                .filter(match -> {
-                    // 期間フィルタ
-                    if (startDate != null && match.getMatchDate().isBefore(startDate)) {
-                        return false;
-                    }
-                    if (endDate != null && match.getMatchDate().isAfter(endDate)) {
-                        return false;
-                    }
-
-                    // 対戦相手の情報を取得
-                    Player opponent = getOpponentPlayer(match, playerId);
-                    if (opponent == null) {
-                        return false;
-                    }
-
-                    // 性別でフィルタ
-                    if (gender != null && !gender.isEmpty()) {
-                        if (opponent.getGender() == null ||
-                            !opponent.getGender().name().equals(gender)) {
-                            return false;
-                        }
-                    }
-
-                    // 利き手でフィルタ
-                    if (dominantHand != null && !dominantHand.isEmpty()) {
-                        if (opponent.getDominantHand() == null ||
-                            !opponent.getDominantHand().name().equals(dominantHand)) {
-                            return false;
-                        }
-                    }
-
-                    return true;
-                })
-                .collect(Collectors.toList());
-
-        // 総計を計算
-        long totalMatches = filteredMatches.size();
-        long totalWins = filteredMatches.stream()
-                .filter(m -> RESULT_WIN.equals(m.getResult()))
-                .count();
-
-        com.karuta.matchtracker.dto.RankStatisticsDto totalStats =
-                com.karuta.matchtracker.dto.RankStatisticsDto.create("総計", totalMatches, totalWins);
-
-        // 指導回数・被指導回数（総計と同じフィルタ後の集合から算出）
-        // 指導試合は winner_id ベースで勝敗が決まる: 勝ち=指導した側、負け=指導された側。
-        long lessonGivenCount = filteredMatches.stream()
-                .filter(m -> Boolean.TRUE.equals(m.getIsLesson()) && RESULT_WIN.equals(m.getResult()))
-                .count();
-        long lessonReceivedCount = filteredMatches.stream()
-                .filter(m -> Boolean.TRUE.equals(m.getIsLesson()) && RESULT_LOSE.equals(m.getResult()))
-                .count();
-
-        // 級別統計を計算
-        Map<String, com.karuta.matchtracker.dto.RankStatisticsDto> byRankMap = new java.util.LinkedHashMap<>();
-
-        for (String rank : java.util.List.of("A級", "B級", "C級", "D級", "E級")) {
-            List<MatchDto> rankMatches = filteredMatches.stream()
-                    .filter(match -> {
-                        // 保存された対戦時の級を使用
-                        String opponentRank = getOpponentKyuRankFromMatch(match, playerId);
-                        if (opponentRank != null) {
-                            return opponentRank.equals(rank);
-                        }
-                        // フォールバック: 保存された級がない場合は現在の級を参照
-                        Player opponent = getOpponentPlayer(match, playerId);
-                        return opponent != null &&
-                               opponent.getKyuRank() != null &&
-                               opponent.getKyuRank().name().equals(rank);
-                    })
-                    .collect(Collectors.toList());
-
-            long rankTotal = rankMatches.size();
-            long rankWins = rankMatches.stream()
-                    .filter(m -> RESULT_WIN.equals(m.getResult()))
-                    .count();
-
-            byRankMap.put(rank, com.karuta.matchtracker.dto.RankStatisticsDto.create(rank, rankTotal, rankWins));
-        }
-
-        return com.karuta.matchtracker.dto.StatisticsByRankDto.builder()
-                .total(totalStats)
-                .byRank(byRankMap)
-                .lessonGivenCount(lessonGivenCount)
-                .lessonReceivedCount(lessonReceivedCount)
-                .build();
+        return playerMatchStatsService.getStatisticsByRank(playerId, gender, dominantHand, startDate, endDate);
     }
 
     /**
@@ -508,6 +435,7 @@ public class MatchService {
         Match saved;
         if (existing.isPresent()) {
             Match match = existing.get();
+            PlayerMatchStatsService.MatchFacts before = PlayerMatchStatsService.MatchFacts.of(match);
             boolean lesson = Boolean.TRUE.equals(request.getIsLesson());
             match.setWinnerId(request.getWinnerId());
             // 指導試合では枚数差を保持しない（null）
@@ -516,6 +444,7 @@ public class MatchService {
             match.setUpdatedBy(currentUserId != null ? currentUserId : request.getCreatedBy());
             setPlayerKyuRanks(match);
             saved = matchRepository.save(match);
+            playerMatchStatsService.replaceMatch(before, PlayerMatchStatsService.MatchFacts.of(saved));
             log.info("Upsert: updated existing match with id: {}", saved.getId());
         } else {
             Match match = request.toEntity();
@@ -526,6 +455,8 @@ public class MatchService {
             match.setVenueId(resolveVenueId(match.getMatchDate(), match.getMatchNumber(),
                     List.of(match.getPlayer1Id(), match.getPlayer2Id())));
             saved = matchRepository.save(match);
+            pairHistoryIndexService.recordMatch(saved.getMatchDate(), saved.getPlayer1Id(), saved.getPlayer2Id());
+            playerMatchStatsService.recordMatch(PlayerMatchStatsService.MatchFacts.of(saved));
             log.info("Upsert: created new match with id: {}", saved.getId());
         }
 
@@ -633,6 +564,7 @@ public class MatchService {
                     .createdBy(match.getCreatedBy())
                     .build();
             matchPairingRepository.save(pairing);
+            pairHistoryIndexService.recordPairing(pairing.getSessionDate(), p1, p2);
             log.info("match_pairing自動生成: date={}, matchNumber={}, p1={}, p2={}",
                      match.getMatchDate(), match.getMatchNumber(), p1, p2);
         }
@@ -687,6 +619,7 @@ public class MatchService {
             // 指導試合は登録済みプレイヤー同士のみ対象（未登録相手=player2Id 0 の簡易試合は不可）
             throw new IllegalArgumentException("指導試合は登録済みプレイヤー同士の試合のみ対象です");
         }
+        PlayerMatchStatsService.MatchFacts before = PlayerMatchStatsService.MatchFacts.of(match);
         match.setWinnerId(winnerId);
         // 指導試合では枚数差を保持しない（null）
         match.setScoreDifference(lesson ? null : scoreDifference);
@@ -694,6 +627,7 @@ public class MatchService {
         match.setUpdatedBy(effectiveUserId);
 
         Match updated = matchRepository.save(match);
+        playerMatchStatsService.replaceMatch(before, PlayerMatchStatsService.MatchFacts.of(updated));
 
         // 個人メモ・お手付きを保存（権限チェックはupsertPersonalNote内で統一）
         upsertPersonalNote(updated.getId(), effectiveUserId, personalNotes, otetsukiCount, currentUserId, currentUserRole);
@@ -738,6 +672,8 @@ public class MatchService {
         }
 
         // 試合情報を更新（player1Id/player2Idは変更しない）
+        LocalDate previousMatchDate = match.getMatchDate();
+        PlayerMatchStatsService.MatchFacts before = PlayerMatchStatsService.MatchFacts.of(match);
         match.setMatchDate(request.getMatchDate());
         match.setMatchNumber(request.getMatchNumber());
         match.setWinnerId(winnerId);
@@ -750,6 +686,11 @@ public class MatchService {
         setPlayerKyuRanks(match);
 
         Match updated = matchRepository.save(match);
+        playerMatchStatsService.replaceMatch(before, PlayerMatchStatsService.MatchFacts.of(updated));
+        if (!updated.getMatchDate().equals(previousMatchDate)) {
+            pairHistoryIndexService.removeMatch(previousMatchDate, updated.getPlayer1Id(), updated.getPlayer2Id());
+            pairHistoryIndexService.recordMatch(updated.getMatchDate(), updated.getPlayer1Id(), updated.getPlayer2Id());
+        }
 
         // 個人メモ・お手付きを保存
         upsertPersonalNote(updated.getId(), request.getPlayerId(), request.getPersonalNotes(), request.getOtetsukiCount(), currentUserId, currentUserRole);
@@ -786,6 +727,8 @@ public class MatchService {
         }
 
         matchRepository.deleteById(id);
+        pairHistoryIndexService.removeMatch(match.getMatchDate(), match.getPlayer1Id(), match.getPlayer2Id());
+        playerMatchStatsService.removeMatch(PlayerMatchStatsService.MatchFacts.of(match));
         log.info("Successfully deleted match with id: {}", id);
     }
 
@@ -0,0 +1,664 @@
+package com.karuta.matchtracker.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * 最大重み・最大基数マッチングによる組み合わせ（{@code OPTIMAL}、既定）。
+ *
+ * <p>参加者を頂点、組めるペアを辺としたグラフ上で、まず組めるペア数を最大化し、
+ * その中でスコア合計が最大となる組み合わせを Edmonds の blossom 法（主双対法・O(n³)）で求める。
+ * 貪欲法のように序盤の良いペアが終盤の選択肢を潰すことがなく、待機者数も貪欲法以下になる。
+ *
+ * <p>スコアは {@link #SCALE} 倍して整数化し、全辺が非負になるよう一律にシフトしてから解く。
+ * 最大基数マッチング同士ではシフト量の合計が等しいため、シフトは最適解を変えない。
+ * 整数演算のみで双対変数を更新するので浮動小数点誤差による無限ループは起きない。
+ *
+ * <p>同点の解が複数ある場合は頂点番号（＝シャッフル済みの参加者順）に依存して1つが選ばれるため、
+ * 再シャッフルのたびに同点の組み合わせは入れ替わる。
+ */
+final class MaxWeightPairingEngine implements PairingEngine {
+
+    static final MaxWeightPairingEngine INSTANCE = new MaxWeightPairingEngine();
+
+    /** スコア → 整数重みの倍率（スコアは小数第6位まで区別する） */
+    static final double SCALE = 1_000_000.0;
+
+    private MaxWeightPairingEngine() {
+    }
+
+    @Override
+    public List<int[]> pair(PairScoreMatrix matrix) {
+        int n = matrix.size();
+        int edgeCount = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (matrix.isAllowed(i, j)) edgeCount++;
+            }
+        }
+        if (edgeCount == 0) {
+            return new ArrayList<>();
+        }
+
+        int[] edgeFrom = new int[edgeCount];
+        int[] edgeTo = new int[edgeCount];
+        long[] weight = new long[edgeCount];
+        long minWeight = Long.MAX_VALUE;
+        int k = 0;
+        for (int i = 0; i < n; i++) {
+            for (int j = i + 1; j < n; j++) {
+                if (!matrix.isAllowed(i, j)) continue;
+                edgeFrom[k] = i;
+                edgeTo[k] = j;
+                weight[k] = Math.round(matrix.score(i, j) * SCALE);
+                minWeight = Math.min(minWeight, weight[k]);
+                k++;
+            }
+        }
+        for (int e = 0; e < edgeCount; e++) {
+            weight[e] -= minWeight;
+        }
+
+        int[] mate = new Blossom(n, edgeFrom, edgeTo, weight).solve();
+
+        List<int[]> result = new ArrayList<>();
+        for (int i = 0; i < n; i++) {
+            if (mate[i] > i) {
+                result.add(new int[]{i, mate[i]});
+            }
+        }
+        // 表示順は貪欲法と揃えて良いペアから（同点は参加者順を保つ安定ソート）
+        result.sort(Comparator.comparingDouble((int[] p) -> matrix.score(p[0], p[1])).reversed());
+        return result;
+    }
+
+    /**
+     * 最大重み・最大基数マッチングの blossom 法本体（J. Edmonds / Z. Galil の主双対法）。
+     *
+     * <p>辺は {@code k} 番目が {@code (edgeFrom[k], edgeTo[k])}、端点 {@code p} は辺 {@code p/2} の
+     * {@code p%2} 側を指す（{@code p^1} が反対側）。頂点 {@code 0..n-1}、blossom {@code n..2n-1}。
+     * ラベルは 0=未ラベル / 1=S / 2=T（5 は scanBlossom 中の一時マーク）。
+     */
+    private static final class Blossom {
+
+        private final int n;
+        private final int[] edgeFrom;
+        private final int[] edgeTo;
+        private final long[] weight;
+        private final int[] endpoint;
+        private final int[][] neighbend;
+
+        private final int[] mate;
+        private final int[] label;
+        private final int[] labelend;
+        private final int[] inblossom;
+        private final int[] blossomparent;
+        private final int[][] blossomchilds;
+        private final int[] blossombase;
+        private final int[][] blossomendps;
+        private final int[] bestedge;
+        private final int[][] blossombestedges;
+        private final int[] unusedblossoms;
+        private int unusedCount;
+        private final long[] dualvar;
+        private final boolean[] allowedge;
+        private final IntBuffer queue = new IntBuffer();
+
+        Blossom(int n, int[] edgeFrom, int[] edgeTo, long[] weight) {
+            this.n = n;
+            this.edgeFrom = edgeFrom;
+            this.edgeTo = edgeTo;
+            this.weight = weight;
+            int nedge = weight.length;
+
+            endpoint = new int[2 * nedge];
+            for (int p = 0; p < 2 * nedge; p++) {
+                endpoint[p] = (p % 2 == 0) ? edgeFrom[p / 2] : edgeTo[p / 2];
+            }
+            int[] degree = new int[n];
+            for (int k = 0; k < nedge; k++) {
+                degree[edgeFrom[k]]++;
+                degree[edgeTo[k]]++;
+            }
+            neighbend = new int[n][];
+            for (int v = 0; v < n; v++) {
+                neighbend[v] = new int[degree[v]];
+            }
+            int[] fill = new int[n];
+            for (int k = 0; k < nedge; k++) {
+                neighbend[edgeFrom[k]][fill[edgeFrom[k]]++] = 2 * k + 1;
+                neighbend[edgeTo[k]][fill[edgeTo[k]]++] = 2 * k;
+            }
+
+            long maxWeight = 0;
+            for (long w : weight) {
+                maxWeight = Math.max(maxWeight, w);
+            }
+
+            mate = new int[n];
+            Arrays.fill(mate, -1);
+            label = new int[2 * n];
+            labelend = new int[2 * n];
+            Arrays.fill(labelend, -1);
+            inblossom = new int[n];
+            for (int v = 0; v < n; v++) inblossom[v] = v;
+            blossomparent = new int[2 * n];
+            Arrays.fill(blossomparent, -1);
+            blossomchilds = new int[2 * n][];
+            blossombase = new int[2 * n];
+            for (int v = 0; v < n; v++) blossombase[v] = v;
+            Arrays.fill(blossombase, n, 2 * n, -1);
+            blossomendps = new int[2 * n][];
+            bestedge = new int[2 * n];
+            Arrays.fill(bestedge, -1);
+            blossombestedges = new int[2 * n][];
+            unusedblossoms = new int[n];
+            for (int b = 0; b < n; b++) unusedblossoms[b] = n + b;
+            unusedCount = n;
+            dualvar = new long[2 * n];
+            Arrays.fill(dualvar, 0, n, maxWeight);
+            allowedge = new boolean[nedge];
+        }
+
+        private long slack(int k) {
+            return dualvar[edgeFrom[k]] + dualvar[edgeTo[k]] - 2 * weight[k];
+        }
+
+        private static int at(int[] array, int index) {
+            int len = array.length;
+            return array[((index % len) + len) % len];
+        }
+
+        private void blossomLeaves(int b, IntBuffer out) {
+            if (b < n) {
+                out.add(b);
+                return;
+            }
+            for (int t : blossomchilds[b]) {
+                blossomLeaves(t, out);
+            }
+        }
+
+        private int[] blossomLeaves(int b) {
+            IntBuffer buf = new IntBuffer();
+            blossomLeaves(b, buf);
+            return buf.toArray();
+        }
+
+        private void enqueue(int v) {
+            queue.add(v);
+        }
+
+        private void assignLabel(int w, int t, int p) {
+            int b = inblossom[w];
+            label[w] = label[b] = t;
+            labelend[w] = labelend[b] = p;
+            bestedge[w] = bestedge[b] = -1;
+            if (t == 1) {
+                for (int v : blossomLeaves(b)) enqueue(v);
+            } else if (t == 2) {
+                int base = blossombase[b];
+                assignLabel(endpoint[mate[base]], 1, mate[base] ^ 1);
+            }
+        }
+
+        private int scanBlossom(int v, int w) {
+            IntBuffer path = new IntBuffer();
+            int base = -1;
+            while (v != -1 || w != -1) {
+                int b = inblossom[v];
+                if ((label[b] & 4) != 0) {
+                    base = blossombase[b];
+                    break;
+                }
+                path.add(b);
+                label[b] = 5;
+                if (labelend[b] == -1) {
+                    v = -1;
+                } else {
+                    v = endpoint[labelend[b]];
+                    b = inblossom[v];
+                    v = endpoint[labelend[b]];
+                }
+                if (w != -1) {
+                    int tmp = v;
+                    v = w;
+                    w = tmp;
+                }
+            }
+            for (int i = 0; i < path.size; i++) {
+                label[path.data[i]] = 1;
+            }
+            return base;
+        }
+
+        private void addBlossom(int base, int k) {
+            int v = edgeFrom[k];
+            int w = edgeTo[k];
+            int bb = inblossom[base];
+            int bv = inblossom[v];
+            int bw = inblossom[w];
+            int b = unusedblossoms[--unusedCount];
+            blossombase[b] = base;
+            blossomparent[b] = -1;
+            blossomparent[bb] = b;
+
+            IntBuffer path = new IntBuffer();
+            IntBuffer endps = new IntBuffer();
+            while (bv != bb) {
+                blossomparent[bv] = b;
+                path.add(bv);
+                endps.add(labelend[bv]);
+                v = endpoint[labelend[bv]];
+                bv = inblossom[v];
+            }
+            path.add(bb);
+            path.reverse();
+            endps.reverse();
+            endps.add(2 * k);
+            while (bw != bb) {
+                blossomparent[bw] = b;
+                path.add(bw);
+                endps.add(labelend[bw] ^ 1);
+                w = endpoint[labelend[bw]];
+                bw = inblossom[w];
+            }
+            blossomchilds[b] = path.toArray();
+            blossomendps[b] = endps.toArray();
+
+            label[b] = 1;
+            labelend[b] = labelend[bb];
+            dualvar[b] = 0;
+            for (int leaf : blossomLeaves(b)) {
+                if (label[inblossom[leaf]] == 2) {
+                    enqueue(leaf);
+                }
+                inblossom[leaf] = b;
+            }
+
+            int[] bestedgeto = new int[2 * n];
+            Arrays.fill(bestedgeto, -1);
+            for (int child : blossomchilds[b]) {
+                int[][] nblists;
+                if (blossombestedges[child] == null) {
+                    int[] leaves = blossomLeaves(child);
+                    nblists = new int[leaves.length][];
+                    for (int li = 0; li < leaves.length; li++) {
+                        int[] ends = neighbend[leaves[li]];
+                        int[] edges = new int[ends.length];
+                        for (int e = 0; e < ends.length; e++) edges[e] = ends[e] / 2;
+                        nblists[li] = edges;
+                    }
+                } else {
+                    nblists = new int[][]{blossombestedges[child]};
+                }
+                for (int[] nblist : nblists) {
+                    for (int ek : nblist) {
+                        int i = edgeFrom[ek];
+                        int j = edgeTo[ek];
+                        if (inblossom[j] == b) {
+                            j = i;
+                        }
+                        int bj = inblossom[j];
+                        if (bj != b && label[bj] == 1
+                                && (bestedgeto[bj] == -1 || slack(ek) < slack(bestedgeto[bj]))) {
+                            bestedgeto[bj] = ek;
+                        }
+                    }
+                }
+                blossombestedges[child] = null;
+                bestedge[child] = -1;
+            }
+            IntBuffer best = new IntBuffer();
+            for (int ek : bestedgeto) {
+                if (ek != -1) best.add(ek);
+            }
+            blossombestedges[b] = best.toArray();
+            bestedge[b] = -1;
+            for (int ek : blossombestedges[b]) {
+                if (bestedge[b] == -1 || slack(ek) < slack(bestedge[b])) {
+                    bestedge[b] = ek;
+                }
+            }
+        }
+
+        private void expandBlossom(int b, boolean endstage) {
+            for (int s : blossomchilds[b]) {
+                blossomparent[s] = -1;
+                if (s < n) {
+                    inblossom[s] = s;
+                } else if (endstage && dualvar[s] == 0) {
+                    expandBlossom(s, endstage);
+                } else {
+                    for (int v : blossomLeaves(s)) inblossom[v] = s;
+                }
+            }
+            if (!endstage && label[b] == 2) {
+                int[] childs = blossomchilds[b];
+                int[] endps = blossomendps[b];
+                int entrychild = inblossom[endpoint[labelend[b] ^ 1]];
+                int j = indexOf(childs, entrychild);
+                int jstep;
+                int endptrick;
+                if ((j & 1) != 0) {
+                    j -= childs.length;
+                    jstep = 1;
+                    endptrick = 0;
+                } else {
+                    jstep = -1;
+                    endptrick = 1;
+                }
+                int p = labelend[b];
+                while (j != 0) {
+                    label[endpoint[p ^ 1]] = 0;
+                    label[endpoint[at(endps, j - endptrick) ^ endptrick ^ 1]] = 0;
+                    assignLabel(endpoint[p ^ 1], 2, p);
+                    allowedge[at(endps, j - endptrick) / 2] = true;
+                    j += jstep;
+                    p = at(endps, j - endptrick) ^ endptrick;
+                    allowedge[p / 2] = true;
+                    j += jstep;
+                }
+                int bv = at(childs, j);
+                label[endpoint[p ^ 1]] = label[bv] = 2;
+                labelend[endpoint[p ^ 1]] = labelend[bv] = p;
+                bestedge[bv] = -1;
+                j += jstep;
+                while (at(childs, j) != entrychild) {
+                    bv = at(childs, j);
+                    if (label[bv] == 1) {
+                        j += jstep;
+                        continue;
+                    }
+                    int labeled = -1;
+                    for (int v : blossomLeaves(bv)) {
+                        if (label[v] != 0) {
+                            labeled = v;
+                            break;
+                        }
+                    }
+                    if (labeled != -1) {
+                        label[labeled] = 0;
+                        label[endpoint[mate[blossombase[bv]]]] = 0;
+                        assignLabel(labeled, 2, labelend[labeled]);
+                    }
+                    j += jstep;
+                }
+            }
+            label[b] = labelend[b] = -1;
+            blossomchilds[b] = blossomendps[b] = null;
+            blossombase[b] = -1;
+            blossombestedges[b] = null;
+            bestedge[b] = -1;
+            unusedblossoms[unusedCount++] = b;
+        }
+
+        private void augmentBlossom(int b, int v) {
+            int t = v;
+            while (blossomparent[t] != b) {
+                t = blossomparent[t];
+            }
+            if (t >= n) {
+                augmentBlossom(t, v);
+            }
+            int[] childs = blossomchilds[b];
+            int[] endps = blossomendps[b];
+            int i = indexOf(childs, t);
+            int j = i;
+            int jstep;
+            int endptrick;
+            if ((i & 1) != 0) {
+                j -= childs.length;
+                jstep = 1;
+                endptrick = 0;
+            } else {
+                jstep = -1;
+                endptrick = 1;
+            }
+            while (j != 0) {
+                j += jstep;
+                t = at(childs, j);
+                int p = at(endps, j - endptrick) ^ endptrick;
+                if (t >= n) {
+                    augmentBlossom(t, endpoint[p]);
+                }
+                j += jstep;
+                t = at(childs, j);
+                if (t >= n) {
+                    augmentBlossom(t, endpoint[p ^ 1]);
+                }
+                mate[endpoint[p]] = p ^ 1;
+                mate[endpoint[p ^ 1]] = p;
+            }
+            blossomchilds[b] = rotate(childs, i);
+            blossomendps[b] = rotate(endps, i);
+            blossombase[b] = blossombase[blossomchilds[b][0]];
+        }
+
+        private void augmentMatching(int k) {
+            int[][] starts = {{edgeFrom[k], 2 * k + 1}, {edgeTo[k], 2 * k}};
+            for (int[] start : starts) {
+                int s = start[0];
+                int p = start[1];
+                while (true) {
+                    int bs = inblossom[s];
+                    if (bs >= n) {
+                        augmentBlossom(bs, s);
+                    }
+                    mate[s] = p;
+                    if (labelend[bs] == -1) {
+                        break;
+                    }
+                    int t = endpoint[labelend[bs]];
+                    int bt = inblossom[t];
+                    s = endpoint[labelend[bt]];
+                    int j = endpoint[labelend[bt] ^ 1];
+                    if (bt >= n) {
+                        augmentBlossom(bt, j);
+                    }
+                    mate[j] = labelend[bt];
+                    p = labelend[bt] ^ 1;
+                }
+            }
+        }
+
+        int[] solve() {
+            for (int stage = 0; stage < n; stage++) {
+                Arrays.fill(label, 0);
+                Arrays.fill(bestedge, -1);
+                Arrays.fill(blossombestedges, n, 2 * n, null);
+                Arrays.fill(allowedge, false);
+                queue.size = 0;
+
+                for (int v = 0; v < n; v++) {
+                    if (mate[v] == -1 && label[inblossom[v]] == 0) {
+                        assignLabel(v, 1, -1);
+                    }
+                }
+
+                boolean augmented = false;
+                while (true) {
+                    while (queue.size > 0 && !augmented) {
+                        int v = queue.data[--queue.size];
+                        for (int p : neighbend[v]) {
+                            int k = p / 2;
+                            int w = endpoint[p];
+                            if (inblossom[v] == inblossom[w]) {
+                                continue;
+                            }
+                            long kslack = 0;
+                            if (!allowedge[k]) {
+                                kslack = slack(k);
+                                if (kslack <= 0) {
+                                    allowedge[k] = true;
+                                }
+                            }
+                            if (allowedge[k]) {
+                                if (label[inblossom[w]] == 0) {
+                                    assignLabel(w, 2, p ^ 1);
+                                } else if (label[inblossom[w]] == 1) {
+                                    int base = scanBlossom(v, w);
+                                    if (base >= 0) {
+                                        addBlossom(base, k);
+                                    } else {
+                                        augmentMatching(k);
+                                        augmented = true;
+                                        break;
+                                    }
+                                } else if (label[w] == 0) {
+                                    label[w] = 2;
+                                    labelend[w] = p ^ 1;
+                                }
+                            } else if (label[inblossom[w]] == 1) {
+                                int b = inblossom[v];
+                                if (bestedge[b] == -1 || kslack < slack(bestedge[b])) {
+                                    bestedge[b] = k;
+                                }
+                            } else if (label[w] == 0) {
+                                if (bestedge[w] == -1 || kslack < slack(bestedge[w])) {
+                                    bestedge[w] = k;
+                                }
+                            }
+                        }
+                    }
+                    if (augmented) {
+                        break;
+                    }
+
+                    // 双対変数の更新量 delta を決める（最大基数モードなので種別1は最後の手段）
+                    int deltatype = -1;
+                    long delta = 0;
+                    int deltaedge = -1;
+                    int deltablossom = -1;
+
+                    for (int v = 0; v < n; v++) {
+                        if (label[inblossom[v]] == 0 && bestedge[v] != -1) {
+                            long d = slack(bestedge[v]);
+                            if (deltatype == -1 || d < delta) {
+                                delta = d;
+                                deltatype = 2;
+                                deltaedge = bestedge[v];
+                            }
+                        }
+                    }
+                    for (int b = 0; b < 2 * n; b++) {
+                        if (blossomparent[b] == -1 && label[b] == 1 && bestedge[b] != -1) {
+                            long d = slack(bestedge[b]) / 2;
+                            if (deltatype == -1 || d < delta) {
+                                delta = d;
+                                deltatype = 3;
+                                deltaedge = bestedge[b];
+                            }
+                        }
+                    }
+                    for (int b = n; b < 2 * n; b++) {
+                        if (blossombase[b] >= 0 && blossomparent[b] == -1 && label[b] == 2
+                                && (deltatype == -1 || dualvar[b] < delta)) {
+                            delta = dualvar[b];
+                            deltatype = 4;
+                            deltablossom = b;
+                        }
+                    }
+                    if (deltatype == -1) {
+                        // これ以上の増加路は無い。最適性のために双対変数だけ調整して終了する。
+                        deltatype = 1;
+                        long minDual = Long.MAX_VALUE;
+                        for (int v = 0; v < n; v++) minDual = Math.min(minDual, dualvar[v]);
+                        delta = Math.max(0, minDual);
+                    }
+
+                    for (int v = 0; v < n; v++) {
+                        if (label[inblossom[v]] == 1) {
+                            dualvar[v] -= delta;
+                        } else if (label[inblossom[v]] == 2) {
+                            dualvar[v] += delta;
+                        }
+                    }
+                    for (int b = n; b < 2 * n; b++) {
+                        if (blossombase[b] >= 0 && blossomparent[b] == -1) {
+                            if (label[b] == 1) {
+                                dualvar[b] += delta;
+                            } else if (label[b] == 2) {
+                                dualvar[b] -= delta;
+                            }
+                        }
+                    }
+
+                    if (deltatype == 1) {
+                        break;
+                    } else if (deltatype == 2) {
+                        allowedge[deltaedge] = true;
+                        int i = edgeFrom[deltaedge];
+                        int j = edgeTo[deltaedge];
+                        if (label[inblossom[i]] == 0) {
+                            i = j;
+                        }
+                        enqueue(i);
+                    } else if (deltatype == 3) {
+                        allowedge[deltaedge] = true;
+                        enqueue(edgeFrom[deltaedge]);
+                    } else {
+                        expandBlossom(deltablossom, false);
+                    }
+                }
+
+                if (!augmented) {
+                    break;
+                }
+                for (int b = n; b < 2 * n; b++) {
+                    if (blossomparent[b] == -1 && blossombase[b] >= 0 && label[b] == 1 && dualvar[b] == 0) {
+                        expandBlossom(b, true);
+                    }
+                }
+            }
+
+            int[] result = new int[n];
+            for (int v = 0; v < n; v++) {
+                result[v] = mate[v] >= 0 ? endpoint[mate[v]] : -1;
+            }
+            return result;
+        }
+
+        private static int indexOf(int[] array, int value) {
+            for (int i = 0; i < array.length; i++) {
+                if (array[i] == value) return i;
+            }
+            return -1;
+        }
+
+        private static int[] rotate(int[] array, int start) {
+            int[] rotated = new int[array.length];
+            for (int i = 0; i < array.length; i++) {
+                rotated[i] = array[(start + i) % array.length];
+            }
+            return rotated;
+        }
+    }
+
+    /** blossom 法内部で使う可変長 int 配列 */
+    private static final class IntBuffer {
+        int[] data = new int[8];
+        int size;
+
+        void add(int value) {
+            if (size == data.length) {
+                data = Arrays.copyOf(data, size * 2);
+            }
+            data[size++] = value;
+        }
+
+        void reverse() {
+            for (int i = 0, j = size - 1; i < j; i++, j--) {
+                int tmp = data[i];
+                data[i] = data[j];
+                data[j] = tmp;
+            }
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
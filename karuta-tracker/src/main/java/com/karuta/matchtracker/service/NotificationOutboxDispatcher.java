@@ -0,0 +1,474 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.LineChannel;
+import com.karuta.matchtracker.entity.LineMessageLog.LineNotificationType;
+import com.karuta.matchtracker.entity.LineMessageLog.MessageStatus;
+import com.karuta.matchtracker.entity.NotificationOutbox;
+import com.karuta.matchtracker.repository.LineChannelRepository;
+import com.karuta.matchtracker.service.LineMessagingService.SendResult;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 通知送信キュー（アウトボックス）の送信ワーカー。
+ *
+ * <p>{@link #trigger()} で仮想スレッドを1本起こし、期限の来た行を {@link #BATCH_SIZE} 件ずつ取り出して送る。
+ * 同時に動く取り出しループはプロセス内で1本だけで、複数インスタンス間は行ロック（SKIP LOCKED）で分け合う。
+ *
+ * <ul>
+ *   <li><b>LINE:</b> 同じチャネル・同じ宛先へ続く行を最大5メッセージまで1回の Push API にまとめ、
+ *       {@link LinePushDispatcher} で送る（チャネル単位の直列化・間隔制御と全体の同時実行上限はそちらに従う）。
+ *       X-Line-Retry-Key は行に保存した値を送る。まとめた組は送信前に同じキーへ揃え、再送では組を崩さない。</li>
+ *   <li><b>LINE グループ:</b> 札分けの全体配信を1行1回の Push API で送り、結果は
+ *       {@link CardDivisionBroadcastService#completeBroadcast} で全体配信ログ（line_broadcast_send）に確定させる。</li>
+ *   <li><b>Web Push:</b> バッチ内の行を {@link PushNotificationService#deliverAll} にまとめて渡す
+ *       （暗号化の並列化・Push サービスのホストごとの同時送信数の上限・期限切れ購読の一括削除はそちらに従う）。
+ *       LINE の送信とは並行して進める。</li>
+ * </ul>
+ *
+ * <p>送信ログ（line_message_log）は送信結果の確定時に記録する。登録前に送信権を予約した行は
+ * 予約ログを SUCCESS / FAILED へ確定させ、そうでない行は結果ログを1行追加する。
+ * 一時的な失敗はキュー側の指数バックオフで再送し、ログには最終結果だけを残す。
+ * LINE API が 429 以外の 4xx を返した送信（{@link LineMessagingService.SendResult#PERMANENT_FAILURE}）は
+ * 送り直しても通らないため、再送せずにその場で失敗として確定させる。
+ */
+@Component
+@Slf4j
+public class NotificationOutboxDispatcher {
+
+    static final int BATCH_SIZE = 50;
+    private static final int MARK_SUCCEEDED_MAX_RETRIES = 2;
+
+    private final NotificationOutboxService notificationOutboxService;
+    private final LinePushDispatcher linePushDispatcher;
+    private final LineChannelRepository lineChannelRepository;
+    private final LineMessageLogService lineMessageLogService;
+    private final PushNotificationService pushNotificationService;
+    private final CardDivisionBroadcastService cardDivisionBroadcastService;
+    private final MeterRegistry meterRegistry;
+
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    public NotificationOutboxDispatcher(NotificationOutboxService notificationOutboxService,
+                                        LinePushDispatcher linePushDispatcher,
+                                        LineChannelRepository lineChannelRepository,
+                                        LineMessageLogService lineMessageLogService,
+                                        PushNotificationService pushNotificationService,
+                                        CardDivisionBroadcastService cardDivisionBroadcastService,
+                                        MeterRegistry meterRegistry) {
+        this.notificationOutboxService = notificationOutboxService;
+        this.linePushDispatcher = linePushDispatcher;
+        this.lineChannelRepository = lineChannelRepository;
+        this.lineMessageLogService = lineMessageLogService;
+        this.pushNotificationService = pushNotificationService;
+        this.cardDivisionBroadcastService = cardDivisionBroadcastService;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 取り出しループが動いていなければ仮想スレッドで起動する。呼び出し元は待たない。
+     */
+    public void trigger() {
+        if (!draining.compareAndSet(false, true)) {
+            return;
+        }
+        Thread.ofVirtual().name("notification-outbox-drain").start(() -> {
+            try {
+                drain();
+            } catch (Exception e) {
+                log.error("Notification outbox drain failed: {}", e.getMessage(), e);
+            } finally {
+                draining.set(false);
+            }
+        });
+    }
+
+    /**
+     * 期限の来た行がなくなるまで取り出して送信する（呼び出しスレッドで実行）。
+     *
+     * @return 処理した行数
+     */
+    public int drain() {
+        int total = 0;
+        while (true) {
+            List<NotificationOutbox> batch = notificationOutboxService.claimDue(BATCH_SIZE);
+            if (batch.isEmpty()) {
+                break;
+            }
+            process(batch);
+            total += batch.size();
+            if (batch.size() < BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            notificationOutboxService.refreshDepth();
+        }
+        return total;
+    }
+
+    private void process(List<NotificationOutbox> batch) {
+        List<NotificationOutbox> lineRows = new ArrayList<>();
+        List<NotificationOutbox> groupRows = new ArrayList<>();
+        List<NotificationOutbox> pushRows = new ArrayList<>();
+        for (NotificationOutbox row : batch) {
+            switch (row.getChannel()) {
+                case LINE -> lineRows.add(row);
+                case LINE_GROUP -> groupRows.add(row);
+                case WEB_PUSH -> pushRows.add(row);
+            }
+        }
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            if (!pushRows.isEmpty()) {
+                executor.submit(() -> sendWebPush(pushRows));
+            }
+            if (!lineRows.isEmpty()) {
+                sendLine(lineRows);
+            }
+            if (!groupRows.isEmpty()) {
+                sendLineGroup(groupRows);
+            }
+        }
+    }
+
+    // ========================================================================
+    // LINE
+    // ========================================================================
+
+    /** 1回の Push / Multicast で送る行の組（送信時は全行が同じ retry_key を持つ） */
+    private record Pack(LineChannel channel, List<NotificationOutbox> rows, List<Map<String, Object>> messages) {}
+
+    private void sendLine(List<NotificationOutbox> rows) {
+        Map<Long, LineChannel> channels = new HashMap<>();
+        for (LineChannel c : lineChannelRepository.findAllById(
+                rows.stream().map(NotificationOutbox::getLineChannelId).distinct().toList())) {
+            channels.put(c.getId(), c);
+        }
+
+        Map<String, List<NotificationOutbox>> byRetryKey = new LinkedHashMap<>();
+        Map<Long, List<Map<String, Object>>> messagesByRow = new HashMap<>();
+        for (NotificationOutbox row : rows) {
+            LineChannel channel = channels.get(row.getLineChannelId());
+            if (channel == null || channel.getStatus() != LineChannel.ChannelStatus.LINKED) {
+                completeLine(row, false, "LINEチャネルが未リンク", false);
+                continue;
+            }
+            try {
+                messagesByRow.put(row.getId(), notificationOutboxService.readLineMessages(row));
+            } catch (RuntimeException e) {
+                completeLine(row, false, e.getMessage(), false);
+                continue;
+            }
+            String retryKey = row.getRetryKey() != null ? row.getRetryKey() : "row:" + row.getId();
+            byRetryKey.computeIfAbsent(retryKey, k -> new ArrayList<>()).add(row);
+        }
+
+        List<Pack> packs = new ArrayList<>();
+        List<Pack> freshPacks = new ArrayList<>();
+        Map<String, Pack> openPacks = new HashMap<>();
+        for (List<NotificationOutbox> group : byRetryKey.values()) {
+            NotificationOutbox first = group.get(0);
+            LineChannel channel = channels.get(first.getLineChannelId());
+            if (group.size() > 1 || first.getAttemptCount() > 1) {
+                // 組で登録された行・一度送った行は、前回と同じ組み合わせ・同じ Retry-Key で送る
+                packs.add(fixedPack(channel, group, messagesByRow));
+                continue;
+            }
+            // まだ送っていない単独の行は、同じ宛先の行と最大5メッセージまで1回の Push にまとめる
+            List<Map<String, Object>> messages = messagesByRow.get(first.getId());
+            String key = first.getLineChannelId() + ":" + first.getLineUserId();
+            Pack pack = openPacks.get(key);
+            if (pack == null || pack.messages().size() + messages.size() > LineMessagingService.MAX_MESSAGES_PER_REQUEST) {
+                pack = new Pack(channel, new ArrayList<>(), new ArrayList<>());
+                packs.add(pack);
+                freshPacks.add(pack);
+                openPacks.put(key, pack);
+            }
+            pack.rows().add(first);
+            pack.messages().addAll(messages);
+        }
+
+        // 新しくまとめた組は先頭行の Retry-Key に揃えてから送る（再送で組を崩さないため）
+        for (Pack pack : freshPacks) {
+            if (!bindRetryKey(pack)) {
+                packs.remove(pack);
+            }
+        }
+        if (packs.isEmpty()) {
+            return;
+        }
+
+        List<LinePushDispatcher.PushJob> jobs = packs.stream()
+                .map(p -> new LinePushDispatcher.PushJob(p.channel().getId(), p.channel().getChannelAccessToken(),
+                        p.rows().stream().map(NotificationOutbox::getLineUserId).distinct().toList(),
+                        p.messages(), p.rows().get(0).getRetryKey()))
+                .toList();
+        List<SendResult> results = linePushDispatcher.dispatch(jobs);
+
+        for (int i = 0; i < packs.size(); i++) {
+            SendResult result = results.get(i);
+            for (NotificationOutbox row : packs.get(i).rows()) {
+                completeLine(row, result.isSuccess(), failureMessage(result), result != SendResult.PERMANENT_FAILURE);
+            }
+        }
+    }
+
+    private static String failureMessage(SendResult result) {
+        return result == SendResult.PERMANENT_FAILURE ? "LINE API送信失敗（再送不可）" : "LINE API送信失敗";
+    }
+
+    /**
+     * retry_key を共有する行の組を1リクエスト分にする。宛先が1人なら各行のメッセージを順に連結して Push、
+     * 複数人なら同じ内容を Multicast で送る（一括配信で同一内容の宛先をまとめて登録した組）。
+     */
+    private static Pack fixedPack(LineChannel channel, List<NotificationOutbox> group,
+                                  Map<Long, List<Map<String, Object>>> messagesByRow) {
+        boolean singleRecipient = group.stream().map(NotificationOutbox::getLineUserId).distinct().count() == 1;
+        List<Map<String, Object>> messages = new ArrayList<>();
+        if (singleRecipient) {
+            for (NotificationOutbox row : group) {
+                messages.addAll(messagesByRow.get(row.getId()));
+            }
+        } else {
+            messages.addAll(messagesByRow.get(group.get(0).getId()));
+        }
+        return new Pack(channel, group, messages);
+    }
+
+    private boolean bindRetryKey(Pack pack) {
+        String retryKey = pack.rows().get(0).getRetryKey();
+        if (retryKey != null && pack.rows().stream().allMatch(r -> retryKey.equals(r.getRetryKey()))) {
+            return true;
+        }
+        try {
+            notificationOutboxService.bindRetryKey(pack.rows(),
+                    retryKey != null ? retryKey : UUID.randomUUID().toString());
+            return true;
+        } catch (Exception e) {
+            log.warn("Failed to bind LINE retry key, postponing {} outbox rows: {}", pack.rows().size(), e.getMessage());
+            for (NotificationOutbox row : pack.rows()) {
+                completeLine(row, false, "Retry-Key の保存に失敗: " + e.getMessage(), true);
+            }
+            return false;
+        }
+    }
+
+    /**
+     * LINE グループ宛の全体配信を1行1リクエストで送る。結果は送信ログではなく
+     * {@link CardDivisionBroadcastService#completeBroadcast} で line_broadcast_send に確定させる。
+     */
+    private void sendLineGroup(List<NotificationOutbox> rows) {
+        Map<Long, LineChannel> channels = new HashMap<>();
+        for (LineChannel c : lineChannelRepository.findAllById(
+                rows.stream().map(NotificationOutbox::getLineChannelId).distinct().toList())) {
+            channels.put(c.getId(), c);
+        }
+
+        List<NotificationOutbox> sendable = new ArrayList<>();
+        List<LinePushDispatcher.PushJob> jobs = new ArrayList<>();
+        for (NotificationOutbox row : rows) {
+            LineChannel channel = channels.get(row.getLineChannelId());
+            if (channel == null || channel.getStatus() == LineChannel.ChannelStatus.DISABLED) {
+                completeLineGroup(row, false, "配信botが無効", false);
+                continue;
+            }
+            try {
+                jobs.add(new LinePushDispatcher.PushJob(channel.getId(), channel.getChannelAccessToken(),
+                        List.of(row.getLineUserId()), notificationOutboxService.readLineMessages(row),
+                        row.getRetryKey()));
+                sendable.add(row);
+            } catch (RuntimeException e) {
+                completeLineGroup(row, false, e.getMessage(), false);
+            }
+        }
+        if (jobs.isEmpty()) {
+            return;
+        }
+
+        List<SendResult> results = linePushDispatcher.dispatch(jobs);
+        for (int i = 0; i < sendable.size(); i++) {
+            SendResult result = results.get(i);
+            completeLineGroup(sendable.get(i), result.isSuccess(), failureMessage(result),
+                    result != SendResult.PERMANENT_FAILURE);
+        }
+    }
+
+    private void completeLineGroup(NotificationOutbox row, boolean success, String error, boolean retryable) {
+        try {
+            if (success) {
+                notificationOutboxService.markSucceeded(row);
+            } else {
+                boolean terminal = notificationOutboxService.markFailed(row, error, retryable);
+                countFailure(row, terminal);
+                if (!terminal) {
+                    return;
+                }
+            }
+            cardDivisionBroadcastService.completeBroadcast(row.getBroadcastGroupId(), row.getSessionId(),
+                    row.getLineChannelId(), success, error);
+            recordOutcome(row, success);
+        } catch (Exception e) {
+            log.error("Failed to complete LINE group outbox row {}: {}", row.getId(), e.getMessage());
+        }
+    }
+
+    private void completeLine(NotificationOutbox row, boolean success, String error, boolean retryable) {
+        LineNotificationType type = LineNotificationType.valueOf(row.getNotificationType());
+        try {
+            if (success) {
+                notificationOutboxService.markSucceeded(row);
+                if (row.getSendRightReserved()) {
+                    markSucceededWithRetry(row.getPlayerId(), type, row.getDedupeKey());
+                } else {
+                    logMessage(row, type, MessageStatus.SUCCESS, null);
+                }
+                recordOutcome(row, true);
+                return;
+            }
+
+            boolean terminal = notificationOutboxService.markFailed(row, error, retryable);
+            countFailure(row, terminal);
+            if (!terminal) {
+                return;
+            }
+            if (row.getSendRightReserved()) {
+                int updated = lineMessageLogService.markReservationFailed(
+                        row.getPlayerId(), type, row.getDedupeKey(), error);
+                if (updated == 0) {
+                    log.warn("markReservationFailed updated 0 rows: player={}, dedupeKey={}",
+                            row.getPlayerId(), row.getDedupeKey());
+                }
+            } else {
+                logMessage(row, type, MessageStatus.FAILED, error);
+            }
+            recordOutcome(row, false);
+        } catch (Exception e) {
+            log.error("Failed to complete LINE outbox row {}: {}", row.getId(), e.getMessage());
+        }
+    }
+
+    /**
+     * 送信成功後の予約ログ確定をリトライ付きで実行する。
+     * markReservationSucceeded が一時的なDB障害で失敗した場合、RESERVED が残留し
+     * releaseStaleReservations により FAILED に変更されると重複送信の原因になるため、
+     * リトライで成功率を高める。送信済みのため FAILED には変更しない。
+     */
+    private void markSucceededWithRetry(Long playerId, LineNotificationType type, String dedupeKey) {
+        Exception lastException = null;
+        for (int attempt = 0; attempt <= MARK_SUCCEEDED_MAX_RETRIES; attempt++) {
+            try {
+                int updated = lineMessageLogService.markReservationSucceeded(playerId, type, dedupeKey);
+                if (updated == 0) {
+                    log.warn("markReservationSucceeded updated 0 rows: player={}, dedupeKey={}", playerId, dedupeKey);
+                }
+                return;
+            } catch (Exception e) {
+                lastException = e;
+                if (attempt < MARK_SUCCEEDED_MAX_RETRIES) {
+                    log.warn("markReservationSucceeded リトライ {}/{}: player={}, dedupeKey={}, error={}",
+                            attempt + 1, MARK_SUCCEEDED_MAX_RETRIES, playerId, dedupeKey, e.getMessage());
+                }
+            }
+        }
+        log.error("送信成功後のステータス更新が全リトライで失敗しました（重複送信防止のためFAILEDには変更しません）: player={}, dedupeKey={}, error={}",
+                playerId, dedupeKey, lastException != null ? lastException.getMessage() : "unknown");
+    }
+
+    private void logMessage(NotificationOutbox row, LineNotificationType type, MessageStatus status, String error) {
+        try {
+            lineMessageLogService.save(row.getLineChannelId(), row.getPlayerId(), type, row.getLogText(),
+                    status, error, row.getDedupeKey());
+        } catch (Exception e) {
+            log.error("Failed to save LINE message log: {}", e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // Web Push
+    // ========================================================================
+
+    private void sendWebPush(List<NotificationOutbox> rows) {
+        List<NotificationOutbox> readable = new ArrayList<>(rows.size());
+        List<PushNotificationService.PushRequest> requests = new ArrayList<>(rows.size());
+        for (NotificationOutbox row : rows) {
+            try {
+                Map<String, Object> payload = notificationOutboxService.readWebPushPayload(row);
+                requests.add(new PushNotificationService.PushRequest(row.getPlayerId(),
+                        (String) payload.get("title"), (String) payload.get("body"), (String) payload.get("url")));
+                readable.add(row);
+            } catch (RuntimeException e) {
+                completeWebPush(row, false, e.getMessage());
+            }
+        }
+        if (requests.isEmpty()) {
+            return;
+        }
+
+        List<Boolean> results;
+        try {
+            results = pushNotificationService.deliverAll(requests);
+        } catch (RuntimeException e) {
+            log.error("Web Push batch failed: {}", e.getMessage());
+            for (NotificationOutbox row : readable) {
+                completeWebPush(row, false, e.getMessage());
+            }
+            return;
+        }
+        for (int i = 0; i < readable.size(); i++) {
+            completeWebPush(readable.get(i), results.get(i), "Web Push送信失敗");
+        }
+    }
+
+    private void completeWebPush(NotificationOutbox row, boolean success, String error) {
+        try {
+            if (success) {
+                notificationOutboxService.markSucceeded(row);
+                recordOutcome(row, true);
+            } else {
+                boolean terminal = notificationOutboxService.markFailed(row, error, true);
+                countFailure(row, terminal);
+                if (terminal) {
+                    recordOutcome(row, false);
+                }
+            }
+        } catch (Exception e) {
+            log.error("Failed to complete Web Push outbox row {}: {}", row.getId(), e.getMessage());
+        }
+    }
+
+    // ========================================================================
+    // メトリクス
+    // ========================================================================
+
+    /** 登録から結果確定までの所要時間 */
+    private void recordOutcome(NotificationOutbox row, boolean success) {
+        Duration latency = Duration.between(row.getCreatedAt(), JstDateTimeUtil.now());
+        Timer.builder("notification_outbox.latency")
+                .description("通知の登録から送信結果確定までの時間")
+                .tag("channel", row.getChannel().name())
+                .tag("result", success ? "success" : "failed")
+                .register(meterRegistry)
+                .record(latency.isNegative() ? Duration.ZERO : latency);
+    }
+
+    private void countFailure(NotificationOutbox row, boolean terminal) {
+        meterRegistry.counter("notification_outbox.failures",
+                "channel", row.getChannel().name(),
+                "final", String.valueOf(terminal)).increment();
+    }
+}
@@ -0,0 +1,283 @@
+package com.karuta.matchtracker.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karuta.matchtracker.entity.LineMessageLog.LineNotificationType;
+import com.karuta.matchtracker.entity.Notification.NotificationType;
+import com.karuta.matchtracker.entity.NotificationOutbox;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxChannel;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxStatus;
+import com.karuta.matchtracker.repository.NotificationOutboxRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 通知送信キュー（アウトボックス）の登録・取り出し・完了処理。
+ *
+ * <p>登録（{@code enqueue*}）は呼び出し側のトランザクションに参加する。業務処理がロールバックされれば
+ * 通知も送られず、コミットされた通知は {@link NotificationOutboxDispatcher} が必ず拾う。
+ * HTTP 送信はリクエスト・スケジューラのスレッドでは行わない。
+ *
+ * <p>ステータスは送信権予約（{@link LineMessageLogService#tryAcquireSendRight}）と同じ語彙で、
+ * 登録時 RESERVED、送信成功で SUCCESS、リトライ上限到達で FAILED になる。
+ * 取り出し時に next_attempt_at をリース期限まで進めるため、ワーカーが途中で落ちた行は期限後に再度取り出される。
+ *
+ * <p>LINE 行は登録時に X-Line-Retry-Key（{@code retry_key}）を採番し、すべての試行で同じ値を送る。
+ * 複数行を1リクエストで送った組は {@link #bindRetryKey} で同じ値に揃え、{@link #claimDue} は組の残りも
+ * 同じバッチに取り出す（組を崩して別の本文を同じキーで送らない）。
+ *
+ * <p>失敗時の再送間隔は {@link #BASE_BACKOFF} からの指数バックオフ。{@link #MAX_ATTEMPTS} 回までの合計待ちは
+ * 送信ログの RESERVED 自動解放（10分）より短く収まるようにしている。
+ */
+@Service
+@Slf4j
+public class NotificationOutboxService {
+
+    static final int MAX_ATTEMPTS = 5;
+    static final Duration BASE_BACKOFF = Duration.ofSeconds(10);
+    static final Duration MAX_BACKOFF = Duration.ofMinutes(5);
+    static final Duration LEASE = Duration.ofMinutes(2);
+    private static final int MAX_ERROR_LENGTH = 1000;
+
+    private final NotificationOutboxRepository notificationOutboxRepository;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+    private final Map<OutboxChannel, AtomicLong> depth = new EnumMap<>(OutboxChannel.class);
+
+    public NotificationOutboxService(NotificationOutboxRepository notificationOutboxRepository,
+                                     ObjectMapper objectMapper,
+                                     MeterRegistry meterRegistry) {
+        this.notificationOutboxRepository = notificationOutboxRepository;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+        for (OutboxChannel channel : OutboxChannel.values()) {
+            AtomicLong value = new AtomicLong();
+            depth.put(channel, value);
+            Gauge.builder("notification_outbox.depth", value, AtomicLong::get)
+                    .description("送信待ち（RESERVED）の通知件数")
+                    .tag("channel", channel.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    /**
+     * LINE メッセージを送信キューに登録する。
+     *
+     * @param messages          送信するメッセージ（1〜5件）
+     * @param logText           送信ログに記録する本文
+     * @param dedupeKey         送信ログの重複排除キー（無ければ null）
+     * @param sendRightReserved 登録前に tryAcquireSendRight で RESERVED ログを確保済みなら true。
+     *                          完了時に予約ログを SUCCESS / FAILED へ確定させる
+     */
+    @Transactional
+    public void enqueueLine(Long lineChannelId, String lineUserId, Long playerId, LineNotificationType type,
+                            List<Map<String, Object>> messages, String logText, String dedupeKey,
+                            boolean sendRightReserved) {
+        enqueueLine(lineChannelId, lineUserId, playerId, type, messages, logText, dedupeKey, sendRightReserved,
+                UUID.randomUUID().toString());
+    }
+
+    /**
+     * retry_key を指定して LINE メッセージを送信キューに登録する。
+     * 同じチャネル・同じ本文の行に同じ retry_key を付けて登録すると、送信ワーカーは組を1回の Multicast で送る
+     * （1組は最大 {@link LineMessagingService#MAX_MULTICAST_RECIPIENTS} 人・1人1行まで）。
+     */
+    @Transactional
+    public void enqueueLine(Long lineChannelId, String lineUserId, Long playerId, LineNotificationType type,
+                            List<Map<String, Object>> messages, String logText, String dedupeKey,
+                            boolean sendRightReserved, String retryKey) {
+        notificationOutboxRepository.save(NotificationOutbox.builder()
+                .channel(OutboxChannel.LINE)
+                .status(OutboxStatus.RESERVED)
+                .playerId(playerId)
+                .lineChannelId(lineChannelId)
+                .lineUserId(lineUserId)
+                .notificationType(type.name())
+                .payload(toJson(messages))
+                .logText(logText)
+                .dedupeKey(dedupeKey)
+                .retryKey(retryKey)
+                .sendRightReserved(sendRightReserved)
+                .build());
+        meterRegistry.counter("notification_outbox.enqueued", "channel", OutboxChannel.LINE.name()).increment();
+    }
+
+    /**
+     * LINE グループへの全体配信を送信キューに登録する。
+     * 呼び出し側は登録前に {@link LineBroadcastSendService#tryAcquire} で送信権を確保しておくこと。
+     * 送信結果は送信ワーカーが {@link CardDivisionBroadcastService#completeBroadcast} で line_broadcast_send に確定させる。
+     */
+    @Transactional
+    public void enqueueLineGroup(Long lineChannelId, String lineGroupId, Long broadcastGroupId, Long sessionId,
+                                 LineNotificationType type, List<Map<String, Object>> messages, String logText) {
+        notificationOutboxRepository.save(NotificationOutbox.builder()
+                .channel(OutboxChannel.LINE_GROUP)
+                .status(OutboxStatus.RESERVED)
+                .lineChannelId(lineChannelId)
+                .lineUserId(lineGroupId)
+                .broadcastGroupId(broadcastGroupId)
+                .sessionId(sessionId)
+                .notificationType(type.name())
+                .payload(toJson(messages))
+                .logText(logText)
+                .retryKey(UUID.randomUUID().toString())
+                .build());
+        meterRegistry.counter("notification_outbox.enqueued", "channel", OutboxChannel.LINE_GROUP.name()).increment();
+    }
+
+    /**
+     * Web Push 通知を送信キューに登録する。
+     */
+    @Transactional
+    public void enqueueWebPush(Long playerId, NotificationType type, String title, String body, String url) {
+        Map<String, Object> payload = new LinkedHashMap<>();
+        payload.put("title", title);
+        payload.put("body", body);
+        payload.put("url", url);
+        notificationOutboxRepository.save(NotificationOutbox.builder()
+                .channel(OutboxChannel.WEB_PUSH)
+                .status(OutboxStatus.RESERVED)
+                .playerId(playerId)
+                .notificationType(type.name())
+                .payload(toJson(payload))
+                .build());
+        meterRegistry.counter("notification_outbox.enqueued", "channel", OutboxChannel.WEB_PUSH.name()).increment();
+    }
+
+    /**
+     * 取り出し期限の来た行を最大 {@code limit} 件取り出す。retry_key を共有する組は残りの行もまとめて取り出すため、
+     * 件数は {@code limit} を超えることがある。
+     * 取り出した行は試行回数を1つ進め、next_attempt_at をリース期限へ進めてからコミットする。
+     */
+    @Transactional
+    public List<NotificationOutbox> claimDue(int limit) {
+        LocalDateTime now = JstDateTimeUtil.now();
+        List<NotificationOutbox> rows = new ArrayList<>(notificationOutboxRepository.lockDue(now, limit));
+        Set<String> retryKeys = new HashSet<>();
+        for (NotificationOutbox row : rows) {
+            if (row.getRetryKey() != null) {
+                retryKeys.add(row.getRetryKey());
+            }
+        }
+        if (!retryKeys.isEmpty()) {
+            rows.addAll(notificationOutboxRepository.lockSiblings(retryKeys,
+                    rows.stream().map(NotificationOutbox::getId).toList()));
+        }
+        LocalDateTime leaseUntil = now.plus(LEASE);
+        for (NotificationOutbox row : rows) {
+            row.setAttemptCount(row.getAttemptCount() + 1);
+            row.setNextAttemptAt(leaseUntil);
+        }
+        return notificationOutboxRepository.saveAll(rows);
+    }
+
+    /**
+     * 1リクエストにまとめて送る行の retry_key を {@code retryKey} に揃え、送信前にコミットする。
+     * 以後の再送でもこの組み合わせとキーで送る。
+     */
+    @Transactional
+    public void bindRetryKey(List<NotificationOutbox> rows, String retryKey) {
+        for (NotificationOutbox row : rows) {
+            row.setRetryKey(retryKey);
+        }
+        notificationOutboxRepository.saveAll(rows);
+    }
+
+    /** 送信成功として確定する */
+    @Transactional
+    public void markSucceeded(NotificationOutbox row) {
+        row.setStatus(OutboxStatus.SUCCESS);
+        row.setCompletedAt(JstDateTimeUtil.now());
+        row.setLastError(null);
+        notificationOutboxRepository.save(row);
+    }
+
+    /**
+     * 送信失敗を記録する。リトライ可能で上限未満なら次回時刻を指数バックオフで設定して RESERVED のまま残す。
+     *
+     * @return FAILED として確定した場合 true
+     */
+    @Transactional
+    public boolean markFailed(NotificationOutbox row, String error, boolean retryable) {
+        LocalDateTime now = JstDateTimeUtil.now();
+        row.setLastError(truncate(error));
+        boolean terminal = !retryable || row.getAttemptCount() >= MAX_ATTEMPTS;
+        if (terminal) {
+            row.setStatus(OutboxStatus.FAILED);
+            row.setCompletedAt(now);
+        } else {
+            row.setNextAttemptAt(now.plus(backoff(row.getAttemptCount())));
+        }
+        notificationOutboxRepository.save(row);
+        return terminal;
+    }
+
+    /** 完了済みの古い行を削除する */
+    @Transactional
+    public int purgeCompletedBefore(LocalDateTime cutoff) {
+        return notificationOutboxRepository.deleteCompletedBefore(cutoff);
+    }
+
+    /** 滞留数メトリクスを DB の件数で更新する */
+    @Transactional(readOnly = true)
+    public void refreshDepth() {
+        for (OutboxChannel channel : OutboxChannel.values()) {
+            depth.get(channel).set(notificationOutboxRepository.countByChannelAndStatus(channel, OutboxStatus.RESERVED));
+        }
+    }
+
+    /** n 回目の失敗後の待ち時間（10秒, 20秒, 40秒, ... 上限5分） */
+    static Duration backoff(int attempt) {
+        int shift = Math.min(Math.max(attempt - 1, 0), 16);
+        Duration d = BASE_BACKOFF.multipliedBy(1L << shift);
+        return d.compareTo(MAX_BACKOFF) > 0 ? MAX_BACKOFF : d;
+    }
+
+    List<Map<String, Object>> readLineMessages(NotificationOutbox row) {
+        return fromJson(row.getPayload(), new TypeReference<>() {});
+    }
+
+    Map<String, Object> readWebPushPayload(NotificationOutbox row) {
+        return fromJson(row.getPayload(), new TypeReference<>() {});
+    }
+
+    private String toJson(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("通知内容のシリアライズに失敗しました", e);
+        }
+    }
+
+    private <T> T fromJson(String json, TypeReference<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("通知内容の読み込みに失敗しました", e);
+        }
+    }
+
+    private static String truncate(String s) {
+        if (s == null || s.length() <= MAX_ERROR_LENGTH) {
+            return s;
+        }
+        return s.substring(0, MAX_ERROR_LENGTH);
+    }
+}
@@ -31,7 +31,7 @@ public class NotificationService {
 
     private final NotificationRepository notificationRepository;
     private final PracticeSessionRepository practiceSessionRepository;
-    private final PushNotificationService pushNotificationService;
+    private final NotificationOutboxService notificationOutboxService;
     private final PushNotificationPreferenceRepository pushNotificationPreferenceRepository;
 
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ofPattern("M月d日");
@@ -311,7 +311,7 @@ public class NotificationService {
     }
 
     /**
-     * Web Push設定をチェックし、該当種別がONなら送信する（団体指定）
+     * Web Push設定をチェックし、該当種別がONなら送信キューに登録する（団体指定）
      */
     public void sendPushIfEnabled(Long playerId, NotificationType type, String title, String message, String url, Long organizationId) {
         // 団体指定がある場合はその団体の設定を参照
@@ -326,7 +326,7 @@ public class NotificationService {
                     .filter(p -> p.getEnabled() && isTypeEnabled(p, type))
                     .findFirst().orElse(null);
             if (pref != null) {
-                pushNotificationService.sendPush(playerId, title, message, url);
+                notificationOutboxService.enqueueWebPush(playerId, type, title, message, url);
                 return;
             }
             return;
@@ -340,7 +340,7 @@ public class NotificationService {
             return;
         }
 
-        pushNotificationService.sendPush(playerId, title, message, url);
+        notificationOutboxService.enqueueWebPush(playerId, type, title, message, url);
     }
 
     /**
@@ -0,0 +1,146 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.DelayQueue;
+import java.util.concurrent.Delayed;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 繰り上げオファーの応答期限・期限前警告の時刻でスケジューラを起こすタイマー。
+ *
+ * <p>オファーの発行時（{@link WaitlistPromotionService}）に参加者IDと応答期限を登録すると、
+ * 警告時刻（期限の {@link #WARNING_LEAD} 前）と期限の直後に、登録されたハンドラ
+ * （{@code OfferExpiryScheduler#checkExpiredOffers}）を専用スレッドで呼ぶ。ハンドラは DB から
+ * 期限切れ・期限間近のオファーをまとめて読み直して処理するため、同じ時刻に期限を迎える複数のオファーは
+ * 1回の呼び出しにまとめる（同じセッションのオファーは期限も同じ）。
+ *
+ * <p>登録・取り消しはプロセス内で閉じる。応答・期限切れで不要になった登録は {@link #cancel} で外すが、
+ * 外し損ねても期限時にハンドラが空振りするだけで済む。他インスタンスで発行されたオファーや
+ * 再起動をまたいだ取りこぼしは、起動時の読み込みと低頻度の定期スイープで拾う。
+ */
+@Slf4j
+@Component
+public class OfferDeadlineTimer {
+
+    /** 期限前警告を出す時間（期限のこれだけ前） */
+    public static final Duration WARNING_LEAD = Duration.ofHours(3);
+
+    /** 期限ちょうどでは期限切れ判定（offerDeadline &lt; now）に掛からないため、少し遅らせて起こす */
+    static final Duration EXPIRY_GRACE = Duration.ofSeconds(1);
+
+    private final DelayQueue<Wakeup> queue = new DelayQueue<>();
+    // participantId -> 登録中の応答期限。キューに残った古い登録はこれと突き合わせて捨てる
+    private final Map<Long, LocalDateTime> deadlines = new ConcurrentHashMap<>();
+    private volatile Runnable handler;
+    private Thread dispatcher;
+
+    /** 期限・警告時刻に呼ぶ処理を登録する */
+    public void onDue(Runnable handler) {
+        this.handler = handler;
+    }
+
+    /** オファーの応答期限を登録する（同じ参加者の既存の登録は置き換える。同じ期限なら何もしない） */
+    public void schedule(Long participantId, LocalDateTime offerDeadline) {
+        if (participantId == null || offerDeadline == null
+                || offerDeadline.equals(deadlines.put(participantId, offerDeadline))) {
+            return;
+        }
+        LocalDateTime now = JstDateTimeUtil.now();
+        LocalDateTime warnAt = offerDeadline.minus(WARNING_LEAD);
+        if (warnAt.isAfter(now)) {
+            queue.add(Wakeup.after(participantId, offerDeadline, false, delayNanos(now, warnAt)));
+        }
+        queue.add(Wakeup.after(participantId, offerDeadline, true, delayNanos(now, offerDeadline.plus(EXPIRY_GRACE))));
+    }
+
+    /** オファーが応答・取り消し済みになったら登録を外す */
+    public void cancel(Long participantId) {
+        if (participantId != null) {
+            deadlines.remove(participantId);
+        }
+    }
+
+    int pending() {
+        return deadlines.size();
+    }
+
+    @PostConstruct
+    void start() {
+        dispatcher = Thread.ofPlatform().name("offer-deadline-timer").daemon().start(this::dispatchLoop);
+    }
+
+    @PreDestroy
+    void stop() {
+        if (dispatcher != null) {
+            dispatcher.interrupt();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (!Thread.currentThread().isInterrupted()) {
+            try {
+                List<Wakeup> due = new ArrayList<>();
+                due.add(queue.take());
+                queue.drainTo(due);
+                if (dispatch(due)) {
+                    Runnable h = handler;
+                    if (h != null) {
+                        h.run();
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } catch (Exception e) {
+                // 定期スイープで拾われるため、ここでは記録だけして次の時刻を待つ
+                log.error("Offer deadline handler failed: {}", e.getMessage(), e);
+            }
+        }
+    }
+
+    /** 期限を迎えた登録のうち、まだ有効なものがあれば true。期限の登録は外す */
+    boolean dispatch(List<Wakeup> due) {
+        boolean live = false;
+        for (Wakeup w : due) {
+            if (!w.deadline().equals(deadlines.get(w.participantId()))) {
+                continue;
+            }
+            live = true;
+            if (w.expiry()) {
+                deadlines.remove(w.participantId(), w.deadline());
+            }
+        }
+        return live;
+    }
+
+    private static long delayNanos(LocalDateTime now, LocalDateTime at) {
+        return Math.max(0L, Duration.between(now, at).toNanos());
+    }
+
+    record Wakeup(Long participantId, LocalDateTime deadline, boolean expiry, long dueNanos) implements Delayed {
+
+        static Wakeup after(Long participantId, LocalDateTime deadline, boolean expiry, long delayNanos) {
+            return new Wakeup(participantId, deadline, expiry, System.nanoTime() + delayNanos);
+        }
+
+        @Override
+        public long getDelay(TimeUnit unit) {
+            return unit.convert(dueNanos - System.nanoTime(), TimeUnit.NANOSECONDS);
+        }
+
+        @Override
+        public int compareTo(Delayed other) {
+            return Long.compare(dueNanos, ((Wakeup) other).dueNanos);
+        }
+    }
+}
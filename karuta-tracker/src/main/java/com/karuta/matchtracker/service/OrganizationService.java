@@ -30,6 +30,8 @@ public class OrganizationService {
     private final PlayerRepository playerRepository;
     private final PushNotificationPreferenceRepository pushNotificationPreferenceRepository;
     private final LineNotificationPreferenceRepository lineNotificationPreferenceRepository;
+    private final AuthTokenService authTokenService;
+    private final IcalFeedVersionService icalFeedVersionService;
 
     /**
      * 団体一覧を取得
@@ -145,6 +147,8 @@ public class OrganizationService {
 
         player.setAdminOrganizationId(organizationId);
         playerRepository.save(player);
+        // 認証キャッシュの管理団体を捨て、次のリクエストから新しい団体でスコープさせる
+        authTokenService.invalidateCachedPlayer(playerId);
     }
 
     /**
@@ -169,6 +173,8 @@ public class OrganizationService {
             log.debug("Player {} already belongs to organization {} (concurrent insert)", playerId, organizationId);
             return;
         }
+        // ネイティブ INSERT はエンティティリスナーを通らないため、iCal フィードの版番号へ直接知らせる
+        icalFeedVersionService.markMembershipChanged(playerId);
         createDefaultNotificationPreferences(playerId, organizationId);
         log.info("Auto-assigned player {} to organization {}", playerId, organizationId);
     }
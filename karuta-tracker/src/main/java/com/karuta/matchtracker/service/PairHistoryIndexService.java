@@ -0,0 +1,319 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.repository.MatchPairingRepository;
+import com.karuta.matchtracker.repository.MatchRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * ペア対戦履歴のインメモリ索引。
+ *
+ * <p>{@code match_pairings}（組み合わせ）と {@code matches}（試合結果）の「誰と誰がいつ組んだか」を、
+ * ペアキー {@code (小さいID << 32) | 大きいID} → 日付（エポック日）の昇順 {@code int[]} で保持する。
+ * 起動時に全件を1回読み込み（{@link #rebuild()}）、以降は {@link MatchPairingService} /
+ * {@link MatchService} の書き込み経路からの通知（{@code record*} / {@code remove*}）で差分更新する。
+ * 自動組み合わせ・直近対戦表示はこれを引くことで、履歴のために DB を往復しない。
+ *
+ * <p><b>多重集合:</b> 同日・同ペアの行は複数あり得る（組み合わせと結果の両方、複数試合番号）。
+ * 日付配列は重複を許す多重集合とし、1行の削除で1要素だけ取り除く。参照時に重複を除いて返す。
+ *
+ * <p><b>コミット後反映:</b> 書き込み通知はトランザクション中なら afterCommit で反映する。
+ * ロールバックされた変更が索引に残らないようにするため。
+ *
+ * <p><b>未構築時:</b> 初回構築の完了前は {@link #isReady()} が false を返し、呼び出し側は従来どおり
+ * DB から履歴を取る。再構築中は旧索引を引き続き参照に使い、届いた差分は新しい索引にも後から適用する。
+ * 差分は行を特定せず (日付, ペア) の要素数を増減するだけなので、全件ロードと同じ行の差分が重なると
+ * 数がずれる。ロードが読んだ行の追加が後から適用されると1つ多くなり、その行を後で削除しても
+ * その日のペアが残る。ロードより前に消えた行の削除が後から適用されると、同じ日・同じペアの別の行の
+ * 要素を取り除き、残っている対戦が見えなくなる。どちらも表示と自動組み合わせのスコアに出るが、
+ * ずれは次の定期再構築（{@code PairHistoryIndexScheduler}、毎日 4:30）まで残り、そこで正される。
+ */
+@Service
+@Slf4j
+public class PairHistoryIndexService {
+
+    private static final int[] EMPTY = new int[0];
+
+    private final MatchPairingRepository matchPairingRepository;
+    private final MatchRepository matchRepository;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+
+    private volatile ConcurrentHashMap<Long, PairDays> index = new ConcurrentHashMap<>();
+    private volatile boolean ready;
+
+    private final Object rebuildLock = new Object();
+    // 再構築中に届いた差分（rebuildLock で保護）。null なら再構築中ではない。
+    private List<Consumer<ConcurrentHashMap<Long, PairDays>>> pendingDuringRebuild;
+
+    public PairHistoryIndexService(MatchPairingRepository matchPairingRepository,
+                                   MatchRepository matchRepository,
+                                   MeterRegistry meterRegistry) {
+        this.matchPairingRepository = matchPairingRepository;
+        this.matchRepository = matchRepository;
+        this.hitCounter = Counter.builder("pair_history_index.lookups")
+                .description("索引から履歴を返した回数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("pair_history_index.lookups")
+                .description("索引未構築のため DB にフォールバックした回数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        Gauge.builder("pair_history_index.pairs", this, s -> s.index.size())
+                .description("索引に載っているペア数")
+                .register(meterRegistry);
+        Gauge.builder("pair_history_index.entries", this, PairHistoryIndexService::entryCount)
+                .description("索引に載っている日付要素の総数")
+                .register(meterRegistry);
+        Gauge.builder("pair_history_index.ready", this, s -> s.ready ? 1 : 0)
+                .description("索引が構築済みなら1")
+                .register(meterRegistry);
+    }
+
+    /** 索引が構築済みで参照に使えるか */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * 呼び出し側が索引を使えたか（hit）/ DB にフォールバックしたか（miss）を記録する。
+     * 戻り値は {@link #isReady()} と同じ。
+     */
+    public boolean tryUse() {
+        boolean r = ready;
+        (r ? hitCounter : missCounter).increment();
+        return r;
+    }
+
+    /**
+     * 全件を読み込んで索引を作り直す。構築中も旧索引（初回は未構築扱い）は参照可能なまま。
+     */
+    @Transactional(readOnly = true)
+    public void rebuild() {
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                log.info("ペア履歴索引: 再構築中のためスキップ");
+                return;
+            }
+            pendingDuringRebuild = new ArrayList<>();
+        }
+        long start = System.currentTimeMillis();
+        ConcurrentHashMap<Long, PairDays> fresh = new ConcurrentHashMap<>();
+        try {
+            for (Object[] row : matchPairingRepository.findAllPairingHistory()) {
+                add(fresh, (LocalDate) row[0], (Long) row[1], (Long) row[2], false);
+            }
+            for (Object[] row : matchRepository.findAllMatchHistory()) {
+                add(fresh, (LocalDate) row[0], (Long) row[1], (Long) row[2], true);
+            }
+        } catch (RuntimeException e) {
+            synchronized (rebuildLock) {
+                pendingDuringRebuild = null;
+            }
+            throw e;
+        }
+        synchronized (rebuildLock) {
+            for (Consumer<ConcurrentHashMap<Long, PairDays>> change : pendingDuringRebuild) {
+                change.accept(fresh);
+            }
+            pendingDuringRebuild = null;
+            index = fresh;
+            ready = true;
+        }
+        log.info("ペア履歴索引を構築しました: pairs={}, entries={}, {}ms",
+                fresh.size(), entryCount(), System.currentTimeMillis() - start);
+    }
+
+    /** 組み合わせ1行の追加を反映する */
+    public void recordPairing(LocalDate date, Long player1Id, Long player2Id) {
+        afterCommit(map -> add(map, date, player1Id, player2Id, false));
+    }
+
+    /** 組み合わせ1行の削除を反映する */
+    public void removePairing(LocalDate date, Long player1Id, Long player2Id) {
+        afterCommit(map -> remove(map, date, player1Id, player2Id, false));
+    }
+
+    /** 試合結果1行の追加を反映する */
+    public void recordMatch(LocalDate date, Long player1Id, Long player2Id) {
+        afterCommit(map -> add(map, date, player1Id, player2Id, true));
+    }
+
+    /** 試合結果1行の削除を反映する */
+    public void removeMatch(LocalDate date, Long player1Id, Long player2Id) {
+        afterCommit(map -> remove(map, date, player1Id, player2Id, true));
+    }
+
+    /**
+     * ペアの {@code [from, toExclusive)} の日付を重複なし・昇順で返す。
+     *
+     * @param includeMatches true なら組み合わせと試合結果の和集合、false なら組み合わせのみ
+     */
+    public List<LocalDate> findDays(Long player1Id, Long player2Id, LocalDate from, LocalDate toExclusive,
+                                    boolean includeMatches) {
+        PairDays days = index.get(pairKey(player1Id, player2Id));
+        if (days == null) {
+            return Collections.emptyList();
+        }
+        int lo = (int) from.toEpochDay();
+        int hi = (int) toExclusive.toEpochDay();
+        int[] pairingDays = days.pairingDays;
+        int[] matchDays = includeMatches ? days.matchDays : EMPTY;
+        // 2本の昇順配列を窓内でマージしつつ重複を除く
+        List<LocalDate> result = new ArrayList<>();
+        int i = lowerBound(pairingDays, lo);
+        int j = lowerBound(matchDays, lo);
+        int last = Integer.MIN_VALUE;
+        while (true) {
+            int a = i < pairingDays.length ? pairingDays[i] : Integer.MAX_VALUE;
+            int b = j < matchDays.length ? matchDays[j] : Integer.MAX_VALUE;
+            int next = Math.min(a, b);
+            if (next >= hi) {
+                break;
+            }
+            if (a == next) i++;
+            else j++;
+            if (next != last) {
+                result.add(LocalDate.ofEpochDay(next));
+                last = next;
+            }
+        }
+        return result;
+    }
+
+    /** 2選手のペアキー（順不同）。ID は 2^31 未満を前提とする。 */
+    static long pairKey(long player1Id, long player2Id) {
+        long smaller = Math.min(player1Id, player2Id);
+        long larger = Math.max(player1Id, player2Id);
+        return (smaller << 32) | larger;
+    }
+
+    private void afterCommit(Consumer<ConcurrentHashMap<Long, PairDays>> change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    apply(change);
+                }
+            });
+        } else {
+            apply(change);
+        }
+    }
+
+    private void apply(Consumer<ConcurrentHashMap<Long, PairDays>> change) {
+        // 差し替え（rebuild の末尾）と同じロックの中で反映する。外で反映すると、記録後・反映前に
+        // 差し替えが挟まって新索引へ二重に反映されたり、旧索引にだけ反映されたりする
+        synchronized (rebuildLock) {
+            if (pendingDuringRebuild != null) {
+                pendingDuringRebuild.add(change);
+            }
+            change.accept(index);
+        }
+    }
+
+    private static boolean isIndexable(LocalDate date, Long player1Id, Long player2Id) {
+        // 未登録の対戦相手（player2Id=0 の簡易登録）は組み合わせ対象にならないので載せない
+        return date != null && player1Id != null && player2Id != null
+                && player1Id != 0L && player2Id != 0L && !player1Id.equals(player2Id);
+    }
+
+    private static void add(ConcurrentHashMap<Long, PairDays> map, LocalDate date,
+                            Long player1Id, Long player2Id, boolean match) {
+        if (!isIndexable(date, player1Id, player2Id)) {
+            return;
+        }
+        map.computeIfAbsent(pairKey(player1Id, player2Id), k -> new PairDays())
+                .add((int) date.toEpochDay(), match);
+    }
+
+    private static void remove(ConcurrentHashMap<Long, PairDays> map, LocalDate date,
+                               Long player1Id, Long player2Id, boolean match) {
+        if (!isIndexable(date, player1Id, player2Id)) {
+            return;
+        }
+        map.computeIfPresent(pairKey(player1Id, player2Id), (k, days) -> {
+            days.remove((int) date.toEpochDay(), match);
+            return days.isEmpty() ? null : days;
+        });
+    }
+
+    private long entryCount() {
+        long total = 0;
+        for (PairDays days : index.values()) {
+            total += days.pairingDays.length + days.matchDays.length;
+        }
+        return total;
+    }
+
+    /** 昇順配列で value 以上となる最初の位置 */
+    private static int lowerBound(int[] sorted, int value) {
+        int lo = 0;
+        int hi = sorted.length;
+        while (lo < hi) {
+            int mid = (lo + hi) >>> 1;
+            if (sorted[mid] < value) lo = mid + 1;
+            else hi = mid;
+        }
+        return lo;
+    }
+
+    /**
+     * 1ペア分の日付（エポック日の昇順多重集合）。更新は配列の差し替えで行い、
+     * 参照側はロックなしで読む（読み取り中の配列は変更されない）。
+     */
+    private static final class PairDays {
+        volatile int[] pairingDays = EMPTY;
+        volatile int[] matchDays = EMPTY;
+
+        synchronized void add(int day, boolean match) {
+            if (match) matchDays = insert(matchDays, day);
+            else pairingDays = insert(pairingDays, day);
+        }
+
+        synchronized void remove(int day, boolean match) {
+            if (match) matchDays = delete(matchDays, day);
+            else pairingDays = delete(pairingDays, day);
+        }
+
+        boolean isEmpty() {
+            return pairingDays.length == 0 && matchDays.length == 0;
+        }
+
+        private static int[] insert(int[] sorted, int day) {
+            int pos = lowerBound(sorted, day);
+            int[] next = new int[sorted.length + 1];
+            System.arraycopy(sorted, 0, next, 0, pos);
+            next[pos] = day;
+            System.arraycopy(sorted, pos, next, pos + 1, sorted.length - pos);
+            return next;
+        }
+
+        private static int[] delete(int[] sorted, int day) {
+            int pos = lowerBound(sorted, day);
+            if (pos >= sorted.length || sorted[pos] != day) {
+                return sorted;
+            }
+            if (sorted.length == 1) {
+                return EMPTY;
+            }
+            int[] next = Arrays.copyOf(sorted, sorted.length - 1);
+            System.arraycopy(sorted, pos + 1, next, pos, sorted.length - pos - 1);
+            return next;
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.karuta.matchtracker.service;
+
+/**
+ * 自動組み合わせ用のペアスコア行列（純ロジック・DB 非依存）。
+ *
+ * <p>参加者を 0..n-1 のインデックスに写像し、全ペアのスコアを {@code double[]} に1回だけ
+ * 前計算して保持する。最終対戦日・前回練習日ペナルティはスコアに畳み込み済みで、
+ * 同日既出ペアなど組めないペアは {@link #FORBIDDEN} として保持する。
+ * {@link PairingEngine} はこの行列だけを読み、文字列キーや履歴リストには触れない。
+ */
+public final class PairScoreMatrix {
+
+    /** 組めないペアを表す値（同日の他試合で既に組んだペアなど） */
+    public static final double FORBIDDEN = Double.NaN;
+
+    /** ペア (i, j) のスコアを返す関数。組めないペアは {@link #FORBIDDEN} を返す。 */
+    @FunctionalInterface
+    public interface PairScorer {
+        double score(int i, int j);
+    }
+
+    private final int size;
+    // 上三角を含む n×n の対称行列（行優先）。対角は FORBIDDEN。
+    private final double[] scores;
+
+    private PairScoreMatrix(int size, double[] scores) {
+        this.size = size;
+        this.scores = scores;
+    }
+
+    /**
+     * {@code i < j} の各ペアについて {@code scorer} を1回ずつ呼び、対称行列を構築する。
+     *
+     * @param size   参加者数
+     * @param scorer ペアスコア関数（{@code i < j} で呼ばれる）
+     */
+    public static PairScoreMatrix build(int size, PairScorer scorer) {
+        double[] scores = new double[size * size];
+        for (int i = 0; i < size; i++) {
+            scores[i * size + i] = FORBIDDEN;
+            for (int j = i + 1; j < size; j++) {
+                double s = scorer.score(i, j);
+                scores[i * size + j] = s;
+                scores[j * size + i] = s;
+            }
+        }
+        return new PairScoreMatrix(size, scores);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public double score(int i, int j) {
+        return scores[i * size + j];
+    }
+
+    public boolean isAllowed(int i, int j) {
+        return !Double.isNaN(scores[i * size + j]);
+    }
+}
@@ -0,0 +1,31 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.AutoMatchingRequest;
+
+import java.util.List;
+
+/**
+ * 自動組み合わせのペア選択アルゴリズム（純ロジック・DB 非依存）。
+ *
+ * <p>{@link PairScoreMatrix} を受け取り、組んだペアのインデックス {@code {i, j}} のリストを返す。
+ * 返すペアの順序は表示順（先頭ほど良いペア）とし、どのペアにも入らなかったインデックスは
+ * 呼び出し側で待機者として扱う。
+ */
+public interface PairingEngine {
+
+    /**
+     * @param matrix 前計算済みのペアスコア行列
+     * @return 組んだペア {@code {i, j}} のリスト（各インデックスは高々1回しか現れない）
+     */
+    List<int[]> pair(PairScoreMatrix matrix);
+
+    /**
+     * リクエストで指定されたモードに対応するエンジンを返す。未指定（null）は最適化モード。
+     */
+    static PairingEngine of(AutoMatchingRequest.Engine engine) {
+        if (engine == AutoMatchingRequest.Engine.GREEDY) {
+            return GreedyPairingEngine.INSTANCE;
+        }
+        return MaxWeightPairingEngine.INSTANCE;
+    }
+}
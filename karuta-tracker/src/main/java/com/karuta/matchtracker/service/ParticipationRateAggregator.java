@@ -0,0 +1,352 @@
+package com.karuta.matchtracker.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.karuta.matchtracker.dto.OrganizationDto;
+import com.karuta.matchtracker.dto.ParticipationGroupDto;
+import com.karuta.matchtracker.dto.ParticipationRateDto;
+import com.karuta.matchtracker.entity.EntityChangedEvent;
+import com.karuta.matchtracker.entity.Player;
+import com.karuta.matchtracker.entity.PlayerOrganization;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.repository.PlayerOrganizationRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * ホーム画面の参加率グループ（団体別 top3 + 自分の参加率）。
+ *
+ * <p>団体 × 月 × 集計日（集計日以前のセッションだけが対象）ごとに、選手別の有効参加数を
+ * SQL の GROUP BY 射影（{@link PracticeParticipantRepository#countActiveBySessionIdsAndPlayer}）で数え、
+ * メンバーを参加数の降順に並べた {@link OrgMonthCounts} として短時間キャッシュする。ホーム表示のたびに
+ * 月間の参加者エンティティを読み込んで全員分を計算し直すことはせず、表示名も top3 と本人の分だけ読む。
+ * 参加数の数え方（有効ステータスのみ・各セッションで予定試合数を上限にキャップ）は
+ * {@code PracticeParticipantService} の参加率と同じ。
+ *
+ * <p><b>同期:</b> 参加者・練習日・所属の変更は {@link EntityChangedEvent} で届き、該当する集計を
+ * 即時と完了後（afterCompletion）の2回捨てる。JPQL の一括更新を使う呼び出し元は自分で
+ * {@link #markSessionsChanged} を呼ぶ。無効化はプロセス内で閉じるため、他インスタンスでの変更は
+ * 有効期限（{@link #TTL}）で反映される。
+ */
+@Service
+public class ParticipationRateAggregator {
+
+    /** 集計を持つ期間（他インスタンスでの変更が反映されるまでの上限） */
+    static final Duration TTL = Duration.ofMinutes(2);
+
+    /** 団体 × 月 × 集計日のエントリ数上限 */
+    static final long MAX_ENTRIES = 2_000;
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    /** 参加数の降順、同数は選手ID昇順 */
+    private static final Comparator<Ranked> RANK_ORDER =
+            Comparator.comparingInt(Ranked::participated).reversed().thenComparing(Ranked::playerId);
+
+    record Key(Long organizationId, YearMonth month, LocalDate asOf) {
+    }
+
+    record Ranked(Long playerId, int participated) {
+    }
+
+    private final PracticeSessionRepository practiceSessionRepository;
+    private final PracticeParticipantRepository practiceParticipantRepository;
+    private final PlayerOrganizationRepository playerOrganizationRepository;
+    private final PlayerRepository playerRepository;
+
+    private final Cache<Key, OrgMonthCounts> cache = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_ENTRIES)
+            .recordStats()
+            .build();
+    // 無効化のたびに進める。読み込み中に無効化が挟まった結果はキャッシュに載せない
+    private final AtomicLong generation = new AtomicLong();
+
+    public ParticipationRateAggregator(PracticeSessionRepository practiceSessionRepository,
+                                       PracticeParticipantRepository practiceParticipantRepository,
+                                       PlayerOrganizationRepository playerOrganizationRepository,
+                                       PlayerRepository playerRepository,
+                                       MeterRegistry meterRegistry) {
+        this.practiceSessionRepository = practiceSessionRepository;
+        this.practiceParticipantRepository = practiceParticipantRepository;
+        this.playerOrganizationRepository = playerOrganizationRepository;
+        this.playerRepository = playerRepository;
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "participation_rates");
+    }
+
+    /**
+     * ホーム画面の参加率グループを返す。
+     *
+     * グループ構成:
+     * <ul>
+     *   <li>1団体所属: その団体のみ（団体名はフロント側で非表示）</li>
+     *   <li>複数団体所属: 「全体」（全団体合算）+ 各団体</li>
+     * </ul>
+     * 「全体」は各団体の集計を合算し、いずれかの団体のメンバーで並べ直す（団体のセッションは重ならない）。
+     */
+    @Transactional(readOnly = true)
+    public List<ParticipationGroupDto> getParticipationGroups(Long playerId, int year, int month,
+                                                              List<OrganizationDto> organizations) {
+        if (organizations.isEmpty()) {
+            return List.of();
+        }
+        List<Long> orgIds = organizations.stream().map(OrganizationDto::getId).toList();
+        Map<Long, OrgMonthCounts> counts = counts(orgIds, YearMonth.of(year, month), JstDateTimeUtil.today());
+
+        List<GroupDraft> drafts = new ArrayList<>();
+        if (organizations.size() > 1) {
+            drafts.add(draft(playerId, null, "全体", OrgMonthCounts.combine(orgIds.stream().map(counts::get).toList())));
+        }
+        for (OrganizationDto org : organizations) {
+            drafts.add(draft(playerId, org.getId(), org.getName(), counts.get(org.getId())));
+        }
+
+        Set<Long> shownPlayerIds = new HashSet<>();
+        for (GroupDraft d : drafts) {
+            d.top3().forEach(r -> shownPlayerIds.add(r.playerId()));
+            if (d.mine() != null) {
+                shownPlayerIds.add(playerId);
+            }
+        }
+        Map<Long, String> names = shownPlayerIds.isEmpty() ? Map.of() : activeNames(shownPlayerIds);
+
+        return drafts.stream()
+                .map(d -> ParticipationGroupDto.builder()
+                        .organizationId(d.organizationId())
+                        .organizationName(d.organizationName())
+                        .top3(d.top3().stream().map(r -> toDto(r, d.total(), names)).toList())
+                        .myRate(d.mine() != null ? toDto(d.mine(), d.total(), names) : null)
+                        .build())
+                .toList();
+    }
+
+    /** セッションの参加者が変わったことを知らせる（一括更新の呼び出し元向け） */
+    public void markSessionsChanged(Collection<Long> sessionIds) {
+        changed(sessionIds, List.of());
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangedEvent event) {
+        onEntityChanged(event.entity());
+    }
+
+    void onEntityChanged(Object entity) {
+        switch (entity) {
+            case PracticeParticipant p -> {
+                if (p.getSessionId() != null) {
+                    changed(List.of(p.getSessionId()), List.of());
+                }
+            }
+            case PracticeSession s -> {
+                if (s.getOrganizationId() != null) {
+                    changed(List.of(), List.of(s.getOrganizationId()));
+                }
+            }
+            case PlayerOrganization po -> {
+                if (po.getOrganizationId() != null) {
+                    changed(List.of(), List.of(po.getOrganizationId()));
+                }
+            }
+            default -> {
+            }
+        }
+    }
+
+    private record GroupDraft(Long organizationId, String organizationName, int total,
+                              List<Ranked> top3, Ranked mine) {
+    }
+
+    private static GroupDraft draft(Long playerId, Long orgId, String orgName, OrgMonthCounts counts) {
+        if (counts.totalScheduledMatches() == 0) {
+            return new GroupDraft(orgId, orgName, 0, List.of(), null);
+        }
+        List<Ranked> ranked = counts.ranked();
+        Integer mine = counts.memberIds().contains(playerId) ? counts.participated().get(playerId) : null;
+        return new GroupDraft(orgId, orgName, counts.totalScheduledMatches(),
+                ranked.subList(0, Math.min(3, ranked.size())),
+                mine != null ? new Ranked(playerId, mine) : null);
+    }
+
+    private static ParticipationRateDto toDto(Ranked r, int total, Map<Long, String> names) {
+        return ParticipationRateDto.builder()
+                .playerId(r.playerId())
+                .playerName(names.getOrDefault(r.playerId(), "不明"))
+                .participatedMatches(r.participated())
+                .totalScheduledMatches(total)
+                .rate((double) r.participated() / total)
+                .build();
+    }
+
+    private Map<Long, String> activeNames(Set<Long> playerIds) {
+        return playerRepository.findAllById(playerIds).stream()
+                .filter(p -> !p.isDeleted())
+                .collect(Collectors.toMap(Player::getId, Player::getName));
+    }
+
+    /** 団体ごとの集計を返す。キャッシュに無い団体はまとめて読み、キャッシュに載せる */
+    private Map<Long, OrgMonthCounts> counts(List<Long> orgIds, YearMonth month, LocalDate asOf) {
+        Map<Long, OrgMonthCounts> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long orgId : orgIds) {
+            OrgMonthCounts cached = cache.getIfPresent(new Key(orgId, month, asOf));
+            if (cached != null) {
+                result.put(orgId, cached);
+            } else {
+                missing.add(orgId);
+            }
+        }
+        if (missing.isEmpty()) {
+            return result;
+        }
+        long generationBefore = generation.get();
+        Map<Long, OrgMonthCounts> loaded = load(missing, month, asOf);
+        result.putAll(loaded);
+        // 同じトランザクションで変更済みの集計は完了後にもう一度捨てられるため、ここで載せてよい
+        if (generation.get() == generationBefore) {
+            loaded.forEach((orgId, c) -> cache.put(new Key(orgId, month, asOf), c));
+        }
+        return result;
+    }
+
+    private Map<Long, OrgMonthCounts> load(List<Long> orgIds, YearMonth month, LocalDate asOf) {
+        List<PracticeSession> sessions = practiceSessionRepository
+                .findByOrganizationIdInAndYearAndMonth(orgIds, month.getYear(), month.getMonthValue()).stream()
+                .filter(s -> !s.getSessionDate().isAfter(asOf)).toList();
+        Map<Long, PracticeSession> sessionById = sessions.stream()
+                .collect(Collectors.toMap(PracticeSession::getId, s -> s));
+
+        // orgId -> (playerId -> 有効参加数)。各セッションで予定試合数を上限にキャップしてから合算
+        Map<Long, Map<Long, Integer>> participatedByOrg = new HashMap<>();
+        if (!sessionById.isEmpty()) {
+            for (Object[] row : practiceParticipantRepository.countActiveBySessionIdsAndPlayer(sessionById.keySet())) {
+                PracticeSession session = sessionById.get((Long) row[0]);
+                if (session == null) {
+                    continue;
+                }
+                int capped = (int) Math.min((Long) row[2], totalMatches(session));
+                participatedByOrg.computeIfAbsent(session.getOrganizationId(), k -> new HashMap<>())
+                        .merge((Long) row[1], capped, Integer::sum);
+            }
+        }
+        Map<Long, Set<Long>> memberIdsByOrg = playerOrganizationRepository.findByOrganizationIdIn(orgIds).stream()
+                .collect(Collectors.groupingBy(PlayerOrganization::getOrganizationId,
+                        Collectors.mapping(PlayerOrganization::getPlayerId, Collectors.toSet())));
+
+        Map<Long, OrgMonthCounts> result = new HashMap<>();
+        for (Long orgId : orgIds) {
+            List<PracticeSession> orgSessions = sessions.stream()
+                    .filter(s -> orgId.equals(s.getOrganizationId())).toList();
+            result.put(orgId, OrgMonthCounts.of(
+                    orgSessions.stream().map(PracticeSession::getId).collect(Collectors.toSet()),
+                    orgSessions.stream().mapToInt(ParticipationRateAggregator::totalMatches).sum(),
+                    participatedByOrg.getOrDefault(orgId, Map.of()),
+                    memberIdsByOrg.getOrDefault(orgId, Set.of())));
+        }
+        return result;
+    }
+
+    private static int totalMatches(PracticeSession session) {
+        return session.getTotalMatches() != null ? session.getTotalMatches() : 0;
+    }
+
+    /**
+     * 参加者・練習日・所属が変わったことを反映する。即時に捨て、トランザクション中なら完了後にも捨てる
+     * （コミット前に他スレッドが読み直した古い値を残さないため）。
+     */
+    private void changed(Collection<Long> sessionIds, Collection<Long> orgIds) {
+        evict(sessionIds, orgIds);
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(TX_CHANGED_KEY);
+        if (pending == null) {
+            Pending created = new Pending();
+            pending = created;
+            TransactionSynchronizationManager.bindResource(TX_CHANGED_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_CHANGED_KEY);
+                    evict(created.sessionIds, created.orgIds);
+                }
+            });
+        }
+        pending.sessionIds.addAll(sessionIds);
+        pending.orgIds.addAll(orgIds);
+    }
+
+    private void evict(Collection<Long> sessionIds, Collection<Long> orgIds) {
+        if (sessionIds.isEmpty() && orgIds.isEmpty()) {
+            return;
+        }
+        generation.incrementAndGet();
+        cache.asMap().entrySet().removeIf(e -> orgIds.contains(e.getKey().organizationId())
+                || !Collections.disjoint(e.getValue().sessionIds(), sessionIds));
+    }
+
+    private static final class Pending {
+        final Set<Long> sessionIds = new HashSet<>();
+        final Set<Long> orgIds = new HashSet<>();
+    }
+
+    /**
+     * 1団体・1か月（集計日以前）の選手別有効参加数（不変）。
+     *
+     * @param participated 選手ID → 有効参加数（メンバー以外も含む。「全体」の合算用）
+     * @param ranked       メンバーのうち有効参加のある選手を参加数の降順に並べたもの
+     */
+    record OrgMonthCounts(Set<Long> sessionIds, int totalScheduledMatches, Map<Long, Integer> participated,
+                          Set<Long> memberIds, List<Ranked> ranked) {
+
+        static OrgMonthCounts of(Set<Long> sessionIds, int totalScheduledMatches,
+                                 Map<Long, Integer> participated, Set<Long> memberIds) {
+            List<Ranked> ranked = participated.entrySet().stream()
+                    .filter(e -> memberIds.contains(e.getKey()))
+                    .map(e -> new Ranked(e.getKey(), e.getValue()))
+                    .sorted(RANK_ORDER)
+                    .toList();
+            return new OrgMonthCounts(Set.copyOf(sessionIds), totalScheduledMatches, Map.copyOf(participated),
+                    Set.copyOf(memberIds), ranked);
+        }
+
+        /** 複数団体の合算（セッションは団体をまたがないため、参加数・予定試合数は単純に足せる） */
+        static OrgMonthCounts combine(List<OrgMonthCounts> parts) {
+            Set<Long> sessionIds = new HashSet<>();
+            Map<Long, Integer> participated = new HashMap<>();
+            Set<Long> memberIds = new HashSet<>();
+            int total = 0;
+            for (OrgMonthCounts part : parts) {
+                sessionIds.addAll(part.sessionIds());
+                part.participated().forEach((playerId, n) -> participated.merge(playerId, n, Integer::sum));
+                memberIds.addAll(part.memberIds());
+                total += part.totalScheduledMatches();
+            }
+            return of(sessionIds, total, participated, memberIds);
+        }
+    }
+}
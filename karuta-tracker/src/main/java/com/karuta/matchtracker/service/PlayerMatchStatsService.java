@@ -0,0 +1,379 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.RankStatisticsDto;
+import com.karuta.matchtracker.dto.StatisticsByRankDto;
+import com.karuta.matchtracker.entity.Match;
+import com.karuta.matchtracker.entity.Player;
+import com.karuta.matchtracker.entity.PlayerMatchStat;
+import com.karuta.matchtracker.repository.MatchRepository;
+import com.karuta.matchtracker.repository.PlayerMatchStatRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * 選手別の対戦成績集計（player_match_stats）の維持と、それを使った級別統計。
+ *
+ * <p>集計行は (選手, 対戦月, 対戦相手の対戦時の級・性別・利き手, 指導試合か) ごとの試合数・勝数・敗数。
+ * {@link MatchService} / {@link MatchPairingService} の試合の登録・更新・削除から同じトランザクション内で
+ * {@link #recordMatch} / {@link #removeMatch} / {@link #replaceMatch} が呼ばれて増減する。
+ * 対戦相手の性別・利き手は従来の統計と同じく「現在の値」で数えるため、選手の属性が変わったら
+ * {@link #refreshOpponentAttributes} でその選手と対戦した側の集計を作り直す。
+ *
+ * <p>級別統計は月単位の期間（フロントの月別・年別・全期間）なら集計行の読み出しだけで返す。
+ * 月の途中で始まる・終わる期間、または起動直後で集計表の構築前（{@link #isReady()} が false）の間は
+ * 従来どおり試合を読み込んで同じ規則で数える。
+ *
+ * <p>集計表は起動時に空なら全件から構築し、毎日作り直す（{@code PlayerMatchStatsScheduler}）。
+ * 作り直しと同時刻に登録された試合の差分は取りこぼし得るが、翌日の作り直しで正される。
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+@Transactional(readOnly = true)
+public class PlayerMatchStatsService {
+
+    private static final List<String> RANKS = List.of("A級", "B級", "C級", "D級", "E級");
+
+    /** 期間の片側が未指定のときの下限・上限 */
+    private static final LocalDate MIN_DATE = LocalDate.of(1900, 1, 1);
+    private static final LocalDate MAX_DATE = LocalDate.of(9999, 12, 31);
+
+    private final PlayerMatchStatRepository playerMatchStatRepository;
+    private final MatchRepository matchRepository;
+    private final PlayerRepository playerRepository;
+
+    private volatile boolean ready;
+
+    /**
+     * 集計に効く試合の項目のスナップショット。
+     * 更新前の値を取っておき、{@link #replaceMatch} で旧値の減算と新値の加算に使う。
+     */
+    public record MatchFacts(LocalDate matchDate, Long player1Id, Long player2Id, Long winnerId,
+                             boolean lesson, String player1KyuRank, String player2KyuRank) {
+
+        public static MatchFacts of(Match match) {
+            return new MatchFacts(match.getMatchDate(), match.getPlayer1Id(), match.getPlayer2Id(),
+                    match.getWinnerId(), Boolean.TRUE.equals(match.getIsLesson()),
+                    match.getPlayer1KyuRank(), match.getPlayer2KyuRank());
+        }
+
+        /** 両選手とも登録済みか（未登録の対戦相手との試合は統計の対象外） */
+        boolean betweenRegisteredPlayers() {
+            return player1Id != null && player1Id != 0L && player2Id != null && player2Id != 0L;
+        }
+    }
+
+    /** 集計行のキー（選手IDを除く） */
+    record Key(LocalDate month, String kyuRank, String gender, String dominantHand, boolean lesson) {}
+
+    /** 1試合を片方の選手から見た集計への寄与 */
+    record Contribution(Long playerId, Key key, int wins, int losses) {}
+
+    /** 集計値 */
+    static final class Tally {
+        long matches;
+        long wins;
+        long losses;
+
+        void add(long m, long w, long l) {
+            matches += m;
+            wins += w;
+            losses += l;
+        }
+    }
+
+    /** 集計表が構築済みで統計の読み出しに使えるか */
+    public boolean isReady() {
+        return ready;
+    }
+
+    // ===== 差分更新 =====
+
+    /** 試合1件を集計に加える */
+    @Transactional
+    public void recordMatch(MatchFacts facts) {
+        apply(facts, true);
+    }
+
+    /** 試合1件を集計から除く */
+    @Transactional
+    public void removeMatch(MatchFacts facts) {
+        apply(facts, false);
+    }
+
+    /** 更新された試合の旧値を除いて新値を加える（集計に効く項目が変わっていなければ何もしない） */
+    @Transactional
+    public void replaceMatch(MatchFacts before, MatchFacts after) {
+        if (before.equals(after)) {
+            return;
+        }
+        apply(before, false);
+        apply(after, true);
+    }
+
+    private void apply(MatchFacts facts, boolean add) {
+        if (!facts.betweenRegisteredPlayers()) {
+            return;
+        }
+        Map<Long, Player> players = loadPlayers(List.of(facts.player1Id(), facts.player2Id()));
+        LocalDateTime now = JstDateTimeUtil.now();
+        for (Contribution c : contributions(facts, players)) {
+            Key k = c.key();
+            if (add) {
+                playerMatchStatRepository.increment(c.playerId(), k.month(), k.kyuRank(), k.gender(),
+                        k.dominantHand(), k.lesson(), c.wins(), c.losses(), now);
+            } else {
+                playerMatchStatRepository.decrement(c.playerId(), k.month(), k.kyuRank(), k.gender(),
+                        k.dominantHand(), k.lesson(), c.wins(), c.losses(), now);
+            }
+        }
+    }
+
+    // ===== 構築 =====
+
+    /** 集計表が空なら全件から構築する（起動時のバックフィル）。空でなければそのまま使う */
+    @Transactional
+    public void backfillIfEmpty() {
+        if (playerMatchStatRepository.count() > 0) {
+            ready = true;
+            log.info("選手別対戦集計: 構築済みのためバックフィルをスキップ");
+            return;
+        }
+        rebuildAll();
+    }
+
+    /** 全試合から集計表を作り直す */
+    @Transactional
+    public void rebuildAll() {
+        long start = System.currentTimeMillis();
+        List<Match> matches = matchRepository.findAll();
+        Map<Long, Player> players = playerRepository.findAll().stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity()));
+
+        Map<Long, Map<Key, Tally>> byPlayer = new HashMap<>();
+        for (Match match : matches) {
+            for (Contribution c : contributions(MatchFacts.of(match), players)) {
+                byPlayer.computeIfAbsent(c.playerId(), k -> new HashMap<>())
+                        .computeIfAbsent(c.key(), k -> new Tally())
+                        .add(1, c.wins(), c.losses());
+            }
+        }
+
+        playerMatchStatRepository.deleteAllInBatch();
+        List<PlayerMatchStat> rows = new ArrayList<>();
+        byPlayer.forEach((playerId, tallies) -> rows.addAll(toEntities(playerId, tallies)));
+        playerMatchStatRepository.saveAll(rows);
+        markReadyAfterCommit();
+        log.info("選手別対戦集計: 再構築完了 matches={}, rows={}, elapsed={}ms",
+                matches.size(), rows.size(), System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 指定選手と対戦した選手の集計を作り直す。
+     * 選手の性別・利き手・級が変わったときに呼ぶ（相手側の集計キーが変わるため）。
+     */
+    @Transactional
+    public void refreshOpponentAttributes(Long playerId) {
+        Set<Long> counterparts = new TreeSet<>();
+        for (Match match : matchRepository.findByPlayerId(playerId)) {
+            Long other = playerId.equals(match.getPlayer1Id()) ? match.getPlayer2Id() : match.getPlayer1Id();
+            if (other != null && other != 0L) {
+                counterparts.add(other);
+            }
+        }
+        counterparts.forEach(this::rebuildForPlayer);
+        log.info("選手別対戦集計: 選手 {} の属性変更により {} 人分を再構築", playerId, counterparts.size());
+    }
+
+    private void rebuildForPlayer(Long playerId) {
+        Map<Key, Tally> tallies = tally(playerId, matchRepository.findByPlayerId(playerId));
+        playerMatchStatRepository.deleteByPlayerId(playerId);
+        playerMatchStatRepository.saveAll(toEntities(playerId, tallies));
+    }
+
+    // ===== 参照 =====
+
+    /**
+     * 選手の級別統計を取得する（総計・A〜E級・指導回数・被指導回数）。
+     * 対戦相手が未登録の試合は除く。対戦相手の級は対戦時の級、未記録なら現在の級で数える。
+     *
+     * @param gender       対戦相手の性別で絞り込む（null/空=絞り込まない）
+     * @param dominantHand 対戦相手の利き手で絞り込む（null/空=絞り込まない）
+     * @param startDate    開始日（null=下限なし）
+     * @param endDate      終了日（null=上限なし）
+     */
+    public StatisticsByRankDto getStatisticsByRank(Long playerId, String gender, String dominantHand,
+                                                   LocalDate startDate, LocalDate endDate) {
+        Map<Key, Tally> tallies;
+        if (ready && isMonthAligned(startDate, endDate)) {
+            LocalDate fromMonth = startDate != null ? startDate : MIN_DATE;
+            LocalDate toMonth = endDate != null ? endDate.withDayOfMonth(1) : MAX_DATE;
+            tallies = new HashMap<>();
+            for (PlayerMatchStat row : playerMatchStatRepository.findByPlayerIdAndMonthRange(playerId, fromMonth, toMonth)) {
+                Key key = new Key(row.getMatchMonth(), row.getOpponentKyuRank(), row.getOpponentGender(),
+                        row.getOpponentDominantHand(), Boolean.TRUE.equals(row.getIsLesson()));
+                tallies.computeIfAbsent(key, k -> new Tally())
+                        .add(row.getMatchCount(), row.getWinCount(), row.getLossCount());
+            }
+        } else {
+            List<Match> matches = (startDate == null && endDate == null)
+                    ? matchRepository.findByPlayerId(playerId)
+                    : matchRepository.findByPlayerIdAndDateRange(playerId,
+                            startDate != null ? startDate : MIN_DATE, endDate != null ? endDate : MAX_DATE);
+            tallies = tally(playerId, matches);
+        }
+        return summarize(tallies, gender, dominantHand);
+    }
+
+    /** 期間が月単位（開始が月初・終了が月末、または未指定）か */
+    static boolean isMonthAligned(LocalDate startDate, LocalDate endDate) {
+        return (startDate == null || startDate.getDayOfMonth() == 1)
+                && (endDate == null || endDate.equals(endDate.with(TemporalAdjusters.lastDayOfMonth())));
+    }
+
+    static StatisticsByRankDto summarize(Map<Key, Tally> tallies, String gender, String dominantHand) {
+        Tally total = new Tally();
+        Map<String, Tally> byRank = new HashMap<>();
+        long lessonGiven = 0;
+        long lessonReceived = 0;
+        for (Map.Entry<Key, Tally> e : tallies.entrySet()) {
+            Key key = e.getKey();
+            Tally t = e.getValue();
+            if (gender != null && !gender.isEmpty() && !gender.equals(key.gender())) {
+                continue;
+            }
+            if (dominantHand != null && !dominantHand.isEmpty() && !dominantHand.equals(key.dominantHand())) {
+                continue;
+            }
+            total.add(t.matches, t.wins, t.losses);
+            byRank.computeIfAbsent(key.kyuRank(), k -> new Tally()).add(t.matches, t.wins, t.losses);
+            // 指導試合は winner_id ベースで勝敗が決まる: 勝ち=指導した側、負け=指導された側
+            if (key.lesson()) {
+                lessonGiven += t.wins;
+                lessonReceived += t.losses;
+            }
+        }
+
+        Map<String, RankStatisticsDto> byRankMap = new LinkedHashMap<>();
+        for (String rank : RANKS) {
+            Tally t = byRank.getOrDefault(rank, new Tally());
+            byRankMap.put(rank, RankStatisticsDto.create(rank, t.matches, t.wins));
+        }
+        return StatisticsByRankDto.builder()
+                .total(RankStatisticsDto.create("総計", total.matches, total.wins))
+                .byRank(byRankMap)
+                .lessonGivenCount(lessonGiven)
+                .lessonReceivedCount(lessonReceived)
+                .build();
+    }
+
+    // ===== 共通 =====
+
+    /** 指定選手から見た試合群の集計（対戦相手はまとめて1回で引く） */
+    private Map<Key, Tally> tally(Long playerId, List<Match> matches) {
+        Set<Long> opponentIds = new HashSet<>();
+        for (Match match : matches) {
+            opponentIds.add(match.getPlayer1Id());
+            opponentIds.add(match.getPlayer2Id());
+        }
+        opponentIds.remove(playerId);
+        opponentIds.remove(0L);
+        opponentIds.remove(null);
+        Map<Long, Player> players = loadPlayers(opponentIds);
+
+        Map<Key, Tally> tallies = new HashMap<>();
+        for (Match match : matches) {
+            for (Contribution c : contributions(MatchFacts.of(match), players)) {
+                if (playerId.equals(c.playerId())) {
+                    tallies.computeIfAbsent(c.key(), k -> new Tally()).add(1, c.wins(), c.losses());
+                }
+            }
+        }
+        return tallies;
+    }
+
+    /**
+     * 試合1件の両選手それぞれから見た寄与。対戦相手が未登録・見つからない側は寄与しない。
+     *
+     * @param players 対戦相手を含む選手（ID → 選手）
+     */
+    private static List<Contribution> contributions(MatchFacts facts, Map<Long, Player> players) {
+        if (!facts.betweenRegisteredPlayers() || facts.matchDate() == null) {
+            return List.of();
+        }
+        List<Contribution> result = new ArrayList<>(2);
+        addContribution(result, facts, facts.player1Id(), players.get(facts.player2Id()), facts.player2KyuRank());
+        addContribution(result, facts, facts.player2Id(), players.get(facts.player1Id()), facts.player1KyuRank());
+        return result;
+    }
+
+    private static void addContribution(List<Contribution> result, MatchFacts facts, Long playerId,
+                                        Player opponent, String opponentRankAtMatch) {
+        if (opponent == null) {
+            return;
+        }
+        // 保存された対戦時の級を優先し、無ければ現在の級
+        String rank = opponentRankAtMatch != null ? opponentRankAtMatch
+                : opponent.getKyuRank() != null ? opponent.getKyuRank().name() : "";
+        Key key = new Key(facts.matchDate().withDayOfMonth(1), rank,
+                opponent.getGender() != null ? opponent.getGender().name() : "",
+                opponent.getDominantHand() != null ? opponent.getDominantHand().name() : "",
+                facts.lesson());
+        Long winnerId = facts.winnerId();
+        boolean draw = winnerId == null || winnerId == 0L;
+        int wins = !draw && winnerId.equals(playerId) ? 1 : 0;
+        int losses = !draw && !winnerId.equals(playerId) ? 1 : 0;
+        result.add(new Contribution(playerId, key, wins, losses));
+    }
+
+    private Map<Long, Player> loadPlayers(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return playerRepository.findAllById(new ArrayList<>(ids)).stream()
+                .collect(Collectors.toMap(Player::getId, Function.identity(), (a, b) -> a));
+    }
+
+    private static List<PlayerMatchStat> toEntities(Long playerId, Map<Key, Tally> tallies) {
+        List<PlayerMatchStat> rows = new ArrayList<>(tallies.size());
+        tallies.forEach((key, t) -> rows.add(PlayerMatchStat.builder()
+                .playerId(playerId)
+                .matchMonth(key.month())
+                .opponentKyuRank(key.kyuRank())
+                .opponentGender(key.gender())
+                .opponentDominantHand(key.dominantHand())
+                .isLesson(key.lesson())
+                .matchCount((int) t.matches)
+                .winCount((int) t.wins)
+                .lossCount((int) t.losses)
+                .build()));
+        return rows;
+    }
+
+    /** 構築したトランザクションのコミット後に参照を解禁する（ロールバック時に空の表を読ませないため） */
+    private void markReadyAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            ready = true;
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                ready = true;
+            }
+        });
+    }
+}
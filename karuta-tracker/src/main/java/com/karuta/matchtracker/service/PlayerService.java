@@ -44,6 +44,7 @@ public class PlayerService {
     private final PasswordEncoder passwordEncoder;
     private final PasswordPolicy passwordPolicy;
     private final AuthTokenService authTokenService;
+    private final PlayerMatchStatsService playerMatchStatsService;
 
     /**
      * 全てのアクティブな選手を取得（名前順）
@@ -186,8 +187,10 @@ public class PlayerService {
         boolean passwordChanged = request.getPassword() != null;
         String encodedPassword = passwordChanged ? passwordPolicy.encode(request.getPassword()) : null;
 
+        String attributesBefore = statsAttributes(player);
         request.applyTo(player, encodedPassword);
         Player updated = playerRepository.save(player);
+        refreshMatchStatsIfAttributesChanged(updated, attributesBefore);
 
         // パスワード変更時は発行済みトークンをすべて失効させる（AC-12）
         if (passwordChanged) {
@@ -260,6 +263,7 @@ public class PlayerService {
             }
 
             // players 列の更新（指定された項目のみ反映）
+            String attributesBefore = statsAttributes(player);
             if (item.getGender() != null) {
                 player.setGender(item.getGender());
             }
@@ -273,6 +277,7 @@ public class PlayerService {
                 player.setKarutaClub(item.getKarutaClub());
             }
             playerRepository.save(player);
+            refreshMatchStatsIfAttributesChanged(player, attributesBefore);
 
             // 所属団体の追加（追加のみ・冪等）
             List<Long> existingOrgIds = existingOrgIdsByPlayerId
@@ -338,6 +343,9 @@ public class PlayerService {
         player.setRole(newRole);
         Player updated = playerRepository.save(player);
 
+        // 認証キャッシュのロールを捨て、次のリクエストから新しいロールで判定させる
+        authTokenService.invalidateCachedPlayer(id);
+
         log.info("Successfully updated role for player id: {}", id);
         return PlayerDto.fromEntity(updated);
     }
@@ -389,4 +397,16 @@ public class PlayerService {
     public void logout(String rawToken) {
         authTokenService.revoke(rawToken);
     }
+
+    /** 対戦成績集計のキーになる選手属性（性別・利き手・級）の比較用文字列 */
+    private static String statsAttributes(Player player) {
+        return player.getGender() + "/" + player.getDominantHand() + "/" + player.getKyuRank();
+    }
+
+    /** 性別・利き手・級が変わったら、この選手と対戦した側の対戦成績集計を作り直す */
+    private void refreshMatchStatsIfAttributesChanged(Player player, String attributesBefore) {
+        if (!attributesBefore.equals(statsAttributes(player))) {
+            playerMatchStatsService.refreshOpponentAttributes(player.getId());
+        }
+    }
 }
@@ -14,7 +14,6 @@ import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.PlayerOrganizationRepository;
 import com.karuta.matchtracker.repository.PlayerRepository;
-import com.karuta.matchtracker.entity.PlayerOrganization;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Lazy;
 import org.springframework.stereotype.Service;
@@ -64,6 +63,9 @@ public class PracticeParticipantService {
     private final LineNotificationService lineNotificationService;
     private final OrganizationService organizationService;
     private final DensukeDeletionCandidateRepository densukeDeletionCandidateRepository;
+    private final SeatOccupancyService seatOccupancyService;
+    private final IcalFeedVersionService icalFeedVersionService;
+    private final ParticipationRateAggregator participationRateAggregator;
 
     public PracticeParticipantService(
             PracticeParticipantRepository practiceParticipantRepository,
@@ -75,7 +77,10 @@ public class PracticeParticipantService {
             PlayerOrganizationRepository playerOrganizationRepository,
             LineNotificationService lineNotificationService,
             OrganizationService organizationService,
-            DensukeDeletionCandidateRepository densukeDeletionCandidateRepository) {
+            DensukeDeletionCandidateRepository densukeDeletionCandidateRepository,
+            SeatOccupancyService seatOccupancyService,
+            IcalFeedVersionService icalFeedVersionService,
+            ParticipationRateAggregator participationRateAggregator) {
         this.practiceParticipantRepository = practiceParticipantRepository;
         this.practiceSessionRepository = practiceSessionRepository;
         this.playerRepository = playerRepository;
@@ -86,6 +91,9 @@ public class PracticeParticipantService {
         this.lineNotificationService = lineNotificationService;
         this.organizationService = organizationService;
         this.densukeDeletionCandidateRepository = densukeDeletionCandidateRepository;
+        this.seatOccupancyService = seatOccupancyService;
+        this.icalFeedVersionService = icalFeedVersionService;
+        this.participationRateAggregator = participationRateAggregator;
     }
 
     /**
@@ -479,6 +487,10 @@ public class PracticeParticipantService {
             practiceParticipantRepository.softDeleteByPlayerIdAndSessionIds(
                     request.getPlayerId(), allMonthSessionIds, JstDateTimeUtil.now());
             practiceParticipantRepository.flush();
+            // 一括 UPDATE はエンティティリスナーを通らないため、枠取得状況・参加率・iCal フィードの版番号へ直接知らせる
+            seatOccupancyService.markChanged(allMonthSessionIds);
+            participationRateAggregator.markSessionsChanged(allMonthSessionIds);
+            icalFeedVersionService.markPlayerChanged(request.getPlayerId());
         }
 
         int registered = 0;
@@ -608,13 +620,12 @@ public class PracticeParticipantService {
     public boolean isFreeRegistrationOpen(PracticeSession session, Integer matchNumber) {
         if (session == null) return false;
         if (session.getCapacity() == null) return true;
-        long wonCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                session.getId(), matchNumber, ParticipantStatus.WON);
-        long offeredCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                session.getId(), matchNumber, ParticipantStatus.OFFERED);
-        if (wonCount + offeredCount >= session.getCapacity()) return false;
-        return !practiceParticipantRepository.existsBySessionIdAndMatchNumberAndStatus(
-                session.getId(), matchNumber, ParticipantStatus.WAITLISTED);
+        // WON/OFFERED の人数とキャンセル待ちの有無を1クエリで判定する
+        SeatOccupancyService.SessionSeats seats = seatOccupancyService.current(session.getId());
+        if (seats.count(matchNumber, ParticipantStatus.WON, ParticipantStatus.OFFERED) >= session.getCapacity()) {
+            return false;
+        }
+        return seats.count(matchNumber, ParticipantStatus.WAITLISTED) == 0;
     }
 
     @Transactional(readOnly = true)
@@ -836,82 +847,6 @@ public class PracticeParticipantService {
         return buildParticipationRates(sessions, allParticipants, null, loadActivePlayerNames());
     }
 
-    // === 団体別参加率グループ（ホーム画面用） ===
-
-    /**
-     * ホーム画面の参加率グループ（団体別 top3 + 自分の参加率）を一括構築する。
-     *
-     * 月間データ（セッション・参加者・団体メンバー・プレイヤー名）を1回だけロードし、
-     * 全グループをメモリ上で導出する。以前はグループ ×（top3 / myRate）ごとに同じ月間データを
-     * 再ロードしており（最大6回のフル再計算）、DB との RTT が大きい環境で /api/home が
-     * 数十秒かかる原因になっていた。
-     *
-     * グループ構成:
-     * <ul>
-     *   <li>1団体所属: その団体のみ（団体名はフロント側で非表示）</li>
-     *   <li>複数団体所属: 「全体」（全団体合算）+ 各団体</li>
-     * </ul>
-     * myRate は各グループの全参加率リストから対象プレイヤーを引き当てる（top3 圏外でも再計算しない）。
-     */
-    @Transactional(readOnly = true)
-    public List<ParticipationGroupDto> getParticipationGroups(Long playerId, int year, int month,
-                                                              List<OrganizationDto> organizations) {
-        if (organizations.isEmpty()) {
-            return List.of();
-        }
-        LocalDate today = JstDateTimeUtil.today();
-        List<Long> orgIds = organizations.stream().map(OrganizationDto::getId).toList();
-
-        // 月間データを1回だけロード
-        List<PracticeSession> allSessions = practiceSessionRepository
-                .findByOrganizationIdInAndYearAndMonth(orgIds, year, month).stream()
-                .filter(s -> !s.getSessionDate().isAfter(today)).toList();
-        List<Long> allSessionIds = allSessions.stream().map(PracticeSession::getId).toList();
-        List<PracticeParticipant> allParticipants = allSessionIds.isEmpty()
-                ? List.of()
-                : practiceParticipantRepository.findBySessionIdIn(allSessionIds);
-        Map<Long, Set<Long>> memberIdsByOrg = playerOrganizationRepository.findByOrganizationIdIn(orgIds).stream()
-                .collect(Collectors.groupingBy(PlayerOrganization::getOrganizationId,
-                        Collectors.mapping(PlayerOrganization::getPlayerId, Collectors.toSet())));
-        Map<Long, String> names = loadActivePlayerNames();
-
-        List<ParticipationGroupDto> groups = new ArrayList<>();
-        if (organizations.size() > 1) {
-            // 全体（全団体合算）
-            Set<Long> allMemberIds = memberIdsByOrg.values().stream()
-                    .flatMap(Set::stream).collect(Collectors.toSet());
-            groups.add(buildGroup(playerId, null, "全体", allSessions, allParticipants, allMemberIds, names));
-        }
-        for (OrganizationDto org : organizations) {
-            List<PracticeSession> orgSessions = allSessions.stream()
-                    .filter(s -> org.getId().equals(s.getOrganizationId())).toList();
-            Set<Long> orgSessionIds = orgSessions.stream()
-                    .map(PracticeSession::getId).collect(Collectors.toSet());
-            List<PracticeParticipant> orgParticipants = allParticipants.stream()
-                    .filter(pp -> orgSessionIds.contains(pp.getSessionId())).toList();
-            groups.add(buildGroup(playerId, org.getId(), org.getName(), orgSessions, orgParticipants,
-                    memberIdsByOrg.getOrDefault(org.getId(), Set.of()), names));
-        }
-        return groups;
-    }
-
-    private ParticipationGroupDto buildGroup(Long playerId, Long orgId, String orgName,
-                                             List<PracticeSession> sessions,
-                                             List<PracticeParticipant> participants,
-                                             Set<Long> memberPlayerIds,
-                                             Map<Long, String> names) {
-        List<ParticipationRateDto> rates = buildParticipationRates(sessions, participants, memberPlayerIds, names);
-        List<ParticipationRateDto> top3 = rates.stream().sorted(RATE_ORDER).limit(3).toList();
-        ParticipationRateDto myRate = rates.stream()
-                .filter(r -> r.getPlayerId().equals(playerId)).findFirst().orElse(null);
-        return ParticipationGroupDto.builder()
-                .organizationId(orgId)
-                .organizationName(orgName)
-                .top3(top3)
-                .myRate(myRate)
-                .build();
-    }
-
     private Map<Long, String> loadActivePlayerNames() {
         return playerRepository.findAllActive().stream()
                 .collect(Collectors.toMap(Player::getId, Player::getName));
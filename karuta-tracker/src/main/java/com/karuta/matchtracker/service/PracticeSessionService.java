@@ -27,6 +27,7 @@ import com.karuta.matchtracker.repository.VenueRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.support.TransactionSynchronization;
 import org.springframework.transaction.support.TransactionSynchronizationManager;
@@ -72,6 +73,8 @@ public class PracticeSessionService {
     private final AdjacentRoomService adjacentRoomService;
     private final WaitlistPromotionService waitlistPromotionService;
     private final LotteryDeadlineHelper lotteryDeadlineHelper;
+    private final SeatOccupancyService seatOccupancyService;
+    private final SessionSummaryCache sessionSummaryCache;
 
     /**
      * IDで練習日を取得
@@ -157,20 +160,32 @@ public class PracticeSessionService {
 
     /**
      * 特定の年月の練習日サマリーを取得（カレンダー表示用・軽量）
-     * 参加者詳細情報なし、会場名のみ付与
+     * 参加者詳細情報なし、会場名のみ付与。
+     * 結果は (所属団体, 年月) ごとに {@link SessionSummaryCache} で相乗り・短時間キャッシュする
+     * （返すリストは変更不可で、要求間で共有される）。
+     * 相乗りして待つ要求が DB 接続を握らないよう、トランザクションの外で実行する
+     * （読み込みはキャッシュが読み取り専用トランザクションで囲む）。
      */
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<PracticeSessionDto> findSessionSummariesByYearMonth(int year, int month, Long playerId) {
         log.debug("Finding practice session summaries for {}-{}", year, month);
         YearMonth yearMonth = YearMonth.of(year, month);
-        List<PracticeSession> sessions;
+        List<Long> orgIds = null;
         if (playerId != null) {
-            List<Long> orgIds = organizationService.getPlayerOrganizationIds(playerId);
+            orgIds = organizationService.getPlayerOrganizationIds(playerId);
             if (orgIds.isEmpty()) return List.of();
-            sessions = practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(orgIds, yearMonth.getYear(), yearMonth.getMonthValue());
-        } else {
-            sessions = practiceSessionRepository.findByYearAndMonth(yearMonth.getYear(), yearMonth.getMonthValue());
         }
+        List<Long> scope = orgIds;
+        return sessionSummaryCache.get(scope, yearMonth, () -> loadSessionSummaries(yearMonth, scope));
+    }
+
+    /** 月間サマリーを DB から組み立てる（orgIds が null なら全団体） */
+    private List<PracticeSessionDto> loadSessionSummaries(YearMonth yearMonth, List<Long> orgIds) {
+        int year = yearMonth.getYear();
+        int month = yearMonth.getMonthValue();
+        List<PracticeSession> sessions = orgIds != null
+                ? practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(orgIds, year, month)
+                : practiceSessionRepository.findByYearAndMonth(year, month);
 
         // 会場名だけ付与（参加者のenrichmentはスキップ）
         List<Long> venueIds = sessions.stream()
@@ -184,39 +199,24 @@ public class PracticeSessionService {
                 : venueRepository.findAllById(venueIds).stream()
                     .collect(Collectors.toMap(Venue::getId, v -> v));
 
-        // 試合別定員到達状況の集計のため、月内全セッションの参加者を一括取得（N+1回避）。
+        // 試合別定員到達状況の集計。月内全セッション分を試合別枠取得状況から一括で引く（未保持分だけ1クエリ）。
         // 集計失敗時は matchCapacityStatuses を null のまま返し、カレンダー本体表示を阻害しない（防御的挙動）。
         List<Long> sessionIds = sessions.stream()
                 .map(PracticeSession::getId)
                 .collect(Collectors.toList());
-        Map<Long, Map<Integer, Long>> effectiveCountMap;
+        Map<Long, SeatOccupancyService.SessionSeats> seatsMap;
         boolean capacityAggregationFailed = false;
         if (sessionIds.isEmpty()) {
-            effectiveCountMap = Map.of();
+            seatsMap = Map.of();
         } else {
             try {
-                // セッションID × 試合番号 → 実質枠取得人数（WON + PENDING + OFFERED）
                 // matchNumber == null は BYE（抜け番）扱い。既存の enrichDtoWithMatchDetails と
-                // 同じ運用に揃えるため試合別集計から除外する（エンティティのコメントとは異なるが
+                // 同じ運用に揃えるため試合別集計には含まれない（エンティティのコメントとは異なるが
                 // 実運用に整合）。
-                effectiveCountMap = practiceParticipantRepository.findBySessionIdIn(sessionIds).stream()
-                        .filter(p -> p.getMatchNumber() != null)
-                        .filter(p -> {
-                            ParticipantStatus s = p.getStatus();
-                            return s == ParticipantStatus.WON
-                                    || s == ParticipantStatus.PENDING
-                                    || s == ParticipantStatus.OFFERED;
-                        })
-                        .collect(Collectors.groupingBy(
-                                PracticeParticipant::getSessionId,
-                                Collectors.groupingBy(
-                                        PracticeParticipant::getMatchNumber,
-                                        Collectors.counting()
-                                )
-                        ));
+                seatsMap = seatOccupancyService.snapshot(sessionIds);
             } catch (Exception e) {
                 log.warn("Failed to aggregate matchCapacityStatuses for {}-{}; falling back to null", year, month, e);
-                effectiveCountMap = Map.of();
+                seatsMap = Map.of();
                 capacityAggregationFailed = true;
             }
         }
@@ -238,7 +238,7 @@ public class PracticeSessionService {
                             Collectors.mapping(DensukeDeletionCandidate::getMatchNumber, Collectors.toList())));
         }
 
-        final Map<Long, Map<Integer, Long>> finalEffectiveCountMap = effectiveCountMap;
+        final Map<Long, SeatOccupancyService.SessionSeats> finalSeatsMap = seatsMap;
         final boolean finalAggregationFailed = capacityAggregationFailed;
         final Map<String, List<Integer>> finalPendingDeletionsByOrgAndDate = pendingDeletionsByOrgAndDate;
         return sessions.stream().map(session -> {
@@ -250,7 +250,7 @@ public class PracticeSessionService {
             if (!finalAggregationFailed) {
                 Integer venueDefaultCapacity = venue != null ? venue.getCapacity() : null;
                 dto.setMatchCapacityStatuses(computeMatchCapacityStatuses(session,
-                        finalEffectiveCountMap.getOrDefault(session.getId(), Map.of()),
+                        finalSeatsMap.getOrDefault(session.getId(), SeatOccupancyService.SessionSeats.EMPTY),
                         venueDefaultCapacity));
             }
             dto.setDensukeDeletionCandidateMatchNumbers(finalPendingDeletionsByOrgAndDate.get(
@@ -271,10 +271,10 @@ public class PracticeSessionService {
      *   - 0 < (capacity - effectiveCount) <= 2 → NEARLY_FULL
      *   - それ以外 → AVAILABLE
      *
-     * effectiveCount は WON + PENDING + OFFERED の合計（呼び出し側で算出済み）。
+     * effectiveCount は WON + PENDING + OFFERED の合計（{@link SeatOccupancyService.SessionSeats#occupied}）。
      */
     private List<PracticeSessionDto.CapacityStatus> computeMatchCapacityStatuses(
-            PracticeSession session, Map<Integer, Long> effectiveCountByMatch,
+            PracticeSession session, SeatOccupancyService.SessionSeats seats,
             Integer venueDefaultCapacity) {
         Integer capacity = session.getCapacity();
         if (capacity == null) {
@@ -290,7 +290,7 @@ public class PracticeSessionService {
 
         List<PracticeSessionDto.CapacityStatus> statuses = new java.util.ArrayList<>(totalMatches);
         for (int matchNumber = 1; matchNumber <= totalMatches; matchNumber++) {
-            long effectiveCount = effectiveCountByMatch.getOrDefault(matchNumber, 0L);
+            long effectiveCount = seats.occupied(matchNumber);
             long remaining = capacity - effectiveCount;
             if (remaining <= 0) {
                 statuses.add(PracticeSessionDto.CapacityStatus.FULL);
@@ -0,0 +1,157 @@
+package com.karuta.matchtracker.service;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 練習枠（セッション×試合番号）単位の排他ロック。
+ *
+ * <p>当日補充参加のように「空き枠を数えてから WON を作る」処理を、同じ枠どうしでだけ直列化する。
+ * 別セッション・別試合の参加は互いに待たない。
+ *
+ * <ul>
+ *   <li><b>プロセス内:</b> 固定本数のストライプ化 {@link ReentrantLock}。枠キーのハッシュで1本を選ぶ。</li>
+ *   <li><b>プロセス間:</b> PostgreSQL の {@code pg_advisory_xact_lock}。複数インスタンス構成でも同じ枠は直列になる。</li>
+ * </ul>
+ *
+ * <p>どちらのロックもトランザクション完了（コミット/ロールバック）まで保持する。
+ * メソッド末尾で解放すると、コミット前に次のスレッドが未コミットの WON を見落として定員を超えるため。
+ * トランザクション外で呼ばれた場合はアドバイザリロックを取らず、{@link Handle#close()} でプロセス内ロックだけを解放する。
+ *
+ * <p>複数試合をまとめて取る場合はストライプ番号・アドバイザリキーとも昇順で取得し、デッドロックを避ける。
+ */
+@Component
+@RequiredArgsConstructor
+public class PracticeSlotLock {
+
+    private static final int STRIPES = 64;
+    private static final long WAIT_SECONDS = 10;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ReentrantLock[] locks = newStripes();
+
+    /**
+     * 1枠分のロックを取得する。
+     *
+     * @throws IllegalStateException 一定時間内にロックを取得できなかった場合
+     */
+    public Handle acquire(Long sessionId, int matchNumber) {
+        return acquire(sessionId, List.of(matchNumber));
+    }
+
+    /**
+     * 同一セッションの複数枠のロックをまとめて取得する。
+     *
+     * @throws IllegalStateException 一定時間内にロックを取得できなかった場合
+     */
+    public Handle acquire(Long sessionId, Collection<Integer> matchNumbers) {
+        int[] stripes = matchNumbers.stream()
+                .mapToInt(m -> stripe(sessionId, m))
+                .distinct().sorted().toArray();
+        long[] keys = matchNumbers.stream()
+                .mapToLong(m -> advisoryKey(sessionId, m))
+                .distinct().sorted().toArray();
+
+        int locked = 0;
+        try {
+            for (int s : stripes) {
+                if (!locks[s].tryLock(WAIT_SECONDS, TimeUnit.SECONDS)) {
+                    throw new IllegalStateException("混雑しています。時間をおいて再度お試しください。");
+                }
+                locked++;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            unlock(stripes, locked);
+            throw new IllegalStateException("参加登録が中断されました。", e);
+        } catch (RuntimeException e) {
+            unlock(stripes, locked);
+            throw e;
+        }
+
+        Handle handle = new Handle(stripes);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    handle.release();
+                }
+            });
+            handle.boundToTransaction = true;
+        }
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                for (long key : keys) {
+                    jdbcTemplate.queryForList("SELECT pg_advisory_xact_lock(?)", key);
+                }
+            } catch (RuntimeException e) {
+                // ロールバック時の afterCompletion でも解放されるが、登録前提に依存しないようここで解放する
+                handle.release();
+                throw e;
+            }
+        }
+        return handle;
+    }
+
+    static int stripe(Long sessionId, int matchNumber) {
+        int h = Long.hashCode(sessionId) * 31 + matchNumber;
+        h ^= (h >>> 16);
+        return h & (STRIPES - 1);
+    }
+
+    /** 上位48bit をセッションID、下位16bit を試合番号とするアドバイザリロックキー */
+    static long advisoryKey(Long sessionId, int matchNumber) {
+        return (sessionId << 16) | (matchNumber & 0xFFFF);
+    }
+
+    private static ReentrantLock[] newStripes() {
+        ReentrantLock[] stripes = new ReentrantLock[STRIPES];
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new ReentrantLock();
+        }
+        return stripes;
+    }
+
+    private void unlock(int[] stripes, int count) {
+        for (int i = count - 1; i >= 0; i--) {
+            locks[stripes[i]].unlock();
+        }
+    }
+
+    /**
+     * 取得済みロックのハンドル。トランザクションに紐づいている場合は完了時に解放され、
+     * {@link #close()} は何もしない。
+     */
+    public final class Handle implements AutoCloseable {
+        private final int[] stripes;
+        private boolean boundToTransaction;
+        private boolean released;
+
+        private Handle(int[] stripes) {
+            this.stripes = stripes;
+        }
+
+        private void release() {
+            if (released) {
+                return;
+            }
+            released = true;
+            unlock(stripes, stripes.length);
+        }
+
+        @Override
+        public void close() {
+            if (!boundToTransaction) {
+                release();
+            }
+        }
+    }
+}
@@ -3,35 +3,112 @@ package com.karuta.matchtracker.service;
 import com.karuta.matchtracker.config.WebPushConfig;
 import com.karuta.matchtracker.entity.PushSubscription;
 import com.karuta.matchtracker.repository.PushSubscriptionRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import nl.martijndwars.webpush.Encoding;
 import nl.martijndwars.webpush.Notification;
 import nl.martijndwars.webpush.PushService;
-import org.apache.http.HttpResponse;
+import org.apache.http.Header;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.util.EntityUtils;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.springframework.stereotype.Service;
 
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
 import java.security.Security;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Deque;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 /**
  * Web Push通知サービス（VAPID署名付き）
  *
  * nl.martijndwars:web-push ライブラリを使用して
  * RFC 8030準拠のWeb Push通知を送信する。
+ *
+ * <p>送信は {@link #deliverAll(List)} でまとめて行う。ライブラリの {@code PushService.send} は
+ * 1通ごとに HTTP クライアントを作って接続し直し、結果が返るまで呼び出しスレッドを止めるため使わない。
+ * 代わりに次の流れで送る。
+ * <ol>
+ *   <li>宛先プレイヤーの購読を1回のクエリで取得する</li>
+ *   <li>VAPID 署名とペイロード暗号化（ECDH + AES-GCM）を {@link #ENCRYPT_THREADS} 本の専用スレッドで並列に行う</li>
+ *   <li>HTTP/2 対応の {@link HttpClient} を1つ共有して非同期に送る。Push サービスのホストごとに
+ *       同時送信数を {@link #MAX_IN_FLIGHT_PER_HOST} に抑え、超えた分はホストごとの待ち行列に並べる</li>
+ *   <li>期限切れ（404/410）の購読はバッチの最後に1回の一括削除で消す</li>
+ * </ol>
+ *
+ * <p>バッチには開始時点から {@link #BATCH_TIMEOUT} の期限があり、暗号化待ち・ホストの待ち行列に
+ * 並んでいた時間も含めて数える。期限を過ぎた送信は始めずに捨て、送信中のものは待たずに返す
+ * （{@link #REQUEST_TIMEOUT} で必ず終わる）。期限後に返ってきた 404/410 もその時点で削除する。
+ *
+ * <p>メトリクス: {@code web_push.sends}（result タグ、rate で毎秒の送信数）、{@code web_push.batch}
+ * （バッチ全体の所要時間）、{@code web_push.batch.throughput}（バッチごとの毎秒送信数）。
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class PushNotificationService {
 
+    /** 暗号化を行うスレッド数（CPU 処理のため論理コア数を上限とする） */
+    static final int ENCRYPT_THREADS = Math.min(4, Runtime.getRuntime().availableProcessors());
+    /** Push サービスのホストごとの同時送信数 */
+    static final int MAX_IN_FLIGHT_PER_HOST = 8;
+    static final Duration CONNECT_TIMEOUT = Duration.ofSeconds(5);
+    /** 1通の応答待ちの上限 */
+    static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(10);
+    /** バッチ全体の期限（待ち行列に並んだ時間を含む）。超えた分は一時的な失敗として扱う */
+    static final Duration BATCH_TIMEOUT = Duration.ofSeconds(60);
+
+    /** HttpClient が自前で付けるため、コピーしないヘッダ */
+    private static final Set<String> RESTRICTED_HEADERS = Set.of("content-length", "host", "connection");
+
     private final PushSubscriptionRepository pushSubscriptionRepository;
     private final WebPushConfig webPushConfig;
+    private final MeterRegistry meterRegistry;
     private PushService pushService;
+    private ExecutorService encryptExecutor;
+    private HttpClient httpClient;
+    // Push サービスのホスト名 -> 同時送信数の制御。ホストは FCM・Mozilla・Apple など数種類しか増えない
+    private final Map<String, HostLimiter> hostLimiters = new ConcurrentHashMap<>();
     private boolean enabled = false;
 
+    /** まとめて送る1通分（プレイヤーの全デバイスに送る） */
+    public record PushRequest(Long playerId, String title, String body, String url) {}
+
+    /** 1デバイスへの送信結果 */
+    private enum Outcome {
+        DELIVERED, EXPIRED, FAILED;
+
+        final String tag = name().toLowerCase(Locale.ROOT);
+    }
+
     @PostConstruct
     public void init() {
         if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
@@ -46,6 +123,12 @@ public class PushNotificationService {
                         webPushConfig.getPrivateKey(),
                         webPushConfig.getSubject()
                 );
+                encryptExecutor = Executors.newFixedThreadPool(ENCRYPT_THREADS,
+                        Thread.ofPlatform().name("web-push-encrypt-", 0).daemon().factory());
+                httpClient = HttpClient.newBuilder()
+                        .version(HttpClient.Version.HTTP_2)
+                        .connectTimeout(CONNECT_TIMEOUT)
+                        .build();
                 enabled = true;
                 log.info("Web Push service initialized with VAPID signing");
             } catch (GeneralSecurityException e) {
@@ -56,39 +139,114 @@ public class PushNotificationService {
         }
     }
 
+    @PreDestroy
+    void close() {
+        if (encryptExecutor != null) {
+            encryptExecutor.shutdownNow();
+        }
+        if (httpClient != null) {
+            httpClient.close();
+        }
+    }
+
     /**
      * 指定プレイヤーの全デバイスにPush通知を送信する
      */
     public void sendPush(Long playerId, String title, String body, String url) {
+        deliver(playerId, title, body, url);
+    }
+
+    /**
+     * 指定プレイヤーの全デバイスにPush通知を送信し、再送が必要かを返す。
+     *
+     * 1台以上に届いた場合・送る先が無い場合は true。購読が残っているのに全台で一時的な失敗
+     * （期限切れ以外の例外、429・5xx 応答）になった場合だけ false を返す。
+     * 期限切れ（404/410）の購読は削除する。
+     */
+    public boolean deliver(Long playerId, String title, String body, String url) {
+        return deliverAll(List.of(new PushRequest(playerId, title, body, url))).get(0);
+    }
+
+    /**
+     * 複数の通知をまとめて送信し、要求ごとに再送が必要かを返す（戻り値の並びは引数と同じ）。
+     *
+     * 各要求の判定は {@link #deliver} と同じ。全デバイスへの送信が終わるか {@link #BATCH_TIMEOUT}
+     * が過ぎるまで待ち、期限切れの購読をまとめて削除してから返す。
+     */
+    public List<Boolean> deliverAll(List<PushRequest> requests) {
+        if (requests.isEmpty()) {
+            return List.of();
+        }
         if (!enabled) {
-            log.debug("Push service not available, skipping push for player {}", playerId);
-            return;
+            log.debug("Push service not available, skipping {} pushes", requests.size());
+            return Collections.nCopies(requests.size(), true);
         }
 
-        List<PushSubscription> subscriptions = pushSubscriptionRepository.findByPlayerId(playerId);
+        long start = System.nanoTime();
+        long deadline = start + BATCH_TIMEOUT.toNanos();
+        Map<Long, List<PushSubscription>> subscriptionsByPlayer = pushSubscriptionRepository
+                .findByPlayerIdIn(requests.stream().map(PushRequest::playerId).distinct().toList())
+                .stream()
+                .collect(Collectors.groupingBy(PushSubscription::getPlayerId));
 
-        if (subscriptions.isEmpty()) {
-            log.debug("No push subscriptions for player {}", playerId);
-            return;
+        List<List<CompletableFuture<Outcome>>> sends = new ArrayList<>(requests.size());
+        List<CompletableFuture<Outcome>> all = new ArrayList<>();
+        for (PushRequest request : requests) {
+            List<PushSubscription> subscriptions = subscriptionsByPlayer.getOrDefault(request.playerId(), List.of());
+            if (subscriptions.isEmpty()) {
+                log.debug("No push subscriptions for player {}", request.playerId());
+            }
+            byte[] payload = payload(request);
+            List<CompletableFuture<Outcome>> perRequest = new ArrayList<>(subscriptions.size());
+            for (PushSubscription sub : subscriptions) {
+                CompletableFuture<Outcome> send = send(request.playerId(), sub, payload, deadline);
+                perRequest.add(send);
+                all.add(send);
+            }
+            sends.add(perRequest);
+        }
+        if (!awaitAll(all, deadline)) {
+            // 期限切れ: まだ始まっていない送信は捨て、送信中のものは後から届いた結果だけ拾う
+            hostLimiters.values().forEach(HostLimiter::drainExpired);
         }
 
-        String payload = String.format(
-                "{\"title\":\"%s\",\"body\":\"%s\",\"url\":\"%s\"}",
-                escapeJson(title), escapeJson(body), url != null ? escapeJson(url) : "");
-
-        for (PushSubscription sub : subscriptions) {
-            try {
-                sendToEndpoint(sub, payload);
-                log.debug("Push sent to player {} (endpoint: {}...)",
-                        playerId, sub.getEndpoint().substring(0, Math.min(50, sub.getEndpoint().length())));
-            } catch (Exception e) {
-                log.warn("Failed to send push to player {}: {}", playerId, e.getMessage());
-                if (isSubscriptionExpired(e)) {
-                    log.info("Removing expired push subscription for player {}", playerId);
-                    pushSubscriptionRepository.delete(sub);
+        List<Boolean> results = new ArrayList<>(requests.size());
+        Set<Long> expiredIds = new LinkedHashSet<>();
+        for (int i = 0; i < requests.size(); i++) {
+            List<PushSubscription> subscriptions =
+                    subscriptionsByPlayer.getOrDefault(requests.get(i).playerId(), List.of());
+            int delivered = 0;
+            int transientFailures = 0;
+            for (int j = 0; j < subscriptions.size(); j++) {
+                CompletableFuture<Outcome> send = sends.get(i).get(j);
+                Outcome outcome = send.getNow(Outcome.FAILED);
+                if (!send.isDone()) {
+                    pruneIfExpiredLate(send, subscriptions.get(j).getId());
+                }
+                meterRegistry.counter("web_push.sends", "result", outcome.tag).increment();
+                switch (outcome) {
+                    case DELIVERED -> delivered++;
+                    case EXPIRED -> expiredIds.add(subscriptions.get(j).getId());
+                    case FAILED -> transientFailures++;
                 }
             }
+            results.add(delivered > 0 || transientFailures == 0);
+        }
+        pruneExpired(expiredIds);
+
+        long elapsed = System.nanoTime() - start;
+        Timer.builder("web_push.batch")
+                .description("Web Push のバッチ送信にかかった時間")
+                .register(meterRegistry)
+                .record(elapsed, TimeUnit.NANOSECONDS);
+        if (!all.isEmpty()) {
+            DistributionSummary.builder("web_push.batch.throughput")
+                    .description("Web Push のバッチごとの毎秒送信数")
+                    .baseUnit("pushes/s")
+                    .register(meterRegistry)
+                    .record(all.size() * 1e9 / Math.max(1, elapsed));
         }
+        return results;
     }
 
     /**
@@ -99,31 +257,121 @@ public class PushNotificationService {
     }
 
     /**
-     * VAPID署名付きでPush通知をエンドポイントに送信する
+     * 1デバイスへの送信。暗号化は専用スレッド、送信はホストごとの上限の内側で非同期に行う。
+     * 例外では完了させず、結果は常に {@link Outcome} で返す。
      */
-    private void sendToEndpoint(PushSubscription sub, String payload) throws Exception {
-        Notification notification = new Notification(
-                sub.getEndpoint(),
-                sub.getP256dhKey(),
-                sub.getAuthKey(),
-                payload.getBytes()
-        );
+    private CompletableFuture<Outcome> send(Long playerId, PushSubscription sub, byte[] payload, long deadline) {
+        return CompletableFuture.supplyAsync(() -> encrypt(sub, payload, deadline), encryptExecutor)
+                .thenCompose(request -> hostLimiters
+                        .computeIfAbsent(request.uri().getHost(), host -> new HostLimiter(MAX_IN_FLIGHT_PER_HOST))
+                        .submit(() -> httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString()), deadline))
+                .handle((response, error) -> classify(playerId, sub, response, error));
+    }
 
-        HttpResponse response = pushService.send(notification);
-        int statusCode = response.getStatusLine().getStatusCode();
+    /**
+     * VAPID署名付きの送信要求を組み立てる（ペイロードは購読の鍵で暗号化する）。
+     * 暗号化の順番を待つ間にバッチの期限を過ぎていたら組み立てない。
+     */
+    private HttpRequest encrypt(PushSubscription sub, byte[] payload, long deadline) {
+        if (System.nanoTime() - deadline >= 0) {
+            throw new CompletionException(new TimeoutException("Web Push batch deadline passed before encryption"));
+        }
+        try {
+            Notification notification = new Notification(
+                    sub.getEndpoint(),
+                    sub.getP256dhKey(),
+                    sub.getAuthKey(),
+                    payload
+            );
+            HttpPost post = pushService.preparePost(notification, Encoding.AES128GCM);
+            HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(sub.getEndpoint()))
+                    .timeout(REQUEST_TIMEOUT)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(EntityUtils.toByteArray(post.getEntity())));
+            for (Header header : post.getAllHeaders()) {
+                if (!RESTRICTED_HEADERS.contains(header.getName().toLowerCase(Locale.ROOT))) {
+                    builder.header(header.getName(), header.getValue());
+                }
+            }
+            if (post.getEntity().getContentType() != null && post.getFirstHeader("Content-Type") == null) {
+                builder.header("Content-Type", post.getEntity().getContentType().getValue());
+            }
+            return builder.build();
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        }
+    }
 
+    private Outcome classify(Long playerId, PushSubscription sub, HttpResponse<String> response, Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null
+                    ? error.getCause() : error;
+            log.warn("Failed to send push to player {}: {}", playerId, cause.getMessage());
+            return Outcome.FAILED;
+        }
+        int statusCode = response.statusCode();
         if (statusCode == 410 || statusCode == 404) {
-            throw new RuntimeException(statusCode + " - subscription expired");
+            log.info("Removing expired push subscription for player {}", playerId);
+            return Outcome.EXPIRED;
+        }
+        if (statusCode == 429 || statusCode >= 500) {
+            log.warn("Failed to send push to player {}: {} - push service unavailable", playerId, statusCode);
+            return Outcome.FAILED;
         }
         if (statusCode >= 400) {
-            log.warn("Push endpoint returned status {}: {}", statusCode,
-                    response.getStatusLine().getReasonPhrase());
+            log.warn("Push endpoint returned status {}: {}", statusCode, response.body());
         }
+        log.debug("Push sent to player {} (endpoint: {}...)",
+                playerId, sub.getEndpoint().substring(0, Math.min(50, sub.getEndpoint().length())));
+        return Outcome.DELIVERED;
     }
 
-    private boolean isSubscriptionExpired(Exception e) {
-        String msg = e.getMessage();
-        return msg != null && (msg.contains("410") || msg.contains("404"));
+    /** バッチの期限まで全送信の完了を待つ。期限内に終わらなければ false */
+    private boolean awaitAll(List<CompletableFuture<Outcome>> sends, long deadline) {
+        try {
+            CompletableFuture.allOf(sends.toArray(CompletableFuture[]::new))
+                    .get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+            return true;
+        } catch (TimeoutException e) {
+            log.warn("Web Push batch did not finish within {}s; unfinished pushes will be retried",
+                    BATCH_TIMEOUT.toSeconds());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            // 各送信は handle で結果に変換済みのため起きない
+            log.error("Unexpected Web Push batch failure: {}", e.getMessage());
+        }
+        return false;
+    }
+
+    /**
+     * 期限までに終わらなかった送信が後から期限切れ（404/410）と分かったら、その購読を削除する。
+     * バッチの結果は一時的な失敗として返済みのため、それ以外の結果は捨てる。
+     */
+    private void pruneIfExpiredLate(CompletableFuture<Outcome> send, Long subscriptionId) {
+        send.thenAccept(outcome -> {
+            if (outcome == Outcome.EXPIRED) {
+                pruneExpired(Set.of(subscriptionId));
+            }
+        });
+    }
+
+    private void pruneExpired(Set<Long> expiredIds) {
+        if (expiredIds.isEmpty()) {
+            return;
+        }
+        try {
+            pushSubscriptionRepository.deleteAllByIdInBatch(expiredIds);
+        } catch (Exception e) {
+            log.error("Failed to remove {} expired push subscriptions: {}", expiredIds.size(), e.getMessage());
+        }
+    }
+
+    private byte[] payload(PushRequest request) {
+        return String.format(
+                "{\"title\":\"%s\",\"body\":\"%s\",\"url\":\"%s\"}",
+                escapeJson(request.title()), escapeJson(request.body()),
+                request.url() != null ? escapeJson(request.url()) : "")
+                .getBytes(StandardCharsets.UTF_8);
     }
 
     private String escapeJson(String str) {
@@ -131,4 +379,121 @@ public class PushNotificationService {
                 .replace("\"", "\\\"")
                 .replace("\n", "\\n");
     }
+
+    /**
+     * 1ホストへの同時送信数を抑える。上限を超えた送信はスレッドを止めずに待ち行列へ入れ、
+     * 先の送信が終わった時点で開始する。並んでいる間に呼び出し元のバッチの期限を過ぎた送信は
+     * 開始せずに {@link TimeoutException} で完了させる。
+     */
+    static final class HostLimiter {
+
+        private final int maxInFlight;
+        private final Deque<Call<?>> waiting = new ArrayDeque<>();
+        private int inFlight;
+
+        HostLimiter(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        /**
+         * 枠が空いていればすぐ、無ければ待ち行列に並べて送信を始める。
+         *
+         * @param deadline 開始の期限（{@link System#nanoTime()} 基準）
+         */
+        <T> CompletableFuture<T> submit(Supplier<CompletableFuture<T>> call, long deadline) {
+            Call<T> entry = new Call<>(call, deadline);
+            boolean startNow;
+            synchronized (this) {
+                startNow = inFlight < maxInFlight;
+                if (startNow) {
+                    inFlight++;
+                } else {
+                    waiting.add(entry);
+                }
+            }
+            if (startNow && !entry.start()) {
+                release();
+            }
+            return entry.result;
+        }
+
+        /** 期限を過ぎた待ちを行列から外し、開始せずに完了させる */
+        void drainExpired() {
+            long now = System.nanoTime();
+            List<Call<?>> expired = new ArrayList<>();
+            synchronized (this) {
+                waiting.removeIf(entry -> entry.expired(now) && expired.add(entry));
+            }
+            expired.forEach(Call::expire);
+        }
+
+        /** 待ちがあれば枠を譲り、無ければ枠を返す。期限切れの待ちは飛ばして次へ譲る */
+        private void release() {
+            while (true) {
+                Call<?> next;
+                synchronized (this) {
+                    next = waiting.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                if (next.start()) {
+                    return;
+                }
+            }
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized int waiting() {
+            return waiting.size();
+        }
+
+        /** 枠を待つ1件の送信 */
+        private final class Call<T> {
+
+            private final Supplier<CompletableFuture<T>> call;
+            private final long deadline;
+            private final CompletableFuture<T> result = new CompletableFuture<>();
+
+            Call(Supplier<CompletableFuture<T>> call, long deadline) {
+                this.call = call;
+                this.deadline = deadline;
+            }
+
+            boolean expired(long now) {
+                return now - deadline >= 0;
+            }
+
+            void expire() {
+                result.completeExceptionally(new TimeoutException("Web Push batch deadline passed while queued"));
+            }
+
+            /** 送信を始める。期限を過ぎていれば始めずに false を返し、枠は呼び出し側が次へ回す */
+            boolean start() {
+                if (expired(System.nanoTime())) {
+                    expire();
+                    return false;
+                }
+                CompletableFuture<T> future;
+                try {
+                    future = call.get();
+                } catch (RuntimeException e) {
+                    future = CompletableFuture.failedFuture(e);
+                }
+                future.whenComplete((value, error) -> {
+                    release();
+                    if (error != null) {
+                        result.completeExceptionally(error);
+                    } else {
+                        result.complete(value);
+                    }
+                });
+                return true;
+            }
+        }
+    }
 }
@@ -0,0 +1,460 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipantChangeListener;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongConsumer;
+
+/**
+ * 試合別の枠取得状況（セッション × 試合番号 × ステータスごとの参加者数）。
+ *
+ * <p>カレンダーの定員表示・隣室空き通知・抽選・繰り上げ・空き判定が、試合ごと・ステータスごとに
+ * {@code COUNT} を往復していた集計をここに集める。セッションごとの人数は初回参照時に1クエリ
+ * （{@link PracticeParticipantRepository#countSeatsBySessionIds}）で読み込み、以後は参加者の変更を差分で
+ * 反映するメモリ上のカウンタとして持つ。値は {@link SessionSeats}（{@code int[]}）で、試合・ステータスの参照は
+ * 配列アクセスになる。
+ *
+ * <p><b>前提:</b> 本番はシングルインスタンス運用（{@code render.yaml}・
+ * {@code docs/features/densuke-sync/fix-requirements.md}）で、参加者の書き込みはすべてこのプロセスを通る。
+ * そのためカウンタをプロセス内で正として扱える。インスタンスを増やす場合は他インスタンスの変更が届かないため、
+ * この前提から見直すこと。
+ *
+ * <p><b>同期:</b>
+ * <ul>
+ *   <li>エンティティ経由の登録・試合番号/ステータス変更・削除は {@link PracticeParticipantChangeListener} から
+ *       差分で届く。トランザクション中の差分はそのトランザクションに溜め、コミット後にカウンタへ足す
+ *       （ロールバックされた変更は反映しない）。</li>
+ *   <li>JPQL の一括更新など差分の分からない変更は呼び出し元が {@link #markChanged} で知らせる。
+ *       そのセッションのカウンタは完了後に捨て、次の参照で DB から読み直す。</li>
+ *   <li>{@link #current}（定員ガード向け）は書き込みトランザクション中なら先に flush し、
+ *       自トランザクションの未コミットの差分を重ねて返す（従来の COUNT と同じく自分の変更が見える）。
+ *       他のトランザクションがコミット処理中のセッションは、カウンタへの反映より先に読むと古くなるため DB から読む。</li>
+ *   <li>取りこぼしの検知用に、定期照合（{@link #reconcile()}、{@code SeatOccupancyScheduler}）で参照のあった
+ *       セッションを DB と突き合わせ、ずれを {@code seat_occupancy.drift} に数えて補正する。</li>
+ * </ul>
+ *
+ * <p>参加者数から派生した値を持つ他のキャッシュは {@link #addChangeListener} で変更のあったセッションを受け取る。
+ */
+@Service
+@Slf4j
+public class SeatOccupancyService {
+
+    private static final Object TX_CHANGES_KEY = new Object();
+
+    private final PracticeParticipantRepository practiceParticipantRepository;
+    private final EntityManager entityManager;
+    private final Counter hitCounter;
+    private final Counter missCounter;
+    private final Counter driftCounter;
+
+    private final ConcurrentHashMap<Long, SessionSeats> counters = new ConcurrentHashMap<>();
+    // セッションごとの、変更を溜めたまま完了していないトランザクション数
+    private final ConcurrentHashMap<Long, Integer> committing = new ConcurrentHashMap<>();
+    // 前回の照合以降に参照されたセッション。照合時に参照の無かったものはメモリから落とす
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    // カウンタへの反映・破棄のたびに進める。読み込み中に反映が挟まった結果はカウンタに載せない
+    private final AtomicLong generation = new AtomicLong();
+    private final List<LongConsumer> changeListeners = new CopyOnWriteArrayList<>();
+
+    public SeatOccupancyService(PracticeParticipantRepository practiceParticipantRepository,
+                                EntityManager entityManager,
+                                MeterRegistry meterRegistry) {
+        this.practiceParticipantRepository = practiceParticipantRepository;
+        this.entityManager = entityManager;
+        this.hitCounter = Counter.builder("seat_occupancy.lookups")
+                .description("メモリ上のカウンタから返したセッション数")
+                .tag("result", "hit")
+                .register(meterRegistry);
+        this.missCounter = Counter.builder("seat_occupancy.lookups")
+                .description("DB から読んだセッション数")
+                .tag("result", "miss")
+                .register(meterRegistry);
+        this.driftCounter = Counter.builder("seat_occupancy.drift")
+                .description("定期照合で DB とずれていたセッション数")
+                .register(meterRegistry);
+        Gauge.builder("seat_occupancy.sessions", counters, Map::size)
+                .description("メモリ上にカウンタを持っているセッション数")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 複数セッションの枠取得状況を返す（表示・通知閾値向け）。コミット済みの人数を返し、
+     * 呼び出し元トランザクションの未コミットの変更は含めない。
+     * カウンタの無いセッションはまとめて1クエリで読み、カウンタとして持つ。
+     *
+     * @return 指定した全セッションID → 集計（参加者が居なければ {@link SessionSeats#EMPTY}）
+     */
+    public Map<Long, SessionSeats> snapshot(Collection<Long> sessionIds) {
+        Map<Long, SessionSeats> result = new HashMap<>();
+        List<Long> missing = new ArrayList<>();
+        for (Long sessionId : new LinkedHashSet<>(sessionIds)) {
+            touched.add(sessionId);
+            SessionSeats seats = counters.get(sessionId);
+            if (seats != null) {
+                result.put(sessionId, seats);
+            } else {
+                missing.add(sessionId);
+            }
+        }
+        hitCounter.increment(result.size());
+        if (!missing.isEmpty()) {
+            result.putAll(seed(missing));
+        }
+        return result;
+    }
+
+    /**
+     * 1セッションの枠取得状況を返す（定員ガード向け）。書き込みトランザクション中なら自分の未コミットの変更も含む。
+     * 同じ枠を数えてから書き込む処理どうしは、呼び出し側がロック（{@link PracticeSlotLock} など）で直列化すること。
+     */
+    public SessionSeats current(Long sessionId) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            // 未フラッシュの変更を差分として受け取る（COUNT クエリの自動フラッシュと同じ）
+            entityManager.flush();
+        }
+        touched.add(sessionId);
+        TxChanges tx = boundTxChanges();
+        boolean own = tx != null && tx.sessions.contains(sessionId);
+        int others = committing.getOrDefault(sessionId, 0) - (own ? 1 : 0);
+        if (others > 0 || (own && tx.invalidated.contains(sessionId))) {
+            // DB は他トランザクションのコミット済みの変更と、自分のフラッシュ済みの変更を両方含む
+            missCounter.increment();
+            return load(List.of(sessionId)).get(sessionId);
+        }
+        SessionSeats base = counters.get(sessionId);
+        if (base == null) {
+            if (own) {
+                missCounter.increment();
+                return load(List.of(sessionId)).get(sessionId);
+            }
+            return seed(List.of(sessionId)).get(sessionId);
+        }
+        hitCounter.increment();
+        SessionSeats.Builder delta = own ? tx.deltas.get(sessionId) : null;
+        return delta != null ? base.plus(delta) : base;
+    }
+
+    /**
+     * 参加者エンティティの変更による枠の人数の差分を受け取る（{@link PracticeParticipantChangeListener} から）。
+     * トランザクション中ならそのトランザクションに溜め、コミット後にカウンタへ足す。
+     */
+    @EventListener
+    public void onSeatDelta(PracticeParticipantChangeListener.SeatDelta event) {
+        PracticeParticipantChangeListener.Seat seat = event.seat();
+        int delta = event.delta();
+        Long sessionId = seat.sessionId();
+        if (sessionId == null || seat.matchNumber() == null || seat.status() == null) {
+            // 試合番号の無い legacy 行は試合別の集計に入らない（countSeatsBySessionIds と同じ）
+            return;
+        }
+        TxChanges tx = txChanges();
+        if (tx == null) {
+            generation.incrementAndGet();
+            SessionSeats.Builder change = SessionSeats.builder().add(seat.matchNumber(), seat.status(), delta);
+            counters.computeIfPresent(sessionId, (k, seats) -> seats.plus(change));
+        } else {
+            tx.touch(sessionId);
+            tx.deltas.computeIfAbsent(sessionId, k -> SessionSeats.builder())
+                    .add(seat.matchNumber(), seat.status(), delta);
+        }
+        notifyChanged(sessionId);
+    }
+
+    /**
+     * 変更前の枠が分からない参加者の変更を受け取る（{@link PracticeParticipantChangeListener} から）。
+     */
+    @EventListener
+    public void onSeatUnknown(PracticeParticipantChangeListener.SeatUnknown event) {
+        markChanged(event.sessionId());
+    }
+
+    /**
+     * セッションの参加者が差分の分からない方法（JPQL の一括更新など）で変わったことを知らせる。
+     * トランザクション中なら完了後に、そうでなければ即時にカウンタを捨て、次の参照で DB から読み直す。
+     */
+    public void markChanged(Long sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        TxChanges tx = txChanges();
+        if (tx == null) {
+            generation.incrementAndGet();
+            counters.remove(sessionId);
+        } else {
+            tx.touch(sessionId);
+            tx.invalidated.add(sessionId);
+        }
+        notifyChanged(sessionId);
+    }
+
+    /** 複数セッションの参加者が変わったことを知らせる（一括更新の呼び出し元向け） */
+    public void markChanged(Collection<Long> sessionIds) {
+        sessionIds.forEach(this::markChanged);
+    }
+
+    /**
+     * 参加者が変わったセッションIDを受け取る処理を登録する。変更を受け取った時点と、トランザクションの完了後
+     * （カウンタへの反映後）の両方で呼ばれる。一括更新の経路も {@link #markChanged} を通るため、
+     * 参加者の変更はすべてここに届く。
+     */
+    public void addChangeListener(LongConsumer listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * メモリ上のカウンタを DB と突き合わせる。前回の照合以降に参照されたセッションは読み直して置き換え、
+     * 参照の無かったセッションは捨てる。照合中にコミットが反映されたら置き換えずに次回へ回す。
+     *
+     * @return DB とずれていたセッション数
+     */
+    public int reconcile() {
+        Set<Long> recent = new HashSet<>(touched);
+        touched.removeAll(recent);
+        counters.keySet().retainAll(recent);
+        List<Long> held = counters.keySet().stream()
+                .filter(sessionId -> !committing.containsKey(sessionId))
+                .toList();
+        if (held.isEmpty()) {
+            return 0;
+        }
+        long generationBefore = generation.get();
+        Map<Long, SessionSeats> fresh = load(held);
+        if (generation.get() != generationBefore) {
+            return 0;
+        }
+        int drift = 0;
+        for (Long sessionId : held) {
+            SessionSeats counted = counters.get(sessionId);
+            SessionSeats actual = fresh.get(sessionId);
+            if (counted != null && !counted.equals(actual)) {
+                drift++;
+                counters.replace(sessionId, counted, actual);
+            }
+        }
+        if (drift > 0) {
+            driftCounter.increment(drift);
+            log.warn("試合別枠取得状況: 定期照合で {} / {} セッションのずれを補正しました", drift, held.size());
+        }
+        return drift;
+    }
+
+    /**
+     * DB から読み、コミット処理中の変更が無く読み込み中に反映も挟まらなかったセッションだけカウンタとして持つ。
+     */
+    private Map<Long, SessionSeats> seed(List<Long> sessionIds) {
+        missCounter.increment(sessionIds.size());
+        long generationBefore = generation.get();
+        Map<Long, SessionSeats> loaded = load(sessionIds);
+        if (generation.get() == generationBefore) {
+            for (Map.Entry<Long, SessionSeats> entry : loaded.entrySet()) {
+                if (!committing.containsKey(entry.getKey())) {
+                    counters.putIfAbsent(entry.getKey(), entry.getValue());
+                }
+            }
+        }
+        return loaded;
+    }
+
+    private TxChanges boundTxChanges() {
+        return (TxChanges) TransactionSynchronizationManager.getResource(TX_CHANGES_KEY);
+    }
+
+    /** 現在のトランザクションの変更の溜め先。トランザクション外なら null */
+    private TxChanges txChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return null;
+        }
+        TxChanges tx = boundTxChanges();
+        if (tx == null) {
+            tx = new TxChanges();
+            TransactionSynchronizationManager.bindResource(TX_CHANGES_KEY, tx);
+            TransactionSynchronizationManager.registerSynchronization(tx);
+        }
+        return tx;
+    }
+
+    private void notifyChanged(Long sessionId) {
+        for (LongConsumer listener : changeListeners) {
+            listener.accept(sessionId);
+        }
+    }
+
+    private Map<Long, SessionSeats> load(Collection<Long> sessionIds) {
+        Map<Long, SessionSeats.Builder> builders = new HashMap<>();
+        for (Object[] row : practiceParticipantRepository.countSeatsBySessionIds(sessionIds)) {
+            builders.computeIfAbsent((Long) row[0], k -> SessionSeats.builder())
+                    .add((Integer) row[1], (ParticipantStatus) row[2], (Long) row[3]);
+        }
+        Map<Long, SessionSeats> result = new HashMap<>();
+        for (Long sessionId : sessionIds) {
+            SessionSeats.Builder builder = builders.get(sessionId);
+            result.put(sessionId, builder != null ? builder.build() : SessionSeats.EMPTY);
+        }
+        return result;
+    }
+
+    /**
+     * 1トランザクション分の変更。完了時にコミットされていれば差分をカウンタへ足し、
+     * 差分の分からない変更のあったセッションはカウンタを捨てる。
+     */
+    private final class TxChanges implements TransactionSynchronization {
+
+        private final Map<Long, SessionSeats.Builder> deltas = new HashMap<>();
+        private final Set<Long> invalidated = new HashSet<>();
+        private final Set<Long> sessions = new HashSet<>();
+
+        void touch(Long sessionId) {
+            if (sessions.add(sessionId)) {
+                committing.merge(sessionId, 1, Integer::sum);
+            }
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(TX_CHANGES_KEY);
+            generation.incrementAndGet();
+            for (Long sessionId : sessions) {
+                if (status == STATUS_COMMITTED && !invalidated.contains(sessionId)) {
+                    SessionSeats.Builder delta = deltas.get(sessionId);
+                    if (delta != null) {
+                        counters.computeIfPresent(sessionId, (k, seats) -> seats.plus(delta));
+                    }
+                } else if (status != STATUS_ROLLED_BACK) {
+                    // 一括更新のコミット、または結果不明の完了 → 次の参照で読み直す
+                    counters.remove(sessionId);
+                }
+                committing.computeIfPresent(sessionId, (k, n) -> n > 1 ? n - 1 : null);
+                notifyChanged(sessionId);
+            }
+        }
+    }
+
+    /**
+     * 1セッションの試合番号 × ステータスごとの参加者数（不変）。
+     * {@code matchNumber * ステータス数 + ordinal} の位置に人数を持ち、配列の長さは実在する最大の試合番号で決まる。
+     * 末尾の 0 は持たないため、同じ人数なら読み込み方（DB・差分の積み上げ）によらず {@link #equals} になる。
+     */
+    public static final class SessionSeats {
+
+        public static final SessionSeats EMPTY = new SessionSeats(new int[0]);
+
+        private static final ParticipantStatus[] STATUSES = ParticipantStatus.values();
+
+        private final int[] counts;
+
+        private SessionSeats(int[] counts) {
+            this.counts = counts;
+        }
+
+        private static SessionSeats of(int[] counts) {
+            int length = counts.length;
+            while (length > 0 && counts[length - 1] == 0) {
+                length--;
+            }
+            return length == 0 ? EMPTY : new SessionSeats(Arrays.copyOf(counts, length));
+        }
+
+        /** 差分を足した集計を返す */
+        private SessionSeats plus(Builder delta) {
+            int[] sum = Arrays.copyOf(counts, Math.max(counts.length, delta.counts.length));
+            for (int i = 0; i < delta.counts.length; i++) {
+                sum[i] += delta.counts[i];
+            }
+            return of(sum);
+        }
+
+        public static Builder builder() {
+            return new Builder();
+        }
+
+        /** 試合の指定ステータスの人数の合計。試合番号が null（抜け番）なら 0 */
+        public int count(Integer matchNumber, ParticipantStatus... statuses) {
+            if (matchNumber == null || matchNumber < 0) {
+                return 0;
+            }
+            int total = 0;
+            for (ParticipantStatus status : statuses) {
+                int i = matchNumber * STATUSES.length + status.ordinal();
+                if (i < counts.length) {
+                    total += counts[i];
+                }
+            }
+            return total;
+        }
+
+        /** 試合の実質枠取得人数（WON + PENDING + OFFERED） */
+        public int occupied(int matchNumber) {
+            return count(matchNumber, ParticipantStatus.WON, ParticipantStatus.PENDING, ParticipantStatus.OFFERED);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return this == o || (o instanceof SessionSeats other && Arrays.equals(counts, other.counts));
+        }
+
+        @Override
+        public int hashCode() {
+            return Arrays.hashCode(counts);
+        }
+
+        @Override
+        public String toString() {
+            return "SessionSeats" + Arrays.toString(counts);
+        }
+
+        public static final class Builder {
+
+            private int[] counts = new int[0];
+
+            private Builder() {
+            }
+
+            /**
+             * 人数を加える（差分なら負数も可）。試合番号・ステータスが null の legacy 行は試合別の集計に入れない。
+             *
+             * @throws IllegalArgumentException 試合番号が負の場合
+             */
+            public Builder add(Integer matchNumber, ParticipantStatus status, long count) {
+                if (matchNumber == null || status == null) {
+                    return this;
+                }
+                if (matchNumber < 0) {
+                    throw new IllegalArgumentException("試合番号が不正です: " + matchNumber);
+                }
+                int i = matchNumber * STATUSES.length + status.ordinal();
+                if (i >= counts.length) {
+                    counts = Arrays.copyOf(counts, (matchNumber + 1) * STATUSES.length);
+                }
+                counts[i] += (int) count;
+                return this;
+            }
+
+            public SessionSeats build() {
+                return of(counts);
+            }
+        }
+    }
+}
@@ -0,0 +1,287 @@
+package com.karuta.matchtracker.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.karuta.matchtracker.dto.PracticeSessionDto;
+import com.karuta.matchtracker.entity.DensukeDeletionCandidate;
+import com.karuta.matchtracker.entity.EntityChangedEvent;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.entity.Venue;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiPredicate;
+import java.util.function.Supplier;
+
+/**
+ * カレンダーの月間サマリー（{@code PracticeSessionService#findSessionSummariesByYearMonth}）の
+ * 同時要求の相乗りと短時間キャッシュ。
+ *
+ * <p>キーは (団体IDの昇順リスト, 年月)。団体で絞らない要求は団体リストを null とする。
+ * 同じキーの要求が読み込み中に来たら、DB を読まずに読み込み中の結果を待つ（single-flight）。
+ * 抽選結果の発表直後など、多数の会員が同じ月を同時に開いても、読み込みはキーごとに1回で済む。
+ * 読み込んだ結果は {@link #TTL} だけ持つ。読み込みは最初の要求のスレッドで、読み込みだけを囲む
+ * 読み取り専用トランザクションの中で行う。待つ側が DB 接続を握ったまま待たないよう、呼び出し元は
+ * トランザクションの外から呼ぶこと。待つのは {@link #JOIN_TIMEOUT} までで、超えたら自分で読む
+ * （その結果は残さない）。読み込みが例外で終わったら結果は残さず、
+ * 待っていた要求にも同じ例外を返す。試合別定員（{@code matchCapacityStatuses}）が null の
+ * セッションを含む結果も残さない（集計に失敗した縮退結果を {@link #TTL} の間返し続けないため）。
+ *
+ * <p><b>同期:</b> 参加者の変更は {@link SeatOccupancyService#addChangeListener} から、練習日・会場・
+ * 伝助削除候補の変更は {@link EntityChangedEvent} で届き、該当する月を捨てる。読み込み中のキーには
+ * 変更を書き留めておき、読み込みが終わった時点で結果と突き合わせて、該当すれば残さない。
+ * エンティティの変更は完了後（afterCompletion）にもう一度捨てる。
+ * 無効化はプロセス内で閉じるため、他インスタンスでの変更は {@link #TTL} で反映される。
+ */
+@Component
+public class SessionSummaryCache {
+
+    /** 結果を持つ期間（他インスタンスでの変更が反映されるまでの上限） */
+    static final Duration TTL = Duration.ofSeconds(30);
+
+    /** (団体, 年月) のエントリ数上限 */
+    static final long MAX_ENTRIES = 500;
+
+    /** 読み込み中の結果を待つ上限。読み込みが詰まっても待つ側を道連れにしない */
+    static final Duration JOIN_TIMEOUT = Duration.ofSeconds(5);
+
+    private static final Object TX_CHANGED_KEY = new Object();
+
+    record Key(List<Long> organizationIds, YearMonth month) {
+
+        static Key of(List<Long> organizationIds, YearMonth month) {
+            return new Key(organizationIds == null ? null : organizationIds.stream().distinct().sorted().toList(),
+                    month);
+        }
+
+        boolean covers(Long organizationId, YearMonth otherMonth) {
+            return month.equals(otherMonth)
+                    && (organizationIds == null || organizationIds.contains(organizationId));
+        }
+    }
+
+    /** 読み込んだサマリーと、無効化の突き合わせに使うセッションID */
+    record Summary(List<PracticeSessionDto> sessions, Set<Long> sessionIds) {
+
+        static Summary of(List<PracticeSessionDto> sessions) {
+            Set<Long> ids = new HashSet<>();
+            sessions.forEach(s -> ids.add(s.getId()));
+            return new Summary(List.copyOf(sessions), Set.copyOf(ids));
+        }
+
+        /** 試合別定員を集計できなかったセッションを含む結果は保持しない */
+        boolean cacheable() {
+            return sessions.stream().allMatch(s -> s.getMatchCapacityStatuses() != null);
+        }
+    }
+
+    /** 読み込み中の1件。読み込みの間に届いた変更を書き留め、結果が出たら突き合わせる */
+    private static final class Loading {
+
+        private final List<BiPredicate<Key, Summary>> changes = new ArrayList<>();
+        private boolean finished;
+
+        /** 変更を書き留める。読み込みが既に終わっていれば false（結果と直接突き合わせる） */
+        synchronized boolean record(BiPredicate<Key, Summary> change) {
+            if (finished) {
+                return false;
+            }
+            changes.add(change);
+            return true;
+        }
+
+        /** 読み込みの終了。書き留めた変更のどれかが結果に該当すれば true */
+        synchronized boolean finish(Key key, Summary summary) {
+            finished = true;
+            return summary != null && changes.stream().anyMatch(c -> c.test(key, summary));
+        }
+    }
+
+    private final AsyncCache<Key, Summary> cache = Caffeine.newBuilder()
+            .expireAfterWrite(TTL)
+            .maximumSize(MAX_ENTRIES)
+            .buildAsync();
+    // 読み込み中の結果 -> 読み込み中に届いた変更（結果の future は同一性で引く）
+    private final Map<CompletableFuture<Summary>, Loading> loading = new ConcurrentHashMap<>();
+    private final SeatOccupancyService seatOccupancyService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final Counter hitCounter;
+    private final Counter coalescedCounter;
+    private final Counter loadCounter;
+    private final Counter timeoutCounter;
+    private Duration joinTimeout = JOIN_TIMEOUT;
+
+    public SessionSummaryCache(SeatOccupancyService seatOccupancyService,
+                               PlatformTransactionManager transactionManager, MeterRegistry meterRegistry) {
+        this.seatOccupancyService = seatOccupancyService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.hitCounter = requests(meterRegistry, "hit", "保持中の結果を返した要求数");
+        this.coalescedCounter = requests(meterRegistry, "coalesced", "読み込み中の結果を待った要求数");
+        this.loadCounter = requests(meterRegistry, "load", "DB から読み込んだ要求数");
+        this.timeoutCounter = requests(meterRegistry, "timeout", "待ちきれずに自分で読み込んだ要求数");
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("session_summary.requests")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    void registerSeatListener() {
+        seatOccupancyService.addChangeListener(
+                sessionId -> evict((key, summary) -> summary.sessionIds().contains(sessionId)));
+    }
+
+    /**
+     * 月間サマリーを返す。保持中ならそれを、同じキーを読み込み中ならその結果を、どちらも無ければ
+     * {@code loader} をこのスレッドで（読み取り専用トランザクションで）呼んだ結果を返す。
+     * 返すリストは変更不可で、要求間で共有される。
+     *
+     * @param organizationIds 対象団体（null なら全団体）
+     */
+    public List<PracticeSessionDto> get(List<Long> organizationIds, YearMonth month,
+                                        Supplier<List<PracticeSessionDto>> loader) {
+        Key key = Key.of(organizationIds, month);
+        CompletableFuture<Summary> mine = new CompletableFuture<>();
+        Loading load = new Loading();
+        loading.put(mine, load);
+        CompletableFuture<Summary> existing = cache.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            loading.remove(mine);
+            (existing.isDone() ? hitCounter : coalescedCounter).increment();
+            return await(existing, loader);
+        }
+        loadCounter.increment();
+        Summary summary = null;
+        try {
+            summary = Summary.of(load(loader));
+            mine.complete(summary);
+            return summary.sessions();
+        } catch (RuntimeException | Error e) {
+            // 失敗した結果は Caffeine がキャッシュから外す
+            mine.completeExceptionally(e);
+            throw e;
+        } finally {
+            // 結果を出してから読み込み中の印を外す。以後の変更は結果と直接突き合わせる
+            loading.remove(mine);
+            boolean stale = load.finish(key, summary);
+            if (summary != null && (stale || !summary.cacheable())) {
+                cache.asMap().remove(key, mine);
+            }
+        }
+    }
+
+    /** 読み込み中の結果を {@link #JOIN_TIMEOUT} まで待つ。超えたら自分で読み、結果は残さない */
+    private List<PracticeSessionDto> await(CompletableFuture<Summary> existing,
+                                           Supplier<List<PracticeSessionDto>> loader) {
+        try {
+            return existing.get(joinTimeout.toMillis(), TimeUnit.MILLISECONDS).sessions();
+        } catch (ExecutionException e) {
+            throw e.getCause() instanceof RuntimeException re ? re : new CompletionException(e.getCause());
+        } catch (TimeoutException e) {
+            timeoutCounter.increment();
+            return List.copyOf(load(loader));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        }
+    }
+
+    private List<PracticeSessionDto> load(Supplier<List<PracticeSessionDto>> loader) {
+        return readOnlyTransaction.execute(status -> loader.get());
+    }
+
+    @EventListener
+    public void onEntityChange(EntityChangedEvent event) {
+        onEntityChanged(event.entity());
+    }
+
+    void onEntityChanged(Object entity) {
+        switch (entity) {
+            case PracticeSession s -> changed(new Change(s.getId(), s.getOrganizationId(),
+                    s.getSessionDate() != null ? YearMonth.from(s.getSessionDate()) : null, false));
+            case DensukeDeletionCandidate c -> changed(new Change(null, c.getOrganizationId(),
+                    c.getSessionDate() != null ? YearMonth.from(c.getSessionDate()) : null, false));
+            case Venue v -> changed(new Change(null, null, null, true));
+            default -> {
+            }
+        }
+    }
+
+    /** 練習日・会場・削除候補の変更 1件。会場は全月の表示名・定員に効くため全体を捨てる */
+    private record Change(Long sessionId, Long organizationId, YearMonth month, boolean all) {
+
+        boolean matches(Key key, Summary summary) {
+            return all
+                    || (sessionId != null && summary.sessionIds().contains(sessionId))
+                    || (month != null && key.covers(organizationId, month));
+        }
+    }
+
+    private void changed(Change change) {
+        apply(List.of(change));
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        @SuppressWarnings("unchecked")
+        List<Change> pending = (List<Change>) TransactionSynchronizationManager.getResource(TX_CHANGED_KEY);
+        if (pending == null) {
+            List<Change> created = new ArrayList<>();
+            pending = created;
+            TransactionSynchronizationManager.bindResource(TX_CHANGED_KEY, created);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(TX_CHANGED_KEY);
+                    apply(created);
+                }
+            });
+        }
+        pending.add(change);
+    }
+
+    private void apply(List<Change> changes) {
+        evict((key, summary) -> changes.stream().anyMatch(c -> c.matches(key, summary)));
+    }
+
+    /**
+     * 条件に合う結果を捨てる。読み込み中の結果には条件を書き留め、読み込みが終わった時点で
+     * 該当すれば残さない（読み込み自体は最後まで走り、待っている要求には結果を返す）。
+     */
+    private void evict(BiPredicate<Key, Summary> matches) {
+        cache.asMap().entrySet().removeIf(e -> {
+            CompletableFuture<Summary> future = e.getValue();
+            if (!future.isDone()) {
+                Loading load = loading.get(future);
+                if (load != null && load.record(matches)) {
+                    return false;
+                }
+                // 印が外れていれば読み込みは終わっている（結果を出してから外すため）
+            }
+            return !future.isCompletedExceptionally() && matches.test(e.getKey(), future.join());
+        });
+    }
+}
@@ -52,6 +52,9 @@ public class WaitlistPromotionService {
     private final LineNotificationService lineNotificationService;
     private final DensukeSyncService densukeSyncService;
     private final DensukeDeletionGuard densukeDeletionGuard;
+    private final PracticeSlotLock practiceSlotLock;
+    private final OfferDeadlineTimer offerDeadlineTimer;
+    private final SeatOccupancyService seatOccupancyService;
 
     public WaitlistPromotionService(
             PracticeParticipantRepository practiceParticipantRepository,
@@ -61,7 +64,10 @@ public class WaitlistPromotionService {
             NotificationService notificationService,
             LineNotificationService lineNotificationService,
             @Lazy DensukeSyncService densukeSyncService,
-            DensukeDeletionGuard densukeDeletionGuard) {
+            DensukeDeletionGuard densukeDeletionGuard,
+            PracticeSlotLock practiceSlotLock,
+            OfferDeadlineTimer offerDeadlineTimer,
+            SeatOccupancyService seatOccupancyService) {
         this.practiceParticipantRepository = practiceParticipantRepository;
         this.practiceSessionRepository = practiceSessionRepository;
         this.playerRepository = playerRepository;
@@ -70,6 +76,9 @@ public class WaitlistPromotionService {
         this.lineNotificationService = lineNotificationService;
         this.densukeSyncService = densukeSyncService;
         this.densukeDeletionGuard = densukeDeletionGuard;
+        this.practiceSlotLock = practiceSlotLock;
+        this.offerDeadlineTimer = offerDeadlineTimer;
+        this.seatOccupancyService = seatOccupancyService;
     }
 
     /**
@@ -316,9 +325,18 @@ public class WaitlistPromotionService {
     /**
      * 空き募集ボタンへの応答を処理する。
      * 先着1名のみWONに変更。2人目以降はエラー。練習開始時間を過ぎていたら無効。
+     *
+     * <p>空き枠の確認から WON 作成までを {@link PracticeSlotLock} で同じ枠（セッション×試合）どうしだけ直列化する。
+     * ロックはトランザクション完了まで保持されるため、後続の参加者は確定済みの WON 数で判定する。
      */
     @Transactional
-    public synchronized void handleSameDayJoin(Long sessionId, int matchNumber, Long playerId) {
+    public void handleSameDayJoin(Long sessionId, int matchNumber, Long playerId) {
+        try (PracticeSlotLock.Handle ignored = practiceSlotLock.acquire(sessionId, matchNumber)) {
+            joinSameDay(sessionId, matchNumber, playerId);
+        }
+    }
+
+    private void joinSameDay(Long sessionId, int matchNumber, Long playerId) {
         PracticeSession session = practiceSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new IllegalStateException("セッションが見つかりません"));
 
@@ -406,7 +424,7 @@ public class WaitlistPromotionService {
      * @return 参加登録できた試合数
      */
     @Transactional
-    public synchronized int handleSameDayJoinAll(Long sessionId, Long playerId, List<Integer> matchNumbers) {
+    public int handleSameDayJoinAll(Long sessionId, Long playerId, List<Integer> matchNumbers) {
         PracticeSession session = practiceSessionRepository.findById(sessionId)
                 .orElseThrow(() -> new ResourceNotFoundException("PracticeSession", sessionId));
 
@@ -453,70 +471,73 @@ public class WaitlistPromotionService {
         List<Integer> joinedMatches = new java.util.ArrayList<>();
         Map<Integer, Integer> vacanciesByMatch = new java.util.LinkedHashMap<>();
 
-        for (int matchNumber : targetMatches) {
-            // 伝助側で削除が承認された試合(欠番)はスキップ（他の試合の一括参加は継続する）
-            if (densukeDeletionGuard.isApprovedDeletion(session.getOrganizationId(), session.getSessionDate(), matchNumber)) {
-                continue;
-            }
+        // 対象試合の枠ロックを昇順でまとめて取得してから、空き枠確認と登録を行う
+        try (PracticeSlotLock.Handle ignored = practiceSlotLock.acquire(sessionId, targetMatches)) {
+            for (int matchNumber : targetMatches) {
+                // 伝助側で削除が承認された試合(欠番)はスキップ（他の試合の一括参加は継続する）
+                if (densukeDeletionGuard.isApprovedDeletion(session.getOrganizationId(), session.getSessionDate(), matchNumber)) {
+                    continue;
+                }
 
-            // 既にWONかどうかチェック
-            List<PracticeParticipant> existingRecords = practiceParticipantRepository
-                    .findBySessionIdAndPlayerIdAndMatchNumber(sessionId, playerId, matchNumber);
-            if (existingRecords.stream().anyMatch(p -> p.getStatus() == ParticipantStatus.WON)) {
-                continue;
-            }
+                // 既にWONかどうかチェック
+                List<PracticeParticipant> existingRecords = practiceParticipantRepository
+                        .findBySessionIdAndPlayerIdAndMatchNumber(sessionId, playerId, matchNumber);
+                if (existingRecords.stream().anyMatch(p -> p.getStatus() == ParticipantStatus.WON)) {
+                    continue;
+                }
 
-            // 空き枠チェック
-            List<PracticeParticipant> currentWon = practiceParticipantRepository
-                    .findBySessionIdAndMatchNumberAndStatus(sessionId, matchNumber, ParticipantStatus.WON);
-            if (currentWon.size() >= capacity) {
-                continue;
-            }
+                // 空き枠チェック
+                List<PracticeParticipant> currentWon = practiceParticipantRepository
+                        .findBySessionIdAndMatchNumberAndStatus(sessionId, matchNumber, ParticipantStatus.WON);
+                if (currentWon.size() >= capacity) {
+                    continue;
+                }
 
-            // 既存レコードがあればステータス更新、なければ新規作成
-            Optional<PracticeParticipant> existing = existingRecords.stream()
-                    .filter(p -> p.getStatus() != ParticipantStatus.WON)
-                    .findFirst();
+                // 既存レコードがあればステータス更新、なければ新規作成
+                Optional<PracticeParticipant> existing = existingRecords.stream()
+                        .filter(p -> p.getStatus() != ParticipantStatus.WON)
+                        .findFirst();
+
+                PracticeParticipant participant;
+                if (existing.isPresent()) {
+                    participant = existing.get();
+                    participant.setStatus(ParticipantStatus.WON);
+                    participant.setDirty(true);
+                } else {
+                    participant = PracticeParticipant.builder()
+                            .sessionId(sessionId)
+                            .playerId(playerId)
+                            .matchNumber(matchNumber)
+                            .status(ParticipantStatus.WON)
+                            .dirty(true)
+                            .build();
+                }
+                practiceParticipantRepository.save(participant);
 
-            PracticeParticipant participant;
-            if (existing.isPresent()) {
-                participant = existing.get();
-                participant.setStatus(ParticipantStatus.WON);
-                participant.setDirty(true);
-            } else {
-                participant = PracticeParticipant.builder()
-                        .sessionId(sessionId)
-                        .playerId(playerId)
-                        .matchNumber(matchNumber)
-                        .status(ParticipantStatus.WON)
-                        .dirty(true)
-                        .build();
-            }
-            practiceParticipantRepository.save(participant);
+                joinedMatches.add(matchNumber);
 
-            joinedMatches.add(matchNumber);
+                // 参加登録後の空き枠数を計算（save後なので+1された状態）
+                int currentWonCount = currentWon.size() + 1; // 今登録した分を加算
+                int vacancies = Math.max(0, capacity - currentWonCount);
+                vacanciesByMatch.put(matchNumber, vacancies);
 
-            // 参加登録後の空き枠数を計算（save後なので+1された状態）
-            int currentWonCount = currentWon.size() + 1; // 今登録した分を加算
-            int vacancies = Math.max(0, capacity - currentWonCount);
-            vacanciesByMatch.put(matchNumber, vacancies);
+                joinedCount++;
+                log.info("Same-day join all: player {} ({}) joined session {} match {}",
+                        playerId, playerName, sessionId, matchNumber);
+            }
 
-            joinedCount++;
-            log.info("Same-day join all: player {} ({}) joined session {} match {}",
-                    playerId, playerName, sessionId, matchNumber);
-        }
+            if (joinedCount > 0) {
+                // 参加通知をセッション単位でまとめて送信
+                lineNotificationService.sendConsolidatedSameDayJoinNotification(session, joinedMatches, playerName, playerId);
 
-        if (joinedCount > 0) {
-            // 参加通知をセッション単位でまとめて送信
-            lineNotificationService.sendConsolidatedSameDayJoinNotification(session, joinedMatches, playerName, playerId);
+                // 空き枠通知をセッション単位でまとめて送信
+                if (!vacanciesByMatch.isEmpty()) {
+                    lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, playerId);
+                    lineNotificationService.sendConsolidatedAdminVacancyNotification(session, vacanciesByMatch);
+                }
 
-            // 空き枠通知をセッション単位でまとめて送信
-            if (!vacanciesByMatch.isEmpty()) {
-                lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, playerId);
-                lineNotificationService.sendConsolidatedAdminVacancyNotification(session, vacanciesByMatch);
+                densukeSyncService.triggerWriteAsync();
             }
-
-            densukeSyncService.triggerWriteAsync();
         }
 
         return joinedCount;
@@ -711,6 +732,7 @@ public class WaitlistPromotionService {
         next.setOfferedAt(now);
         next.setOfferDeadline(deadline);
         practiceParticipantRepository.save(next);
+        offerDeadlineTimer.schedule(next.getId(), deadline);
 
         // OFFERED時点では番号を繰り上げない（離脱確定時＝WON/DECLINED時に繰り上げる）
 
@@ -737,11 +759,9 @@ public class WaitlistPromotionService {
 
         PracticeSession session = sessionOpt.get();
         int capacity = session.getCapacity() != null ? session.getCapacity() : Integer.MAX_VALUE;
-        long wonCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                sessionId, matchNumber, ParticipantStatus.WON);
-        long offeredCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                sessionId, matchNumber, ParticipantStatus.OFFERED);
-        long availableSlots = (long) capacity - wonCount - offeredCount;
+        int heldCount = seatOccupancyService.current(sessionId)
+                .count(matchNumber, ParticipantStatus.WON, ParticipantStatus.OFFERED);
+        long availableSlots = (long) capacity - heldCount;
 
         return availableSlots > 0;
     }
@@ -768,6 +788,7 @@ public class WaitlistPromotionService {
         }
 
         participant.setRespondedAt(JstDateTimeUtil.now());
+        offerDeadlineTimer.cancel(participantId);
 
         if (accept) {
             participant.setStatus(ParticipantStatus.WON);
@@ -878,6 +899,7 @@ public class WaitlistPromotionService {
         participant.setWaitlistNumber(null);
         participant.setRespondedAt(JstDateTimeUtil.now());
         practiceParticipantRepository.save(participant);
+        offerDeadlineTimer.cancel(participantId);
 
         renumberRemainingWaitlist(participant.getSessionId(), participant.getMatchNumber());
 
@@ -937,6 +959,7 @@ public class WaitlistPromotionService {
                 p.setWaitlistNumber(null);
                 p.setRespondedAt(JstDateTimeUtil.now());
                 practiceParticipantRepository.save(p);
+                offerDeadlineTimer.cancel(p.getId());
                 affectedMatches.add(p.getMatchNumber());
                 acceptedCount++;
                 log.info("Player {} accepted offer (batch) for session {} match {}",
@@ -981,6 +1004,7 @@ public class WaitlistPromotionService {
                 p.setWaitlistNumber(null);
                 p.setRespondedAt(JstDateTimeUtil.now());
                 practiceParticipantRepository.save(p);
+                offerDeadlineTimer.cancel(p.getId());
                 declined.add(p);
                 affectedMatches.add(p.getMatchNumber());
                 log.info("Player {} declined offer (batch) for session {} match {}",
@@ -1292,10 +1316,10 @@ public class WaitlistPromotionService {
         // 空き枠がある試合を蓄積し、セッション単位で統合通知
         Map<Integer, Integer> vacanciesByMatch = new LinkedHashMap<>();
         int capacity = session.getCapacity() != null ? session.getCapacity() : 0;
+        SeatOccupancyService.SessionSeats seats = seatOccupancyService.current(session.getId());
 
         for (Integer matchNumber : affectedMatches) {
-            long wonCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                    session.getId(), matchNumber, ParticipantStatus.WON);
+            int wonCount = seats.count(matchNumber, ParticipantStatus.WON);
 
             if (wonCount < capacity) {
                 int vacancies = (int) (capacity - wonCount);
@@ -1414,6 +1438,7 @@ public class WaitlistPromotionService {
         int totalRemained = 0;
         List<PracticeParticipant> toSave = new ArrayList<>();
         List<PracticeParticipant> promotedForNotify = new ArrayList<>();
+        SeatOccupancyService.SessionSeats seats = seatOccupancyService.current(sessionId);
 
         for (Map.Entry<Integer, List<PracticeParticipant>> entry : waitlistedByMatch.entrySet()) {
             Integer matchNumber = entry.getKey();
@@ -1421,17 +1446,13 @@ public class WaitlistPromotionService {
             matchWaitlisted.sort(Comparator.comparing(p ->
                     p.getWaitlistNumber() == null ? Integer.MAX_VALUE : p.getWaitlistNumber()));
 
-            long wonCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                    sessionId, matchNumber, ParticipantStatus.WON);
-            long offeredCount = practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                    sessionId, matchNumber, ParticipantStatus.OFFERED);
-
             long availableSlots;
             if (capacity == null) {
                 // 容量無制限：全員昇格
                 availableSlots = matchWaitlisted.size();
             } else {
-                availableSlots = (long) capacity - wonCount - offeredCount;
+                availableSlots = (long) capacity
+                        - seats.count(matchNumber, ParticipantStatus.WON, ParticipantStatus.OFFERED);
             }
 
             if (availableSlots <= 0) {
@@ -1461,6 +1482,9 @@ public class WaitlistPromotionService {
 
         if (!toSave.isEmpty()) {
             practiceParticipantRepository.saveAll(toSave);
+            for (PracticeParticipant p : toSave) {
+                offerDeadlineTimer.schedule(p.getId(), deadline);
+            }
         }
 
         // 影響試合ごとに waitlist_number を 1..N で再採番
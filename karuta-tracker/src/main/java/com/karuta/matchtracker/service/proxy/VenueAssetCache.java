@@ -0,0 +1,369 @@
+package com.karuta.matchtracker.service.proxy;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.apache.http.Header;
+import org.apache.http.HttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.utils.DateUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.LongSupplier;
+
+/**
+ * 会場サイトの静的アセット (CSS / JS / 画像 / フォント) のセッション横断キャッシュ。
+ *
+ * <p>キーは (会場, 上流 URL)。プロキシ URL から token を除いた上流 URL なので、同じアセットは
+ * どのプロキシセッションからでも同じエントリを引く。保持するのは書き換え後の本文で、
+ * CSS の書き換えで埋め込まれた token の位置で本文を分割して持ち、返すときに要求元セッションの
+ * token を挟んで組み立てる。</p>
+ *
+ * <p>載せるのは GET の 200 応答のうち、アセットの Content-Type で、上流の {@code Cache-Control}
+ * が共有キャッシュを許し ({@code no-store} / {@code private} でない)、{@code Set-Cookie} を含まず、
+ * 鮮度 ({@code s-maxage} / {@code max-age} / {@code Expires}) か検証子 ({@code ETag} /
+ * {@code Last-Modified}) を持つものだけ。鮮度内は上流に問い合わせずに返し、鮮度が切れたら
+ * 検証子付きの条件付き GET を送り、304 なら保持している本文を返す。HTML はセッションごとに
+ * 内容が違うため載せない。</p>
+ *
+ * <p>容量は本文のバイト数で {@link #MAX_WEIGHT_BYTES} まで。{@link #MAX_ENTRY_BYTES} を超える
+ * アセットは載せない。</p>
+ */
+@Component
+public class VenueAssetCache {
+
+    /** キャッシュ全体のバイト数上限 */
+    static final long MAX_WEIGHT_BYTES = 16L * 1024 * 1024;
+
+    /** 1件あたりの上限。これを超えるアセットはキャッシュしない */
+    static final int MAX_ENTRY_BYTES = 1024 * 1024;
+
+    /** 参照の無いエントリを捨てるまでの期間 */
+    static final Duration IDLE_TTL = Duration.ofHours(1);
+
+    record Key(VenueId venue, String upstreamUrl) {
+    }
+
+    /** 保持している応答 1件。本文は token の出現位置で分割してある */
+    static final class Entry {
+        private final List<byte[]> segments;
+        private final HttpHeaders headers;
+        private final String etag;
+        private final String lastModified;
+        private final int weight;
+        private volatile long freshUntilNanos;
+
+        private Entry(List<byte[]> segments, HttpHeaders headers, String etag, String lastModified,
+                      long freshUntilNanos) {
+            this.segments = segments;
+            this.headers = headers;
+            this.etag = etag;
+            this.lastModified = lastModified;
+            this.weight = segments.stream().mapToInt(s -> s.length).sum();
+            this.freshUntilNanos = freshUntilNanos;
+        }
+
+        boolean canRevalidate() {
+            return etag != null || lastModified != null;
+        }
+
+        byte[] body(byte[] token) {
+            byte[] out = new byte[weight + token.length * (segments.size() - 1)];
+            int pos = 0;
+            for (int i = 0; i < segments.size(); i++) {
+                if (i > 0) {
+                    System.arraycopy(token, 0, out, pos, token.length);
+                    pos += token.length;
+                }
+                byte[] segment = segments.get(i);
+                System.arraycopy(segment, 0, out, pos, segment.length);
+                pos += segment.length;
+            }
+            return out;
+        }
+    }
+
+    /** 上流応答の Cache-Control 等から読んだ保存可否と鮮度 */
+    record Freshness(boolean storable, long seconds) {
+    }
+
+    private final Cache<Key, Entry> cache = Caffeine.newBuilder()
+            .maximumWeight(MAX_WEIGHT_BYTES)
+            .weigher((Key key, Entry entry) -> entry.weight)
+            .expireAfterAccess(IDLE_TTL)
+            .recordStats()
+            .build();
+    private final Counter hitCounter;
+    private final Counter revalidatedCounter;
+    private final Counter missCounter;
+
+    /** テスト用に差し替え可能な単調時計 (ナノ秒) */
+    LongSupplier nanoClock = System::nanoTime;
+
+    public VenueAssetCache(MeterRegistry meterRegistry) {
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "venue_proxy_assets");
+        this.hitCounter = requests(meterRegistry, "hit", "上流に問い合わせずに返したアセット要求数");
+        this.revalidatedCounter = requests(meterRegistry, "revalidated", "上流の 304 で保持中の本文を返したアセット要求数");
+        this.missCounter = requests(meterRegistry, "miss", "上流から本文を取得したアセット要求数");
+        Gauge.builder("venue_proxy.asset_cache.hit_ratio", this, VenueAssetCache::hitRatio)
+                .description("アセット要求のうち保持中の本文を返した割合 (304 での再検証を含む)")
+                .register(meterRegistry);
+    }
+
+    private static Counter requests(MeterRegistry meterRegistry, String result, String description) {
+        return Counter.builder("venue_proxy.asset_cache.requests")
+                .description(description)
+                .tag("result", result)
+                .register(meterRegistry);
+    }
+
+    double hitRatio() {
+        double served = hitCounter.count() + revalidatedCounter.count();
+        double total = served + missCounter.count();
+        return total == 0 ? 0 : served / total;
+    }
+
+    /** キャッシュを引く対象の要求か (GET のみ) */
+    static boolean isCacheableRequest(HttpUriRequest request) {
+        return "GET".equalsIgnoreCase(request.getMethod());
+    }
+
+    /**
+     * 保持中のエントリを返す。鮮度切れで検証子も無いものは捨てて null を返す。
+     */
+    Entry lookup(VenueId venue, String upstreamUrl) {
+        Key key = new Key(venue, upstreamUrl);
+        Entry entry = cache.getIfPresent(key);
+        if (entry != null && !isFresh(entry) && !entry.canRevalidate()) {
+            cache.asMap().remove(key, entry);
+            return null;
+        }
+        return entry;
+    }
+
+    /** 鮮度内ならそのまま返す応答を、鮮度切れなら null を返す */
+    ResponseEntity<byte[]> serveIfFresh(Entry entry, String token) {
+        if (!isFresh(entry)) {
+            return null;
+        }
+        hitCounter.increment();
+        return respond(entry, token);
+    }
+
+    /**
+     * 鮮度切れのエントリの検証子を上流への要求に付ける。ブラウザ由来の条件付きヘッダは
+     * ブラウザのキャッシュに対するものなので外す (上流の 304 をこのエントリに対する応答として読むため)。
+     */
+    void addValidators(Entry entry, HttpUriRequest request) {
+        request.removeHeaders(HttpHeaders.IF_NONE_MATCH);
+        request.removeHeaders(HttpHeaders.IF_MODIFIED_SINCE);
+        if (entry.etag != null) {
+            request.setHeader(HttpHeaders.IF_NONE_MATCH, entry.etag);
+        }
+        if (entry.lastModified != null) {
+            request.setHeader(HttpHeaders.IF_MODIFIED_SINCE, entry.lastModified);
+        }
+    }
+
+    /** 上流の 304 を受けて鮮度を更新し、保持中の本文を返す */
+    ResponseEntity<byte[]> serveRevalidated(Entry entry, HttpResponse notModified, String token) {
+        Freshness freshness = freshness(notModified);
+        entry.freshUntilNanos = nanoClock.getAsLong() + Duration.ofSeconds(freshness.seconds()).toNanos();
+        revalidatedCounter.increment();
+        return respond(entry, token);
+    }
+
+    /**
+     * 上流から取得して書き換えた応答を、条件を満たせば保持する。
+     *
+     * @param upstreamResponse 上流の応答 (Cache-Control 等の判定に使う)
+     * @param response         クライアントに返す書き換え後の応答
+     */
+    void store(VenueId venue, String upstreamUrl, String token,
+               HttpResponse upstreamResponse, ResponseEntity<byte[]> response) {
+        if (!isAsset(response.getHeaders().getContentType())) {
+            return;
+        }
+        missCounter.increment();
+        Key key = new Key(venue, upstreamUrl);
+        byte[] body = response.getBody();
+        if (response.getStatusCode().value() != HttpStatus.OK.value()
+                || body == null
+                || body.length > MAX_ENTRY_BYTES
+                || upstreamResponse.containsHeader(HttpHeaders.SET_COOKIE)
+                || !varyAllowsSharing(upstreamResponse)) {
+            cache.invalidate(key);
+            return;
+        }
+        Freshness freshness = freshness(upstreamResponse);
+        String etag = firstValue(upstreamResponse, HttpHeaders.ETAG);
+        String lastModified = firstValue(upstreamResponse, HttpHeaders.LAST_MODIFIED);
+        if (!freshness.storable() || (freshness.seconds() == 0 && etag == null && lastModified == null)) {
+            cache.invalidate(key);
+            return;
+        }
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(response.getHeaders());
+        headers.remove(HttpHeaders.CONTENT_LENGTH);
+        long freshUntil = nanoClock.getAsLong() + Duration.ofSeconds(freshness.seconds()).toNanos();
+        cache.put(key, new Entry(split(body, tokenBytes(token)), HttpHeaders.readOnlyHttpHeaders(headers),
+                etag, lastModified, freshUntil));
+    }
+
+    private boolean isFresh(Entry entry) {
+        return nanoClock.getAsLong() - entry.freshUntilNanos < 0;
+    }
+
+    private static ResponseEntity<byte[]> respond(Entry entry, String token) {
+        byte[] body = entry.body(tokenBytes(token));
+        HttpHeaders headers = new HttpHeaders();
+        headers.putAll(entry.headers);
+        headers.setContentLength(body.length);
+        return ResponseEntity.ok().headers(headers).body(body);
+    }
+
+    /** 書き換えで URL に埋め込まれる形の token (VenueReservationHtmlRewriter#rewriteUrl と同じエンコード) */
+    private static byte[] tokenBytes(String token) {
+        return URLEncoder.encode(token == null ? "" : token, StandardCharsets.UTF_8).getBytes(StandardCharsets.UTF_8);
+    }
+
+    static List<byte[]> split(byte[] body, byte[] token) {
+        List<byte[]> segments = new ArrayList<>();
+        int start = 0;
+        if (token.length > 0) {
+            for (int i = indexOf(body, token, 0); i >= 0; i = indexOf(body, token, start)) {
+                segments.add(Arrays.copyOfRange(body, start, i));
+                start = i + token.length;
+            }
+        }
+        segments.add(Arrays.copyOfRange(body, start, body.length));
+        return List.copyOf(segments);
+    }
+
+    private static int indexOf(byte[] body, byte[] token, int from) {
+        outer:
+        for (int i = from; i <= body.length - token.length; i++) {
+            for (int j = 0; j < token.length; j++) {
+                if (body[i + j] != token[j]) {
+                    continue outer;
+                }
+            }
+            return i;
+        }
+        return -1;
+    }
+
+    private static boolean isAsset(MediaType contentType) {
+        if (contentType == null) {
+            return false;
+        }
+        String type = contentType.getType().toLowerCase(Locale.ROOT);
+        String subtype = contentType.getSubtype().toLowerCase(Locale.ROOT);
+        return type.equals("image")
+                || type.equals("font")
+                || (type.equals("text") && (subtype.equals("css") || subtype.equals("javascript")))
+                || (type.equals("application") && (subtype.contains("javascript")
+                        || subtype.contains("font") || subtype.equals("vnd.ms-fontobject")));
+    }
+
+    /** Vary が無いか Accept-Encoding だけなら共有してよい (上流との圧縮はクライアントが解いている) */
+    private static boolean varyAllowsSharing(HttpResponse response) {
+        for (Header header : response.getHeaders(HttpHeaders.VARY)) {
+            for (String field : header.getValue().split(",")) {
+                String name = field.trim();
+                if (!name.isEmpty() && !name.equalsIgnoreCase(HttpHeaders.ACCEPT_ENCODING)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 共有キャッシュとしての保存可否と鮮度 (秒) を読む。{@code s-maxage} を {@code max-age} より、
+     * {@code max-age} を {@code Expires} より優先し、{@code Age} の分を差し引く。
+     */
+    static Freshness freshness(HttpResponse response) {
+        boolean sawCacheControl = false;
+        boolean noCache = false;
+        long maxAge = -1;
+        long sharedMaxAge = -1;
+        for (Header header : response.getHeaders(HttpHeaders.CACHE_CONTROL)) {
+            sawCacheControl = true;
+            for (String raw : header.getValue().split(",")) {
+                String directive = raw.trim().toLowerCase(Locale.ROOT);
+                if (directive.equals("no-store") || directive.startsWith("private")) {
+                    return new Freshness(false, 0);
+                } else if (directive.startsWith("no-cache")) {
+                    noCache = true;
+                } else if (directive.startsWith("s-maxage=")) {
+                    sharedMaxAge = parseSeconds(directive.substring("s-maxage=".length()));
+                } else if (directive.startsWith("max-age=")) {
+                    maxAge = parseSeconds(directive.substring("max-age=".length()));
+                }
+            }
+        }
+        if (!sawCacheControl) {
+            String pragma = firstValue(response, HttpHeaders.PRAGMA);
+            noCache = pragma != null && pragma.toLowerCase(Locale.ROOT).contains("no-cache");
+        }
+        if (noCache) {
+            return new Freshness(true, 0);
+        }
+
+        long lifetime;
+        if (sharedMaxAge >= 0) {
+            lifetime = sharedMaxAge;
+        } else if (maxAge >= 0) {
+            lifetime = maxAge;
+        } else {
+            lifetime = expiresLifetime(response);
+        }
+        String age = firstValue(response, HttpHeaders.AGE);
+        long ageSeconds = age == null ? 0 : Math.max(0, parseSeconds(age));
+        return new Freshness(true, Math.max(0, lifetime - ageSeconds));
+    }
+
+    private static long expiresLifetime(HttpResponse response) {
+        String expires = firstValue(response, HttpHeaders.EXPIRES);
+        if (expires == null) {
+            return 0;
+        }
+        Date expiresAt = DateUtils.parseDate(expires);
+        if (expiresAt == null) {
+            return 0;
+        }
+        String dateHeader = firstValue(response, HttpHeaders.DATE);
+        Date date = dateHeader == null ? null : DateUtils.parseDate(dateHeader);
+        long now = date != null ? date.getTime() : System.currentTimeMillis();
+        return Math.max(0, (expiresAt.getTime() - now) / 1000);
+    }
+
+    private static long parseSeconds(String value) {
+        try {
+            return Long.parseLong(value.trim().replace("\"", ""));
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    private static String firstValue(HttpResponse response, String name) {
+        Header header = response.getFirstHeader(name);
+        return header == null ? null : header.getValue();
+    }
+}
@@ -0,0 +1,129 @@
+package com.karuta.matchtracker.service.proxy;
+
+import com.karuta.matchtracker.config.VenueReservationProxyConfig;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.HttpClientConnection;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.conn.ConnectionPoolTimeoutException;
+import org.apache.http.conn.ConnectionRequest;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Locale;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 会場サイトへの HTTP クライアントを会場ごとに組み立てる ({@link VenueReservationClient} の実装が使う)。
+ *
+ * <p>既定の {@code HttpClientBuilder} は1ルート (= 1会場サイト) あたり2接続しか張らないため、
+ * 複数の管理者の予約操作とブラウザのサブリソース取得 ({@code /api/venue-reservation-proxy/fetch/**})
+ * がその2本に並ぶ。ここでは会場ごとに {@link PoolingHttpClientConnectionManager} を持たせ、
+ * 全体の上限 ({@code venue-reservation-proxy.max-connections}) とルートごとの上限
+ * ({@code venue-reservation-proxy.max-connections-per-route}) で会場サイトへの同時接続数を抑える。
+ * 上限に達した要求は {@link RequestConfig#getConnectionRequestTimeout()} まで空きを待ち、
+ * 待ちきれなければ {@link ConnectionPoolTimeoutException} になる。</p>
+ *
+ * <p>期限切れの接続と {@code venue-reservation-proxy.idle-connection-seconds} 以上使われていない接続は
+ * クライアントの退避スレッドが閉じる (会場側に切られた接続を掴んで最初の要求が失敗するのを防ぐ)。</p>
+ *
+ * <p>メトリクス:</p>
+ * <ul>
+ *   <li>{@code httpcomponents.httpclient.pool.*} (タグ {@code httpclient=venue-<会場>}):
+ *       接続の上限・使用中/空き・空き待ちの数</li>
+ *   <li>{@code venue_proxy.http.pool.lease} (タグ {@code venue}, {@code outcome}):
+ *       接続の借り出しにかかった時間</li>
+ * </ul>
+ */
+@Component
+public class VenueHttpClientFactory {
+
+    /** 借りる前に接続の生存を確かめる、最後に使ってからの経過時間 (ミリ秒) */
+    static final int VALIDATE_AFTER_INACTIVITY_MS = 2000;
+
+    private final VenueReservationProxyConfig proxyConfig;
+    private final MeterRegistry meterRegistry;
+
+    public VenueHttpClientFactory(VenueReservationProxyConfig proxyConfig, MeterRegistry meterRegistry) {
+        this.proxyConfig = proxyConfig;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * 会場用の HTTP クライアントを作る。close すると接続プールと退避スレッドも止まる。
+     */
+    public CloseableHttpClient create(VenueId venue, RequestConfig requestConfig, String userAgent) {
+        String venueTag = venue.name().toLowerCase(Locale.ROOT);
+        PoolingHttpClientConnectionManager connectionManager = new MeteredConnectionManager(venueTag, meterRegistry);
+        connectionManager.setMaxTotal(proxyConfig.getMaxConnections());
+        connectionManager.setDefaultMaxPerRoute(proxyConfig.getMaxConnectionsPerRoute());
+        connectionManager.setValidateAfterInactivity(VALIDATE_AFTER_INACTIVITY_MS);
+        new PoolingHttpClientConnectionManagerMetricsBinder(connectionManager, "venue-" + venueTag, Tags.empty())
+                .bindTo(meterRegistry);
+
+        return HttpClientBuilder.create()
+                .setConnectionManager(connectionManager)
+                .setDefaultRequestConfig(requestConfig)
+                .setUserAgent(userAgent)
+                .evictExpiredConnections()
+                .evictIdleConnections(proxyConfig.getIdleConnectionSeconds(), TimeUnit.SECONDS)
+                .build();
+    }
+
+    /** 接続の借り出し時間を記録する接続プール */
+    private static final class MeteredConnectionManager extends PoolingHttpClientConnectionManager {
+
+        private final Timer acquired;
+        private final Timer timedOut;
+        private final Timer failed;
+
+        MeteredConnectionManager(String venueTag, MeterRegistry meterRegistry) {
+            this.acquired = leaseTimer(meterRegistry, venueTag, "acquired");
+            this.timedOut = leaseTimer(meterRegistry, venueTag, "timeout");
+            this.failed = leaseTimer(meterRegistry, venueTag, "failed");
+        }
+
+        private static Timer leaseTimer(MeterRegistry meterRegistry, String venueTag, String outcome) {
+            return Timer.builder("venue_proxy.http.pool.lease")
+                    .description("会場サイトへの接続をプールから借りるまでの待ち時間")
+                    .tag("venue", venueTag)
+                    .tag("outcome", outcome)
+                    .publishPercentileHistogram()
+                    .register(meterRegistry);
+        }
+
+        @Override
+        public ConnectionRequest requestConnection(HttpRoute route, Object state) {
+            ConnectionRequest delegate = super.requestConnection(route, state);
+            return new ConnectionRequest() {
+                @Override
+                public HttpClientConnection get(long timeout, TimeUnit unit)
+                        throws InterruptedException, ExecutionException, ConnectionPoolTimeoutException {
+                    long start = System.nanoTime();
+                    Timer outcome = failed;
+                    try {
+                        HttpClientConnection connection = delegate.get(timeout, unit);
+                        outcome = acquired;
+                        return connection;
+                    } catch (ConnectionPoolTimeoutException e) {
+                        outcome = timedOut;
+                        throw e;
+                    } finally {
+                        outcome.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+                    }
+                }
+
+                @Override
+                public boolean cancel() {
+                    return delegate.cancel();
+                }
+            };
+        }
+    }
+}
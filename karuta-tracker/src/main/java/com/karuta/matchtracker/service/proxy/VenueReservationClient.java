@@ -12,6 +12,9 @@ import org.apache.http.client.methods.HttpUriRequest;
  *
  * <p>本 interface は <strong>会場非依存</strong> な契約のみを規定する。
  * 会場固有の URL / DOM / hidden field 等はすべて実装クラスに閉じ込めること。</p>
+ *
+ * <p>実装の HTTP クライアントは {@link VenueHttpClientFactory} で作り、全セッションで1つの接続プールを
+ * 共有する。セッションごとの状態 (Cookie 等) は要求ごとの実行コンテキストに載せ、接続には持たせない。</p>
  */
 public interface VenueReservationClient {
 
@@ -12,6 +12,10 @@ import org.springframework.stereotype.Component;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLEncoder;
@@ -38,6 +42,11 @@ import java.util.regex.Pattern;
  *
  * <p>会場固有の URL / DOM はすべて {@link VenueConfig} と {@link VenueRewriteStrategy} 経由で取得し、
  * 本クラス自体は会場依存ロジックを持たない。</p>
+ *
+ * <p>同じ書き換えを DOM を組み立てずに1回の前方走査で行うストリーミング版
+ * ({@link #rewrite(Reader, Writer, String, ProxySession, VenueConfig, VenueRewriteStrategy, String)})
+ * も持つ。{@code venue-reservation-proxy.streaming-rewrite} で切り替える。出力は整形されない点を除き
+ * DOM 版と同じ木になる ({@code VenueReservationHtmlStreamRewriterTest} で突き合わせる)。</p>
  */
 @Component
 @Slf4j
@@ -107,15 +116,10 @@ public class VenueReservationHtmlRewriter {
             return html == null ? "" : html;
         }
 
-        String pre = strategy != null ? strategy.rewriteHtml(html, session.getToken()) : html;
-        if (pre == null) pre = html;
-
-        Document doc = Jsoup.parse(pre);
+        Document doc = Jsoup.parse(preRewrite(html, session, strategy));
         String baseUrl = venueConfig.baseUrl();
         String token = session.getToken();
-        String upstreamUrl = currentUpstreamUrl != null && !currentUpstreamUrl.isBlank()
-                ? currentUpstreamUrl
-                : defaultEntryUrl(venueConfig);
+        String upstreamUrl = upstreamUrlOrEntry(currentUpstreamUrl, venueConfig);
 
         rewriteAttribute(doc, "a[href]", "href", baseUrl, upstreamUrl, token);
         rewriteAttribute(doc, "form[action]", "action", baseUrl, upstreamUrl, token);
@@ -136,6 +140,47 @@ public class VenueReservationHtmlRewriter {
         return doc.outerHtml();
     }
 
+    /**
+     * {@link #rewrite(String, String, ProxySession, VenueConfig, VenueRewriteStrategy)} と同じ書き換えを、
+     * DOM を組み立てずに {@code html} から {@code out} へ1回の前方走査で流しながら行う。
+     *
+     * <p>書き換え箇所以外は入力の文字列をそのまま書く (DOM 版のような整形・正規化はしない)。
+     * 会場固有の事前書き換え ({@link VenueRewriteStrategy#rewritesHtml()} が true の strategy) がある
+     * 場合だけ、その入力として全体を一度文字列に読み込む。</p>
+     *
+     * @param beforeBodyEnd {@code </body>} の直前 (無ければ末尾) に書き足す HTML。null なら何もしない
+     */
+    public void rewrite(Reader html, Writer out, String currentUpstreamUrl, ProxySession session,
+                        VenueConfig venueConfig, VenueRewriteStrategy strategy,
+                        String beforeBodyEnd) throws IOException {
+        Reader in = html;
+        if (strategy != null && strategy.rewritesHtml()) {
+            StringWriter whole = new StringWriter();
+            html.transferTo(whole);
+            if (whole.getBuffer().isEmpty()) {
+                return;
+            }
+            in = new StringReader(preRewrite(whole.toString(), session, strategy));
+        }
+        String upstreamUrl = upstreamUrlOrEntry(currentUpstreamUrl, venueConfig);
+        new VenueReservationHtmlStreamRewriter(this, in, out, venueConfig.baseUrl(), upstreamUrl,
+                session.getToken(),
+                injectorScriptTag(session, venueConfig, strategy, upstreamUrl),
+                bannerHtml(session, venueConfig),
+                beforeBodyEnd).run();
+    }
+
+    private static String preRewrite(String html, ProxySession session, VenueRewriteStrategy strategy) {
+        String pre = strategy != null ? strategy.rewriteHtml(html, session.getToken()) : html;
+        return pre == null ? html : pre;
+    }
+
+    private static String upstreamUrlOrEntry(String currentUpstreamUrl, VenueConfig venueConfig) {
+        return currentUpstreamUrl != null && !currentUpstreamUrl.isBlank()
+                ? currentUpstreamUrl
+                : defaultEntryUrl(venueConfig);
+    }
+
     /**
      * 外部 CSS レスポンス内の {@code @import} / {@code url(...)} をプロキシ URL に書き換える。
      *
@@ -149,9 +194,7 @@ public class VenueReservationHtmlRewriter {
         if (css == null || css.isEmpty()) {
             return css == null ? "" : css;
         }
-        String upstreamUrl = currentUpstreamUrl != null && !currentUpstreamUrl.isBlank()
-                ? currentUpstreamUrl
-                : defaultEntryUrl(venueConfig);
+        String upstreamUrl = upstreamUrlOrEntry(currentUpstreamUrl, venueConfig);
         String afterCssUrl = rewriteCssUrls(css, venueConfig.baseUrl(), upstreamUrl, session.getToken());
         return rewriteQuotedCssImports(afterCssUrl, venueConfig.baseUrl(), upstreamUrl, session.getToken());
     }
@@ -279,29 +322,38 @@ public class VenueReservationHtmlRewriter {
     }
 
     private void rewriteInlineScriptsAndStyles(Document doc, String baseUrl, String upstreamUrl, String token) {
-        // インライン script: 引用符で囲まれた会場サイト絶対URLのみを保守的に書き換える
         for (Element script : doc.select("script:not([src])")) {
             String body = script.data();
             if (body == null || body.isEmpty()) continue;
-            String rewritten = rewriteQuotedVenueUrls(body, baseUrl, upstreamUrl, token);
+            String rewritten = rewriteInlineScript(body, baseUrl, upstreamUrl, token);
             if (!rewritten.equals(body)) {
                 script.text("");
                 script.appendChild(new org.jsoup.nodes.DataNode(rewritten));
             }
         }
-        // インライン style: url(...) と引用符付き URL を書き換え
         for (Element style : doc.select("style")) {
             String body = style.data();
             if (body == null || body.isEmpty()) continue;
-            String afterCssUrl = rewriteCssUrls(body, baseUrl, upstreamUrl, token);
-            String afterQuoted = rewriteQuotedVenueUrls(afterCssUrl, baseUrl, upstreamUrl, token);
-            if (!afterQuoted.equals(body)) {
+            String rewritten = rewriteInlineStyle(body, baseUrl, upstreamUrl, token);
+            if (!rewritten.equals(body)) {
                 style.text("");
-                style.appendChild(new org.jsoup.nodes.DataNode(afterQuoted));
+                style.appendChild(new org.jsoup.nodes.DataNode(rewritten));
             }
         }
     }
 
+    /** インライン script: 引用符で囲まれた会場サイト絶対URLのみを保守的に書き換える */
+    String rewriteInlineScript(String body, String baseUrl, String upstreamUrl, String token) {
+        return rewriteQuotedVenueUrls(body, baseUrl, upstreamUrl, token);
+    }
+
+    /** インライン style: url(...)・@import "..."・引用符付き URL を書き換え */
+    String rewriteInlineStyle(String body, String baseUrl, String upstreamUrl, String token) {
+        String afterCssUrl = rewriteCssUrls(body, baseUrl, upstreamUrl, token);
+        String afterImport = rewriteQuotedCssImports(afterCssUrl, baseUrl, upstreamUrl, token);
+        return rewriteQuotedVenueUrls(afterImport, baseUrl, upstreamUrl, token);
+    }
+
     private String rewriteQuotedVenueUrls(String body, String baseUrl, String upstreamUrl, String token) {
         Matcher m = QUOTED_VENUE_URL.matcher(body);
         StringBuilder sb = new StringBuilder(body.length());
@@ -358,18 +410,28 @@ public class VenueReservationHtmlRewriter {
         return sb.toString();
     }
 
-    private void injectScriptIntoHead(Document doc, ProxySession session, VenueConfig venueConfig,
-                                      VenueRewriteStrategy strategy, String currentUpstreamUrl) {
+    private String injectorScript(ProxySession session, VenueConfig venueConfig,
+                                  VenueRewriteStrategy strategy, String currentUpstreamUrl) {
         String venueInject = strategy != null && strategy.injectScript() != null ? strategy.injectScript() : "";
-        String upstream = currentUpstreamUrl != null && !currentUpstreamUrl.isBlank()
-                ? currentUpstreamUrl
-                : defaultEntryUrl(venueConfig);
-        String script = injectorTemplate
+        return injectorTemplate
                 .replace("{{token}}", jsEscape(session.getToken()))
                 .replace("{{baseUrl}}", jsEscape(venueConfig.baseUrl()))
                 .replace("{{proxyPrefix}}", jsEscape(PROXY_PREFIX))
-                .replace("{{currentUpstreamUrl}}", jsEscape(upstream))
+                .replace("{{currentUpstreamUrl}}", jsEscape(upstreamUrlOrEntry(currentUpstreamUrl, venueConfig)))
                 .replace("/* {{venueInjectScript}} */", venueInject);
+    }
+
+    /** ストリーミング版で head に書く注入スクリプト要素 (DOM 版が組み立てる要素と同じ属性) */
+    private String injectorScriptTag(ProxySession session, VenueConfig venueConfig,
+                                     VenueRewriteStrategy strategy, String currentUpstreamUrl) {
+        return "<script type=\"text/javascript\" class=\"" + MARKER_INJECTOR + "\">"
+                + injectorScript(session, venueConfig, strategy, currentUpstreamUrl)
+                + "</script>";
+    }
+
+    private void injectScriptIntoHead(Document doc, ProxySession session, VenueConfig venueConfig,
+                                      VenueRewriteStrategy strategy, String currentUpstreamUrl) {
+        String script = injectorScript(session, venueConfig, strategy, currentUpstreamUrl);
 
         Element head = doc.head();
         if (head == null) {
@@ -388,17 +450,19 @@ public class VenueReservationHtmlRewriter {
         if (body == null) {
             body = doc.appendElement("body");
         }
+        // <body> 先頭に挿入
+        body.prepend(bannerHtml(session, venueConfig));
+    }
+
+    private String bannerHtml(ProxySession session, VenueConfig venueConfig) {
         Long psid = session.getPracticeSessionId();
         String returnUrl = session.getReturnUrl() == null ? "" : session.getReturnUrl();
-        String banner = bannerTemplate
+        return bannerTemplate
                 .replace("{{displayName}}", htmlEscape(venueConfig.displayName()))
                 .replace("{{token}}", jsEscape(session.getToken()))
                 .replace("{{practiceSessionId}}", psid == null ? "" : String.valueOf(psid))
                 .replace("{{venue}}", session.getVenue() == null ? "" : session.getVenue().name())
                 .replace("{{returnUrl}}", jsEscape(returnUrl));
-
-        // <body> 先頭に挿入
-        body.prepend(banner);
     }
 
     private static String jsEscape(String s) {
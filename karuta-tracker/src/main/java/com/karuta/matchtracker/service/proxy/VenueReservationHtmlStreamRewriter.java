@@ -0,0 +1,387 @@
+package com.karuta.matchtracker.service.proxy;
+
+import org.jsoup.parser.Parser;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.IntPredicate;
+
+/**
+ * {@link VenueReservationHtmlRewriter} のストリーミング版の本体 (1回の書き換えごとに作る)。
+ *
+ * <p>HTML を DOM にせず、テキスト・タグ・コメント・生テキスト要素 ({@code <script>} {@code <style>} 等の中身)
+ * のトークン単位で前から1回だけ読み、書き換えたトークンをそのまま出力に書く。手元に持つのは
+ * 読み込みバッファ・タグ1個・生テキスト要素1個の中身だけで、ページ全体は持たない。</p>
+ *
+ * <p>書き換えは DOM 版と同じ:</p>
+ * <ul>
+ *   <li>{@code a/link[href]} {@code form[action]} {@code img/script/iframe[src]} の URL (同名属性が複数あれば先頭)</li>
+ *   <li>{@code <base>} は書かない</li>
+ *   <li>src の無い {@code <script>} と {@code <style>} の中身は DOM 版と同じ正規表現で書き換える</li>
+ * </ul>
+ *
+ * <p>注入スクリプトとバナーは body の中身が始まる位置 ({@code <body>} タグ、または head に置けない最初のタグ・
+ * 空白以外の文字) で書く。注入スクリプトが {@code </head>} より後に出ても、HTML の構文規則で head の末尾に
+ * 入るため DOM 版 (head の末尾に追加) と同じ木になる。{@code <body>} タグの無いページではバナーの前に
+ * {@code <body>} を補い、バナー先頭の {@code <style>} が head に入らないようにする。</p>
+ */
+final class VenueReservationHtmlStreamRewriter {
+
+    /** 中身をタグとして読まない要素 (HTML の raw text / RCDATA 要素) */
+    private static final Set<String> RAW_TEXT_ELEMENTS = Set.of(
+            "script", "style", "textarea", "title", "xmp", "iframe", "noembed", "noframes");
+
+    /** body を始めずに head 側に置ける要素 */
+    private static final Set<String> HEAD_ELEMENTS = Set.of(
+            "html", "head", "title", "meta", "link", "style", "script", "base", "noscript",
+            "template", "basefont", "bgsound", "noframes");
+
+    /** 要素ごとの書き換え対象の URL 属性 */
+    private static final Map<String, String> URL_ATTRIBUTES = Map.of(
+            "a", "href",
+            "form", "action",
+            "img", "src",
+            "link", "href",
+            "script", "src",
+            "iframe", "src");
+
+    private static final IntPredicate WHITESPACE = VenueReservationHtmlStreamRewriter::isWhitespace;
+    private static final IntPredicate TAG_NAME_END = c -> isWhitespace(c) || c == '/' || c == '>';
+    private static final IntPredicate ATTRIBUTE_NAME_END = c -> isWhitespace(c) || c == '/' || c == '>' || c == '=';
+    private static final IntPredicate UNQUOTED_VALUE_END = c -> isWhitespace(c) || c == '>';
+
+    private final VenueReservationHtmlRewriter rewriter;
+    private final Reader in;
+    private final Writer out;
+    private final String baseUrl;
+    private final String upstreamUrl;
+    private final String token;
+    private final String injectorScriptTag;
+    private final String banner;
+    private final String beforeBodyEnd;
+
+    private final char[] buf = new char[8192];
+    private int pos;
+    private int limit;
+    private boolean eof;
+
+    private boolean bodyStarted;
+    private boolean beforeBodyEndWritten;
+
+    VenueReservationHtmlStreamRewriter(VenueReservationHtmlRewriter rewriter, Reader in, Writer out,
+                                       String baseUrl, String upstreamUrl, String token,
+                                       String injectorScriptTag, String banner, String beforeBodyEnd) {
+        this.rewriter = rewriter;
+        this.in = in;
+        this.out = out;
+        this.baseUrl = baseUrl;
+        this.upstreamUrl = upstreamUrl;
+        this.token = token;
+        this.injectorScriptTag = injectorScriptTag;
+        this.banner = banner;
+        this.beforeBodyEnd = beforeBodyEnd;
+    }
+
+    void run() throws IOException {
+        // 空の入力は空のまま返す (DOM 版と同じ)
+        if (!ensure(1)) {
+            return;
+        }
+        while (ensure(1)) {
+            if (buf[pos] == '<') {
+                markup();
+            } else {
+                text();
+            }
+        }
+        startBody();
+        writeBeforeBodyEnd();
+        out.flush();
+    }
+
+    // ========================================================================
+    // トークン
+    // ========================================================================
+
+    private void text() throws IOException {
+        while (ensure(1) && buf[pos] != '<') {
+            if (!bodyStarted) {
+                if (isWhitespace(buf[pos])) {
+                    out.write(buf[pos++]);
+                    continue;
+                }
+                startBody();
+            }
+            int start = pos;
+            while (pos < limit && buf[pos] != '<') {
+                pos++;
+            }
+            out.write(buf, start, pos - start);
+        }
+    }
+
+    private void markup() throws IOException {
+        if (!ensure(2)) {
+            literalLessThan();
+            return;
+        }
+        char next = buf[pos + 1];
+        if (next == '!') {
+            copyThrough(startsWith("<!--") ? "-->" : ">");
+        } else if (next == '?') {
+            copyThrough(">");
+        } else if (next == '/') {
+            if (ensure(3) && isAsciiLetter(buf[pos + 2])) {
+                endTag();
+            } else {
+                copyThrough(">");
+            }
+        } else if (isAsciiLetter(next)) {
+            startTag();
+        } else {
+            literalLessThan();
+        }
+    }
+
+    /** タグにならない {@code <} は本文の文字 */
+    private void literalLessThan() throws IOException {
+        startBody();
+        out.write(buf[pos++]);
+    }
+
+    private void endTag() throws IOException {
+        StringBuilder tag = new StringBuilder(16).append("</");
+        pos += 2;
+        String name = readWhileNot(TAG_NAME_END);
+        tag.append(name).append(readWhileNot(c -> c == '>'));
+        if (ensure(1)) {
+            tag.append(buf[pos++]);
+        }
+        if (name.equalsIgnoreCase("body")) {
+            startBody();
+            writeBeforeBodyEnd();
+        }
+        out.append(tag);
+    }
+
+    private void startTag() throws IOException {
+        pos++;
+        String rawName = readWhileNot(TAG_NAME_END);
+        String name = rawName.toLowerCase(Locale.ROOT);
+        String urlAttribute = URL_ATTRIBUTES.get(name);
+        boolean urlAttributeSeen = false;
+        boolean hasSrc = false;
+        boolean closed = false;
+
+        StringBuilder tag = new StringBuilder(64).append('<').append(rawName);
+        while (ensure(1)) {
+            tag.append(readWhile(WHITESPACE));
+            if (!ensure(1)) {
+                break;
+            }
+            char c = buf[pos];
+            if (c == '>') {
+                tag.append(buf[pos++]);
+                closed = true;
+                break;
+            }
+            if (c == '/') {
+                tag.append(buf[pos++]);
+                continue;
+            }
+            // 属性名の先頭の = は名前の一部 (HTML の構文規則)
+            String attrName = (c == '=' ? String.valueOf(buf[pos++]) : "") + readWhileNot(ATTRIBUTE_NAME_END);
+            String lowerName = attrName.toLowerCase(Locale.ROOT);
+            boolean first = lowerName.equals(urlAttribute) && !urlAttributeSeen;
+            urlAttributeSeen |= lowerName.equals(urlAttribute);
+            hasSrc |= lowerName.equals("src");
+
+            String beforeEquals = readWhile(WHITESPACE);
+            if (!ensure(1) || buf[pos] != '=') {
+                tag.append(attrName).append(beforeEquals);
+                continue;
+            }
+            pos++;
+            String afterEquals = readWhile(WHITESPACE);
+            String value;
+            String rawValue;
+            if (ensure(1) && (buf[pos] == '"' || buf[pos] == '\'')) {
+                char quote = buf[pos++];
+                value = readWhileNot(ch -> ch == quote);
+                boolean terminated = ensure(1);
+                if (terminated) {
+                    pos++;
+                }
+                rawValue = quote + value + (terminated ? String.valueOf(quote) : "");
+            } else {
+                value = readWhileNot(UNQUOTED_VALUE_END);
+                rawValue = value;
+            }
+
+            String rewritten = first ? rewriteUrlAttribute(value) : null;
+            if (rewritten != null) {
+                tag.append(attrName).append("=\"").append(rewritten).append('"');
+            } else {
+                tag.append(attrName).append(beforeEquals).append('=').append(afterEquals).append(rawValue);
+            }
+        }
+
+        if (name.equals("base")) {
+            return;
+        }
+        if (!bodyStarted && !HEAD_ELEMENTS.contains(name)) {
+            if (name.equals("body")) {
+                out.write(injectorScriptTag);
+                out.append(tag);
+                out.write(banner);
+                bodyStarted = true;
+                return;
+            }
+            startBody();
+        }
+        out.append(tag);
+        if (closed && RAW_TEXT_ELEMENTS.contains(name)) {
+            rawText(name, name.equals("script") && !hasSrc);
+        }
+    }
+
+    /** 生テキスト要素の中身を閉じタグの手前まで読み、script/style なら書き換えて書く */
+    private void rawText(String name, boolean inlineScript) throws IOException {
+        String close = "</" + name;
+        StringBuilder content = new StringBuilder();
+        while (ensure(1)) {
+            if (buf[pos] == '<' && startsWith(close) && closesAt(close.length())) {
+                break;
+            }
+            content.append(buf[pos++]);
+        }
+        String body = content.toString();
+        if (inlineScript) {
+            body = rewriter.rewriteInlineScript(body, baseUrl, upstreamUrl, token);
+        } else if (name.equals("style")) {
+            body = rewriter.rewriteInlineStyle(body, baseUrl, upstreamUrl, token);
+        }
+        out.write(body);
+    }
+
+    /**
+     * URL 属性値を書き換える。値の文字参照は DOM 版と同じく解いてから書き換え、書き戻すときに
+     * {@code &} と {@code "} を参照に戻す。
+     *
+     * @return 書き換えた属性値 (エスケープ済み)。書き換え不要なら null (元の表記のまま書く)
+     */
+    private String rewriteUrlAttribute(String rawValue) {
+        String value = Parser.unescapeEntities(rawValue, true);
+        if (value.isEmpty()) {
+            return null;
+        }
+        String rewritten = rewriter.rewriteUrl(value, baseUrl, upstreamUrl, token);
+        if (rewritten == null || rewritten.equals(value)) {
+            return null;
+        }
+        return rewritten.replace("&", "&amp;").replace("\"", "&quot;");
+    }
+
+    private void startBody() throws IOException {
+        if (bodyStarted) {
+            return;
+        }
+        bodyStarted = true;
+        out.write(injectorScriptTag);
+        out.write("<body>");
+        out.write(banner);
+    }
+
+    private void writeBeforeBodyEnd() throws IOException {
+        if (beforeBodyEnd != null && !beforeBodyEndWritten) {
+            out.write(beforeBodyEnd);
+            beforeBodyEndWritten = true;
+        }
+    }
+
+    // ========================================================================
+    // 読み込みバッファ
+    // ========================================================================
+
+    /** バッファに n 文字以上あるようにする。入力が尽きて揃わなければ false */
+    private boolean ensure(int n) throws IOException {
+        while (limit - pos < n) {
+            if (eof) {
+                return false;
+            }
+            if (pos > 0) {
+                System.arraycopy(buf, pos, buf, 0, limit - pos);
+                limit -= pos;
+                pos = 0;
+            }
+            int read = in.read(buf, limit, buf.length - limit);
+            if (read < 0) {
+                eof = true;
+            } else {
+                limit += read;
+            }
+        }
+        return true;
+    }
+
+    private boolean startsWith(String s) throws IOException {
+        if (!ensure(s.length())) {
+            return false;
+        }
+        for (int i = 0; i < s.length(); i++) {
+            if (Character.toLowerCase(buf[pos + i]) != s.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /** 閉じタグ名の直後が空白・{@code /}・{@code >}・入力の終わりのいずれか */
+    private boolean closesAt(int offset) throws IOException {
+        if (!ensure(offset + 1)) {
+            return true;
+        }
+        char c = buf[pos + offset];
+        return isWhitespace(c) || c == '/' || c == '>';
+    }
+
+    /** terminator の終わりまで (無ければ入力の終わりまで) をそのまま書く */
+    private void copyThrough(String terminator) throws IOException {
+        out.write(buf[pos++]);
+        while (ensure(1)) {
+            if (startsWith(terminator)) {
+                out.write(buf, pos, terminator.length());
+                pos += terminator.length();
+                return;
+            }
+            out.write(buf[pos++]);
+        }
+    }
+
+    private String readWhile(IntPredicate accept) throws IOException {
+        StringBuilder sb = null;
+        while (ensure(1) && accept.test(buf[pos])) {
+            if (sb == null) {
+                sb = new StringBuilder();
+            }
+            sb.append(buf[pos++]);
+        }
+        return sb == null ? "" : sb.toString();
+    }
+
+    private String readWhileNot(IntPredicate stop) throws IOException {
+        return readWhile(stop.negate());
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\f' || c == '\r';
+    }
+
+    private static boolean isAsciiLetter(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+}
@@ -28,7 +28,11 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
+import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringReader;
+import java.io.Writer;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URLDecoder;
@@ -56,6 +60,8 @@ public class VenueReservationProxyService {
     private static final String VIEW_PATH = "/api/venue-reservation-proxy/view";
     private static final String FETCH_PREFIX = VenueReservationHtmlRewriter.PROXY_PREFIX;
     private static final String COMPLETED_HEADER = "X-VRP-Completed";
+    /** ストリーミング版の書き換えで出力バッファに見込む、元の HTML からの増分 (バイト) */
+    private static final int STREAMING_REWRITE_HEADROOM = 32 * 1024;
     /**
      * 完了検知時に注入するインラインスクリプト。
      *
@@ -175,6 +181,7 @@ public class VenueReservationProxyService {
     private final VenueReservationSessionStore sessionStore;
     private final VenueReservationHtmlRewriter htmlRewriter;
     private final VenueReservationCompletionDetector completionDetector;
+    private final VenueAssetCache assetCache;
     private final PracticeSessionRepository practiceSessionRepository;
     private final Map<VenueId, VenueReservationClient> clients;
     private final Map<VenueId, VenueConfig> venueConfigs;
@@ -191,6 +198,7 @@ public class VenueReservationProxyService {
                                         VenueReservationSessionStore sessionStore,
                                         VenueReservationHtmlRewriter htmlRewriter,
                                         VenueReservationCompletionDetector completionDetector,
+                                        VenueAssetCache assetCache,
                                         PracticeSessionRepository practiceSessionRepository,
                                         List<VenueReservationClient> clients,
                                         List<VenueConfig> venueConfigs,
@@ -200,6 +208,7 @@ public class VenueReservationProxyService {
         this.sessionStore = sessionStore;
         this.htmlRewriter = htmlRewriter;
         this.completionDetector = completionDetector;
+        this.assetCache = assetCache;
         this.practiceSessionRepository = practiceSessionRepository;
         this.clients = toVenueMap(clients, VenueReservationClient::venue, "VenueReservationClient");
         this.venueConfigs = toVenueMap(venueConfigs, VenueConfig::venue, "VenueConfig");
@@ -328,6 +337,21 @@ public class VenueReservationProxyService {
         VenueRewriteStrategy rewriteStrategy = rewriteStrategyFor(venue);
 
         HttpUriRequest upstreamRequest = buildUpstreamRequest(request, venueConfig);
+        String upstreamUrl = upstreamRequest.getURI().toString();
+
+        // 会場の静的アセットはセッションをまたいで共有する。鮮度内なら上流に問い合わせない。
+        VenueAssetCache.Entry cached = VenueAssetCache.isCacheableRequest(upstreamRequest)
+                ? assetCache.lookup(venue, upstreamUrl)
+                : null;
+        if (cached != null) {
+            ResponseEntity<byte[]> fresh = assetCache.serveIfFresh(cached, token);
+            if (fresh != null) {
+                log.debug("VRP fetch served from asset cache: token={} venue={} url={}",
+                        tokenPrefix(token), venue, upstreamUrl);
+                return fresh;
+            }
+            assetCache.addValidators(cached, upstreamRequest);
+        }
 
         // 申込トレイの確定 POST が Kaderu トップページに redirect されるバグ (Issue #579)
         // の原因切り分けのため、fetch のリクエスト/レスポンス概要を INFO で記録する。
@@ -337,8 +361,16 @@ public class VenueReservationProxyService {
         logUpstreamRequest(session, request, upstreamRequest);
         try (CloseableHttpResponse upstreamResponse =
                      clientFor(venue).fetch(session, upstreamRequest)) {
-            ResponseEntity<byte[]> response = toResponseEntity(
-                    session, venueConfig, rewriteStrategy, upstreamRequest, upstreamResponse);
+            ResponseEntity<byte[]> response;
+            if (cached != null && isNotModified(upstreamResponse)) {
+                response = assetCache.serveRevalidated(cached, upstreamResponse, token);
+            } else {
+                response = toResponseEntity(
+                        session, venueConfig, rewriteStrategy, upstreamRequest, upstreamResponse);
+                if (VenueAssetCache.isCacheableRequest(upstreamRequest)) {
+                    assetCache.store(venue, upstreamUrl, token, upstreamResponse, response);
+                }
+            }
             logUpstreamResponse(session, upstreamRequest, upstreamResponse, response, startNanos);
             return response;
         } catch (IOException e) {
@@ -403,6 +435,11 @@ public class VenueReservationProxyService {
         }
     }
 
+    private static boolean isNotModified(HttpResponse response) {
+        return response.getStatusLine() != null
+                && response.getStatusLine().getStatusCode() == HttpStatus.NOT_MODIFIED.value();
+    }
+
     private static String tokenPrefix(String token) {
         if (token == null) return "null";
         return token.length() > 8 ? token.substring(0, 8) : token;
@@ -438,7 +475,12 @@ public class VenueReservationProxyService {
 
         byte[] responseBody;
         MediaType responseContentType = parseMediaType(contentType);
-        if (html) {
+        if (html && proxyConfig.isStreamingRewrite()) {
+            responseBody = rewriteHtmlStreaming(
+                    responseBodyForDetection, body.length, currentUpstreamUrl,
+                    session, venueConfig, rewriteStrategy, completed);
+            responseContentType = TEXT_HTML_UTF8;
+        } else if (html) {
             String rewritten = htmlRewriter.rewrite(
                     responseBodyForDetection,
                     currentUpstreamUrl,
@@ -487,6 +529,33 @@ public class VenueReservationProxyService {
                 .body(responseBody);
     }
 
+    /**
+     * HTML をストリーミング版の書き換えで UTF-8 のバイト列に直接書き出す。
+     *
+     * <p>完了検知のために HTML は文字列で受け取るが、書き換え結果は DOM も中間文字列も作らずに
+     * 出力バッファへ流す。完了時の dispatch スクリプトは書き換えと同じ走査で {@code </body>} の直前に書く。</p>
+     */
+    private byte[] rewriteHtmlStreaming(String html, int upstreamBytes, String currentUpstreamUrl,
+                                        ProxySession session, VenueConfig venueConfig,
+                                        VenueRewriteStrategy rewriteStrategy, boolean completed) throws IOException {
+        if (html.isEmpty()) {
+            return completed ? COMPLETION_DISPATCH_SCRIPT.getBytes(StandardCharsets.UTF_8) : new byte[0];
+        }
+        // 注入スクリプト・バナー・プロキシ URL の分だけ元より大きくなる
+        ByteArrayOutputStream buffer = new ByteArrayOutputStream(upstreamBytes + STREAMING_REWRITE_HEADROOM);
+        try (Writer writer = new OutputStreamWriter(buffer, StandardCharsets.UTF_8)) {
+            htmlRewriter.rewrite(
+                    new StringReader(html),
+                    writer,
+                    currentUpstreamUrl,
+                    session,
+                    venueConfig,
+                    rewriteStrategy,
+                    completed ? COMPLETION_DISPATCH_SCRIPT : null);
+        }
+        return buffer.toByteArray();
+    }
+
     /**
      * 完了検知時に dispatch スクリプトを HTML 末尾 ({@code </body>} 直前) に挿入する。
      * バナーは {@code <body>} 先頭に注入されているため、ここで挿入したスクリプトは
@@ -31,6 +31,16 @@ public interface VenueRewriteStrategy {
      */
     String rewriteHtml(String html, String proxyToken);
 
+    /**
+     * {@link #rewriteHtml} が HTML を書き換えるか。
+     *
+     * <p>false なら、ストリーミング版の書き換えは {@link #rewriteHtml} の入力のために
+     * HTML 全体を文字列に読み込む手間を省く。no-op の実装は false を返す。</p>
+     */
+    default boolean rewritesHtml() {
+        return true;
+    }
+
     /**
      * コア注入スクリプトに追記する会場固有 JavaScript。
      *
@@ -2,6 +2,7 @@ package com.karuta.matchtracker.service.proxy.venue.kaderu;
 
 import com.karuta.matchtracker.config.VenueReservationProxyConfig;
 import com.karuta.matchtracker.service.proxy.ProxySession;
+import com.karuta.matchtracker.service.proxy.VenueHttpClientFactory;
 import com.karuta.matchtracker.service.proxy.VenueId;
 import com.karuta.matchtracker.service.proxy.VenueReservationClient;
 import com.karuta.matchtracker.service.proxy.VenueReservationProxyException;
@@ -19,7 +20,6 @@ import org.apache.http.client.protocol.HttpClientContext;
 import org.apache.http.conn.ConnectTimeoutException;
 import org.apache.http.entity.ContentType;
 import org.apache.http.impl.client.CloseableHttpClient;
-import org.apache.http.impl.client.HttpClientBuilder;
 import org.apache.http.message.BasicNameValuePair;
 import org.apache.http.util.EntityUtils;
 import org.springframework.stereotype.Component;
@@ -88,12 +88,15 @@ public class KaderuReservationClient implements VenueReservationClient {
 
     private final VenueReservationProxyConfig proxyConfig;
     private final KaderuVenueConfig venueConfig;
+    private final VenueHttpClientFactory httpClientFactory;
     private CloseableHttpClient httpClient;
 
     public KaderuReservationClient(VenueReservationProxyConfig proxyConfig,
-                                   KaderuVenueConfig venueConfig) {
+                                   KaderuVenueConfig venueConfig,
+                                   VenueHttpClientFactory httpClientFactory) {
         this.proxyConfig = proxyConfig;
         this.venueConfig = venueConfig;
+        this.httpClientFactory = httpClientFactory;
     }
 
     @PostConstruct
@@ -110,10 +113,8 @@ public class KaderuReservationClient implements VenueReservationClient {
                 .setConnectionRequestTimeout(timeoutMs)
                 .setCookieSpec(CookieSpecs.STANDARD)
                 .build();
-        this.httpClient = HttpClientBuilder.create()
-                .setDefaultRequestConfig(requestConfig)
-                .setUserAgent(USER_AGENT)
-                .build();
+        // 全プロキシセッションで1つの接続プールを共有する (セッションごとの Cookie は buildContext で分ける)
+        this.httpClient = httpClientFactory.create(VenueId.KADERU, requestConfig, USER_AGENT);
     }
 
     @PreDestroy
@@ -433,6 +434,10 @@ public class KaderuReservationClient implements VenueReservationClient {
 
     // ===== HTTP helpers =====
 
+    /**
+     * 要求ごとの実行コンテキスト。Cookie はセッションの {@link ProxySession#getCookies()} に閉じるため、
+     * 接続プールの接続はセッションをまたいで使い回せる (接続にセッションの状態は載らない)。
+     */
     private HttpClientContext buildContext(ProxySession session) {
         HttpClientContext ctx = HttpClientContext.create();
         ctx.setCookieStore(session.getCookies());
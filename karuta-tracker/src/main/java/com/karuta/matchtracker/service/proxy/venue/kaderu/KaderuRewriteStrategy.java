@@ -24,6 +24,11 @@ public class KaderuRewriteStrategy implements VenueRewriteStrategy {
         return html;
     }
 
+    @Override
+    public boolean rewritesHtml() {
+        return false;
+    }
+
     @Override
     public String injectScript() {
         return "";
@@ -5,11 +5,21 @@ import com.karuta.matchtracker.repository.PlayerRepository;
 import com.karuta.matchtracker.service.IcalCalendarFeedService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
@@ -35,6 +45,9 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
     @MockitoBean
     private PlayerRepository playerRepository;
 
+    private static final IcalCalendarFeedService.FeedStamp STAMP =
+            new IcalCalendarFeedService.FeedStamp(1L, 3L, LocalDateTime.of(2026, 4, 1, 10, 0));
+
     @Test
     @DisplayName("GET /ical/calendar/{token}/org/{orgId}.ics - 有効なトークンで200とtext/calendarが返る")
     void getOrgFeed_validToken_returns200WithIcsContentType() throws Exception {
@@ -45,15 +58,18 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
                 + "VERSION:2.0\r\n"
                 + "PRODID:-//karuta-match-tracker//iCal Feed//JP\r\n"
                 + "END:VCALENDAR\r\n";
-        when(icalCalendarFeedService.generateIcsForOrgFeed(token, orgId)).thenReturn(icsBody);
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+        doAnswer(writes(icsBody)).when(icalCalendarFeedService).writeOrgFeed(eq(STAMP), eq(orgId), any());
 
         // When & Then
         mockMvc.perform(get("/ical/calendar/" + token + "/org/" + orgId + ".ics"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "text/calendar;charset=UTF-8"))
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(header().exists("Last-Modified"))
                 .andExpect(content().string(org.hamcrest.Matchers.containsString("BEGIN:VCALENDAR")));
 
-        verify(icalCalendarFeedService).generateIcsForOrgFeed(token, orgId);
+        verify(icalCalendarFeedService).writeOrgFeed(eq(STAMP), eq(orgId), any());
     }
 
     @Test
@@ -62,14 +78,14 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
         // Given
         String token = "invalid-token";
         Long orgId = 200L;
-        when(icalCalendarFeedService.generateIcsForOrgFeed(token, orgId))
+        when(icalCalendarFeedService.resolveFeedStamp(token))
                 .thenThrow(new ResourceNotFoundException("Player", "icalFeedToken", token));
 
         // When & Then
         mockMvc.perform(get("/ical/calendar/" + token + "/org/" + orgId + ".ics"))
                 .andExpect(status().isNotFound());
 
-        verify(icalCalendarFeedService).generateIcsForOrgFeed(token, orgId);
+        verify(icalCalendarFeedService, never()).writeOrgFeed(any(), any(), any());
     }
 
     @Test
@@ -78,15 +94,16 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
         // Given
         String token = "valid-token-1234";
         Long unaffiliatedOrgId = 9999L;
-        when(icalCalendarFeedService.generateIcsForOrgFeed(token, unaffiliatedOrgId))
-                .thenThrow(new ResourceNotFoundException(
-                        "PlayerOrganization not found with playerId: 1, organizationId: 9999"));
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+        doThrow(new ResourceNotFoundException(
+                        "PlayerOrganization not found with playerId: 1, organizationId: 9999"))
+                .when(icalCalendarFeedService).writeOrgFeed(eq(STAMP), eq(unaffiliatedOrgId), any());
 
         // When & Then
         mockMvc.perform(get("/ical/calendar/" + token + "/org/" + unaffiliatedOrgId + ".ics"))
                 .andExpect(status().isNotFound());
 
-        verify(icalCalendarFeedService).generateIcsForOrgFeed(token, unaffiliatedOrgId);
+        verify(icalCalendarFeedService).writeOrgFeed(eq(STAMP), eq(unaffiliatedOrgId), any());
     }
 
     @Test
@@ -99,15 +116,17 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
                 + "PRODID:-//karuta-match-tracker//iCal Feed//JP\r\n"
                 + "X-WR-CALNAME:ゲスト参加\r\n"
                 + "END:VCALENDAR\r\n";
-        when(icalCalendarFeedService.generateIcsForGuestFeed(token)).thenReturn(icsBody);
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+        doAnswer(writes(icsBody)).when(icalCalendarFeedService).writeGuestFeed(eq(STAMP), any());
 
         // When & Then
         mockMvc.perform(get("/ical/calendar/" + token + "/guest.ics"))
                 .andExpect(status().isOk())
                 .andExpect(header().string("Content-Type", "text/calendar;charset=UTF-8"))
-                .andExpect(content().string(org.hamcrest.Matchers.containsString("BEGIN:VCALENDAR")));
+                .andExpect(header().string("ETag", "\"v3\""))
+                .andExpect(content().string(org.hamcrest.Matchers.containsString("X-WR-CALNAME:ゲスト参加")));
 
-        verify(icalCalendarFeedService).generateIcsForGuestFeed(token);
+        verify(icalCalendarFeedService).writeGuestFeed(eq(STAMP), any());
     }
 
     @Test
@@ -115,13 +134,72 @@ class IcalCalendarFeedControllerTest extends com.karuta.matchtracker.support.Bas
     void getGuestFeed_invalidToken_returns404() throws Exception {
         // Given
         String token = "invalid-token";
-        when(icalCalendarFeedService.generateIcsForGuestFeed(token))
+        when(icalCalendarFeedService.resolveFeedStamp(token))
                 .thenThrow(new ResourceNotFoundException("Player", "icalFeedToken", token));
 
         // When & Then
         mockMvc.perform(get("/ical/calendar/" + token + "/guest.ics"))
                 .andExpect(status().isNotFound());
 
-        verify(icalCalendarFeedService).generateIcsForGuestFeed(token);
+        verify(icalCalendarFeedService, never()).writeGuestFeed(any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /ical/calendar/{token}/org/{orgId}.ics - 版番号が変わっていなければ描画せず304が返る")
+    void getOrgFeed_matchingETag_returns304WithoutRendering() throws Exception {
+        // Given
+        String token = "valid-token-1234";
+        Long orgId = 200L;
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+
+        // When & Then
+        mockMvc.perform(get("/ical/calendar/" + token + "/org/" + orgId + ".ics")
+                        .header("If-None-Match", "\"v3\""))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", "\"v3\""));
+
+        verify(icalCalendarFeedService, never()).writeOrgFeed(any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("GET /ical/calendar/{token}/guest.ics - 版番号が進んでいれば200で描画し直す")
+    void getGuestFeed_staleETag_returns200() throws Exception {
+        // Given
+        String token = "valid-token-1234";
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+        doAnswer(writes("BEGIN:VCALENDAR\r\nEND:VCALENDAR\r\n"))
+                .when(icalCalendarFeedService).writeGuestFeed(eq(STAMP), any());
+
+        // When & Then
+        mockMvc.perform(get("/ical/calendar/" + token + "/guest.ics")
+                        .header("If-None-Match", "\"v2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"v3\""));
+
+        verify(icalCalendarFeedService).writeGuestFeed(eq(STAMP), any());
+    }
+
+    @Test
+    @DisplayName("GET /ical/calendar/{token}/guest.ics - Last-Modified 以降の変更が無ければ304が返る")
+    void getGuestFeed_notModifiedSince_returns304() throws Exception {
+        // Given
+        String token = "valid-token-1234";
+        when(icalCalendarFeedService.resolveFeedStamp(token)).thenReturn(STAMP);
+
+        // When & Then
+        mockMvc.perform(get("/ical/calendar/" + token + "/guest.ics")
+                        .header("If-Modified-Since", "Wed, 01 Apr 2026 02:00:00 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(icalCalendarFeedService, never()).writeGuestFeed(any(), any());
+    }
+
+    /** 出力先（最後の引数）へ ICS を書く Answer */
+    private static Answer<Void> writes(String ics) {
+        return invocation -> {
+            OutputStream out = invocation.getArgument(invocation.getArguments().length - 1);
+            out.write(ics.getBytes(StandardCharsets.UTF_8));
+            return null;
+        };
     }
 }
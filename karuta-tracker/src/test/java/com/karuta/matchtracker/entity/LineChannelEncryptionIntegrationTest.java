@@ -5,7 +5,9 @@ import com.karuta.matchtracker.converter.LineCredentialCipher;
 import com.karuta.matchtracker.converter.LineEncryptionKeyHolder;
 import com.karuta.matchtracker.entity.LineChannel.ChannelStatus;
 import com.karuta.matchtracker.repository.LineChannelRepository;
+import com.karuta.matchtracker.service.LineApiTransport;
 import com.karuta.matchtracker.service.LineMessagingService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -14,7 +16,6 @@ import org.mockito.ArgumentCaptor;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
-import org.springframework.boot.web.client.RestTemplateBuilder;
 import org.springframework.context.annotation.Import;
 import org.springframework.test.context.TestPropertySource;
 
@@ -117,7 +118,7 @@ class LineChannelEncryptionIntegrationTest {
         testEntityManager.clear();
         LineChannel loaded = repository.findById(saved.getId()).orElseThrow();
 
-        LineMessagingService messagingService = new LineMessagingService(new RestTemplateBuilder());
+        LineMessagingService messagingService = new LineMessagingService(new LineApiTransport(new SimpleMeterRegistry()));
 
         // 復号後の secret（＝暗号化前と同値）で検証すると成功する
         assertThat(messagingService.verifySignature(loaded.getChannelSecret(), body, signature)).isTrue();
@@ -52,7 +52,7 @@ class AdjacentRoomIntegrationTest {
 
     @BeforeEach
     void stubAuthTokenService() {
-        com.karuta.matchtracker.support.AuthTestSupport.stubVerify(authTokenService);
+        com.karuta.matchtracker.support.AuthTestSupport.stubAuthenticate(authTokenService);
     }
 
     @BeforeEach
@@ -242,9 +242,9 @@ class AuthPasswordIntegrationTest extends BaseIntegrationTest {
             LoginResponse response = playerService.login(new LoginRequest("ログイン七郎", "password123"));
 
             assertThat(response.getToken()).isNotBlank().hasSize(64);
-            Optional<Player> resolved = authTokenService.verify(response.getToken());
+            Optional<AuthTokenService.AuthenticatedPlayer> resolved = authTokenService.authenticate(response.getToken());
             assertThat(resolved).isPresent();
-            assertThat(resolved.get().getId()).isEqualTo(created.getId());
+            assertThat(resolved.get().id()).isEqualTo(created.getId());
         }
 
         @Test
@@ -348,14 +348,14 @@ class AuthPasswordIntegrationTest extends BaseIntegrationTest {
             PlayerDto created = createPlayerViaService("失効九郎", "oldpassword");
             String tokenA = playerService.login(new LoginRequest("失効九郎", "oldpassword")).getToken();
             String tokenB = playerService.login(new LoginRequest("失効九郎", "oldpassword")).getToken();
-            assertThat(authTokenService.verify(tokenA)).isPresent();
+            assertThat(authTokenService.authenticate(tokenA)).isPresent();
 
             playerService.updatePlayer(created.getId(), PlayerUpdateRequest.builder()
                     .password("newpassword")
                     .build());
 
-            assertThat(authTokenService.verify(tokenA)).isEmpty();
-            assertThat(authTokenService.verify(tokenB)).isEmpty();
+            assertThat(authTokenService.authenticate(tokenA)).isEmpty();
+            assertThat(authTokenService.authenticate(tokenB)).isEmpty();
         }
 
         @Test
@@ -368,7 +368,7 @@ class AuthPasswordIntegrationTest extends BaseIntegrationTest {
                     .karutaClub("北大かるた会")
                     .build());
 
-            assertThat(authTokenService.verify(token)).isPresent();
+            assertThat(authTokenService.authenticate(token)).isPresent();
         }
 
         @Test
@@ -376,11 +376,11 @@ class AuthPasswordIntegrationTest extends BaseIntegrationTest {
         void testPlayerDeletion_RevokesTokens() {
             PlayerDto created = createPlayerViaService("削除太郎", "password123");
             String token = playerService.login(new LoginRequest("削除太郎", "password123")).getToken();
-            assertThat(authTokenService.verify(token)).isPresent();
+            assertThat(authTokenService.authenticate(token)).isPresent();
 
             playerService.deletePlayer(created.getId());
 
-            assertThat(authTokenService.verify(token)).isEmpty();
+            assertThat(authTokenService.authenticate(token)).isEmpty();
         }
 
         @Test
@@ -392,8 +392,8 @@ class AuthPasswordIntegrationTest extends BaseIntegrationTest {
 
             playerService.logout(tokenA);
 
-            assertThat(authTokenService.verify(tokenA)).isEmpty();
-            assertThat(authTokenService.verify(tokenB)).isPresent();
+            assertThat(authTokenService.authenticate(tokenA)).isEmpty();
+            assertThat(authTokenService.authenticate(tokenB)).isPresent();
         }
     }
 }
@@ -23,7 +23,7 @@ public abstract class BaseAuthenticatedIntegrationTest extends BaseIntegrationTe
 
     @BeforeEach
     void stubAuthTokenService() {
-        AuthTestSupport.stubVerify(authTokenService);
+        AuthTestSupport.stubAuthenticate(authTokenService);
     }
 
     /**
@@ -119,7 +119,7 @@ class LoginPasswordChangeRaceIntegrationTest {
 
         // 旧パスワードでトークンが発行されてしまった場合でも、失効していなければ穴が開いている
         if (survivingToken != null) {
-            assertThat(authTokenService.verify(survivingToken))
+            assertThat(authTokenService.authenticate(survivingToken))
                     .as("旧パスワードで発行されたトークンが失効をすり抜けて有効なまま残っている")
                     .isEmpty();
         }
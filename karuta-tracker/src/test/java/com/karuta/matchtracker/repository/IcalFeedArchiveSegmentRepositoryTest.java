@@ -0,0 +1,86 @@
+package com.karuta.matchtracker.repository;
+
+import com.karuta.matchtracker.config.TestContainersConfig;
+import com.karuta.matchtracker.entity.Player;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * IcalFeedArchiveSegmentRepositoryの結合テスト
+ */
+@DataJpaTest
+@Import(TestContainersConfig.class)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@DisplayName("IcalFeedArchiveSegmentRepository 結合テスト")
+class IcalFeedArchiveSegmentRepositoryTest {
+
+    private static final String FEED_KEY = "org-1";
+    private static final int YEAR = 2023;
+
+    @Autowired
+    private IcalFeedArchiveSegmentRepository icalFeedArchiveSegmentRepository;
+
+    @Autowired
+    private PlayerRepository playerRepository;
+
+    private Long playerId;
+
+    @BeforeEach
+    void setUp() {
+        Player player = playerRepository.saveAndFlush(Player.builder()
+                .name("山田太郎")
+                .password("password123")
+                .gender(Player.Gender.男性)
+                .dominantHand(Player.DominantHand.右)
+                .role(Player.Role.PLAYER)
+                .build());
+        playerId = player.getId();
+    }
+
+    @Test
+    @DisplayName("版番号が描画時のままなら区間を登録し、同じ区間の2回目の登録は何もしない")
+    void testInsertIfCurrent_CurrentVersion_InsertsOnce() {
+        int first = icalFeedArchiveSegmentRepository.insertIfCurrent(
+                playerId, 0L, FEED_KEY, YEAR, "first", 1, LocalDateTime.now());
+        int second = icalFeedArchiveSegmentRepository.insertIfCurrent(
+                playerId, 0L, FEED_KEY, YEAR, "second", 1, LocalDateTime.now());
+
+        assertThat(first).isEqualTo(1);
+        assertThat(second).isZero();
+        assertThat(icalFeedArchiveSegmentRepository.findByPlayerIdAndFeedKeyAndSegmentYear(playerId, FEED_KEY, YEAR))
+                .hasValueSatisfying(segment -> assertThat(segment.getContent()).isEqualTo("first"));
+    }
+
+    @Test
+    @DisplayName("描画が過去の年を読んだ後に版番号の更新と区間削除が済んでいれば、古い内容の区間は登録しない")
+    void testInsertIfCurrent_VersionBumpedAfterRead_SkipsStaleSegment() {
+        // 描画は版番号 0 で過去の年を読み終えた。その後、変更のコミット後処理が版番号を進めて区間を削除する
+        playerRepository.bumpIcalFeedVersionByPlayerIds(List.of(playerId), LocalDateTime.now());
+        icalFeedArchiveSegmentRepository.deleteByPlayerIdsAndSegmentYear(List.of(playerId), YEAR);
+
+        int stale = icalFeedArchiveSegmentRepository.insertIfCurrent(
+                playerId, 0L, FEED_KEY, YEAR, "stale", 1, LocalDateTime.now());
+
+        assertThat(stale).isZero();
+        assertThat(icalFeedArchiveSegmentRepository.findByPlayerIdAndFeedKeyAndSegmentYear(playerId, FEED_KEY, YEAR))
+                .isEmpty();
+
+        // 新しい版番号で描画し直した区間は登録される
+        int fresh = icalFeedArchiveSegmentRepository.insertIfCurrent(
+                playerId, 1L, FEED_KEY, YEAR, "fresh", 1, LocalDateTime.now());
+
+        assertThat(fresh).isEqualTo(1);
+        assertThat(icalFeedArchiveSegmentRepository.findByPlayerIdAndFeedKeyAndSegmentYear(playerId, FEED_KEY, YEAR))
+                .hasValueSatisfying(segment -> assertThat(segment.getContent()).isEqualTo("fresh"));
+    }
+}
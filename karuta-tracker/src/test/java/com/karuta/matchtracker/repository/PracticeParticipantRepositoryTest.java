@@ -242,4 +242,29 @@ class PracticeParticipantRepositoryTest {
         assertThat(result).extracting(PracticeParticipantRepository.PlayerWonDate::getPlayerId)
                 .containsExactlyInAnyOrder(100L, 200L);
     }
+
+    @Test
+    @DisplayName("countActiveBySessionIdsAndPlayer は WON/PENDING（抜け番を含む）だけを (セッション, 選手) ごとに数える")
+    void countActiveBySessionIdsAndPlayer_countsOnlyActiveRows() {
+        PracticeSession s1 = createSession(LocalDate.of(2026, 6, 10), ORG_1);
+        PracticeSession s2 = createSession(LocalDate.of(2026, 6, 12), ORG_1);
+        PracticeSession other = createSession(LocalDate.of(2026, 6, 14), ORG_1);
+        participant(s1.getId(), 10L, 1, ParticipantStatus.WON);
+        participant(s1.getId(), 10L, 2, ParticipantStatus.PENDING);
+        participant(s1.getId(), 10L, null, ParticipantStatus.WON); // 抜け番
+        participant(s1.getId(), 10L, 3, ParticipantStatus.CANCELLED);
+        participant(s1.getId(), 20L, 1, ParticipantStatus.WAITLISTED);
+        participant(s1.getId(), 20L, 2, ParticipantStatus.DECLINED);
+        participant(s2.getId(), 20L, 1, ParticipantStatus.WON);
+        participant(s2.getId(), 30L, 1, ParticipantStatus.OFFERED);
+        participant(other.getId(), 10L, 1, ParticipantStatus.WON);
+
+        List<Object[]> rows = practiceParticipantRepository
+                .countActiveBySessionIdsAndPlayer(List.of(s1.getId(), s2.getId()));
+
+        assertThat(rows).extracting(r -> r[0], r -> r[1], r -> r[2])
+                .containsExactlyInAnyOrder(
+                        tuple(s1.getId(), 10L, 3L),
+                        tuple(s2.getId(), 20L, 1L));
+    }
 }
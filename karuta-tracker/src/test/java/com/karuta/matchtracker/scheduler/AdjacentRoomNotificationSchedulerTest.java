@@ -7,10 +7,10 @@ import com.karuta.matchtracker.entity.Player;
 import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.repository.AdjacentRoomNotificationRepository;
 import com.karuta.matchtracker.repository.PlayerRepository;
-import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.service.AdjacentRoomService;
 import com.karuta.matchtracker.service.NotificationService;
+import com.karuta.matchtracker.service.SeatOccupancyService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -24,6 +24,7 @@ import org.springframework.transaction.support.TransactionTemplate;
 
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -36,7 +37,7 @@ class AdjacentRoomNotificationSchedulerTest {
     @Mock
     private PracticeSessionRepository practiceSessionRepository;
     @Mock
-    private PracticeParticipantRepository practiceParticipantRepository;
+    private SeatOccupancyService seatOccupancyService;
     @Mock
     private AdjacentRoomNotificationRepository adjacentRoomNotificationRepository;
     @Mock
@@ -73,6 +74,15 @@ class AdjacentRoomNotificationSchedulerTest {
                 .build();
     }
 
+    /** セッションの試合1の WON / PENDING 人数を枠取得状況として返すようにする */
+    private void stubSeats(Long sessionId, int won, int pending) {
+        when(seatOccupancyService.snapshot(List.of(sessionId))).thenReturn(Map.of(sessionId,
+                SeatOccupancyService.SessionSeats.builder()
+                        .add(1, ParticipantStatus.WON, won)
+                        .add(1, ParticipantStatus.PENDING, pending)
+                        .build()));
+    }
+
     private Player buildAdmin(Long id) {
         return Player.builder().id(id).name("Admin" + id).role(Player.Role.SUPER_ADMIN).build();
     }
@@ -84,10 +94,7 @@ class AdjacentRoomNotificationSchedulerTest {
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
         // 11人参加中 → 残り3人
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(11L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 11, 0);
 
         AdjacentRoomStatusDto status = AdjacentRoomStatusDto.builder()
                 .adjacentRoomName("はまなす").status("○").available(true)
@@ -112,10 +119,7 @@ class AdjacentRoomNotificationSchedulerTest {
         PracticeSession session = buildKaderuSession(1L, 14, 1);
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(11L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 11, 0);
 
         // 残り3人で既に通知済み
         when(adjacentRoomNotificationRepository.existsBySessionIdAndRemainingCount(1L, 3)).thenReturn(true);
@@ -135,10 +139,7 @@ class AdjacentRoomNotificationSchedulerTest {
         PracticeSession session = buildKaderuSession(1L, 14, 1);
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(11L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 11, 0);
 
         AdjacentRoomStatusDto status = AdjacentRoomStatusDto.builder()
                 .adjacentRoomName("はまなす").status("○").available(true)
@@ -164,10 +165,7 @@ class AdjacentRoomNotificationSchedulerTest {
         PracticeSession session = buildKaderuSession(1L, 14, 1);
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(12L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 12, 0);
 
         AdjacentRoomStatusDto status = AdjacentRoomStatusDto.builder()
                 .adjacentRoomName("はまなす").status("×").available(false).build();
@@ -187,10 +185,7 @@ class AdjacentRoomNotificationSchedulerTest {
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
         // 8人参加 → 残り6人
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(8L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 8, 0);
 
         scheduler.checkCapacityAndNotify();
 
@@ -203,10 +198,7 @@ class AdjacentRoomNotificationSchedulerTest {
         PracticeSession session = buildKaderuSession(1L, 14, 1);
         when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
 
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.WON))
-                .thenReturn(14L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(1L, 1, ParticipantStatus.PENDING))
-                .thenReturn(0L);
+        stubSeats(1L, 14, 0);
 
         AdjacentRoomStatusDto status = AdjacentRoomStatusDto.builder()
                 .adjacentRoomName("はまなす").status("○").available(true)
@@ -224,6 +216,35 @@ class AdjacentRoomNotificationSchedulerTest {
                 contains("定員到達"), anyString(), eq("PRACTICE_SESSION"), eq(1L), eq("/practice"), eq(1L));
     }
 
+    @Test
+    @DisplayName("複数試合のうち最も埋まっている試合（WON+PENDING）で判定し、OFFERED は数えない")
+    void notify_usesFullestMatch() {
+        PracticeSession session = buildKaderuSession(1L, 14, 3);
+        when(practiceSessionRepository.findByDateRange(any(), any())).thenReturn(List.of(session));
+        when(seatOccupancyService.snapshot(List.of(1L))).thenReturn(Map.of(1L,
+                SeatOccupancyService.SessionSeats.builder()
+                        .add(1, ParticipantStatus.WON, 5)
+                        .add(2, ParticipantStatus.WON, 10)
+                        .add(2, ParticipantStatus.PENDING, 2)
+                        .add(3, ParticipantStatus.WON, 11)
+                        .add(3, ParticipantStatus.OFFERED, 3)
+                        .build()));
+
+        AdjacentRoomStatusDto status = AdjacentRoomStatusDto.builder()
+                .adjacentRoomName("はまなす").status("○").available(true)
+                .expandedVenueId(7L).expandedVenueName("すずらん・はまなす").expandedCapacity(24)
+                .build();
+        when(adjacentRoomService.getAdjacentRoomAvailability(3L, session.getSessionDate())).thenReturn(status);
+        when(playerRepository.findByRoleAndActive(Player.Role.SUPER_ADMIN)).thenReturn(List.of(buildAdmin(10L)));
+        when(playerRepository.findByRoleAndAdminOrganizationIdAndActive(Player.Role.ADMIN, 1L)).thenReturn(List.of());
+
+        scheduler.checkCapacityAndNotify();
+
+        // 試合2: 12人 → 残り2人（試合3は OFFERED を除いて11人）
+        verify(notificationService).createAndPush(eq(10L), eq(NotificationType.ADJACENT_ROOM_AVAILABLE),
+                contains("残り2人"), contains("試合2"), eq("PRACTICE_SESSION"), eq(1L), eq("/practice"), eq(1L));
+    }
+
     @Test
     @DisplayName("かでる和室以外のセッションはスキップ")
     void skip_nonKaderuSessions() {
@@ -10,6 +10,7 @@ import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.service.LineNotificationService;
 import com.karuta.matchtracker.service.NotificationService;
+import com.karuta.matchtracker.service.OfferDeadlineTimer;
 import com.karuta.matchtracker.service.WaitlistPromotionService;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -20,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
@@ -42,10 +44,56 @@ class OfferExpirySchedulerTest {
     private NotificationService notificationService;
     @Mock
     private NotificationRepository notificationRepository;
+    @Mock
+    private OfferDeadlineTimer offerDeadlineTimer;
 
     @InjectMocks
     private OfferExpiryScheduler scheduler;
 
+    @Nested
+    @DisplayName("期限タイマー連携テスト")
+    class DeadlineTimerTests {
+
+        @Test
+        @DisplayName("起動時に応答期限付きのOFFEREDをすべてタイマーへ登録する")
+        void loadOfferDeadlines_schedulesEveryOffer() {
+            LocalDateTime deadline1 = LocalDateTime.of(2026, 5, 9, 21, 0);
+            LocalDateTime deadline2 = LocalDateTime.of(2026, 5, 10, 12, 0);
+            when(practiceParticipantRepository.findOffersWithDeadline()).thenReturn(List.of(
+                    PracticeParticipant.builder().id(1L).status(ParticipantStatus.OFFERED)
+                            .offerDeadline(deadline1).build(),
+                    PracticeParticipant.builder().id(2L).status(ParticipantStatus.OFFERED)
+                            .offerDeadline(deadline2).build()));
+
+            scheduler.loadOfferDeadlines();
+
+            verify(offerDeadlineTimer).schedule(1L, deadline1);
+            verify(offerDeadlineTimer).schedule(2L, deadline2);
+        }
+
+        @Test
+        @DisplayName("定期スイープは期限切れ処理のあとにタイマーの登録を取り込み直す")
+        void sweep_checksThenReloads() {
+            when(practiceParticipantRepository.findExpiringOffers(any(), any())).thenReturn(List.of());
+            when(practiceParticipantRepository.findExpiredOffers(any())).thenReturn(List.of());
+            when(practiceParticipantRepository.findOffersWithDeadline()).thenReturn(List.of());
+
+            scheduler.sweep();
+
+            var inOrder = inOrder(practiceParticipantRepository);
+            inOrder.verify(practiceParticipantRepository).findExpiredOffers(any());
+            inOrder.verify(practiceParticipantRepository).findOffersWithDeadline();
+        }
+
+        @Test
+        @DisplayName("タイマーのハンドラとして期限切れ処理を登録する")
+        void registerTimerHandler_registersCheck() {
+            scheduler.registerTimerHandler();
+
+            verify(offerDeadlineTimer).onDue(any(Runnable.class));
+        }
+    }
+
     @Nested
     @DisplayName("統合通知テスト")
     class ConsolidatedNotificationTests {
@@ -4,6 +4,8 @@ import com.karuta.matchtracker.entity.AuthToken;
 import com.karuta.matchtracker.entity.Player;
 import com.karuta.matchtracker.repository.AuthTokenRepository;
 import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.service.AuthTokenService.AuthenticatedPlayer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -12,6 +14,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.nio.charset.StandardCharsets;
@@ -19,6 +22,11 @@ import java.security.MessageDigest;
 import java.time.LocalDateTime;
 import java.util.HexFormat;
 import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
@@ -43,6 +51,9 @@ class AuthTokenServiceTest {
     @Mock
     private PlayerRepository playerRepository;
 
+    @Spy
+    private AuthTokenCache authTokenCache = new AuthTokenCache(new SimpleMeterRegistry());
+
     @InjectMocks
     private AuthTokenService authTokenService;
 
@@ -115,12 +126,12 @@ class AuthTokenServiceTest {
     }
 
     @Nested
-    @DisplayName("verify（検証）")
-    class VerifyTests {
+    @DisplayName("authenticate（検証）")
+    class AuthenticateValidityTests {
 
         @Test
         @DisplayName("発行したトークンは検証を通り、対応する選手を解決できる")
-        void testVerify_ValidToken_ResolvesPlayer() {
+        void testAuthenticate_ValidToken_ResolvesPlayer() {
             when(authTokenRepository.save(any(AuthToken.class))).thenAnswer(inv -> inv.getArgument(0));
             String rawToken = authTokenService.issue(player);
 
@@ -131,23 +142,23 @@ class AuthTokenServiceTest {
             when(authTokenRepository.findByTokenHash(issued.getTokenHash())).thenReturn(Optional.of(issued));
             when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
 
-            Optional<Player> result = authTokenService.verify(rawToken);
+            Optional<AuthenticatedPlayer> result = authTokenService.authenticate(rawToken);
 
             assertThat(result).isPresent();
-            assertThat(result.get().getId()).isEqualTo(1L);
+            assertThat(result.get().id()).isEqualTo(1L);
         }
 
         @Test
         @DisplayName("存在しないトークンは検証を通らない")
-        void testVerify_UnknownToken_ReturnsEmpty() {
+        void testAuthenticate_UnknownToken_ReturnsEmpty() {
             when(authTokenRepository.findByTokenHash(anyString())).thenReturn(Optional.empty());
 
-            assertThat(authTokenService.verify("deadbeef")).isEmpty();
+            assertThat(authTokenService.authenticate("deadbeef")).isEmpty();
         }
 
         @Test
         @DisplayName("期限切れトークンは検証を通らない")
-        void testVerify_ExpiredToken_ReturnsEmpty() throws Exception {
+        void testAuthenticate_ExpiredToken_ReturnsEmpty() throws Exception {
             String rawToken = "a".repeat(64);
             AuthToken expired = AuthToken.builder()
                     .playerId(1L)
@@ -157,14 +168,14 @@ class AuthTokenServiceTest {
                     .build();
             when(authTokenRepository.findByTokenHash(expired.getTokenHash())).thenReturn(Optional.of(expired));
 
-            assertThat(authTokenService.verify(rawToken)).isEmpty();
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
             // 期限切れの時点で打ち切り、選手の解決まで行かない
             verify(playerRepository, never()).findById(anyLong());
         }
 
         @Test
         @DisplayName("失効済みトークンは検証を通らない")
-        void testVerify_RevokedToken_ReturnsEmpty() throws Exception {
+        void testAuthenticate_RevokedToken_ReturnsEmpty() throws Exception {
             String rawToken = "b".repeat(64);
             AuthToken revoked = AuthToken.builder()
                     .playerId(1L)
@@ -175,13 +186,13 @@ class AuthTokenServiceTest {
                     .build();
             when(authTokenRepository.findByTokenHash(revoked.getTokenHash())).thenReturn(Optional.of(revoked));
 
-            assertThat(authTokenService.verify(rawToken)).isEmpty();
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
             verify(playerRepository, never()).findById(anyLong());
         }
 
         @Test
         @DisplayName("論理削除された選手のトークンは検証を通らない")
-        void testVerify_DeletedPlayer_ReturnsEmpty() throws Exception {
+        void testAuthenticate_DeletedPlayer_ReturnsEmpty() throws Exception {
             String rawToken = "c".repeat(64);
             AuthToken token = AuthToken.builder()
                     .playerId(1L)
@@ -194,20 +205,140 @@ class AuthTokenServiceTest {
             when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenReturn(Optional.of(token));
             when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
 
-            assertThat(authTokenService.verify(rawToken)).isEmpty();
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
         }
 
         @Test
         @DisplayName("null・空文字のトークンは検証を通らず、DBも引かない")
-        void testVerify_NullOrBlank_ReturnsEmpty() {
-            assertThat(authTokenService.verify(null)).isEmpty();
-            assertThat(authTokenService.verify("")).isEmpty();
-            assertThat(authTokenService.verify("   ")).isEmpty();
+        void testAuthenticate_NullOrBlank_ReturnsEmpty() {
+            assertThat(authTokenService.authenticate(null)).isEmpty();
+            assertThat(authTokenService.authenticate("")).isEmpty();
+            assertThat(authTokenService.authenticate("   ")).isEmpty();
 
             verify(authTokenRepository, never()).findByTokenHash(anyString());
         }
     }
 
+    @Nested
+    @DisplayName("authenticate（キャッシュ付き認証）")
+    class AuthenticateTests {
+
+        private AuthToken validToken(String rawToken) throws Exception {
+            return AuthToken.builder()
+                    .playerId(1L)
+                    .tokenHash(sha256Hex(rawToken))
+                    .issuedAt(LocalDateTime.now().minusDays(1))
+                    .expiresAt(LocalDateTime.now().plusDays(364))
+                    .build();
+        }
+
+        @Test
+        @DisplayName("2回目以降はキャッシュから解決し、DBを引かない")
+        void testAuthenticate_SecondCallHitsCache() throws Exception {
+            String rawToken = "f".repeat(64);
+            AuthToken token = validToken(rawToken);
+            player.setAdminOrganizationId(5L);
+            when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenReturn(Optional.of(token));
+            when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+
+            Optional<AuthenticatedPlayer> first = authTokenService.authenticate(rawToken);
+            Optional<AuthenticatedPlayer> second = authTokenService.authenticate(rawToken);
+
+            assertThat(first).contains(new AuthenticatedPlayer(1L, Player.Role.PLAYER, 5L));
+            assertThat(second).isEqualTo(first);
+            verify(authTokenRepository, times(1)).findByTokenHash(anyString());
+            verify(playerRepository, times(1)).findById(1L);
+        }
+
+        @Test
+        @DisplayName("選手単位の一括失効でキャッシュも破棄され、次の認証は失敗する")
+        void testAuthenticate_RevokeAllInvalidatesCache() throws Exception {
+            String rawToken = "1".repeat(64);
+            AuthToken token = validToken(rawToken);
+            when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenReturn(Optional.of(token));
+            when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+            assertThat(authTokenService.authenticate(rawToken)).isPresent();
+
+            when(authTokenRepository.revokeAllByPlayerId(eq(1L), any(LocalDateTime.class))).thenAnswer(inv -> {
+                token.setRevokedAt(inv.getArgument(1));
+                return 1;
+            });
+            authTokenService.revokeAllForPlayer(1L);
+
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
+            verify(authTokenRepository, times(2)).findByTokenHash(token.getTokenHash());
+        }
+
+        @Test
+        @DisplayName("ロール変更でキャッシュを破棄すると新しいロールで解決される")
+        void testAuthenticate_InvalidateCachedPlayerPicksUpNewRole() throws Exception {
+            String rawToken = "2".repeat(64);
+            AuthToken token = validToken(rawToken);
+            when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenReturn(Optional.of(token));
+            when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+            assertThat(authTokenService.authenticate(rawToken).map(AuthenticatedPlayer::role))
+                    .contains(Player.Role.PLAYER);
+
+            player.setRole(Player.Role.ADMIN);
+            authTokenService.invalidateCachedPlayer(1L);
+
+            assertThat(authTokenService.authenticate(rawToken).map(AuthenticatedPlayer::role))
+                    .contains(Player.Role.ADMIN);
+        }
+
+        @Test
+        @DisplayName("失効済みトークンは無効としてキャッシュし、選手を引かない")
+        void testAuthenticate_RevokedTokenCachedAsInvalid() throws Exception {
+            String rawToken = "3".repeat(64);
+            AuthToken token = validToken(rawToken);
+            token.setRevokedAt(LocalDateTime.now().minusMinutes(1));
+            when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenReturn(Optional.of(token));
+
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
+
+            verify(authTokenRepository, times(1)).findByTokenHash(anyString());
+            verify(playerRepository, never()).findById(anyLong());
+        }
+
+        @Test
+        @DisplayName("コミット前に読み始めた認証は、コミット後の破棄の後にキャッシュを埋め戻さない")
+        void testAuthenticate_ReadStartedBeforeCommitIsNotCached() throws Exception {
+            String rawToken = "4".repeat(64);
+            AuthToken beforeCommit = validToken(rawToken);
+            AuthToken token = validToken(rawToken);
+            CountDownLatch readStarted = new CountDownLatch(1);
+            CountDownLatch committed = new CountDownLatch(1);
+            // 失効前の行を読んだところで止め、その間に一括失効をコミットさせる
+            when(authTokenRepository.findByTokenHash(token.getTokenHash())).thenAnswer(inv -> {
+                readStarted.countDown();
+                assertThat(committed.await(5, TimeUnit.SECONDS)).isTrue();
+                return Optional.of(beforeCommit);
+            }).thenAnswer(inv -> Optional.of(token));
+            when(playerRepository.findById(1L)).thenReturn(Optional.of(player));
+
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<Optional<AuthenticatedPlayer>> staleRead =
+                        executor.submit(() -> authTokenService.authenticate(rawToken));
+                assertThat(readStarted.await(5, TimeUnit.SECONDS)).isTrue();
+
+                token.setRevokedAt(LocalDateTime.now());
+                authTokenCache.invalidatePlayer(1L);   // コミット後の破棄に相当
+                committed.countDown();
+
+                // 読み始めた時点の行では有効と判定されるが、その結果は残らない
+                assertThat(staleRead.get(5, TimeUnit.SECONDS)).isPresent();
+            } finally {
+                executor.shutdownNow();
+            }
+
+            assertThat(authTokenCache.get(token.getTokenHash())).isNull();
+            assertThat(authTokenService.authenticate(rawToken)).isEmpty();
+            verify(authTokenRepository, times(2)).findByTokenHash(token.getTokenHash());
+        }
+    }
+
     @Nested
     @DisplayName("revoke（失効）")
     class RevokeTests {
@@ -48,6 +48,12 @@ class ByeActivityServiceTest {
     @Mock
     private PracticeSessionRepository practiceSessionRepository;
 
+    @Mock
+    private IcalFeedVersionService icalFeedVersionService;
+
+    @Mock
+    private ParticipationRateAggregator participationRateAggregator;
+
     @InjectMocks
     private ByeActivityService byeActivityService;
 
@@ -121,6 +127,8 @@ class ByeActivityServiceTest {
 
             // Assert
             verify(practiceParticipantRepository).deleteByeParticipant(SESSION_ID, PLAYER_ID);
+            verify(icalFeedVersionService).markPlayerChanged(PLAYER_ID);
+            verify(participationRateAggregator).markSessionsChanged(List.of(SESSION_ID));
             verify(practiceParticipantRepository, never()).save(any(PracticeParticipant.class));
         }
 
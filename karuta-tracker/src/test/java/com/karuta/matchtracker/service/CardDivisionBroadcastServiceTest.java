@@ -6,7 +6,9 @@ import com.karuta.matchtracker.entity.LineChannel;
 import com.karuta.matchtracker.entity.LineChannel.ChannelStatus;
 import com.karuta.matchtracker.entity.LineChatReservation;
 import com.karuta.matchtracker.entity.LineChatReservation.ReservationStatus;
+import com.karuta.matchtracker.entity.LineMessageLog.LineNotificationType;
 import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.repository.LineBroadcastGroupRepository;
 import com.karuta.matchtracker.repository.LineChannelRepository;
 import com.karuta.matchtracker.repository.LineChatReservationRepository;
 import org.junit.jupiter.api.BeforeEach;
@@ -28,18 +30,21 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.anyString;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
  * CardDivisionBroadcastService の単体テスト。
  * AC-4（選択決定性）/ AC-5（1体消費＋即時加算）/ AC-6（二重送信防止）/ AC-8（団体分離）/ AC-9（枯渇スキップ）。
- * LINE 送信・送信ログ操作はモック。
+ * 送信キュー登録・送信ログ操作はモック。
  */
 @ExtendWith(MockitoExtension.class)
 @MockitoSettings(strictness = Strictness.LENIENT)
@@ -51,7 +56,9 @@ class CardDivisionBroadcastServiceTest {
     @Mock private LineMessagingService lineMessagingService;
     @Mock private LineBroadcastSendService lineBroadcastSendService;
     @Mock private LineChatReservationRepository lineChatReservationRepository;
+    @Mock private LineBroadcastGroupRepository lineBroadcastGroupRepository;
     @Mock private LineNotificationService lineNotificationService;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     @InjectMocks private CardDivisionBroadcastService service;
 
@@ -122,24 +129,69 @@ class CardDivisionBroadcastServiceTest {
     }
 
     @Test
-    @DisplayName("AC-5: 1体のみ送信し、その bot の当月消費が想定受信数分だけ即時加算される")
-    void sendsWithSingleBotAndIncrements() {
+    @DisplayName("AC-5: 1体のみ選んで送信キューに登録する（LINE API は呼ばない）")
+    void queuesWithSingleBot() {
         when(lineChannelRepository.findByBroadcastGroupIdAndChannelType(GROUP_ID, ChannelType.GROUP))
                 .thenReturn(List.of(bot(1, 0), bot(2, 130)));
         when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
         when(lineBroadcastSendService.tryAcquire(eq(GROUP_ID), eq(SESSION_ID), anyLong(), anyInt(), any()))
                 .thenReturn(true);
-        when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString())).thenReturn(true);
 
         service.processGroupBroadcast(group(70), session(ORG), now);
 
         // 選択は id2（消費130を使い切る）1体のみ
         verify(lineBroadcastSendService).tryAcquire(GROUP_ID, SESSION_ID, 2L, 70, now);
-        verify(lineMessagingService, times(1)).sendPushMessage(eq("token-2"), eq("G-2"), anyString());
-        verify(lineBroadcastSendService).markSucceeded(GROUP_ID, SESSION_ID);
-        verify(lineBroadcastSendService).incrementChannelMonthlyCount(2L, 70);
-        // 他 bot は消費されない
-        verify(lineBroadcastSendService, never()).incrementChannelMonthlyCount(eq(1L), anyInt());
+        verify(notificationOutboxService, times(1)).enqueueLineGroup(eq(2L), eq("G-2"), eq(GROUP_ID), eq(SESSION_ID),
+                eq(LineNotificationType.CARD_DIVISION_REMINDER), anyList(), eq("7/16(木) 会場\n1試合目 ..."));
+        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        // 結果確定（SUCCESS・枠加算）は送信ワーカーからの completeBroadcast で行う
+        verify(lineBroadcastSendService, never()).markSucceeded(anyLong(), anyLong());
+        verify(lineBroadcastSendService, never()).incrementChannelMonthlyCount(anyLong(), anyInt());
+    }
+
+    @Test
+    @DisplayName("送信キューへの登録に失敗したら送信権を FAILED に戻し、次回ポーリングで再送できるようにする")
+    void enqueueFailure_releasesReservation() {
+        when(lineChannelRepository.findByBroadcastGroupIdAndChannelType(GROUP_ID, ChannelType.GROUP))
+                .thenReturn(List.of(bot(1, 0)));
+        when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
+        when(lineBroadcastSendService.tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any())).thenReturn(true);
+        doThrow(new RuntimeException("db down")).when(notificationOutboxService).enqueueLineGroup(
+                anyLong(), anyString(), anyLong(), anyLong(), any(), anyList(), anyString());
+
+        service.processGroupBroadcast(group(70), session(ORG), now);
+
+        verify(lineBroadcastSendService).markFailed(eq(GROUP_ID), eq(SESSION_ID), anyString());
+    }
+
+    @Nested
+    @DisplayName("completeBroadcast（送信ワーカーからの結果確定）")
+    class CompleteBroadcast {
+
+        @Test
+        @DisplayName("AC-5/AC-10: 成功で SUCCESS 確定・その bot の当月消費を想定受信数分加算・フォールバック発動アラート")
+        void deliveredMarksSucceededAndIncrements() {
+            when(lineBroadcastSendService.recipientCountOf(GROUP_ID, SESSION_ID, 2L)).thenReturn(70);
+            when(lineBroadcastSendService.markSucceeded(GROUP_ID, SESSION_ID)).thenReturn(1);
+            when(lineBroadcastGroupRepository.findById(GROUP_ID)).thenReturn(Optional.of(group(70)));
+
+            service.completeBroadcast(GROUP_ID, SESSION_ID, 2L, true, null);
+
+            verify(lineBroadcastSendService).markSucceeded(GROUP_ID, SESSION_ID);
+            verify(lineBroadcastSendService).incrementChannelMonthlyCount(2L, 70);
+            verify(lineNotificationService).sendChatReserveAlert(eq(ORG), anyString());
+            verify(lineBroadcastSendService, never()).markFailed(anyLong(), anyLong(), anyString());
+        }
+
+        @Test
+        @DisplayName("確定失敗で FAILED にし、枠は消費しない")
+        void failedMarksFailed() {
+            service.completeBroadcast(GROUP_ID, SESSION_ID, 2L, false, "LINE API送信失敗");
+
+            verify(lineBroadcastSendService).markFailed(GROUP_ID, SESSION_ID, "LINE API送信失敗");
+            verify(lineBroadcastSendService, never()).incrementChannelMonthlyCount(anyLong(), anyInt());
+            verify(lineNotificationService, never()).sendChatReserveAlert(anyLong(), anyString());
+        }
     }
 
     @Test
@@ -151,7 +203,7 @@ class CardDivisionBroadcastServiceTest {
 
         verify(lineChannelRepository, never()).findByBroadcastGroupIdAndChannelType(anyLong(), any());
         verify(lineBroadcastSendService, never()).tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any());
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        verifyNoInteractions(notificationOutboxService);
     }
 
     @Test
@@ -164,7 +216,7 @@ class CardDivisionBroadcastServiceTest {
 
         service.processGroupBroadcast(group(70), session(ORG), now);
 
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        verifyNoInteractions(notificationOutboxService);
     }
 
     @Test
@@ -178,7 +230,7 @@ class CardDivisionBroadcastServiceTest {
         service.processGroupBroadcast(group(70), session(ORG), now);
 
         verify(lineBroadcastSendService, never()).tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any());
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        verifyNoInteractions(notificationOutboxService);
         verify(lineBroadcastSendService).recordSkipped(eq(GROUP_ID), eq(SESSION_ID), anyString(), any());
     }
 
@@ -189,7 +241,7 @@ class CardDivisionBroadcastServiceTest {
 
         verify(lineBroadcastSendService, never()).releaseStale(any());
         verify(lineBroadcastSendService, never()).tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any());
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        verifyNoInteractions(notificationOutboxService);
     }
 
     @Test
@@ -205,7 +257,7 @@ class CardDivisionBroadcastServiceTest {
         service.processGroupBroadcast(group(70), session(ORG), now);
 
         verify(lineBroadcastSendService).recordSkipped(eq(GROUP_ID), eq(SESSION_ID), anyString(), any());
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        verifyNoInteractions(notificationOutboxService);
     }
 
     @Test
@@ -215,7 +267,6 @@ class CardDivisionBroadcastServiceTest {
                 .thenReturn(List.of(bot(1, 0)));
         when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
         when(lineBroadcastSendService.tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any())).thenReturn(true);
-        when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString())).thenReturn(true);
 
         service.processGroupBroadcast(group(70), session(ORG), now);
 
@@ -231,12 +282,12 @@ class CardDivisionBroadcastServiceTest {
         when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
         when(lineMessagingService.getGroupMemberCount("token-1", "G-1")).thenReturn(68);
         when(lineBroadcastSendService.tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any())).thenReturn(true);
-        when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString())).thenReturn(true);
 
         service.processGroupBroadcast(group(null), session(ORG), now);
 
         verify(lineBroadcastSendService).tryAcquire(GROUP_ID, SESSION_ID, 1L, 68, now);
-        verify(lineBroadcastSendService).incrementChannelMonthlyCount(1L, 68);
+        verify(notificationOutboxService).enqueueLineGroup(eq(1L), eq("G-1"), eq(GROUP_ID), eq(SESSION_ID),
+                any(), anyList(), anyString());
     }
 
     private void stubReservation(ReservationStatus status) {
@@ -282,7 +333,7 @@ class CardDivisionBroadcastServiceTest {
             service.processGroupBroadcast(group(70), session(ORG), now);
 
             verify(lineBroadcastSendService, never()).releaseStale(any());
-            verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+            verifyNoInteractions(notificationOutboxService);
             verify(lineBroadcastSendService, never()).recordSkipped(anyLong(), anyLong(), anyString(), any());
             verify(lineNotificationService, never()).sendChatReserveAlert(anyLong(), anyString());
         }
@@ -295,13 +346,13 @@ class CardDivisionBroadcastServiceTest {
 
             service.processGroupBroadcast(group(70), session(ORG), now);
 
-            verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+            verifyNoInteractions(notificationOutboxService);
             verify(lineNotificationService).sendChatReserveAlert(eq(ORG), anyString());
             verify(lineBroadcastSendService).recordSkipped(eq(GROUP_ID), eq(SESSION_ID), anyString(), any());
         }
 
         @Test
-        @DisplayName("PENDING → フォールバックpushへ、成功でフォールバック発動アラート")
+        @DisplayName("PENDING → フォールバックpushを送信キューに登録する（発動アラートは送信成功の確定時）")
         void pendingProceedsToFallbackPush() {
             stubReservation(ReservationStatus.PENDING);
             when(lineChannelRepository.findByBroadcastGroupIdAndChannelType(GROUP_ID, ChannelType.GROUP))
@@ -309,16 +360,16 @@ class CardDivisionBroadcastServiceTest {
             when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
             when(lineBroadcastSendService.tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any()))
                     .thenReturn(true);
-            when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString())).thenReturn(true);
-
+    
             service.processGroupBroadcast(group(70), session(ORG), now);
 
-            verify(lineMessagingService).sendPushMessage(eq("token-1"), eq("G-1"), anyString());
-            verify(lineNotificationService).sendChatReserveAlert(eq(ORG), anyString());
+            verify(notificationOutboxService).enqueueLineGroup(eq(1L), eq("G-1"), eq(GROUP_ID), eq(SESSION_ID),
+                    any(), anyList(), anyString());
+            verify(lineNotificationService, never()).sendChatReserveAlert(anyLong(), anyString());
         }
 
         @Test
-        @DisplayName("予約が無い（未作成）→ 従来どおり push し、成功でフォールバック発動アラート")
+        @DisplayName("予約が無い（未作成）→ 従来どおり push を送信キューに登録する")
         void absentReservationProceedsToPush() {
             // findFirst はデフォルト Optional.empty()
             when(lineChannelRepository.findByBroadcastGroupIdAndChannelType(GROUP_ID, ChannelType.GROUP))
@@ -326,12 +377,11 @@ class CardDivisionBroadcastServiceTest {
             when(lineBroadcastSendService.hasBlockingSend(GROUP_ID, SESSION_ID)).thenReturn(false);
             when(lineBroadcastSendService.tryAcquire(anyLong(), anyLong(), anyLong(), anyInt(), any()))
                     .thenReturn(true);
-            when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString())).thenReturn(true);
-
+    
             service.processGroupBroadcast(group(70), session(ORG), now);
 
-            verify(lineMessagingService).sendPushMessage(anyString(), anyString(), anyString());
-            verify(lineNotificationService).sendChatReserveAlert(eq(ORG), anyString());
+            verify(notificationOutboxService).enqueueLineGroup(anyLong(), anyString(), anyLong(), anyLong(),
+                    any(), anyList(), anyString());
         }
     }
 }
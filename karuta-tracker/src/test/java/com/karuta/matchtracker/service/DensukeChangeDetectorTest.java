@@ -0,0 +1,107 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.service.DensukeScraper.DensukeData;
+import com.karuta.matchtracker.service.DensukeScraper.ScheduleEntry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("DensukeChangeDetector 変更検知テスト")
+class DensukeChangeDetectorTest {
+
+    private static final LocalDate APRIL = LocalDate.of(2026, 4, 1);
+    private static final LocalDate DAY = LocalDate.of(2026, 4, 5);
+    private static final Map<LocalDate, String> PHASE1 = Map.of(DAY, "PHASE1");
+
+    private final DensukeChangeDetector detector = new DensukeChangeDetector();
+
+    @Test
+    @DisplayName("初回は全行取り込み、同じ内容の2回目は変化なし")
+    void firstRunIsFullAndSameContentIsUnchanged() {
+        DensukeChangeDetector.ChangeSet first = detector.detect(1L, page(List.of("田中")), APRIL, PHASE1);
+        assertThat(first.isFull()).isTrue();
+        assertThat(first.isUnchanged()).isFalse();
+        detector.commit(first);
+
+        DensukeChangeDetector.ChangeSet second = detector.detect(1L, page(List.of("田中")), APRIL, PHASE1);
+        assertThat(second.isUnchanged()).isTrue();
+    }
+
+    @Test
+    @DisplayName("○が変わった行だけが取り込み対象になる")
+    void onlyChangedRowIsIncluded() {
+        detector.commit(detector.detect(1L, page(List.of("田中")), APRIL, PHASE1));
+
+        DensukeData changed = page(List.of("田中", "鈴木"));
+        DensukeChangeDetector.ChangeSet changes = detector.detect(1L, changed, APRIL, PHASE1);
+
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.changedRowCount()).isEqualTo(1);
+        assertThat(changes.includes(changed.getEntries().get(0))).isTrue();
+        assertThat(changes.includes(changed.getEntries().get(1))).isFalse();
+    }
+
+    @Test
+    @DisplayName("伝助が同じでもフェーズが切り替わった行は取り込み直す")
+    void phaseChangeMarksRowChanged() {
+        detector.commit(detector.detect(1L, page(List.of("田中")), APRIL, PHASE1));
+
+        DensukeChangeDetector.ChangeSet changes =
+                detector.detect(1L, page(List.of("田中")), APRIL, Map.of(DAY, "PHASE3"));
+
+        assertThat(changes.isUnchanged()).isFalse();
+        assertThat(changes.changedRowCount()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("メンバー列が変わったら全行取り込み、行が消えたらページ変化あり")
+    void memberColumnChangeIsFullAndRowRemovalIsChange() {
+        detector.commit(detector.detect(1L, page(List.of("田中")), APRIL, PHASE1));
+
+        DensukeData newMember = page(List.of("田中"));
+        newMember.getMemberNames().add("佐藤");
+        assertThat(detector.detect(1L, newMember, APRIL, PHASE1).isFull()).isTrue();
+
+        DensukeData removedRow = page(List.of("田中"));
+        removedRow.getEntries().remove(1);
+        DensukeChangeDetector.ChangeSet changes = detector.detect(1L, removedRow, APRIL, PHASE1);
+        assertThat(changes.isFull()).isFalse();
+        assertThat(changes.changedRowCount()).isZero();
+        assertThat(changes.isUnchanged()).isFalse();
+    }
+
+    @Test
+    @DisplayName("commit しなかった差分は次回も同じ差分として検出される")
+    void uncommittedChangeIsDetectedAgain() {
+        detector.commit(detector.detect(1L, page(List.of("田中")), APRIL, PHASE1));
+
+        detector.detect(1L, page(List.of("田中", "鈴木")), APRIL, PHASE1);
+        DensukeChangeDetector.ChangeSet retry = detector.detect(1L, page(List.of("田中", "鈴木")), APRIL, PHASE1);
+
+        assertThat(retry.changedRowCount()).isEqualTo(1);
+    }
+
+    /** 2試合分のページ。1試合目の○だけを引数で変える */
+    private static DensukeData page(List<String> match1Participants) {
+        DensukeData data = new DensukeData();
+        data.getMemberNames().addAll(List.of("田中", "鈴木"));
+        data.getEntries().add(entry(1, match1Participants));
+        data.getEntries().add(entry(2, List.of("鈴木")));
+        return data;
+    }
+
+    private static ScheduleEntry entry(int matchNumber, List<String> participants) {
+        ScheduleEntry entry = new ScheduleEntry();
+        entry.setDate(DAY);
+        entry.setMatchNumber(matchNumber);
+        entry.setVenueName("すずらん");
+        entry.setRawLabel("4/5(日)すずらん " + matchNumber + "試合目");
+        entry.getParticipants().addAll(participants);
+        return entry;
+    }
+}
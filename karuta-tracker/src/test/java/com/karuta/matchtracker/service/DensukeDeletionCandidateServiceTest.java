@@ -1,6 +1,7 @@
 package com.karuta.matchtracker.service;
 
 import com.karuta.matchtracker.entity.DensukeDeletionCandidate;
+import com.karuta.matchtracker.entity.PracticeParticipant;
 import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.exception.ResourceNotFoundException;
 import com.karuta.matchtracker.repository.DensukeDeletionCandidateRepository;
@@ -14,6 +15,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
+import java.util.List;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -28,6 +30,9 @@ class DensukeDeletionCandidateServiceTest {
     @Mock private DensukeDeletionCandidateRepository densukeDeletionCandidateRepository;
     @Mock private PracticeSessionRepository practiceSessionRepository;
     @Mock private PracticeParticipantRepository practiceParticipantRepository;
+    @Mock private SeatOccupancyService seatOccupancyService;
+    @Mock private IcalFeedVersionService icalFeedVersionService;
+    @Mock private ParticipationRateAggregator participationRateAggregator;
 
     @InjectMocks
     private DensukeDeletionCandidateService service;
@@ -47,10 +52,15 @@ class DensukeDeletionCandidateServiceTest {
         when(practiceSessionRepository.findBySessionDateAndOrganizationId(
                 LocalDate.of(2026, 7, 10), 1L)).thenReturn(Optional.of(session));
         when(densukeDeletionCandidateRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+        when(practiceParticipantRepository.findBySessionIdAndMatchNumber(99L, 2)).thenReturn(List.of(
+                PracticeParticipant.builder().sessionId(99L).playerId(7L).matchNumber(2).build()));
 
         DensukeDeletionCandidate result = service.approve(1L, 55L);
 
         verify(practiceParticipantRepository).deleteBySessionIdAndMatchNumber(99L, 2);
+        verify(seatOccupancyService).markChanged(99L);
+        verify(participationRateAggregator).markSessionsChanged(List.of(99L));
+        verify(icalFeedVersionService).markPlayersChanged(List.of(7L));
         assertThat(result.getStatus()).isEqualTo(DensukeDeletionCandidate.Status.APPROVED);
         assertThat(result.getResolvedBy()).isEqualTo(55L);
         assertThat(result.getResolvedAt()).isNotNull();
@@ -52,6 +52,7 @@ class DensukeImportServiceMonthFilterTest {
     @Mock private PracticeParticipantService practiceParticipantService;
     @Mock private LineNotificationService lineNotificationService;
     @Mock private DensukeDeletionDetectionService densukeDeletionDetectionService;
+    @Mock private SeatOccupancyService seatOccupancyService;
 
     @InjectMocks
     private DensukeImportService densukeImportService;
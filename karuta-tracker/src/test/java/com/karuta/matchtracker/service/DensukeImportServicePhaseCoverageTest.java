@@ -58,6 +58,7 @@ class DensukeImportServicePhaseCoverageTest {
     @Mock private PracticeParticipantService practiceParticipantService;
     @Mock private LineNotificationService lineNotificationService;
     @Mock private DensukeDeletionDetectionService densukeDeletionDetectionService;
+    @Mock private SeatOccupancyService seatOccupancyService;
 
     @InjectMocks
     private DensukeImportService densukeImportService;
@@ -209,8 +210,9 @@ class DensukeImportServicePhaseCoverageTest {
         when(lotteryDeadlineHelper.isAfterSameDayNoon(date)).thenReturn(true);
         when(practiceParticipantRepository.findBySessionIdAndMatchNumber(session.getId(), MATCH_NUMBER))
                 .thenReturn(List.of(existing));
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                session.getId(), MATCH_NUMBER, ParticipantStatus.WON)).thenReturn(10L);
+        when(seatOccupancyService.current(session.getId())).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(MATCH_NUMBER, ParticipantStatus.WON, 10)
+                .build());
 
         ImportResult result = densukeImportService.importFromDensuke("http://example.com", null, 0L, ORG_ID);
 
@@ -13,6 +13,7 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.io.IOException;
@@ -49,6 +50,8 @@ class DensukeImportServiceTest {
     @Mock private OrganizationService organizationService;
     @Mock private DensukeDeletionDetectionService densukeDeletionDetectionService;
     @Mock private PasswordPolicy passwordPolicy;
+    @Spy private DensukeChangeDetector densukeChangeDetector = new DensukeChangeDetector();
+    @Mock private SeatOccupancyService seatOccupancyService;
 
     @InjectMocks
     private DensukeImportService densukeImportService;
@@ -59,6 +62,7 @@ class DensukeImportServiceTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
         player1 = Player.builder().id(1L).name("田中").role(Player.Role.PLAYER)
                 .gender(Player.Gender.男性).dominantHand(Player.DominantHand.右).build();
         player2 = Player.builder().id(2L).name("鈴木").role(Player.Role.PLAYER)
@@ -111,6 +115,81 @@ class DensukeImportServiceTest {
         verify(practiceParticipantRepository, times(2)).save(any(PracticeParticipant.class));
     }
 
+    @Test
+    @DisplayName("差分取り込み: 前回から変化がなければ取り込みをスキップし、変化した行だけを取り込む")
+    void testImportChangesSkipsUnchangedAndImportsChangedRowsOnly() throws IOException {
+        DensukeData data = createSampleData();
+        ScheduleEntry second = new ScheduleEntry();
+        second.setDate(LocalDate.of(2026, 4, 1));
+        second.setMatchNumber(2);
+        second.setVenueName("すずらん");
+        second.getParticipants().add("田中");
+        data.getEntries().add(second);
+        DensukeUrl densukeUrl = DensukeUrl.builder().id(5L).year(2026).month(4)
+                .organizationId(1L).url("http://example.com").build();
+        PracticeSession session = PracticeSession.builder().id(99L)
+                .sessionDate(LocalDate.of(2026, 4, 1)).totalMatches(3).build();
+
+        when(densukeScraper.scrape(anyString(), anyInt())).thenReturn(data);
+        when(playerService.findAllPlayersRaw()).thenReturn(List.of(player1, player2));
+        when(venueRepository.findAll()).thenReturn(Collections.emptyList());
+        when(practiceSessionRepository.findBySessionDateAndOrganizationId(any(), eq(1L))).thenReturn(Optional.of(session));
+        when(lotteryDeadlineHelper.getDeadlineType(1L)).thenReturn(DeadlineType.MONTHLY);
+        when(practiceParticipantRepository.findBySessionIdAndMatchNumber(eq(99L), anyInt()))
+                .thenReturn(Collections.emptyList());
+        LocalDate april = LocalDate.of(2026, 4, 1);
+
+        // 1回目: スナップショットなし → 全行取り込み
+        ImportResult first = densukeImportService.importChangesFromDensuke(densukeUrl, april, 0L);
+        assertThat(first.isUnchanged()).isFalse();
+        verify(practiceParticipantRepository).findBySessionIdAndMatchNumber(99L, 1);
+        verify(practiceParticipantRepository).findBySessionIdAndMatchNumber(99L, 2);
+
+        // 2回目: 変化なし → 選手の全件ロードもせずスキップ
+        ImportResult unchanged = densukeImportService.importChangesFromDensuke(densukeUrl, april, 0L);
+        assertThat(unchanged.isUnchanged()).isTrue();
+        verify(playerService, times(1)).findAllPlayersRaw();
+
+        // 3回目: 2試合目だけ変化 → 2試合目だけ取り込み
+        second.getParticipants().add("鈴木");
+        ImportResult changed = densukeImportService.importChangesFromDensuke(densukeUrl, april, 0L);
+        assertThat(changed.isUnchanged()).isFalse();
+        verify(practiceParticipantRepository, times(1)).findBySessionIdAndMatchNumber(99L, 1);
+        verify(practiceParticipantRepository, times(2)).findBySessionIdAndMatchNumber(99L, 2);
+    }
+
+    @Test
+    @DisplayName("差分取り込み: MONTHLY のフェーズは日付ごとではなく年月ごとに1回だけ判定する")
+    void testImportChangesDeterminesMonthlyPhaseOncePerMonth() throws IOException {
+        DensukeData data = createSampleData();
+        for (int day : List.of(8, 15)) {
+            ScheduleEntry entry = new ScheduleEntry();
+            entry.setDate(LocalDate.of(2026, 4, day));
+            entry.setMatchNumber(1);
+            entry.setVenueName("すずらん");
+            entry.getParticipants().add("田中");
+            data.getEntries().add(entry);
+        }
+        DensukeUrl densukeUrl = DensukeUrl.builder().id(5L).year(2026).month(4)
+                .organizationId(1L).url("http://example.com").build();
+        PracticeSession session = PracticeSession.builder().id(99L)
+                .sessionDate(LocalDate.of(2026, 4, 1)).totalMatches(3).build();
+
+        when(densukeScraper.scrape(anyString(), anyInt())).thenReturn(data);
+        when(playerService.findAllPlayersRaw()).thenReturn(List.of(player1, player2));
+        when(venueRepository.findAll()).thenReturn(Collections.emptyList());
+        when(practiceSessionRepository.findBySessionDateAndOrganizationId(any(), eq(1L))).thenReturn(Optional.of(session));
+        when(lotteryDeadlineHelper.getDeadlineType(1L)).thenReturn(DeadlineType.MONTHLY);
+        when(practiceParticipantRepository.findBySessionIdAndMatchNumber(eq(99L), anyInt()))
+                .thenReturn(Collections.emptyList());
+
+        densukeImportService.importChangesFromDensuke(densukeUrl, LocalDate.of(2026, 4, 1), 0L);
+
+        // 変更検知の行指紋で1回、取り込みで1回（3日分の日付があっても増えない）
+        verify(lotteryService, times(2)).isLotteryConfirmed(2026, 4, 1L);
+        verify(lotteryService, times(2)).hasUnconfirmedExecution(2026, 4, 1L);
+    }
+
     @Test
     @DisplayName("既存セッションがある場合は新規作成しない")
     void testImportUsesExistingSession() throws IOException {
@@ -474,8 +553,9 @@ class DensukeImportServiceTest {
         when(practiceParticipantRepository.findBySessionIdAndMatchNumber(100L, 1))
                 .thenReturn(List.of(waitlisted));
         // 空き枠あり（13/14）
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(13L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 13)
+                .build());
         densukeImportService.importFromDensuke("http://example.com", null, 0L, 1L);
 
         assertThat(waitlisted.getStatus()).isEqualTo(ParticipantStatus.WON);
@@ -514,10 +594,9 @@ class DensukeImportServiceTest {
         when(practiceParticipantRepository.findBySessionIdAndMatchNumber(100L, 1))
                 .thenReturn(List.of(waitlisted));
         // 空き枠は1（13/14）だが、自分の待ち順位(4番目)までの人数は2人分あるため足りない
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(13L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 13)
+                .build());
         when(practiceParticipantRepository
                 .countBySessionIdAndMatchNumberAndStatusAndWaitlistNumberLessThanEqual(
                         100L, 1, ParticipantStatus.WAITLISTED, 4))
@@ -562,10 +641,9 @@ class DensukeImportServiceTest {
         when(practiceParticipantRepository.findBySessionIdAndMatchNumber(998L, 3))
                 .thenReturn(List.of(waitlisted));
         // 空き枠7（7/14）。自分(待ち順位2番目)までの人数は2人分で空き枠に収まる
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(998L, 3, ParticipantStatus.WON))
-                .thenReturn(7L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(998L, 3, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
+        when(seatOccupancyService.current(998L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(3, ParticipantStatus.WON, 7)
+                .build());
         when(practiceParticipantRepository
                 .countBySessionIdAndMatchNumberAndStatusAndWaitlistNumberLessThanEqual(
                         998L, 3, ParticipantStatus.WAITLISTED, 2))
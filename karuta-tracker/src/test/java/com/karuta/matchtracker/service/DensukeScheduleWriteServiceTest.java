@@ -83,7 +83,7 @@ class DensukeScheduleWriteServiceTest {
     @BeforeEach
     void setUp() {
         // self は public 経路 (pushNewSchedulesToDensuke / pushSilently) では使用されないので null で OK。
-        // pushNewSchedulesToDensukeAsync / pushAllForCurrentAndNextMonth を直接テストする場合のみ self が必要。
+        // pushNewSchedulesToDensukeAsync を直接テストする場合のみ self が必要。
         service = new DensukeScheduleWriteService(
                 densukeUrlRepository,
                 practiceSessionRepository,
@@ -0,0 +1,126 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.service.DensukeScraper.DensukeData;
+import org.jsoup.Jsoup;
+import org.jsoup.parser.Parser;
+import org.jsoup.parser.StreamParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * ストリーミングパーサ（app.densuke.streaming-parser=true）が DOM パースと同じ結果を返すことの検証。
+ */
+@DisplayName("DensukeScraper ストリーミングパーサ同等性テスト")
+class DensukeScraperStreamingTest {
+
+    private final DensukeScraper scraper = new DensukeScraper();
+
+    @Test
+    @DisplayName("スナップショットフィクスチャ: DOM パースと同じ結果になる")
+    void snapshotFixtureMatchesDomParse() throws IOException {
+        String html;
+        try (InputStream in = getClass().getResourceAsStream("/densuke/snapshot-2026-04-24.html")) {
+            assertThat(in).as("fixture densuke/snapshot-2026-04-24.html").isNotNull();
+            html = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+
+        DensukeData streamed = assertSameAsDomParse(html);
+
+        assertThat(streamed.getMemberNames()).hasSize(6);
+        assertThat(streamed.getEntries()).hasSize(2);
+    }
+
+    @Test
+    @DisplayName("2択ページ・日付行より前の行・空ラベル行・会場の引き継ぎも DOM パースと同じ")
+    void twoChoicePageMatchesDomParse() throws IOException {
+        String html = """
+                <html><body>
+                <p>説明文</p>
+                <table class="listtbl">
+                <tr>
+                  <td>&nbsp;</td>
+                  <td class="rline"><div>○</div></td>
+                  <td class="rline"><div>×</div></td>
+                  <td><a href="javascript:memberdata(1);" title="4/1 10:00">田中</a></td>
+                  <td><a href="javascript:memberdata(2);">鈴木</a></td>
+                </tr>
+                <tr><td>備考</td><td></td><td></td><td><div class="col3">○</div></td><td></td></tr>
+                <tr>
+                  <td>4/5(日)すずらん 1試合目 17:20~</td><td></td><td></td>
+                  <td><div class="col3">○</div></td><td><div class="col1">×</div></td>
+                </tr>
+                <tr><td></td><td></td><td></td><td><div class="col3">○</div></td><td></td></tr>
+                <tr>
+                  <td>2試合目</td><td></td><td></td>
+                  <td><div class="col1">×</div></td><td><div class="col3">○</div></td>
+                </tr>
+                </table>
+                </body></html>
+                """;
+
+        DensukeData streamed = assertSameAsDomParse(html);
+
+        assertThat(streamed.getEntries()).hasSize(2);
+        assertThat(streamed.getEntries().get(1).getVenueName()).isEqualTo("すずらん");
+        assertThat(streamed.getEntries().get(1).getParticipants()).containsExactly("鈴木");
+    }
+
+    @Test
+    @DisplayName("3択ページの △ も DOM パースと同じ")
+    void threeChoicePageMatchesDomParse() throws IOException {
+        String html = """
+                <table class="listtbl">
+                <tr>
+                  <td>&nbsp;</td><td>○</td><td>△</td><td>×</td>
+                  <td><a href="javascript:memberdata(1);">田中</a></td>
+                  <td><a href="javascript:memberdata(2);">鈴木</a></td>
+                  <td><a href="javascript:memberdata(3);">佐藤</a></td>
+                </tr>
+                <tr>
+                  <td>4/12(日)かでる 1試合目</td><td></td><td></td><td></td>
+                  <td><div class="col3">○</div></td><td><div class="col2">△</div></td><td><div class="col1">✕</div></td>
+                </tr>
+                </table>
+                """;
+
+        DensukeData streamed = assertSameAsDomParse(html);
+
+        assertThat(streamed.getEntries().get(0).getMaybeParticipants()).containsExactly("鈴木");
+        assertThat(streamed.getEntries().get(0).getDeclinedParticipants()).containsExactly("佐藤");
+    }
+
+    @Test
+    @DisplayName("テーブルなし・メンバー列なしは DOM パースと同じメッセージで失敗する")
+    void errorsMatchDomParse() {
+        String noTable = "<html><body><p>ページが見つかりません</p></body></html>";
+        String noMember = "<table class=\"listtbl\"><tr><td>&nbsp;</td><td>○</td></tr></table>";
+
+        assertThatThrownBy(() -> scraper.parseStreaming(streamer(noTable), 2026))
+                .isInstanceOf(IOException.class)
+                .hasMessage("伝助のテーブルが見つかりません");
+        assertThatThrownBy(() -> scraper.parse(Jsoup.parse(noMember), 2026))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("メンバー列");
+        assertThatThrownBy(() -> scraper.parseStreaming(streamer(noMember), 2026))
+                .isInstanceOf(IOException.class)
+                .hasMessageContaining("メンバー列");
+    }
+
+    private DensukeData assertSameAsDomParse(String html) throws IOException {
+        DensukeData dom = scraper.parse(Jsoup.parse(html), 2026);
+        DensukeData streamed = scraper.parseStreaming(streamer(html), 2026);
+        assertThat(streamed).isEqualTo(dom);
+        return streamed;
+    }
+
+    private static StreamParser streamer(String html) {
+        return new StreamParser(Parser.htmlParser()).parse(html, "");
+    }
+}
@@ -2,13 +2,15 @@ package com.karuta.matchtracker.service;
 
 import com.karuta.matchtracker.entity.DensukeUrl;
 import com.karuta.matchtracker.repository.DensukeUrlRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InOrder;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.util.List;
@@ -19,7 +21,9 @@ import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -33,9 +37,18 @@ class DensukeSyncServiceTest {
     @Mock private DensukeUrlRepository densukeUrlRepository;
     @Mock private DensukeScheduleWriteService densukeScheduleWriteService;
 
-    @InjectMocks
+    private SimpleMeterRegistry meterRegistry;
     private DensukeSyncService densukeSyncService;
 
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        densukeSyncService = new DensukeSyncService(densukeWriteService, densukeImportService,
+                densukeUrlRepository, densukeScheduleWriteService, meterRegistry);
+        ReflectionTestUtils.setField(densukeSyncService, "maxConcurrentOrgs", 3);
+        ReflectionTestUtils.setField(densukeSyncService, "maxCycleSeconds", 240L);
+    }
+
     @Test
     @DisplayName("syncForOrganization writes scoped updates then imports target month")
     void syncForOrganization_scopedWriteAndTargetMonthImport() throws Exception {
@@ -91,19 +104,17 @@ class DensukeSyncServiceTest {
 
         when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
                 .thenReturn(List.of(densukeUrl));
-        when(densukeImportService.importFromDensuke(any(), any(), any(), any()))
+        when(densukeImportService.importChangesFromDensuke(any(), any(), any()))
                 .thenReturn(result);
 
         densukeSyncService.syncAll();
 
-        verify(densukeWriteService).writeToDensuke();
-        verify(densukeImportService, times(2)).importFromDensuke(
-                eq("https://densuke.biz/list?cd=test"),
+        verify(densukeWriteService, times(2)).writeToDensukeForOrganization(densukeUrl);
+        verify(densukeImportService, times(2)).importChangesFromDensuke(
+                eq(densukeUrl),
                 any(LocalDate.class),
-                eq(DensukeImportService.SYSTEM_USER_ID),
-                eq(1L));
+                eq(DensukeImportService.SYSTEM_USER_ID));
     }
-
     @Test
     @DisplayName("testSyncForOrganizationInvokesPushBeforeWrite: syncForOrganization も pushSilently → writeToDensukeForOrganization → importFromDensuke の順")
     void testSyncForOrganizationInvokesPushBeforeWrite() throws Exception {
@@ -137,30 +148,102 @@ class DensukeSyncServiceTest {
     }
 
     @Test
-    @DisplayName("testSyncAllInvokesScheduleFollowUpSync: syncAll() が pushAllForCurrentAndNextMonth() を writeToDensuke() の前に呼ぶ")
+    @DisplayName("testSyncAllInvokesScheduleFollowUpSync: syncAll() は団体ごとに pushSilently → writeToDensukeForOrganization → importChangesFromDensuke の順")
     void testSyncAllInvokesScheduleFollowUpSync() throws Exception {
-        // Given: スケジューラ経路の通常フロー
-        DensukeUrl densukeUrl = DensukeUrl.builder()
-                .id(10L)
-                .year(2026)
-                .month(5)
-                .organizationId(1L)
-                .url("https://densuke.biz/list?cd=test")
-                .build();
-        DensukeImportService.ImportResult result = new DensukeImportService.ImportResult();
-
+        // Given: スケジューラ経路の通常フロー（2団体）
+        DensukeUrl org1 = url(10L, 1L);
+        DensukeUrl org2 = url(20L, 2L);
         when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
-                .thenReturn(List.of(densukeUrl));
-        when(densukeImportService.importFromDensuke(any(), any(), any(), any()))
-                .thenReturn(result);
+                .thenReturn(List.of(org1, org2), List.of());
+        when(densukeImportService.importChangesFromDensuke(any(), any(), any()))
+                .thenReturn(new DensukeImportService.ImportResult());
 
         // When
         densukeSyncService.syncAll();
 
-        // Then: スケジュール push フォロー同期が writeToDensuke の前に呼ばれる
-        verify(densukeScheduleWriteService).pushAllForCurrentAndNextMonth();
-        InOrder inOrder = inOrder(densukeScheduleWriteService, densukeWriteService);
-        inOrder.verify(densukeScheduleWriteService).pushAllForCurrentAndNextMonth();
-        inOrder.verify(densukeWriteService).writeToDensuke();
+        // Then: 団体の中ではスケジュール push が書き込みの前、取り込みは最後
+        for (DensukeUrl url : List.of(org1, org2)) {
+            InOrder inOrder = inOrder(densukeScheduleWriteService, densukeWriteService, densukeImportService);
+            inOrder.verify(densukeScheduleWriteService).pushSilently(2026, 5, url.getOrganizationId());
+            inOrder.verify(densukeWriteService).writeToDensukeForOrganization(url);
+            inOrder.verify(densukeImportService).importChangesFromDensuke(
+                    eq(url), eq(LocalDate.of(2026, 5, 1)), eq(DensukeImportService.SYSTEM_USER_ID));
+        }
+        verify(densukeWriteService, never()).writeToDensukeForOrganization(anyInt(), anyInt(), any());
+        assertThat(meterRegistry.find("densuke_sync.org.duration").tag("organizationId", "1").timer().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.find("densuke_sync.org.duration").tag("organizationId", "2").timer().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("1団体の取り込み失敗は他団体の同期を止めない")
+    void syncAll_failureInOneOrgDoesNotStopOthers() throws Exception {
+        DensukeUrl org1 = url(10L, 1L);
+        DensukeUrl org2 = url(20L, 2L);
+        when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
+                .thenReturn(List.of(org1, org2), List.of());
+        when(densukeImportService.importChangesFromDensuke(eq(org1), any(), any()))
+                .thenThrow(new IllegalStateException("boom"));
+        when(densukeImportService.importChangesFromDensuke(eq(org2), any(), any()))
+                .thenReturn(new DensukeImportService.ImportResult());
+
+        densukeSyncService.syncAll();
+
+        verify(densukeImportService).importChangesFromDensuke(eq(org2), any(), any());
+        assertThat(meterRegistry.find("densuke_sync.org.duration")
+                .tag("organizationId", "1").tag("result", "failed").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("サイクル上限時間を超えたら未着手の団体は次サイクルに回し、次サイクルで先に処理する")
+    void syncAll_defersRemainingOrgsPastCycleLimit() throws Exception {
+        DensukeUrl org1 = url(10L, 1L);
+        DensukeUrl org2 = url(20L, 2L);
+        when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
+                .thenReturn(List.of(org1, org2), List.of(), List.of(org1, org2), List.of());
+        when(densukeImportService.importChangesFromDensuke(any(), any(), any()))
+                .thenReturn(new DensukeImportService.ImportResult());
+
+        // 上限0秒: どの団体にも着手しない
+        ReflectionTestUtils.setField(densukeSyncService, "maxCycleSeconds", 0L);
+        densukeSyncService.syncAll();
+
+        verify(densukeScheduleWriteService, never()).pushSilently(anyInt(), anyInt(), any());
+        assertThat(meterRegistry.counter("densuke_sync.deferred_orgs").count()).isEqualTo(2);
+
+        // 次サイクル: 後回しにした団体を処理する
+        ReflectionTestUtils.setField(densukeSyncService, "maxCycleSeconds", 240L);
+        densukeSyncService.syncAll();
+
+        verify(densukeImportService).importChangesFromDensuke(eq(org1), any(), any());
+        verify(densukeImportService).importChangesFromDensuke(eq(org2), any(), any());
+    }
+
+    @Test
+    @DisplayName("triggerWriteAsync は当月・翌月の伝助URLごとに書き込み、1件の失敗で残りを止めない")
+    void triggerWriteAsync_writesEveryUrlOfCurrentAndNextMonth() {
+        DensukeUrl org1 = url(10L, 1L);
+        DensukeUrl org2 = url(20L, 2L);
+        DensukeUrl nextMonth = url(30L, 1L);
+        when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
+                .thenReturn(List.of(org1, org2), List.of(nextMonth));
+        doThrow(new IllegalStateException("boom")).when(densukeWriteService).writeToDensukeForOrganization(org1);
+
+        densukeSyncService.triggerWriteAsync();
+
+        verify(densukeWriteService).writeToDensukeForOrganization(org2);
+        verify(densukeWriteService).writeToDensukeForOrganization(nextMonth);
+        verify(densukeUrlRepository, times(2)).findByYearAndMonth(anyInt(), anyInt());
+    }
+
+    private static DensukeUrl url(Long id, Long organizationId) {
+        return DensukeUrl.builder()
+                .id(id)
+                .year(2026)
+                .month(5)
+                .organizationId(organizationId)
+                .url("https://densuke.biz/list?cd=org" + organizationId)
+                .build();
     }
 }
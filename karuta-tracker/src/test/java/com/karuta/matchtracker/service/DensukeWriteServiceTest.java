@@ -3,12 +3,10 @@ package com.karuta.matchtracker.service;
 import com.karuta.matchtracker.dto.DensukeWriteStatusDto;
 import com.karuta.matchtracker.entity.*;
 import com.karuta.matchtracker.repository.*;
-import com.karuta.matchtracker.util.JstDateTimeUtil;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
-import org.mockito.MockedStatic;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
@@ -63,16 +61,13 @@ class DensukeWriteServiceTest {
     }
 
     // ----------------------------------------------------------------
-    // writeToDensuke: URL未設定のケース
+    // writeToDensukeForOrganization(DensukeUrl): URL未設定のケース
     // ----------------------------------------------------------------
 
     @Test
     @DisplayName("DensukeURLが未設定の場合はdirtyクエリを実行しない")
     void testWriteToDensuke_noUrl_skipsAll() {
-        when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
-                .thenReturn(List.of());
-
-        densukeWriteService.writeToDensuke();
+        densukeWriteService.writeToDensukeForOrganization((DensukeUrl) null);
 
         verify(practiceParticipantRepository, never()).findDirtyForDensukeSync(any());
     }
@@ -80,59 +75,28 @@ class DensukeWriteServiceTest {
     @Test
     @DisplayName("DensukeURLが未設定の場合はpendingCountが0になる")
     void testWriteToDensuke_noUrl_pendingCountZero() {
-        when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
-                .thenReturn(List.of());
-
-        densukeWriteService.writeToDensuke();
+        densukeWriteService.writeToDensukeForOrganization((DensukeUrl) null);
 
         assertThat(densukeWriteService.getStatus(1L).getPendingCount()).isEqualTo(0);
     }
 
     // ----------------------------------------------------------------
-    // writeToDensuke: dirty参加者なしのケース
+    // writeToDensukeForOrganization(DensukeUrl): dirty参加者なしのケース
     // ----------------------------------------------------------------
 
     @Test
     @DisplayName("dirty=trueの参加者がいない場合は何も書き込まない")
     void testWriteToDensuke_noDirtyParticipants_skipsWrite() {
-        // 実装は writeToDensuke() で today() を呼んで今月と来月のURLを取得するため、
-        // テストセットアップとサービス呼び出しの間で月またぎが起きないよう today() を固定する
-        LocalDate fixedToday = LocalDate.of(2026, 5, 24);
-        int currentYear = fixedToday.getYear();
-        int currentMonth = fixedToday.getMonthValue();
-
-        try (MockedStatic<JstDateTimeUtil> jstMock = mockStatic(JstDateTimeUtil.class, CALLS_REAL_METHODS)) {
-            jstMock.when(JstDateTimeUtil::today).thenReturn(fixedToday);
-
-            DensukeUrl url = DensukeUrl.builder()
-                    .id(1L).year(currentYear).month(currentMonth).organizationId(1L)
-                    .url("https://densuke.biz/list?cd=test123").build();
-            when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
-                    .thenAnswer(inv -> {
-                        int y = (int) inv.getArgument(0);
-                        int m = (int) inv.getArgument(1);
-                        if (y == currentYear && m == currentMonth) return List.of(url);
-                        return List.of();
-                    });
-
-            PracticeSession session = PracticeSession.builder()
-                    .id(10L).sessionDate(fixedToday.withDayOfMonth(1)).totalMatches(3).build();
-            when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(anyInt(), anyInt(), eq(1L)))
-                    .thenAnswer(inv -> {
-                        int y = (int) inv.getArgument(0);
-                        int m = (int) inv.getArgument(1);
-                        if (y == currentYear && m == currentMonth) return List.of(session);
-                        return Collections.emptyList();
-                    });
-
-            when(practiceParticipantRepository.findDirtyForDensukeSync(any()))
-                    .thenReturn(Collections.emptyList());
-
-            densukeWriteService.writeToDensuke();
-
-            verify(densukeMemberMappingRepository, never()).findByDensukeUrlIdAndPlayerId(any(), any());
-            assertThat(densukeWriteService.getStatus(1L).getPendingCount()).isEqualTo(0);
-        }
+        DensukeUrl url = url();
+        when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 5, 1L))
+                .thenReturn(List.of(session()));
+        when(practiceParticipantRepository.findDirtyForDensukeSync(any()))
+                .thenReturn(Collections.emptyList());
+
+        densukeWriteService.writeToDensukeForOrganization(url);
+
+        verify(densukeMemberMappingRepository, never()).findByDensukeUrlIdAndPlayerId(any(), any());
+        assertThat(densukeWriteService.getStatus(1L).getPendingCount()).isEqualTo(0);
     }
 
     @Test
@@ -181,46 +145,18 @@ class DensukeWriteServiceTest {
     @Test
     @DisplayName("BYE(matchNumber=null)のみdirtyの場合はプレイヤーの書き込みが発生しない")
     void testWriteToDensuke_byeOnlyDirty_skipsWrite() {
-        // 実装は writeToDensuke() で today() を呼んで今月と来月のURLを取得するため、
-        // テストセットアップとサービス呼び出しの間で月またぎが起きないよう today() を固定する
-        LocalDate fixedToday = LocalDate.of(2026, 5, 24);
-        int currentYear = fixedToday.getYear();
-        int currentMonth = fixedToday.getMonthValue();
-
-        try (MockedStatic<JstDateTimeUtil> jstMock = mockStatic(JstDateTimeUtil.class, CALLS_REAL_METHODS)) {
-            jstMock.when(JstDateTimeUtil::today).thenReturn(fixedToday);
-
-            DensukeUrl url = DensukeUrl.builder()
-                    .id(1L).year(currentYear).month(currentMonth).organizationId(1L)
-                    .url("https://densuke.biz/list?cd=test123").build();
-            when(densukeUrlRepository.findByYearAndMonth(anyInt(), anyInt()))
-                    .thenAnswer(inv -> {
-                        int y = (int) inv.getArgument(0);
-                        int m = (int) inv.getArgument(1);
-                        if (y == currentYear && m == currentMonth) return List.of(url);
-                        return List.of();
-                    });
-
-            PracticeSession session = PracticeSession.builder()
-                    .id(10L).sessionDate(fixedToday.withDayOfMonth(1)).totalMatches(3).build();
-            when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(anyInt(), anyInt(), eq(1L)))
-                    .thenAnswer(inv -> {
-                        int y = (int) inv.getArgument(0);
-                        int m = (int) inv.getArgument(1);
-                        if (y == currentYear && m == currentMonth) return List.of(session);
-                        return Collections.emptyList();
-                    });
-
-            // findDirtyForDensukeSync は matchNumber IS NOT NULL なのでBYEを返さない → 空
-            when(practiceParticipantRepository.findDirtyForDensukeSync(any()))
-                    .thenReturn(Collections.emptyList());
-
-            densukeWriteService.writeToDensuke();
-
-            // BYEのみdirtyの場合、書き込み処理に進まない
-            verify(densukeMemberMappingRepository, never()).findByDensukeUrlIdAndPlayerId(any(), any());
-            assertThat(densukeWriteService.getStatus(1L).getPendingCount()).isEqualTo(0);
-        }
+        DensukeUrl url = url();
+        when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 5, 1L))
+                .thenReturn(List.of(session()));
+        // findDirtyForDensukeSync は matchNumber IS NOT NULL なのでBYEを返さない → 空
+        when(practiceParticipantRepository.findDirtyForDensukeSync(any()))
+                .thenReturn(Collections.emptyList());
+
+        densukeWriteService.writeToDensukeForOrganization(url);
+
+        // BYEのみdirtyの場合、書き込み処理に進まない
+        verify(densukeMemberMappingRepository, never()).findByDensukeUrlIdAndPlayerId(any(), any());
+        assertThat(densukeWriteService.getStatus(1L).getPendingCount()).isEqualTo(0);
     }
 
     // ----------------------------------------------------------------
@@ -570,4 +506,15 @@ class DensukeWriteServiceTest {
         assertThat(errors).isNotEmpty();
         assertThat(rowIdIssues).isNotEmpty();
     }
+
+    private static DensukeUrl url() {
+        return DensukeUrl.builder()
+                .id(1L).year(2026).month(5).organizationId(1L)
+                .url("https://densuke.biz/list?cd=test123").build();
+    }
+
+    private static PracticeSession session() {
+        return PracticeSession.builder()
+                .id(10L).sessionDate(LocalDate.of(2026, 5, 1)).totalMatches(3).build();
+    }
 }
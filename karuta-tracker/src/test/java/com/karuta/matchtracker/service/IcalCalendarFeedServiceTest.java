@@ -2,6 +2,7 @@ package com.karuta.matchtracker.service;
 
 import com.karuta.matchtracker.dto.FeedInfoDto;
 import com.karuta.matchtracker.dto.OrganizationFeedDto;
+import com.karuta.matchtracker.entity.IcalFeedArchiveSegment;
 import com.karuta.matchtracker.entity.Organization;
 import com.karuta.matchtracker.entity.ParticipantStatus;
 import com.karuta.matchtracker.entity.Player;
@@ -19,6 +20,7 @@ import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.VenueMatchScheduleRepository;
 import com.karuta.matchtracker.repository.VenueRepository;
 import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
@@ -28,12 +30,20 @@ import org.junit.jupiter.params.provider.EnumSource;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
 import org.springframework.test.util.ReflectionTestUtils;
 
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -43,10 +53,16 @@ import java.util.TimeZone;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 /**
@@ -77,6 +93,12 @@ class IcalCalendarFeedServiceTest {
     @Mock
     private VenueMatchScheduleRepository venueMatchScheduleRepository;
 
+    @Mock
+    private IcalFeedArchiveService icalFeedArchiveService;
+
+    @Spy
+    private IcalFeedCache icalFeedCache = new IcalFeedCache(new SimpleMeterRegistry());
+
     @InjectMocks
     private IcalCalendarFeedService service;
 
@@ -137,10 +159,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -204,10 +223,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(ownParticipation, otherParticipation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(ownSession, otherOrgSession));
+        stubHistory(List.of(ownParticipation, otherParticipation), List.of(ownSession, otherOrgSession));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -242,11 +258,8 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(activeParticipation, inactiveParticipation));
         // 非アクティブは filter 後に除外されるので、ロード対象になるのは activeSession のみ
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(activeSession));
+        stubHistory(List.of(activeParticipation, inactiveParticipation), List.of(activeSession));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -275,10 +288,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -312,10 +322,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(List.of(playerOrg));
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -344,10 +351,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -373,10 +377,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -398,8 +399,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(Collections.emptyList());
+        stubHistory(Collections.emptyList(), List.of());
 
         // When
         String ics = service.generateIcsForOrgFeed(VALID_TOKEN, ORG_ID);
@@ -426,10 +426,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -463,10 +460,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(List.of(schedule));
@@ -513,10 +507,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(participations);
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(participations, List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(schedules);
@@ -560,10 +551,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(participations);
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(participations, List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(schedules);
@@ -608,10 +596,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(participations);
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(participations, List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(schedules);
@@ -646,10 +631,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(participations);
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(participations, List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(schedules);
@@ -689,10 +671,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(participations);
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(participations, List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(schedules);
@@ -723,10 +702,7 @@ class IcalCalendarFeedServiceTest {
         when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -774,10 +750,7 @@ class IcalCalendarFeedServiceTest {
         stubPlayerByToken();
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(List.of(playerOrg));
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(ownParticipation, guestParticipation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(ownSession, guestSession));
+        stubHistory(List.of(ownParticipation, guestParticipation), List.of(ownSession, guestSession));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -811,10 +784,7 @@ class IcalCalendarFeedServiceTest {
         stubPlayerByToken();
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(List.of(playerOrg));
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(participation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(session));
+        stubHistory(List.of(participation), List.of(session));
 
         // When
         String ics = service.generateIcsForGuestFeed(VALID_TOKEN);
@@ -853,10 +823,7 @@ class IcalCalendarFeedServiceTest {
         stubPlayerByToken();
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(List.of(playerOrg));
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(List.of(guestParticipation));
-        when(practiceSessionRepository.findAllById(anyList()))
-                .thenReturn(List.of(guestSession));
+        stubHistory(List.of(guestParticipation), List.of(guestSession));
         when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
         when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                 .thenReturn(Collections.emptyList());
@@ -877,8 +844,7 @@ class IcalCalendarFeedServiceTest {
         stubPlayerByToken();
         when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                 .thenReturn(Collections.emptyList());
-        when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                .thenReturn(Collections.emptyList());
+        stubHistory(Collections.emptyList(), List.of());
 
         // When
         String ics = service.generateIcsForGuestFeed(VALID_TOKEN);
@@ -1249,10 +1215,7 @@ class IcalCalendarFeedServiceTest {
             when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
             when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
                     .thenReturn(Collections.emptyList());
-            when(practiceParticipantRepository.findAllParticipationsByPlayer(eq(PLAYER_ID)))
-                    .thenReturn(List.of(participation));
-            when(practiceSessionRepository.findAllById(anyList()))
-                    .thenReturn(List.of(session));
+            stubHistory(List.of(participation), List.of(session));
             when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
             when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
                     .thenReturn(Collections.emptyList());
@@ -1270,10 +1233,240 @@ class IcalCalendarFeedServiceTest {
         }
     }
 
+    // ============================================================
+    // フィード版番号・描画キャッシュ テスト
+    // ============================================================
+
+    @Test
+    @DisplayName("resolveFeedStamp: トークン引き1回で版番号と ETag / Last-Modified を返し、描画用の読み込みはしない")
+    void resolveFeedStamp_returnsVersionWithoutRendering() {
+        // Given
+        player.setIcalFeedVersion(7L);
+        player.setIcalFeedUpdatedAt(LocalDateTime.of(2026, 4, 1, 10, 0));
+        stubPlayerByToken();
+
+        // When
+        IcalCalendarFeedService.FeedStamp stamp = service.resolveFeedStamp(VALID_TOKEN);
+
+        // Then
+        assertThat(stamp.playerId()).isEqualTo(PLAYER_ID);
+        assertThat(stamp.etag()).isEqualTo("\"v7\"");
+        // 2026-04-01 10:00 JST = 2026-04-01 01:00 UTC
+        assertThat(stamp.lastModifiedMillis()).isEqualTo(1775005200000L);
+        verifyNoInteractions(practiceParticipantRepository);
+    }
+
+    @Test
+    @DisplayName("resolveFeedStamp: 版番号・更新日時が未設定なら v0 で Last-Modified を付けない")
+    void resolveFeedStamp_unsetVersion_defaultsToZero() {
+        stubPlayerByToken();
+
+        IcalCalendarFeedService.FeedStamp stamp = service.resolveFeedStamp(VALID_TOKEN);
+
+        assertThat(stamp.etag()).isEqualTo("\"v0\"");
+        assertThat(stamp.lastModifiedMillis()).isEqualTo(-1L);
+    }
+
+    @Test
+    @DisplayName("writeGuestFeed: 同じ版番号なら2回目は描画せずキャッシュから書き、版番号が進めば描画し直す")
+    void writeGuestFeed_cachesPerVersion() throws Exception {
+        // Given
+        when(playerOrganizationRepository.findByPlayerId(PLAYER_ID)).thenReturn(Collections.emptyList());
+        stubHistory(Collections.emptyList(), List.of());
+        IcalCalendarFeedService.FeedStamp v1 = new IcalCalendarFeedService.FeedStamp(PLAYER_ID, 1L, null);
+        IcalCalendarFeedService.FeedStamp v2 = new IcalCalendarFeedService.FeedStamp(PLAYER_ID, 2L, null);
+
+        // When
+        ByteArrayOutputStream first = new ByteArrayOutputStream();
+        ByteArrayOutputStream second = new ByteArrayOutputStream();
+        service.writeGuestFeed(v1, first);
+        service.writeGuestFeed(v1, second);
+        service.writeGuestFeed(v2, new ByteArrayOutputStream());
+
+        // Then
+        assertThat(first.toString(StandardCharsets.UTF_8)).contains("X-WR-CALNAME:ゲスト参加");
+        assertThat(second.toByteArray()).isEqualTo(first.toByteArray());
+        verify(practiceParticipantRepository, times(2)).findIcalParticipationPage(
+                eq(PLAYER_ID), anyCollection(), any(), any(), any(), any(), any(), any());
+    }
+
+    @Test
+    @DisplayName("writeOrgFeed: 所属外の団体は何も書かずに ResourceNotFoundException で、キャッシュにも載らない")
+    void writeOrgFeed_nonMember_throwsWithoutWritingAndDoesNotCache() {
+        // Given
+        stubMembership(ORG_ID, false);
+        IcalCalendarFeedService.FeedStamp stamp = new IcalCalendarFeedService.FeedStamp(PLAYER_ID, 1L, null);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // When & Then
+        assertThatThrownBy(() -> service.writeOrgFeed(stamp, ORG_ID, out))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThatThrownBy(() -> service.writeOrgFeed(stamp, ORG_ID, out))
+                .isInstanceOf(ResourceNotFoundException.class);
+        assertThat(out.size()).isZero();
+        verify(playerOrganizationRepository, times(2)).existsByPlayerIdAndOrganizationId(PLAYER_ID, ORG_ID);
+    }
+
+    // ============================================================
+    // ページング・履歴モード テスト
+    // ============================================================
+
+    @Test
+    @DisplayName("参加履歴はページ単位で読み、ページをまたいだ練習日も1件のVEVENTにまとめる")
+    void generateIcsForOrgFeed_pagesThroughHistory() {
+        // Given - PAGE_SIZE ちょうどの練習日（1試合ずつ）と、2ページ目にまたがる最後の練習日の2試合目
+        int sessionCount = IcalCalendarFeedService.PAGE_SIZE;
+        List<PracticeSession> sessions = new ArrayList<>();
+        List<PracticeParticipant> participations = new ArrayList<>();
+        for (int i = 0; i < sessionCount; i++) {
+            long sessionId = 10_000L + i;
+            sessions.add(createSession(sessionId, LocalDate.of(2020, 1, 1).plusDays(i), VENUE_ID, ORG_ID,
+                    LocalTime.of(9, 0), LocalTime.of(12, 0)));
+            participations.add(createParticipation(sessionId, PLAYER_ID, 1, ParticipantStatus.WON));
+        }
+        participations.add(createParticipation(10_000L + sessionCount - 1, PLAYER_ID, 2, ParticipantStatus.WON));
+
+        stubPlayerByToken();
+        stubMembership(ORG_ID, true);
+        when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
+        when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
+                .thenReturn(Collections.emptyList());
+        stubHistory(participations, sessions);
+        when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
+        when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        String ics = service.generateIcsForOrgFeed(VALID_TOKEN, ORG_ID);
+
+        // Then
+        assertThat(ics.split("BEGIN:VEVENT", -1)).hasSize(sessionCount + 1);
+        assertThat(ics).contains("試合数: 1〜2試合");
+        verify(practiceParticipantRepository, times(2)).findIcalParticipationPage(
+                eq(PLAYER_ID), anyCollection(), any(), any(), any(), any(), any(), any());
+        // 会場スケジュールは最初のページで読んだものを使い回す
+        verify(venueMatchScheduleRepository, times(1)).findByVenueIdIn(anyList());
+    }
+
+    @Test
+    @DisplayName("rolling モード: 直近より前の年は1度だけ描画してアーカイブ区間に登録し、フィードにも含める")
+    void generateIcsForOrgFeed_rollingMode_rendersAndStoresArchivedYear() {
+        // Given - 直近1年（今年）だけを毎回描画する。去年の練習は区間が未作成
+        ReflectionTestUtils.setField(service, "historyMode", "rolling");
+        ReflectionTestUtils.setField(service, "liveWindowYears", 1);
+        player.setIcalFeedVersion(3L);
+        int lastYear = JstDateTimeUtil.today().getYear() - 1;
+        Long archivedSessionId = 401L;
+        PracticeSession archivedSession = createSession(archivedSessionId, LocalDate.of(lastYear, 6, 1),
+                VENUE_ID, ORG_ID, LocalTime.of(9, 0), LocalTime.of(12, 0));
+        PracticeSession liveSession = createSession(SESSION_ID, futureDate, VENUE_ID, ORG_ID,
+                LocalTime.of(9, 0), LocalTime.of(12, 0));
+
+        stubPlayerByToken();
+        stubMembership(ORG_ID, true);
+        when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
+        when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
+                .thenReturn(Collections.emptyList());
+        stubHistory(List.of(
+                        createParticipation(archivedSessionId, PLAYER_ID, 1, ParticipantStatus.WON),
+                        createParticipation(SESSION_ID, PLAYER_ID, 1, ParticipantStatus.WON)),
+                List.of(archivedSession, liveSession));
+        when(practiceParticipantRepository.findEarliestIcalSessionDate(eq(PLAYER_ID), anyCollection()))
+                .thenReturn(archivedSession.getSessionDate());
+        when(icalFeedArchiveService.find(PLAYER_ID, "org-" + ORG_ID, lastYear)).thenReturn(Optional.empty());
+        when(venueRepository.findAllById(any())).thenReturn(List.of(venue));
+        when(venueMatchScheduleRepository.findByVenueIdIn(anyList()))
+                .thenReturn(Collections.emptyList());
+
+        // When
+        String ics = service.generateIcsForOrgFeed(VALID_TOKEN, ORG_ID);
+
+        // Then - 区間は描画の起点にした版番号付きで登録する
+        ArgumentCaptor<String> content = ArgumentCaptor.forClass(String.class);
+        verify(icalFeedArchiveService).store(eq(PLAYER_ID), eq(3L), eq("org-" + ORG_ID), eq(lastYear),
+                content.capture(), eq(1));
+        assertThat(content.getValue()).contains("session-" + archivedSessionId + "-player-" + PLAYER_ID);
+        assertThat(content.getValue()).doesNotContain("session-" + SESSION_ID + "-player-");
+        assertThat(ics).contains(content.getValue());
+        assertThat(ics).contains("session-" + SESSION_ID + "-player-" + PLAYER_ID);
+    }
+
+    @Test
+    @DisplayName("rolling モード: 登録済みのアーカイブ区間はそのまま書き、その年の参加は読まない")
+    void generateIcsForOrgFeed_rollingMode_reusesArchivedYear() {
+        // Given
+        ReflectionTestUtils.setField(service, "historyMode", "rolling");
+        ReflectionTestUtils.setField(service, "liveWindowYears", 1);
+        int lastYear = JstDateTimeUtil.today().getYear() - 1;
+        String archived = "BEGIN:VEVENT\r\nUID:archived-event\r\nEND:VEVENT\r\n";
+
+        stubPlayerByToken();
+        stubMembership(ORG_ID, true);
+        when(organizationRepository.findById(ORG_ID)).thenReturn(Optional.of(organization));
+        when(playerOrganizationRepository.findByPlayerId(PLAYER_ID))
+                .thenReturn(Collections.emptyList());
+        stubHistory(Collections.emptyList(), List.of());
+        when(practiceParticipantRepository.findEarliestIcalSessionDate(eq(PLAYER_ID), anyCollection()))
+                .thenReturn(LocalDate.of(lastYear, 6, 1));
+        when(icalFeedArchiveService.find(PLAYER_ID, "org-" + ORG_ID, lastYear))
+                .thenReturn(Optional.of(IcalFeedArchiveSegment.builder().content(archived).build()));
+
+        // When
+        String ics = service.generateIcsForOrgFeed(VALID_TOKEN, ORG_ID);
+
+        // Then - 区間はそのまま、参加は今年の1/1以降だけを読む
+        assertThat(ics).contains(archived);
+        verify(icalFeedArchiveService, never()).store(any(), anyLong(), any(), anyInt(), any(), anyInt());
+        verify(practiceParticipantRepository).findIcalParticipationPage(eq(PLAYER_ID), anyCollection(),
+                eq(LocalDate.of(lastYear + 1, 1, 1)), any(), any(), any(), any(), any());
+        verify(practiceParticipantRepository, times(1)).findIcalParticipationPage(
+                eq(PLAYER_ID), anyCollection(), any(), any(), any(), any(), any(), any());
+    }
+
     // ============================================================
     // ヘルパー
     // ============================================================
 
+    /**
+     * 参加履歴のページ取得を、参加と練習日から組み立てた行（[参加ID, 練習ID, 練習日, 試合番号]）で模擬する。
+     * ステータス・期間・キーセットの条件と並び順はリポジトリのクエリに合わせる。参加IDは並び順の連番で振る
+     */
+    private void stubHistory(List<PracticeParticipant> participations, List<PracticeSession> sessions) {
+        Map<Long, PracticeSession> sessionById = new HashMap<>();
+        sessions.forEach(s -> sessionById.put(s.getId(), s));
+        List<Object[]> allRows = new ArrayList<>();
+        for (int i = 0; i < participations.size(); i++) {
+            PracticeParticipant p = participations.get(i);
+            PracticeSession s = sessionById.get(p.getSessionId());
+            if (s != null) {
+                allRows.add(new Object[]{p.getId() != null ? p.getId() : i + 1L, p.getSessionId(),
+                        s.getSessionDate(), p.getMatchNumber(), p.getStatus()});
+            }
+        }
+        Comparator<Object[]> order = Comparator.<Object[], LocalDate>comparing(r -> (LocalDate) r[2])
+                .thenComparing(r -> (Long) r[1])
+                .thenComparing(r -> (Long) r[0]);
+        allRows.sort(order);
+
+        lenient().when(practiceSessionRepository.findAllById(anyList())).thenReturn(sessions);
+        lenient().when(practiceParticipantRepository.findIcalParticipationPage(
+                        eq(PLAYER_ID), anyCollection(), any(), any(), any(), any(), any(), any()))
+                .thenAnswer(invocation -> {
+                    Collection<ParticipantStatus> statuses = invocation.getArgument(1);
+                    LocalDate from = invocation.getArgument(2);
+                    LocalDate to = invocation.getArgument(3);
+                    Object[] after = {invocation.getArgument(6), invocation.getArgument(5), invocation.getArgument(4)};
+                    Pageable pageable = invocation.getArgument(7);
+                    return allRows.stream()
+                            .filter(r -> statuses.contains((ParticipantStatus) r[4]))
+                            .filter(r -> !((LocalDate) r[2]).isBefore(from) && ((LocalDate) r[2]).isBefore(to))
+                            .filter(r -> order.compare(r, after) > 0)
+                            .limit(pageable.getPageSize())
+                            .map(r -> new Object[]{r[0], r[1], r[2], r[3]})
+                            .toList();
+                });
+    }
+
     private void stubPlayerByToken() {
         when(playerRepository.findByIcalFeedTokenAndActive(VALID_TOKEN))
                 .thenReturn(Optional.of(player));
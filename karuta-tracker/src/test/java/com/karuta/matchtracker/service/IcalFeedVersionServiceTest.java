@@ -0,0 +1,155 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.Organization;
+import com.karuta.matchtracker.entity.PlayerOrganization;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.entity.VenueMatchSchedule;
+import com.karuta.matchtracker.repository.IcalFeedArchiveSegmentRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@DisplayName("IcalFeedVersionService 単体テスト")
+class IcalFeedVersionServiceTest {
+
+    private PlayerRepository playerRepository;
+    private IcalFeedArchiveSegmentRepository icalFeedArchiveSegmentRepository;
+    private IcalFeedVersionService service;
+
+    @BeforeEach
+    void setUp() {
+        playerRepository = mock(PlayerRepository.class);
+        icalFeedArchiveSegmentRepository = mock(IcalFeedArchiveSegmentRepository.class);
+        service = new IcalFeedVersionService(playerRepository, icalFeedArchiveSegmentRepository,
+                mock(PlatformTransactionManager.class));
+    }
+
+    @Test
+    @DisplayName("トランザクション外の変更は即時に版番号を進める")
+    void onEntityChanged_withoutTransaction_bumpsImmediately() {
+        service.onEntityChanged(PracticeParticipant.builder().sessionId(1L).playerId(10L).build());
+
+        verify(playerRepository).bumpIcalFeedVersionByPlayerIds(eq(Set.of(10L)), any());
+    }
+
+    @Test
+    @DisplayName("トランザクション中の変更はまとめて、コミット後に種類ごと1回ずつ版番号を進める")
+    void onEntityChanged_inTransaction_bumpsOnceAfterCommit() {
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> {
+            service.onEntityChanged(PracticeParticipant.builder().sessionId(1L).playerId(10L).build());
+            service.onEntityChanged(PracticeParticipant.builder().sessionId(1L).playerId(11L).build());
+            service.onEntityChanged(PlayerOrganization.builder().playerId(10L).organizationId(5L).build());
+            service.onEntityChanged(PracticeSession.builder().id(1L).build());
+            service.onEntityChanged(VenueMatchSchedule.builder().venueId(3L).matchNumber(1).build());
+            service.onEntityChanged(Organization.builder().id(5L).build());
+            service.onEntityChanged("unrelated");
+        });
+        verifyNoInteractions(playerRepository);
+
+        synchronizations.forEach(s -> {
+            s.afterCommit();
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        });
+
+        verify(playerRepository).bumpIcalFeedVersionByPlayerIds(eq(Set.of(10L, 11L)), any());
+        verify(playerRepository).bumpIcalFeedVersionBySessionIds(eq(Set.of(1L)), any());
+        verify(playerRepository).bumpIcalFeedVersionByVenueIds(eq(Set.of(3L)), any());
+        verify(playerRepository).bumpIcalFeedVersionByOrganizationIds(eq(Set.of(5L)), any());
+        // アーカイブ区間: 参加の変更はその年だけ、所属・練習日・会場・団体の変更は範囲ごとに削除
+        verify(icalFeedArchiveSegmentRepository).deleteByPlayerIdsAndSessionYears(Set.of(10L, 11L), Set.of(1L));
+        verify(icalFeedArchiveSegmentRepository).deleteByPlayerIds(Set.of(10L));
+        verify(icalFeedArchiveSegmentRepository).deleteBySessionIds(Set.of(1L));
+        verify(icalFeedArchiveSegmentRepository).deleteByVenueIds(Set.of(3L));
+        verify(icalFeedArchiveSegmentRepository).deleteByOrganizationIds(Set.of(5L));
+    }
+
+    @Test
+    @DisplayName("削除された練習日は、削除時点の年と削除された参加者の選手でアーカイブ区間を消す")
+    void onEntityRemoved_session_dropsArchiveByCapturedYearAndPlayers() {
+        List<TransactionSynchronization> synchronizations = inTransaction(() -> {
+            service.onEntityRemoved(PracticeParticipant.builder().sessionId(2L).playerId(20L).build());
+            service.onEntityRemoved(PracticeParticipant.builder().sessionId(2L).playerId(21L).build());
+            service.onEntityRemoved(PracticeSession.builder().id(2L).sessionDate(LocalDate.of(2025, 12, 28)).build());
+        });
+
+        synchronizations.forEach(s -> {
+            s.afterCommit();
+            s.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        });
+
+        verify(playerRepository).bumpIcalFeedVersionByPlayerIds(eq(Set.of(20L, 21L)), any());
+        verify(icalFeedArchiveSegmentRepository).deleteByPlayerIdsAndSegmentYear(Set.of(20L, 21L), 2025);
+        // コミット後は練習日も参加者も残っていないため、DB を辿る削除は使わない
+        verify(icalFeedArchiveSegmentRepository, never()).deleteByPlayerIdsAndSessionYears(anyCollection(), anyCollection());
+        verify(icalFeedArchiveSegmentRepository, never()).deleteBySessionIds(anyCollection());
+        verify(playerRepository, never()).bumpIcalFeedVersionBySessionIds(anyCollection(), any());
+    }
+
+    @Test
+    @DisplayName("一括更新の呼び出し元からの通知は版番号だけ進め、アーカイブ区間は消さない")
+    void markPlayersChanged_bumpsWithoutDroppingArchive() {
+        service.markPlayersChanged(List.of(10L));
+
+        verify(playerRepository).bumpIcalFeedVersionByPlayerIds(eq(Set.of(10L)), any());
+        verifyNoInteractions(icalFeedArchiveSegmentRepository);
+    }
+
+    @Test
+    @DisplayName("所属の変更は版番号を進め、その選手の全アーカイブ区間を消す")
+    void markMembershipChanged_dropsAllArchiveSegments() {
+        service.markMembershipChanged(10L);
+
+        verify(playerRepository).bumpIcalFeedVersionByPlayerIds(eq(Set.of(10L)), any());
+        verify(icalFeedArchiveSegmentRepository).deleteByPlayerIds(Set.of(10L));
+    }
+
+    @Test
+    @DisplayName("ロールバックされたトランザクションの変更は版番号を進めない")
+    void markPlayersChanged_rolledBack_doesNotBump() {
+        List<TransactionSynchronization> synchronizations =
+                inTransaction(() -> service.markPlayersChanged(List.of(10L, 11L)));
+
+        synchronizations.forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(playerRepository);
+    }
+
+    @Test
+    @DisplayName("版番号の更新に失敗しても呼び出し元へ例外を伝えない")
+    void markPlayerChanged_bumpFailure_isSwallowed() {
+        when(playerRepository.bumpIcalFeedVersionByPlayerIds(anyCollection(), any()))
+                .thenThrow(new RuntimeException("db down"));
+
+        assertThatCode(() -> service.markPlayerChanged(10L)).doesNotThrowAnyException();
+    }
+
+    private static List<TransactionSynchronization> inTransaction(Runnable action) {
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            action.run();
+            return new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.karuta.matchtracker.service;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("IcsStreamWriter 単体テスト")
+class IcsStreamWriterTest {
+
+    private static final Instant DTSTAMP = Instant.parse("2026-04-01T01:00:00Z");
+
+    @Test
+    @DisplayName("時刻付きのイベントは TZID=Asia/Tokyo のローカル時刻、DTSTAMP は UTC で書く")
+    void writeEvent_timedEvent() throws Exception {
+        String ics = write(new IcsStreamWriter.Event("uid-1", "テスト団体＠会場", "会場", "試合数: 1試合",
+                LocalDate.of(2026, 4, 10), LocalDateTime.of(2026, 4, 10, 13, 0), LocalDateTime.of(2026, 4, 10, 17, 20)));
+
+        assertThat(ics).startsWith("BEGIN:VCALENDAR\r\nVERSION:2.0\r\n");
+        assertThat(ics).contains("TZID:Asia/Tokyo\r\n");
+        assertThat(ics).contains("DTSTAMP:20260401T010000Z\r\n");
+        assertThat(ics).contains("DTSTART;TZID=Asia/Tokyo:20260410T130000\r\n");
+        assertThat(ics).contains("DTEND;TZID=Asia/Tokyo:20260410T172000\r\n");
+        assertThat(ics).endsWith("END:VEVENT\r\nEND:VCALENDAR\r\n");
+    }
+
+    @Test
+    @DisplayName("時刻の無いイベントは VALUE=DATE の終日イベント（終了は翌日）")
+    void writeEvent_allDayEvent() throws Exception {
+        String ics = write(new IcsStreamWriter.Event("uid-1", "練習＠未定", "未定", null,
+                LocalDate.of(2026, 12, 31), null, null));
+
+        assertThat(ics).contains("DTSTART;VALUE=DATE:20261231\r\n");
+        assertThat(ics).contains("DTEND;VALUE=DATE:20270101\r\n");
+        assertThat(ics).doesNotContain("DESCRIPTION");
+    }
+
+    @Test
+    @DisplayName("TEXT 値の \\ ; , 改行をエスケープする")
+    void escape_specialCharacters() {
+        assertThat(IcsStreamWriter.escape("a\\b;c,d\r\ne")).isEqualTo("a\\\\b\\;c\\,d\\ne");
+    }
+
+    @Test
+    @DisplayName("75 オクテットを超える行はマルチバイト文字の途中で切らずに折り返す")
+    void writeEvent_foldsLongLinesByOctets() throws Exception {
+        String longName = "あ".repeat(40);
+        String ics = write(new IcsStreamWriter.Event("uid-1", longName, null, null,
+                LocalDate.of(2026, 4, 10), null, null));
+
+        for (String line : ics.split("\r\n")) {
+            assertThat(line.getBytes(StandardCharsets.UTF_8).length).isLessThanOrEqualTo(75);
+        }
+        // 折り返し（CRLF + 空白）を戻すと元の値になる
+        assertThat(ics.replace("\r\n ", "")).contains("SUMMARY:" + longName + "\r\n");
+    }
+
+    private static String write(IcsStreamWriter.Event event) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IcsStreamWriter writer = new IcsStreamWriter(out, DTSTAMP);
+        writer.beginCalendar("-//test//JP", "テスト");
+        writer.writeEvent(event);
+        writer.endCalendar();
+        writer.flush();
+        return out.toString(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,226 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.service.LineApiTransport.Api;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.web.client.ExpectedCount;
+import org.springframework.test.web.client.MockRestServiceServer;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import org.springframework.web.client.RestClientException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withTooManyRequests;
+
+@DisplayName("LineApiTransport テスト")
+class LineApiTransportTest {
+
+    private static final String PUSH_URL = "https://api.line.me/v2/bot/message/push";
+    private static final String REPLY_URL = "https://api.line.me/v2/bot/message/reply";
+    private static final String QUOTA_URL = "https://api.line.me/v2/bot/message/quota/consumption";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong();
+    private final List<Duration> sleeps = new ArrayList<>();
+    private LineApiTransport transport;
+
+    @BeforeEach
+    void setUp() {
+        transport = new LineApiTransport(meterRegistry);
+        transport.nanoClock = clock::get;
+        transport.sleeper = d -> {
+            sleeps.add(d);
+            clock.addAndGet(d.toNanos());
+        };
+    }
+
+    private MockRestServiceServer server(Api api) {
+        return MockRestServiceServer.createServer(transport.restTemplate(api));
+    }
+
+    private static HttpEntity<Map<String, Object>> json(Map<String, Object> body) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        return new HttpEntity<>(body, headers);
+    }
+
+    @Test
+    @DisplayName("429 は Retry-After だけ待って同じ Retry-Key で再送し、成功を返す")
+    void rateLimited_retriesAfterRetryAfterWithSameRetryKey() {
+        MockRestServiceServer server = server(Api.PUSH);
+        List<String> retryKeys = new ArrayList<>();
+        server.expect(requestTo(PUSH_URL))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token-a"))
+                .andExpect(req -> retryKeys.add(req.getHeaders().getFirst(LineApiTransport.RETRY_KEY_HEADER)))
+                .andRespond(withTooManyRequests(2));
+        server.expect(requestTo(PUSH_URL))
+                .andExpect(req -> retryKeys.add(req.getHeaders().getFirst(LineApiTransport.RETRY_KEY_HEADER)))
+                .andRespond(withSuccess("{}", MediaType.APPLICATION_JSON));
+
+        ResponseEntity<String> response = transport.exchange(Api.PUSH, PUSH_URL, "token-a", json(Map.of("to", "U1")));
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        assertThat(sleeps).containsExactly(Duration.ofSeconds(2));
+        assertThat(retryKeys).hasSize(2).doesNotContainNull();
+        assertThat(retryKeys.get(0)).isEqualTo(retryKeys.get(1));
+        assertThat(meterRegistry.get("line.api.requests").tag("api", "push").tag("outcome", "rate_limited")
+                .timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("line.api.requests").tag("api", "push").tag("outcome", "success")
+                .timer().count()).isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("再送で 409 が返ったら前回の送信が受理済みとして成功扱いにする")
+    void retryKeyConflict_treatedAsAccepted() {
+        MockRestServiceServer server = server(Api.PUSH);
+        server.expect(requestTo(PUSH_URL)).andRespond(withServerError());
+        server.expect(requestTo(PUSH_URL)).andRespond(withStatus(HttpStatus.CONFLICT));
+
+        ResponseEntity<String> response = transport.exchange(Api.PUSH, PUSH_URL, "token-a", json(Map.of("to", "U1")));
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("呼び出し側が渡した Retry-Key をそのまま送り、初回の 409 も受理済みとして成功扱いにする")
+    void suppliedRetryKey_sentAsIsAndConflictOnFirstAttemptAccepted() {
+        MockRestServiceServer server = server(Api.PUSH);
+        server.expect(requestTo(PUSH_URL))
+                .andExpect(header(LineApiTransport.RETRY_KEY_HEADER, "6f1c2b1e-0000-4000-8000-000000000001"))
+                .andRespond(withStatus(HttpStatus.CONFLICT));
+
+        ResponseEntity<String> response = transport.exchange(Api.PUSH, PUSH_URL, "token-a",
+                json(Map.of("to", "U1")), "6f1c2b1e-0000-4000-8000-000000000001");
+
+        assertThat(response.getStatusCode().is2xxSuccessful()).isTrue();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Retry-After が再送の待ち上限を超える 429 は再送せず、その間チャネルへの送信を止める")
+    void longRetryAfter_failsFastAndBlocksChannel() {
+        MockRestServiceServer server = server(Api.PUSH);
+        server.expect(requestTo(PUSH_URL)).andRespond(withTooManyRequests(60));
+
+        assertThatThrownBy(() -> transport.exchange(Api.PUSH, PUSH_URL, "token-a", json(Map.of("to", "U1"))))
+                .isInstanceOf(HttpClientErrorException.TooManyRequests.class);
+        assertThat(sleeps).isEmpty();
+
+        assertThatThrownBy(() -> transport.exchange(Api.PUSH, PUSH_URL, "token-a", json(Map.of("to", "U2"))))
+                .isInstanceOf(LineApiTransport.CircuitOpenException.class);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("reply は 5xx で再送しない（reply トークンは1回限り）")
+    void reply_notRetriedOnServerError() {
+        MockRestServiceServer server = server(Api.REPLY);
+        server.expect(ExpectedCount.once(), requestTo(REPLY_URL)).andRespond(withServerError());
+
+        assertThatThrownBy(() -> transport.exchange(Api.REPLY, REPLY_URL, "token-a", json(Map.of("replyToken", "r"))))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThat(sleeps).isEmpty();
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("失敗が続いたチャネルだけ送信を止め、一定時間後の試し送信の成功で戻す")
+    void consecutiveFailures_openCircuitPerChannel() {
+        MockRestServiceServer server = server(Api.QUOTA);
+        server.expect(ExpectedCount.times(LineApiTransport.FAILURE_THRESHOLD), requestTo(QUOTA_URL))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token-a"))
+                .andRespond(withServerError());
+        server.expect(requestTo(QUOTA_URL))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token-b"))
+                .andRespond(withSuccess("{\"totalUsage\": 1}", MediaType.APPLICATION_JSON));
+        server.expect(requestTo(QUOTA_URL))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token-a"))
+                .andRespond(withSuccess("{\"totalUsage\": 2}", MediaType.APPLICATION_JSON));
+
+        HttpEntity<Void> get = new HttpEntity<>(new HttpHeaders());
+        // 1回目: 3回送って失敗（失敗3）。2回目: 2回目の失敗で閾値に達し、再送をやめる（失敗5）
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(LineApiTransport.CircuitOpenException.class);
+
+        // 別チャネルは影響を受けない
+        assertThat(transport.exchange(Api.QUOTA, QUOTA_URL, "token-b", get).getBody()).contains("1");
+
+        clock.addAndGet(LineApiTransport.OPEN_DURATION.toNanos());
+        assertThat(transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get).getBody()).contains("2");
+        assertThat(meterRegistry.get("line.api.short_circuited").tag("api", "quota").counter().count())
+                .isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("試し送信が分類できない例外で失敗してもブレーカーを開き直し、次の試し送信を通す")
+    void probeFailingWithUnclassifiedException_reopensCircuit() {
+        MockRestServiceServer server = server(Api.QUOTA);
+        server.expect(ExpectedCount.times(LineApiTransport.FAILURE_THRESHOLD), requestTo(QUOTA_URL))
+                .andRespond(withServerError());
+        server.expect(requestTo(QUOTA_URL))
+                .andRespond(request -> {
+                    throw new RestClientException("Error while extracting response");
+                });
+        server.expect(requestTo(QUOTA_URL))
+                .andRespond(withSuccess("{\"totalUsage\": 3}", MediaType.APPLICATION_JSON));
+
+        HttpEntity<Void> get = new HttpEntity<>(new HttpHeaders());
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(HttpServerErrorException.class);
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(HttpServerErrorException.class);
+
+        clock.addAndGet(LineApiTransport.OPEN_DURATION.toNanos());
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isExactlyInstanceOf(RestClientException.class);
+        // 試し送信の失敗で開き直している
+        assertThatThrownBy(() -> transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get))
+                .isInstanceOf(LineApiTransport.CircuitOpenException.class);
+
+        clock.addAndGet(LineApiTransport.OPEN_DURATION.toNanos());
+        assertThat(transport.exchange(Api.QUOTA, QUOTA_URL, "token-a", get).getBody()).contains("3");
+        assertThat(meterRegistry.get("line.api.requests").tag("api", "quota").tag("outcome", "error").timer().count())
+                .isEqualTo(1);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Retry-After は秒数・HTTP 日付のどちらも読み、無ければ既定の待ち")
+    void parsesRetryAfter() {
+        HttpHeaders seconds = new HttpHeaders();
+        seconds.set(HttpHeaders.RETRY_AFTER, "3");
+        assertThat(LineApiTransport.retryAfter(seconds)).isEqualTo(Duration.ofSeconds(3));
+
+        HttpHeaders past = new HttpHeaders();
+        past.set(HttpHeaders.RETRY_AFTER, "Wed, 21 Oct 2015 07:28:00 GMT");
+        assertThat(LineApiTransport.retryAfter(past)).isEqualTo(Duration.ZERO);
+
+        assertThat(LineApiTransport.retryAfter(new HttpHeaders())).isEqualTo(LineApiTransport.DEFAULT_RATE_LIMIT_WAIT);
+    }
+}
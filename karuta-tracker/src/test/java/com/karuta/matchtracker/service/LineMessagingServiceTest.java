@@ -1,38 +1,49 @@
 package com.karuta.matchtracker.service;
 
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
-import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
-import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.client.ExpectedCount;
 import org.springframework.test.web.client.MockRestServiceServer;
-import org.springframework.web.client.RestTemplate;
+
+import java.util.List;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.client.match.MockRestRequestMatchers.header;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.method;
 import static org.springframework.test.web.client.match.MockRestRequestMatchers.requestTo;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withServerError;
+import static org.springframework.test.web.client.response.MockRestResponseCreators.withStatus;
 import static org.springframework.test.web.client.response.MockRestResponseCreators.withSuccess;
 
 /**
- * LineMessagingService#getGroupMemberCount の単体テスト（AC-4/AC-5 の枠会計に使うグループ人数取得）。
- * syncRestTemplate を MockRestServiceServer で差し替え、パース・失敗時 -1 を検証する。
+ * LineMessagingService#getGroupMemberCount の単体テスト（AC-4/AC-5 の枠会計に使うグループ人数取得）と、
+ * Push の送信結果の分類（再送可否）のテスト。
+ * LineApiTransport の API 別 RestTemplate を MockRestServiceServer で差し替え、
+ * パース・失敗時 -1・失敗の分類を検証する。
  */
-@DisplayName("LineMessagingService グループ人数取得テスト")
+@DisplayName("LineMessagingService グループ人数取得・送信結果テスト")
 class LineMessagingServiceTest {
 
     private LineMessagingService service;
     private MockRestServiceServer server;
+    private MockRestServiceServer pushServer;
 
     private static final String URL = "https://api.line.me/v2/bot/group/G123/members/count";
+    private static final String PUSH_URL = "https://api.line.me/v2/bot/message/push";
 
     @BeforeEach
     void setUp() {
-        service = new LineMessagingService(new RestTemplateBuilder());
-        RestTemplate syncRestTemplate = (RestTemplate) ReflectionTestUtils.getField(service, "syncRestTemplate");
-        server = MockRestServiceServer.createServer(syncRestTemplate);
+        LineApiTransport transport = new LineApiTransport(new SimpleMeterRegistry());
+        transport.sleeper = d -> { };
+        service = new LineMessagingService(transport);
+        server = MockRestServiceServer.createServer(transport.restTemplate(LineApiTransport.Api.GROUP_MEMBER_COUNT));
+        pushServer = MockRestServiceServer.createServer(transport.restTemplate(LineApiTransport.Api.PUSH));
     }
 
     @Test
@@ -40,6 +51,7 @@ class LineMessagingServiceTest {
     void parsesCount() {
         server.expect(requestTo(URL))
                 .andExpect(method(HttpMethod.GET))
+                .andExpect(header(HttpHeaders.AUTHORIZATION, "Bearer token"))
                 .andRespond(withSuccess("{\"count\": 68}", MediaType.APPLICATION_JSON));
 
         assertThat(service.getGroupMemberCount("token", "G123")).isEqualTo(68);
@@ -56,11 +68,34 @@ class LineMessagingServiceTest {
     }
 
     @Test
-    @DisplayName("APIエラー時は -1")
+    @DisplayName("APIエラー時は再送し尽くしてから -1")
     void serverErrorReturnsMinusOne() {
-        server.expect(requestTo(URL))
+        server.expect(ExpectedCount.times(LineApiTransport.MAX_ATTEMPTS), requestTo(URL))
                 .andRespond(withServerError());
 
         assertThat(service.getGroupMemberCount("token", "G123")).isEqualTo(-1);
+        server.verify();
+    }
+
+    @Test
+    @DisplayName("Push の 4xx（429 以外）は再送せず、再送不可の失敗として返す")
+    void pushClientErrorIsPermanent() {
+        pushServer.expect(ExpectedCount.once(), requestTo(PUSH_URL))
+                .andRespond(withStatus(HttpStatus.BAD_REQUEST));
+
+        assertThat(service.sendPushMessages("token", "U1", List.of(LineMessagingService.textMessage("hi")), "key-1"))
+                .isEqualTo(LineMessagingService.SendResult.PERMANENT_FAILURE);
+        pushServer.verify();
+    }
+
+    @Test
+    @DisplayName("Push の 5xx は再送し尽くしてから、再送可能な失敗として返す")
+    void pushServerErrorIsRetryable() {
+        pushServer.expect(ExpectedCount.times(LineApiTransport.MAX_ATTEMPTS), requestTo(PUSH_URL))
+                .andRespond(withServerError());
+
+        assertThat(service.sendPushMessages("token", "U1", List.of(LineMessagingService.textMessage("hi")), "key-1"))
+                .isEqualTo(LineMessagingService.SendResult.RETRYABLE_FAILURE);
+        pushServer.verify();
     }
 }
@@ -43,6 +43,8 @@ class LineNotificationServiceAdminTest {
     private LotteryQueryService lotteryQueryService;
     @Mock
     private VenueRepository venueRepository;
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
 
     @InjectMocks
     private LineNotificationService lineNotificationService;
@@ -29,6 +29,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.never;
@@ -63,6 +65,7 @@ class LineNotificationServiceCardDivisionSendTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     private LineNotificationService service;
 
@@ -76,7 +79,8 @@ class LineNotificationServiceCardDivisionSendTest {
                 lineChannelRepository, lineChannelAssignmentRepository, lineNotificationPreferenceRepository,
                 lineMessageLogService, lineMessagingService, practiceSessionRepository,
                 practiceParticipantRepository, playerOrganizationRepository, playerRepository,
-                lotteryQueryService, venueRepository, mentorRelationshipRepository);
+                lotteryQueryService, venueRepository, mentorRelationshipRepository,
+                notificationOutboxService);
     }
 
     @Test
@@ -89,17 +93,17 @@ class LineNotificationServiceCardDivisionSendTest {
         subscribe(13L, true);
         linkPlayer(11L);
         linkPlayer(13L, false); // 未連携
-        // 送信権は確保できる・送信成功
+        // 送信権は確保できる
         when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), any(), any()))
                 .thenReturn(true);
-        when(lineMessagingService.sendPushMessage(any(), any(), any())).thenReturn(true);
 
         service.sendCardDivisionReminder(SESSION_ID, ORG, TEXT);
 
-        // p1 のみ実送信
-        verify(lineMessagingService, times(1)).sendPushMessage(eq("token11"), eq("U11"), eq(TEXT));
-        verify(lineMessagingService, never()).sendPushMessage(eq("token12"), any(), any());
-        verify(lineMessagingService, never()).sendPushMessage(eq("token13"), any(), any());
+        // p1 のみ送信キューへ登録（送信権は予約済み）
+        verify(notificationOutboxService, times(1)).enqueueLine(eq(911L), eq("U11"), eq(11L),
+                eq(LineNotificationType.CARD_DIVISION_REMINDER), anyList(), eq(TEXT), eq("555"), eq(true));
+        verify(notificationOutboxService, never()).enqueueLine(any(), any(), eq(12L), any(), any(), any(), any(), anyBoolean());
+        verify(notificationOutboxService, never()).enqueueLine(any(), any(), eq(13L), any(), any(), any(), any(), anyBoolean());
         // dedupeKey = sessionId で送信権確保
         verify(lineMessageLogService).tryAcquireSendRight(
                 anyLong(), eq(11L), eq(LineNotificationType.CARD_DIVISION_REMINDER), eq(TEXT), eq("555"));
@@ -117,7 +121,7 @@ class LineNotificationServiceCardDivisionSendTest {
 
         service.sendCardDivisionReminder(SESSION_ID, ORG, TEXT);
 
-        verify(lineMessagingService, never()).sendPushMessage(any(), any(), any());
+        verify(notificationOutboxService, never()).enqueueLine(any(), any(), any(), any(), any(), any(), any(), anyBoolean());
     }
 
     // ------------------------------------------------------------------
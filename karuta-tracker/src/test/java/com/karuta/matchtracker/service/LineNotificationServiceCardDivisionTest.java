@@ -57,6 +57,7 @@ class LineNotificationServiceCardDivisionTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     private LineNotificationService service;
 
@@ -77,7 +78,8 @@ class LineNotificationServiceCardDivisionTest {
                 playerRepository,
                 lotteryQueryService,
                 venueRepository,
-                mentorRelationshipRepository);
+                mentorRelationshipRepository,
+                notificationOutboxService);
     }
 
     @Nested
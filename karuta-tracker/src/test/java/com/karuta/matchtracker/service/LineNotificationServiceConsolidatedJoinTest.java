@@ -52,6 +52,8 @@ class LineNotificationServiceConsolidatedJoinTest {
     private VenueRepository venueRepository;
     @Mock
     private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
 
     @Spy
     @InjectMocks
@@ -217,9 +219,9 @@ class LineNotificationServiceConsolidatedJoinTest {
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
-            // スキップされるため sendPushFlexMessage は呼ばれない
-            verify(lineMessagingService, never())
-                    .sendPushFlexMessage(anyString(), anyString(), anyString(), any());
+            // スキップされるため送信キューには登録されない
+            verify(notificationOutboxService, never())
+                    .enqueueLine(any(), any(), any(), any(), any(), any(), any(), anyBoolean());
         }
 
         @Test
@@ -245,8 +247,6 @@ class LineNotificationServiceConsolidatedJoinTest {
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
                     anyString(), eq("100"))).thenReturn(true);
 
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
@@ -254,8 +254,10 @@ class LineNotificationServiceConsolidatedJoinTest {
             verify(lineMessageLogService).tryAcquireSendRight(anyLong(), eq(10L),
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
                     anyString(), eq("100"));
-            // 実際に送信が実行される
-            verify(lineMessagingService).sendPushFlexMessage(anyString(), anyString(), anyString(), any());
+            // 送信キューに登録される
+            verify(notificationOutboxService).enqueueLine(eq(1L), eq("U_10"), eq(10L),
+                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY), anyList(), anyString(),
+                    eq("100"), eq(true));
         }
 
         @Test
@@ -279,8 +281,6 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
                     .thenReturn(true);
 
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
@@ -298,8 +298,8 @@ class LineNotificationServiceConsolidatedJoinTest {
     class SendSameDayVacancyNotificationTests {
 
         @Test
-        @DisplayName("送信権確保成功→送信成功→markReservationSucceededが呼ばれる")
-        void acquireAndSendSuccess() {
+        @DisplayName("送信権確保成功→予約済みとして送信キューに登録され、予約ログの確定は送信ワーカーに任せる")
+        void acquireAndEnqueue() {
             PracticeSession session = createSession();
 
             when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
@@ -315,15 +315,14 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), eq(10L),
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
                     anyString(), eq("100:1"))).thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            when(lineMessageLogService.markReservationSucceeded(eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY), eq("100:1"))).thenReturn(1);
 
             lineNotificationService.sendSameDayVacancyNotification(session, 1, null);
 
-            verify(lineMessageLogService).markReservationSucceeded(10L,
-                    LineMessageLog.LineNotificationType.SAME_DAY_VACANCY, "100:1");
+            verify(notificationOutboxService).enqueueLine(eq(1L), eq("U_10"), eq(10L),
+                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY), anyList(), anyString(),
+                    eq("100:1"), eq(true));
+            verify(lineMessageLogService, never()).markReservationSucceeded(anyLong(), any(), anyString());
+            verify(lineMessageLogService, never()).markReservationFailed(anyLong(), any(), anyString(), anyString());
         }
 
         @Test
@@ -347,46 +346,13 @@ class LineNotificationServiceConsolidatedJoinTest {
 
             lineNotificationService.sendSameDayVacancyNotification(session, 1, null);
 
-            verify(lineMessagingService, never())
-                    .sendPushFlexMessage(anyString(), anyString(), anyString(), any());
-            verify(lineMessageLogService, never())
-                    .markReservationSucceeded(anyLong(), any(), anyString());
-        }
-
-        @Test
-        @DisplayName("送信失敗→markReservationFailedが呼ばれる")
-        void sendFailureCallsMarkFailed() {
-            PracticeSession session = createSession();
-
-            when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(List.of());
-
-            PlayerOrganization member = PlayerOrganization.builder()
-                    .playerId(10L).organizationId(1L).build();
-            when(playerOrganizationRepository.findByOrganizationId(1L))
-                    .thenReturn(List.of(member));
-
-            setupChannelMocks(10L);
-
-            when(lineMessageLogService.tryAcquireSendRight(anyLong(), eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
-                    anyString(), eq("100:1"))).thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(false);
-            when(lineMessageLogService.markReservationFailed(eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
-                    eq("100:1"), anyString())).thenReturn(1);
-
-            lineNotificationService.sendSameDayVacancyNotification(session, 1, null);
-
-            verify(lineMessageLogService).markReservationFailed(eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
-                    eq("100:1"), eq("LINE API送信失敗"));
+            verify(notificationOutboxService, never())
+                    .enqueueLine(any(), any(), any(), any(), any(), any(), any(), anyBoolean());
         }
 
         @Test
-        @DisplayName("送信例外→markReservationFailedが呼ばれる")
-        void sendExceptionCallsMarkFailed() {
+        @DisplayName("送信キュー登録の例外→markReservationFailedが呼ばれる")
+        void enqueueExceptionCallsMarkFailed() {
             PracticeSession session = createSession();
 
             when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
@@ -402,8 +368,8 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), eq(10L),
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
                     anyString(), eq("100:1"))).thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenThrow(new RuntimeException("Network error"));
+            doThrow(new RuntimeException("DB connection lost")).when(notificationOutboxService)
+                    .enqueueLine(any(), any(), any(), any(), any(), any(), any(), anyBoolean());
             when(lineMessageLogService.markReservationFailed(eq(10L),
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
                     eq("100:1"), anyString())).thenReturn(1);
@@ -412,7 +378,7 @@ class LineNotificationServiceConsolidatedJoinTest {
 
             verify(lineMessageLogService).markReservationFailed(eq(10L),
                     eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
-                    eq("100:1"), eq("Network error"));
+                    eq("100:1"), eq("DB connection lost"));
         }
 
         @Test
@@ -433,46 +399,11 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.releaseStaleReservations(any())).thenReturn(2);
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
                     .thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            when(lineMessageLogService.markReservationSucceeded(anyLong(), any(), anyString())).thenReturn(1);
 
             lineNotificationService.sendSameDayVacancyNotification(session, 1, null);
 
             verify(lineMessageLogService).releaseStaleReservations(any());
         }
-
-        @Test
-        @DisplayName("送信成功後にmarkReservationSucceededが例外→markReservationFailedは呼ばれない（重複送信防止）")
-        void sendSuccessThenMarkSucceededThrows_doesNotCallMarkFailed() {
-            PracticeSession session = createSession();
-
-            when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(List.of());
-
-            PlayerOrganization member = PlayerOrganization.builder()
-                    .playerId(10L).organizationId(1L).build();
-            when(playerOrganizationRepository.findByOrganizationId(1L))
-                    .thenReturn(List.of(member));
-
-            setupChannelMocks(10L);
-
-            when(lineMessageLogService.tryAcquireSendRight(anyLong(), eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY),
-                    anyString(), eq("100:1"))).thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            // markReservationSucceeded が例外を投げる
-            when(lineMessageLogService.markReservationSucceeded(eq(10L),
-                    eq(LineMessageLog.LineNotificationType.SAME_DAY_VACANCY), eq("100:1")))
-                    .thenThrow(new RuntimeException("DB connection lost"));
-
-            assertDoesNotThrow(() ->
-                    lineNotificationService.sendSameDayVacancyNotification(session, 1, null));
-
-            // markReservationFailed は呼ばれてはいけない（送信済みのためFAILEDにしない）
-            verify(lineMessageLogService, never()).markReservationFailed(anyLong(), any(), anyString(), anyString());
-        }
     }
 
     @Nested
@@ -500,79 +431,11 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.releaseStaleReservations(any())).thenReturn(1);
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
                     .thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            when(lineMessageLogService.markReservationSucceeded(anyLong(), any(), anyString())).thenReturn(1);
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
             verify(lineMessageLogService).releaseStaleReservations(any());
         }
-
-        @Test
-        @DisplayName("送信成功後にmarkReservationSucceededが例外→markReservationFailedは呼ばれない（重複送信防止）")
-        void sendSuccessThenMarkSucceededThrows_doesNotCallMarkFailed() {
-            PracticeSession session = createSession();
-
-            Map<Integer, Integer> vacanciesByMatch = new LinkedHashMap<>();
-            vacanciesByMatch.put(1, 2);
-
-            when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(List.of());
-
-            PlayerOrganization member = PlayerOrganization.builder()
-                    .playerId(10L).organizationId(1L).build();
-            when(playerOrganizationRepository.findByOrganizationId(1L))
-                    .thenReturn(List.of(member));
-
-            setupChannelMocks(10L);
-
-            when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
-                    .thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            // markReservationSucceeded が例外を投げる
-            when(lineMessageLogService.markReservationSucceeded(anyLong(), any(), anyString()))
-                    .thenThrow(new RuntimeException("DB connection lost"));
-
-            assertDoesNotThrow(() ->
-                    lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null));
-
-            // markReservationFailed は呼ばれてはいけない（送信済みのためFAILEDにしない）
-            verify(lineMessageLogService, never()).markReservationFailed(anyLong(), any(), anyString(), anyString());
-        }
-
-        @Test
-        @DisplayName("markReservationSucceededが0件更新でも送信成功としてカウントされる（ログ出力のみ）")
-        void markSucceededZeroUpdateStillCountsAsSent() {
-            PracticeSession session = createSession();
-
-            Map<Integer, Integer> vacanciesByMatch = new LinkedHashMap<>();
-            vacanciesByMatch.put(1, 2);
-
-            when(practiceParticipantRepository.findBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(List.of());
-
-            PlayerOrganization member = PlayerOrganization.builder()
-                    .playerId(10L).organizationId(1L).build();
-            when(playerOrganizationRepository.findByOrganizationId(1L))
-                    .thenReturn(List.of(member));
-
-            setupChannelMocks(10L);
-
-            when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
-                    .thenReturn(true);
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
-            // markReservationSucceeded が 0 を返す（不整合ケース）
-            when(lineMessageLogService.markReservationSucceeded(anyLong(), any(), anyString())).thenReturn(0);
-
-            // 例外が発生しないこと（ログ出力のみ）
-            assertDoesNotThrow(() ->
-                    lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null));
-
-            verify(lineMessageLogService).markReservationSucceeded(anyLong(), any(), anyString());
-        }
     }
 
     @Nested
@@ -607,16 +470,15 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
                     .thenReturn(true);
 
-            // sendPushFlexMessage をスタブ化し、Flexペイロードをキャプチャ
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
-            ArgumentCaptor<Map<String, Object>> flexCaptor = ArgumentCaptor.forClass(Map.class);
-            verify(lineMessagingService).sendPushFlexMessage(anyString(), anyString(), anyString(), flexCaptor.capture());
+            // 送信キューに登録された Flex ペイロードをキャプチャ
+            ArgumentCaptor<List<Map<String, Object>>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(notificationOutboxService).enqueueLine(anyLong(), anyString(), anyLong(), any(),
+                    messagesCaptor.capture(), anyString(), anyString(), anyBoolean());
 
-            Map<String, Object> flex = flexCaptor.getValue();
+            Map<String, Object> flex = (Map<String, Object>) messagesCaptor.getValue().get(0).get("contents");
             Map<String, Object> body = (Map<String, Object>) flex.get("body");
             List<Object> bodyContents = (List<Object>) body.get("contents");
 
@@ -657,15 +519,15 @@ class LineNotificationServiceConsolidatedJoinTest {
             when(lineMessageLogService.tryAcquireSendRight(anyLong(), anyLong(), any(), anyString(), anyString()))
                     .thenReturn(true);
 
-            when(lineMessagingService.sendPushFlexMessage(anyString(), anyString(), anyString(), any()))
-                    .thenReturn(true);
 
             lineNotificationService.sendConsolidatedSameDayVacancyNotification(session, vacanciesByMatch, null);
 
-            ArgumentCaptor<Map<String, Object>> flexCaptor = ArgumentCaptor.forClass(Map.class);
-            verify(lineMessagingService).sendPushFlexMessage(anyString(), anyString(), anyString(), flexCaptor.capture());
+            // 送信キューに登録された Flex ペイロードをキャプチャ
+            ArgumentCaptor<List<Map<String, Object>>> messagesCaptor = ArgumentCaptor.forClass(List.class);
+            verify(notificationOutboxService).enqueueLine(anyLong(), anyString(), anyLong(), any(),
+                    messagesCaptor.capture(), anyString(), anyString(), anyBoolean());
 
-            Map<String, Object> flex = flexCaptor.getValue();
+            Map<String, Object> flex = (Map<String, Object>) messagesCaptor.getValue().get(0).get("contents");
             Map<String, Object> body = (Map<String, Object>) flex.get("body");
             List<Object> bodyContents = (List<Object>) body.get("contents");
 
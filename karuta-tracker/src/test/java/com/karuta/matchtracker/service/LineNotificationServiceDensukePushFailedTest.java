@@ -42,6 +42,7 @@ class LineNotificationServiceDensukePushFailedTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     private LineNotificationService service;
 
@@ -62,7 +63,8 @@ class LineNotificationServiceDensukePushFailedTest {
                 playerRepository,
                 lotteryQueryService,
                 venueRepository,
-                mentorRelationshipRepository
+                mentorRelationshipRepository,
+                notificationOutboxService
         );
     }
 
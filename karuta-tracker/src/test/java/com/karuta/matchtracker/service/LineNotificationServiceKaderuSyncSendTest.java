@@ -58,6 +58,7 @@ class LineNotificationServiceKaderuSyncSendTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     private LineNotificationService service;
 
@@ -76,7 +77,8 @@ class LineNotificationServiceKaderuSyncSendTest {
                 lineChannelRepository, lineChannelAssignmentRepository, lineNotificationPreferenceRepository,
                 lineMessageLogService, lineMessagingService, practiceSessionRepository,
                 practiceParticipantRepository, playerOrganizationRepository, playerRepository,
-                lotteryQueryService, venueRepository, mentorRelationshipRepository));
+                lotteryQueryService, venueRepository, mentorRelationshipRepository,
+                notificationOutboxService));
         // 実送信はスタブ化（受信者解決の検証に集中する）
         doReturn(LineNotificationService.SendResult.SKIPPED)
                 .when(service).sendToPlayer(anyLong(), any(), any());
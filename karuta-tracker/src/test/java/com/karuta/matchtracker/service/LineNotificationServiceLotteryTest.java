@@ -7,6 +7,7 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockedStatic;
@@ -15,7 +16,9 @@ import org.mockito.junit.jupiter.MockitoExtension;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -48,6 +51,8 @@ class LineNotificationServiceLotteryTest {
     private LotteryQueryService lotteryQueryService;
     @Mock
     private VenueRepository venueRepository;
+    @Mock
+    private NotificationOutboxService notificationOutboxService;
 
     @Spy
     @InjectMocks
@@ -158,6 +163,50 @@ class LineNotificationServiceLotteryTest {
         }
     }
 
+    /** プレイヤーを LINE 連携済み（指定チャネル・通知設定なし＝デフォルトON）として一括取得系をスタブする */
+    private void stubLinkedPlayers(LineChannel channel, Long... playerIds) {
+        List<LineChannelAssignment> assignments = new ArrayList<>();
+        for (Long playerId : playerIds) {
+            assignments.add(LineChannelAssignment.builder()
+                    .id(playerId).playerId(playerId).lineChannelId(channel.getId()).lineUserId("U" + playerId)
+                    .status(LineChannelAssignment.AssignmentStatus.LINKED).build());
+        }
+        when(lineChannelAssignmentRepository.findByPlayerIdInAndChannelTypeAndStatusIn(any(), any(), anyList()))
+                .thenReturn(assignments);
+        lenient().when(lineNotificationPreferenceRepository.findByPlayerIdIn(any())).thenReturn(List.of());
+        when(lineChannelRepository.findAllById(any())).thenReturn(List.of(channel));
+    }
+
+    private static LineChannel linkedChannel(Long id) {
+        return LineChannel.builder().id(id).channelAccessToken("token-" + id)
+                .status(LineChannel.ChannelStatus.LINKED).monthlyMessageCount(0).build();
+    }
+
+    private static PlayerOrganization membership(Long playerId, Long organizationId) {
+        return PlayerOrganization.builder().playerId(playerId).organizationId(organizationId).build();
+    }
+
+    /** 一括配信で送信キューに登録された1行 */
+    private record Enqueued(String lineUserId, List<Map<String, Object>> messages, String logText, String retryKey) {}
+
+    /** チャネル7への LOTTERY_RESULT の登録を、登録順に取り出す */
+    @SuppressWarnings("unchecked")
+    private List<Enqueued> enqueuedRows() {
+        ArgumentCaptor<String> userIds = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<List<Map<String, Object>>> messages = ArgumentCaptor.forClass(List.class);
+        ArgumentCaptor<String> logTexts = ArgumentCaptor.forClass(String.class);
+        ArgumentCaptor<String> retryKeys = ArgumentCaptor.forClass(String.class);
+        verify(notificationOutboxService, atLeast(0)).enqueueLine(eq(7L), userIds.capture(), anyLong(),
+                eq(LineMessageLog.LineNotificationType.LOTTERY_RESULT), messages.capture(), logTexts.capture(),
+                isNull(), eq(false), retryKeys.capture());
+        List<Enqueued> rows = new ArrayList<>();
+        for (int i = 0; i < userIds.getAllValues().size(); i++) {
+            rows.add(new Enqueued(userIds.getAllValues().get(i), messages.getAllValues().get(i),
+                    logTexts.getAllValues().get(i), retryKeys.getAllValues().get(i)));
+        }
+        return rows;
+    }
+
     @Nested
     @DisplayName("sendLotteryResults 団体スコープテスト")
     class SendLotteryResultsOrganizationScopeTests {
@@ -178,11 +227,9 @@ class LineNotificationServiceLotteryTest {
                     .thenReturn(List.of(orgSession));
             when(practiceParticipantRepository.findBySessionIdIn(List.of(100L)))
                     .thenReturn(List.of(won));
-            when(playerOrganizationRepository.existsByPlayerIdAndOrganizationId(50L, 1L))
-                    .thenReturn(true);
-            // sendToPlayer 全当選パスを通すのでスタブ化
-            doReturn(LineNotificationService.SendResult.SUCCESS).when(lineNotificationService)
-                    .sendToPlayer(anyLong(), any(), anyString());
+            when(playerOrganizationRepository.findByPlayerIdIn(List.of(50L)))
+                    .thenReturn(List.of(membership(50L, 1L)));
+            stubLinkedPlayers(linkedChannel(7L), 50L);
 
             var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
 
@@ -190,8 +237,8 @@ class LineNotificationServiceLotteryTest {
             verify(practiceSessionRepository).findByYearAndMonthAndOrganizationId(2026, 4, 1L);
             // 全団体取得メソッドは呼ばれていない
             verify(practiceParticipantRepository, never()).findBySessionDateYearAndMonth(anyInt(), anyInt());
-            // 自団体プレイヤーに送信された
-            assertThat(result.getSentPlayerCount()).isEqualTo(1);
+            // 自団体プレイヤーへの送信が登録された
+            assertThat(result.getQueuedPlayerCount()).isEqualTo(1);
         }
 
         @Test
@@ -209,15 +256,15 @@ class LineNotificationServiceLotteryTest {
             when(practiceParticipantRepository.findBySessionIdIn(List.of(100L)))
                     .thenReturn(List.of(won));
             // プレイヤーは指定団体に所属していない（他団体所属のセッション参加者など）
-            when(playerOrganizationRepository.existsByPlayerIdAndOrganizationId(50L, 1L))
-                    .thenReturn(false);
+            when(playerOrganizationRepository.findByPlayerIdIn(List.of(50L)))
+                    .thenReturn(List.of(membership(50L, 2L)));
 
             var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
 
             // 送信されない（skipped扱い）
-            assertThat(result.getSentPlayerCount()).isZero();
+            assertThat(result.getQueuedPlayerCount()).isZero();
             assertThat(result.getSkippedPlayerCount()).isEqualTo(1);
-            verify(lineNotificationService, never()).sendToPlayer(anyLong(), any(), anyString());
+            assertThat(enqueuedRows()).isEmpty();
         }
 
         @Test
@@ -233,10 +280,9 @@ class LineNotificationServiceLotteryTest {
             when(practiceParticipantRepository.findBySessionDateYearAndMonth(2026, 4))
                     .thenReturn(List.of(won));
             when(practiceSessionRepository.findById(100L)).thenReturn(Optional.of(session));
-            when(playerOrganizationRepository.existsByPlayerIdAndOrganizationId(50L, 1L))
-                    .thenReturn(true);
-            doReturn(LineNotificationService.SendResult.SUCCESS).when(lineNotificationService)
-                    .sendToPlayer(anyLong(), any(), anyString());
+            when(playerOrganizationRepository.findByPlayerIdIn(List.of(50L)))
+                    .thenReturn(List.of(membership(50L, 1L)));
+            stubLinkedPlayers(linkedChannel(7L), 50L);
 
             var result = lineNotificationService.sendLotteryResults(2026, 4, null);
 
@@ -245,7 +291,7 @@ class LineNotificationServiceLotteryTest {
             // 団体スコープメソッドは呼ばれていない
             verify(practiceSessionRepository, never())
                     .findByYearAndMonthAndOrganizationId(anyInt(), anyInt(), anyLong());
-            assertThat(result.getSentPlayerCount()).isEqualTo(1);
+            assertThat(result.getQueuedPlayerCount()).isEqualTo(1);
         }
 
         @Test
@@ -263,4 +309,131 @@ class LineNotificationServiceLotteryTest {
             verify(practiceParticipantRepository, never()).findBySessionIdIn(anyList());
         }
     }
+
+    @Nested
+    @DisplayName("sendLotteryResults 一括配信テスト")
+    class SendLotteryResultsBulkDeliveryTests {
+
+        private PracticeSession session(Long id, int day) {
+            return PracticeSession.builder()
+                    .id(id).sessionDate(LocalDate.of(2026, 4, day))
+                    .capacity(6).totalMatches(2).organizationId(1L).build();
+        }
+
+        private PracticeParticipant participant(Long id, Long sessionId, Long playerId, ParticipantStatus status) {
+            return PracticeParticipant.builder()
+                    .id(id).sessionId(sessionId).playerId(playerId).matchNumber(1)
+                    .status(status).waitlistNumber(status == ParticipantStatus.WAITLISTED ? 1 : null).build();
+        }
+
+        private void stubOrgSessions(List<PracticeSession> sessions, List<PracticeParticipant> participants,
+                                     Long... playerIds) {
+            when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 4, 1L)).thenReturn(sessions);
+            when(practiceParticipantRepository.findBySessionIdIn(anyList())).thenReturn(participants);
+            List<PlayerOrganization> memberships = new ArrayList<>();
+            for (Long playerId : playerIds) {
+                memberships.add(membership(playerId, 1L));
+            }
+            when(playerOrganizationRepository.findByPlayerIdIn(anyList())).thenReturn(memberships);
+        }
+
+        @Test
+        @DisplayName("一部落選のプレイヤーはイントロ・Flex・クロージングの4通が1行（1回のPush）にまとまって送信キューに入る")
+        void partialWaitlist_packsMessagesIntoOnePush() {
+            PracticeSession s1 = session(100L, 20);
+            PracticeSession s2 = session(200L, 27);
+            stubOrgSessions(List.of(s1, s2), List.of(
+                    participant(1L, 100L, 50L, ParticipantStatus.WAITLISTED),
+                    participant(2L, 200L, 50L, ParticipantStatus.WAITLISTED),
+                    participant(3L, 100L, 50L, ParticipantStatus.WON)), 50L);
+            stubLinkedPlayers(linkedChannel(7L), 50L);
+
+            var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
+
+            assertThat(result.getQueuedPlayerCount()).isEqualTo(1);
+            List<Enqueued> rows = enqueuedRows();
+            assertThat(rows).hasSize(1);
+            Enqueued row = rows.get(0);
+            assertThat(row.lineUserId()).isEqualTo("U50");
+            assertThat(row.messages()).hasSize(4);
+            assertThat(row.messages().get(0)).containsEntry("text", "落選した試合があります...");
+            assertThat(row.messages().get(3)).containsEntry("text", "これ以外の参加登録はすべて通っています");
+            assertThat(row.logText()).startsWith("落選した試合があります...").endsWith("これ以外の参加登録はすべて通っています");
+        }
+
+        @Test
+        @DisplayName("6通以上になる場合は5通ずつ別の行に分割し、行ごとに別の Retry-Key を付ける")
+        void manyMessages_splitIntoChunksOfFive() {
+            List<PracticeSession> sessions = new ArrayList<>();
+            List<PracticeParticipant> participants = new ArrayList<>();
+            for (int i = 0; i < 6; i++) {
+                sessions.add(session(100L + i, 10 + i));
+                participants.add(participant((long) i, 100L + i, 50L, ParticipantStatus.WAITLISTED));
+            }
+            stubOrgSessions(sessions, participants, 50L);
+            stubLinkedPlayers(linkedChannel(7L), 50L);
+
+            lineNotificationService.sendLotteryResults(2026, 4, 1L);
+
+            // イントロ1 + セッション別Flex6 = 7通 → 5 + 2
+            List<Enqueued> rows = enqueuedRows();
+            assertThat(rows).extracting(r -> r.messages().size()).containsExactly(5, 2);
+            assertThat(rows.get(0).retryKey()).isNotEqualTo(rows.get(1).retryKey());
+        }
+
+        @Test
+        @DisplayName("同一チャネル・同一内容の宛先は同じ Retry-Key で登録され、1回のMulticastで送られる")
+        void identicalMessagesOnSameChannel_mergedIntoMulticast() {
+            PracticeSession s1 = session(100L, 20);
+            stubOrgSessions(List.of(s1), List.of(
+                    participant(1L, 100L, 50L, ParticipantStatus.WON),
+                    participant(2L, 100L, 51L, ParticipantStatus.WON)), 50L, 51L);
+            stubLinkedPlayers(linkedChannel(7L), 50L, 51L);
+
+            var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
+
+            assertThat(result.getQueuedPlayerCount()).isEqualTo(2);
+            List<Enqueued> rows = enqueuedRows();
+            assertThat(rows).extracting(Enqueued::lineUserId).containsExactlyInAnyOrder("U50", "U51");
+            assertThat(rows.get(0).retryKey()).isNotNull().isEqualTo(rows.get(1).retryKey());
+        }
+
+        @Test
+        @DisplayName("通知設定OFFのプレイヤーは登録せず、メッセージごとにSKIPPEDログを残す")
+        void preferenceOff_skippedWithLogPerMessage() {
+            PracticeSession s1 = session(100L, 20);
+            stubOrgSessions(List.of(s1), List.of(
+                    participant(1L, 100L, 50L, ParticipantStatus.WAITLISTED)), 50L);
+            stubLinkedPlayers(linkedChannel(7L), 50L);
+            when(lineNotificationPreferenceRepository.findByPlayerIdIn(any())).thenReturn(List.of(
+                    LineNotificationPreference.builder().playerId(50L).organizationId(1L).lotteryResult(false).build()));
+
+            var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
+
+            assertThat(result.getSkippedPlayerCount()).isEqualTo(1);
+            assertThat(enqueuedRows()).isEmpty();
+            // イントロ + Flex の2通分
+            verify(lineMessageLogService, times(2)).save(eq(7L), eq(50L),
+                    eq(LineMessageLog.LineNotificationType.LOTTERY_RESULT), anyString(),
+                    eq(LineMessageLog.MessageStatus.SKIPPED), eq("通知設定がOFF"), isNull());
+        }
+
+        @Test
+        @DisplayName("業務処理のスレッドでは LINE API を呼ばず、結果ログも送信ワーカーに任せる")
+        void bulkDelivery_doesNotSendDirectly() {
+            PracticeSession s1 = session(100L, 20);
+            stubOrgSessions(List.of(s1), List.of(
+                    participant(1L, 100L, 50L, ParticipantStatus.WON)), 50L);
+            stubLinkedPlayers(linkedChannel(7L), 50L);
+
+            var result = lineNotificationService.sendLotteryResults(2026, 4, 1L);
+
+            assertThat(result.getSentPlayerCount()).isZero();
+            assertThat(result.getFailedPlayerCount()).isZero();
+            assertThat(result.getQueuedPlayerCount()).isEqualTo(1);
+            assertThat(enqueuedRows()).extracting(Enqueued::logText).containsExactly("申し込んだ練習はすべて当選しました");
+            verifyNoInteractions(lineMessagingService);
+            verify(lineMessageLogService, never()).save(any(), any(), any(), any(), any(), any(), any());
+        }
+    }
 }
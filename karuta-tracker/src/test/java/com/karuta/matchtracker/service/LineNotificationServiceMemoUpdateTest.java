@@ -37,6 +37,7 @@ class LineNotificationServiceMemoUpdateTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     @Spy
     @InjectMocks
@@ -37,6 +37,7 @@ class LineNotificationServiceMentorCommentTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     @Spy
     @InjectMocks
@@ -126,6 +127,26 @@ class LineNotificationServiceMentorCommentTest {
             assertThat(result).isEqualTo(LineNotificationService.SendResult.SUCCESS);
         }
 
+        @Test
+        @DisplayName("送信キュー登録が含まれる場合はQUEUEDを返す（送信済みとは報告しない）")
+        void successAndQueuedReturnsQueued() {
+            when(playerRepository.findById(10L)).thenReturn(Optional.of(author));
+            when(mentorRelationshipRepository.findByMenteeIdAndStatus(2L, MentorRelationship.Status.ACTIVE))
+                    .thenReturn(List.of(buildRelationship(20L, 2L), buildRelationship(21L, 2L)));
+
+            doReturn(LineNotificationService.SendResult.SUCCESS)
+                    .when(lineNotificationService)
+                    .sendFlexToPlayer(eq(20L), eq(LineNotificationType.MENTOR_COMMENT), anyString(), anyMap());
+            doReturn(LineNotificationService.SendResult.QUEUED)
+                    .when(lineNotificationService)
+                    .sendFlexToPlayer(eq(21L), eq(LineNotificationType.MENTOR_COMMENT), anyString(), anyMap());
+
+            LineNotificationService.SendResult result = lineNotificationService
+                    .sendMentorCommentFlexNotification(10L, 2L, match, List.of(comment), true);
+
+            assertThat(result).isEqualTo(LineNotificationService.SendResult.QUEUED);
+        }
+
         @Test
         @DisplayName("全員失敗時はFAILEDを返す")
         void allFailedReturnsFailed() {
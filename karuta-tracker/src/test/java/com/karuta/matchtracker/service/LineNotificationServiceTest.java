@@ -57,6 +57,7 @@ class LineNotificationServiceTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private VenueRepository venueRepository;
     @Mock private MentorRelationshipRepository mentorRelationshipRepository;
+    @Mock private NotificationOutboxService notificationOutboxService;
 
     private LineNotificationService service;
 
@@ -76,7 +77,8 @@ class LineNotificationServiceTest {
                 playerRepository,
                 lotteryQueryService,
                 venueRepository,
-                mentorRelationshipRepository);
+                mentorRelationshipRepository,
+                notificationOutboxService);
 
         // 登録者名・対戦カード名の解決に使われる（全テスト共通）
         when(playerRepository.findAllById(any())).thenReturn(List.of(
@@ -166,8 +168,9 @@ class LineNotificationServiceTest {
 
         service.sendMatchVideoRegisteredNotification(3L, 1L, 2L, MATCH_DATE, 1, 100L);
 
-        // OFF のため push は一度も呼ばれない
-        verify(lineMessagingService, never()).sendPushMessage(anyString(), anyString(), anyString());
+        // OFF のため送信キューには登録されない
+        verify(notificationOutboxService, never()).enqueueLine(
+                any(), any(), any(), any(), any(), any(), any(), anyBoolean());
         // SKIPPED ログが「通知設定がOFF」で記録される
         verify(lineMessageLogService).save(
                 eq(901L), eq(1L), eq(LineNotificationType.MATCH_VIDEO_REGISTERED),
@@ -183,15 +186,15 @@ class LineNotificationServiceTest {
         when(lineChannelAssignmentRepository.findByPlayerIdAndChannelTypeAndStatusIn(
                 eq(2L), eq(ChannelType.PLAYER), any()))
                 .thenReturn(Optional.empty());
-        when(lineMessagingService.sendPushMessage(anyString(), anyString(), anyString()))
-                .thenReturn(true);
 
         service.sendMatchVideoRegisteredNotification(3L, 1L, 2L, MATCH_DATE, 1, 555L);
 
-        // player1 の LINE userId 宛にメッセージ送信。本文に登録者名・対戦カード・matchリンクを含む
-        verify(lineMessagingService).sendPushMessage(eq("token1"), eq("U1"), argThat(msg ->
-                msg.contains("第三者さん")
-                        && msg.contains("山田太郎 vs 佐藤花子")
-                        && msg.contains("/matches/555")));
+        // player1 の LINE userId 宛に送信キュー登録。本文に登録者名・対戦カード・matchリンクを含む
+        verify(notificationOutboxService).enqueueLine(eq(901L), eq("U1"), eq(1L),
+                eq(LineNotificationType.MATCH_VIDEO_REGISTERED), anyList(), argThat(msg ->
+                        msg.contains("第三者さん")
+                                && msg.contains("山田太郎 vs 佐藤花子")
+                                && msg.contains("/matches/555")),
+                isNull(), eq(false));
     }
 }
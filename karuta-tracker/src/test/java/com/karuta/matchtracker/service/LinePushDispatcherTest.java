@@ -0,0 +1,74 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.service.LineMessagingService.SendResult;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("LinePushDispatcher 一括配信テスト")
+class LinePushDispatcherTest {
+
+    private static final List<Map<String, Object>> MESSAGES = List.of(LineMessagingService.textMessage("hello"));
+
+    @Test
+    @DisplayName("宛先1人はPush、複数人はMulticastで送り（Retry-Key はジョブの値を渡す）、結果は入力順で返る")
+    void dispatch_choosesPushOrMulticast() {
+        LineMessagingService messaging = mock(LineMessagingService.class);
+        when(messaging.sendPushMessages(eq("t1"), eq("U1"), anyList(), eq("key-1"))).thenReturn(SendResult.SUCCESS);
+        when(messaging.sendMulticastMessages(eq("t2"), eq(List.of("U2", "U3")), anyList(), isNull()))
+                .thenReturn(SendResult.PERMANENT_FAILURE);
+
+        List<SendResult> results = new LinePushDispatcher(messaging).dispatch(List.of(
+                new LinePushDispatcher.PushJob(1L, "t1", List.of("U1"), MESSAGES, "key-1"),
+                new LinePushDispatcher.PushJob(2L, "t2", List.of("U2", "U3"), MESSAGES)));
+
+        assertThat(results).containsExactly(SendResult.SUCCESS, SendResult.PERMANENT_FAILURE);
+        verify(messaging).sendPushMessages("t1", "U1", MESSAGES, "key-1");
+        verify(messaging).sendMulticastMessages("t2", List.of("U2", "U3"), MESSAGES, null);
+    }
+
+    @Test
+    @DisplayName("同一チャネルのジョブは同時に送らず、全体の同時送信数も上限を超えない")
+    void dispatch_serializesPerChannelAndBoundsInFlight() {
+        LineMessagingService messaging = mock(LineMessagingService.class);
+        Map<String, AtomicInteger> inFlightByChannel = new ConcurrentHashMap<>();
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxPerChannel = new AtomicInteger();
+        AtomicInteger maxTotal = new AtomicInteger();
+        when(messaging.sendPushMessages(anyString(), anyString(), anyList(), isNull())).thenAnswer(inv -> {
+            AtomicInteger channel = inFlightByChannel.computeIfAbsent(inv.getArgument(0), k -> new AtomicInteger());
+            maxPerChannel.accumulateAndGet(channel.incrementAndGet(), Math::max);
+            maxTotal.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            Thread.sleep(5);
+            channel.decrementAndGet();
+            inFlight.decrementAndGet();
+            return SendResult.SUCCESS;
+        });
+
+        List<LinePushDispatcher.PushJob> jobs = new ArrayList<>();
+        for (int i = 0; i < 60; i++) {
+            long channelId = i % 20;
+            jobs.add(new LinePushDispatcher.PushJob(channelId, "t" + channelId, List.of("U" + i), MESSAGES));
+        }
+
+        List<SendResult> results = new LinePushDispatcher(messaging).dispatch(jobs);
+
+        assertThat(results).hasSize(60).containsOnly(SendResult.SUCCESS);
+        assertThat(maxPerChannel.get()).isEqualTo(1);
+        assertThat(maxTotal.get()).isLessThanOrEqualTo(LinePushDispatcher.MAX_IN_FLIGHT);
+    }
+}
@@ -4,7 +4,10 @@ import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import static org.assertj.core.api.Assertions.assertThat;
@@ -155,4 +158,101 @@ class LotteryFairShareTrackerTest {
         assertThat(aWins).isGreaterThan(trials / 2);
         assertThat(aWins).isGreaterThan(trials - aWins);
     }
+
+    // ---------- 旧実装（当選日リストの線形走査）との一致 ----------
+
+    @Test
+    @DisplayName("当選日の記録順・重複・窓境界によらず、旧実装と同じカウンタ・同じ選択になる")
+    void matchesListScanImplementation_forSameSeed() {
+        LocalDate base = LocalDate.of(2026, 6, 1);
+        for (long scenario = 0; scenario < 50; scenario++) {
+            Random setup = new Random(scenario);
+            LotteryFairShareTracker t = new LotteryFairShareTracker();
+            ListScanTracker ref = new ListScanTracker();
+            // 過去分（順不同）を記録
+            for (int i = 0; i < 300; i++) {
+                long player = 1 + setup.nextInt(40);
+                LocalDate d = base.plusDays(setup.nextInt(90));
+                t.recordWin(player, d);
+                ref.recordWin(player, d);
+            }
+            List<Long> candidates = new ArrayList<>();
+            for (long id = 1; id <= 40; id++) {
+                if (setup.nextInt(3) > 0) {
+                    candidates.add(id);
+                }
+            }
+            Random rngA = new Random(scenario * 31 + 7);
+            Random rngB = new Random(scenario * 31 + 7);
+            // 抽選と同じく、選んだ選手に当日の当選を積みながら引き続ける
+            for (int draw = 0; draw < 60; draw++) {
+                LocalDate d = base.plusDays(30 + setup.nextInt(60));
+                int p = setup.nextInt(101);
+                for (long id = 1; id <= 41; id++) {
+                    assertThat(t.todayTaken(id, d)).isEqualTo(ref.todayTaken(id, d));
+                    assertThat(t.recentTaken(id, d)).isEqualTo(ref.recentTaken(id, d));
+                }
+                Long a = t.pickWeighted(candidates, d, p, rngA);
+                Long b = ref.pickWeighted(candidates, d, p, rngB);
+                assertThat(a).isEqualTo(b);
+                t.recordWin(a, d);
+                ref.recordWin(b, d);
+            }
+        }
+    }
+
+    /** 旧実装: 選手ごとの当選日リストを毎回線形走査する */
+    private static final class ListScanTracker {
+
+        private final Map<Long, List<LocalDate>> winDates = new HashMap<>();
+
+        void recordWin(Long playerId, LocalDate sessionDate) {
+            winDates.computeIfAbsent(playerId, k -> new ArrayList<>()).add(sessionDate);
+        }
+
+        int todayTaken(Long playerId, LocalDate sessionDate) {
+            int count = 0;
+            for (LocalDate d : winDates.getOrDefault(playerId, List.of())) {
+                if (d.isEqual(sessionDate)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        int recentTaken(Long playerId, LocalDate sessionDate) {
+            LocalDate from = sessionDate.minusDays(LotteryFairShareTracker.RECENT_WINDOW_DAYS);
+            int count = 0;
+            for (LocalDate d : winDates.getOrDefault(playerId, List.of())) {
+                if (!d.isBefore(from) && d.isBefore(sessionDate)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+
+        Long pickWeighted(List<Long> candidatePlayerIds, LocalDate sessionDate, int capPercentile, Random rng) {
+            int n = candidatePlayerIds.size();
+            int[] recent = new int[n];
+            for (int i = 0; i < n; i++) {
+                recent[i] = recentTaken(candidatePlayerIds.get(i), sessionDate);
+            }
+            int cap = LotteryFairShareTracker.computeCap(recent, capPercentile);
+            double[] weights = new double[n];
+            double total = 0.0;
+            for (int i = 0; i < n; i++) {
+                weights[i] = LotteryFairShareTracker.weightOf(recent[i], cap);
+                total += weights[i];
+            }
+            double r = rng.nextDouble() * total;
+            double acc = 0.0;
+            for (int i = 0; i < n; i++) {
+                acc += weights[i];
+                if (r < acc) {
+                    return candidatePlayerIds.get(i);
+                }
+            }
+            return candidatePlayerIds.get(n - 1);
+        }
+    }
 }
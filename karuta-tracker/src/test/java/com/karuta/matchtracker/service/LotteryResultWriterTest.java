@@ -0,0 +1,104 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LotteryResultWriter 単体テスト")
+class LotteryResultWriterTest {
+
+    @Mock private JdbcTemplate jdbcTemplate;
+    @Mock private EntityManager entityManager;
+    @Mock private SeatOccupancyService seatOccupancyService;
+    @Mock private IcalFeedVersionService icalFeedVersionService;
+
+    @InjectMocks
+    private LotteryResultWriter writer;
+
+    private static PracticeParticipant result(long id, long sessionId, long playerId,
+                                              ParticipantStatus status, Integer waitlistNumber) {
+        return PracticeParticipant.builder()
+                .id(id)
+                .sessionId(sessionId)
+                .playerId(playerId)
+                .matchNumber(1)
+                .status(status)
+                .waitlistNumber(waitlistNumber)
+                .lotteryId(500L)
+                .build();
+    }
+
+    @Test
+    @DisplayName("溜めた結果はエンティティを切り離し、apply で1文の UPDATE ... FROM (VALUES ...) にまとめて書く")
+    void batch_detachesAndWritesInOneStatement() {
+        PracticeParticipant won = result(1L, 10L, 100L, ParticipantStatus.WON, null);
+        PracticeParticipant waitlisted = result(2L, 11L, 200L, ParticipantStatus.WAITLISTED, 1);
+
+        LotteryResultWriter.Batch batch = writer.newBatch();
+        batch.accept(List.of(won));
+        batch.accept(List.of(waitlisted));
+
+        verify(entityManager).detach(won);
+        verify(entityManager).detach(waitlisted);
+        verifyNoInteractions(jdbcTemplate);
+
+        batch.apply();
+
+        ArgumentCaptor<Object[]> args = ArgumentCaptor.forClass(Object[].class);
+        verify(jdbcTemplate).update(eq(LotteryResultWriter.updateSql(2)), args.capture());
+        Object[] values = args.getValue();
+        assertThat(values[0]).isInstanceOf(LocalDateTime.class);
+        assertThat(Arrays.copyOfRange(values, 1, values.length))
+                .containsExactly(1L, "WON", null, 500L, 2L, "WAITLISTED", 1, 500L);
+        verify(seatOccupancyService).markChanged(Set.of(10L, 11L));
+        verify(icalFeedVersionService).markPlayersChanged(Set.of(100L, 200L));
+    }
+
+    @Test
+    @DisplayName("行数が多い場合は ROWS_PER_STATEMENT 行ずつに分けて書く")
+    void write_splitsIntoChunks() {
+        List<LotteryResultWriter.Assignment> assignments = new ArrayList<>();
+        int total = LotteryResultWriter.ROWS_PER_STATEMENT * 2 + 1;
+        for (long i = 1; i <= total; i++) {
+            assignments.add(new LotteryResultWriter.Assignment(i, 10L, i, ParticipantStatus.WON, null, 500L));
+        }
+
+        writer.write(assignments);
+
+        verify(jdbcTemplate, times(2)).update(
+                eq(LotteryResultWriter.updateSql(LotteryResultWriter.ROWS_PER_STATEMENT)),
+                any(Object[].class));
+        verify(jdbcTemplate).update(
+                eq(LotteryResultWriter.updateSql(1)), any(Object[].class));
+    }
+
+    @Test
+    @DisplayName("結果が無ければ何も書かず、通知もしない")
+    void apply_empty_doesNothing() {
+        writer.newBatch().apply();
+
+        verifyNoInteractions(jdbcTemplate, seatOccupancyService, icalFeedVersionService);
+    }
+}
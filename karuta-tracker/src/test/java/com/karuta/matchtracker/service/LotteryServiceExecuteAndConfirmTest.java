@@ -14,6 +14,7 @@ import com.karuta.matchtracker.repository.PlayerRepository;
 import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.VenueRepository;
+import jakarta.persistence.EntityManager;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -23,6 +24,8 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.transaction.support.TransactionCallback;
 import org.springframework.transaction.support.TransactionTemplate;
 
@@ -37,6 +40,10 @@ import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 /**
@@ -71,6 +78,8 @@ class LotteryServiceExecuteAndConfirmTest {
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private PlayerOrganizationRepository playerOrganizationRepository;
     @Mock private TransactionTemplate transactionTemplate;
+    @Mock private SeatOccupancyService seatOccupancyService;
+    @Mock private LotteryResultWriter lotteryResultWriter;
 
     @InjectMocks
     private LotteryService lotteryService;
@@ -78,6 +87,7 @@ class LotteryServiceExecuteAndConfirmTest {
     @BeforeEach
     void setUp() {
         stubTransactionTemplatePassThrough();
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
     }
 
     /**
@@ -166,6 +176,54 @@ class LotteryServiceExecuteAndConfirmTest {
         assertThat(resp.isDensukeWriteSucceeded()).isTrue();
     }
 
+    @Test
+    @DisplayName("一括書き込み有効時は試合ごとの saveAll をせず、全セッション分を1回の UPDATE で書いてから伝助書き戻しを実行する")
+    void executeAndConfirm_bulkWrite_appliesResultsOnceBeforeDensukeWriteBack() throws Exception {
+        ReflectionTestUtils.setField(lotteryService, "bulkWrite", true);
+        JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+        LotteryResultWriter realWriter = new LotteryResultWriter(jdbcTemplate, mock(EntityManager.class),
+                seatOccupancyService, mock(IcalFeedVersionService.class));
+        when(lotteryResultWriter.newBatch()).thenReturn(realWriter.newBatch());
+
+        PracticeSession session = PracticeSession.builder()
+                .id(10L)
+                .sessionDate(LocalDate.of(2026, 4, 5))
+                .totalMatches(1)
+                .capacity(1)
+                .organizationId(ORG_ID)
+                .createdBy(EXECUTOR_ID)
+                .updatedBy(EXECUTOR_ID)
+                .build();
+        when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 4, ORG_ID))
+                .thenReturn(List.of(session));
+        when(practiceParticipantRepository.findBySessionIdAndStatus(session.getId(), ParticipantStatus.PENDING))
+                .thenReturn(new ArrayList<>(List.of(
+                        participant(100L, 1000L, session.getId()),
+                        participant(101L, 1001L, session.getId()))));
+        when(systemSettingService.getLotteryWeightCapPercentile(ORG_ID)).thenReturn(30);
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(lotteryExecutionRepository.save(any(LotteryExecution.class)))
+                .thenAnswer(inv -> {
+                    LotteryExecution execution = inv.getArgument(0);
+                    if (execution.getId() == null) {
+                        execution.setId(500L);
+                    }
+                    return execution;
+                });
+        when(densukeWriteService.writeAllForLotteryConfirmation(eq(ORG_ID), eq(2026), eq(4)))
+                .thenAnswer(inv -> {
+                    verify(jdbcTemplate).update(eq(LotteryResultWriter.updateSql(2)), any(Object[].class));
+                    return DensukeWriteResult.success();
+                });
+
+        ConfirmLotteryResponse resp = lotteryService.executeAndConfirmLottery(
+                2026, 4, EXECUTOR_ID, ORG_ID, 1L, List.of(), null);
+
+        assertThat(resp.isDensukeWriteSucceeded()).isTrue();
+        verify(practiceParticipantRepository, never()).saveAll(any());
+        verify(densukeWriteService).writeAllForLotteryConfirmation(ORG_ID, 2026, 4);
+    }
+
     @Test
     @DisplayName("B-2: 母集団シグネチャ不一致なら確定トランザクション内で ConflictStateException を投げ確定しない")
     void executeAndConfirm_signatureMismatch_throwsConflictAtomically() {
@@ -20,6 +20,7 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.mockito.junit.jupiter.MockitoSettings;
 import org.mockito.quality.Strictness;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.time.LocalDate;
 import java.util.*;
@@ -34,6 +35,7 @@ import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -57,10 +59,18 @@ class LotteryServiceTest {
     @Mock private ObjectMapper objectMapper;
     @Mock private LotteryQueryService lotteryQueryService;
     @Mock private com.karuta.matchtracker.repository.PlayerOrganizationRepository playerOrganizationRepository;
+    @Mock private SeatOccupancyService seatOccupancyService;
+    @Mock private LotteryResultWriter lotteryResultWriter;
 
     @InjectMocks
     private LotteryService lotteryService;
 
+    @BeforeEach
+    void stubEmptySeats() {
+        // 枠取得状況は個別に stub しない限り空（参加者なし）として扱う
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
+    }
+
     private static final Long ORG_ID = 1L;
     private static final int MATCH = 1;
 
@@ -121,10 +131,9 @@ class LotteryServiceTest {
     void processMatch_subtractsExistingWonOffered() {
         PracticeSession session = session(3); // capacity 3
         // 抽選前に既に WON 2 が存在 → 残枠は1
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                100L, MATCH, ParticipantStatus.WON)).thenReturn(2L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(
-                100L, MATCH, ParticipantStatus.OFFERED)).thenReturn(0L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(MATCH, ParticipantStatus.WON, 2)
+                .build());
 
         PracticeParticipant p1 = participant(1L, 10L);
         PracticeParticipant p2 = participant(2L, 20L);
@@ -530,10 +539,9 @@ class LotteryServiceTest {
                 .status(ParticipantStatus.WAITLISTED).waitlistNumber(1).build();
         when(practiceParticipantRepository.findById(703L)).thenReturn(Optional.of(p));
         when(practiceSessionRepository.findById(100L)).thenReturn(Optional.of(session(2)));
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, MATCH, ParticipantStatus.WON))
-                .thenReturn(2L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, MATCH, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(MATCH, ParticipantStatus.WON, 2)
+                .build());
 
         AdminEditParticipantsRequest.StatusChange change = new AdminEditParticipantsRequest.StatusChange();
         change.setParticipantId(703L);
@@ -795,4 +803,92 @@ class LotteryServiceTest {
         verify(practiceParticipantRepository).findWonPlayerDates(eq(2L), any(), any());
         verify(practiceParticipantRepository, never()).findWonPlayerDates(isNull(), any(), any());
     }
+
+    // -------- 団体別シード・並列実行（app.lottery.parallel-organizations） --------
+
+    @Test
+    @DisplayName("団体別シード: 全団体一括(org=null)の当落は、同じシードで各団体を単独実行した当落と一致する")
+    void executeLottery_parallelOrganizations_matchesEachOrganizationRunAlone() throws Exception {
+        ReflectionTestUtils.setField(lotteryService, "parallelOrganizations", true);
+        stubExecutionSave();
+        long seed = 4242L;
+
+        Set<Long> allAtOnce = wonParticipantIds(null, seed);
+        Set<Long> org1Alone = wonParticipantIds(1L, seed);
+        Set<Long> org2Alone = wonParticipantIds(2L, seed);
+
+        // 定員2 × 2団体
+        assertThat(org1Alone).hasSize(2);
+        assertThat(org2Alone).hasSize(2);
+        Set<Long> union = new HashSet<>(org1Alone);
+        union.addAll(org2Alone);
+        assertThat(allAtOnce).isEqualTo(union);
+    }
+
+    @Test
+    @DisplayName("団体別シードは (シード, 団体ID) だけで決まり、団体ごとに異なる")
+    void organizationSeed_deterministicPerOrganization() {
+        assertThat(LotteryService.organizationSeed(1L, 10L)).isEqualTo(LotteryService.organizationSeed(1L, 10L));
+        assertThat(LotteryService.organizationSeed(1L, 10L)).isNotEqualTo(LotteryService.organizationSeed(1L, 11L));
+        assertThat(LotteryService.organizationSeed(1L, 10L)).isNotEqualTo(LotteryService.organizationSeed(2L, 10L));
+    }
+
+    @Test
+    @DisplayName("B-2: 団体別シードのモードでは母集団シグネチャも変わる（モードをまたいだ確定は再プレビューになる）")
+    void computePopulationSignature_dependsOnPartitioningMode() {
+        when(practiceSessionRepository.findByYearAndMonth(2026, 5)).thenReturn(List.of(
+                sessionForApplicants(201L, 1L, LocalDate.of(2026, 5, 3)),
+                sessionForApplicants(202L, 2L, LocalDate.of(2026, 5, 10))));
+        when(practiceParticipantRepository.findBySessionIdAndStatus(any(), eq(ParticipantStatus.PENDING)))
+                .thenReturn(List.of(participant(1L, 10L)));
+
+        String shared = lotteryService.computePopulationSignature(2026, 5, null);
+        ReflectionTestUtils.setField(lotteryService, "parallelOrganizations", true);
+        String perOrg = lotteryService.computePopulationSignature(2026, 5, null);
+
+        assertThat(perOrg).isNotEqualTo(shared);
+        assertThat(lotteryService.computePopulationSignature(2026, 5, null)).isEqualTo(perOrg);
+    }
+
+    /**
+     * 団体1(セッション201)・団体2(セッション202)に各5人が応募（定員2）する月を新しい参加者で組み立てて抽選し、
+     * 当選した参加者IDを返す。{@code organizationId} が null なら全団体一括で実行する。
+     */
+    private Set<Long> wonParticipantIds(Long organizationId, long seed) {
+        PracticeSession org1Session = sessionForApplicants(201L, 1L, LocalDate.of(2026, 5, 3));
+        PracticeSession org2Session = sessionForApplicants(202L, 2L, LocalDate.of(2026, 5, 10));
+        org1Session.setCapacity(2);
+        org2Session.setCapacity(2);
+        List<PracticeParticipant> org1Applicants = new ArrayList<>();
+        List<PracticeParticipant> org2Applicants = new ArrayList<>();
+        for (long i = 0; i < 5; i++) {
+            org1Applicants.add(participant(10 + i, 100 + i));
+            org2Applicants.add(participant(20 + i, 100 + i));
+        }
+        when(practiceSessionRepository.findByYearAndMonth(2026, 5)).thenReturn(List.of(org1Session, org2Session));
+        when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 5, 1L)).thenReturn(List.of(org1Session));
+        when(practiceSessionRepository.findByYearAndMonthAndOrganizationId(2026, 5, 2L)).thenReturn(List.of(org2Session));
+        when(practiceParticipantRepository.findBySessionIdAndStatus(201L, ParticipantStatus.PENDING))
+                .thenReturn(new ArrayList<>(org1Applicants));
+        when(practiceParticipantRepository.findBySessionIdAndStatus(202L, ParticipantStatus.PENDING))
+                .thenReturn(new ArrayList<>(org2Applicants));
+
+        lotteryService.executeLottery(2026, 5, 99L, LotteryExecution.ExecutionType.MANUAL,
+                organizationId, seed, List.of());
+
+        List<PracticeParticipant> all = new ArrayList<>(org1Applicants);
+        all.addAll(org2Applicants);
+        return all.stream()
+                .filter(p -> p.getStatus() == ParticipantStatus.WON)
+                .map(PracticeParticipant::getId)
+                .collect(Collectors.toSet());
+    }
+
+    private void stubExecutionSave() throws Exception {
+        when(systemSettingService.getLotteryWeightCapPercentile(anyLong())).thenReturn(30);
+        when(practiceParticipantRepository.findWonPlayerDates(any(), any(), any())).thenReturn(List.of());
+        when(practiceParticipantRepository.saveAll(any())).thenReturn(List.of());
+        when(objectMapper.writeValueAsString(any())).thenReturn("{}");
+        when(lotteryExecutionRepository.save(any())).thenAnswer(inv -> inv.getArgument(0));
+    }
 }
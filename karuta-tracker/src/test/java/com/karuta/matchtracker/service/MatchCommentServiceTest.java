@@ -143,6 +143,31 @@ class MatchCommentServiceTest {
             verify(matchCommentRepository).saveAll(any());
         }
 
+        @Test
+        @DisplayName("QUEUED（送信キュー登録済み）時もlineNotifiedがtrueに更新される")
+        void queuedUpdatesLineNotified() {
+            match.setPlayer1Id(2L);
+            match.setPlayer2Id(10L);
+            MentorRelationship rel = new MentorRelationship();
+            rel.setMentorId(10L);
+            rel.setMenteeId(2L);
+
+            when(mentorRelationshipRepository.findByMentorIdAndStatus(10L, Status.ACTIVE))
+                    .thenReturn(List.of(rel));
+            when(matchCommentRepository.findUnnotifiedByMatchIdAndMenteeIdAndAuthorId(100L, 2L, 10L))
+                    .thenReturn(List.of(unnotifiedComment));
+            when(matchRepository.findById(100L)).thenReturn(Optional.of(match));
+            when(lineNotificationService.sendMentorCommentFlexNotification(
+                    eq(10L), eq(2L), any(), any(), eq(false)))
+                    .thenReturn(LineNotificationService.SendResult.QUEUED);
+
+            Map<String, Object> result = service.sendCommentNotification(100L, 2L, 10L);
+
+            assertThat(result.get("result")).isEqualTo("QUEUED");
+            assertThat(unnotifiedComment.getLineNotified()).isTrue();
+            verify(matchCommentRepository).saveAll(any());
+        }
+
         @Test
         @DisplayName("FAILED時はlineNotifiedが更新されない")
         void failedDoesNotUpdateLineNotified() {
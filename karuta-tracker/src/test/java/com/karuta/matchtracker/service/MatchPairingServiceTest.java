@@ -61,6 +61,12 @@ class MatchPairingServiceTest {
     @Mock
     private LotteryDeadlineHelper lotteryDeadlineHelper;
 
+    @Mock
+    private PairHistoryIndexService pairHistoryIndexService;
+
+    @Mock
+    private PlayerMatchStatsService playerMatchStatsService;
+
     @InjectMocks
     private MatchPairingService matchPairingService;
 
@@ -42,6 +42,8 @@ class MatchServiceMemoNotificationTest {
     // OrganizationService.getPlayerOrganizationIds を呼ぶ。未モックだと null が @InjectMocks され
     // throwsWhenPlayerIsNotParticipant で NPE になり ForbiddenException 到達前に落ちる。
     @Mock private OrganizationService organizationService;
+    @Mock private PairHistoryIndexService pairHistoryIndexService;
+    @Mock private PlayerMatchStatsService playerMatchStatsService;
 
     @InjectMocks
     private MatchService matchService;
@@ -79,6 +79,12 @@ class MatchServiceTest {
     @Mock
     private OrganizationService organizationService;
 
+    @Mock
+    private PairHistoryIndexService pairHistoryIndexService;
+
+    @Mock
+    private PlayerMatchStatsService playerMatchStatsService;
+
     @InjectMocks
     private MatchService matchService;
 
@@ -561,8 +567,6 @@ class MatchServiceTest {
 
             when(playerRepository.existsById(1L)).thenReturn(true);
             when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match1, match2));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent1));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponent2));
             when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent1, opponent2));
 
             // When
@@ -605,8 +609,6 @@ class MatchServiceTest {
 
             when(playerRepository.existsById(1L)).thenReturn(true);
             when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match1, match2));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent1));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponent2));
             when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent1, opponent2));
 
             // When
@@ -649,8 +651,6 @@ class MatchServiceTest {
 
             when(playerRepository.existsById(1L)).thenReturn(true);
             when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match1, match2));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent1));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponent2));
             when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent1, opponent2));
 
             // When
@@ -697,8 +697,6 @@ class MatchServiceTest {
 
             when(playerRepository.existsById(1L)).thenReturn(true);
             when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match1, match2));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent1));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponent2));
             when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent1, opponent2));
 
             // When
@@ -729,7 +727,6 @@ class MatchServiceTest {
 
             when(playerRepository.existsById(1L)).thenReturn(true);
             when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent));
             when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent));
 
             // When: A級でフィルタするが、対戦相手はB級のみ
@@ -769,185 +766,32 @@ class MatchServiceTest {
     class GetPlayerStatisticsByRankTests {
 
         @Test
-        @DisplayName("級別統計を正しく計算できる")
-        void shouldCalculateStatisticsByRank() {
-            // Given
-            Player opponentA = Player.builder()
-                    .id(3L)
-                    .name("A級選手")
-                    .kyuRank(Player.KyuRank.A級)
-                    .build();
-            Player opponentB = Player.builder()
-                    .id(4L)
-                    .name("B級選手")
-                    .kyuRank(Player.KyuRank.B級)
-                    .build();
-
-            Match matchA1 = Match.builder()
-                    .id(1L)
-                    .player1Id(1L)
-                    .player2Id(3L)
-                    .matchDate(today)
-                    .winnerId(1L)
-                    .build();
-            Match matchA2 = Match.builder()
-                    .id(2L)
-                    .player1Id(1L)
-                    .player2Id(3L)
-                    .matchDate(today)
-                    .winnerId(3L)
-                    .build();
-            Match matchB1 = Match.builder()
-                    .id(3L)
-                    .player1Id(1L)
-                    .player2Id(4L)
-                    .matchDate(today)
-                    .winnerId(1L)
-                    .build();
-
-            when(playerRepository.existsById(1L)).thenReturn(true);
-            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(matchA1, matchA2, matchB1));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponentA));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponentB));
-            when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponentA, opponentB));
-
-            // When
-            StatisticsByRankDto result = matchService.getPlayerStatisticsByRank(1L, null, null, null, null);
-
-            // Then
-            assertThat(result.getTotal().getTotal()).isEqualTo(3);
-            assertThat(result.getTotal().getWins()).isEqualTo(2);
-
-            Map<String, RankStatisticsDto> byRank = result.getByRank();
-            assertThat(byRank.get("A級").getTotal()).isEqualTo(2);
-            assertThat(byRank.get("A級").getWins()).isEqualTo(1);
-            assertThat(byRank.get("B級").getTotal()).isEqualTo(1);
-            assertThat(byRank.get("B級").getWins()).isEqualTo(1);
-        }
-
-        @Test
-        @DisplayName("性別フィルタで統計を絞り込める")
-        void shouldFilterStatisticsByGender() {
-            // Given
-            Player opponentMale = Player.builder()
-                    .id(3L)
-                    .name("男性A級")
-                    .kyuRank(Player.KyuRank.A級)
-                    .gender(Player.Gender.男性)
-                    .build();
-            Player opponentFemale = Player.builder()
-                    .id(4L)
-                    .name("女性A級")
-                    .kyuRank(Player.KyuRank.A級)
-                    .gender(Player.Gender.女性)
-                    .build();
-
-            Match match1 = Match.builder()
-                    .id(1L)
-                    .player1Id(1L)
-                    .player2Id(3L)
-                    .matchDate(today)
-                    .winnerId(1L)
-                    .build();
-            Match match2 = Match.builder()
-                    .id(2L)
-                    .player1Id(1L)
-                    .player2Id(4L)
-                    .matchDate(today)
-                    .winnerId(1L)
-                    .build();
-
-            when(playerRepository.existsById(1L)).thenReturn(true);
-            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(match1, match2));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponentMale));
-            when(playerRepository.findById(4L)).thenReturn(Optional.of(opponentFemale));
-            when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponentMale, opponentFemale));
-
-            // When
-            StatisticsByRankDto result = matchService.getPlayerStatisticsByRank(1L, "男性", null, null, null);
-
-            // Then
-            assertThat(result.getTotal().getTotal()).isEqualTo(1);
-            assertThat(result.getByRank().get("A級").getTotal()).isEqualTo(1);
-        }
-
-        @Test
-        @DisplayName("期間フィルタで統計を絞り込める")
-        void shouldFilterStatisticsByDateRange() {
+        @DisplayName("選手の存在確認後、集計サービスに委譲する")
+        void shouldDelegateToPlayerMatchStatsService() {
             // Given
-            LocalDate oldDate = today.minusDays(10);
-            Player opponent = Player.builder()
-                    .id(3L)
-                    .name("A級選手")
-                    .kyuRank(Player.KyuRank.A級)
-                    .build();
-
-            Match recentMatch = Match.builder()
-                    .id(1L)
-                    .player1Id(1L)
-                    .player2Id(3L)
-                    .matchDate(today)
-                    .winnerId(1L)
-                    .build();
-            Match oldMatch = Match.builder()
-                    .id(2L)
-                    .player1Id(1L)
-                    .player2Id(3L)
-                    .matchDate(oldDate)
-                    .winnerId(1L)
-                    .build();
-
+            StatisticsByRankDto expected = StatisticsByRankDto.builder().build();
+            LocalDate startDate = LocalDate.of(2026, 4, 1);
+            LocalDate endDate = LocalDate.of(2026, 4, 30);
             when(playerRepository.existsById(1L)).thenReturn(true);
-            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(recentMatch, oldMatch));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent));
-            when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent));
+            when(playerMatchStatsService.getStatisticsByRank(1L, "男性", "右", startDate, endDate))
+                    .thenReturn(expected);
 
             // When
-            LocalDate startDate = today.minusDays(5);
-            StatisticsByRankDto result = matchService.getPlayerStatisticsByRank(1L, null, null, startDate, today);
+            StatisticsByRankDto result = matchService.getPlayerStatisticsByRank(1L, "男性", "右", startDate, endDate);
 
             // Then
-            assertThat(result.getTotal().getTotal()).isEqualTo(1);
+            assertThat(result).isSameAs(expected);
+            verify(matchRepository, never()).findByPlayerId(any());
         }
 
         @Test
-        @DisplayName("指導回数・被指導回数を集計でき、指導試合も通常統計に計上される")
-        void shouldCountLessonsGivenAndReceived() {
-            // Given
-            Player opponent = Player.builder()
-                    .id(3L)
-                    .name("初心者")
-                    .kyuRank(Player.KyuRank.E級)
-                    .build();
-
-            // 指導試合: player(1L) が勝ち = 指導した側
-            Match lessonGiven = Match.builder()
-                    .id(1L).player1Id(1L).player2Id(3L).matchDate(today)
-                    .winnerId(1L).isLesson(true).build();
-            // 指導試合: player(1L) が負け = 指導された側
-            Match lessonReceived = Match.builder()
-                    .id(2L).player1Id(1L).player2Id(3L).matchDate(today)
-                    .winnerId(3L).isLesson(true).build();
-            // 通常試合（勝ち）
-            Match normalWin = Match.builder()
-                    .id(3L).player1Id(1L).player2Id(3L).matchDate(today)
-                    .winnerId(1L).scoreDifference(5).isLesson(false).build();
+        @DisplayName("存在しない選手は集計を読まずに ResourceNotFoundException")
+        void shouldThrowWhenPlayerNotFound() {
+            when(playerRepository.existsById(99L)).thenReturn(false);
 
-            when(playerRepository.existsById(1L)).thenReturn(true);
-            when(matchRepository.findByPlayerId(1L))
-                    .thenReturn(List.of(lessonGiven, lessonReceived, normalWin));
-            when(playerRepository.findById(3L)).thenReturn(Optional.of(opponent));
-            when(playerRepository.findAllById(anyList())).thenReturn(List.of(player1, opponent));
-
-            // When
-            StatisticsByRankDto result = matchService.getPlayerStatisticsByRank(1L, null, null, null, null);
-
-            // Then: 指導試合も通常統計（試合数・勝数）に計上される
-            assertThat(result.getTotal().getTotal()).isEqualTo(3);
-            assertThat(result.getTotal().getWins()).isEqualTo(2);
-            // 指導回数=1・被指導回数=1
-            assertThat(result.getLessonGivenCount()).isEqualTo(1);
-            assertThat(result.getLessonReceivedCount()).isEqualTo(1);
+            assertThatThrownBy(() -> matchService.getPlayerStatisticsByRank(99L, null, null, null, null))
+                    .isInstanceOf(ResourceNotFoundException.class);
+            verifyNoInteractions(playerMatchStatsService);
         }
     }
 
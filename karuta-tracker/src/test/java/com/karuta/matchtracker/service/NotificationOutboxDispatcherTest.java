@@ -0,0 +1,338 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.LineChannel;
+import com.karuta.matchtracker.entity.LineMessageLog.LineNotificationType;
+import com.karuta.matchtracker.entity.LineMessageLog.MessageStatus;
+import com.karuta.matchtracker.entity.NotificationOutbox;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxChannel;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxStatus;
+import com.karuta.matchtracker.repository.LineChannelRepository;
+import com.karuta.matchtracker.service.LineMessagingService.SendResult;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationOutboxDispatcher 送信ワーカーテスト")
+class NotificationOutboxDispatcherTest {
+
+    @Mock private NotificationOutboxService notificationOutboxService;
+    @Mock private LinePushDispatcher linePushDispatcher;
+    @Mock private LineChannelRepository lineChannelRepository;
+    @Mock private LineMessageLogService lineMessageLogService;
+    @Mock private PushNotificationService pushNotificationService;
+    @Mock private CardDivisionBroadcastService cardDivisionBroadcastService;
+
+    private SimpleMeterRegistry meterRegistry;
+    private NotificationOutboxDispatcher dispatcher;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        dispatcher = new NotificationOutboxDispatcher(notificationOutboxService, linePushDispatcher,
+                lineChannelRepository, lineMessageLogService, pushNotificationService, cardDivisionBroadcastService,
+                meterRegistry);
+    }
+
+    @Test
+    @DisplayName("同じ宛先へのLINE行は1回のPushにまとめ、成功時は予約ログを確定・未予約は結果ログを追加する")
+    @SuppressWarnings("unchecked")
+    void line_packsRowsPerRecipientAndCompletesLogs() {
+        NotificationOutbox reserved = lineRow(1L, 10L, "U10", "first", "555", true);
+        NotificationOutbox plain = lineRow(2L, 10L, "U10", "second", null, false);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(reserved, plain));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(reserved))
+                .thenReturn(List.of(LineMessagingService.textMessage("first")));
+        when(notificationOutboxService.readLineMessages(plain))
+                .thenReturn(List.of(LineMessagingService.textMessage("second")));
+        ArgumentCaptor<List<LinePushDispatcher.PushJob>> jobs = ArgumentCaptor.forClass(List.class);
+        when(linePushDispatcher.dispatch(jobs.capture())).thenReturn(List.of(SendResult.SUCCESS));
+        when(lineMessageLogService.markReservationSucceeded(10L, LineNotificationType.SAME_DAY_VACANCY, "555"))
+                .thenReturn(1);
+
+        assertThat(dispatcher.drain()).isEqualTo(2);
+
+        assertThat(jobs.getValue()).hasSize(1);
+        LinePushDispatcher.PushJob job = jobs.getValue().get(0);
+        assertThat(job.channelAccessToken()).isEqualTo("token1");
+        assertThat(job.lineUserIds()).containsExactly("U10");
+        assertThat(job.messages()).hasSize(2);
+        assertThat(job.retryKey()).isEqualTo("key-1");
+        verify(notificationOutboxService).bindRetryKey(List.of(reserved, plain), "key-1");
+        verify(notificationOutboxService).markSucceeded(reserved);
+        verify(notificationOutboxService).markSucceeded(plain);
+        verify(lineMessageLogService).markReservationSucceeded(10L, LineNotificationType.SAME_DAY_VACANCY, "555");
+        verify(lineMessageLogService).save(eq(1L), eq(10L), eq(LineNotificationType.SAME_DAY_VACANCY),
+                eq("second"), eq(MessageStatus.SUCCESS), isNull(), isNull());
+        assertThat(meterRegistry.find("notification_outbox.latency").tag("result", "success").timer().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("一度送った行は他の行とまとめ直さず、保存済みの Retry-Key でそのまま再送する")
+    @SuppressWarnings("unchecked")
+    void line_retriedRowKeepsItsRetryKeyAndIsNotRepacked() {
+        NotificationOutbox retried = lineRow(1L, 10L, "U10", "first", null, false);
+        retried.setAttemptCount(2);
+        NotificationOutbox fresh = lineRow(2L, 10L, "U10", "second", null, false);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(retried, fresh));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(any()))
+                .thenReturn(List.of(LineMessagingService.textMessage("text")));
+        ArgumentCaptor<List<LinePushDispatcher.PushJob>> jobs = ArgumentCaptor.forClass(List.class);
+        when(linePushDispatcher.dispatch(jobs.capture())).thenReturn(List.of(SendResult.SUCCESS, SendResult.SUCCESS));
+
+        dispatcher.drain();
+
+        assertThat(jobs.getValue()).extracting(LinePushDispatcher.PushJob::retryKey)
+                .containsExactly("key-1", "key-2");
+        assertThat(jobs.getValue()).allSatisfy(job -> assertThat(job.messages()).hasSize(1));
+        verify(notificationOutboxService, never()).bindRetryKey(anyList(), anyString());
+    }
+
+    @Test
+    @DisplayName("同じ Retry-Key で登録された別宛先の行は、同じ内容を1回の Multicast で送る")
+    @SuppressWarnings("unchecked")
+    void line_sharedRetryKeyAcrossRecipientsSentAsMulticast() {
+        NotificationOutbox first = lineRow(1L, 10L, "U10", "result", null, false);
+        NotificationOutbox second = lineRow(2L, 20L, "U20", "result", null, false);
+        second.setRetryKey("key-1");
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(first, second));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(any()))
+                .thenReturn(List.of(LineMessagingService.textMessage("result")));
+        ArgumentCaptor<List<LinePushDispatcher.PushJob>> jobs = ArgumentCaptor.forClass(List.class);
+        when(linePushDispatcher.dispatch(jobs.capture())).thenReturn(List.of(SendResult.SUCCESS));
+
+        dispatcher.drain();
+
+        assertThat(jobs.getValue()).hasSize(1);
+        LinePushDispatcher.PushJob job = jobs.getValue().get(0);
+        assertThat(job.lineUserIds()).containsExactly("U10", "U20");
+        assertThat(job.messages()).hasSize(1);
+        assertThat(job.retryKey()).isEqualTo("key-1");
+        verify(notificationOutboxService).markSucceeded(first);
+        verify(notificationOutboxService).markSucceeded(second);
+    }
+
+    @Test
+    @DisplayName("一時的な失敗はキューに残して再送し、送信ログには何も書かない")
+    void line_transientFailureLeavesRowQueued() {
+        NotificationOutbox row = lineRow(1L, 10L, "U10", "text", "555", true);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("text")));
+        when(linePushDispatcher.dispatch(anyList())).thenReturn(List.of(SendResult.RETRYABLE_FAILURE));
+        when(notificationOutboxService.markFailed(row, "LINE API送信失敗", true)).thenReturn(false);
+
+        dispatcher.drain();
+
+        verify(lineMessageLogService, never()).markReservationFailed(anyLong(), any(), any(), any());
+        verify(lineMessageLogService, never()).save(any(), any(), any(), any(), any(), any(), any());
+        assertThat(meterRegistry.counter("notification_outbox.failures",
+                "channel", "LINE", "final", "false").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("リトライ上限到達で予約ログを FAILED に確定する")
+    void line_terminalFailureMarksReservationFailed() {
+        NotificationOutbox row = lineRow(1L, 10L, "U10", "text", "555", true);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("text")));
+        when(linePushDispatcher.dispatch(anyList())).thenReturn(List.of(SendResult.RETRYABLE_FAILURE));
+        when(notificationOutboxService.markFailed(row, "LINE API送信失敗", true)).thenReturn(true);
+        when(lineMessageLogService.markReservationFailed(10L, LineNotificationType.SAME_DAY_VACANCY, "555",
+                "LINE API送信失敗")).thenReturn(1);
+
+        dispatcher.drain();
+
+        verify(lineMessageLogService).markReservationFailed(10L, LineNotificationType.SAME_DAY_VACANCY, "555",
+                "LINE API送信失敗");
+    }
+
+    @Test
+    @DisplayName("429 以外の 4xx（再送不可）は再送せずにその場で予約ログを FAILED に確定する")
+    void line_permanentFailureIsNotRetried() {
+        NotificationOutbox row = lineRow(1L, 10L, "U10", "text", "555", true);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("text")));
+        when(linePushDispatcher.dispatch(anyList())).thenReturn(List.of(SendResult.PERMANENT_FAILURE));
+        when(notificationOutboxService.markFailed(row, "LINE API送信失敗（再送不可）", false)).thenReturn(true);
+        when(lineMessageLogService.markReservationFailed(10L, LineNotificationType.SAME_DAY_VACANCY, "555",
+                "LINE API送信失敗（再送不可）")).thenReturn(1);
+
+        dispatcher.drain();
+
+        verify(notificationOutboxService, never()).markFailed(any(), any(), eq(true));
+        verify(lineMessageLogService).markReservationFailed(10L, LineNotificationType.SAME_DAY_VACANCY, "555",
+                "LINE API送信失敗（再送不可）");
+        assertThat(meterRegistry.counter("notification_outbox.failures",
+                "channel", "LINE", "final", "true").count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("LINE グループ宛の再送不可の失敗は再送せず、全体配信ログを失敗で確定させる")
+    void lineGroup_permanentFailureCompletesBroadcast() {
+        NotificationOutbox row = groupRow(1L);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("札分け")));
+        when(linePushDispatcher.dispatch(anyList())).thenReturn(List.of(SendResult.PERMANENT_FAILURE));
+        when(notificationOutboxService.markFailed(row, "LINE API送信失敗（再送不可）", false)).thenReturn(true);
+
+        dispatcher.drain();
+
+        verify(cardDivisionBroadcastService).completeBroadcast(3L, 100L, 1L, false, "LINE API送信失敗（再送不可）");
+    }
+
+    @Test
+    @DisplayName("チャネルが未リンクになった行は送信せず即座に FAILED とする")
+    void line_unlinkedChannelFailsWithoutRetry() {
+        NotificationOutbox row = lineRow(1L, 10L, "U10", "text", null, false);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of());
+        when(notificationOutboxService.markFailed(row, "LINEチャネルが未リンク", false)).thenReturn(true);
+
+        dispatcher.drain();
+
+        verify(linePushDispatcher, never()).dispatch(anyList());
+        verify(lineMessageLogService).save(eq(1L), eq(10L), eq(LineNotificationType.SAME_DAY_VACANCY),
+                eq("text"), eq(MessageStatus.FAILED), eq("LINEチャネルが未リンク"), isNull());
+    }
+
+    @Test
+    @DisplayName("LINE グループ宛の行はグループIDへ保存済みの Retry-Key で送り、結果を全体配信ログへ確定させる")
+    @SuppressWarnings("unchecked")
+    void lineGroup_sendsToGroupAndCompletesBroadcast() {
+        NotificationOutbox row = groupRow(1L);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("札分け")));
+        ArgumentCaptor<List<LinePushDispatcher.PushJob>> jobs = ArgumentCaptor.forClass(List.class);
+        when(linePushDispatcher.dispatch(jobs.capture())).thenReturn(List.of(SendResult.SUCCESS));
+
+        dispatcher.drain();
+
+        LinePushDispatcher.PushJob job = jobs.getValue().get(0);
+        assertThat(job.lineUserIds()).containsExactly("G-1");
+        assertThat(job.retryKey()).isEqualTo("key-1");
+        verify(notificationOutboxService).markSucceeded(row);
+        verify(cardDivisionBroadcastService).completeBroadcast(3L, 100L, 1L, true, null);
+        verifyNoInteractions(lineMessageLogService);
+    }
+
+    @Test
+    @DisplayName("LINE グループ宛の一時的な失敗は再送に回し、全体配信ログは RESERVED のまま残す")
+    void lineGroup_transientFailureKeepsBroadcastReserved() {
+        NotificationOutbox row = groupRow(1L);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(row));
+        when(lineChannelRepository.findAllById(anyList())).thenReturn(List.of(linkedChannel(1L)));
+        when(notificationOutboxService.readLineMessages(row))
+                .thenReturn(List.of(LineMessagingService.textMessage("札分け")));
+        when(linePushDispatcher.dispatch(anyList())).thenReturn(List.of(SendResult.RETRYABLE_FAILURE));
+        when(notificationOutboxService.markFailed(row, "LINE API送信失敗", true)).thenReturn(false);
+
+        dispatcher.drain();
+
+        verifyNoInteractions(cardDivisionBroadcastService);
+    }
+
+    @Test
+    @DisplayName("Web Push はバッチ内の行を1回の deliverAll にまとめ、結果でキューを確定・再送する")
+    void webPush_deliversBatchAndCompletes() {
+        NotificationOutbox ok = pushRow(1L, 10L);
+        NotificationOutbox ng = pushRow(2L, 20L);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(ok, ng));
+        Map<String, Object> payload = Map.of("title", "タイトル", "body", "本文", "url", "/notifications");
+        when(notificationOutboxService.readWebPushPayload(any())).thenReturn(payload);
+        when(pushNotificationService.deliverAll(List.of(
+                new PushNotificationService.PushRequest(10L, "タイトル", "本文", "/notifications"),
+                new PushNotificationService.PushRequest(20L, "タイトル", "本文", "/notifications"))))
+                .thenReturn(List.of(true, false));
+        when(notificationOutboxService.markFailed(ng, "Web Push送信失敗", true)).thenReturn(false);
+
+        dispatcher.drain();
+
+        verify(pushNotificationService, times(1)).deliverAll(anyList());
+        verify(pushNotificationService, never()).deliver(any(), any(), any(), any());
+        verify(notificationOutboxService).markSucceeded(ok);
+        verify(notificationOutboxService).markFailed(ng, "Web Push送信失敗", true);
+        verifyNoInteractions(linePushDispatcher);
+    }
+
+    @Test
+    @DisplayName("ペイロードを読めない Web Push 行はその行だけ失敗にし、残りはまとめて送る")
+    void webPush_unreadablePayloadFailsOnlyThatRow() {
+        NotificationOutbox broken = pushRow(1L, 10L);
+        NotificationOutbox ok = pushRow(2L, 20L);
+        when(notificationOutboxService.claimDue(anyInt())).thenReturn(List.of(broken, ok));
+        when(notificationOutboxService.readWebPushPayload(broken)).thenThrow(new IllegalStateException("壊れたペイロード"));
+        when(notificationOutboxService.readWebPushPayload(ok))
+                .thenReturn(Map.of("title", "タイトル", "body", "本文", "url", "/notifications"));
+        when(pushNotificationService.deliverAll(List.of(
+                new PushNotificationService.PushRequest(20L, "タイトル", "本文", "/notifications"))))
+                .thenReturn(List.of(true));
+
+        dispatcher.drain();
+
+        verify(notificationOutboxService).markFailed(broken, "壊れたペイロード", true);
+        verify(notificationOutboxService).markSucceeded(ok);
+    }
+
+    private static NotificationOutbox lineRow(Long id, Long playerId, String lineUserId, String text,
+                                              String dedupeKey, boolean reserved) {
+        return NotificationOutbox.builder()
+                .id(id).channel(OutboxChannel.LINE).status(OutboxStatus.RESERVED)
+                .playerId(playerId).lineChannelId(1L).lineUserId(lineUserId)
+                .notificationType(LineNotificationType.SAME_DAY_VACANCY.name())
+                .payload("[]").logText(text).dedupeKey(dedupeKey).sendRightReserved(reserved)
+                .retryKey("key-" + id).attemptCount(1).createdAt(JstDateTimeUtil.now()).nextAttemptAt(JstDateTimeUtil.now())
+                .build();
+    }
+
+    private static NotificationOutbox groupRow(Long id) {
+        return NotificationOutbox.builder()
+                .id(id).channel(OutboxChannel.LINE_GROUP).status(OutboxStatus.RESERVED)
+                .lineChannelId(1L).lineUserId("G-1").broadcastGroupId(3L).sessionId(100L)
+                .notificationType(LineNotificationType.CARD_DIVISION_REMINDER.name())
+                .payload("[]").logText("札分け").retryKey("key-" + id)
+                .attemptCount(1).createdAt(JstDateTimeUtil.now()).nextAttemptAt(JstDateTimeUtil.now())
+                .build();
+    }
+
+    private static NotificationOutbox pushRow(Long id, Long playerId) {
+        return NotificationOutbox.builder()
+                .id(id).channel(OutboxChannel.WEB_PUSH).status(OutboxStatus.RESERVED)
+                .playerId(playerId).notificationType("WAITLIST_OFFER").payload("{}")
+                .attemptCount(1).createdAt(JstDateTimeUtil.now()).nextAttemptAt(JstDateTimeUtil.now())
+                .build();
+    }
+
+    private static LineChannel linkedChannel(Long id) {
+        return LineChannel.builder()
+                .id(id).channelAccessToken("token" + id)
+                .status(LineChannel.ChannelStatus.LINKED).monthlyMessageCount(0)
+                .build();
+    }
+}
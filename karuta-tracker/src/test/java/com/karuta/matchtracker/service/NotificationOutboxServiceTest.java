@@ -0,0 +1,107 @@
+package com.karuta.matchtracker.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.karuta.matchtracker.entity.NotificationOutbox;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxChannel;
+import com.karuta.matchtracker.entity.NotificationOutbox.OutboxStatus;
+import com.karuta.matchtracker.repository.NotificationOutboxRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("NotificationOutboxService 送信キューテスト")
+class NotificationOutboxServiceTest {
+
+    @Mock private NotificationOutboxRepository notificationOutboxRepository;
+
+    private NotificationOutboxService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new NotificationOutboxService(notificationOutboxRepository, new ObjectMapper(),
+                new SimpleMeterRegistry());
+    }
+
+    @Test
+    @DisplayName("再送間隔は10秒から倍々に伸び、5分で頭打ちになる")
+    void backoff_growsExponentiallyAndCaps() {
+        assertThat(NotificationOutboxService.backoff(1)).isEqualTo(Duration.ofSeconds(10));
+        assertThat(NotificationOutboxService.backoff(2)).isEqualTo(Duration.ofSeconds(20));
+        assertThat(NotificationOutboxService.backoff(4)).isEqualTo(Duration.ofSeconds(80));
+        assertThat(NotificationOutboxService.backoff(30)).isEqualTo(NotificationOutboxService.MAX_BACKOFF);
+    }
+
+    @Test
+    @DisplayName("上限未満の一時的な失敗は RESERVED のまま次回時刻を進める")
+    void markFailed_retryableBelowLimitStaysReserved() {
+        NotificationOutbox row = row(1);
+        LocalDateTime before = JstDateTimeUtil.now();
+
+        boolean terminal = service.markFailed(row, "LINE API送信失敗", true);
+
+        assertThat(terminal).isFalse();
+        assertThat(row.getStatus()).isEqualTo(OutboxStatus.RESERVED);
+        assertThat(row.getNextAttemptAt()).isAfterOrEqualTo(before.plusSeconds(10));
+        assertThat(row.getCompletedAt()).isNull();
+        verify(notificationOutboxRepository).save(row);
+    }
+
+    @Test
+    @DisplayName("リトライ上限到達・リトライ不可の失敗は FAILED で確定する")
+    void markFailed_terminalCases() {
+        NotificationOutbox exhausted = row(NotificationOutboxService.MAX_ATTEMPTS);
+        NotificationOutbox fatal = row(1);
+
+        assertThat(service.markFailed(exhausted, "LINE API送信失敗", true)).isTrue();
+        assertThat(service.markFailed(fatal, "LINEチャネルが未リンク", false)).isTrue();
+
+        assertThat(exhausted.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(exhausted.getCompletedAt()).isNotNull();
+        assertThat(fatal.getStatus()).isEqualTo(OutboxStatus.FAILED);
+        assertThat(fatal.getLastError()).isEqualTo("LINEチャネルが未リンク");
+    }
+
+    @Test
+    @DisplayName("取り出した行と retry_key を共有する送信待ち行は、期限前でも同じバッチに取り出す")
+    void claimDue_includesRowsSharingRetryKey() {
+        NotificationOutbox due = row(0);
+        due.setRetryKey("key-1");
+        NotificationOutbox sibling = row(0);
+        sibling.setId(2L);
+        sibling.setRetryKey("key-1");
+        when(notificationOutboxRepository.lockDue(any(), eq(50))).thenReturn(List.of(due));
+        when(notificationOutboxRepository.lockSiblings(Set.of("key-1"), List.of(1L))).thenReturn(List.of(sibling));
+        when(notificationOutboxRepository.saveAll(anyList())).thenAnswer(inv -> inv.getArgument(0));
+
+        List<NotificationOutbox> claimed = service.claimDue(50);
+
+        assertThat(claimed).containsExactly(due, sibling);
+        assertThat(claimed).allSatisfy(r -> assertThat(r.getAttemptCount()).isEqualTo(1));
+    }
+
+    private static NotificationOutbox row(int attemptCount) {
+        return NotificationOutbox.builder()
+                .id(1L).channel(OutboxChannel.LINE).status(OutboxStatus.RESERVED)
+                .playerId(10L).notificationType("SAME_DAY_VACANCY").payload("[]")
+                .attemptCount(attemptCount).nextAttemptAt(JstDateTimeUtil.now())
+                .build();
+    }
+}
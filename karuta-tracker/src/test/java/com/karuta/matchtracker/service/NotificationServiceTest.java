@@ -37,7 +37,7 @@ class NotificationServiceTest {
     @Mock
     private PracticeSessionRepository practiceSessionRepository;
     @Mock
-    private PushNotificationService pushNotificationService;
+    private NotificationOutboxService notificationOutboxService;
     @Mock
     private PushNotificationPreferenceRepository pushNotificationPreferenceRepository;
 
@@ -151,7 +151,7 @@ class NotificationServiceTest {
     }
 
     @Test
-    @DisplayName("createAndPush: 設定ONの場合Web Push送信される")
+    @DisplayName("createAndPush: 設定ONの場合Web Pushが送信キューに登録される")
     void createAndPush_enabledSendsPush() {
         PushNotificationPreference pref = PushNotificationPreference.builder()
                 .playerId(10L).enabled(true).lotteryResult(true)
@@ -164,7 +164,8 @@ class NotificationServiceTest {
                 "テスト", "メッセージ", null, null, "/notifications");
 
         verify(notificationRepository).save(any(Notification.class));
-        verify(pushNotificationService).sendPush(eq(10L), eq("テスト"), eq("メッセージ"), eq("/notifications"));
+        verify(notificationOutboxService).enqueueWebPush(
+                eq(10L), eq(NotificationType.WAITLIST_OFFER), eq("テスト"), eq("メッセージ"), eq("/notifications"));
     }
 
     @Test
@@ -181,7 +182,7 @@ class NotificationServiceTest {
                 "テスト", "メッセージ", null, null, "/notifications");
 
         verify(notificationRepository).save(any(Notification.class));
-        verify(pushNotificationService, never()).sendPush(anyLong(), anyString(), anyString(), anyString());
+        verify(notificationOutboxService, never()).enqueueWebPush(anyLong(), any(), anyString(), anyString(), anyString());
     }
 
     @Test
@@ -198,7 +199,7 @@ class NotificationServiceTest {
                 "テスト", "メッセージ", null, null, "/notifications");
 
         verify(notificationRepository).save(any(Notification.class));
-        verify(pushNotificationService, never()).sendPush(anyLong(), anyString(), anyString(), anyString());
+        verify(notificationOutboxService, never()).enqueueWebPush(anyLong(), any(), anyString(), anyString(), anyString());
     }
 
     @Test
@@ -211,7 +212,7 @@ class NotificationServiceTest {
                 "テスト", "メッセージ", null, null, "/practice");
 
         verify(notificationRepository).save(any(Notification.class));
-        verify(pushNotificationService, never()).sendPush(anyLong(), anyString(), anyString(), anyString());
+        verify(notificationOutboxService, never()).enqueueWebPush(anyLong(), any(), anyString(), anyString(), anyString());
     }
 
     @Test
@@ -235,7 +236,7 @@ class NotificationServiceTest {
                 "テスト", "メッセージ", null, null, "/practice");
 
         verify(notificationRepository, times(3)).save(any(Notification.class));
-        verify(pushNotificationService, never()).sendPush(anyLong(), anyString(), anyString(), anyString());
+        verify(notificationOutboxService, never()).enqueueWebPush(anyLong(), any(), anyString(), anyString(), anyString());
     }
 
     @Test
@@ -0,0 +1,104 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("OfferDeadlineTimer テスト")
+class OfferDeadlineTimerTest {
+
+    private final OfferDeadlineTimer timer = new OfferDeadlineTimer();
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    @DisplayName("期限を過ぎた登録はすぐにハンドラを呼び、登録を外す")
+    void pastDeadline_runsHandlerPromptly() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        timer.onDue(fired::countDown);
+        timer.start();
+
+        timer.schedule(1L, JstDateTimeUtil.now().minusMinutes(1));
+
+        assertThat(fired.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("同じ時刻に期限を迎える複数の登録はハンドラ1回にまとめる")
+    void sameDeadline_coalescesIntoOneRun() {
+        LocalDateTime deadline = LocalDateTime.of(2026, 5, 9, 21, 0);
+        timer.schedule(1L, deadline);
+        timer.schedule(2L, deadline);
+        timer.schedule(3L, deadline);
+
+        boolean live = timer.dispatch(List.of(
+                OfferDeadlineTimer.Wakeup.after(1L, deadline, true, 0),
+                OfferDeadlineTimer.Wakeup.after(2L, deadline, true, 0),
+                OfferDeadlineTimer.Wakeup.after(3L, deadline, true, 0)));
+
+        assertThat(live).isTrue();
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    @DisplayName("取り消した登録・期限が変わった古い登録ではハンドラを呼ばない")
+    void cancelledOrReplaced_isIgnored() {
+        LocalDateTime deadline = LocalDateTime.of(2026, 5, 9, 21, 0);
+        timer.schedule(1L, deadline);
+        timer.schedule(2L, deadline);
+        timer.cancel(1L);
+        timer.schedule(2L, deadline.plusHours(1));
+
+        boolean live = timer.dispatch(List.of(
+                OfferDeadlineTimer.Wakeup.after(1L, deadline, true, 0),
+                OfferDeadlineTimer.Wakeup.after(2L, deadline, true, 0)));
+
+        assertThat(live).isFalse();
+        assertThat(timer.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("期限前警告の時刻ではハンドラを呼ぶが、期限の登録は残す")
+    void warning_keepsRegistration() {
+        LocalDateTime deadline = LocalDateTime.of(2026, 5, 9, 21, 0);
+        timer.schedule(1L, deadline);
+
+        boolean live = timer.dispatch(List.of(OfferDeadlineTimer.Wakeup.after(1L, deadline, false, 0)));
+
+        assertThat(live).isTrue();
+        assertThat(timer.pending()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("ハンドラが例外を投げても次の期限でまた呼ばれる")
+    void handlerFailure_keepsDispatching() throws InterruptedException {
+        AtomicInteger calls = new AtomicInteger();
+        CountDownLatch second = new CountDownLatch(2);
+        timer.onDue(() -> {
+            second.countDown();
+            if (calls.incrementAndGet() == 1) {
+                throw new IllegalStateException("boom");
+            }
+        });
+        timer.start();
+
+        timer.schedule(1L, JstDateTimeUtil.now().minusMinutes(2));
+        Thread.sleep(200);
+        timer.schedule(2L, JstDateTimeUtil.now().minusMinutes(1));
+
+        assertThat(second.await(5, TimeUnit.SECONDS)).isTrue();
+    }
+}
@@ -37,6 +37,9 @@ class OrganizationServiceTest {
     @Mock
     private LineNotificationPreferenceRepository lineNotificationPreferenceRepository;
 
+    @Mock
+    private IcalFeedVersionService icalFeedVersionService;
+
     @InjectMocks
     private OrganizationService organizationService;
 
@@ -51,6 +54,7 @@ class OrganizationServiceTest {
         organizationService.ensurePlayerBelongsToOrganization(1L, 2L);
 
         verify(playerOrganizationRepository).insertIfAbsent(eq(1L), eq(2L), any(LocalDateTime.class));
+        verify(icalFeedVersionService).markMembershipChanged(1L);
         verify(pushNotificationPreferenceRepository).save(any());
         verify(lineNotificationPreferenceRepository).save(any());
     }
@@ -0,0 +1,129 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.repository.MatchPairingRepository;
+import com.karuta.matchtracker.repository.MatchRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+@DisplayName("PairHistoryIndexService 単体テスト")
+class PairHistoryIndexServiceTest {
+
+    private static final LocalDate D1 = LocalDate.of(2026, 4, 1);
+    private static final LocalDate D2 = LocalDate.of(2026, 4, 8);
+    private static final LocalDate D3 = LocalDate.of(2026, 4, 15);
+
+    private MatchPairingRepository matchPairingRepository;
+    private MatchRepository matchRepository;
+    private SimpleMeterRegistry meterRegistry;
+    private PairHistoryIndexService service;
+
+    @BeforeEach
+    void setUp() {
+        matchPairingRepository = mock(MatchPairingRepository.class);
+        matchRepository = mock(MatchRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PairHistoryIndexService(matchPairingRepository, matchRepository, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("構築前は未準備で miss を数え、構築後は hit を数える")
+    void tryUse_countsHitAndMiss() {
+        assertThat(service.tryUse()).isFalse();
+
+        when(matchPairingRepository.findAllPairingHistory()).thenReturn(List.of());
+        when(matchRepository.findAllMatchHistory()).thenReturn(List.of());
+        service.rebuild();
+
+        assertThat(service.tryUse()).isTrue();
+        assertThat(meterRegistry.counter("pair_history_index.lookups", "result", "miss").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("pair_history_index.lookups", "result", "hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("全件構築: 順不同のペアを同一視し、組み合わせと結果の同日は1日として返す")
+    void rebuild_loadsPairingsAndMatches() {
+        when(matchPairingRepository.findAllPairingHistory()).thenReturn(rows(
+                new Object[]{D1, 1L, 2L},
+                new Object[]{D3, 2L, 1L}));
+        when(matchRepository.findAllMatchHistory()).thenReturn(rows(
+                new Object[]{D1, 2L, 1L},
+                new Object[]{D2, 1L, 2L},
+                new Object[]{D2, 1L, 0L}));
+
+        service.rebuild();
+
+        assertThat(service.findDays(2L, 1L, D1, D3.plusDays(1), true)).containsExactly(D1, D2, D3);
+        assertThat(service.findDays(1L, 2L, D1, D3.plusDays(1), false)).containsExactly(D1, D3);
+        assertThat(service.findDays(1L, 0L, D1, D3.plusDays(1), true)).isEmpty();
+        assertThat(meterRegistry.get("pair_history_index.pairs").gauge().value()).isEqualTo(1.0);
+        assertThat(meterRegistry.get("pair_history_index.entries").gauge().value()).isEqualTo(4.0);
+    }
+
+    @Test
+    @DisplayName("窓は from を含み toExclusive を含まない")
+    void findDays_respectsHalfOpenWindow() {
+        service.recordPairing(D1, 1L, 2L);
+        service.recordPairing(D2, 1L, 2L);
+        service.recordPairing(D3, 1L, 2L);
+
+        assertThat(service.findDays(1L, 2L, D2, D3, false)).containsExactly(D2);
+        assertThat(service.findDays(1L, 2L, D3.plusDays(1), D3.plusDays(30), false)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("同日同ペアの複数行は多重集合として数え、1行の削除で日付が消えない")
+    void remove_dropsOnlyOneOccurrence() {
+        service.recordPairing(D1, 1L, 2L);
+        service.recordPairing(D1, 2L, 1L);
+        service.recordMatch(D1, 1L, 2L);
+
+        service.removePairing(D1, 1L, 2L);
+        assertThat(service.findDays(1L, 2L, D1, D2, false)).containsExactly(D1);
+
+        service.removePairing(D1, 1L, 2L);
+        assertThat(service.findDays(1L, 2L, D1, D2, false)).isEmpty();
+        assertThat(service.findDays(1L, 2L, D1, D2, true)).containsExactly(D1);
+
+        service.removeMatch(D1, 1L, 2L);
+        assertThat(service.findDays(1L, 2L, D1, D2, true)).isEmpty();
+        assertThat(meterRegistry.get("pair_history_index.pairs").gauge().value()).isEqualTo(0.0);
+    }
+
+    @Test
+    @DisplayName("存在しない日付の削除は無視する")
+    void remove_unknownDayIsNoop() {
+        service.recordPairing(D1, 1L, 2L);
+
+        service.removePairing(D2, 1L, 2L);
+        service.removeMatch(D1, 1L, 2L);
+
+        assertThat(service.findDays(1L, 2L, D1, D3, true)).containsExactly(D1);
+    }
+
+    @Test
+    @DisplayName("再構築で差分反映より前の状態は全件ロードの内容に置き換わる")
+    void rebuild_replacesIndex() {
+        service.recordPairing(D1, 3L, 4L);
+        when(matchPairingRepository.findAllPairingHistory()).thenReturn(rows(new Object[]{D2, 1L, 2L}));
+        when(matchRepository.findAllMatchHistory()).thenReturn(List.of());
+
+        service.rebuild();
+
+        assertThat(service.findDays(3L, 4L, D1, D3, true)).isEmpty();
+        assertThat(service.findDays(1L, 2L, D1, D3, true)).containsExactly(D2);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,142 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.AutoMatchingRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Random;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+@DisplayName("PairingEngine 自動組み合わせアルゴリズム テスト")
+class PairingEngineTest {
+
+    private static final PairingEngine OPTIMAL = PairingEngine.of(AutoMatchingRequest.Engine.OPTIMAL);
+    private static final PairingEngine GREEDY = PairingEngine.of(AutoMatchingRequest.Engine.GREEDY);
+
+    @Test
+    @DisplayName("engine 未指定は最適化モード")
+    void of_nullIsOptimal() {
+        assertThat(PairingEngine.of(null)).isSameAs(OPTIMAL);
+    }
+
+    @Test
+    @DisplayName("貪欲法が序盤の最良ペアで終盤を潰すケースでも、最適化モードは合計スコア最大の組を返す")
+    void optimal_beatsGreedyTrap() {
+        // 0-1 が単独最良(-1)だが、それを取ると 2-3 が最悪(-90)。0-2/1-3 は各-10 で合計-20 が最適。
+        double[][] s = {
+                {0, -1, -10, -50},
+                {-1, 0, -50, -10},
+                {-10, -50, 0, -90},
+                {-50, -10, -90, 0},
+        };
+        PairScoreMatrix matrix = PairScoreMatrix.build(4, (i, j) -> s[i][j]);
+
+        assertThat(total(matrix, GREEDY.pair(matrix))).isEqualTo(-91.0);
+        assertThat(total(matrix, OPTIMAL.pair(matrix))).isEqualTo(-20.0);
+    }
+
+    @Test
+    @DisplayName("組めないペアは選ばれず、ペア数は最大化される（待機者を増やさない）")
+    void optimal_respectsForbiddenAndMaximizesCardinality() {
+        // 0-1 だけが高スコアだが、0-1 を組むと 2,3 は互いに組めず待機者が2人になる。
+        PairScoreMatrix matrix = PairScoreMatrix.build(4, (i, j) -> {
+            if (i == 2 && j == 3) return PairScoreMatrix.FORBIDDEN;
+            if (i == 0 && j == 1) return 0.0;
+            return -1000.0;
+        });
+
+        List<int[]> pairs = OPTIMAL.pair(matrix);
+
+        assertThat(pairs).hasSize(2);
+        for (int[] p : pairs) {
+            assertThat(matrix.isAllowed(p[0], p[1])).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("ランダムなスコア行列で、最適化モードは全探索と同じペア数・合計スコアを返す")
+    void optimal_matchesBruteForce() {
+        Random rng = new Random(20260401L);
+        for (int round = 0; round < 300; round++) {
+            int n = 2 + rng.nextInt(9);
+            double[][] s = new double[n][n];
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    double v = rng.nextInt(5) == 0
+                            ? PairScoreMatrix.FORBIDDEN
+                            : -(rng.nextInt(3) == 0 ? 1000 : 0) - 100.0 / (1 + rng.nextInt(30));
+                    s[i][j] = v;
+                    s[j][i] = v;
+                }
+            }
+            PairScoreMatrix matrix = PairScoreMatrix.build(n, (i, j) -> s[i][j]);
+
+            List<int[]> pairs = OPTIMAL.pair(matrix);
+            assertDisjointAndAllowed(matrix, pairs);
+
+            double[] best = bruteForce(matrix, new boolean[n], 0);
+            assertThat(pairs.size()).as("round %d", round).isEqualTo((int) best[0]);
+            assertThat(total(matrix, pairs)).as("round %d", round).isCloseTo(best[1], offset(1e-4));
+            assertThat(pairs.size()).isGreaterThanOrEqualTo(GREEDY.pair(matrix).size());
+        }
+    }
+
+    @Test
+    @DisplayName("貪欲法は最高スコアのペアから順に返す")
+    void greedy_returnsPairsInPickOrder() {
+        PairScoreMatrix matrix = PairScoreMatrix.build(4, (i, j) -> -(i + j));
+
+        List<int[]> pairs = GREEDY.pair(matrix);
+
+        assertThat(pairs).hasSize(2);
+        assertThat(pairs.get(0)).containsExactly(0, 1);
+        assertThat(pairs.get(1)).containsExactly(2, 3);
+    }
+
+    private static void assertDisjointAndAllowed(PairScoreMatrix matrix, List<int[]> pairs) {
+        Set<Integer> seen = new HashSet<>();
+        for (int[] p : pairs) {
+            assertThat(matrix.isAllowed(p[0], p[1])).isTrue();
+            assertThat(seen.add(p[0])).isTrue();
+            assertThat(seen.add(p[1])).isTrue();
+        }
+    }
+
+    private static double total(PairScoreMatrix matrix, List<int[]> pairs) {
+        double sum = 0;
+        for (int[] p : pairs) {
+            sum += matrix.score(p[0], p[1]);
+        }
+        return sum;
+    }
+
+    /** {ペア数, 合計スコア} の辞書式最大を全探索で求める */
+    private static double[] bruteForce(PairScoreMatrix matrix, boolean[] used, int from) {
+        int n = matrix.size();
+        int i = from;
+        while (i < n && used[i]) i++;
+        if (i >= n) {
+            return new double[]{0, 0};
+        }
+        used[i] = true;
+        // i を待機者にする場合
+        double[] best = bruteForce(matrix, used, i + 1);
+        for (int j = i + 1; j < n; j++) {
+            if (used[j] || !matrix.isAllowed(i, j)) continue;
+            used[j] = true;
+            double[] sub = bruteForce(matrix, used, i + 1);
+            double[] cand = {sub[0] + 1, sub[1] + matrix.score(i, j)};
+            if (cand[0] > best[0] || (cand[0] == best[0] && cand[1] > best[1])) {
+                best = cand;
+            }
+            used[j] = false;
+        }
+        used[i] = false;
+        return best;
+    }
+}
@@ -0,0 +1,204 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.OrganizationDto;
+import com.karuta.matchtracker.dto.ParticipationGroupDto;
+import com.karuta.matchtracker.dto.ParticipationRateDto;
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.Player;
+import com.karuta.matchtracker.entity.PlayerOrganization;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.repository.PlayerOrganizationRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.MockedStatic;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@DisplayName("ParticipationRateAggregator 単体テスト")
+class ParticipationRateAggregatorTest {
+
+    private static final Long ORG_1 = 1L;
+    private static final Long ORG_2 = 2L;
+    private static final LocalDate TODAY = LocalDate.of(2026, 6, 19);
+
+    private final PracticeSessionRepository practiceSessionRepository = mock(PracticeSessionRepository.class);
+    private final PracticeParticipantRepository practiceParticipantRepository = mock(PracticeParticipantRepository.class);
+    private final PlayerOrganizationRepository playerOrganizationRepository = mock(PlayerOrganizationRepository.class);
+    private final PlayerRepository playerRepository = mock(PlayerRepository.class);
+
+    private ParticipationRateAggregator aggregator;
+    private MockedStatic<JstDateTimeUtil> jstMock;
+
+    @BeforeEach
+    void setUp() {
+        jstMock = mockStatic(JstDateTimeUtil.class);
+        jstMock.when(JstDateTimeUtil::today).thenReturn(TODAY);
+        aggregator = new ParticipationRateAggregator(practiceSessionRepository, practiceParticipantRepository,
+                playerOrganizationRepository, playerRepository, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jstMock.close();
+    }
+
+    private static PracticeSession session(Long id, Long orgId, LocalDate date) {
+        return PracticeSession.builder().id(id).organizationId(orgId).sessionDate(date).totalMatches(7).build();
+    }
+
+    private static PlayerOrganization member(Long playerId, Long orgId) {
+        return PlayerOrganization.builder().playerId(playerId).organizationId(orgId).build();
+    }
+
+    private static Player player(Long id, String name) {
+        Player p = new Player();
+        p.setId(id);
+        p.setName(name);
+        return p;
+    }
+
+    private static Object[] row(Long sessionId, Long playerId, long count) {
+        return new Object[]{sessionId, playerId, count};
+    }
+
+    private static List<OrganizationDto> orgs(Long... ids) {
+        List<OrganizationDto> result = new ArrayList<>();
+        for (Long id : ids) {
+            result.add(OrganizationDto.builder().id(id).name("団体" + id).build());
+        }
+        return result;
+    }
+
+    @Test
+    @DisplayName("全試合WON+抜け番で8行あっても、各セッションで予定試合数を上限にキャップし100%を超えない")
+    void byeAndFullMatches_cappedAt100Percent() {
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_1), 2026, 6))
+                .thenReturn(List.of(session(100L, ORG_1, LocalDate.of(2026, 6, 10))));
+        when(practiceParticipantRepository.countActiveBySessionIdsAndPlayer(Set.of(100L)))
+                .thenReturn(List.<Object[]>of(row(100L, 10L, 8)));
+        when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_1)))
+                .thenReturn(List.of(member(10L, ORG_1)));
+        when(playerRepository.findAllById(Set.of(10L))).thenReturn(List.of(player(10L, "白石新菜")));
+
+        List<ParticipationGroupDto> groups = aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+
+        // 1団体所属 → 「全体」グループなしでその団体のみ
+        assertThat(groups).hasSize(1);
+        ParticipationRateDto top = groups.get(0).getTop3().get(0);
+        assertThat(top.getPlayerName()).isEqualTo("白石新菜");
+        assertThat(top.getParticipatedMatches()).isEqualTo(7);
+        assertThat(top.getTotalScheduledMatches()).isEqualTo(7);
+        assertThat(top.getRate()).isEqualTo(1.0);
+        assertThat(groups.get(0).getMyRate().getRate()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("複数団体: 全体+各団体の3グループを構築し、団体の分母には自団体のセッションだけを数える")
+    void multiOrg_buildsAllGroups() {
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_1, ORG_2), 2026, 6))
+                .thenReturn(List.of(
+                        session(100L, ORG_1, LocalDate.of(2026, 6, 10)),
+                        session(200L, ORG_2, LocalDate.of(2026, 6, 12)),
+                        // 集計日より後のセッションは対象外
+                        session(300L, ORG_2, LocalDate.of(2026, 6, 26))));
+        when(practiceParticipantRepository.countActiveBySessionIdsAndPlayer(Set.of(100L, 200L)))
+                .thenReturn(List.of(row(100L, 10L, 3), row(200L, 20L, 7)));
+        when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_1, ORG_2)))
+                .thenReturn(List.of(member(10L, ORG_1), member(20L, ORG_2)));
+        when(playerRepository.findAllById(Set.of(10L, 20L)))
+                .thenReturn(List.of(player(10L, "白石新菜"), player(20L, "泉駆")));
+
+        List<ParticipationGroupDto> groups = aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1, ORG_2));
+
+        assertThat(groups).extracting(ParticipationGroupDto::getOrganizationId).containsExactly(null, ORG_1, ORG_2);
+        assertThat(groups.get(0).getOrganizationName()).isEqualTo("全体");
+
+        // 全体: 分母14（7+7）、p20=7/14 が1位、p10=3/14。myRate は p10
+        ParticipationGroupDto all = groups.get(0);
+        assertThat(all.getTop3()).extracting(ParticipationRateDto::getPlayerId).containsExactly(20L, 10L);
+        assertThat(all.getTop3().get(0).getRate()).isEqualTo(7.0 / 14.0);
+        assertThat(all.getMyRate().getRate()).isEqualTo(3.0 / 14.0);
+
+        // 団体1: 自団体セッションのみが分母（7）
+        assertThat(groups.get(1).getTop3()).extracting(ParticipationRateDto::getPlayerId).containsExactly(10L);
+        assertThat(groups.get(1).getTop3().get(0).getRate()).isEqualTo(3.0 / 7.0);
+
+        // 団体2: p10 は非メンバーなので myRate は null
+        assertThat(groups.get(2).getTop3()).extracting(ParticipationRateDto::getPlayerId).containsExactly(20L);
+        assertThat(groups.get(2).getMyRate()).isNull();
+
+        // 月間の参加者エンティティ・全選手名は読まない
+        verify(practiceParticipantRepository, never()).findBySessionIdIn(anyList());
+        verify(playerRepository, never()).findAllActive();
+    }
+
+    @Test
+    @DisplayName("top3 は参加数の降順で3人まで。非メンバー・削除済み選手の名前は出さない")
+    void top3_sortedAndLimited() {
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_1), 2026, 6))
+                .thenReturn(List.of(session(100L, ORG_1, LocalDate.of(2026, 6, 10))));
+        when(practiceParticipantRepository.countActiveBySessionIdsAndPlayer(Set.of(100L)))
+                .thenReturn(List.of(row(100L, 10L, 2), row(100L, 20L, 6), row(100L, 30L, 4),
+                        row(100L, 40L, 5), row(100L, 99L, 7)));
+        when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_1)))
+                .thenReturn(List.of(member(10L, ORG_1), member(20L, ORG_1), member(30L, ORG_1), member(40L, ORG_1)));
+        Player deleted = player(40L, "退会者");
+        deleted.setDeletedAt(TODAY.atStartOfDay());
+        when(playerRepository.findAllById(Set.of(10L, 20L, 30L, 40L)))
+                .thenReturn(List.of(player(10L, "a"), player(20L, "b"), player(30L, "c"), deleted));
+
+        ParticipationGroupDto group = aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1)).get(0);
+
+        // 99L は非メンバーなので並ばない
+        assertThat(group.getTop3()).extracting(ParticipationRateDto::getPlayerId).containsExactly(20L, 40L, 30L);
+        assertThat(group.getTop3().get(1).getPlayerName()).isEqualTo("不明");
+        // 本人は top3 圏外でも引き当てる
+        assertThat(group.getMyRate().getParticipatedMatches()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("2回目以降の表示は集計を読み直さず、参加者の変更で該当団体の集計だけ捨てる")
+    void cachedUntilParticipantChanges() {
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(anyList(), eq(2026), eq(6)))
+                .thenReturn(List.of(session(100L, ORG_1, LocalDate.of(2026, 6, 10))));
+        when(practiceParticipantRepository.countActiveBySessionIdsAndPlayer(anyCollection()))
+                .thenReturn(List.<Object[]>of(row(100L, 10L, 3)));
+        when(playerOrganizationRepository.findByOrganizationIdIn(anyList()))
+                .thenReturn(List.of(member(10L, ORG_1)));
+
+        aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+        aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+        verify(practiceParticipantRepository, times(1)).countActiveBySessionIdsAndPlayer(anyCollection());
+
+        // 別セッションの変更では捨てない
+        aggregator.onEntityChanged(PracticeParticipant.builder().sessionId(999L).playerId(10L)
+                .status(ParticipantStatus.WON).build());
+        aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+        verify(practiceParticipantRepository, times(1)).countActiveBySessionIdsAndPlayer(anyCollection());
+
+        aggregator.onEntityChanged(PracticeParticipant.builder().sessionId(100L).playerId(10L)
+                .status(ParticipantStatus.CANCELLED).build());
+        aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+        verify(practiceParticipantRepository, times(2)).countActiveBySessionIdsAndPlayer(anyCollection());
+
+        // 所属の変更は団体の集計を捨てる
+        aggregator.onEntityChanged(member(30L, ORG_1));
+        aggregator.getParticipationGroups(10L, 2026, 6, orgs(ORG_1));
+        verify(practiceParticipantRepository, times(3)).countActiveBySessionIdsAndPlayer(anyCollection());
+    }
+}
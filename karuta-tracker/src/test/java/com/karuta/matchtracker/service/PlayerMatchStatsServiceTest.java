@@ -0,0 +1,254 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.RankStatisticsDto;
+import com.karuta.matchtracker.dto.StatisticsByRankDto;
+import com.karuta.matchtracker.entity.Match;
+import com.karuta.matchtracker.entity.Player;
+import com.karuta.matchtracker.entity.PlayerMatchStat;
+import com.karuta.matchtracker.repository.MatchRepository;
+import com.karuta.matchtracker.repository.PlayerMatchStatRepository;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.service.PlayerMatchStatsService.MatchFacts;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("PlayerMatchStatsService 単体テスト")
+class PlayerMatchStatsServiceTest {
+
+    private static final LocalDate DAY = LocalDate.of(2026, 4, 12);
+    private static final LocalDate APRIL = LocalDate.of(2026, 4, 1);
+
+    @Mock
+    private PlayerMatchStatRepository playerMatchStatRepository;
+
+    @Mock
+    private MatchRepository matchRepository;
+
+    @Mock
+    private PlayerRepository playerRepository;
+
+    @InjectMocks
+    private PlayerMatchStatsService service;
+
+    private final Player player = Player.builder().id(1L).name("山田太郎").build();
+
+    @Nested
+    @DisplayName("差分更新")
+    class IncrementalTests {
+
+        @Test
+        @DisplayName("登録済み選手同士の試合は両選手の視点でそれぞれ加算する")
+        void recordMatchIncrementsBothSides() {
+            Player opponent = Player.builder().id(3L).name("相手")
+                    .gender(Player.Gender.女性).dominantHand(Player.DominantHand.左).build();
+            Player self = Player.builder().id(1L).name("自分").gender(Player.Gender.男性).build();
+            when(playerRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(self, opponent));
+
+            service.recordMatch(facts(1L, 3L, 1L, false, "E級", "A級"));
+
+            verify(playerMatchStatRepository).increment(eq(1L), eq(APRIL), eq("A級"), eq("女性"), eq("左"),
+                    eq(false), eq(1), eq(0), any());
+            verify(playerMatchStatRepository).increment(eq(3L), eq(APRIL), eq("E級"), eq("男性"), eq(""),
+                    eq(false), eq(0), eq(1), any());
+        }
+
+        @Test
+        @DisplayName("未登録の対戦相手との試合は集計しない")
+        void unregisteredOpponentIsIgnored() {
+            service.recordMatch(facts(1L, 0L, 1L, false, "A級", null));
+
+            verifyNoInteractions(playerRepository, playerMatchStatRepository);
+        }
+
+        @Test
+        @DisplayName("更新は旧値を減算して新値を加算する。集計に効く項目が同じなら何もしない")
+        void replaceMatchRemovesOldAndAddsNew() {
+            Player opponent = Player.builder().id(3L).name("相手").build();
+            when(playerRepository.findAllById(List.of(1L, 3L))).thenReturn(List.of(player, opponent));
+            MatchFacts before = facts(1L, 3L, 1L, false, "B級", "A級");
+            MatchFacts after = facts(1L, 3L, 3L, true, "B級", "A級");
+
+            service.replaceMatch(before, before);
+            verifyNoInteractions(playerMatchStatRepository);
+
+            service.replaceMatch(before, after);
+
+            verify(playerMatchStatRepository).decrement(eq(1L), eq(APRIL), eq("A級"), eq(""), eq(""),
+                    eq(false), eq(1), eq(0), any());
+            verify(playerMatchStatRepository).increment(eq(1L), eq(APRIL), eq("A級"), eq(""), eq(""),
+                    eq(true), eq(0), eq(1), any());
+        }
+    }
+
+    @Nested
+    @DisplayName("級別統計（試合を直接数える経路）")
+    class ScanTests {
+
+        @Test
+        @DisplayName("級別統計を正しく計算できる。級の記録がない試合は相手の現在の級で数える")
+        void shouldCalculateStatisticsByRank() {
+            Player opponentA = Player.builder().id(3L).name("A級選手").kyuRank(Player.KyuRank.A級).build();
+            Player opponentB = Player.builder().id(4L).name("B級選手").kyuRank(Player.KyuRank.B級).build();
+            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(
+                    match(1L, 3L, 1L, false), match(1L, 3L, 3L, false), match(1L, 4L, 1L, false)));
+            when(playerRepository.findAllById(anyList())).thenReturn(List.of(opponentA, opponentB));
+
+            StatisticsByRankDto result = service.getStatisticsByRank(1L, null, null, null, null);
+
+            assertThat(result.getTotal().getTotal()).isEqualTo(3);
+            assertThat(result.getTotal().getWins()).isEqualTo(2);
+            Map<String, RankStatisticsDto> byRank = result.getByRank();
+            assertThat(byRank.keySet()).containsExactly("A級", "B級", "C級", "D級", "E級");
+            assertThat(byRank.get("A級").getTotal()).isEqualTo(2);
+            assertThat(byRank.get("A級").getWins()).isEqualTo(1);
+            assertThat(byRank.get("B級").getTotal()).isEqualTo(1);
+            assertThat(byRank.get("C級").getTotal()).isZero();
+            // 対戦相手はまとめて1回で引く
+            verify(playerRepository, times(1)).findAllById(anyList());
+        }
+
+        @Test
+        @DisplayName("性別フィルタで統計を絞り込める。未登録相手の試合は数えない")
+        void shouldFilterStatisticsByGender() {
+            Player male = Player.builder().id(3L).name("男性A級")
+                    .kyuRank(Player.KyuRank.A級).gender(Player.Gender.男性).build();
+            Player female = Player.builder().id(4L).name("女性A級")
+                    .kyuRank(Player.KyuRank.A級).gender(Player.Gender.女性).build();
+            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(
+                    match(1L, 3L, 1L, false), match(1L, 4L, 1L, false), match(1L, 0L, 1L, false)));
+            when(playerRepository.findAllById(anyList())).thenReturn(List.of(male, female));
+
+            StatisticsByRankDto result = service.getStatisticsByRank(1L, "男性", null, null, null);
+
+            assertThat(result.getTotal().getTotal()).isEqualTo(1);
+            assertThat(result.getByRank().get("A級").getTotal()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("月の途中で区切る期間は試合を期間で読み込んで数える")
+        void unalignedRangeScansMatchesInRange() {
+            LocalDate start = LocalDate.of(2026, 4, 8);
+            LocalDate end = LocalDate.of(2026, 4, 20);
+            Player opponent = Player.builder().id(3L).name("A級選手").kyuRank(Player.KyuRank.A級).build();
+            when(playerMatchStatRepository.count()).thenReturn(10L);
+            service.backfillIfEmpty();
+            when(matchRepository.findByPlayerIdAndDateRange(1L, start, end))
+                    .thenReturn(List.of(match(1L, 3L, 1L, false)));
+            when(playerRepository.findAllById(anyList())).thenReturn(List.of(opponent));
+
+            StatisticsByRankDto result = service.getStatisticsByRank(1L, null, null, start, end);
+
+            assertThat(result.getTotal().getTotal()).isEqualTo(1);
+            verify(playerMatchStatRepository, never()).findByPlayerIdAndMonthRange(any(), any(), any());
+        }
+
+        @Test
+        @DisplayName("指導回数・被指導回数を集計でき、指導試合も通常統計に計上される")
+        void shouldCountLessonsGivenAndReceived() {
+            Player opponent = Player.builder().id(3L).name("初心者").kyuRank(Player.KyuRank.E級).build();
+            when(matchRepository.findByPlayerId(1L)).thenReturn(List.of(
+                    match(1L, 3L, 1L, true), match(1L, 3L, 3L, true), match(1L, 3L, 1L, false)));
+            when(playerRepository.findAllById(anyList())).thenReturn(List.of(opponent));
+
+            StatisticsByRankDto result = service.getStatisticsByRank(1L, null, null, null, null);
+
+            assertThat(result.getTotal().getTotal()).isEqualTo(3);
+            assertThat(result.getTotal().getWins()).isEqualTo(2);
+            assertThat(result.getLessonGivenCount()).isEqualTo(1);
+            assertThat(result.getLessonReceivedCount()).isEqualTo(1);
+        }
+    }
+
+    @Nested
+    @DisplayName("級別統計（集計表を読む経路）")
+    class AggregateTests {
+
+        @Test
+        @DisplayName("構築済みで月単位の期間なら集計行だけで返し、試合は読まない")
+        void alignedRangeReadsAggregateRows() {
+            when(playerMatchStatRepository.count()).thenReturn(10L);
+            service.backfillIfEmpty();
+            LocalDate end = LocalDate.of(2026, 4, 30);
+            when(playerMatchStatRepository.findByPlayerIdAndMonthRange(1L, APRIL, APRIL)).thenReturn(List.of(
+                    stat("A級", "男性", "右", false, 3, 2, 1),
+                    stat("B級", "女性", "右", false, 2, 0, 1),
+                    stat("E級", "男性", "", true, 2, 1, 1)));
+
+            StatisticsByRankDto all = service.getStatisticsByRank(1L, null, null, APRIL, end);
+            StatisticsByRankDto male = service.getStatisticsByRank(1L, "男性", null, APRIL, end);
+
+            assertThat(all.getTotal().getTotal()).isEqualTo(7);
+            assertThat(all.getTotal().getWins()).isEqualTo(3);
+            assertThat(all.getByRank().get("B級").getTotal()).isEqualTo(2);
+            assertThat(all.getLessonGivenCount()).isEqualTo(1);
+            assertThat(all.getLessonReceivedCount()).isEqualTo(1);
+            assertThat(male.getTotal().getTotal()).isEqualTo(5);
+            assertThat(male.getByRank().get("B級").getTotal()).isZero();
+            verifyNoInteractions(matchRepository);
+        }
+
+        @Test
+        @DisplayName("集計表が空なら全試合から作り直す")
+        void backfillRebuildsWhenEmpty() {
+            Player opponent = Player.builder().id(3L).name("相手").kyuRank(Player.KyuRank.C級).build();
+            when(playerMatchStatRepository.count()).thenReturn(0L);
+            when(matchRepository.findAll()).thenReturn(List.of(
+                    match(1L, 3L, 1L, false), match(1L, 3L, 1L, false), match(1L, 0L, 1L, false)));
+            when(playerRepository.findAll()).thenReturn(List.of(player, opponent));
+
+            service.backfillIfEmpty();
+
+            @SuppressWarnings("unchecked")
+            ArgumentCaptor<List<PlayerMatchStat>> captor = ArgumentCaptor.forClass(List.class);
+            verify(playerMatchStatRepository).deleteAllInBatch();
+            verify(playerMatchStatRepository).saveAll(captor.capture());
+            assertThat(captor.getValue()).hasSize(2);
+            PlayerMatchStat own = captor.getValue().stream()
+                    .filter(s -> s.getPlayerId().equals(1L)).findFirst().orElseThrow();
+            assertThat(own.getOpponentKyuRank()).isEqualTo("C級");
+            assertThat(own.getMatchCount()).isEqualTo(2);
+            assertThat(own.getWinCount()).isEqualTo(2);
+            assertThat(service.isReady()).isTrue();
+        }
+    }
+
+    @Test
+    @DisplayName("月単位の期間判定")
+    void monthAlignment() {
+        assertThat(PlayerMatchStatsService.isMonthAligned(null, null)).isTrue();
+        assertThat(PlayerMatchStatsService.isMonthAligned(APRIL, LocalDate.of(2026, 12, 31))).isTrue();
+        assertThat(PlayerMatchStatsService.isMonthAligned(APRIL, LocalDate.of(2026, 4, 29))).isFalse();
+        assertThat(PlayerMatchStatsService.isMonthAligned(DAY, null)).isFalse();
+    }
+
+    private static MatchFacts facts(Long p1, Long p2, Long winner, boolean lesson, String p1Rank, String p2Rank) {
+        return new MatchFacts(DAY, p1, p2, winner, lesson, p1Rank, p2Rank);
+    }
+
+    private static Match match(Long p1, Long p2, Long winner, boolean lesson) {
+        return Match.builder().player1Id(p1).player2Id(p2).winnerId(winner)
+                .matchDate(DAY).isLesson(lesson).build();
+    }
+
+    private static PlayerMatchStat stat(String rank, String gender, String hand, boolean lesson,
+                                        int matches, int wins, int losses) {
+        return PlayerMatchStat.builder().playerId(1L).matchMonth(APRIL).opponentKyuRank(rank)
+                .opponentGender(gender).opponentDominantHand(hand).isLesson(lesson)
+                .matchCount(matches).winCount(wins).lossCount(losses).build();
+    }
+}
@@ -54,6 +54,9 @@ class PlayerServiceTest {
     @Mock
     private AuthTokenService authTokenService;
 
+    @Mock
+    private PlayerMatchStatsService playerMatchStatsService;
+
     @InjectMocks
     private PlayerService playerService;
 
@@ -489,6 +492,32 @@ class PlayerServiceTest {
         assertThat(p2.getDanRank()).isEqualTo(Player.DanRank.初段);
         verify(playerRepository, times(2)).save(any(Player.class));
         verify(organizationService, never()).ensurePlayerBelongsToOrganization(any(), any());
+        // 性別・級が変わったため、対戦相手側の対戦成績集計を作り直す
+        verify(playerMatchStatsService).refreshOpponentAttributes(1L);
+        verify(playerMatchStatsService).refreshOpponentAttributes(2L);
+    }
+
+    @Test
+    @DisplayName("性別・利き手・級が変わらない一括更新では対戦成績集計を作り直さない")
+    void testBulkUpdateWithoutStatsAttributeChangeSkipsStatsRefresh() {
+        // Given
+        Player p1 = Player.builder().id(1L).name("一郎").gender(Player.Gender.男性)
+                .kyuRank(Player.KyuRank.E級).danRank(Player.DanRank.無段).build();
+        when(playerOrganizationRepository.findByPlayerIdIn(List.of(1L))).thenReturn(List.of());
+        when(playerRepository.findById(1L)).thenReturn(Optional.of(p1));
+        when(playerRepository.save(any(Player.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        PlayerBulkUpdateRequest request = PlayerBulkUpdateRequest.builder()
+                .updates(List.of(PlayerBulkUpdateRequest.Item.builder()
+                        .playerId(1L).gender(Player.Gender.男性).danRank(Player.DanRank.初段)
+                        .karutaClub("わすらもち会").build()))
+                .build();
+
+        // When
+        playerService.bulkUpdate(request);
+
+        // Then
+        verify(playerMatchStatsService, never()).refreshOpponentAttributes(any());
     }
 
     @Test
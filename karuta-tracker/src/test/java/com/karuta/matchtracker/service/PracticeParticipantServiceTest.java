@@ -11,6 +11,7 @@ import com.karuta.matchtracker.repository.LotteryExecutionRepository;
 import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.repository.PlayerRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -58,9 +59,24 @@ class PracticeParticipantServiceTest {
     @Mock
     private DensukeDeletionCandidateRepository densukeDeletionCandidateRepository;
 
+    @Mock
+    private SeatOccupancyService seatOccupancyService;
+
+    @Mock
+    private IcalFeedVersionService icalFeedVersionService;
+
+    @Mock
+    private ParticipationRateAggregator participationRateAggregator;
+
     @InjectMocks
     private PracticeParticipantService service;
 
+    @BeforeEach
+    void stubEmptySeats() {
+        // 枠取得状況は個別に stub しない限り空（参加者なし）として扱う
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
+    }
+
     @Captor
     private ArgumentCaptor<PracticeParticipant> participantCaptor;
 
@@ -86,8 +102,9 @@ class PracticeParticipantServiceTest {
         when(lotteryDeadlineHelper.isBeforeDeadline(eq(2025), eq(4), eq(ORG_ID))).thenReturn(false);
         when(lotteryExecutionRepository.existsByTargetYearAndTargetMonthAndOrganizationIdAndStatus(
                 2025, 4, ORG_ID, LotteryExecution.ExecutionStatus.SUCCESS)).thenReturn(true);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(4L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 4)
+                .build());
         when(practiceParticipantRepository.findMaxWaitlistNumber(100L, 1))
                 .thenReturn(Optional.of(2));
 
@@ -117,12 +134,9 @@ class PracticeParticipantServiceTest {
         when(lotteryDeadlineHelper.isBeforeDeadline(eq(2025), eq(4), eq(ORG_ID))).thenReturn(false);
         when(lotteryExecutionRepository.existsByTargetYearAndTargetMonthAndOrganizationIdAndStatus(
                 2025, 4, ORG_ID, LotteryExecution.ExecutionStatus.SUCCESS)).thenReturn(true);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(2L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
-        when(practiceParticipantRepository.existsBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WAITLISTED))
-                .thenReturn(false);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 2)
+                .build());
 
         PracticeParticipationRequest request = new PracticeParticipationRequest();
         request.setPlayerId(10L);
@@ -151,12 +165,9 @@ class PracticeParticipantServiceTest {
                 2025, 4, ORG_ID, LotteryExecution.ExecutionStatus.SUCCESS)).thenReturn(true);
         when(practiceParticipantRepository.existsActiveBySessionIdAndPlayerIdAndMatchNumber(100L, 10L, 1))
                 .thenReturn(false);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(2L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
-        when(practiceParticipantRepository.existsBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WAITLISTED))
-                .thenReturn(false);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 2)
+                .build());
 
         PracticeParticipant cancelled = PracticeParticipant.builder()
                 .id(999L)
@@ -609,12 +620,9 @@ class PracticeParticipantServiceTest {
         when(playerRepository.existsById(10L)).thenReturn(true);
         when(practiceSessionRepository.findAllById(any())).thenReturn(List.of(session));
         when(lotteryDeadlineHelper.getDeadlineType(ORG_ID)).thenReturn(DeadlineType.SAME_DAY);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(0L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
-        when(practiceParticipantRepository.existsBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WAITLISTED))
-                .thenReturn(false);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 0)
+                .build());
 
         PracticeParticipationRequest request = new PracticeParticipationRequest();
         request.setPlayerId(10L);
@@ -1201,186 +1209,6 @@ class PracticeParticipantServiceTest {
                 .sendSameDayJoinNotification(eq(session), eq(1), eq("テスト太郎"), eq(10L));
     }
 
-    @Test
-    @DisplayName("参加率グループ(団体別): 全試合WON+抜け番(matchNumber=null)でも各セッションで予定試合数を上限にキャップし100%を超えない")
-    void getParticipationGroups_byeAndFullMatches_cappedAt100Percent() {
-        LocalDate today = LocalDate.of(2026, 6, 19);
-        try (MockedStatic<JstDateTimeUtil> jstMock = mockStatic(JstDateTimeUtil.class)) {
-            jstMock.when(JstDateTimeUtil::today).thenReturn(today);
-
-            PracticeSession session = createSession(100L, 7); // totalMatches=7
-            session.setSessionDate(LocalDate.of(2026, 6, 10));
-
-            when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_ID), 2026, 6))
-                    .thenReturn(List.of(session));
-            when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_ID)))
-                    .thenReturn(List.of(com.karuta.matchtracker.entity.PlayerOrganization.builder()
-                            .playerId(10L).organizationId(ORG_ID).build()));
-
-            // 全7試合WON + 抜け番(matchNumber=null, WON) = 8行
-            java.util.List<PracticeParticipant> participants = new java.util.ArrayList<>();
-            for (int m = 1; m <= 7; m++) {
-                participants.add(buildParticipant(100L, 10L, m, ParticipantStatus.WON));
-            }
-            participants.add(PracticeParticipant.builder()
-                    .sessionId(100L).playerId(10L).matchNumber(null).status(ParticipantStatus.WON).build());
-            when(practiceParticipantRepository.findBySessionIdIn(List.of(100L)))
-                    .thenReturn(participants);
-
-            com.karuta.matchtracker.entity.Player player = new com.karuta.matchtracker.entity.Player();
-            player.setId(10L);
-            player.setName("白石新菜");
-            when(playerRepository.findAllActive()).thenReturn(List.of(player));
-
-            java.util.List<com.karuta.matchtracker.dto.ParticipationGroupDto> groups =
-                    service.getParticipationGroups(10L, 2026, 6,
-                            List.of(com.karuta.matchtracker.dto.OrganizationDto.builder()
-                                    .id(ORG_ID).name("テスト団体").build()));
-
-            // 1団体所属 → 「全体」グループなしでその団体のみ
-            assertThat(groups).hasSize(1);
-            java.util.List<com.karuta.matchtracker.dto.ParticipationRateDto> top3 = groups.get(0).getTop3();
-            assertThat(top3).hasSize(1);
-            // 8行あっても totalMatches=7 でキャップ
-            assertThat(top3.get(0).getParticipatedMatches()).isEqualTo(7);
-            assertThat(top3.get(0).getTotalScheduledMatches()).isEqualTo(7);
-            assertThat(top3.get(0).getRate()).isEqualTo(1.0); // 114%ではなく100%
-            // myRate は同一データから引き当てられる
-            assertThat(groups.get(0).getMyRate()).isNotNull();
-            assertThat(groups.get(0).getMyRate().getRate()).isEqualTo(1.0);
-        }
-    }
-
-    @Test
-    @DisplayName("参加率グループ(団体別): CANCELLED/WAITLISTED/DECLINED 等の無効ステータスは分子に含めない")
-    void getParticipationGroups_excludesInactiveStatuses() {
-        LocalDate today = LocalDate.of(2026, 6, 19);
-        try (MockedStatic<JstDateTimeUtil> jstMock = mockStatic(JstDateTimeUtil.class)) {
-            jstMock.when(JstDateTimeUtil::today).thenReturn(today);
-
-            PracticeSession session = createSession(100L, 7); // totalMatches=7
-            session.setSessionDate(LocalDate.of(2026, 6, 10));
-
-            when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_ID), 2026, 6))
-                    .thenReturn(List.of(session));
-            when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_ID)))
-                    .thenReturn(List.of(com.karuta.matchtracker.entity.PlayerOrganization.builder()
-                            .playerId(10L).organizationId(ORG_ID).build()));
-
-            // 有効(WON×3, PENDING×1)=4、無効(CANCELLED/WAITLISTED/DECLINED)=3
-            when(practiceParticipantRepository.findBySessionIdIn(List.of(100L)))
-                    .thenReturn(List.of(
-                            buildParticipant(100L, 10L, 1, ParticipantStatus.WON),
-                            buildParticipant(100L, 10L, 2, ParticipantStatus.WON),
-                            buildParticipant(100L, 10L, 3, ParticipantStatus.WON),
-                            buildParticipant(100L, 10L, 4, ParticipantStatus.PENDING),
-                            buildParticipant(100L, 10L, 5, ParticipantStatus.CANCELLED),
-                            buildParticipant(100L, 10L, 6, ParticipantStatus.WAITLISTED),
-                            buildParticipant(100L, 10L, 7, ParticipantStatus.DECLINED)
-                    ));
-
-            com.karuta.matchtracker.entity.Player player = new com.karuta.matchtracker.entity.Player();
-            player.setId(10L);
-            player.setName("白石新菜");
-            when(playerRepository.findAllActive()).thenReturn(List.of(player));
-
-            java.util.List<com.karuta.matchtracker.dto.ParticipationGroupDto> groups =
-                    service.getParticipationGroups(10L, 2026, 6,
-                            List.of(com.karuta.matchtracker.dto.OrganizationDto.builder()
-                                    .id(ORG_ID).name("テスト団体").build()));
-
-            assertThat(groups).hasSize(1);
-            java.util.List<com.karuta.matchtracker.dto.ParticipationRateDto> top3 = groups.get(0).getTop3();
-            assertThat(top3).hasSize(1);
-            assertThat(top3.get(0).getParticipatedMatches()).isEqualTo(4); // 有効4のみ
-            assertThat(top3.get(0).getTotalScheduledMatches()).isEqualTo(7);
-            assertThat(top3.get(0).getRate()).isEqualTo(4.0 / 7.0);
-        }
-    }
-
-    @Test
-    @DisplayName("参加率グループ(複数団体): 全体+各団体の3グループを構築し、月間データのロードは各リポジトリ1回だけ")
-    void getParticipationGroups_multiOrg_buildsAllGroupsWithSingleLoad() {
-        LocalDate today = LocalDate.of(2026, 6, 19);
-        Long org2Id = 2L;
-        try (MockedStatic<JstDateTimeUtil> jstMock = mockStatic(JstDateTimeUtil.class)) {
-            jstMock.when(JstDateTimeUtil::today).thenReturn(today);
-
-            // 団体1のセッション(100L)と団体2のセッション(200L)、各 totalMatches=7
-            PracticeSession session1 = createSession(100L, 7); // organizationId=ORG_ID
-            session1.setSessionDate(LocalDate.of(2026, 6, 10));
-            PracticeSession session2 = createSession(200L, 7);
-            session2.setOrganizationId(org2Id);
-            session2.setSessionDate(LocalDate.of(2026, 6, 12));
-
-            when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(List.of(ORG_ID, org2Id), 2026, 6))
-                    .thenReturn(List.of(session1, session2));
-            when(playerOrganizationRepository.findByOrganizationIdIn(List.of(ORG_ID, org2Id)))
-                    .thenReturn(List.of(
-                            com.karuta.matchtracker.entity.PlayerOrganization.builder()
-                                    .playerId(10L).organizationId(ORG_ID).build(),
-                            com.karuta.matchtracker.entity.PlayerOrganization.builder()
-                                    .playerId(20L).organizationId(org2Id).build()));
-
-            // p10=団体1で3試合WON、p20=団体2で7試合WON
-            java.util.List<PracticeParticipant> participants = new java.util.ArrayList<>();
-            for (int m = 1; m <= 3; m++) {
-                participants.add(buildParticipant(100L, 10L, m, ParticipantStatus.WON));
-            }
-            for (int m = 1; m <= 7; m++) {
-                participants.add(buildParticipant(200L, 20L, m, ParticipantStatus.WON));
-            }
-            when(practiceParticipantRepository.findBySessionIdIn(List.of(100L, 200L)))
-                    .thenReturn(participants);
-
-            com.karuta.matchtracker.entity.Player p10 = new com.karuta.matchtracker.entity.Player();
-            p10.setId(10L);
-            p10.setName("白石新菜");
-            com.karuta.matchtracker.entity.Player p20 = new com.karuta.matchtracker.entity.Player();
-            p20.setId(20L);
-            p20.setName("泉駆");
-            when(playerRepository.findAllActive()).thenReturn(List.of(p10, p20));
-
-            java.util.List<com.karuta.matchtracker.dto.ParticipationGroupDto> groups =
-                    service.getParticipationGroups(10L, 2026, 6, List.of(
-                            com.karuta.matchtracker.dto.OrganizationDto.builder().id(ORG_ID).name("団体1").build(),
-                            com.karuta.matchtracker.dto.OrganizationDto.builder().id(org2Id).name("団体2").build()));
-
-            // 全体 + 団体1 + 団体2 の3グループ（この順）
-            assertThat(groups).hasSize(3);
-            assertThat(groups.get(0).getOrganizationId()).isNull();
-            assertThat(groups.get(0).getOrganizationName()).isEqualTo("全体");
-            assertThat(groups.get(1).getOrganizationId()).isEqualTo(ORG_ID);
-            assertThat(groups.get(2).getOrganizationId()).isEqualTo(org2Id);
-
-            // 全体: 分母14（7+7）、p20=7/14 が1位、p10=3/14。myRate は p10
-            com.karuta.matchtracker.dto.ParticipationGroupDto all = groups.get(0);
-            assertThat(all.getTop3()).hasSize(2);
-            assertThat(all.getTop3().get(0).getPlayerId()).isEqualTo(20L);
-            assertThat(all.getTop3().get(0).getRate()).isEqualTo(7.0 / 14.0);
-            assertThat(all.getMyRate().getPlayerId()).isEqualTo(10L);
-            assertThat(all.getMyRate().getRate()).isEqualTo(3.0 / 14.0);
-
-            // 団体1: 自団体セッションのみが分母（7）。他団体の参加は混入しない
-            com.karuta.matchtracker.dto.ParticipationGroupDto g1 = groups.get(1);
-            assertThat(g1.getTop3()).hasSize(1);
-            assertThat(g1.getTop3().get(0).getPlayerId()).isEqualTo(10L);
-            assertThat(g1.getTop3().get(0).getRate()).isEqualTo(3.0 / 7.0);
-
-            // 団体2: p10 は非メンバーなので myRate は null
-            com.karuta.matchtracker.dto.ParticipationGroupDto g2 = groups.get(2);
-            assertThat(g2.getTop3()).hasSize(1);
-            assertThat(g2.getTop3().get(0).getPlayerId()).isEqualTo(20L);
-            assertThat(g2.getMyRate()).isNull();
-
-            // 月間データのロードは各リポジトリ1回だけ（改修の主目的: グループ×top3/myRate ごとの再ロード撤廃）
-            verify(practiceSessionRepository, times(1)).findByOrganizationIdInAndYearAndMonth(anyList(), anyInt(), anyInt());
-            verify(practiceParticipantRepository, times(1)).findBySessionIdIn(anyList());
-            verify(playerOrganizationRepository, times(1)).findByOrganizationIdIn(anyList());
-            verify(playerRepository, times(1)).findAllActive();
-        }
-    }
-
     @org.junit.jupiter.api.Nested
     @DisplayName("autoRegisterMatchParticipant（試合記録に伴う自動参加登録）")
     class AutoRegisterMatchParticipantTests {
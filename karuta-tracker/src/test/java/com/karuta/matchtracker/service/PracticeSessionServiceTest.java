@@ -39,7 +39,9 @@ import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
@@ -104,6 +106,12 @@ class PracticeSessionServiceTest {
     @Mock
     private LotteryDeadlineHelper lotteryDeadlineHelper;
 
+    @Mock
+    private SeatOccupancyService seatOccupancyService;
+
+    @Mock
+    private SessionSummaryCache sessionSummaryCache;
+
     @InjectMocks
     private PracticeSessionService practiceSessionService;
 
@@ -126,6 +134,9 @@ class PracticeSessionServiceTest {
         // 参照しないテスト（NotFound 系・ findNextSessionForPlayer など）で
         // UnnecessaryStubbingException を起こさないよう lenient で登録する。
         lenient().when(lotteryDeadlineHelper.isLotteryDisabled(any())).thenReturn(false);
+        // 月間サマリーはキャッシュを素通しして毎回読み込む（キャッシュ自体は SessionSummaryCacheTest で検証）
+        lenient().when(sessionSummaryCache.get(any(), any(), any()))
+                .thenAnswer(inv -> inv.<Supplier<List<PracticeSessionDto>>>getArgument(2).get());
     }
 
     @Test
@@ -1031,6 +1042,15 @@ class PracticeSessionServiceTest {
                 .build();
     }
 
+    /**
+     * 参加者リストを試合別枠取得状況に集計して返すようにするヘルパー（試合番号 null の抜け番は集計対象外）。
+     */
+    private void stubSeats(List<PracticeParticipant> participants) {
+        SeatOccupancyService.SessionSeats.Builder seats = SeatOccupancyService.SessionSeats.builder();
+        participants.forEach(p -> seats.add(p.getMatchNumber(), p.getStatus(), 1));
+        when(seatOccupancyService.snapshot(List.of(1L))).thenReturn(Map.of(1L, seats.build()));
+    }
+
     @Test
     @DisplayName("findSessionSummariesByYearMonth: capacity が null のセッションは matchCapacityStatuses=null")
     void findSessionSummariesByYearMonth_capacityNull_returnsNull() {
@@ -1040,10 +1060,9 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(null).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1060,8 +1079,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(0).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1078,8 +1096,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(-1).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1096,8 +1113,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(null).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1114,8 +1130,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(0).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1132,8 +1147,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(10).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1151,12 +1165,11 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(6).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 12L, 3, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 12L, 3, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1182,15 +1195,14 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 20L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 21L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 30L, 3, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 31L, 3, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 32L, 3, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 20L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 21L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 30L, 3, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 31L, 3, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 32L, 3, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1216,19 +1228,18 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 20L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 21L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 22L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 23L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 24L, 2, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 30L, 3, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 20L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 21L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 22L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 23L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 24L, 2, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 30L, 3, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1252,14 +1263,13 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(1).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WAITLISTED),
-                        capacityTestParticipant(1L, 12L, 1, ParticipantStatus.CANCELLED),
-                        capacityTestParticipant(1L, 13L, 1, ParticipantStatus.DECLINED),
-                        capacityTestParticipant(1L, 14L, 1, ParticipantStatus.WAITLIST_DECLINED)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WAITLISTED),
+                capacityTestParticipant(1L, 12L, 1, ParticipantStatus.CANCELLED),
+                capacityTestParticipant(1L, 13L, 1, ParticipantStatus.DECLINED),
+                capacityTestParticipant(1L, 14L, 1, ParticipantStatus.WAITLIST_DECLINED)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1278,13 +1288,12 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(1).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 12L, 1, ParticipantStatus.PENDING),
-                        capacityTestParticipant(1L, 13L, 1, ParticipantStatus.OFFERED)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 12L, 1, ParticipantStatus.PENDING),
+                capacityTestParticipant(1L, 13L, 1, ParticipantStatus.OFFERED)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1303,8 +1312,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(3).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1327,8 +1335,7 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(9).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1345,8 +1352,8 @@ class PracticeSessionServiceTest {
                 .id(1L).sessionDate(today).totalMatches(2).capacity(4).build();
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
-        // 参加者の一括取得で例外発生
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
+        // 枠取得状況の集計で例外発生
+        when(seatOccupancyService.snapshot(List.of(1L)))
                 .thenThrow(new RuntimeException("DB error"));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
@@ -1369,13 +1376,12 @@ class PracticeSessionServiceTest {
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
         when(venueRepository.findAllById(anyList())).thenReturn(List.of(venue));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1400,13 +1406,12 @@ class PracticeSessionServiceTest {
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
         when(venueRepository.findAllById(anyList())).thenReturn(List.of(venue));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of(
-                        capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
-                        capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON)
-                ));
+        stubSeats(List.of(
+                capacityTestParticipant(1L, 10L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 11L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 12L, 1, ParticipantStatus.WON),
+                capacityTestParticipant(1L, 13L, 1, ParticipantStatus.WON)
+        ));
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1431,8 +1436,7 @@ class PracticeSessionServiceTest {
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
         when(venueRepository.findAllById(anyList())).thenReturn(List.of(venue));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
@@ -1453,8 +1457,7 @@ class PracticeSessionServiceTest {
         when(practiceSessionRepository.findByYearAndMonth(year, month))
                 .thenReturn(List.of(session));
         when(venueRepository.findAllById(anyList())).thenReturn(List.of(venue));
-        when(practiceParticipantRepository.findBySessionIdIn(List.of(1L)))
-                .thenReturn(List.of());
+        stubSeats(List.of());
 
         List<PracticeSessionDto> result = practiceSessionService.findSessionSummariesByYearMonth(year, month, null);
 
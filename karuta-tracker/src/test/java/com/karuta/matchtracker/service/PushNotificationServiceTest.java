@@ -0,0 +1,261 @@
+package com.karuta.matchtracker.service;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.karuta.matchtracker.config.WebPushConfig;
+import com.karuta.matchtracker.entity.PushSubscription;
+import com.karuta.matchtracker.repository.PushSubscriptionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.bouncycastle.jce.interfaces.ECPrivateKey;
+import org.bouncycastle.jce.interfaces.ECPublicKey;
+import org.bouncycastle.jce.provider.BouncyCastleProvider;
+import org.bouncycastle.util.BigIntegers;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.SecureRandom;
+import java.security.Security;
+import java.security.spec.ECGenParameterSpec;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+/**
+ * {@link PushNotificationService} のバッチ送信テスト。
+ * Push サービスを WireMock で立て、実際に VAPID 署名・暗号化した要求を送らせる。
+ */
+@DisplayName("PushNotificationService バッチ送信テスト (WireMock)")
+class PushNotificationServiceTest {
+
+    private WireMockServer wireMock;
+    private PushSubscriptionRepository repository;
+    private SimpleMeterRegistry meterRegistry;
+    private PushNotificationService service;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // h2c へのアップグレードを受けず HTTP/1.1 で返させる
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort().http2PlainDisabled(true));
+        wireMock.start();
+        wireMock.stubFor(post(urlPathEqualTo("/push/ok")).willReturn(aResponse().withStatus(201)));
+        wireMock.stubFor(post(urlPathEqualTo("/push/gone")).willReturn(aResponse().withStatus(410)));
+        wireMock.stubFor(post(urlPathEqualTo("/push/missing")).willReturn(aResponse().withStatus(404)));
+        wireMock.stubFor(post(urlPathEqualTo("/push/busy")).willReturn(aResponse().withStatus(503)));
+
+        if (Security.getProvider(BouncyCastleProvider.PROVIDER_NAME) == null) {
+            Security.addProvider(new BouncyCastleProvider());
+        }
+        KeyPair vapid = generateKeyPair();
+        WebPushConfig config = new WebPushConfig();
+        config.setPublicKey(publicKey(vapid));
+        config.setPrivateKey(privateKey(vapid));
+
+        repository = mock(PushSubscriptionRepository.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new PushNotificationService(repository, config, meterRegistry);
+        service.init();
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.close();
+        wireMock.stop();
+    }
+
+    @Test
+    @DisplayName("複数プレイヤーへの通知を1回の取得で送り、期限切れの購読は最後に一括削除する")
+    @SuppressWarnings("unchecked")
+    void deliverAll_sendsInParallelAndPrunesExpiredInOneDelete() throws Exception {
+        when(repository.findByPlayerIdIn(anyCollection())).thenReturn(List.of(
+                subscription(1L, 10L, "/push/ok"),
+                subscription(2L, 10L, "/push/gone"),
+                subscription(3L, 20L, "/push/busy"),
+                subscription(4L, 40L, "/push/missing")));
+
+        List<Boolean> results = service.deliverAll(List.of(
+                new PushNotificationService.PushRequest(10L, "抽選結果", "当選しました", "/practice"),
+                new PushNotificationService.PushRequest(20L, "抽選結果", "落選しました", "/practice"),
+                new PushNotificationService.PushRequest(30L, "抽選結果", "購読なし", null),
+                new PushNotificationService.PushRequest(40L, "抽選結果", "期限切れのみ", "/practice")));
+
+        // 1台届いた / 全台が一時的な失敗 / 送る先なし / 期限切れのみ
+        assertThat(results).containsExactly(true, false, true, true);
+        verify(repository, times(1)).findByPlayerIdIn(anyCollection());
+        verify(repository, never()).findByPlayerId(any());
+        ArgumentCaptor<Iterable<Long>> deleted = ArgumentCaptor.forClass(Iterable.class);
+        verify(repository, times(1)).deleteAllByIdInBatch(deleted.capture());
+        assertThat(deleted.getValue()).containsExactlyInAnyOrder(2L, 4L);
+        verify(repository, never()).delete(any());
+
+        wireMock.verify(postRequestedFor(urlPathEqualTo("/push/ok"))
+                .withHeader("Content-Encoding", equalTo("aes128gcm"))
+                .withHeader("Authorization", matching("vapid t=.+, k=.+"))
+                .withHeader("TTL", matching("\\d+")));
+        assertThat(meterRegistry.counter("web_push.sends", "result", "delivered").count()).isEqualTo(1);
+        assertThat(meterRegistry.counter("web_push.sends", "result", "expired").count()).isEqualTo(2);
+        assertThat(meterRegistry.counter("web_push.sends", "result", "failed").count()).isEqualTo(1);
+        assertThat(meterRegistry.get("web_push.batch").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("web_push.batch.throughput").summary().totalAmount()).isPositive();
+    }
+
+    @Test
+    @DisplayName("deliver は1件のバッチとして送る")
+    void deliver_sendsSingleRequestBatch() {
+        when(repository.findByPlayerIdIn(anyCollection())).thenReturn(List.of(subscription(1L, 10L, "/push/ok")));
+
+        assertThat(service.deliver(10L, "タイトル", "本文", "/notifications")).isTrue();
+
+        wireMock.verify(1, postRequestedFor(urlPathEqualTo("/push/ok")));
+        verify(repository, never()).deleteAllByIdInBatch(any());
+    }
+
+    @Test
+    @DisplayName("VAPID 鍵が未設定なら送らずに全件 true を返す")
+    void deliverAll_disabledSkipsEverything() {
+        PushNotificationService disabled =
+                new PushNotificationService(repository, new WebPushConfig(), meterRegistry);
+        disabled.init();
+
+        assertThat(disabled.deliverAll(List.of(
+                new PushNotificationService.PushRequest(10L, "t", "b", null),
+                new PushNotificationService.PushRequest(20L, "t", "b", null)))).containsExactly(true, true);
+        verifyNoInteractions(repository);
+    }
+
+    @Test
+    @DisplayName("ホストごとの上限を超えた送信は待ち行列に並び、先の送信が終わってから始まる")
+    void hostLimiter_queuesBeyondCap() {
+        PushNotificationService.HostLimiter limiter = new PushNotificationService.HostLimiter(2);
+        List<CompletableFuture<String>> upstream = new ArrayList<>();
+        AtomicInteger started = new AtomicInteger();
+        List<CompletableFuture<String>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(limiter.submit(() -> {
+                started.incrementAndGet();
+                CompletableFuture<String> call = new CompletableFuture<>();
+                upstream.add(call);
+                return call;
+            }, farDeadline()));
+        }
+
+        assertThat(started).hasValue(2);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.waiting()).isEqualTo(1);
+
+        upstream.get(0).complete("first");
+        assertThat(results.get(0)).isCompletedWithValue("first");
+        assertThat(started).hasValue(3);
+        assertThat(limiter.inFlight()).isEqualTo(2);
+        assertThat(limiter.waiting()).isZero();
+
+        upstream.get(1).completeExceptionally(new IllegalStateException("boom"));
+        upstream.get(2).complete("third");
+        assertThat(results.get(1)).isCompletedExceptionally();
+        assertThat(results.get(2)).isCompletedWithValue("third");
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("待ち行列に並んだまま期限を過ぎた送信は始めずに捨て、枠を次の送信へ回す")
+    void hostLimiter_skipsCallsQueuedPastDeadline() {
+        PushNotificationService.HostLimiter limiter = new PushNotificationService.HostLimiter(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        AtomicInteger started = new AtomicInteger();
+        CompletableFuture<String> running = limiter.submit(() -> first, farDeadline());
+        CompletableFuture<String> stale = limiter.submit(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("stale");
+        }, System.nanoTime() - 1);
+        CompletableFuture<String> fresh = limiter.submit(() -> {
+            started.incrementAndGet();
+            return CompletableFuture.completedFuture("fresh");
+        }, farDeadline());
+
+        assertThat(limiter.waiting()).isEqualTo(2);
+        first.complete("first");
+
+        assertThat(running).isCompletedWithValue("first");
+        assertThat(stale).isCompletedExceptionally();
+        assertThat(fresh).isCompletedWithValue("fresh");
+        assertThat(started).hasValue(1);
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    @Test
+    @DisplayName("期限切れ時には期限を過ぎた待ちだけを行列から外し、送信中の枠はそのまま残す")
+    void hostLimiter_drainExpiredRemovesOnlyStaleWaiters() {
+        PushNotificationService.HostLimiter limiter = new PushNotificationService.HostLimiter(1);
+        CompletableFuture<String> first = new CompletableFuture<>();
+        limiter.submit(() -> first, farDeadline());
+        CompletableFuture<String> stale = limiter.submit(CompletableFuture::new, System.nanoTime() - 1);
+        CompletableFuture<String> fresh = limiter.submit(() -> CompletableFuture.completedFuture("fresh"), farDeadline());
+
+        limiter.drainExpired();
+
+        assertThat(stale).isCompletedExceptionally();
+        assertThat(fresh).isNotDone();
+        assertThat(limiter.waiting()).isEqualTo(1);
+        assertThat(limiter.inFlight()).isEqualTo(1);
+
+        first.complete("first");
+        assertThat(fresh).isCompletedWithValue("fresh");
+        assertThat(limiter.inFlight()).isZero();
+    }
+
+    private static long farDeadline() {
+        return System.nanoTime() + TimeUnit.MINUTES.toNanos(1);
+    }
+
+    private PushSubscription subscription(Long id, Long playerId, String path) throws Exception {
+        KeyPair browser = generateKeyPair();
+        byte[] auth = new byte[16];
+        new SecureRandom().nextBytes(auth);
+        return PushSubscription.builder()
+                .id(id)
+                .playerId(playerId)
+                .endpoint("http://localhost:" + wireMock.port() + path)
+                .p256dhKey(publicKey(browser))
+                .authKey(Base64.getUrlEncoder().withoutPadding().encodeToString(auth))
+                .build();
+    }
+
+    private static KeyPair generateKeyPair() throws Exception {
+        KeyPairGenerator generator = KeyPairGenerator.getInstance("EC", BouncyCastleProvider.PROVIDER_NAME);
+        generator.initialize(new ECGenParameterSpec("secp256r1"));
+        return generator.generateKeyPair();
+    }
+
+    private static String publicKey(KeyPair keyPair) {
+        byte[] encoded = ((ECPublicKey) keyPair.getPublic()).getQ().getEncoded(false);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded);
+    }
+
+    private static String privateKey(KeyPair keyPair) {
+        byte[] encoded = BigIntegers.asUnsignedByteArray(32, ((ECPrivateKey) keyPair.getPrivate()).getD());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(encoded);
+    }
+}
@@ -0,0 +1,308 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipantChangeListener;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@DisplayName("SeatOccupancyService 単体テスト")
+class SeatOccupancyServiceTest {
+
+    private PracticeParticipantRepository practiceParticipantRepository;
+    private EntityManager entityManager;
+    private SimpleMeterRegistry meterRegistry;
+    private SeatOccupancyService service;
+
+    @BeforeEach
+    void setUp() {
+        practiceParticipantRepository = mock(PracticeParticipantRepository.class);
+        entityManager = mock(EntityManager.class);
+        meterRegistry = new SimpleMeterRegistry();
+        service = new SeatOccupancyService(practiceParticipantRepository, entityManager, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("集計行から試合別・ステータス別の人数と実質枠取得人数を引ける")
+    void snapshot_aggregatesRowsPerMatchAndStatus() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 5L},
+                new Object[]{1L, 1, ParticipantStatus.PENDING, 2L},
+                new Object[]{1L, 1, ParticipantStatus.OFFERED, 1L},
+                new Object[]{1L, 1, ParticipantStatus.WAITLISTED, 3L},
+                new Object[]{1L, 3, ParticipantStatus.CANCELLED, 4L}));
+
+        Map<Long, SeatOccupancyService.SessionSeats> result = service.snapshot(List.of(1L, 2L));
+
+        SeatOccupancyService.SessionSeats seats = result.get(1L);
+        assertThat(seats.occupied(1)).isEqualTo(8);
+        assertThat(seats.count(1, ParticipantStatus.WON, ParticipantStatus.OFFERED)).isEqualTo(6);
+        assertThat(seats.count(1, ParticipantStatus.WAITLISTED)).isEqualTo(3);
+        assertThat(seats.occupied(3)).isZero();
+        assertThat(seats.occupied(9)).isZero();
+        assertThat(seats.count(null, ParticipantStatus.WON)).isZero();
+        assertThat(result.get(2L)).isSameAs(SeatOccupancyService.SessionSeats.EMPTY);
+    }
+
+    @Test
+    @DisplayName("2回目以降はメモリから返し、DB を読まない")
+    void snapshot_servesFromCache() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 5L}));
+
+        service.snapshot(List.of(1L));
+        Map<Long, SeatOccupancyService.SessionSeats> second = service.snapshot(List.of(1L));
+
+        assertThat(second.get(1L).occupied(1)).isEqualTo(5);
+        verify(practiceParticipantRepository, times(1)).countSeatsBySessionIds(anyCollection());
+        assertThat(meterRegistry.counter("seat_occupancy.lookups", "result", "miss").count()).isEqualTo(1.0);
+        assertThat(meterRegistry.counter("seat_occupancy.lookups", "result", "hit").count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("current は初回だけ DB から読み、以後はメモリ上のカウンタから返す")
+    void current_seedsOnceAndServesCounter() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 2, ParticipantStatus.WON, 3L}));
+
+        assertThat(service.current(1L).count(2, ParticipantStatus.WON)).isEqualTo(3);
+        service.current(1L);
+        service.snapshot(List.of(1L));
+
+        verify(practiceParticipantRepository, times(1)).countSeatsBySessionIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("トランザクション外の差分はすぐにカウンタへ足す")
+    void seatDelta_outsideTransaction_appliesImmediately() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 5L},
+                new Object[]{1L, 1, ParticipantStatus.WAITLISTED, 1L}));
+        service.current(1L);
+
+        // キャンセル待ち → 当選
+        service.onSeatDelta(delta(1L, 1, ParticipantStatus.WAITLISTED, -1));
+        service.onSeatDelta(delta(1L, 1, ParticipantStatus.WON, 1));
+
+        SeatOccupancyService.SessionSeats seats = service.current(1L);
+        assertThat(seats.count(1, ParticipantStatus.WON)).isEqualTo(6);
+        assertThat(seats.count(1, ParticipantStatus.WAITLISTED)).isZero();
+        verify(practiceParticipantRepository, times(1)).countSeatsBySessionIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("トランザクション中の差分は自分の current にだけ見え、コミット後にカウンタへ足す")
+    void seatDelta_inTransaction_visibleToOwnCurrentAndAppliedOnCommit() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 5L}));
+        service.current(1L);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            service.onSeatDelta(delta(1L, 1, ParticipantStatus.OFFERED, 1));
+
+            assertThat(service.current(1L).count(1, ParticipantStatus.WON, ParticipantStatus.OFFERED)).isEqualTo(6);
+            // snapshot はコミット済みの人数
+            assertThat(service.snapshot(List.of(1L)).get(1L).occupied(1)).isEqualTo(5);
+        });
+
+        assertThat(service.current(1L).occupied(1)).isEqualTo(6);
+        verify(entityManager).flush();
+        verify(practiceParticipantRepository, times(1)).countSeatsBySessionIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("ロールバックされたトランザクションの差分はカウンタに反映しない")
+    void seatDelta_rolledBack_isDiscarded() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 5L}));
+        service.current(1L);
+
+        inTransaction(TransactionSynchronization.STATUS_ROLLED_BACK,
+                () -> service.onSeatDelta(delta(1L, 1, ParticipantStatus.WON, 1)));
+
+        assertThat(service.current(1L).occupied(1)).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("他のトランザクションがコミット処理中のセッションは DB から読み、カウンタに載せない")
+    void current_whileOtherTransactionCommitting_readsDatabase() throws Exception {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection()))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 5L}))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 6L}));
+        service.current(1L);
+
+        CountDownLatch changed = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService other = Executors.newSingleThreadExecutor();
+        try {
+            Future<?> tx = other.submit(() -> inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+                service.onSeatDelta(delta(1L, 1, ParticipantStatus.WON, 1));
+                changed.countDown();
+                await(release);
+            }));
+            await(changed);
+
+            // DB には既に反映済み・カウンタへの反映前
+            assertThat(service.current(1L).occupied(1)).isEqualTo(6);
+
+            release.countDown();
+            tx.get(5, TimeUnit.SECONDS);
+        } finally {
+            other.shutdownNow();
+        }
+
+        assertThat(service.current(1L).occupied(1)).isEqualTo(6);
+        verify(practiceParticipantRepository, times(2)).countSeatsBySessionIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("markChanged で捨てたセッションは次の参照で読み直す")
+    void markChanged_evictsSession() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection()))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 5L}))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 6L}));
+
+        service.snapshot(List.of(1L));
+        service.markChanged(1L);
+
+        assertThat(service.snapshot(List.of(1L)).get(1L).occupied(1)).isEqualTo(6);
+    }
+
+    @Test
+    @DisplayName("トランザクション中の markChanged はコミット後にカウンタを捨て、その間の current は DB から読む")
+    void markChanged_inTransaction_evictsOnCommit() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection()))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 5L}))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 8L}))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 8L}));
+        service.current(1L);
+
+        inTransaction(TransactionSynchronization.STATUS_COMMITTED, () -> {
+            service.markChanged(1L);
+            assertThat(service.current(1L).occupied(1)).isEqualTo(8);
+        });
+
+        assertThat(service.current(1L).occupied(1)).isEqualTo(8);
+        verify(practiceParticipantRepository, times(3)).countSeatsBySessionIds(anyCollection());
+    }
+
+    @Test
+    @DisplayName("変更を受け取ったセッションを登録済みのリスナーへ知らせる")
+    void seatDelta_notifiesChangeListeners() {
+        List<Long> changed = new ArrayList<>();
+        service.addChangeListener(changed::add);
+
+        service.onSeatDelta(delta(1L, 1, ParticipantStatus.WON, 1));
+        service.onSeatUnknown(new PracticeParticipantChangeListener.SeatUnknown(2L));
+
+        assertThat(changed).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("定期照合: ずれたセッションを数えて置き換え、参照の無かったセッションは捨てる")
+    void reconcile_countsDriftAndDropsIdleSessions() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection()))
+                .thenReturn(rows(
+                        new Object[]{1L, 1, ParticipantStatus.WON, 5L},
+                        new Object[]{2L, 1, ParticipantStatus.WON, 2L}))
+                .thenReturn(rows(
+                        new Object[]{1L, 1, ParticipantStatus.WON, 7L},
+                        new Object[]{2L, 1, ParticipantStatus.WON, 2L}));
+        service.snapshot(List.of(1L, 2L));
+
+        assertThat(service.reconcile()).isEqualTo(1);
+        assertThat(meterRegistry.counter("seat_occupancy.drift").count()).isEqualTo(1.0);
+        assertThat(service.snapshot(List.of(1L)).get(1L).occupied(1)).isEqualTo(7);
+        assertThat(meterRegistry.get("seat_occupancy.sessions").gauge().value()).isEqualTo(2.0);
+
+        // 前回の照合以降にセッション1だけが参照された → セッション2は捨てる
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection())).thenReturn(rows(
+                new Object[]{1L, 1, ParticipantStatus.WON, 7L}));
+        assertThat(service.reconcile()).isZero();
+        assertThat(meterRegistry.get("seat_occupancy.sessions").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("SessionSeats: 試合番号に上限は無く、負の試合番号は例外にする")
+    void sessionSeats_sizesFromDataAndRejectsNegativeMatchNumber() {
+        SeatOccupancyService.SessionSeats seats = SeatOccupancyService.SessionSeats.builder()
+                .add(150, ParticipantStatus.WON, 2)
+                .build();
+
+        assertThat(seats.occupied(150)).isEqualTo(2);
+        assertThatThrownBy(() -> SeatOccupancyService.SessionSeats.builder().add(-1, ParticipantStatus.WON, 1))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    @DisplayName("SessionSeats: 差分を積み上げても同じ人数なら DB から読んだ集計と等しい")
+    void sessionSeats_equalAfterDeltas() {
+        when(practiceParticipantRepository.countSeatsBySessionIds(anyCollection()))
+                .thenReturn(rows(new Object[]{1L, 1, ParticipantStatus.WON, 1L}))
+                .thenReturn(rows());
+        service.current(1L);
+
+        service.onSeatDelta(delta(1L, 7, ParticipantStatus.WON, 1));
+        service.onSeatDelta(delta(1L, 7, ParticipantStatus.WON, -1));
+        service.onSeatDelta(delta(1L, 1, ParticipantStatus.WON, -1));
+
+        assertThat(service.current(1L)).isEqualTo(SeatOccupancyService.SessionSeats.EMPTY);
+        assertThat(service.reconcile()).isZero();
+    }
+
+    private static PracticeParticipantChangeListener.SeatDelta delta(Long sessionId, Integer matchNumber,
+                                                                     ParticipantStatus status, int delta) {
+        return new PracticeParticipantChangeListener.SeatDelta(
+                new PracticeParticipantChangeListener.Seat(sessionId, matchNumber, status), delta);
+    }
+
+    /** 書き込みトランザクションを模して body を実行し、指定の結果で完了させる */
+    private static void inTransaction(int status, Runnable body) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        try {
+            body.run();
+            List<TransactionSynchronization> synchronizations =
+                    new ArrayList<>(TransactionSynchronizationManager.getSynchronizations());
+            synchronizations.forEach(s -> s.afterCompletion(status));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+            TransactionSynchronizationManager.setActualTransactionActive(false);
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            assertThat(latch.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
@@ -0,0 +1,279 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.dto.PracticeSessionDto;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.entity.Venue;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.*;
+
+@DisplayName("SessionSummaryCache テスト")
+class SessionSummaryCacheTest {
+
+    private static final Long ORG_1 = 1L;
+    private static final Long ORG_2 = 2L;
+    private static final YearMonth JUNE = YearMonth.of(2026, 6);
+
+    private final PracticeSessionRepository practiceSessionRepository = mock(PracticeSessionRepository.class);
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final SeatOccupancyService seatOccupancyService =
+            new SeatOccupancyService(mock(PracticeParticipantRepository.class), mock(EntityManager.class), meterRegistry);
+
+    private SessionSummaryCache cache;
+
+    @BeforeEach
+    void setUp() {
+        cache = new SessionSummaryCache(seatOccupancyService, transactionManager, meterRegistry);
+        cache.registerSeatListener();
+    }
+
+    private static PracticeSession session(Long id, Long orgId, LocalDate date) {
+        return PracticeSession.builder().id(id).organizationId(orgId).sessionDate(date).totalMatches(7).build();
+    }
+
+    /** 本番の読み込み（PracticeSessionService#loadSessionSummaries）の代わりに練習日を読んで DTO にする */
+    private Supplier<List<PracticeSessionDto>> loader(List<Long> orgIds) {
+        return () -> practiceSessionRepository
+                .findByOrganizationIdInAndYearAndMonth(orgIds, JUNE.getYear(), JUNE.getMonthValue())
+                .stream()
+                .map(s -> summary(s.getId()).sessionDate(s.getSessionDate()).build())
+                .toList();
+    }
+
+    /** 試合別定員まで集計できたサマリー行 */
+    private static PracticeSessionDto.PracticeSessionDtoBuilder summary(Long id) {
+        return PracticeSessionDto.builder().id(id)
+                .matchCapacityStatuses(List.of(PracticeSessionDto.CapacityStatus.AVAILABLE));
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("session_summary.requests").tag("result", result).counter().count();
+    }
+
+    @ParameterizedTest(name = "同時 {0} 件")
+    @ValueSource(ints = {1, 16, 64, 256})
+    @DisplayName("同じ月の同時要求は何件来ても DB の読み込みは1回で、全員が同じ結果を受け取る")
+    void concurrentCallers_loadOnce(int callers) throws Exception {
+        List<Long> orgIds = List.of(ORG_1);
+        // 読み込み中に残りの全員が相乗りするまで、DB 読み込みを終わらせない
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(orgIds, 2026, 6)).thenAnswer(inv -> {
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (requests("coalesced") < callers - 1 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            return List.of(session(100L, ORG_1, LocalDate.of(2026, 6, 10)),
+                    session(101L, ORG_1, LocalDate.of(2026, 6, 17)));
+        });
+
+        ExecutorService executor = Executors.newFixedThreadPool(callers);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<List<PracticeSessionDto>>> results = new ArrayList<>();
+            for (int i = 0; i < callers; i++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    return cache.get(orgIds, JUNE, loader(orgIds));
+                }));
+            }
+            start.countDown();
+
+            List<PracticeSessionDto> first = results.get(0).get(15, TimeUnit.SECONDS);
+            assertThat(first).extracting(PracticeSessionDto::getId).containsExactly(100L, 101L);
+            for (Future<List<PracticeSessionDto>> result : results) {
+                assertThat(result.get(15, TimeUnit.SECONDS)).isSameAs(first);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        verify(practiceSessionRepository, times(1)).findByOrganizationIdInAndYearAndMonth(orgIds, 2026, 6);
+        assertThat(requests("load")).isEqualTo(1.0);
+        assertThat(requests("coalesced")).isEqualTo(callers - 1.0);
+        // トランザクションを開くのは読み込む1件だけ。待つ側は DB 接続を持たない
+        verify(transactionManager, times(1)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("読み込み中の結果を待ちきれなければ自分で読み込み、その結果は保持しない")
+    void slowLoad_waiterFallsBackToOwnLoad() throws Exception {
+        ReflectionTestUtils.setField(cache, "joinTimeout", Duration.ofMillis(50));
+        CountDownLatch leaderLoading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<List<PracticeSessionDto>> stuck = () -> {
+            leaderLoading.countDown();
+            try {
+                release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return List.of(summary(100L).build());
+        };
+        Supplier<List<PracticeSessionDto>> own = () -> List.of(summary(100L).build(), summary(101L).build());
+
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<PracticeSessionDto>> leader = executor.submit(() -> cache.get(null, JUNE, stuck));
+            assertThat(leaderLoading.await(5, TimeUnit.SECONDS)).isTrue();
+
+            assertThat(cache.get(null, JUNE, own)).extracting(PracticeSessionDto::getId).containsExactly(100L, 101L);
+
+            release.countDown();
+            assertThat(leader.get(5, TimeUnit.SECONDS)).extracting(PracticeSessionDto::getId).containsExactly(100L);
+        } finally {
+            executor.shutdownNow();
+        }
+
+        // 保持されるのは最初の要求の結果
+        assertThat(cache.get(null, JUNE, own)).extracting(PracticeSessionDto::getId).containsExactly(100L);
+        assertThat(requests("timeout")).isEqualTo(1.0);
+        verify(transactionManager, times(2)).getTransaction(argThat(TransactionDefinition::isReadOnly));
+    }
+
+    @Test
+    @DisplayName("読み込み済みの月は保持中の結果を返し、団体の並び順・重複はキーに影響しない")
+    void loadedMonth_servedFromCache() {
+        List<Long> orgIds = List.of(ORG_2, ORG_1);
+        when(practiceSessionRepository.findByOrganizationIdInAndYearAndMonth(orgIds, 2026, 6))
+                .thenReturn(List.of(session(100L, ORG_1, LocalDate.of(2026, 6, 10))));
+
+        cache.get(orgIds, JUNE, loader(orgIds));
+        List<PracticeSessionDto> again = cache.get(List.of(ORG_1, ORG_2, ORG_1), JUNE, loader(orgIds));
+
+        assertThat(again).extracting(PracticeSessionDto::getId).containsExactly(100L);
+        verify(practiceSessionRepository, times(1)).findByOrganizationIdInAndYearAndMonth(orgIds, 2026, 6);
+        assertThat(requests("hit")).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("参加者の変更（SeatOccupancyService 経由）は、そのセッションを含む月だけ捨てる")
+    void participantChange_evictsMonthContainingSession() {
+        AtomicInteger juneLoads = new AtomicInteger();
+        AtomicInteger julyLoads = new AtomicInteger();
+        Supplier<List<PracticeSessionDto>> june = () -> {
+            juneLoads.incrementAndGet();
+            return List.of(summary(100L).build());
+        };
+        Supplier<List<PracticeSessionDto>> july = () -> {
+            julyLoads.incrementAndGet();
+            return List.of(summary(200L).build());
+        };
+        cache.get(null, JUNE, june);
+        cache.get(null, JUNE.plusMonths(1), july);
+
+        seatOccupancyService.markChanged(100L);
+        cache.get(null, JUNE, june);
+        cache.get(null, JUNE.plusMonths(1), july);
+
+        assertThat(juneLoads).hasValue(2);
+        assertThat(julyLoads).hasValue(1);
+    }
+
+    @Test
+    @DisplayName("読み込み中に届いた参加者の変更は、読み込んだ結果にそのセッションが含まれるときだけ結果を捨てる")
+    void participantChangeDuringLoad_dropsOnlyAffectedLoad() {
+        AtomicInteger juneLoads = new AtomicInteger();
+        AtomicInteger julyLoads = new AtomicInteger();
+        // 6月の読み込み中に7月のセッション(200)が変わる → 6月の結果は残す
+        Supplier<List<PracticeSessionDto>> june = () -> {
+            juneLoads.incrementAndGet();
+            seatOccupancyService.markChanged(200L);
+            return List.of(summary(100L).build());
+        };
+        // 7月の読み込み中に7月のセッション(200)自身が変わる → 変更前の値かもしれないので残さない
+        Supplier<List<PracticeSessionDto>> july = () -> {
+            julyLoads.incrementAndGet();
+            seatOccupancyService.markChanged(200L);
+            return List.of(summary(200L).build());
+        };
+
+        cache.get(null, JUNE, june);
+        cache.get(null, JUNE, june);
+        cache.get(null, JUNE.plusMonths(1), july);
+        cache.get(null, JUNE.plusMonths(1), july);
+
+        assertThat(juneLoads).hasValue(1);
+        assertThat(julyLoads).hasValue(2);
+    }
+
+    @Test
+    @DisplayName("試合別定員を集計できなかった（matchCapacityStatuses が null の）結果は返すが保持しない")
+    void nullCapacityStatuses_notCached() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<PracticeSessionDto>> degraded = () -> {
+            loads.incrementAndGet();
+            return List.of(summary(100L).build(), PracticeSessionDto.builder().id(101L).build());
+        };
+
+        List<PracticeSessionDto> first = cache.get(List.of(ORG_1), JUNE, degraded);
+        cache.get(List.of(ORG_1), JUNE, degraded);
+
+        assertThat(first).extracting(PracticeSessionDto::getId).containsExactly(100L, 101L);
+        assertThat(loads).hasValue(2);
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("練習日の追加はその団体・月を含むキーを捨て、会場の変更は全体を捨てる")
+    void entityChange_evictsCoveringKeys() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<List<PracticeSessionDto>> empty = () -> {
+            loads.incrementAndGet();
+            return List.of();
+        };
+        cache.get(List.of(ORG_1), JUNE, empty);
+        cache.get(List.of(ORG_2), JUNE, empty);
+        assertThat(loads).hasValue(2);
+
+        // 団体1の6月に練習日が増えた → 団体1の6月だけ読み直す
+        cache.onEntityChanged(session(300L, ORG_1, LocalDate.of(2026, 6, 24)));
+        cache.get(List.of(ORG_1), JUNE, empty);
+        cache.get(List.of(ORG_2), JUNE, empty);
+        assertThat(loads).hasValue(3);
+
+        cache.onEntityChanged(Venue.builder().id(5L).name("会場").build());
+        cache.get(List.of(ORG_1), JUNE, empty);
+        cache.get(List.of(ORG_2), JUNE, empty);
+        assertThat(loads).hasValue(5);
+    }
+
+    @Test
+    @DisplayName("読み込みの例外は呼び出し元に返し、結果は残さない")
+    void loadFailure_notCached() {
+        assertThatThrownBy(() -> cache.get(List.of(ORG_1), JUNE, () -> {
+            throw new IllegalStateException("db down");
+        })).isInstanceOf(IllegalStateException.class).hasMessage("db down");
+
+        List<PracticeSessionDto> result = cache.get(List.of(ORG_1), JUNE,
+                () -> List.of(summary(100L).build()));
+
+        assertThat(result).extracting(PracticeSessionDto::getId).containsExactly(100L);
+        assertThat(requests("load")).isEqualTo(2.0);
+    }
+}
@@ -7,6 +7,7 @@ import com.karuta.matchtracker.entity.PracticeSession;
 import com.karuta.matchtracker.repository.PlayerRepository;
 import com.karuta.matchtracker.repository.PracticeParticipantRepository;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -22,6 +23,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.lenient;
 import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -38,10 +40,18 @@ class WaitlistPromotionServiceAdditionalTest {
     @Mock private LineNotificationService lineNotificationService;
     @Mock private DensukeSyncService densukeSyncService;
     @Mock private DensukeDeletionGuard densukeDeletionGuard;
+    @Mock private PracticeSlotLock practiceSlotLock;
+    @Mock private OfferDeadlineTimer offerDeadlineTimer;
+    @Mock private SeatOccupancyService seatOccupancyService;
 
     @InjectMocks
     private WaitlistPromotionService service;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
+    }
+
     @Test
     @DisplayName("demoteToWaitlist excludes demoted player from immediate promotion")
     void demoteToWaitlist_excludesDemotedPlayerFromImmediatePromotion() {
@@ -211,10 +221,8 @@ class WaitlistPromotionServiceAdditionalTest {
         when(lotteryDeadlineHelper.calculateOfferDeadline(any())).thenReturn(futureDeadline);
         when(practiceParticipantRepository.findBySessionIdAndStatus(100L, ParticipantStatus.WAITLISTED))
                 .thenReturn(List.of(w1, w2));
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(14L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 14).build());
         when(practiceParticipantRepository
                 .findBySessionIdAndMatchNumberAndStatusInOrderByWaitlistNumberAsc(
                         eq(100L), eq(1), eq(List.of(ParticipantStatus.WAITLISTED, ParticipantStatus.OFFERED))))
@@ -261,10 +269,8 @@ class WaitlistPromotionServiceAdditionalTest {
         // 入力順をシャッフルしても waitlist_number 順で処理されることを確認
         when(practiceParticipantRepository.findBySessionIdAndStatus(100L, ParticipantStatus.WAITLISTED))
                 .thenReturn(List.of(w3, w1, w4, w2));
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                .thenReturn(18L);
-        when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.OFFERED))
-                .thenReturn(0L);
+        when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                .add(1, ParticipantStatus.WON, 18).build());
         // renumberRemainingWaitlist 用：OFFERED→#1,#2、残WAITLISTED→#3,#4 の並び
         when(practiceParticipantRepository
                 .findBySessionIdAndMatchNumberAndStatusInOrderByWaitlistNumberAsc(
@@ -325,8 +331,7 @@ class WaitlistPromotionServiceAdditionalTest {
 
         service.promoteWaitlistedAfterCapacityIncrease(100L);
 
-        // count 系は呼ばれない
-        verify(practiceParticipantRepository, never())
-                .countBySessionIdAndMatchNumberAndStatus(eq(100L), org.mockito.ArgumentMatchers.anyInt(), eq(ParticipantStatus.WON));
+        // 枠の集計は参照しない
+        verify(seatOccupancyService, never()).current(any());
     }
 }
\ No newline at end of file
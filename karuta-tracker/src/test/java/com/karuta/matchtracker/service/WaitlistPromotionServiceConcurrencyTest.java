@@ -0,0 +1,195 @@
+package com.karuta.matchtracker.service;
+
+import com.karuta.matchtracker.entity.ParticipantStatus;
+import com.karuta.matchtracker.entity.PracticeParticipant;
+import com.karuta.matchtracker.entity.PracticeSession;
+import com.karuta.matchtracker.repository.PlayerRepository;
+import com.karuta.matchtracker.repository.PracticeParticipantRepository;
+import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import com.karuta.matchtracker.util.JstDateTimeUtil;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 当日補充参加の同時実行テスト。
+ *
+ * <p>リポジトリは読み書きが競合し得るインメモリ実装に差し替え、空き枠確認と保存の間にわずかな待ちを入れて
+ * 競合窓を広げた上で、数百件の参加を並列に投げても定員を超えないことを確認する。
+ */
+@DisplayName("WaitlistPromotionService 当日補充参加 同時実行テスト")
+class WaitlistPromotionServiceConcurrencyTest {
+
+    private static final Long SESSION_ID = 100L;
+    private static final int CAPACITY = 6;
+    private static final int TOTAL_MATCHES = 3;
+
+    private final List<PracticeParticipant> store = new ArrayList<>();
+    private WaitlistPromotionService service;
+
+    @BeforeEach
+    void setUp() {
+        PracticeParticipantRepository participantRepository = mock(PracticeParticipantRepository.class);
+        PracticeSessionRepository sessionRepository = mock(PracticeSessionRepository.class);
+        PlayerRepository playerRepository = mock(PlayerRepository.class);
+
+        PracticeSession session = PracticeSession.builder()
+                .id(SESSION_ID).organizationId(1L).sessionDate(JstDateTimeUtil.today())
+                .capacity(CAPACITY).totalMatches(TOTAL_MATCHES).build();
+        when(sessionRepository.findById(SESSION_ID)).thenReturn(Optional.of(session));
+        when(playerRepository.findById(anyLong())).thenReturn(Optional.empty());
+
+        when(participantRepository.findBySessionIdAndPlayerIdAndMatchNumber(eq(SESSION_ID), anyLong(), anyInt()))
+                .thenAnswer(inv -> snapshot(p -> p.getPlayerId().equals(inv.getArgument(1))
+                        && p.getMatchNumber().equals(inv.getArgument(2))));
+        when(participantRepository.findBySessionIdAndMatchNumberAndStatus(eq(SESSION_ID), anyInt(), eq(ParticipantStatus.WON)))
+                .thenAnswer(inv -> {
+                    List<PracticeParticipant> won = snapshot(p -> p.getMatchNumber().equals(inv.getArgument(1))
+                            && p.getStatus() == ParticipantStatus.WON);
+                    // 読み取りから保存までの競合窓を広げる
+                    Thread.sleep(1);
+                    return won;
+                });
+        when(participantRepository.save(any(PracticeParticipant.class))).thenAnswer(inv -> {
+            PracticeParticipant p = inv.getArgument(0);
+            synchronized (store) {
+                if (!store.contains(p)) {
+                    store.add(p);
+                }
+            }
+            return p;
+        });
+
+        service = new WaitlistPromotionService(
+                participantRepository, sessionRepository, playerRepository,
+                mock(LotteryDeadlineHelper.class), mock(NotificationService.class),
+                mock(LineNotificationService.class), mock(DensukeSyncService.class),
+                mock(DensukeDeletionGuard.class), new PracticeSlotLock(mock(JdbcTemplate.class)),
+                mock(OfferDeadlineTimer.class), mock(SeatOccupancyService.class));
+    }
+
+    @Test
+    @DisplayName("同じ試合への並列参加は定員ちょうどで打ち止めになり、残りは定員エラーになる")
+    void handleSameDayJoin_parallelNeverExceedsCapacity() throws Exception {
+        int attempts = 300;
+        AtomicInteger joined = new AtomicInteger();
+        AtomicInteger rejected = new AtomicInteger();
+
+        runConcurrently(attempts, i -> {
+            try {
+                service.handleSameDayJoin(SESSION_ID, 1, 1000L + i);
+                joined.incrementAndGet();
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage()).contains("定員");
+                rejected.incrementAndGet();
+            }
+        });
+
+        assertThat(joined.get()).isEqualTo(CAPACITY);
+        assertThat(rejected.get()).isEqualTo(attempts - CAPACITY);
+        assertThat(wonCount(1)).isEqualTo(CAPACITY);
+    }
+
+    @Test
+    @DisplayName("単一試合参加と一括参加が混在しても、どの試合も定員を超えない")
+    void mixedJoinAndJoinAll_neverExceedCapacity() throws Exception {
+        int attempts = 300;
+
+        runConcurrently(attempts, i -> {
+            long playerId = 2000L + i;
+            try {
+                if (i % 3 == 0) {
+                    service.handleSameDayJoinAll(SESSION_ID, playerId, null);
+                } else {
+                    service.handleSameDayJoin(SESSION_ID, 1 + (i % TOTAL_MATCHES), playerId);
+                }
+            } catch (IllegalStateException e) {
+                assertThat(e.getMessage()).contains("定員");
+            }
+        });
+
+        for (int match = 1; match <= TOTAL_MATCHES; match++) {
+            assertThat(wonCount(match)).as("match %d", match).isEqualTo(CAPACITY);
+        }
+    }
+
+    @Test
+    @DisplayName("別セッションの枠ロックは互いに待たない")
+    void slotLock_otherSessionDoesNotBlock() throws Exception {
+        PracticeSlotLock lock = new PracticeSlotLock(mock(JdbcTemplate.class));
+        long otherSession = SESSION_ID + 1;
+        while (PracticeSlotLock.stripe(otherSession, 1) == PracticeSlotLock.stripe(SESSION_ID, 1)) {
+            otherSession++;
+        }
+        long other = otherSession;
+
+        try (PracticeSlotLock.Handle held = lock.acquire(SESSION_ID, 1)) {
+            ExecutorService executor = Executors.newSingleThreadExecutor();
+            try {
+                Future<?> f = executor.submit(() -> {
+                    try (PracticeSlotLock.Handle h = lock.acquire(other, 1)) {
+                        return null;
+                    }
+                });
+                f.get(2, TimeUnit.SECONDS);
+            } finally {
+                executor.shutdownNow();
+            }
+        }
+    }
+
+    private interface Attempt {
+        void run(int i) throws Exception;
+    }
+
+    private static void runConcurrently(int attempts, Attempt attempt) throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(64);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        try {
+            for (int i = 0; i < attempts; i++) {
+                int n = i;
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    attempt.run(n);
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> f : futures) {
+                f.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    private long wonCount(int matchNumber) {
+        return snapshot(p -> p.getMatchNumber() == matchNumber && p.getStatus() == ParticipantStatus.WON).size();
+    }
+
+    private List<PracticeParticipant> snapshot(java.util.function.Predicate<PracticeParticipant> filter) {
+        synchronized (store) {
+            return store.stream().filter(filter).toList();
+        }
+    }
+}
@@ -13,6 +13,7 @@ import com.karuta.matchtracker.util.JstDateTimeUtil;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.LocalTime;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
@@ -61,10 +62,21 @@ class WaitlistPromotionServiceTest {
     private DensukeSyncService densukeSyncService;
     @Mock
     private DensukeDeletionGuard densukeDeletionGuard;
+    @Mock
+    private PracticeSlotLock practiceSlotLock;
+    @Mock
+    private OfferDeadlineTimer offerDeadlineTimer;
+    @Mock
+    private SeatOccupancyService seatOccupancyService;
 
     @InjectMocks
     private WaitlistPromotionService service;
 
+    @BeforeEach
+    void setUp() {
+        lenient().when(seatOccupancyService.current(any())).thenReturn(SeatOccupancyService.SessionSeats.EMPTY);
+    }
+
     @Test
     @DisplayName("セッション単位でキャンセル待ちを辞退できる")
     void declineWaitlistBySession_success() {
@@ -756,8 +768,8 @@ class WaitlistPromotionServiceTest {
 
             when(practiceParticipantRepository.findBySessionIdAndStatus(100L, ParticipantStatus.OFFERED))
                     .thenReturn(List.of(offered));
-            when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(13L);
+            when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                    .add(1, ParticipantStatus.WON, 13).build());
 
             service.expireOfferedForSameDayConfirmation(session);
 
@@ -781,8 +793,8 @@ class WaitlistPromotionServiceTest {
 
             when(practiceParticipantRepository.findBySessionIdAndStatus(100L, ParticipantStatus.OFFERED))
                     .thenReturn(List.of(offered));
-            when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(13L); // 13/14 → 1枠空き
+            when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                    .add(1, ParticipantStatus.WON, 13).build()); // 13/14 → 1枠空き
 
             service.expireOfferedForSameDayConfirmation(session);
 
@@ -801,8 +813,8 @@ class WaitlistPromotionServiceTest {
 
             when(practiceParticipantRepository.findBySessionIdAndStatus(100L, ParticipantStatus.OFFERED))
                     .thenReturn(List.of(offered));
-            when(practiceParticipantRepository.countBySessionIdAndMatchNumberAndStatus(100L, 1, ParticipantStatus.WON))
-                    .thenReturn(14L); // 14/14 → 空きなし
+            when(seatOccupancyService.current(100L)).thenReturn(SeatOccupancyService.SessionSeats.builder()
+                    .add(1, ParticipantStatus.WON, 14).build()); // 14/14 → 空きなし
 
             service.expireOfferedForSameDayConfirmation(session);
 
@@ -0,0 +1,275 @@
+package com.karuta.matchtracker.service.proxy;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.karuta.matchtracker.config.VenueReservationProxyConfig;
+import com.karuta.matchtracker.repository.PracticeSessionRepository;
+import com.karuta.matchtracker.service.proxy.venue.VenueConfig;
+import com.karuta.matchtracker.service.proxy.venue.kaderu.KaderuRewriteStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.HttpVersion;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpUriRequest;
+import org.apache.http.client.protocol.HttpClientContext;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.message.BasicHttpResponse;
+import org.apache.http.message.BasicStatusLine;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockHttpServletRequest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.absent;
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.equalTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 静的アセットのセッション横断キャッシュ ({@link VenueAssetCache}) のテスト。
+ * 会場サイトを WireMock で立て、{@link VenueReservationProxyService#fetch} を2つのプロキシセッションから
+ * 呼んで上流への要求数を数える。
+ */
+@DisplayName("VenueAssetCache テスト (WireMock)")
+class VenueAssetCacheTest {
+
+    private static final String CSS_PATH = "/kaderu27/css/style.css";
+    private static final String JS_PATH = "/kaderu27/script/default.js";
+    private static final String ETAG_PATH = "/kaderu27/img/logo.png";
+    private static final String PRIVATE_PATH = "/kaderu27/img/private.png";
+    private static final String HTML_PATH = "/kaderu27/index.php";
+
+    private WireMockServer wireMock;
+    private CloseableHttpClient httpClient;
+    private SimpleMeterRegistry meterRegistry;
+    private VenueAssetCache assetCache;
+    private VenueReservationSessionStore sessionStore;
+    private VenueReservationProxyService service;
+    private final AtomicLong clock = new AtomicLong();
+
+    @BeforeEach
+    void setUp() {
+        // gzip を切って Vary ヘッダを付けさせない (共有可否の判定を上流の Cache-Control だけで見るため)
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort().gzipDisabled(true));
+        wireMock.start();
+        wireMock.stubFor(get(urlPathEqualTo(CSS_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "text/css; charset=UTF-8")
+                .withHeader("Cache-Control", "public, max-age=3600")
+                .withBody("@import url(color_local.css?25004) screen;\n.header { background: url(../img/bg.png); }")));
+        wireMock.stubFor(get(urlPathEqualTo(JS_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "application/javascript")
+                .withHeader("Cache-Control", "max-age=600")
+                .withBody("function gotoPage(p) { document.forms[0].submit(); }")));
+        wireMock.stubFor(get(urlPathEqualTo(ETAG_PATH)).withHeader("If-None-Match", absent()).willReturn(aResponse()
+                .withHeader("Content-Type", "image/png")
+                .withHeader("Cache-Control", "no-cache")
+                .withHeader("ETag", "\"v1\"")
+                .withBody(new byte[] {(byte) 0x89, 'P', 'N', 'G'})));
+        wireMock.stubFor(get(urlPathEqualTo(ETAG_PATH)).withHeader("If-None-Match", equalTo("\"v1\"")).willReturn(aResponse()
+                .withStatus(304)
+                .withHeader("ETag", "\"v1\"")));
+        wireMock.stubFor(get(urlPathEqualTo(PRIVATE_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "image/png")
+                .withHeader("Cache-Control", "private, max-age=3600")
+                .withBody(new byte[] {1, 2, 3})));
+        wireMock.stubFor(get(urlPathEqualTo(HTML_PATH)).willReturn(aResponse()
+                .withHeader("Content-Type", "text/html; charset=UTF-8")
+                .withHeader("Cache-Control", "max-age=3600")
+                .withBody("<html><body>申込トレイ</body></html>")));
+
+        String baseUrl = "http://localhost:" + wireMock.port();
+        VenueReservationProxyConfig proxyConfig = new VenueReservationProxyConfig();
+        VenueReservationProxyConfig.VenueProperties kaderu = new VenueReservationProxyConfig.VenueProperties();
+        kaderu.setEnabled(true);
+        kaderu.setBaseUrl(baseUrl);
+        proxyConfig.getVenues().put("kaderu", kaderu);
+
+        httpClient = HttpClients.createDefault();
+        VenueReservationClient client = new VenueReservationClient() {
+            @Override public VenueId venue() { return VenueId.KADERU; }
+            @Override public void prepareReservationTray(ProxySession session) { }
+            @Override public CloseableHttpResponse fetch(ProxySession session, HttpUriRequest request) {
+                HttpClientContext context = HttpClientContext.create();
+                context.setCookieStore(session.getCookies());
+                try {
+                    return httpClient.execute(request, context);
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+        };
+        VenueConfig venueConfig = new VenueConfig() {
+            @Override public VenueId venue() { return VenueId.KADERU; }
+            @Override public String baseUrl() { return baseUrl; }
+            @Override public String displayName() { return "かでる2・7"; }
+            @Override public Duration sessionTimeout() { return Duration.ofMinutes(15); }
+        };
+
+        meterRegistry = new SimpleMeterRegistry();
+        assetCache = new VenueAssetCache(meterRegistry);
+        assetCache.nanoClock = clock::get;
+        sessionStore = new VenueReservationSessionStore(proxyConfig);
+        service = new VenueReservationProxyService(
+                proxyConfig,
+                sessionStore,
+                new VenueReservationHtmlRewriter(),
+                mock(VenueReservationCompletionDetector.class),
+                assetCache,
+                mock(PracticeSessionRepository.class),
+                List.of(client),
+                List.of(venueConfig),
+                List.of(new KaderuRewriteStrategy()),
+                "");
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        wireMock.stop();
+    }
+
+    @Test
+    @DisplayName("2つ目のセッションは上流に問い合わせず、自分の token を埋めた書き換え済み CSS を受け取る")
+    void secondSessionServedWithoutUpstreamRequest() {
+        String tokenA = newSession();
+        String tokenB = newSession();
+
+        String cssA = body(fetch(tokenA, CSS_PATH, "25007"));
+        String cssB = body(fetch(tokenB, CSS_PATH, "25007"));
+        fetch(tokenA, JS_PATH, null);
+        fetch(tokenB, JS_PATH, null);
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(CSS_PATH)));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(JS_PATH)));
+        assertThat(cssA).contains("/kaderu27/css/color_local.css?25004&token=" + tokenA);
+        assertThat(cssB).contains("/kaderu27/css/color_local.css?25004&token=" + tokenB)
+                .contains("/kaderu27/img/bg.png?token=" + tokenB)
+                .doesNotContain(tokenA);
+        assertThat(cssB).isEqualTo(cssA.replace(tokenA, tokenB));
+        assertThat(requests("hit")).isEqualTo(2);
+        assertThat(requests("miss")).isEqualTo(2);
+        assertThat(meterRegistry.get("venue_proxy.asset_cache.hit_ratio").gauge().value()).isEqualTo(0.5);
+    }
+
+    @Test
+    @DisplayName("鮮度が切れて検証子も無いアセットは上流から取り直す")
+    void expiredWithoutValidatorRefetched() {
+        String tokenA = newSession();
+        String tokenB = newSession();
+
+        fetch(tokenA, JS_PATH, null);
+        clock.addAndGet(Duration.ofSeconds(601).toNanos());
+        fetch(tokenB, JS_PATH, null);
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(JS_PATH)));
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("no-cache + ETag のアセットは条件付き GET で確かめ、304 なら保持中の本文を返す")
+    void noCacheWithEtagRevalidated() {
+        String tokenA = newSession();
+        String tokenB = newSession();
+
+        ResponseEntity<byte[]> first = fetch(tokenA, ETAG_PATH, null);
+        ResponseEntity<byte[]> second = fetch(tokenB, ETAG_PATH, null);
+
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(ETAG_PATH)).withHeader("If-None-Match", absent()));
+        wireMock.verify(1, getRequestedFor(urlPathEqualTo(ETAG_PATH)).withHeader("If-None-Match", equalTo("\"v1\"")));
+        assertThat(second.getStatusCode().value()).isEqualTo(200);
+        assertThat(second.getBody()).isEqualTo(first.getBody());
+        assertThat(second.getHeaders().getContentLength()).isEqualTo(first.getBody().length);
+        assertThat(requests("revalidated")).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("private な応答と HTML はセッションをまたいで共有しない")
+    void privateAndHtmlNotShared() {
+        String tokenA = newSession();
+        String tokenB = newSession();
+
+        fetch(tokenA, PRIVATE_PATH, null);
+        fetch(tokenB, PRIVATE_PATH, null);
+        fetch(tokenA, HTML_PATH, "p=tray");
+        fetch(tokenB, HTML_PATH, "p=tray");
+
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(PRIVATE_PATH)));
+        wireMock.verify(2, getRequestedFor(urlPathEqualTo(HTML_PATH)));
+        assertThat(requests("hit")).isZero();
+    }
+
+    @Test
+    @DisplayName("鮮度は s-maxage > max-age > Expires の順に読み、Age を差し引く")
+    void readsFreshness() {
+        BasicHttpResponse both = response();
+        both.addHeader("Cache-Control", "max-age=60, s-maxage=300");
+        both.addHeader("Age", "100");
+        assertThat(VenueAssetCache.freshness(both)).isEqualTo(new VenueAssetCache.Freshness(true, 200));
+
+        BasicHttpResponse expires = response();
+        expires.addHeader("Date", "Wed, 21 Oct 2026 07:28:00 GMT");
+        expires.addHeader("Expires", "Wed, 21 Oct 2026 08:28:00 GMT");
+        assertThat(VenueAssetCache.freshness(expires)).isEqualTo(new VenueAssetCache.Freshness(true, 3600));
+
+        BasicHttpResponse phpSession = response();
+        phpSession.addHeader("Cache-Control", "no-store, no-cache, must-revalidate");
+        phpSession.addHeader("Pragma", "no-cache");
+        assertThat(VenueAssetCache.freshness(phpSession).storable()).isFalse();
+
+        BasicHttpResponse pragma = response();
+        pragma.addHeader("Pragma", "no-cache");
+        pragma.addHeader("Expires", "Wed, 21 Oct 2099 08:28:00 GMT");
+        assertThat(VenueAssetCache.freshness(pragma)).isEqualTo(new VenueAssetCache.Freshness(true, 0));
+    }
+
+    @Test
+    @DisplayName("本文は token の位置で分割して持つ")
+    void splitsBodyAtToken() {
+        byte[] token = "tok".getBytes(StandardCharsets.UTF_8);
+        List<byte[]> segments = VenueAssetCache.split("a?token=tok;b?token=tok".getBytes(StandardCharsets.UTF_8), token);
+
+        assertThat(segments).extracting(s -> new String(s, StandardCharsets.UTF_8))
+                .containsExactly("a?token=", ";b?token=", "");
+    }
+
+    // ========================================================================
+    // helpers
+    // ========================================================================
+
+    private String newSession() {
+        return sessionStore.createSession(VenueId.KADERU, 123L, "はまなす", LocalDate.of(2026, 4, 12), 2, null)
+                .getToken();
+    }
+
+    private ResponseEntity<byte[]> fetch(String token, String path, String query) {
+        MockHttpServletRequest request = new MockHttpServletRequest(
+                "GET", VenueReservationHtmlRewriter.PROXY_PREFIX + path);
+        request.setQueryString((query == null ? "" : query + "&") + "token=" + token);
+        return service.fetch(token, request);
+    }
+
+    private static String body(ResponseEntity<byte[]> response) {
+        return new String(response.getBody(), StandardCharsets.UTF_8);
+    }
+
+    private double requests(String result) {
+        return meterRegistry.get("venue_proxy.asset_cache.requests").tag("result", result).counter().count();
+    }
+
+    private static BasicHttpResponse response() {
+        return new BasicHttpResponse(new BasicStatusLine(HttpVersion.HTTP_1_1, 200, "OK"));
+    }
+}
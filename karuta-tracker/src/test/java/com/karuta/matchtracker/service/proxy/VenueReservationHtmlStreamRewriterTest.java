@@ -0,0 +1,279 @@
+package com.karuta.matchtracker.service.proxy;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.karuta.matchtracker.service.proxy.venue.VenueConfig;
+import com.karuta.matchtracker.service.proxy.venue.VenueRewriteStrategy;
+import com.karuta.matchtracker.service.proxy.venue.kaderu.KaderuRewriteStrategy;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.jsoup.Jsoup;
+import org.jsoup.nodes.Attribute;
+import org.jsoup.nodes.Comment;
+import org.jsoup.nodes.DataNode;
+import org.jsoup.nodes.Element;
+import org.jsoup.nodes.Node;
+import org.jsoup.nodes.TextNode;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.FilterReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * ストリーミング版の書き換え ({@link VenueReservationHtmlStreamRewriter}) が DOM 版と同じ結果になることの検証。
+ *
+ * <p>会場ページを模した HTML を WireMock から配信し、ストリーミング版はレスポンスの InputStream から
+ * そのまま書き換える。DOM 版は出力を整形するため文字列は一致しないので、両方の出力を Jsoup で読み直し、
+ * 要素・属性・スクリプト/スタイル/コメントの中身、空白を詰めたテキストの並びで比べる。</p>
+ */
+@DisplayName("VenueReservationHtmlStreamRewriter 同等性テスト (WireMock)")
+class VenueReservationHtmlStreamRewriterTest {
+
+    private static final String BASE_URL = "https://k2.p-kashikan.jp";
+    private static final String TOKEN = "tok-stream-123";
+
+    private WireMockServer wireMock;
+    private CloseableHttpClient httpClient;
+    private VenueReservationHtmlRewriter rewriter;
+    private VenueConfig venueConfig;
+    private ProxySession session;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort());
+        wireMock.start();
+        for (String page : List.of("kaderu-tray.html", "fragment.html", "no-head.html")) {
+            wireMock.stubFor(get(urlPathEqualTo("/kaderu27/" + page))
+                    .willReturn(aResponse()
+                            .withHeader("Content-Type", "text/html; charset=UTF-8")
+                            .withBody(fixture(page))));
+        }
+        httpClient = HttpClients.createDefault();
+
+        rewriter = new VenueReservationHtmlRewriter();
+        venueConfig = new VenueConfig() {
+            @Override public VenueId venue() { return VenueId.KADERU; }
+            @Override public String baseUrl() { return BASE_URL; }
+            @Override public String displayName() { return "かでる2・7"; }
+            @Override public Duration sessionTimeout() { return Duration.ofMinutes(15); }
+        };
+        session = ProxySession.builder()
+                .token(TOKEN)
+                .venue(VenueId.KADERU)
+                .practiceSessionId(123L)
+                .roomName("はまなす")
+                .date(LocalDate.of(2026, 4, 12))
+                .slotIndex(2)
+                .hiddenFields(new HashMap<>())
+                .build();
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        httpClient.close();
+        wireMock.stop();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @ValueSource(strings = {"kaderu-tray.html", "fragment.html", "no-head.html"})
+    @DisplayName("WireMock から取得したページを上流の InputStream から直接書き換え、DOM 版と同じ木になる")
+    void streamedFromUpstreamMatchesDomRewrite(String page) throws IOException {
+        String upstreamUrl = BASE_URL + "/kaderu27/" + page;
+        VenueRewriteStrategy strategy = new KaderuRewriteStrategy();
+
+        String streamed;
+        HttpGet request = new HttpGet("http://localhost:" + wireMock.port() + "/kaderu27/" + page);
+        try (CloseableHttpResponse response = httpClient.execute(request)) {
+            InputStream body = response.getEntity().getContent();
+            StringWriter out = new StringWriter();
+            rewriter.rewrite(new InputStreamReader(body, StandardCharsets.UTF_8), out,
+                    upstreamUrl, session, venueConfig, strategy, null);
+            streamed = out.toString();
+        }
+
+        String dom = rewriter.rewrite(fixture(page), upstreamUrl, session, venueConfig, strategy);
+        assertThat(canonical(streamed)).containsExactlyElementsOf(canonical(dom));
+        assertThat(streamed).contains(VenueReservationHtmlRewriter.PROXY_PREFIX);
+    }
+
+    @Test
+    @DisplayName("書き換え箇所以外は上流の表記をそのまま書く")
+    void untouchedMarkupKeepsUpstreamBytes() throws IOException {
+        String html = fixture("kaderu-tray.html");
+        String streamed = stream(html, new KaderuRewriteStrategy(), null);
+
+        assertThat(streamed).startsWith("<!DOCTYPE html>\n<html lang=\"ja\">\n<head>\n<meta charset=\"UTF-8\">");
+        assertThat(streamed).contains("<!-- ヘッダー <a href=\"index.php?p=old\">旧メニュー</a> -->");
+        assertThat(streamed).contains("<textarea name=\"memo\" rows=\"3\"><a href=\"index.php?p=x\">タグではない</a> &amp; 備考</textarea>");
+        assertThat(streamed).contains("<input type=\"hidden\" name=\"csrf\" value=\"a&amp;b&quot;c\">");
+        assertThat(streamed).contains("<a href=\"https://www.kaderu27.or.jp/\" target=\"_blank\">");
+        assertThat(streamed).doesNotContain("<base ");
+        // 文字参照を解いてから書き換え、& は参照に戻して書く
+        assertThat(streamed).contains("action=\"" + VenueReservationHtmlRewriter.PROXY_PREFIX
+                + "/kaderu27/index.php?p=apply&amp;date=2026-04-12&amp;token=" + TOKEN + "\"");
+    }
+
+    @Test
+    @DisplayName("注入スクリプトは head の最後、バナーは body の先頭に入る")
+    void injectsScriptIntoHeadAndBannerIntoBody() throws IOException {
+        for (String page : List.of("kaderu-tray.html", "fragment.html", "no-head.html")) {
+            org.jsoup.nodes.Document doc = Jsoup.parse(stream(fixture(page), new KaderuRewriteStrategy(), null));
+
+            Element lastInHead = doc.head().children().last();
+            assertThat(lastInHead).as(page).isNotNull();
+            assertThat(lastInHead.hasClass("vrp-injector")).as(page).isTrue();
+            assertThat(doc.select(".vrp-injector")).as(page).hasSize(1);
+            Element bannerStyle = doc.getElementById("vrp-banner-style");
+            assertThat(bannerStyle).as(page).isNotNull();
+            assertThat(bannerStyle.parent()).as(page + ": バナーは body の先頭").isEqualTo(doc.body());
+            assertThat(bannerStyle.elementSiblingIndex()).as(page).isZero();
+        }
+    }
+
+    @Test
+    @DisplayName("beforeBodyEnd は最初の </body> の直前、</body> が無ければ末尾に書く")
+    void beforeBodyEndWrittenOnce() throws IOException {
+        String marker = "<script>done()</script>";
+
+        String withBody = stream("<html><body><p>完了</p></body></html>", new KaderuRewriteStrategy(), marker);
+        assertThat(withBody).endsWith("<p>完了</p>" + marker + "</body></html>");
+
+        String withoutBody = stream("<p>完了</p>", new KaderuRewriteStrategy(), marker);
+        assertThat(withoutBody).endsWith("<p>完了</p>" + marker);
+        assertThat(withoutBody.indexOf(marker)).isEqualTo(withoutBody.lastIndexOf(marker));
+    }
+
+    @Test
+    @DisplayName("会場固有の事前書き換えを行う strategy も DOM 版と同じ入力で書き換える")
+    void venueSpecificPreRewriteApplied() throws IOException {
+        VenueRewriteStrategy strategy = new VenueRewriteStrategy() {
+            @Override public VenueId venue() { return VenueId.KADERU; }
+            @Override public String rewriteHtml(String html, String proxyToken) {
+                return html.replace("申込トレイ</h1>", "申込トレイ (" + proxyToken + ")</h1>");
+            }
+            @Override public String injectScript() { return "window.__venueHook = true;"; }
+        };
+        String html = fixture("kaderu-tray.html");
+
+        String streamed = stream(html, strategy, null);
+        String dom = rewriter.rewrite(html, BASE_URL + "/kaderu27/index.php", session, venueConfig, strategy);
+
+        assertThat(streamed).contains("申込トレイ (" + TOKEN + ")</h1>").contains("window.__venueHook = true;");
+        assertThat(canonical(streamed)).containsExactlyElementsOf(canonical(dom));
+    }
+
+    @Test
+    @DisplayName("読み込みバッファより大きいページを細切れに読んでも DOM 版と同じ木になる")
+    void largePageReadInSmallChunks() throws IOException {
+        StringBuilder html = new StringBuilder("<html><head><title>一覧</title></head><body><table>");
+        for (int i = 0; i < 2000; i++) {
+            html.append("<tr><td><a href=\"index.php?p=day&amp;d=").append(i).append("\">")
+                    .append(i).append("</a></td><td><img src='img/").append(i % 7).append(".png'></td></tr>\n");
+        }
+        html.append("</table><script>var u = \"").append(BASE_URL).append("/kaderu27/x.php\";</script></body></html>");
+        String upstreamUrl = BASE_URL + "/kaderu27/index.php";
+        VenueRewriteStrategy strategy = new KaderuRewriteStrategy();
+
+        StringWriter out = new StringWriter();
+        rewriter.rewrite(new ChunkedReader(new StringReader(html.toString()), 7), out,
+                upstreamUrl, session, venueConfig, strategy, null);
+        String dom = rewriter.rewrite(html.toString(), upstreamUrl, session, venueConfig, strategy);
+
+        assertThat(canonical(out.toString())).containsExactlyElementsOf(canonical(dom));
+    }
+
+    @Test
+    @DisplayName("空の入力は空のまま")
+    void emptyInputWritesNothing() throws IOException {
+        assertThat(stream("", new KaderuRewriteStrategy(), null)).isEmpty();
+    }
+
+    // ========================================================================
+    // helpers
+    // ========================================================================
+
+    private String stream(String html, VenueRewriteStrategy strategy, String beforeBodyEnd) throws IOException {
+        StringWriter out = new StringWriter();
+        rewriter.rewrite(new StringReader(html), out, BASE_URL + "/kaderu27/index.php",
+                session, venueConfig, strategy, beforeBodyEnd);
+        return out.toString();
+    }
+
+    private static String fixture(String name) throws IOException {
+        try (InputStream in = VenueReservationHtmlStreamRewriterTest.class
+                .getResourceAsStream("/venue-proxy/" + name)) {
+            assertThat(in).as(name).isNotNull();
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+
+    /**
+     * HTML を読み直した木を、比較用の行の並びにする。整形で増減する空白だけのテキストは除き、
+     * テキストは空白を詰めて比べる。スクリプト・スタイル・コメントの中身はそのまま比べる。
+     */
+    private static List<String> canonical(String html) {
+        List<String> lines = new ArrayList<>();
+        Jsoup.parse(html).traverse((Node node, int depth) -> {
+            String line;
+            if (node instanceof Element el) {
+                StringBuilder sb = new StringBuilder("<").append(el.tagName());
+                for (Attribute attr : el.attributes()) {
+                    sb.append(' ').append(attr.getKey()).append("=\"").append(attr.getValue()).append('"');
+                }
+                line = sb.append('>').toString();
+            } else if (node instanceof TextNode text) {
+                String collapsed = text.getWholeText().replaceAll("\\s+", " ").trim();
+                if (collapsed.isEmpty()) {
+                    return;
+                }
+                line = "#text " + collapsed;
+            } else if (node instanceof DataNode data) {
+                line = "#data " + data.getWholeData();
+            } else if (node instanceof Comment comment) {
+                line = "#comment " + comment.getData();
+            } else {
+                line = node.nodeName();
+            }
+            lines.add(depth + " " + line);
+        });
+        return lines;
+    }
+
+    /** 1回の read で最大 chunk 文字しか返さない Reader (読み込みバッファの境界をまたぐ確認用) */
+    private static final class ChunkedReader extends FilterReader {
+        private final int chunk;
+
+        ChunkedReader(Reader in, int chunk) {
+            super(in);
+            this.chunk = chunk;
+        }
+
+        @Override
+        public int read(char[] cbuf, int off, int len) throws IOException {
+            return super.read(cbuf, off, Math.min(len, chunk));
+        }
+    }
+}
@@ -8,6 +8,7 @@ import com.karuta.matchtracker.exception.ResourceNotFoundException;
 import com.karuta.matchtracker.repository.PracticeSessionRepository;
 import com.karuta.matchtracker.service.proxy.venue.VenueConfig;
 import com.karuta.matchtracker.service.proxy.venue.VenueRewriteStrategy;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.http.HttpEntityEnclosingRequest;
 import org.apache.http.HttpVersion;
 import org.apache.http.StatusLine;
@@ -487,6 +488,38 @@ class VenueReservationProxyServiceTest {
             assertThat(response.getHeaders().getFirst("X-VRP-Completed")).isEqualTo("true");
         }
 
+        @Test
+        @DisplayName("streaming-rewrite 有効時も完了レスポンスの dispatch スクリプトを </body> 直前に書く")
+        void streamingRewriteInjectsCompletionDispatchScriptBeforeBodyClose() throws Exception {
+            VenueReservationHtmlRewriter rewriter = new VenueReservationHtmlRewriter();
+            VenueReservationProxyConfig config = enabledConfig();
+            config.setStreamingRewrite(true);
+            VenueReservationProxyService service = newService(config, rewriter);
+            ProxySession session = session();
+            when(sessionStore.get(TOKEN)).thenReturn(Optional.of(session));
+
+            CloseableHttpResponse upstreamResponse = htmlResponse(
+                    "<html><head><title>完了</title></head>"
+                            + "<body><h1>予約完了しました</h1><a href=\"index.php?p=top\">戻る</a></body></html>");
+            when(client.fetch(eq(session), any())).thenReturn(upstreamResponse);
+            when(completionDetector.detectAndMarkComplete(any(), any(), any(), any()))
+                    .thenReturn(true);
+
+            MockHttpServletRequest request = new MockHttpServletRequest(
+                    "GET",
+                    "/api/venue-reservation-proxy/fetch/kaderu27/index.php");
+            request.setQueryString("p=apply&token=" + TOKEN);
+
+            ResponseEntity<byte[]> response = service.fetch(TOKEN, request);
+
+            String body = new String(response.getBody(), StandardCharsets.UTF_8);
+            assertThat(body).contains("<h1>予約完了しました</h1>");
+            assertThat(body).contains(VenueReservationHtmlRewriter.PROXY_PREFIX + "/kaderu27/index.php?p=top");
+            assertThat(body).endsWith("<script>try{window.dispatchEvent(new CustomEvent(\"vrp-reservation-completed\"));}catch(e){}</script></body></html>");
+            assertThat(response.getHeaders().getContentLength()).isEqualTo(response.getBody().length);
+            assertThat(response.getHeaders().getFirst("X-VRP-Completed")).isEqualTo("true");
+        }
+
         @Test
         @DisplayName("完了未検知の HTML レスポンスには dispatch スクリプトを挿入しない")
         void doesNotInjectDispatchScriptWhenNotCompleted() throws Exception {
@@ -667,6 +700,7 @@ class VenueReservationProxyServiceTest {
                 sessionStore,
                 rewriter,
                 completionDetector,
+                new VenueAssetCache(new SimpleMeterRegistry()),
                 practiceSessionRepository,
                 List.of(client),
                 List.of(venueConfig),
@@ -0,0 +1,238 @@
+package com.karuta.matchtracker.service.proxy.venue.kaderu;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.karuta.matchtracker.config.VenueReservationProxyConfig;
+import com.karuta.matchtracker.service.proxy.ProxySession;
+import com.karuta.matchtracker.service.proxy.VenueHttpClientFactory;
+import com.karuta.matchtracker.service.proxy.VenueId;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.BasicCookieStore;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathMatching;
+import static com.github.tomakehurst.wiremock.core.WireMockConfiguration.wireMockConfig;
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 多数のプロキシセッションが同時にサブリソースを取得したときの {@link KaderuReservationClient} の負荷テスト。
+ *
+ * <p>応答に {@link #UPSTREAM_DELAY_MS} かかる WireMock の会場サイトに、{@link #SESSIONS} セッションが
+ * 同時に {@link #FETCHES_PER_SESSION} 回ずつ GET する。所要時間の絶対値は環境で揺れるため測らず、
+ * 接続プールのメトリクスから、全要求がプール経由で接続を借りたことと、開いた接続が
+ * ルートごとの上限以内に収まり要求をまたいで使い回されたことを確かめる。</p>
+ *
+ * <p>待ち時間は、同じ負荷で既定のプールと上限を絞ったプールを比べて確かめる。
+ * 借り出しの待ち時間 ({@code venue_proxy.http.pool.lease}) の合計の比と、負荷の最中に採った
+ * 空き待ちの数 ({@code httpcomponents.httpclient.pool.total.pending}) で見るため、
+ * 実行環境の速さに左右されない。</p>
+ */
+@DisplayName("KaderuReservationClient 負荷テスト (WireMock)")
+class KaderuReservationClientLoadTest {
+
+    private static final int SESSIONS = 32;
+    private static final int FETCHES_PER_SESSION = 3;
+    private static final int UPSTREAM_DELAY_MS = 20;
+    /** 上限を絞ったプールの借り出し待ちの合計が、既定のプールの何倍以上になるべきか */
+    private static final double MIN_CAPPED_WAIT_RATIO = 5.0;
+
+    private WireMockServer wireMock;
+
+    @BeforeEach
+    void setUp() {
+        wireMock = new WireMockServer(wireMockConfig().dynamicPort().containerThreads(SESSIONS * 2));
+        wireMock.start();
+        wireMock.stubFor(get(urlPathMatching("/kaderu27/(css|script|img)/.*"))
+                .willReturn(aResponse()
+                        .withHeader("Content-Type", "text/css; charset=UTF-8")
+                        .withBody(".tray { color: #333; }")
+                        .withFixedDelay(UPSTREAM_DELAY_MS)));
+    }
+
+    @AfterEach
+    void tearDown() {
+        wireMock.stop();
+    }
+
+    @Test
+    @DisplayName("同時セッションの要求は全てプールから接続を借り、開いた接続はルートごとの上限以内で使い回される")
+    void pooledClientReusesConnectionsWithinRouteCap() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VenueReservationProxyConfig proxyConfig = config();
+
+        assertPooledLoad(proxyConfig, meterRegistry);
+
+        // 接続プールの状態 (上限・空き待ち) も会場タグ付きで出る
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.route.max.default")
+                .tag("httpclient", "venue-kaderu").gauge().value())
+                .isEqualTo(proxyConfig.getMaxConnectionsPerRoute());
+        assertThat(meterRegistry.find("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", "venue-kaderu").gauge()).isNotNull();
+    }
+
+    @Test
+    @DisplayName("ルートごとの上限を絞ると、開く接続はその本数を超えず、超えた要求は空きを待って同じ接続を使う")
+    void routeCapBoundsOpenConnections() throws Exception {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        VenueReservationProxyConfig proxyConfig = config();
+        proxyConfig.setMaxConnectionsPerRoute(2);
+
+        assertPooledLoad(proxyConfig, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("既定のプールは同じ負荷で、上限を絞ったプールより接続の借り出し待ちが大幅に短い")
+    void defaultPoolKeepsLeaseWaitFarBelowCappedPool() throws Exception {
+        SimpleMeterRegistry defaultRegistry = new SimpleMeterRegistry();
+        double defaultPending = assertPooledLoad(config(), defaultRegistry);
+
+        wireMock.resetRequests();
+        SimpleMeterRegistry cappedRegistry = new SimpleMeterRegistry();
+        VenueReservationProxyConfig capped = config();
+        capped.setMaxConnectionsPerRoute(2);
+        double cappedPending = assertPooledLoad(capped, cappedRegistry);
+
+        // 上限2本では要求の大半が空きを待つ。既定のプールの待ちはその一部にとどまる
+        assertThat(cappedPending).isGreaterThan(defaultPending);
+        assertThat(leaseWait(cappedRegistry, TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(MIN_CAPPED_WAIT_RATIO * leaseWait(defaultRegistry, TimeUnit.MILLISECONDS));
+        assertThat(leaseMaxWait(defaultRegistry, TimeUnit.MILLISECONDS))
+                .isLessThan(leaseMaxWait(cappedRegistry, TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * 負荷をかけ、クライアントを閉じる前のプールの状態を確かめる。
+     * 要求数より少ない接続で全要求を捌けていれば、接続が要求をまたいで使い回されている。
+     *
+     * @return 負荷の最中に採った空き待ちの数の最大
+     */
+    private double assertPooledLoad(VenueReservationProxyConfig proxyConfig, SimpleMeterRegistry meterRegistry)
+            throws Exception {
+        int requests = SESSIONS * FETCHES_PER_SESSION;
+        double maxPending = runLoad(proxyConfig, meterRegistry, () -> {
+            double open = poolConnections(meterRegistry, "available") + poolConnections(meterRegistry, "leased");
+            assertThat(poolConnections(meterRegistry, "leased")).isZero();
+            assertThat(open).isPositive().isLessThanOrEqualTo(proxyConfig.getMaxConnectionsPerRoute());
+        });
+
+        assertThat(meterRegistry.get("venue_proxy.http.pool.lease")
+                .tag("venue", "kaderu").tag("outcome", "acquired").timer().count()).isEqualTo(requests);
+        assertThat(meterRegistry.get("venue_proxy.http.pool.lease")
+                .tag("venue", "kaderu").tag("outcome", "timeout").timer().count()).isZero();
+        assertThat(wireMock.getAllServeEvents()).hasSize(requests);
+        assertThat(maxPending).isLessThanOrEqualTo(SESSIONS - proxyConfig.getMaxConnectionsPerRoute());
+        return maxPending;
+    }
+
+    private static double leaseWait(SimpleMeterRegistry meterRegistry, TimeUnit unit) {
+        return meterRegistry.get("venue_proxy.http.pool.lease")
+                .tag("venue", "kaderu").tag("outcome", "acquired").timer().totalTime(unit);
+    }
+
+    private static double leaseMaxWait(SimpleMeterRegistry meterRegistry, TimeUnit unit) {
+        return meterRegistry.get("venue_proxy.http.pool.lease")
+                .tag("venue", "kaderu").tag("outcome", "acquired").timer().max(unit);
+    }
+
+    private static double pending(SimpleMeterRegistry meterRegistry) {
+        return meterRegistry.get("httpcomponents.httpclient.pool.total.pending")
+                .tag("httpclient", "venue-kaderu").gauge().value();
+    }
+
+    private static double poolConnections(SimpleMeterRegistry meterRegistry, String state) {
+        return meterRegistry.get("httpcomponents.httpclient.pool.total.connections")
+                .tag("httpclient", "venue-kaderu").tag("state", state).gauge().value();
+    }
+
+    private VenueReservationProxyConfig config() {
+        VenueReservationProxyConfig proxyConfig = new VenueReservationProxyConfig();
+        proxyConfig.setRequestTimeoutSeconds(30);
+        VenueReservationProxyConfig.VenueProperties kaderu = new VenueReservationProxyConfig.VenueProperties();
+        kaderu.setEnabled(true);
+        kaderu.setBaseUrl("http://localhost:" + wireMock.port());
+        proxyConfig.getVenues().put("kaderu", kaderu);
+        return proxyConfig;
+    }
+
+    /**
+     * 全セッションを同時に走らせ、全要求が終わってクライアントを閉じる前に {@code beforeClose} を呼ぶ。
+     * 走っている間は空き待ちの数を採り続け、その最大を返す。
+     */
+    private double runLoad(VenueReservationProxyConfig proxyConfig, SimpleMeterRegistry meterRegistry,
+                           Runnable beforeClose) throws Exception {
+        KaderuVenueConfig venueConfig = new KaderuVenueConfig(proxyConfig);
+        KaderuReservationClient client = new KaderuReservationClient(proxyConfig, venueConfig,
+                new VenueHttpClientFactory(proxyConfig, meterRegistry));
+        client.initHttpClient();
+        ExecutorService executor = Executors.newFixedThreadPool(SESSIONS);
+        try {
+            CountDownLatch start = new CountDownLatch(1);
+            List<Future<?>> futures = new ArrayList<>();
+            for (int s = 0; s < SESSIONS; s++) {
+                ProxySession session = newSession();
+                String base = venueConfig.baseUrl();
+                futures.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < FETCHES_PER_SESSION; i++) {
+                        try (CloseableHttpResponse response =
+                                     client.fetch(session, new HttpGet(base + "/kaderu27/css/style" + i + ".css"))) {
+                            EntityUtils.consume(response.getEntity());
+                            assertThat(response.getStatusLine().getStatusCode()).isEqualTo(200);
+                        }
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            double maxPending = 0;
+            long deadline = System.nanoTime() + TimeUnit.MINUTES.toNanos(2);
+            while (!futures.stream().allMatch(Future::isDone) && System.nanoTime() < deadline) {
+                maxPending = Math.max(maxPending, pending(meterRegistry));
+                Thread.sleep(1);
+            }
+            for (Future<?> future : futures) {
+                future.get(2, TimeUnit.MINUTES);
+            }
+            beforeClose.run();
+            return maxPending;
+        } finally {
+            executor.shutdownNow();
+            client.closeHttpClient();
+        }
+    }
+
+    private static ProxySession newSession() {
+        return ProxySession.builder()
+                .token(UUID.randomUUID().toString())
+                .venue(VenueId.KADERU)
+                .practiceSessionId(123L)
+                .roomName("はまなす")
+                .date(LocalDate.of(2026, 4, 12))
+                .slotIndex(2)
+                .cookies(new BasicCookieStore())
+                .hiddenFields(new HashMap<>())
+                .createdAt(Instant.now())
+                .lastAccessedAt(Instant.now())
+                .completed(false)
+                .build();
+    }
+}
@@ -4,8 +4,10 @@ import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.karuta.matchtracker.config.VenueReservationProxyConfig;
 import com.karuta.matchtracker.service.proxy.ProxySession;
+import com.karuta.matchtracker.service.proxy.VenueHttpClientFactory;
 import com.karuta.matchtracker.service.proxy.VenueId;
 import com.karuta.matchtracker.service.proxy.VenueReservationProxyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.apache.http.NameValuePair;
 import org.apache.http.client.methods.CloseableHttpResponse;
 import org.apache.http.client.methods.HttpGet;
@@ -82,7 +84,8 @@ class KaderuReservationClientTest {
         proxyConfig.getVenues().put("kaderu", kaderu);
 
         venueConfig = new KaderuVenueConfig(proxyConfig);
-        client = new KaderuReservationClient(proxyConfig, venueConfig);
+        client = new KaderuReservationClient(proxyConfig, venueConfig,
+                new VenueHttpClientFactory(proxyConfig, new SimpleMeterRegistry()));
         client.initHttpClient();
     }
 
@@ -58,7 +58,7 @@ public final class AuthTestSupport {
     }
 
     /**
-     * 合成トークンから主体を復元する。モックした {@link AuthTokenService#verify} の実装として使う。
+     * 合成トークンから主体を復元する。モックした {@link AuthTokenService#authenticate} の実装として使う。
      *
      * @param rawToken 生トークン
      * @return 合成トークンなら対応する選手。それ以外（未認証・不正トークン）は empty
@@ -88,10 +88,12 @@ public final class AuthTestSupport {
      *
      * @param authTokenService モック化された AuthTokenService
      */
-    public static void stubVerify(AuthTokenService authTokenService) {
-        // nullable: 未認証リクエストではトークンが null のまま verify に渡るため、
+    public static void stubAuthenticate(AuthTokenService authTokenService) {
+        // nullable: 未認証リクエストではトークンが null のまま authenticate に渡るため、
         // null も含めてマッチさせる（anyString() だと null がマッチせず素の mock が null を返す）
-        when(authTokenService.verify(nullable(String.class)))
-                .thenAnswer(invocation -> resolve(invocation.getArgument(0)));
+        when(authTokenService.authenticate(nullable(String.class)))
+                .thenAnswer(invocation -> resolve(invocation.getArgument(0))
+                        .map(player -> new AuthTokenService.AuthenticatedPlayer(
+                                player.getId(), player.getRole(), player.getAdminOrganizationId())));
     }
 }
@@ -22,6 +22,6 @@ public abstract class BaseControllerTest {
 
     @BeforeEach
     void stubAuthTokenService() {
-        AuthTestSupport.stubVerify(authTokenService);
+        AuthTestSupport.stubAuthenticate(authTokenService);
     }
 }